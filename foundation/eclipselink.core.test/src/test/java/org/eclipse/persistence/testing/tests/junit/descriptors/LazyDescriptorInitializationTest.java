@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.descriptors;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.exceptions.DescriptorException;
+import org.eclipse.persistence.internal.queries.MappedKeyMapContainerPolicy;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.mappings.ManyToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Test;
+
+public class LazyDescriptorInitializationTest {
+
+    public static class Address {
+        public long id;
+    }
+
+    public static class Employee {
+        public long id;
+        public String type;
+        public Address address;
+    }
+
+    public static class Manager extends Employee {
+    }
+
+    public static class Invoice {
+        public long id;
+    }
+
+    public interface Payable {
+    }
+
+    public static class Office {
+        public long id;
+    }
+
+    public static class Department {
+        public long id;
+        public Map<Office, Invoice> invoices = new HashMap<>();
+    }
+
+    /**
+     * Session exposing the descriptor it cached for its next lookup.
+     */
+    public static class LookupSession extends DatabaseSessionImpl {
+        public LookupSession(Project project) {
+            super(project);
+        }
+
+        public ClassDescriptor getLastDescriptorAccessed() {
+            return this.lastDescriptorAccessed;
+        }
+    }
+
+    /**
+     * Mapping looking up its reference descriptor while it is initialized, before the descriptor is.
+     */
+    public static class LookupMapping extends OneToOneMapping {
+        public boolean isReferenceDescriptorUninitialized;
+        public ClassDescriptor cachedDescriptor;
+
+        @Override
+        public void initialize(AbstractSession session) throws DescriptorException {
+            ClassDescriptor descriptor = session.getDescriptor(getReferenceClass());
+            if (!descriptor.isFullyInitialized()) {
+                this.isReferenceDescriptorUninitialized = true;
+                this.cachedDescriptor = ((LookupSession)session).getLastDescriptorAccessed();
+            }
+            super.initialize(session);
+        }
+    }
+
+    private DatabaseSessionImpl session;
+
+    private static RelationalDescriptor descriptor(Class<?> javaClass, String tableName) {
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(javaClass);
+        descriptor.setTableName(tableName);
+        descriptor.setPrimaryKeyFieldName("ID");
+        descriptor.addDirectMapping("id", "ID");
+        return descriptor;
+    }
+
+    private DatabaseSessionImpl login(boolean lazy) {
+        return login(lazy, new OneToOneMapping());
+    }
+
+    private DatabaseSessionImpl login(boolean lazy, OneToOneMapping address) {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(EmulatedDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        project.addDescriptor(descriptor(Address.class, "ADDRESS"));
+        RelationalDescriptor employee = descriptor(Employee.class, "EMPLOYEE");
+        employee.addDirectMapping("type", "TYPE");
+        employee.getInheritancePolicy().setClassIndicatorFieldName("TYPE");
+        employee.getInheritancePolicy().addClassIndicator(Employee.class, "E");
+        employee.getInheritancePolicy().addClassIndicator(Manager.class, "M");
+        address.setAttributeName("address");
+        address.setReferenceClass(Address.class);
+        address.addForeignKeyFieldName("EMPLOYEE.ADDRESS_ID", "ADDRESS.ID");
+        address.dontUseIndirection();
+        employee.addMapping(address);
+        project.addDescriptor(employee);
+        RelationalDescriptor manager = new RelationalDescriptor();
+        manager.setJavaClass(Manager.class);
+        manager.getInheritancePolicy().setParentClass(Employee.class);
+        project.addDescriptor(manager);
+        project.addDescriptor(descriptor(Invoice.class, "INVOICE"));
+        project.addDescriptor(descriptor(Office.class, "OFFICE"));
+        RelationalDescriptor department = descriptor(Department.class, "DEPARTMENT");
+        ManyToManyMapping invoices = new ManyToManyMapping();
+        invoices.setAttributeName("invoices");
+        invoices.setReferenceClass(Invoice.class);
+        invoices.setRelationTableName("DEPARTMENT_INVOICE");
+        invoices.addSourceRelationKeyFieldName("DEPARTMENT_INVOICE.DEPARTMENT_ID", "DEPARTMENT.ID");
+        invoices.addTargetRelationKeyFieldName("DEPARTMENT_INVOICE.INVOICE_ID", "INVOICE.ID");
+        invoices.dontUseIndirection();
+        OneToOneMapping office = new OneToOneMapping();
+        office.setReferenceClass(Office.class);
+        office.addForeignKeyFieldName("DEPARTMENT_INVOICE.OFFICE_ID", "OFFICE.ID");
+        office.dontUseIndirection();
+        office.setDescriptor(department);
+        MappedKeyMapContainerPolicy policy = new MappedKeyMapContainerPolicy(HashMap.class);
+        policy.setKeyMapping(office);
+        policy.setValueMapping(invoices);
+        invoices.setContainerPolicy(policy);
+        department.addMapping(invoices);
+        project.addDescriptor(department);
+        project.setLazyDescriptorInitialization(lazy);
+        session = new LookupSession(project);
+        session.dontLogMessages();
+        session.login();
+        return session;
+    }
+
+    @After
+    public void logout() {
+        if ((session != null) && session.isConnected()) {
+            session.logout();
+        }
+    }
+
+    @Test
+    public void descriptorsAreInitializedOnLogin() {
+        login(false);
+        for (ClassDescriptor descriptor : session.getDescriptors().values()) {
+            assertTrue(descriptor.isFullyInitialized());
+        }
+        assertEquals(6, session.getCommitManager().getCommitOrder().size());
+    }
+
+    @Test
+    public void descriptorIsInitializedWithHierarchyAndReferences() {
+        login(true);
+        for (ClassDescriptor descriptor : session.getDescriptors().values()) {
+            assertFalse(descriptor.isFullyInitialized());
+        }
+        assertTrue(session.getCommitManager().getCommitOrder().isEmpty());
+
+        ClassDescriptor manager = session.getDescriptor(Manager.class);
+        assertTrue(manager.isFullyInitialized());
+        assertTrue(session.getProject().getDescriptors().get(Employee.class).isFullyInitialized());
+        assertTrue(session.getProject().getDescriptors().get(Address.class).isFullyInitialized());
+        assertFalse(session.getProject().getDescriptors().get(Invoice.class).isFullyInitialized());
+        assertSame(session.getDescriptor(Address.class), manager.getMappingForAttributeName("address").getReferenceDescriptor());
+        List commitOrder = session.getCommitManager().getCommitOrder();
+        assertEquals(3, commitOrder.size());
+        assertTrue(commitOrder.indexOf(Address.class) < commitOrder.indexOf(Employee.class));
+
+        assertTrue(session.acquireUnitOfWork().getDescriptor(Invoice.class).isFullyInitialized());
+        assertEquals(4, session.getCommitManager().getCommitOrder().size());
+    }
+
+    @Test
+    public void mapKeyDescriptorIsInitialized() {
+        login(true);
+        ClassDescriptor department = session.getDescriptor(Department.class);
+        assertTrue(department.isFullyInitialized());
+        assertTrue(session.getProject().getDescriptors().get(Invoice.class).isFullyInitialized());
+        assertTrue(session.getProject().getDescriptors().get(Office.class).isFullyInitialized());
+        assertFalse(session.getProject().getDescriptors().get(Employee.class).isFullyInitialized());
+        assertSame(session.getDescriptor(Office.class), department.getMappingForAttributeName("invoices").getContainerPolicy().getDescriptorForMapKey());
+    }
+
+    @Test
+    public void descriptorBeingInitializedIsNotCached() {
+        LookupMapping address = new LookupMapping();
+        login(true, address);
+        assertTrue(session.getDescriptor(Employee.class).isFullyInitialized());
+        assertTrue(address.isReferenceDescriptorUninitialized);
+        // The uninitialized descriptor looked up during initialization would be returned to other threads without waiting.
+        assertNotEquals(Address.class, (address.cachedDescriptor == null) ? null : address.cachedDescriptor.getJavaClass());
+        assertSame(session.getDescriptor(Address.class), ((LookupSession)session).getLastDescriptorAccessed());
+    }
+
+    @Test
+    public void unsupportedProjectIsInitializedOnLoginAndLeftUnchanged() {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(EmulatedDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        project.addDescriptor(descriptor(Invoice.class, "INVOICE"));
+        RelationalDescriptor payable = new RelationalDescriptor();
+        payable.setJavaInterface(Payable.class);
+        project.addDescriptor(payable);
+        project.setLazyDescriptorInitialization(true);
+        session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.login();
+        // Interface descriptors require all descriptors to be initialized on login.
+        assertFalse(session.usesLazyDescriptorInitialization());
+        assertTrue(session.getProject().getDescriptors().get(Invoice.class).isFullyInitialized());
+        assertTrue(project.isLazyDescriptorInitialization());
+    }
+
+    @Test
+    public void concurrentFirstUseInitializesOnce() throws Exception {
+        login(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<ClassDescriptor>> lookups = new ArrayList<>();
+            for (int index = 0; index < 8; index++) {
+                Class<?> javaClass = ((index % 2) == 0) ? Employee.class : Address.class;
+                lookups.add(() -> session.acquireUnitOfWork().getDescriptor(javaClass));
+            }
+            for (Future<ClassDescriptor> lookup : executor.invokeAll(lookups)) {
+                assertTrue(lookup.get().isFullyInitialized());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(3, session.getCommitManager().getCommitOrder().size());
+    }
+}
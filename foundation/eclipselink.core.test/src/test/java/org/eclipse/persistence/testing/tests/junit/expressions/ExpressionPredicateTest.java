@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.expressions;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.exceptions.QueryException;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.expressions.ExpressionPredicate;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
+import org.eclipse.persistence.queries.ReportQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Conforms objects through the compiled predicate of an expression and through the expression itself,
+ * expecting the same result, or the same exception.
+ */
+public class ExpressionPredicateTest {
+
+    public static class Employee {
+        public long id;
+        public String name;
+        public Integer salary;
+        public List<Phone> phones = new ArrayList<>();
+
+        Employee(long id, String name, Integer salary, String... numbers) {
+            this.id = id;
+            this.name = name;
+            this.salary = salary;
+            for (String number : numbers) {
+                Phone phone = new Phone();
+                phone.number = number;
+                phones.add(phone);
+            }
+        }
+
+        public Employee() {
+        }
+    }
+
+    public static class Phone {
+        public long id;
+        public String number;
+    }
+
+    private DatabaseSessionImpl session;
+    private List<Employee> employees;
+
+    @Before
+    public void login() {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(EmulatedDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        RelationalDescriptor phone = new RelationalDescriptor();
+        phone.setJavaClass(Phone.class);
+        phone.setTableName("PHONE");
+        phone.setPrimaryKeyFieldName("ID");
+        phone.addDirectMapping("id", "ID");
+        phone.addDirectMapping("number", "NUMBER");
+        project.addDescriptor(phone);
+        RelationalDescriptor employee = new RelationalDescriptor();
+        employee.setJavaClass(Employee.class);
+        employee.setTableName("EMPLOYEE");
+        employee.setPrimaryKeyFieldName("ID");
+        employee.addDirectMapping("id", "ID");
+        employee.addDirectMapping("name", "NAME");
+        employee.addDirectMapping("salary", "SALARY");
+        OneToManyMapping phones = new OneToManyMapping();
+        phones.setAttributeName("phones");
+        phones.setReferenceClass(Phone.class);
+        phones.addTargetForeignKeyFieldName("PHONE.EMP_ID", "EMPLOYEE.ID");
+        phones.dontUseIndirection();
+        phones.useCollectionClass(ArrayList.class);
+        employee.addMapping(phones);
+        project.addDescriptor(employee);
+        session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.login();
+
+        employees = Arrays.asList(
+                new Employee(1, "Bob", 100, "111", "222"),
+                new Employee(2, null, 200, "333"),
+                new Employee(3, "Sue", null),
+                new Employee(4, null, null, (String)null));
+    }
+
+    @After
+    public void logout() {
+        if ((session != null) && session.isConnected()) {
+            session.logout();
+        }
+    }
+
+    private ExpressionBuilder builder() {
+        ExpressionBuilder builder = new ExpressionBuilder(Employee.class);
+        builder.setSession(session);
+        return builder;
+    }
+
+    private static AbstractRecord row(String name, Object value) {
+        AbstractRecord row = new DatabaseRecord();
+        row.put(name, value);
+        return row;
+    }
+
+    /**
+     * Return the predicate of the expression, after checking it conforms each employee as the expression does.
+     */
+    private ExpressionPredicate assertConformsAsInterpreted(Expression expression, AbstractRecord row) {
+        ExpressionPredicate predicate = expression.getConformPredicate();
+        for (Employee employee : employees) {
+            Object interpreted;
+            try {
+                interpreted = expression.doesConform(employee, session, row, InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION, false);
+            } catch (QueryException exception) {
+                interpreted = exception.getErrorCode();
+            }
+            Object compiled;
+            try {
+                compiled = predicate.doesConform(employee, session, row, InMemoryQueryIndirectionPolicy.SHOULD_THROW_INDIRECTION_EXCEPTION, false);
+            } catch (QueryException exception) {
+                compiled = exception.getErrorCode();
+            }
+            assertEquals(expression + " of employee " + employee.id, interpreted, compiled);
+        }
+        return predicate;
+    }
+
+    @Test
+    public void comparisonsAreCompiled() {
+        ExpressionBuilder builder = builder();
+        Expression[] expressions = {
+                builder.get("name").equal("Bob"),
+                builder.get("salary").greaterThan(150),
+                builder.get("salary").lessThanEqual(100).or(builder.get("name").notEqual("Sue")),
+                builder.get("name").equal("Bob").and(builder.get("salary").equal(100)).not()};
+        for (Expression expression : expressions) {
+            assertFalse(expression.toString(), assertConformsAsInterpreted(expression, null).isInterpreted());
+        }
+    }
+
+    @Test
+    public void nullsConformAsInterpreted() {
+        ExpressionBuilder builder = builder();
+        Expression[] expressions = {
+                builder.get("name").isNull(),
+                builder.get("name").notNull(),
+                builder.get("name").notEqual("Bob"),
+                builder.get("salary").lessThan(150),
+                builder.get("salary").greaterThanEqual(100).not(),
+                builder.get("name").equal((Object)null),
+                builder.get("name").notEqual((Object)null)};
+        for (Expression expression : expressions) {
+            assertFalse(expression.toString(), assertConformsAsInterpreted(expression, null).isInterpreted());
+        }
+    }
+
+    @Test
+    public void parametersConformAsInterpreted() {
+        ExpressionBuilder builder = builder();
+        Expression expression = builder.get("salary").equal(builder.getParameter("SALARY"));
+        assertFalse(assertConformsAsInterpreted(expression, row("SALARY", 200)).isInterpreted());
+        assertConformsAsInterpreted(expression, row("SALARY", null));
+        assertConformsAsInterpreted(expression, row("SALARY", Arrays.asList(100, 200)));
+
+        builder = builder();
+        expression = builder.get("name").notEqual(builder.getParameter("NAME"));
+        assertConformsAsInterpreted(expression, row("NAME", "Sue"));
+        assertConformsAsInterpreted(expression, row("NAME", null));
+    }
+
+    @Test
+    public void anyOfIsInterpreted() {
+        ExpressionBuilder builder = builder();
+        Expression anyOf = builder.anyOf("phones").get("number").equal("333");
+        assertTrue(assertConformsAsInterpreted(anyOf, null).isInterpreted());
+
+        builder = builder();
+        Expression expression = builder.get("salary").notNull().and(builder.anyOf("phones").get("number").isNull());
+        assertFalse(assertConformsAsInterpreted(expression, null).isInterpreted());
+
+        builder = builder();
+        expression = builder.anyOf("phones").get("number").equal("111").or(builder.get("name").equal("Sue"));
+        assertFalse(assertConformsAsInterpreted(expression, null).isInterpreted());
+    }
+
+    @Test
+    public void unsupportedExpressionsFallBack() {
+        ExpressionBuilder builder = builder();
+        Expression function = builder.get("name").toUpperCase().equal("BOB");
+        assertTrue(assertConformsAsInterpreted(function, null).isInterpreted());
+
+        builder = builder();
+        ReportQuery subQuery = new ReportQuery(Phone.class, new ExpressionBuilder());
+        subQuery.addAttribute("number");
+        Expression exists = builder.exists(subQuery).and(builder.get("name").equal("Bob"));
+        assertFalse(assertConformsAsInterpreted(exists, null).isInterpreted());
+
+        // An expression without a session can not be compiled.
+        Expression uncompiled = new ExpressionBuilder(Employee.class).get("name").equal("Bob");
+        assertTrue(uncompiled.getConformPredicate().isInterpreted());
+    }
+}
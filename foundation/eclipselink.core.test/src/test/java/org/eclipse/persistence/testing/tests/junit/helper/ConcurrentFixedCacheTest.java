@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.helper;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.persistence.internal.helper.ConcurrentFixedCache;
+import org.eclipse.persistence.internal.helper.FrequencySketch;
+import org.junit.Test;
+
+public class ConcurrentFixedCacheTest {
+
+    private static Object getOrPut(ConcurrentFixedCache cache, String key) {
+        Object value = cache.get(key);
+        if (value == null) {
+            value = key.toUpperCase();
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    @Test
+    public void hotKeysSurviveOneTimeKeys() {
+        ConcurrentFixedCache cache = new ConcurrentFixedCache(20);
+        for (int round = 0; round < 5; round++) {
+            for (int index = 0; index < 10; index++) {
+                getOrPut(cache, "hot" + index);
+            }
+        }
+        for (int index = 0; index < 1500; index++) {
+            getOrPut(cache, "cold" + index);
+            getOrPut(cache, "hot" + (index % 10));
+        }
+        assertTrue(cache.getCache().size() <= 20);
+        for (int index = 0; index < 10; index++) {
+            assertEquals("HOT" + index, cache.getCache().get("hot" + index));
+        }
+        assertTrue(cache.getRejectionCount() > 0);
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void statisticsAreCounted() {
+        ConcurrentFixedCache cache = new ConcurrentFixedCache(10);
+        assertEquals(0, cache.getHitRatio(), 0);
+        getOrPut(cache, "a");
+        getOrPut(cache, "a");
+        getOrPut(cache, "a");
+        getOrPut(cache, "b");
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio(), 0);
+        cache.resetStatistics();
+        assertEquals(0, cache.getHitCount());
+        cache.clear();
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void sizeIsBounded() {
+        ConcurrentFixedCache cache = new ConcurrentFixedCache(10);
+        for (int index = 0; index < 1000; index++) {
+            // Increasing frequency so new keys get admitted.
+            for (int count = 0; count < 3; count++) {
+                cache.get("key" + index);
+            }
+            cache.put("key" + index, index);
+            if ((index % 7) == 0) {
+                cache.remove("key" + (index - 1));
+            }
+        }
+        assertTrue(cache.getCache().size() <= 10);
+        cache.setMaxSize(0);
+        cache.put("other", "other");
+        assertNull(cache.getCache().get("other"));
+    }
+
+    @Test
+    public void sketchAgesFrequencies() {
+        FrequencySketch sketch = new FrequencySketch(8);
+        for (int count = 0; count < 20; count++) {
+            sketch.increment("key");
+        }
+        assertEquals(FrequencySketch.MAXIMUM_FREQUENCY, sketch.frequency("key"));
+        for (int index = 0; index < 200; index++) {
+            sketch.increment("other" + index);
+        }
+        assertTrue(sketch.frequency("key") < FrequencySketch.MAXIMUM_FREQUENCY);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.identitymaps;
+
+import static org.junit.Assert.*;
+
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.identitymaps.LongCacheKey;
+import org.eclipse.persistence.internal.identitymaps.LongIdentityMap;
+import org.junit.Test;
+
+public class LongIdentityMapTest {
+
+    @Test
+    public void longKeysArePrimitive() {
+        LongIdentityMap map = new LongIdentityMap(10, null, null, false);
+        CacheKey key = map.put(5L, "five", null, 0);
+        assertTrue(key instanceof LongCacheKey);
+        assertEquals(5L, key.getKey());
+        assertEquals(Long.valueOf(5L).hashCode(), key.hashCode());
+        assertSame(key, map.getCacheKey(5L, false));
+        assertEquals("five", map.get(5L));
+        assertNull(map.get(6L));
+
+        map.put(5L, "cinq", null, 0);
+        assertSame(key, map.getCacheKey(5L, false));
+        assertEquals("cinq", map.get(5L));
+        assertEquals(1, map.getSize());
+    }
+
+    @Test
+    public void otherKeysAreSupported() {
+        LongIdentityMap map = new LongIdentityMap(10, null, null, false);
+        map.put(1L, "long", null, 0);
+        map.put(1, "integer", null, 0);
+        map.put(new CacheId(new Object[] {1L, 2L}), "composite", null, 0);
+        assertEquals("long", map.get(1L));
+        assertEquals("integer", map.get(1));
+        assertEquals("composite", map.get(new CacheId(new Object[] {1L, 2L})));
+        assertEquals(3, map.getSize());
+        map.remove(1, null);
+        assertNull(map.get(1));
+        assertEquals("long", map.get(1L));
+    }
+
+    @Test
+    public void removedKeysAreReclaimed() {
+        LongIdentityMap map = new LongIdentityMap(10, null, null, false);
+        for (long id = 0; id < 10000; id++) {
+            map.put(id, "value" + id, null, 0);
+            if ((id % 3) != 0) {
+                map.remove(id, null);
+            }
+        }
+        assertEquals(3334, map.getSize());
+        for (long id = 0; id < 10000; id++) {
+            if ((id % 3) == 0) {
+                assertEquals("value" + id, map.get(id));
+            } else {
+                assertNull(map.getCacheKey(id, false));
+            }
+        }
+        Set<Object> keys = new HashSet<>();
+        for (Enumeration<CacheKey> enumeration = map.keys(false); enumeration.hasMoreElements();) {
+            keys.add(enumeration.nextElement().getKey());
+        }
+        assertEquals(3334, keys.size());
+        assertTrue(keys.contains(9999L));
+    }
+
+    @Test
+    public void cloneCopiesKeys() {
+        LongIdentityMap map = new LongIdentityMap(10, null, null, false);
+        for (long id = 0; id < 100; id++) {
+            map.put(id, "value" + id, null, 0);
+        }
+        LongIdentityMap clone = (LongIdentityMap)map.clone();
+        map.remove(1L, null);
+        assertEquals(100, clone.getSize());
+        assertEquals("value1", clone.get(1L));
+        assertNotSame(map.getCacheKey(2L, false), clone.getCacheKey(2L, false));
+    }
+
+    @Test
+    public void lockStateIsPerKey() {
+        LongIdentityMap map = new LongIdentityMap(10, null, null, false);
+        CacheKey key = map.acquireLock(1L, false, false);
+        assertTrue(key.isAcquired());
+        CacheKey clone = (CacheKey)key.clone();
+        key.release();
+        assertFalse(key.isAcquired());
+        assertEquals(0, key.getDepth());
+        assertEquals(1, clone.getDepth());
+    }
+}
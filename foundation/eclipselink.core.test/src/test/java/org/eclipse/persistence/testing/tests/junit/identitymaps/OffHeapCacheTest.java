@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.identitymaps;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.identitymaps.CacheIdentityMap;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.identitymaps.OffHeapCache;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.DirectToFieldChangeRecord;
+import org.eclipse.persistence.internal.sessions.MergeManager;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OffHeapCacheTest {
+
+    public static class Item {
+        public long id;
+        public String name;
+        public BigDecimal price;
+        public Timestamp updated;
+    }
+
+    private DatabaseSessionImpl session;
+    private RelationalDescriptor descriptor;
+
+    @Before
+    public void setUp() {
+        descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Item.class);
+        descriptor.setTableName("ITEM");
+        descriptor.setPrimaryKeyFieldName("ID");
+        descriptor.addDirectMapping("id", "ID");
+        descriptor.addDirectMapping("name", "NAME");
+        descriptor.addDirectMapping("price", "PRICE");
+        descriptor.addDirectMapping("updated", "UPDATED");
+        descriptor.useCacheIdentityMap();
+        descriptor.setIdentityMapSize(10);
+        Project project = new Project(new DatabaseLogin());
+        project.addDescriptor(descriptor);
+        session = new DatabaseSessionImpl(project);
+        session.initializeDescriptors();
+    }
+
+    @Test
+    public void rowIsRebuilt() {
+        OffHeapCache cache = new OffHeapCache(1024 * 1024);
+        assertTrue(cache.isSupported(descriptor));
+        Item item = item(1);
+        assertTrue(cache.put(new CacheKey(1L, item, null, 1000L, false), descriptor, session));
+
+        OffHeapCache.Entry entry = cache.get(1L, descriptor, session);
+        assertNotNull(entry);
+        assertEquals(1000L, entry.getReadTime());
+        assertEquals(1L, entry.getRow().get(new DatabaseField("ITEM.ID")));
+        assertEquals(item.name, entry.getRow().get(new DatabaseField("ITEM.NAME")));
+        assertEquals(item.price, entry.getRow().get(new DatabaseField("ITEM.PRICE")));
+        assertEquals(item.updated, entry.getRow().get(new DatabaseField("ITEM.UPDATED")));
+        assertNull(cache.get(2L, descriptor, session));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void oldestRowsAreEvicted() {
+        OffHeapCache cache = new OffHeapCache(0);
+        int count = (int)(cache.getCapacity() / 64);
+        for (long id = 0; id < count; id++) {
+            cache.put(new CacheKey(id, item(id), null, 1000L, false), descriptor, session);
+        }
+        assertTrue(cache.getEvictionCount() > 0);
+        assertEquals(count - cache.getEvictionCount(), cache.getSize());
+        assertNull(cache.get(0L, descriptor, session));
+        assertNotNull(cache.get((long)(count - 1), descriptor, session));
+    }
+
+    @Test
+    public void evictedObjectIsStoredUntilCachedAgain() {
+        OffHeapCache cache = new OffHeapCache(1024 * 1024);
+        CacheIdentityMap map = new CacheIdentityMap(2, descriptor, session, false);
+        map.setOffHeapCache(cache);
+        for (long id = 0; id < 3; id++) {
+            map.put(id, item(id), null, 1000L);
+        }
+        assertNull(map.getCacheKey(0L, false));
+        assertNotNull(cache.get(0L, descriptor, session));
+
+        map.put(0L, item(0), null, 2000L);
+        assertNull(cache.get(0L, descriptor, session));
+        // 1 was evicted by 0, removing it drops the off-heap row.
+        assertNotNull(cache.get(1L, descriptor, session));
+        map.remove(1L, null);
+        assertNull(cache.get(1L, descriptor, session));
+    }
+
+    @Test
+    public void rowIsBuiltWithoutHoldingTheMap() throws Exception {
+        CacheIdentityMap[] map = new CacheIdentityMap[1];
+        AtomicBoolean first = new AtomicBoolean(true);
+        OffHeapCache cache = new OffHeapCache(1024 * 1024) {
+            @Override
+            public byte[] buildRecord(CacheKey cacheKey, ClassDescriptor descriptor, AbstractSession session) {
+                if (!first.getAndSet(false)) {
+                    return super.buildRecord(cacheKey, descriptor, session);
+                }
+                // Another thread puts the evicted object back in while its row is built.
+                Thread thread = new Thread(() -> map[0].put(cacheKey.getKey(), cacheKey.getObject(), null, 2000L));
+                thread.start();
+                try {
+                    thread.join(10000);
+                } catch (InterruptedException exception) {
+                    throw new RuntimeException(exception);
+                }
+                assertFalse("map held while building the row", thread.isAlive());
+                return super.buildRecord(cacheKey, descriptor, session);
+            }
+        };
+        map[0] = new CacheIdentityMap(2, descriptor, session, false);
+        map[0].setOffHeapCache(cache);
+        for (long id = 0; id < 3; id++) {
+            map[0].put(id, item(id), null, 1000L);
+        }
+        // The object was put back in, so the row built for it is not stored.
+        assertNotNull(map[0].getCacheKey(0L, false));
+        assertNull(cache.get(0L, descriptor, session));
+    }
+
+    @Test
+    public void remoteChangesDropOffHeapRow() {
+        session.getProject().setOffHeapCacheSize(1024 * 1024);
+        OffHeapCache cache = session.getIdentityMapAccessorInstance().getIdentityMapManager().getOffHeapCache();
+        CacheIdentityMap map = (CacheIdentityMap)session.getIdentityMapAccessorInstance().getIdentityMapManager().getIdentityMap(descriptor);
+        for (long id = 0; id < 12; id++) {
+            map.put(id, item(id), null, 1000L);
+        }
+        assertNotNull(cache.get(0L, descriptor, session));
+        assertNotNull(cache.get(1L, descriptor, session));
+
+        // The evicted object is not in the object cache to be merged, so its row must not be used any more.
+        UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet(session);
+        ObjectChangeSet objectChangeSet = new ObjectChangeSet(0L, descriptor, item(0), changeSet, false);
+        DirectToFieldChangeRecord record = new DirectToFieldChangeRecord(objectChangeSet);
+        record.setAttribute("name");
+        record.setMapping(descriptor.getMappingForAttributeName("name"));
+        record.setNewValue("renamed");
+        objectChangeSet.addChange(record);
+        changeSet.addObjectChangeSet(objectChangeSet, session, false);
+        new MergeManager(session).mergeChangesFromChangeSet(changeSet);
+        assertNull(cache.get(0L, descriptor, session));
+        assertNotNull(cache.get(1L, descriptor, session));
+    }
+
+    private Item item(long id) {
+        Item item = new Item();
+        item.id = id;
+        item.name = "item" + id;
+        item.price = new BigDecimal("12.50");
+        item.updated = new Timestamp(1234567890123L);
+        return item;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.identitymaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.identitymaps.FullIdentityMap;
+import org.eclipse.persistence.internal.identitymaps.IdentityMap;
+import org.eclipse.persistence.internal.identitymaps.QueryResultsCacheBudget;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.junit.Test;
+
+public class QueryResultsCacheBudgetTest {
+
+    private final DatabaseSessionImpl session = new DatabaseSessionImpl(new Project(new DatabaseLogin()));
+    private final ReadAllQuery query = new ReadAllQuery();
+
+    @Test
+    public void sizeIsBounded() {
+        QueryResultsCacheBudget budget = new QueryResultsCacheBudget(4096);
+        IdentityMap map = new FullIdentityMap(100, null, null, false);
+        for (int index = 0; index < 100; index++) {
+            put(budget, map, index, results(10));
+        }
+        assertTrue("size above maximum: " + budget.getSize(), budget.getSize() <= budget.getMaximumSize());
+        assertTrue("nothing evicted", map.getSize() < 100);
+        assertTrue("everything evicted", map.getSize() > 0);
+    }
+
+    @Test
+    public void frequentlyHitResultsSurvive() {
+        QueryResultsCacheBudget budget = new QueryResultsCacheBudget(4096);
+        IdentityMap map = new FullIdentityMap(100, null, null, false);
+        CacheKey hot = put(budget, map, -1, results(10));
+        for (int index = 0; index < 100; index++) {
+            budget.hit(map, hot);
+            budget.hit(map, hot);
+            put(budget, map, index, results(10));
+        }
+        assertSame(hot, map.getCacheKey(new CacheId(new Object[] {-1}), false));
+    }
+
+    @Test
+    public void removedMapIsReleased() {
+        QueryResultsCacheBudget budget = new QueryResultsCacheBudget(1024 * 1024);
+        IdentityMap map = new FullIdentityMap(100, null, null, false);
+        for (int index = 0; index < 10; index++) {
+            put(budget, map, index, results(10));
+        }
+        assertTrue(budget.getSize() > 0);
+        budget.removed(map);
+        assertEquals(0, budget.getSize());
+    }
+
+    @Test
+    public void resultsOfQueriesWithEqualParametersAreAccountedApart() {
+        QueryResultsCacheBudget budget = new QueryResultsCacheBudget(1024 * 1024);
+        // Queries without parameters all cache their result under the same key.
+        IdentityMap first = new FullIdentityMap(1, null, null, false);
+        IdentityMap second = new FullIdentityMap(1, null, null, false);
+        CacheKey firstKey = put(budget, first, CacheId.EMPTY, results(10));
+        long size = budget.getSize();
+        CacheKey secondKey = put(budget, second, CacheId.EMPTY, results(10));
+        assertEquals(2 * size, budget.getSize());
+        budget.hit(second, secondKey);
+        budget.removed(first);
+        assertEquals(size, budget.getSize());
+        assertSame(firstKey, first.getCacheKey(CacheId.EMPTY, false));
+        budget.removed(second);
+        assertEquals(0, budget.getSize());
+    }
+
+    @Test
+    public void sizeOfQueriesWithEqualParametersIsBounded() {
+        QueryResultsCacheBudget budget = new QueryResultsCacheBudget(4096);
+        List<IdentityMap> maps = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            IdentityMap map = new FullIdentityMap(1, null, null, false);
+            maps.add(map);
+            put(budget, map, CacheId.EMPTY, results(10));
+        }
+        assertTrue("size above maximum: " + budget.getSize(), budget.getSize() <= budget.getMaximumSize());
+        int cached = 0;
+        for (IdentityMap map : maps) {
+            cached = cached + map.getSize();
+        }
+        assertTrue("nothing evicted", cached < 100);
+        assertTrue("everything evicted", cached > 0);
+    }
+
+    private CacheKey put(QueryResultsCacheBudget budget, IdentityMap map, int parameter, Object results) {
+        return put(budget, map, new CacheId(new Object[] {parameter}), results);
+    }
+
+    private CacheKey put(QueryResultsCacheBudget budget, IdentityMap map, CacheId parameters, Object results) {
+        CacheKey key = map.put(parameters, results, null, System.currentTimeMillis());
+        budget.added(query, map, key, parameters, results, session);
+        return key;
+    }
+
+    private List<Object> results(int size) {
+        List<Object> results = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            results.add("result" + index);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.queries.AdaptiveBatchFetchStatistics;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.platform.database.SQLServerPlatform;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveBatchFetchStatisticsTest {
+
+    public static class Order {
+        public long id;
+        public List<Object> lines;
+    }
+
+    private final List<String> events = new ArrayList<>();
+    private RelationalDescriptor descriptor;
+    private DatabaseSessionImpl session;
+    private AdaptiveBatchFetchStatistics statistics;
+
+    @Before
+    public void setUp() {
+        descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Order.class);
+        descriptor.setTableName("ORDERS");
+        descriptor.setPrimaryKeyFieldName("ID");
+        descriptor.addDirectMapping("id", "ID");
+        OneToManyMapping mapping = new OneToManyMapping();
+        mapping.setAttributeName("lines");
+        mapping.setDescriptor(descriptor);
+        Project project = new Project(new DatabaseLogin());
+        project.addDescriptor(descriptor);
+        session = new DatabaseSessionImpl(project);
+        session.setProfiler(new SessionProfilerAdapter() {
+            @Override
+            public void occurred(String operationName, AbstractSession session) {
+                events.add(operationName);
+            }
+        });
+        statistics = new AdaptiveBatchFetchStatistics(mapping);
+    }
+
+    @Test
+    public void rarelyUsedRelationshipIsNotBatched() {
+        for (int index = 0; index < 10; index++) {
+            statistics.read(20, session);
+            statistics.instantiated();
+        }
+        assertFalse(statistics.isBatched());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void usedRelationshipIsBatchedUntilNoLongerUsed() {
+        for (int index = 0; index < 5; index++) {
+            for (int count = 0; count < 20; count++) {
+                statistics.instantiated();
+            }
+            statistics.read(20, session);
+        }
+        assertTrue(statistics.isBatched());
+        assertEquals(1, events.size());
+        assertEquals(SessionProfiler.AdaptiveBatchFetchEnabled, events.get(0));
+
+        for (int index = 0; index < 50; index++) {
+            statistics.read(20, session);
+        }
+        assertFalse(statistics.isBatched());
+        assertEquals(SessionProfiler.AdaptiveBatchFetchDisabled, events.get(1));
+    }
+
+    @Test
+    public void sizeIsBoundedByBindParameters() {
+        assertEquals(10, statistics.computeSize(10, session));
+        assertEquals(834, statistics.computeSize(2500, session));
+        descriptor.addPrimaryKeyFieldName("ORDERS.REGION");
+        descriptor.addPrimaryKeyFieldName("ORDERS.YEAR");
+        assertEquals(750, statistics.computeSize(1500, session));
+        // 2100 parameters for 3 key fields.
+        session.getLogin().setPlatform(new SQLServerPlatform());
+        assertEquals(700, statistics.computeSize(700, session));
+        assertEquals(500, statistics.computeSize(1500, session));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.persistence.config.ParserValidationType;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.exceptions.JPQLException;
+import org.eclipse.persistence.internal.jpa.jpql.HermesParser;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the JPQL validation levels of {@link HermesParser}.
+ */
+public class HermesParserValidationTest {
+
+    public static class Employee {
+        public long id;
+        public String name;
+        public int salary;
+    }
+
+    private static final String VALID_QUERY = "SELECT e FROM Employee e WHERE e.name = :name AND e.salary > 10";
+    private static final String UNKNOWN_ATTRIBUTE_QUERY = "SELECT e FROM Employee e WHERE e.title = :title";
+    private static final String UNKNOWN_ENTITY_QUERY = "SELECT e FROM Manager e WHERE e.name = :name";
+    private static final String INCOMPLETE_QUERY = "SELECT e FROM Employee e WHERE e.name =";
+    private static final String ECLIPSELINK_QUERY = "SELECT e FROM Employee e WHERE e.name REGEXP '^a'";
+
+    private DatabaseSessionImpl session;
+
+    @Before
+    public void login() {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(EmulatedDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Employee.class);
+        descriptor.setAlias("Employee");
+        descriptor.setTableName("EMPLOYEE");
+        descriptor.setPrimaryKeyFieldName("ID");
+        descriptor.addDirectMapping("id", "ID");
+        descriptor.addDirectMapping("name", "NAME");
+        descriptor.addDirectMapping("salary", "SALARY");
+        project.addDescriptor(descriptor);
+        session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.login();
+    }
+
+    @After
+    public void logout() {
+        if ((session != null) && session.isConnected()) {
+            session.logout();
+        }
+    }
+
+    private HermesParser parser(String validationLevel) {
+        HermesParser parser = new HermesParser();
+        parser.setValidationLevel(validationLevel);
+        return parser;
+    }
+
+    private String sql(DatabaseQuery query) {
+        query.checkPrepare(session, new DatabaseRecord());
+        return query.getSQLString();
+    }
+
+    private String problems(HermesParser parser, String jpqlQuery) {
+        try {
+            parser.buildQuery(jpqlQuery, session);
+        } catch (JPQLException exception) {
+            return exception.getMessage();
+        }
+        fail("The query should not be built: " + jpqlQuery);
+        return null;
+    }
+
+    @Test
+    public void lazyValidationBuildsValidQueries() {
+        DatabaseQuery validated = parser(ParserValidationType.EclipseLink).buildQuery(VALID_QUERY, session);
+        DatabaseQuery lazy = parser(ParserValidationType.Lazy).buildQuery(VALID_QUERY, session);
+        assertTrue(lazy instanceof ReadAllQuery);
+        assertEquals(Employee.class, lazy.getReferenceClass());
+        assertEquals(validated.getArguments(), lazy.getArguments());
+        assertEquals(sql(validated), sql(lazy));
+    }
+
+    @Test
+    public void lazyValidationReportsProblems() {
+        // A query that is not compiled is validated, as it is with EclipseLink validation
+        HermesParser validating = parser(ParserValidationType.EclipseLink);
+        HermesParser lazy = parser(ParserValidationType.Lazy);
+        String problems = problems(validating, UNKNOWN_ATTRIBUTE_QUERY);
+        assertTrue(problems, problems.contains("e.title"));
+        assertEquals(problems, problems(lazy, UNKNOWN_ATTRIBUTE_QUERY));
+        problems = problems(validating, UNKNOWN_ENTITY_QUERY);
+        assertTrue(problems, problems.contains("Manager"));
+        assertEquals(problems, problems(lazy, UNKNOWN_ENTITY_QUERY));
+        assertEquals(problems(validating, INCOMPLETE_QUERY), problems(lazy, INCOMPLETE_QUERY));
+    }
+
+    @Test
+    public void validationLevelIsCaseInsensitive() {
+        // The EclipseLink REGEXP operator is not part of the JPA 2.1 grammar.
+        String problems = problems(parser(ParserValidationType.JPA21), ECLIPSELINK_QUERY);
+        assertEquals(problems, problems(parser("jpa 2.1"), ECLIPSELINK_QUERY));
+        assertEquals(problems, problems(parser("JPA 2.1"), ECLIPSELINK_QUERY));
+        assertNotNull(parser("eclipselink").buildQuery(ECLIPSELINK_QUERY, session));
+
+        // The query is not validated, as with the None constant.
+        DatabaseQuery query = parser("NONE").buildQuery(VALID_QUERY, session);
+        assertEquals(sql(parser(ParserValidationType.None).buildQuery(VALID_QUERY, session)), sql(query));
+        assertEquals(problems(parser(ParserValidationType.Lazy), UNKNOWN_ATTRIBUTE_QUERY), problems(parser("lazy"), UNKNOWN_ATTRIBUTE_QUERY));
+    }
+
+    @Test
+    public void validatorsAreSharedByThreads() throws Exception {
+        final HermesParser parser = parser(ParserValidationType.EclipseLink);
+        final String expectedSQL = sql(parser.buildQuery(VALID_QUERY, session));
+        final String expectedProblems = problems(parser, UNKNOWN_ATTRIBUTE_QUERY);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int index = 0; index < 50; index++) {
+                            assertEquals(expectedSQL, sql(parser.buildQuery(VALID_QUERY, session)));
+                            assertEquals(expectedProblems, problems(parser, UNKNOWN_ATTRIBUTE_QUERY));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.persistence.config.ParserValidationType;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.internal.jpa.jpql.HermesParser;
+import org.eclipse.persistence.internal.queries.ReportItem;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ModifyAllQuery;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReportQuery;
+import org.eclipse.persistence.queries.UpdateAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the JPQL queries compiled without their parsed tree give the same queries, expressions
+ * and SQL as the queries populated by {@link HermesParser} from the parsed tree.
+ */
+public class JPQLQueryCompilerTest {
+
+    public static class Employee {
+        public long id;
+        public String name;
+        public int salary;
+        public Address address;
+        public List<Phone> phones;
+    }
+
+    public static class Address {
+        public long id;
+        public String city;
+    }
+
+    public static class Phone {
+        public long id;
+        public String number;
+    }
+
+    /**
+     * The queries in the compiled subset of JPQL.
+     */
+    private static final String[] QUERIES = {
+        "SELECT e FROM Employee e",
+        "SELECT OBJECT(e) FROM Employee e WHERE e.id = 1",
+        "SELECT DISTINCT e FROM Employee e WHERE e.name = :name AND e.salary > 10 ORDER BY e.name DESC, e.id",
+        "SELECT e FROM Employee e WHERE e.name LIKE :pattern OR e.salary BETWEEN :low AND :high",
+        "SELECT e FROM Employee e WHERE e.name LIKE ?1 AND e.salary = ?2",
+        "SELECT e FROM Employee e WHERE e.name = :name OR UPPER(e.name) = :name",
+        "SELECT e FROM Employee e WHERE e.name IN ('a', 'b') AND NOT (e.salary <> 5)",
+        "SELECT e FROM Employee e WHERE UPPER(e.name) = :name AND LENGTH(e.name) > 3",
+        "SELECT e FROM Employee e WHERE e.salary * 2 + 1 >= 10 AND (e.salary - 1) / 2 < e.id",
+        "SELECT e FROM Employee e WHERE e.address IS NULL OR e.phones IS EMPTY",
+        "SELECT e FROM Employee e WHERE SIZE(e.phones) > 1",
+        "SELECT e FROM Employee e JOIN FETCH e.address WHERE e.address.city = :city",
+        "SELECT e FROM Employee e LEFT JOIN FETCH e.phones",
+        "SELECT e FROM Employee e JOIN e.phones p WHERE p.number = :number",
+        "SELECT e FROM Employee e LEFT JOIN e.address a WHERE a.city IS NOT NULL ORDER BY a.city",
+        "SELECT e, a FROM Employee e JOIN FETCH e.phones JOIN e.address a",
+        "SELECT e.name FROM Employee e",
+        "SELECT e.name, e.salary FROM Employee e WHERE e.salary > :salary",
+        "SELECT DISTINCT e.name FROM Employee e ORDER BY e.name",
+        "SELECT e.address FROM Employee e",
+        "SELECT a FROM Employee e JOIN e.address a",
+        "SELECT e.address.city FROM Employee e",
+        "SELECT COUNT(e) FROM Employee e",
+        "SELECT DISTINCT COUNT(e) FROM Employee e",
+        "SELECT COUNT(DISTINCT e.name), MAX(e.salary) FROM Employee e",
+        "SELECT e.name, AVG(e.salary), SUM(e.salary), MIN(e.salary) FROM Employee e GROUP BY e.name",
+        "SELECT e.name, COUNT(e) FROM Employee e WHERE e.salary > 1 GROUP BY e.name HAVING COUNT(e) > 1 ORDER BY e.name",
+        "UPDATE Employee e SET e.name = :name, e.salary = e.salary + 1 WHERE e.id = :id",
+        "UPDATE Employee e SET e.salary = ?1",
+        "DELETE FROM Employee e WHERE e.name IS NULL"
+    };
+
+    private DatabaseSessionImpl session;
+
+    @Before
+    public void login() {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(EmulatedDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+
+        RelationalDescriptor address = new RelationalDescriptor();
+        address.setJavaClass(Address.class);
+        address.setAlias("Address");
+        address.setTableName("ADDRESS");
+        address.setPrimaryKeyFieldName("ID");
+        address.addDirectMapping("id", "ID");
+        address.addDirectMapping("city", "CITY");
+        project.addDescriptor(address);
+
+        RelationalDescriptor phone = new RelationalDescriptor();
+        phone.setJavaClass(Phone.class);
+        phone.setAlias("Phone");
+        phone.setTableName("PHONE");
+        phone.setPrimaryKeyFieldName("ID");
+        phone.addDirectMapping("id", "ID");
+        phone.addDirectMapping("number", "PHONE_NUMBER");
+        project.addDescriptor(phone);
+
+        RelationalDescriptor employee = new RelationalDescriptor();
+        employee.setJavaClass(Employee.class);
+        employee.setAlias("Employee");
+        employee.setTableName("EMPLOYEE");
+        employee.setPrimaryKeyFieldName("ID");
+        employee.addDirectMapping("id", "ID");
+        employee.addDirectMapping("name", "NAME");
+        employee.addDirectMapping("salary", "SALARY");
+        OneToOneMapping addressMapping = new OneToOneMapping();
+        addressMapping.setAttributeName("address");
+        addressMapping.setReferenceClass(Address.class);
+        addressMapping.dontUseIndirection();
+        addressMapping.addForeignKeyFieldName("EMPLOYEE.ADDRESS_ID", "ADDRESS.ID");
+        employee.addMapping(addressMapping);
+        OneToManyMapping phonesMapping = new OneToManyMapping();
+        phonesMapping.setAttributeName("phones");
+        phonesMapping.setReferenceClass(Phone.class);
+        phonesMapping.dontUseIndirection();
+        phonesMapping.useCollectionClass(ArrayList.class);
+        phonesMapping.addTargetForeignKeyFieldName("PHONE.OWNER_ID", "EMPLOYEE.ID");
+        employee.addMapping(phonesMapping);
+        project.addDescriptor(employee);
+
+        session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.login();
+    }
+
+    @After
+    public void logout() {
+        if ((session != null) && session.isConnected()) {
+            session.logout();
+        }
+    }
+
+    /**
+     * Compiles the JPQL query without its parsed tree, failing if it's not in the compiled subset.
+     */
+    private DatabaseQuery compile(String jpqlQuery) throws Exception {
+        Class<?> compiler = Class.forName("org.eclipse.persistence.internal.jpa.jpql.JPQLQueryCompiler");
+        Method compile = compiler.getDeclaredMethod("compile", CharSequence.class, AbstractSession.class);
+        compile.setAccessible(true);
+        DatabaseQuery query = (DatabaseQuery)compile.invoke(null, jpqlQuery, session);
+        assertNotNull("The query should be compiled: " + jpqlQuery, query);
+        return query;
+    }
+
+    /**
+     * Populates the query from its parsed tree, validated, which never compiles it.
+     */
+    private DatabaseQuery parse(String jpqlQuery) {
+        HermesParser parser = new HermesParser();
+        parser.setValidationLevel(ParserValidationType.EclipseLink);
+        return parser.buildQuery(jpqlQuery, session);
+    }
+
+    /**
+     * Describes what the query is made of: its kind, its expression trees and its arguments.
+     */
+    private static Map<String, String> describe(DatabaseQuery query) {
+        Map<String, String> description = new TreeMap<>();
+        description.put("class", query.getClass().getName());
+        description.put("referenceClass", String.valueOf(query.getReferenceClass()));
+        description.put("jpql", query.getJPQLString());
+        description.put("selectionCriteria", String.valueOf(query.getSelectionCriteria()));
+
+        // The parsed tree adds the input parameters in no particular order
+        List<String> arguments = new ArrayList<>();
+        for (int index = 0; index < query.getArguments().size(); index++) {
+            arguments.add(query.getArguments().get(index) + " " + query.getArgumentTypes().get(index)
+                    + " " + query.getArgumentParameterTypes().get(index));
+        }
+        arguments.sort(null);
+        description.put("arguments", arguments.toString());
+
+        if (query.isObjectLevelReadQuery()) {
+            ObjectLevelReadQuery readQuery = (ObjectLevelReadQuery)query;
+            description.put("distinctState", String.valueOf(readQuery.getDistinctState()));
+            description.put("shouldBuildNullForNullPk", String.valueOf(readQuery.shouldBuildNullForNullPk()));
+            description.put("orderBy", String.valueOf(readQuery.getOrderByExpressions()));
+            description.put("joinedAttributes", String.valueOf(readQuery.getJoinedAttributeManager().getJoinedAttributeExpressions()));
+            description.put("nonFetchJoinedAttributes", String.valueOf(readQuery.getNonFetchJoinAttributeExpressions()));
+        }
+
+        if (query.isReportQuery()) {
+            ReportQuery reportQuery = (ReportQuery)query;
+            description.put("returnType", String.valueOf(reportQuery.getReturnType()));
+            description.put("shouldRetrievePrimaryKeys", String.valueOf(reportQuery.shouldRetrievePrimaryKeys()));
+            description.put("groupBy", String.valueOf(reportQuery.getGroupByExpressions()));
+            description.put("having", String.valueOf(reportQuery.getHavingExpression()));
+            List<String> items = new ArrayList<>();
+            for (ReportItem item : reportQuery.getItems()) {
+                items.add(item.getName() + " " + item.getResultType() + " " + item.getAttributeExpression()
+                        + " " + item.getJoinedAttributeManager().getJoinedAttributeExpressions());
+            }
+            description.put("items", items.toString());
+        }
+
+        if (query.isUpdateAllQuery()) {
+            Map<String, String> updates = new TreeMap<>();
+            for (Object update : ((UpdateAllQuery)query).getUpdateClauses().entrySet()) {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>)update;
+                updates.put(String.valueOf(entry.getKey()), String.valueOf(entry.getValue()));
+            }
+            description.put("updates", updates.toString());
+        }
+
+        return description;
+    }
+
+    private String sql(DatabaseQuery query) {
+        query.checkPrepare(session, new DatabaseRecord());
+        if (query instanceof ModifyAllQuery) {
+            return String.valueOf(query.getSQLStrings());
+        }
+        return query.getSQLString();
+    }
+
+    @Test
+    public void compiledQueriesMatchParsedQueries() throws Exception {
+        for (String jpqlQuery : QUERIES) {
+            DatabaseQuery compiled = compile(jpqlQuery);
+            DatabaseQuery parsed = parse(jpqlQuery);
+            assertEquals(jpqlQuery, describe(parsed), describe(compiled));
+            assertEquals(jpqlQuery, sql(parsed), sql(compiled));
+        }
+    }
+
+    @Test
+    public void joinFetch() throws Exception {
+        ReadAllQuery query = (ReadAllQuery)compile("SELECT e FROM Employee e JOIN FETCH e.address LEFT JOIN FETCH e.phones");
+        assertEquals(2, query.getJoinedAttributeManager().getJoinedAttributeExpressions().size());
+        assertTrue(query.getNonFetchJoinAttributeExpressions().isEmpty());
+        assertFalse(query.shouldBuildNullForNullPk());
+
+        ReportQuery reportQuery = (ReportQuery)compile("SELECT e, a FROM Employee e JOIN FETCH e.phones JOIN e.address a");
+        assertEquals(1, reportQuery.getItems().get(0).getJoinedAttributeManager().getJoinedAttributeExpressions().size());
+        assertEquals(1, reportQuery.getNonFetchJoinAttributeExpressions().size());
+    }
+
+    @Test
+    public void reportItemNames() throws Exception {
+        ReportQuery query = (ReportQuery)compile("SELECT e, e.name, e.address.city, COUNT(e), COUNT(e.name), MAX(e.salary) FROM Employee e GROUP BY e");
+        List<String> names = new ArrayList<>();
+        for (ReportItem item : query.getItems()) {
+            names.add(item.getName());
+        }
+        assertEquals(describe(parse(query.getJPQLString())).get("items"), describe(query).get("items"));
+        assertEquals("[e, name, city, COUNT, name, salary]", names.toString());
+    }
+
+    @Test
+    public void returnChoice() throws Exception {
+        ReportQuery single = (ReportQuery)compile("SELECT e.name FROM Employee e");
+        assertEquals(ReportQuery.ShouldReturnSingleAttribute, single.getReturnType());
+        assertFalse(single.shouldBuildNullForNullPk());
+
+        ReportQuery several = (ReportQuery)compile("SELECT e.name, e.salary FROM Employee e");
+        assertEquals(ReportQuery.ShouldReturnWithoutReportQueryResult, several.getReturnType());
+
+        // A selected relationship builds null for a null primary key, as it's an outer reference
+        ReportQuery relationship = (ReportQuery)compile("SELECT e.address FROM Employee e");
+        assertEquals(ReportQuery.ShouldReturnSingleAttribute, relationship.getReturnType());
+        assertTrue(relationship.shouldBuildNullForNullPk());
+        assertTrue(((ReportQuery)compile("SELECT a FROM Employee e JOIN e.address a")).shouldBuildNullForNullPk());
+    }
+
+    @Test
+    public void updateParameterTypes() throws Exception {
+        DatabaseQuery query = compile("UPDATE Employee e SET e.name = :name, e.salary = :salary WHERE e.id = :id");
+        assertEquals("[name, salary, id]", query.getArguments().toString());
+        assertEquals(String.class, query.getArgumentTypes().get(0));
+        assertEquals(int.class, query.getArgumentTypes().get(1));
+        assertEquals(long.class, query.getArgumentTypes().get(2));
+        assertEquals(describe(parse(query.getJPQLString())), describe(query));
+    }
+
+    @Test
+    public void queriesNotInSubsetAreNotCompiled() throws Exception {
+        Class<?> compiler = Class.forName("org.eclipse.persistence.internal.jpa.jpql.JPQLQueryCompiler");
+        Method compile = compiler.getDeclaredMethod("compile", CharSequence.class, AbstractSession.class);
+        compile.setAccessible(true);
+        String[] queries = {
+            "SELECT e FROM Employee e WHERE e.title = :title",
+            "SELECT e FROM Manager e",
+            "SELECT e FROM Employee e WHERE e.name =",
+            "SELECT e FROM Employee e WHERE e.name REGEXP '^a'",
+            "SELECT e FROM Employee e WHERE e.name = :name AND e.salary = ?1",
+            "SELECT e FROM Employee e WHERE e.salary * 2 >= :salary",
+            "SELECT NEW java.lang.String(e.name) FROM Employee e"
+        };
+        for (String jpqlQuery : queries) {
+            assertNull(jpqlQuery, compile.invoke(null, jpqlQuery, session));
+        }
+    }
+}
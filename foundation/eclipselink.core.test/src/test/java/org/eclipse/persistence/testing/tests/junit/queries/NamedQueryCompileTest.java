@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.persistence.testing.tests.junit.queries;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.NamedQueryCatalog;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.testing.tests.junit.failover.emulateddriver.EmulatedDriver;
+import org.junit.After;
+import org.junit.Test;
+
+public class NamedQueryCompileTest {
+
+    public static class Employee {
+        public long id;
+        public String name;
+    }
+
+    /**
+     * Named query building its query when prepared, as JPA named queries do.
+     */
+    public static class NamedQuery extends DatabaseQuery {
+        private final int index;
+
+        public NamedQuery(int index) {
+            this.index = index;
+            setName("Employee.byName" + index);
+        }
+
+        @Override
+        protected void prepare() {
+            ReadAllQuery query = new ReadAllQuery(Employee.class);
+            query.setName(getName());
+            query.setSelectionCriteria(new ExpressionBuilder().get("name").equal("name" + index));
+            setProperty("databasequery", query);
+        }
+
+        @Override
+        public Object executeDatabaseQuery() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final int QUERIES = 20;
+
+    private DatabaseSessionImpl session;
+
+    private DatabaseSessionImpl login(int parallelism, NamedQueryCatalog previousCatalog) {
+        DatabaseLogin login = new DatabaseLogin();
+        login.useDirectDriverConnect();
+        login.setDriverClass(EmulatedDriver.class);
+        login.setConnectionString("jdbc:emulateddriver");
+        Project project = new Project(login);
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Employee.class);
+        descriptor.setTableName("EMPLOYEE");
+        descriptor.setPrimaryKeyFieldName("ID");
+        descriptor.addDirectMapping("id", "ID");
+        descriptor.addDirectMapping("name", "NAME");
+        project.addDescriptor(descriptor);
+        for (int index = 0; index < QUERIES; index++) {
+            project.getJPAQueries().add(new NamedQuery(index));
+        }
+        project.setNamedQueryCompileParallelism(parallelism);
+        session = (DatabaseSessionImpl)project.createDatabaseSession();
+        session.dontLogMessages();
+        session.setNamedQueryCatalog(previousCatalog);
+        session.login();
+        return session;
+    }
+
+    @After
+    public void logout() {
+        if ((session != null) && session.isConnected()) {
+            session.logout();
+        }
+    }
+
+    @Test
+    public void queriesArePreparedOnLogin() {
+        login(0, null);
+        assertFalse(session.getQuery("Employee.byName0").isPrepared());
+        assertNull(session.getNamedQueryCatalog());
+        session.logout();
+
+        login(4, null);
+        NamedQueryCatalog catalog = session.getNamedQueryCatalog();
+        for (int index = 0; index < QUERIES; index++) {
+            DatabaseQuery query = session.getQuery("Employee.byName" + index);
+            assertTrue(query.isPrepared());
+            assertEquals(query.getSQLStrings(), catalog.getSQL(query.getName()));
+            assertTrue(catalog.getCompileTime(query.getName()) >= 0);
+        }
+        assertEquals(Arrays.asList("SELECT ID, NAME FROM EMPLOYEE WHERE (NAME = ?)"), catalog.getSQL("Employee.byName0"));
+    }
+
+    @Test
+    public void catalogIsReadBack() throws Exception {
+        login(2, null);
+        NamedQueryCatalog catalog = session.getNamedQueryCatalog();
+        File file = File.createTempFile("catalog", ".queries");
+        try {
+            catalog.write(file);
+            NamedQueryCatalog readCatalog = NamedQueryCatalog.read(file);
+            assertEquals(catalog.getPlatformName(), readCatalog.getPlatformName());
+            for (String queryName : catalog.getQueryNames()) {
+                assertEquals(catalog.getCompileTime(queryName), readCatalog.getCompileTime(queryName));
+                assertEquals(catalog.getSQL(queryName), readCatalog.getSQL(queryName));
+            }
+            session.logout();
+
+            login(2, readCatalog);
+            assertTrue(session.getQuery("Employee.byName" + (QUERIES - 1)).isPrepared());
+            assertNotSame(readCatalog, session.getNamedQueryCatalog());
+        } finally {
+            file.delete();
+        }
+    }
+}
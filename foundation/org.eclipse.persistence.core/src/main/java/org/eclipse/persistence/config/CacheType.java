@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -78,6 +78,15 @@ public class CacheType {
      */
     public static final String  Full = "Full";
 
+    /**
+     * A FullLong cache is a Full cache specialized for entities with a single long (or Long) id.
+     * The id is held as a primitive and cached objects are stored in a primitive keyed table,
+     * which reduces the memory used per cached object.
+     * Entities with any other id type are cached as in a Full cache.
+     * <p>WARNING: As for a Full cache, this cache type should only be used for a fixed sized number of objects.
+     */
+    public static final String  FullLong = "FullLong";
+
     /**
      * NONE does not cache any objects.
      * It allows any un-referenced objects to be free to garbage collection.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -30,6 +30,11 @@ public class ParserValidationType {
     public static final String JPA20 = "JPA 2.0";
     public static final String JPA21 = "JPA 2.1";
     public static final String None = "None";
+    /**
+     * EclipseLink JPQL, where the common queries that resolve against the descriptors are compiled
+     * as fast as without validation, and any other query is validated to report its problems.
+     */
+    public static final String Lazy = "Lazy";
 
     public static final String DEFAULT = EclipseLink;
 }
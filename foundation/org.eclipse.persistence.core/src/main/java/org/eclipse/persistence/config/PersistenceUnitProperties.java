@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2019 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -288,6 +288,8 @@ public class PersistenceUnitProperties {
      * <li>"<code>JPA 2.0</code>" - only allows valid JPA 2.0 JPQL.
      * <li>"<code>JPA 2.1</code>" - only allows valid JPA 2.1 JPQL.
      * <li>"<code>None</code>" - no JPQL validation is done.
+     * <li>"<code>Lazy</code>" - allows EclipseLink JPQL extensions, the common queries that resolve against
+     * the descriptors are compiled as fast as with no validation, any other query is validated.
      * </ul>
      *
      * @see #JPQL_PARSER
@@ -1169,6 +1171,9 @@ public class PersistenceUnitProperties {
     /**
      * Property for disabling Bean Validation optimisations.
      * Bean Validation features optimisations, which are used to skip BV processes on non-constrained objects.
+     * When the group Default is validated on both pre-persist and pre-update, which it is unless
+     * other groups are specified, only the changed attributes of an updated object are validated.
+     * The whole object is validated if it has class level constraints or a changed embeddable is cascaded to.
      *
      * This is to make maintenance easier and to allow for debugging in case that some object is not validated,
      * but should be.
@@ -1462,6 +1467,95 @@ public class PersistenceUnitProperties {
      */
     public static final String QUERY_CACHE = "eclipselink.cache.query-results";
 
+    /**
+     * The "<code>eclipselink.cache.query-results.max-size</code>" property bounds the
+     * query results cache of all queries by the approximate number of bytes the cached results retain.
+     * <p>
+     * Each query's results are still limited by its own maximum number of result sets;
+     * once the total size is exceeded the least frequently hit results of any query are evicted.
+     * Domain objects are held by the object cache, so only the result containers,
+     * parameters and report query values are accounted.
+     * Hits, misses and evictions are reported to the session profiler per query.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - the query results cache is only bounded per query
+     * <li>a positive number of bytes, for example "<code>67108864</code>"
+     * </ul>
+     *
+     * @see #QUERY_CACHE
+     * @see org.eclipse.persistence.sessions.SessionProfiler#QueryResultsCacheEvictions
+     */
+    public static final String QUERY_CACHE_MAX_SIZE = "eclipselink.cache.query-results.max-size";
+
+    /**
+     * The "<code>eclipselink.cache.off-heap.size</code>" property configures the size in bytes
+     * of the off-heap tier of the shared object cache.
+     * <p>
+     * Objects evicted from a fixed size LRU cache ("<code>LRU</code>" cache type) have their rows kept
+     * in direct buffers outside of the Java heap, and find by primary key rebuilds them from the row
+     * instead of selecting them from the database.
+     * Rows are dropped as soon as their object is updated, deleted or invalidated, and the oldest
+     * rows are evicted once the size is reached.
+     * Entities using inheritance, multitenancy or a serialized object policy always use the database.
+     * The JVM's maximum direct memory (<code>-XX:MaxDirectMemorySize</code>) must allow for the size.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - no off-heap tier
+     * <li>a positive number of bytes, for example "<code>8589934592</code>"
+     * </ul>
+     *
+     * @see #CACHE_TYPE_DEFAULT
+     * @see org.eclipse.persistence.sessions.SessionProfiler#OffHeapCacheHits
+     */
+    public static final String CACHE_OFF_HEAP_SIZE = "eclipselink.cache.off-heap.size";
+
+    /**
+     * The "<code>eclipselink.batch-fetch.adaptive</code>" property configures whether lazy
+     * relationships are batch fetched depending on their usage.
+     * <p>
+     * The objects read by queries returning many results, and how many times their lazy relationships
+     * are then accessed, are counted for each relationship not configured for batch or join fetching.
+     * A relationship accessed for most objects read is then batch fetched using IN by such queries,
+     * avoiding a select per object, until it is no longer accessed as often.
+     * Queries using batch fetching of their own, through annotations or query hints, are unaffected.
+     * The decisions are logged at the FINE level and counted in the session profiler.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - only relationships configured for batch fetching are batch fetched
+     * <li>"<code>true</code>" - batch fetch relationships found to be used after most reads
+     * </ul>
+     *
+     * @see org.eclipse.persistence.config.QueryHints#BATCH_TYPE
+     * @see org.eclipse.persistence.sessions.SessionProfiler#AdaptiveBatchFetchEnabled
+     */
+    public static final String BATCH_FETCH_ADAPTIVE = "eclipselink.batch-fetch.adaptive";
+
+    /**
+     * The "<code>eclipselink.descriptor-initialization.lazy</code>" property configures whether the
+     * descriptors of the persistence unit are initialized when first used instead of on deployment.
+     * <p>
+     * A descriptor is initialized the first time its entity is used, together with its inheritance hierarchy
+     * and the descriptors it references through relationships and embeddables, so deploying a persistence unit
+     * with many entities of which only some are used by an application is faster and uses less memory.
+     * Entities queried by named queries are initialized on deployment, as named queries are.
+     * The metamodel and schema generation require all descriptors, so initialize the remaining ones.
+     * The canonical metamodel classes are only populated once the metamodel is first accessed.
+     * Persistence units using composite persistence units or table per tenant multitenancy
+     * are always initialized on deployment.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - all descriptors are initialized on deployment
+     * <li>"<code>true</code>" - descriptors are initialized on first use
+     * </ul>
+     *
+     * @see org.eclipse.persistence.sessions.Project#setLazyDescriptorInitialization(boolean)
+     */
+    public static final String DESCRIPTOR_INITIALIZATION_LAZY = "eclipselink.descriptor-initialization.lazy";
+
     /**
      * The "<code>eclipselink.cache.database-event-listener</code>" property allows integration
      * with a database event notification service.
@@ -2551,6 +2645,10 @@ public class PersistenceUnitProperties {
      * <b>Allowed Values:</b>
      * <ul>
      * <li>"<code>java-serialization</code>" - use {@code org.eclipse.persistence.jpa.metadata.FileBasedProjectCache}
+     * <li>"<code>binary</code>" - use {@code org.eclipse.persistence.jpa.metadata.BinaryFileProjectCache},
+     * which only reuses the cached project while the classes and mapping files are unchanged
+     * <li>"<code>generated-class</code>" - use {@code org.eclipse.persistence.jpa.metadata.GeneratedClassProjectCache},
+     * which loads the project from a class generated at build time
      * <li>the fully qualified name for a class that implements {@code org.eclipse.persistence.jpa.metadata.ProjectCache} interface
      * </ul>
      *
@@ -2570,6 +2668,80 @@ public class PersistenceUnitProperties {
      */
     public static final String PROJECT_CACHE_FILE = "eclipselink.project-cache.java-serialization.file-location";
 
+    /**
+     * The property "<code>eclipselink.project-cache.binary.file-location</code>" specifies the name
+     * of the file to read/write the binary project cache representing the application's metadata.
+     *
+     * <p>This property should be used in conjunction with
+     * "<code>eclipselink.project-cache</code>" set to "<code>binary</code>".</p>
+     *
+     * @see #PROJECT_CACHE
+     */
+    public static final String PROJECT_CACHE_BINARY_FILE = "eclipselink.project-cache.binary.file-location";
+
+    /**
+     * The property "<code>eclipselink.project-cache.generated-class.name</code>" specifies the fully qualified
+     * name of the Project subclass generated from the application's metadata.
+     * When the class is found, the persistence unit is deployed from the project it builds
+     * instead of processing the annotations and mapping files.
+     * If the class is not found, the metadata is processed as usual.
+     * <p>
+     * Setting this property uses the "<code>generated-class</code>" project cache,
+     * unless "<code>eclipselink.project-cache</code>" is also set.
+     * The generated class references the entity classes, which should be statically woven.
+     *
+     * @see #PROJECT_CACHE
+     * @see #PROJECT_CACHE_GENERATED_SOURCE
+     */
+    public static final String PROJECT_CACHE_GENERATED_CLASS = "eclipselink.project-cache.generated-class.name";
+
+    /**
+     * The property "<code>eclipselink.project-cache.generated-class.source-location</code>" specifies the
+     * directory the source of the generated project class is written to, under its package directories,
+     * once the metadata is processed.
+     * This is set by the build step generating the class, and should not be set at runtime.
+     *
+     * @see #PROJECT_CACHE_GENERATED_CLASS
+     * @see "org.eclipse.persistence.tools.project.jpa.StaticProjectGenerator"
+     */
+    public static final String PROJECT_CACHE_GENERATED_SOURCE = "eclipselink.project-cache.generated-class.source-location";
+
+    /**
+     * The "<code>eclipselink.named-query.compile.parallelism</code>" property configures whether
+     * the JPA named queries are compiled on deployment, and on how many threads.
+     * <p>
+     * By default named queries are parsed on deployment, and prepared into SQL on their first execution.
+     * When compiled, each named query is parsed and prepared into its SQL on deployment, the queries being
+     * compiled in parallel on a fork join pool of that size, so their first executions do not pay for it.
+     * The compile time and SQL of each query are logged at the FINER level of the query category.
+     * Queries whose SQL depends on their arguments, and native queries, are prepared on execution as usual.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" (DEFAULT) - named queries are only parsed on deployment
+     * <li>a number of threads greater than 0
+     * </ul>
+     *
+     * @see #NAMED_QUERY_CATALOG_FILE
+     * @see org.eclipse.persistence.sessions.Project#setNamedQueryCompileParallelism(int)
+     */
+    public static final String NAMED_QUERY_COMPILE_PARALLELISM = "eclipselink.named-query.compile.parallelism";
+
+    /**
+     * The "<code>eclipselink.named-query.catalog.file-location</code>" property specifies the file
+     * recording the compile time and SQL of the named queries compiled on deployment.
+     * <p>
+     * The catalog is read on deployment and written once the queries are compiled. The queries slowest to
+     * compile in the previous deployment are compiled first, and the queries whose SQL changed are logged.
+     * It defaults to the project cache file, "<code>.queries</code>" appended, when one is configured.
+     * <p>
+     * This property is used in conjunction with {@link #NAMED_QUERY_COMPILE_PARALLELISM}.
+     *
+     * @see #PROJECT_CACHE_BINARY_FILE
+     * @see #PROJECT_CACHE_FILE
+     */
+    public static final String NAMED_QUERY_CATALOG_FILE = "eclipselink.named-query.catalog.file-location";
+
     /**
      * The "<code>eclipselink.temporal.mutable</code>" property configures the
      * default for detecting changes to temporal field (Date, Calendar). Default
@@ -2698,6 +2870,47 @@ public class PersistenceUnitProperties {
      */
     public static final String DEPLOY_ON_STARTUP = "eclipselink.deploy-on-startup";
 
+    /**
+     * The "<code>eclipselink.metadata-processing.parallelism</code>" property configures
+     * the number of threads used to read the classes of the persistence unit during deployment.
+     * <p>
+     * The byte codes of the listed and unlisted classes are read in parallel on a fork join pool
+     * of that size, then processed in the same order as if read in turn, so the resulting
+     * project does not depend on the number of threads.
+     * This can reduce the deployment time of persistence units with many entities.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>1</code>" (DEFAULT) - classes are read in turn
+     * <li>a number of threads greater than 1
+     * </ul>
+     */
+    public static final String METADATA_PROCESSING_PARALLELISM = "eclipselink.metadata-processing.parallelism";
+
+    /**
+     * The "<code>eclipselink.metadata.class-index</code>" property configures whether the class index
+     * of an archive is used to find its managed classes during deployment.
+     * <p>
+     * A class index is an entry <code>META-INF/eclipselink-class-index</code> of the archive, listing
+     * its classes annotated with <code>&#64;Entity</code>, <code>&#64;Embeddable</code>,
+     * <code>&#64;MappedSuperclass</code>, <code>&#64;Converter</code> or <code>&#64;StaticMetamodel</code>.
+     * It is generated when building the archive, by the static weaver with its <code>-classindex</code> option.
+     * When used, deployment reads the indexed classes instead of all the classes of the archive,
+     * so the index must be generated again whenever the classes of the archive change.
+     * An index is ignored if the archive no longer has the number of classes it was generated for,
+     * but a class of the archive becoming an entity is not detected.
+     * Archives without a class index are always read.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - all the classes of archives are read
+     * <li>"<code>true</code>" - the class index of an archive is used when present and current
+     * </ul>
+     *
+     * @see org.eclipse.persistence.tools.weaving.jpa.StaticWeaveProcessor#setClassIndex(boolean)
+     */
+    public static final String METADATA_CLASS_INDEX = "eclipselink.metadata.class-index";
+
     /**
      * The "<code>eclipselink.validation-only</code>" property validates deployment
      * which includes initializing descriptors but does not connect (no login to the database).
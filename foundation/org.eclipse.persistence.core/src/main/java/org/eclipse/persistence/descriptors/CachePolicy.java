@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -669,6 +669,15 @@ public void setCacheable(Boolean cacheable) {
         this.cacheable = cacheable;
     }
 
+    /**
+     * INTERNAL:
+     * Return entity @Cacheable annotation value or <code>null</code> if
+     * the @Cacheable annotation is not set.
+     */
+    public Boolean getCacheable() {
+        return this.cacheable;
+    }
+
     /**
      * PUBLIC:
      * Controls how the Entity instances will be cached.  See the CacheIsolationType for details on the options.
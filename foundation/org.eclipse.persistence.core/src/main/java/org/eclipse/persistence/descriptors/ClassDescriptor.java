@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2020 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -227,7 +227,7 @@ public class ClassDescriptor extends CoreDescriptor<AttributeGroup, DescriptorEv
     /** Allow the user to defined un-converted properties which will be initialized at runtime. */
     protected Map<String, List<String>> unconvertedProperties;
 
-    protected transient int initializationStage;
+    protected transient volatile int initializationStage;
     protected transient int interfaceInitializationStage;
     /** The following are the [initializationStage] states the descriptor passes through during the initialization. */
     protected static final int UNINITIALIZED = 0;
@@ -6776,6 +6776,62 @@ public void setDefaultDeleteObjectQueryRedirectorClassName(
         this.defaultDeleteObjectQueryRedirectorClassName = defaultDeleteObjectQueryRedirectorClassName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the class name of the default query redirector, null if none was set.
+     */
+    public String getDefaultQueryRedirectorClassName() {
+        return defaultQueryRedirectorClassName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class name of the default ReadAllQuery redirector, null if none was set.
+     */
+    public String getDefaultReadAllQueryRedirectorClassName() {
+        return defaultReadAllQueryRedirectorClassName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class name of the default ReadObjectQuery redirector, null if none was set.
+     */
+    public String getDefaultReadObjectQueryRedirectorClassName() {
+        return defaultReadObjectQueryRedirectorClassName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class name of the default ReportQuery redirector, null if none was set.
+     */
+    public String getDefaultReportQueryRedirectorClassName() {
+        return defaultReportQueryRedirectorClassName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class name of the default UpdateObjectQuery redirector, null if none was set.
+     */
+    public String getDefaultUpdateObjectQueryRedirectorClassName() {
+        return defaultUpdateObjectQueryRedirectorClassName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class name of the default InsertObjectQuery redirector, null if none was set.
+     */
+    public String getDefaultInsertObjectQueryRedirectorClassName() {
+        return defaultInsertObjectQueryRedirectorClassName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class name of the default DeleteObjectQuery redirector, null if none was set.
+     */
+    public String getDefaultDeleteObjectQueryRedirectorClassName() {
+        return defaultDeleteObjectQueryRedirectorClassName;
+    }
+
     /**
      * Return the descriptor's sequence.
      * This is normally set when the descriptor is initialized.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2019 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -1184,6 +1184,14 @@ public void setAdditionalCriteria(String additionalCriteria) {
         this.additionalCriteria = additionalCriteria;
     }
 
+    /**
+     * INTERNAL:
+     * Return the additional criteria jpql fragment, null if none was set.
+     */
+    public String getAdditionalCriteria() {
+        return additionalCriteria;
+    }
+
     /**
      * ADVANCED:
      * Set the additional join expression. Used in conjunction with
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -664,6 +664,14 @@ public void setClassExtractorName(String classExtractorName) {
         this.classExtractorName = classExtractorName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the class extractor class name, set by JPA and converted to the ClassExtractor at descriptor initialize time.
+     */
+    public String getClassExtractorName() {
+        return classExtractorName;
+    }
+
     /**
      * INTERNAL:
      * Return the class indicator associations for XML.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -73,6 +73,7 @@ public class XMLMarshalException extends ValidationException {
     public static final int MISSING_ID_FOR_IDREF = 25040;
     public static final int INVALID_ATTRIBUTE_GROUP_NAME = 25041;
     public static final int NULL_VALUE_NOT_ALLOWED_FOR_VARIABLE = 25042;
+    public static final int BINARY_MEDIA_TYPE_REQUIRES_STREAM = 25043;
 
     // ==========================================================================================
     protected XMLMarshalException(String message) {
@@ -474,4 +475,11 @@ public static XMLMarshalException nullValueNotAllowed(String variableName, Strin
         exception.setErrorCode(NULL_VALUE_NOT_ALLOWED_FOR_VARIABLE);
         return exception;
     }
+
+    public static XMLMarshalException binaryMediaTypeRequiresStream(String mediaType) {
+        Object[] args = {mediaType};
+        XMLMarshalException exception = new XMLMarshalException(ExceptionMessageGenerator.buildMessage(XMLMarshalException.class, BINARY_MEDIA_TYPE_REQUIRES_STREAM, args));
+        exception.setErrorCode(BINARY_MEDIA_TYPE_REQUIRES_STREAM);
+        return exception;
+    }
 }
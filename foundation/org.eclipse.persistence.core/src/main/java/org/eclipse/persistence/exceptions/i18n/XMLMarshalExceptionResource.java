@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -69,7 +69,8 @@ public class XMLMarshalExceptionResource extends ListResourceBundle {
                                            { "25039", "An error occurred unmarshalling from {0}"},
                                            { "25040", "An object of type {0} with ID {1} was not found."},
                                            { "25041", "The attribute group specified {0} is not defined for the class {1}."},
-                                           { "25042", "The value of the variable property {0} on the class {1} can not be null."}
+                                           { "25042", "The value of the variable property {0} on the class {1} can not be null."},
+                                           { "25043", "The media type {0} is binary. It can only be marshalled to an OutputStream, and unmarshalled from an InputStream, a File or a URL."}
 
     };
 
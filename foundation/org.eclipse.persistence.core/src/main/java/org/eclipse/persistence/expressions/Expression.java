@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -39,6 +39,8 @@
 import org.eclipse.persistence.internal.expressions.ExpressionIterator;
 import org.eclipse.persistence.internal.expressions.ExpressionJavaPrinter;
 import org.eclipse.persistence.internal.expressions.ExpressionNormalizer;
+import org.eclipse.persistence.internal.expressions.ExpressionPredicate;
+import org.eclipse.persistence.internal.expressions.ExpressionPredicateCompiler;
 import org.eclipse.persistence.internal.expressions.ExpressionSQLPrinter;
 import org.eclipse.persistence.internal.expressions.FunctionExpression;
 import org.eclipse.persistence.internal.expressions.LiteralExpression;
@@ -87,6 +89,8 @@ public abstract class Expression implements Serializable, Cloneable {
     protected boolean selectIfOrderedBy = true;
     /** PERF: Cache the hashCode. */
     protected int hashCode = 0;
+    /** PERF: Cache the compiled form of the expression used for in-memory conforming. */
+    protected transient ExpressionPredicate conformPredicate;
 
     /** Use the upper() function for case insensitive expression operations (default).
         Seting this flag to false will use the lower() function instead. */
@@ -1405,7 +1409,26 @@ public Expression distinct() {
      * If the expression in not able to determine if the object conform throw a not supported exception.
      */
     public boolean doesConform(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy) throws QueryException {
-        return doesConform(object, session, translationRow, valueHolderPolicy, false);
+        // PERF: Conform through the compiled expression.
+        return getConformPredicate().doesConform(object, session, translationRow, valueHolderPolicy, false);
+    }
+
+    /**
+     * INTERNAL:
+     * Return the compiled form of the expression used for in-memory conforming.
+     * The predicate is cached once the builder's session and query class have been set,
+     * as the mappings of the expression are resolved when it is compiled.
+     */
+    public ExpressionPredicate getConformPredicate() {
+        ExpressionPredicate predicate = this.conformPredicate;
+        if (predicate == null) {
+            predicate = ExpressionPredicateCompiler.compile(this);
+            ExpressionBuilder builder = getBuilder();
+            if ((builder != null) && (builder.getSession() != null) && (builder.getQueryClass() != null)) {
+                this.conformPredicate = predicate;
+            }
+        }
+        return predicate;
     }
 
     /**
@@ -4086,6 +4109,8 @@ public Expression shallowClone() {
         } catch (CloneNotSupportedException exception) {
             throw new InternalError(exception.toString());
         }
+        // The compiled predicate references the nodes of the original tree.
+        result.conformPredicate = null;
         return result;
     }
 
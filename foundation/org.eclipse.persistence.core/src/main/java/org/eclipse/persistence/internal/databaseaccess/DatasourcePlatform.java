@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2019, 2020 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -1076,4 +1076,13 @@ public Expression createExpressionFor(DatabaseField field, Expression builder) {
     public int getINClauseLimit() {
         return 0;
     }
+
+    /**
+     * INTERNAL:
+     * Some database platforms have a limit for the number of bind parameters in a statement,
+     * 0 if there is none or it is unknown.
+     */
+    public int getMaxBindParameters() {
+        return 0;
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -80,6 +80,7 @@
 import org.eclipse.persistence.internal.identitymaps.CacheId;
 import org.eclipse.persistence.internal.identitymaps.CacheKey;
 import org.eclipse.persistence.internal.indirection.ProxyIndirectionPolicy;
+import org.eclipse.persistence.internal.queries.AdaptiveBatchFetchStatistics;
 import org.eclipse.persistence.internal.queries.AttributeItem;
 import org.eclipse.persistence.internal.queries.ContainerPolicy;
 import org.eclipse.persistence.internal.queries.EntityFetchGroup;
@@ -160,6 +161,8 @@ public class ObjectBuilder extends CoreObjectBuilder<AbstractRecord, AbstractSes
     protected List<DatabaseMapping> batchFetchedAttributes;
     /** PERF: Cache mapping that use batch fetching. */
     protected boolean hasInBatchFetchedAttribute;
+    /** Cache lazy mappings that may be batch fetched depending on their usage. */
+    protected List<ForeignReferenceMapping> adaptiveBatchFetchedAttributes;
     /** PERF: Cache mappings that require cloning. */
     protected List<DatabaseMapping> cloningMappings;
     /** PERF: Cache mappings that are eager loaded. */
@@ -3538,6 +3541,13 @@ public boolean hasInBatchFetchedAttribute() {
         return this.hasInBatchFetchedAttribute;
     }
 
+    /**
+     * Return the lazy mappings that may be batch fetched depending on their usage, or null.
+     */
+    public List<ForeignReferenceMapping> getAdaptiveBatchFetchedAttributes() {
+        return this.adaptiveBatchFetchedAttributes;
+    }
+
     /**
      * Set if any mappings are always batch fetched using IN.
      */
@@ -3767,6 +3777,9 @@ public void initialize(AbstractSession session) throws DescriptorException {
         initializePrimaryKey(session);
         initializeJoinedAttributes();
         initializeBatchFetchedAttributes();
+        if (session.getProject().isAdaptiveBatchFetch()) {
+            initializeAdaptiveBatchFetchedAttributes();
+        }
 
         if (this.descriptor.usesSequenceNumbers()) {
             DatabaseMapping sequenceMapping = getMappingForField(this.descriptor.getSequenceNumberField());
@@ -3909,6 +3922,33 @@ public void initializeBatchFetchedAttributes() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Collect the lazy one to one, one to many and many to many mappings not configured
+     * for batch or join fetching, which may be batch fetched depending on their usage.
+     */
+    public void initializeAdaptiveBatchFetchedAttributes() {
+        List<ForeignReferenceMapping> adaptiveAttributes = null;
+        if (this.batchFetchedAttributes == null) {
+            for (DatabaseMapping mapping : this.descriptor.getMappings()) {
+                if ((mapping.isOneToOneMapping() || mapping.isOneToManyMapping() || mapping.isManyToManyMapping())
+                        && !((ForeignReferenceMapping)mapping).shouldUseBatchReading()
+                        && ((ForeignReferenceMapping)mapping).usesIndirection()
+                        && (((ForeignReferenceMapping)mapping).getJoinFetch() == ForeignReferenceMapping.NONE)) {
+                    ForeignReferenceMapping referenceMapping = (ForeignReferenceMapping)mapping;
+                    if (adaptiveAttributes == null) {
+                        adaptiveAttributes = new ArrayList<>();
+                    }
+                    if (referenceMapping.getAdaptiveBatchFetchStatistics() == null) {
+                        referenceMapping.setAdaptiveBatchFetchStatistics(new AdaptiveBatchFetchStatistics(referenceMapping));
+                    }
+                    adaptiveAttributes.add(referenceMapping);
+                }
+            }
+        }
+        this.adaptiveBatchFetchedAttributes = adaptiveAttributes;
+    }
+
     /**
      * Initialize a cache key.  Called by buildObject and now also by
      * buildWorkingCopyCloneFromRow.
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.expressions;
+
+import java.util.Collection;
+
+import org.eclipse.persistence.descriptors.FetchGroupManager;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionOperator;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Compiled form of a selection criteria used for in-memory conforming.
+ * <p><b>Description</b>: The expression tree is interpreted node by node by {@link Expression#doesConform},
+ * resolving the mapping of each query key and the operator on every call.
+ * A predicate is built once from the tree by {@link ExpressionPredicateCompiler}, holding the resolved
+ * mappings, accessors and operators, so conforming an object only evaluates the attribute values.
+ * Any node that cannot be compiled is wrapped and evaluated through the original expression node,
+ * so a predicate always conforms exactly as the interpreted expression would.
+ * <p>
+ * Predicates are immutable and may be shared across threads.
+ *
+ * @see ExpressionPredicateCompiler
+ */
+public abstract class ExpressionPredicate {
+
+    /**
+     * INTERNAL:
+     * Return if the object conforms to the compiled expression.
+     * Throws the same exceptions as {@link Expression#doesConform} if the object can not be conformed.
+     */
+    public abstract boolean doesConform(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy, boolean isObjectUnregistered);
+
+    /**
+     * INTERNAL:
+     * Return if the predicate delegates evaluation of the entire tree to the expression.
+     */
+    public boolean isInterpreted() {
+        return false;
+    }
+
+    /**
+     * Evaluates an expression node that could not be compiled through the expression itself.
+     */
+    public static class Interpreted extends ExpressionPredicate {
+        protected final Expression expression;
+
+        public Interpreted(Expression expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        public boolean doesConform(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy, boolean isObjectUnregistered) {
+            return this.expression.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+        }
+
+        @Override
+        public boolean isInterpreted() {
+            return true;
+        }
+    }
+
+    /**
+     * Compiled form of an AND logical expression.
+     */
+    public static class And extends ExpressionPredicate {
+        protected final ExpressionPredicate first;
+        protected final ExpressionPredicate second;
+
+        public And(ExpressionPredicate first, ExpressionPredicate second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean doesConform(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy, boolean isObjectUnregistered) {
+            return this.first.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered)
+                    && this.second.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+        }
+    }
+
+    /**
+     * Compiled form of an OR logical expression.
+     */
+    public static class Or extends ExpressionPredicate {
+        protected final ExpressionPredicate first;
+        protected final ExpressionPredicate second;
+
+        public Or(ExpressionPredicate first, ExpressionPredicate second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean doesConform(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy, boolean isObjectUnregistered) {
+            return this.first.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered)
+                    || this.second.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+        }
+    }
+
+    /**
+     * Compiled form of a NOT function expression.
+     */
+    public static class Not extends ExpressionPredicate {
+        protected final ExpressionPredicate predicate;
+
+        public Not(ExpressionPredicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean doesConform(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy, boolean isObjectUnregistered) {
+            return !this.predicate.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+        }
+    }
+
+    /**
+     * Compiled comparison of a direct mapped attribute of the source object with a value.
+     * The value is either a constant, a parameter from the translation row or null for IS NULL/NOT NULL.
+     * Objects of a different class than the one the mapping was resolved for (inheritance)
+     * are conformed through the original expression node.
+     */
+    public static class AttributeComparison extends ExpressionPredicate {
+        /** The original node, used for objects the compiled form does not apply to. */
+        protected final Expression expression;
+        protected final Class<?> javaClass;
+        protected final DatabaseMapping mapping;
+        protected final DatabaseField field;
+        protected final FetchGroupManager fetchGroupManager;
+        protected final ExpressionOperator operator;
+        /** Expression to extract the right value from, null if the value is constant. */
+        protected final Expression valueExpression;
+        protected final Object constantValue;
+
+        public AttributeComparison(Expression expression, Class<?> javaClass, DatabaseMapping mapping, ExpressionOperator operator, Expression valueExpression, Object constantValue) {
+            this.expression = expression;
+            this.javaClass = javaClass;
+            this.mapping = mapping;
+            this.field = mapping.getField();
+            this.fetchGroupManager = mapping.getDescriptor().getFetchGroupManager();
+            this.operator = operator;
+            this.valueExpression = valueExpression;
+            this.constantValue = constantValue;
+        }
+
+        @Override
+        public boolean doesConform(Object object, AbstractSession session, AbstractRecord translationRow, int valueHolderPolicy, boolean isObjectUnregistered) {
+            if ((object.getClass() != this.javaClass)
+                    || ((this.fetchGroupManager != null) && this.fetchGroupManager.isPartialObject(object))) {
+                return this.expression.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+            }
+            Object rightValue = this.constantValue;
+            if (this.valueExpression != null) {
+                rightValue = this.valueExpression.valueFromObject(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+                // IN and anyOf values are conformed by the expression.
+                if (rightValue instanceof Collection) {
+                    return this.expression.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+                }
+            }
+            Object leftValue = this.mapping.valueFromObject(object, this.field, session);
+            if (leftValue instanceof Collection) {
+                return this.expression.doesConform(object, session, translationRow, valueHolderPolicy, isObjectUnregistered);
+            }
+            return this.operator.doesRelationConform(leftValue, rightValue);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.expressions;
+
+import java.util.List;
+
+import org.eclipse.persistence.exceptions.QueryException;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.expressions.ExpressionOperator;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Compile a selection criteria into an {@link ExpressionPredicate} for in-memory conforming.
+ * <p><b>Description</b>: AND, OR and NOT nodes, and comparisons (=, &lt;&gt;, &lt;, &lt;=, &gt;, &gt;=, IS NULL, NOT NULL)
+ * of a direct mapped attribute of the source object with a constant or a parameter are compiled.
+ * All other nodes, such as comparisons across relationships, functions or sub-selects are evaluated
+ * through the expression node itself.
+ * <p>
+ * The expression builder must have its session and query class set before compiling,
+ * as mappings are resolved during compilation.
+ */
+public class ExpressionPredicateCompiler {
+
+    private ExpressionPredicateCompiler() {
+    }
+
+    /**
+     * INTERNAL:
+     * Return the compiled predicate for the expression.
+     * If none of the expression could be compiled the returned predicate interprets the expression.
+     */
+    public static ExpressionPredicate compile(Expression expression) {
+        ExpressionBuilder builder = expression.getBuilder();
+        if ((builder == null) || (builder.getSession() == null) || (builder.getQueryClass() == null)) {
+            return new ExpressionPredicate.Interpreted(expression);
+        }
+        ExpressionPredicate predicate = compile(expression, builder);
+        if (predicate == null) {
+            return new ExpressionPredicate.Interpreted(expression);
+        }
+        return predicate;
+    }
+
+    /**
+     * Compile the node, return null if the node can only be interpreted.
+     */
+    protected static ExpressionPredicate compile(Expression expression, ExpressionBuilder builder) {
+        if (expression.isLogicalExpression()) {
+            LogicalExpression logical = (LogicalExpression)expression;
+            int selector = logical.getOperator().getSelector();
+            if ((selector != ExpressionOperator.And) && (selector != ExpressionOperator.Or)) {
+                return null;
+            }
+            ExpressionPredicate first = compile(logical.getFirstChild(), builder);
+            ExpressionPredicate second = compile(logical.getSecondChild(), builder);
+            if ((first == null) && (second == null)) {
+                return null;
+            }
+            if (first == null) {
+                first = new ExpressionPredicate.Interpreted(logical.getFirstChild());
+            }
+            if (second == null) {
+                second = new ExpressionPredicate.Interpreted(logical.getSecondChild());
+            }
+            if (selector == ExpressionOperator.And) {
+                return new ExpressionPredicate.And(first, second);
+            }
+            return new ExpressionPredicate.Or(first, second);
+        } else if (expression.isRelationExpression()) {
+            return compileRelation((RelationExpression)expression, builder);
+        } else if (expression.isFunctionExpression()) {
+            return compileFunction((FunctionExpression)expression, builder);
+        }
+        return null;
+    }
+
+    /**
+     * Compile a comparison of a direct attribute with a constant or parameter.
+     */
+    protected static ExpressionPredicate compileRelation(RelationExpression relation, ExpressionBuilder builder) {
+        int selector = relation.getOperator().getSelector();
+        if ((selector != ExpressionOperator.Equal) && (selector != ExpressionOperator.NotEqual)
+                && (selector != ExpressionOperator.LessThan) && (selector != ExpressionOperator.LessThanEqual)
+                && (selector != ExpressionOperator.GreaterThan) && (selector != ExpressionOperator.GreaterThanEqual)) {
+            return null;
+        }
+        DatabaseMapping mapping = directMappingFor(relation.getFirstChild(), builder);
+        if (mapping == null) {
+            return null;
+        }
+        Expression value = relation.getSecondChild();
+        if ((!value.isConstantExpression() && !value.isParameterExpression()) || (value.getBuilder() != builder)) {
+            return null;
+        }
+        // Constants not converted through their base can be extracted once.
+        if (value.isConstantExpression() && (((ConstantExpression)value).getLocalBase() == null)) {
+            return new ExpressionPredicate.AttributeComparison(relation, builder.getQueryClass(), mapping, relation.getOperator(), null, ((ConstantExpression)value).getValue());
+        }
+        return new ExpressionPredicate.AttributeComparison(relation, builder.getQueryClass(), mapping, relation.getOperator(), value, null);
+    }
+
+    /**
+     * Compile NOT, IS NULL and NOT NULL functions.
+     */
+    protected static ExpressionPredicate compileFunction(FunctionExpression function, ExpressionBuilder builder) {
+        int selector = function.getOperator().getSelector();
+        List<Expression> children = function.getChildren();
+        if (children.size() != 1) {
+            return null;
+        }
+        if (selector == ExpressionOperator.Not) {
+            ExpressionPredicate predicate = compile(function.getBaseExpression(), builder);
+            if (predicate == null) {
+                return null;
+            }
+            return new ExpressionPredicate.Not(predicate);
+        } else if ((selector == ExpressionOperator.IsNull) || (selector == ExpressionOperator.NotNull)) {
+            DatabaseMapping mapping = directMappingFor(function.getBaseExpression(), builder);
+            if (mapping == null) {
+                return null;
+            }
+            return new ExpressionPredicate.AttributeComparison(function, builder.getQueryClass(), mapping, function.getOperator(), null, null);
+        }
+        return null;
+    }
+
+    /**
+     * Return the direct mapping if the expression is a query key of the source object, otherwise null.
+     */
+    protected static DatabaseMapping directMappingFor(Expression expression, ExpressionBuilder builder) {
+        if (!expression.isQueryKeyExpression()) {
+            return null;
+        }
+        QueryKeyExpression queryKey = (QueryKeyExpression)expression;
+        if ((queryKey.getBaseExpression() != builder) || queryKey.isMapEntryExpression()) {
+            return null;
+        }
+        DatabaseMapping mapping;
+        try {
+            mapping = queryKey.getMapping();
+        } catch (QueryException exception) {
+            // Let the expression report the error when conformed.
+            return null;
+        }
+        if ((mapping == null) || !mapping.isAbstractDirectMapping() || (mapping.getDescriptor() == null)
+                || (mapping.getDescriptor().getJavaClass() != builder.getQueryClass())) {
+            return null;
+        }
+        return mapping;
+    }
+}
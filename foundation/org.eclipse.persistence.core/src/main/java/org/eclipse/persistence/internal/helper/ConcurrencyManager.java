@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -18,7 +18,7 @@
 import java.security.AccessController;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.persistence.config.SystemProperties;
@@ -51,9 +51,15 @@ public class ConcurrencyManager implements Serializable {
 
     protected static boolean shouldTrackStack = PrivilegedAccessHelper.getSystemProperty(SystemProperties.RECORD_STACK_ON_LOCK) != null;
 
-    protected AtomicInteger numberOfReaders;
-    protected AtomicInteger depth;
-    protected AtomicInteger numberOfWritersWaiting;
+    // PERF: Lock state is held in plain volatile fields updated atomically through field updaters,
+    // instead of atomic objects, as every cache key is a concurrency manager.
+    protected static final AtomicIntegerFieldUpdater<ConcurrencyManager> NUMBER_OF_READERS = AtomicIntegerFieldUpdater.newUpdater(ConcurrencyManager.class, "numberOfReaders");
+    protected static final AtomicIntegerFieldUpdater<ConcurrencyManager> DEPTH = AtomicIntegerFieldUpdater.newUpdater(ConcurrencyManager.class, "depth");
+    protected static final AtomicIntegerFieldUpdater<ConcurrencyManager> NUMBER_OF_WRITERS_WAITING = AtomicIntegerFieldUpdater.newUpdater(ConcurrencyManager.class, "numberOfWritersWaiting");
+
+    protected volatile int numberOfReaders;
+    protected volatile int depth;
+    protected volatile int numberOfWritersWaiting;
     protected volatile transient Thread activeThread;
 
     protected boolean lockedByMergeManager;
@@ -62,16 +68,17 @@ public class ConcurrencyManager implements Serializable {
     // Extended logging info fields
     // Unique ID assigned each time when a new instance of a concurrency manager is created
     private final long concurrencyManagerId = CONCURRENCY_MANAGER_ID.incrementAndGet();
-    // Creation date
-    private final Date concurrencyManagerCreationDate = new Date();
+    // Creation time, the date is only built when logged
+    private final long concurrencyManagerCreationTime = System.currentTimeMillis();
     // In case if two threads are working on the exact same entity that leads to both threads wanting to release the same cache key
     // there is tracking each increment of number of readers and their release.
-    private final AtomicLong totalNumberOfKeysAcquiredForReading = new AtomicLong(0);
+    // The counters are only incremented holding the monitor of this concurrency manager.
+    private volatile long totalNumberOfKeysAcquiredForReading;
     // Same as totalNumberOfKeysAcquiredForReading but incremented each time the cache key is suffering to release cache key.
-    private final AtomicLong totalNumberOfKeysReleasedForReading = new AtomicLong(0);
+    private volatile long totalNumberOfKeysReleasedForReading;
      // Total number of times the cache key caused a blow up because it suffered a release of cache key when the counter
      // was set to 0. It should happen if an entity being shared by two threads.
-    private final AtomicLong totalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero = new AtomicLong(0);
+    private volatile long totalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero;
 
     private static final Map<Thread, ConcurrencyManager> THREADS_TO_WAIT_ON_ACQUIRE_READ_LOCK = new ConcurrentHashMap<>();
     private static final Map<Thread, ConcurrencyManager> THREADS_TO_WAIT_ON_ACQUIRE = new ConcurrentHashMap<>();
@@ -84,9 +91,6 @@ public class ConcurrencyManager implements Serializable {
      * Set the depth to zero.
      */
     public ConcurrencyManager() {
-        this.depth  = new AtomicInteger(0);
-        this.numberOfReaders = new AtomicInteger(0);
-        this.numberOfWritersWaiting = new AtomicInteger(0);
     }
 
     /**
@@ -114,14 +118,14 @@ public synchronized void acquire(boolean forMerge) throws ConcurrencyException {
         // Waiting to acquire cache key will now start on the while loop
         // NOTE: this step bares no influence in acquiring or not acquiring locks
         // is just storing debug metadata that we can use when we detect the system is frozen in a dead lock
-        final boolean currentThreadWillEnterTheWhileWait = ((this.activeThread != null) || (this.numberOfReaders.get() > 0)) && (this.activeThread != currentThread);
+        final boolean currentThreadWillEnterTheWhileWait = ((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != currentThread);
         if(currentThreadWillEnterTheWhileWait) {
             putThreadAsWaitingToAcquireLockForWriting(currentThread);
         }
-        while (((this.activeThread != null) || (this.numberOfReaders.get() > 0)) && (this.activeThread != Thread.currentThread())) {
+        while (((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != Thread.currentThread())) {
             // This must be in a while as multiple threads may be released, or another thread may rush the acquire after one is released.
             try {
-                this.numberOfWritersWaiting.incrementAndGet();
+                NUMBER_OF_WRITERS_WAITING.incrementAndGet(this);
                 wait(ConcurrencyUtil.SINGLETON.getAcquireWaitTime());
                 // Run a method that will fire up an exception if we having been sleeping for too long
                 ConcurrencyUtil.SINGLETON.determineIfReleaseDeferredLockAppearsToBeDeadLocked(this, whileStartTimeMillis, lockManager, readLockManager, ConcurrencyUtil.SINGLETON.isAllowInterruptedExceptionFired());
@@ -138,7 +142,7 @@ public synchronized void acquire(boolean forMerge) throws ConcurrencyException {
                 // Since above we increments the number of writers
                 // whether or not the thread is exploded by an interrupt
                 // we need to make sure we decrement the number of writer to not allow the code to be corrupted
-                this.numberOfWritersWaiting.decrementAndGet();
+                NUMBER_OF_WRITERS_WAITING.decrementAndGet(this);
             }
         } // end of while loop
         // Waiting to acquire cahe key is is over
@@ -152,7 +156,7 @@ public synchronized void acquire(boolean forMerge) throws ConcurrencyException {
             }
         }
         this.lockedByMergeManager = forMerge;
-        this.depth.incrementAndGet();
+        DEPTH.incrementAndGet(this);
     }
 
     /**
@@ -171,7 +175,7 @@ public boolean acquireNoWait() throws ConcurrencyException {
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
     public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyException {
-        if ((this.activeThread == null && this.numberOfReaders.get() == 0) || (this.activeThread == Thread.currentThread())) {
+        if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
             //if I own the lock increment depth
             acquire(forMerge);
             return true;
@@ -188,7 +192,7 @@ public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyEx
      */
     public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
         final Thread currentThread = Thread.currentThread();
-        if ((this.activeThread == null && this.numberOfReaders.get() == 0) || (this.activeThread == currentThread)) {
+        if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == currentThread)) {
             // if I own the lock increment depth
             acquire(forMerge);
             return true;
@@ -201,7 +205,7 @@ public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws C
             } finally {
                 removeThreadNoLongerWaitingToAcquireLockForWriting(currentThread);
             }
-            if ((this.activeThread == null && this.numberOfReaders.get() == 0)
+            if ((this.activeThread == null && this.numberOfReaders == 0)
                     || (this.activeThread == currentThread)) {
                 acquire(forMerge);
                 return true;
@@ -218,7 +222,7 @@ public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws C
      */
     public synchronized boolean acquireIfUnownedNoWait(boolean forMerge) throws ConcurrencyException {
         // Only acquire lock if active thread is null. Do not check current thread.
-        if (this.activeThread == null && this.numberOfReaders.get() == 0) {
+        if (this.activeThread == null && this.numberOfReaders == 0) {
              // if lock is unowned increment depth
             acquire(forMerge);
             return true;
@@ -241,11 +245,11 @@ public void acquireDeferredLock() throws ConcurrencyException {
         lockManager.incrementDepth();
         synchronized (this) {
             final long whileStartTimeMillis = System.currentTimeMillis();
-            final boolean currentThreadWillEnterTheWhileWait = this.numberOfReaders.get() != 0;
+            final boolean currentThreadWillEnterTheWhileWait = this.numberOfReaders != 0;
             if(currentThreadWillEnterTheWhileWait) {
                 putThreadAsWaitingToAcquireLockForWriting(currentThread);
             }
-            while (this.numberOfReaders.get() != 0) {
+            while (this.numberOfReaders != 0) {
                 // There are readers of this object, wait until they are done before determining if
                 //there are any other writers.  If not we will wait on the readers for acquire.  If another
                 //thread is also waiting on the acquire then a deadlock could occur.  See bug 3049635
@@ -253,7 +257,7 @@ public void acquireDeferredLock() throws ConcurrencyException {
                 //we could make the readers get a hard lock, but then we would just build a deferred lock even though
                 //the object is not being built.
                 try {
-                    this.numberOfWritersWaiting.incrementAndGet();
+                    NUMBER_OF_WRITERS_WAITING.incrementAndGet(this);
                     wait(ConcurrencyUtil.SINGLETON.getAcquireWaitTime());
                     ConcurrencyUtil.SINGLETON.determineIfReleaseDeferredLockAppearsToBeDeadLocked(this, whileStartTimeMillis, lockManager, readLockManager, ConcurrencyUtil.SINGLETON.isAllowInterruptedExceptionFired());
                 } catch (InterruptedException exception) {
@@ -264,7 +268,7 @@ public void acquireDeferredLock() throws ConcurrencyException {
                     }
                     throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
                 } finally {
-                    this.numberOfWritersWaiting.decrementAndGet();
+                    NUMBER_OF_WRITERS_WAITING.decrementAndGet(this);
                 }
             }
             if (currentThreadWillEnterTheWhileWait) {
@@ -340,8 +344,8 @@ public synchronized void acquireReadLock() throws ConcurrencyException {
         try {
             addReadLockToReadLockManager();
         } finally {
-            this.numberOfReaders.incrementAndGet();
-            this.totalNumberOfKeysAcquiredForReading.incrementAndGet();
+            NUMBER_OF_READERS.incrementAndGet(this);
+            this.totalNumberOfKeysAcquiredForReading++;
         }
     }
 
@@ -389,7 +393,7 @@ protected static Map initializeDeferredLockManagers() {
      * Return the current depth of the active thread.
      */
     public int getDepth() {
-        return depth.get();
+        return this.depth;
     }
 
     /**
@@ -397,7 +401,7 @@ public int getDepth() {
      * This is used to ensure that a writer is not starved.
      */
     public int getNumberOfReaders() {
-        return numberOfReaders.get();
+        return this.numberOfReaders;
     }
 
     /**
@@ -405,14 +409,14 @@ public int getNumberOfReaders() {
      * This is used to ensure that a writer is not starved.
      */
     public int getNumberOfWritersWaiting() {
-        return numberOfWritersWaiting.get();
+        return this.numberOfWritersWaiting;
     }
 
     /**
      * Return if a thread has acquire this manager.
      */
     public boolean isAcquired() {
-        return depth.get() > 0;
+        return this.depth > 0;
     }
 
     /**
@@ -473,7 +477,7 @@ public static boolean isBuildObjectOnThreadComplete(Thread thread, Map recursive
      * Return if this manager is within a nested acquire.
      */
     public boolean isNested() {
-        return depth.get() > 1;
+        return this.depth > 1;
     }
 
     public void putDeferredLock(Thread thread, DeferredLockManager lockManager) {
@@ -488,12 +492,12 @@ public void putDeferredLock(Thread thread, DeferredLockManager lockManager) {
      * if no threads are waiting it will do nothing.
      */
     public synchronized void release() throws ConcurrencyException {
-        if (this.depth.get() == 0) {
+        if (this.depth == 0) {
             throw ConcurrencyException.signalAttemptedBeforeWait();
         } else {
-            this.depth.decrementAndGet();
+            DEPTH.decrementAndGet(this);
         }
-        if (this.depth.get() == 0) {
+        if (this.depth == 0) {
             this.activeThread = null;
             if (shouldTrackStack){
                 this.stack = null;
@@ -585,8 +589,8 @@ public void releaseDeferredLock() throws ConcurrencyException {
      * Decrement the number of readers. Used to allow concurrent reads.
      */
     public synchronized void releaseReadLock() throws ConcurrencyException {
-        if (this.numberOfReaders.get() == 0) {
-            this.totalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero.incrementAndGet();
+        if (this.numberOfReaders == 0) {
+            this.totalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero++;
             try {
                 removeReadLockFromReadLockManager();
             } catch (Exception e) {
@@ -597,11 +601,11 @@ public synchronized void releaseReadLock() throws ConcurrencyException {
             try {
                 removeReadLockFromReadLockManager();
             } finally {
-                this.numberOfReaders.decrementAndGet();
-                this.totalNumberOfKeysReleasedForReading.incrementAndGet();
+                NUMBER_OF_READERS.decrementAndGet(this);
+                this.totalNumberOfKeysReleasedForReading++;
             }
         }
-        if (this.numberOfReaders.get() == 0) {
+        if (this.numberOfReaders == 0) {
             notifyAll();
         }
     }
@@ -624,7 +628,7 @@ public void setActiveThread(Thread activeThread) {
      * Set the current depth of the active thread.
      */
     protected void setDepth(int depth) {
-        this.depth.set(depth);
+        this.depth = depth;
     }
 
     /**
@@ -640,7 +644,7 @@ public void setIsLockedByMergeManager(boolean state) {
      * Track the number of readers.
      */
     protected void setNumberOfReaders(int numberOfReaders) {
-        this.numberOfReaders.set(numberOfReaders);
+        this.numberOfReaders = numberOfReaders;
     }
 
     /**
@@ -648,7 +652,7 @@ protected void setNumberOfReaders(int numberOfReaders) {
      * This is used to ensure that a writer is not starved.
      */
     protected void setNumberOfWritersWaiting(int numberOfWritersWaiting) {
-        this.numberOfWritersWaiting.set(numberOfWritersWaiting);
+        this.numberOfWritersWaiting = numberOfWritersWaiting;
     }
 
     public synchronized void transitionToDeferredLock() {
@@ -770,24 +774,24 @@ public long getConcurrencyManagerId() {
         return concurrencyManagerId;
     }
 
-    /** Getter for {@link #concurrencyManagerCreationDate} */
+    /** Getter for {@link #concurrencyManagerCreationTime} */
     public Date getConcurrencyManagerCreationDate() {
-        return concurrencyManagerCreationDate;
+        return new Date(concurrencyManagerCreationTime);
     }
 
     /** Getter for {@link #totalNumberOfKeysAcquiredForReading} */
     public long getTotalNumberOfKeysAcquiredForReading() {
-        return totalNumberOfKeysAcquiredForReading.get();
+        return totalNumberOfKeysAcquiredForReading;
     }
 
     /** Getter for {@link #totalNumberOfKeysReleasedForReading} */
     public long getTotalNumberOfKeysReleasedForReading() {
-        return totalNumberOfKeysReleasedForReading.get();
+        return totalNumberOfKeysReleasedForReading;
     }
 
     /** Getter for {@link #totalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero} */
     public long getTotalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero() {
-        return totalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero.get();
+        return totalNumberOfKeysReleasedForReadingBlewUpExceptionDueToCacheKeyHavingReachedCounterZero;
     }
 
     /** Getter for {@link #THREADS_TO_WAIT_ON_ACQUIRE} */
@@ -832,7 +836,7 @@ protected void removeReadLockFromReadLockManager() {
             // We have a problem we do not want ever see a decrement on the number of readers if we
             // are not tracing one or more predecessor add read lock keys.
             // so we will put the error message into a fresh new read lock manager
-            final int currentNumberOfReaders = this.numberOfReaders.get();
+            final int currentNumberOfReaders = this.numberOfReaders;
             final int decrementedNumberOfReaders = currentNumberOfReaders - 1;
             String errorMessage = ConcurrencyUtil.SINGLETON.readLockManagerProblem01CreateLogErrorMessageToIndicateThatCurrentThreadHasNullReadLockManagerWhileDecrementingNumberOfReaders(currentNumberOfReaders, decrementedNumberOfReaders, this);
             readLockManager = getReadLockManagerEnsureResultIsNotNull(currentThread);
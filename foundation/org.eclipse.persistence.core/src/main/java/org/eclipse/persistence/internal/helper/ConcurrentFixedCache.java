@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -17,16 +17,35 @@
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Provide a concurrent fixed size caching mechanism.
  * This is used for caching EJBQL parsed queries, Update calls,
  * and other places a fixed size cache is needed.
  * The default fixed size is 100.
+ * <p>
+ * Once full, a new value is only cached if it is used more often than the least used of a sample
+ * of cached values, which is then evicted (TinyLFU).
+ * How often keys are used is estimated by a {@link FrequencySketch} counting each get,
+ * so a burst of one time keys cannot flush the frequently used ones.
+ * Gets are lock free, and hits, misses, evictions and rejected values are counted.
  */
 public class ConcurrentFixedCache implements Serializable {
+    /** Number of cached keys compared to select the one to evict. */
+    protected static final int SAMPLE_SIZE = 8;
+
     protected int maxSize;
     protected Map cache;
+    /** Keys in insertion order, sampled for eviction, may contain removed keys. */
+    protected Queue order;
+    protected AtomicInteger orderSize;
+    protected FrequencySketch sketch;
+    protected LongAdder hits;
+    protected LongAdder misses;
+    protected LongAdder evictions;
+    protected LongAdder rejections;
 
     /**
      * Create a new concurrent cache, with a fixed size of 100.
@@ -41,7 +60,14 @@ public ConcurrentFixedCache() {
     public ConcurrentFixedCache(int maxSize) {
         // PERF: Use a concurrent map to allow concurrent gets.
         this.cache = new ConcurrentHashMap(maxSize);
+        this.order = new ConcurrentLinkedQueue();
+        this.orderSize = new AtomicInteger();
         this.maxSize = maxSize;
+        this.sketch = new FrequencySketch(maxSize);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.rejections = new LongAdder();
     }
 
     /**
@@ -53,10 +79,13 @@ public int getMaxSize() {
 
     /**
      * Set the fixed size of the parse cache.
-     * When the size is exceeded, subsequent EJBQL will not be cached.
+     * When the size is exceeded, subsequent EJBQL will only be cached if used more often than cached EJBQL.
      * The default size is 100;
      */
     public void setMaxSize(int maxSize) {
+        if (maxSize > this.maxSize) {
+            this.sketch = new FrequencySketch(maxSize);
+        }
         this.maxSize = maxSize;
     }
 
@@ -65,40 +94,116 @@ public void setMaxSize(int maxSize) {
      * If the EJBQL has not been cached, null is returned.
      */
     public Object get(Object key) {
-        return this.cache.get(key);
+        Object value = this.cache.get(key);
+        this.sketch.increment(key);
+        if (value == null) {
+            this.misses.increment();
+        } else {
+            this.hits.increment();
+        }
+        return value;
     }
 
     public void clear(){
         this.cache.clear();
+        this.order.clear();
+        this.orderSize.set(0);
     }
 
     /**
      * Add the value to the cache.
-     * Remove the
+     * If the cache is full, the value is only added if its key is used more often than
+     * the least used of a sample of cached keys, which is removed.
      */
     public void put(Object key, Object value) {
         if (this.maxSize == 0) {
             return;
         }
-        this.cache.put(key, value);
-        // Currently just removes the first one encountered, not LRU,
-        // this is not ideal, but the most concurrent and quickest way to ensure fixed size.
-        if (this.cache.size() > this.maxSize) {
-            Iterator iterator = this.cache.keySet().iterator();
-            try {
-                while ((this.cache.size() > this.maxSize) && iterator.hasNext()) {
-                    Object next = iterator.next();
+        if ((this.cache.size() >= this.maxSize) && !this.cache.containsKey(key) && !admit(key)) {
+            this.rejections.increment();
+            return;
+        }
+        if (this.cache.put(key, value) == null) {
+            this.order.add(key);
+            if (this.orderSize.incrementAndGet() > ((this.maxSize << 1) + SAMPLE_SIZE)) {
+                rebuildOrder();
+            }
+            // Concurrent puts may have exceeded the size.
+            for (int index = 0; (index < SAMPLE_SIZE) && (this.cache.size() > this.maxSize); index++) {
+                Object next = this.order.poll();
+                if (next == null) {
+                    break;
+                }
+                if (next == key) {
                     // Do not remove what was just put in.
-                    if (next != key) {
-                        this.cache.remove(next);
+                    this.order.add(next);
+                } else {
+                    this.orderSize.decrementAndGet();
+                    if (this.cache.remove(next) != null) {
+                        this.evictions.increment();
                     }
                 }
-            } catch (Exception alreadyGone) {
-                // Ignore.
             }
         }
     }
 
+    /**
+     * Return if the key is used more often than the least used of a sample of cached keys,
+     * and if so evict that key.
+     * The other sampled keys are moved to the end of the queue, so the next sample is different.
+     */
+    protected boolean admit(Object key) {
+        Object victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int index = 0; index < SAMPLE_SIZE; index++) {
+            Object next = this.order.poll();
+            if (next == null) {
+                break;
+            }
+            if (!this.cache.containsKey(next)) {
+                // Removed, drop it.
+                this.orderSize.decrementAndGet();
+                continue;
+            }
+            int frequency = this.sketch.frequency(next);
+            if (frequency < victimFrequency) {
+                if (victim != null) {
+                    this.order.add(victim);
+                }
+                victim = next;
+                victimFrequency = frequency;
+            } else {
+                this.order.add(next);
+            }
+        }
+        if (victim == null) {
+            return true;
+        }
+        if (this.sketch.frequency(key) > victimFrequency) {
+            this.orderSize.decrementAndGet();
+            if (this.cache.remove(victim) != null) {
+                this.evictions.increment();
+            }
+            return true;
+        }
+        this.order.add(victim);
+        return false;
+    }
+
+    /**
+     * Drop removed keys from the queue, only required if keys were removed without being sampled.
+     */
+    protected void rebuildOrder() {
+        synchronized (this.order) {
+            if (this.orderSize.get() <= ((this.maxSize << 1) + SAMPLE_SIZE)) {
+                return;
+            }
+            this.order.clear();
+            this.order.addAll(this.cache.keySet());
+            this.orderSize.set(this.order.size());
+        }
+    }
+
     /**
      * Remove from cache.
      */
@@ -112,4 +217,51 @@ public void remove(Object key) {
     public Map getCache() {
         return cache;
     }
+
+    /**
+     * Return the number of gets that found a value.
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Return the number of gets that found no value.
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Return the ratio of gets that found a value, or 0 if none were done.
+     */
+    public double getHitRatio() {
+        long hits = this.hits.sum();
+        long total = hits + this.misses.sum();
+        return (total == 0) ? 0 : ((double)hits / total);
+    }
+
+    /**
+     * Return the number of values removed to make room for more frequently used ones.
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Return the number of values not cached as used less often than the cached ones.
+     */
+    public long getRejectionCount() {
+        return this.rejections.sum();
+    }
+
+    /**
+     * Reset the hit, miss, eviction and rejection counts.
+     */
+    public void resetStatistics() {
+        this.hits.reset();
+        this.misses.reset();
+        this.evictions.reset();
+        this.rejections.reset();
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.helper;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Estimate how often keys were accessed recently, in a small fixed amount of memory.
+ * <p><b>Description</b>: A count-min sketch of 4 bit counters, 16 per long.
+ * Each key is counted in 4 counters and its frequency is the smallest of them, so collisions can only over-estimate it.
+ * Once ten times the number of tracked keys were counted, all counters are halved so old accesses fade out.
+ * Counters are updated by compare and swap, and saturated counters are only read, so hot keys cause no writes.
+ *
+ * @see ConcurrentFixedCache
+ */
+public class FrequencySketch implements Serializable {
+    /** Largest value of a counter. */
+    public static final int MAXIMUM_FREQUENCY = 15;
+    /** Number of accesses per tracked key after which counters are halved. */
+    protected static final int SAMPLE_FACTOR = 10;
+    /** Seed of each of the 4 hash functions. */
+    protected static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    protected static final long RESET_MASK = 0x7777777777777777L;
+
+    protected final AtomicLongArray table;
+    protected final int tableMask;
+    protected final int sampleSize;
+    protected final AtomicInteger size;
+
+    /**
+     * Create a sketch for about the number of keys.
+     */
+    public FrequencySketch(int maximumKeys) {
+        int length = Integer.highestOneBit(Math.max(maximumKeys, 8) - 1) << 1;
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = Math.max(maximumKeys, 8) * SAMPLE_FACTOR;
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Return the estimated number of recent accesses to the key, at most 15.
+     */
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAXIMUM_FREQUENCY;
+        for (int depth = 0; depth < 4; depth++) {
+            int offset = (start + depth) << 2;
+            int count = (int)((this.table.get(indexOf(hash, depth)) >>> offset) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Record an access to the key.
+     */
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int depth = 0; depth < 4; depth++) {
+            added |= incrementAt(indexOf(hash, depth), start + depth);
+        }
+        if (added && (this.size.incrementAndGet() >= this.sampleSize)) {
+            reset();
+        }
+    }
+
+    /**
+     * Increment the counter unless already saturated, return if it was incremented.
+     */
+    protected boolean incrementAt(int index, int counter) {
+        int offset = counter << 2;
+        long mask = 0xFL << offset;
+        while (true) {
+            long value = this.table.get(index);
+            if ((value & mask) == mask) {
+                return false;
+            }
+            if (this.table.compareAndSet(index, value, value + (1L << offset))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Halve all counters, so the frequencies reflect recent accesses.
+     * Only one thread resets, others continue counting meanwhile.
+     */
+    protected void reset() {
+        int current = this.size.get();
+        if ((current < this.sampleSize) || !this.size.compareAndSet(current, current >>> 1)) {
+            return;
+        }
+        for (int index = 0; index < this.table.length(); index++) {
+            long value;
+            do {
+                value = this.table.get(index);
+            } while (!this.table.compareAndSet(index, value, (value >>> 1) & RESET_MASK));
+        }
+    }
+
+    protected int indexOf(int hash, int depth) {
+        long value = (hash + SEEDS[depth]) * SEEDS[depth];
+        value += value >>> 32;
+        return ((int)value) & this.tableMask;
+    }
+
+    protected static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
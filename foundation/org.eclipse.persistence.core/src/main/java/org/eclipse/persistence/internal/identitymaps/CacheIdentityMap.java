@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,6 +14,11 @@
 //     Oracle - initial API and implementation from Oracle TopLink
 package org.eclipse.persistence.internal.identitymaps;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 
@@ -36,6 +41,12 @@ public class CacheIdentityMap extends FullIdentityMap {
     /** Provide handles on the linked list */
     protected LinkedCacheKey last;
 
+    /** Tier the rows of evicted objects are stored in, null if none. */
+    protected OffHeapCache offHeapCache;
+
+    /** Evicted keys whose row is being built to be stored off-heap, by primary key, guarded by this.first. */
+    protected Map<Object, LinkedCacheKey> evictedKeys;
+
     public CacheIdentityMap(int size, ClassDescriptor descriptor, AbstractSession session, boolean isolated) {
         super(size, descriptor, session, isolated);
         this.first = new LinkedCacheKey(CacheId.EMPTY, null, null, 0, isIsolated);
@@ -49,16 +60,89 @@ public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLoc
         return new LinkedCacheKey(primaryKey, object, writeLockValue, readTime, isIsolated);
     }
 
+    /**
+     * Return the tier the rows of evicted objects are stored in, null if none.
+     */
+    public OffHeapCache getOffHeapCache() {
+        return offHeapCache;
+    }
+
+    /**
+     * Set the tier the rows of evicted objects are stored in.
+     */
+    public void setOffHeapCache(OffHeapCache offHeapCache) {
+        this.offHeapCache = offHeapCache;
+        this.evictedKeys = new HashMap<>();
+    }
+
     /**
      * Reduces the size of the receiver down to the maxSize removing objects from the
      * start of the linked list.
+     * The rows of the removed objects are stored in the off-heap tier, if any, once the list is released.
      */
     protected void ensureFixedSize() {
+        List<LinkedCacheKey> evicted = null;
         // protect the case where someone attempts to break the cache by
         // setting max size to 0.
         synchronized(this.first) {
             while (getMaxSize() > 0 && getSize() > getMaxSize()) {
-                remove(last.getPrevious());
+                LinkedCacheKey key = last.getPrevious();
+                // Checked before the removal invalidates the key.
+                if ((this.offHeapCache != null) && this.offHeapCache.canStore(key, this.descriptor)) {
+                    if (evicted == null) {
+                        evicted = new ArrayList<>();
+                    }
+                    evicted.add(key);
+                    this.evictedKeys.put(key.getKey(), key);
+                }
+                super.remove(key);
+                removeLink(key);
+            }
+        }
+        if (evicted != null) {
+            for (LinkedCacheKey key : evicted) {
+                evict(key);
+            }
+        }
+    }
+
+    /**
+     * Store the row of the evicted key's object in the off-heap tier.
+     * The row is built without holding the list, and only stored if the object was not put back in,
+     * removed, locked or merged in the meantime, any of which drops the key from the evicted keys.
+     */
+    protected void evict(LinkedCacheKey key) {
+        byte[] record = this.offHeapCache.buildRecord(key, this.descriptor, this.session);
+        synchronized (this.first) {
+            if (this.evictedKeys.get(key.getKey()) == key) {
+                this.evictedKeys.remove(key.getKey());
+                if (record != null) {
+                    this.offHeapCache.put(key.getKey(), record, this.descriptor, this.session);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop the off-heap row of the primary key, and any row being built for it, as it may no longer be current.
+     */
+    public void removeFromOffHeapCache(Object primaryKey) {
+        if (this.offHeapCache != null) {
+            synchronized (this.first) {
+                this.evictedKeys.remove(primaryKey);
+                this.offHeapCache.remove(this.descriptor, primaryKey);
+            }
+        }
+    }
+
+    /**
+     * Drop the off-heap rows of all objects of the map, and any row being built.
+     */
+    public void clearOffHeapCache() {
+        if (this.offHeapCache != null) {
+            synchronized (this.first) {
+                this.evictedKeys.clear();
+                this.offHeapCache.clear(this.descriptor.getJavaClass());
             }
         }
     }
@@ -81,6 +165,16 @@ public CacheKey getCacheKey(Object primaryKeys, boolean forMerge) {
         return cacheKey;
     }
 
+    /**
+     * Get the cache key to lock for update or invalidation,
+     * the off-heap row, if any, may no longer be current and is dropped.
+     */
+    @Override
+    public CacheKey getCacheKeyForLock(Object primaryKey) {
+        removeFromOffHeapCache(primaryKey);
+        return super.getCacheKeyForLock(primaryKey);
+    }
+
     /**
      * Insert a new element into the linked list of LinkedCacheKeys.
      * New elements (Recently Used) are added at the end (last).
@@ -103,14 +197,22 @@ protected LinkedCacheKey insertLink(LinkedCacheKey key) {
      */
     @Override
     protected CacheKey putCacheKeyIfAbsent(CacheKey searchKey) {
+        CacheKey cacheKey;
         synchronized(this.first) {
-            CacheKey cacheKey = super.putCacheKeyIfAbsent(searchKey);
+            cacheKey = super.putCacheKeyIfAbsent(searchKey);
             if (cacheKey == null) {
+                // The object cache holds the object again, its off-heap row is no longer maintained.
+                if (this.offHeapCache != null) {
+                    this.evictedKeys.remove(searchKey.getKey());
+                    this.offHeapCache.remove(this.descriptor, searchKey.getKey());
+                }
                 insertLink((LinkedCacheKey)searchKey);
-                ensureFixedSize();
             }
-            return cacheKey;
         }
+        if (cacheKey == null) {
+            ensureFixedSize();
+        }
+        return cacheKey;
     }
 
     /**
@@ -125,6 +227,10 @@ public Object remove(CacheKey key) {
             if (key == null) {
                 return null;
             }
+            if (this.offHeapCache != null) {
+                this.evictedKeys.remove(key.getKey());
+                this.offHeapCache.remove(this.descriptor, key.getKey());
+            }
             return removeLink((LinkedCacheKey)key).getObject();
         }
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -129,7 +129,7 @@ public CacheKey(Object primaryKey, Object object, Object lockValue, long readTim
     @Override
     public void acquire() {
         if (this.isIsolated) {
-            this.depth.incrementAndGet();
+            DEPTH.incrementAndGet(this);
             return;
         }
         super.acquire(false);
@@ -142,7 +142,7 @@ public void acquire() {
     @Override
     public void acquire(boolean forMerge) {
         if (this.isIsolated) {
-            this.depth.incrementAndGet();
+            DEPTH.incrementAndGet(this);
             return;
         }
         super.acquire(forMerge);
@@ -155,7 +155,7 @@ public void acquire(boolean forMerge) {
     @Override
     public boolean acquireNoWait() {
         if (this.isIsolated) {
-            this.depth.incrementAndGet();
+            DEPTH.incrementAndGet(this);
             return true;
         }
         return super.acquireNoWait(false);
@@ -169,10 +169,10 @@ public boolean acquireNoWait() {
 
     public boolean acquireIfUnownedNoWait() {
         if (this.isIsolated) {
-            if (this.depth.get() > 0) {
+            if (this.depth > 0) {
                 return false;
             }
-            this.depth.incrementAndGet();
+            DEPTH.incrementAndGet(this);
             return true;
         }
         return super.acquireIfUnownedNoWait(false);
@@ -186,7 +186,7 @@ public boolean acquireIfUnownedNoWait() {
     @Override
     public boolean acquireNoWait(boolean forMerge) {
         if (this.isIsolated) {
-            this.depth.incrementAndGet();
+            DEPTH.incrementAndGet(this);
             return true;
         }
         return super.acquireNoWait(forMerge);
@@ -200,7 +200,7 @@ public boolean acquireNoWait(boolean forMerge) {
     @Override
     public boolean acquireWithWait(boolean forMerge, int wait) {
         if (this.isIsolated) {
-            this.depth.incrementAndGet();
+            DEPTH.incrementAndGet(this);
             return true;
         }
         return super.acquireWithWait(forMerge, wait);
@@ -212,7 +212,7 @@ public boolean acquireWithWait(boolean forMerge, int wait) {
     @Override
     public void acquireDeferredLock() {
         if (this.isIsolated) {
-            this.depth.incrementAndGet();
+            DEPTH.incrementAndGet(this);
             return;
         }
         super.acquireDeferredLock();
@@ -338,10 +338,12 @@ public boolean equals(CacheKey key) {
         if (this == key) {
             return true;
         }
-        if (key.key == null || this.key == null) {
+        Object primaryKey = getKey();
+        Object otherPrimaryKey = key.getKey();
+        if (otherPrimaryKey == null || primaryKey == null) {
             return false;
         }
-        return this.key.equals(key.key);
+        return primaryKey.equals(otherPrimaryKey);
     }
 
     /**
@@ -365,7 +367,7 @@ public Object getKey() {
     @Override
     public Thread getActiveThread() {
         if (this.isIsolated) {
-            if (this.depth.get() > 0) {
+            if (this.depth > 0) {
                 return Thread.currentThread();
             } else {
                 return null;
@@ -468,7 +470,7 @@ public int getInvalidationState() {
     @Override
     public void release() {
         if (this.isIsolated) {
-            this.depth.decrementAndGet();
+            DEPTH.decrementAndGet(this);
             return;
         }
         super.release();
@@ -480,7 +482,7 @@ public void release() {
     @Override
     public void releaseDeferredLock() {
         if (this.isIsolated) {
-            this.depth.decrementAndGet();
+            DEPTH.decrementAndGet(this);
             return;
         }
         super.releaseDeferredLock();
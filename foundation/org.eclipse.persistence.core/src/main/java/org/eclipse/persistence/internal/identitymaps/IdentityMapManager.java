@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -90,6 +90,12 @@ public class IdentityMapManager implements Serializable, Cloneable {
     /** A map of class to list of queries that need to be invalidated when that class changes. */
     protected Map<Class, Set> queryResultsInvalidationsByClass;
 
+    /** Bounds the query results of all queries by approximate size, null if unbounded. */
+    protected transient QueryResultsCacheBudget queryResultsBudget;
+
+    /** Holds the rows of objects evicted from the object cache outside of the heap, null if none. */
+    protected transient OffHeapCache offHeapCache;
+
     /** A map of indexes on the cache. */
     protected Map<CacheIndex, IdentityMap> cacheIndexes;
 
@@ -367,7 +373,14 @@ public IdentityMap buildNewIdentityMap(ClassDescriptor descriptor) {
         if (this.session.isRemoteSession()) {
             return buildNewIdentityMap(descriptor.getRemoteIdentityMapClass(), descriptor.getRemoteIdentityMapSize(), descriptor, true);
         } else {
-            return buildNewIdentityMap(descriptor.getIdentityMapClass(), descriptor.getIdentityMapSize(), descriptor, this.session.isIsolatedClientSession());
+            IdentityMap map = buildNewIdentityMap(descriptor.getIdentityMapClass(), descriptor.getIdentityMapSize(), descriptor, this.session.isIsolatedClientSession());
+            if ((map instanceof CacheIdentityMap) && !this.session.isIsolatedClientSession()) {
+                OffHeapCache offHeapCache = getOffHeapCache();
+                if ((offHeapCache != null) && offHeapCache.isSupported(descriptor)) {
+                    ((CacheIdentityMap)map).setOffHeapCache(offHeapCache);
+                }
+            }
+            return map;
         }
     }
 
@@ -388,6 +401,8 @@ protected IdentityMap buildNewIdentityMap(Class identityMapClass, int size, Clas
                 return new WeakIdentityMap(size, descriptor, this.session, isIsolated);
             } else if (identityMapClass == ClassConstants.FullIdentityMap_Class) {
                 return new FullIdentityMap(size, descriptor, this.session, isIsolated);
+            } else if (identityMapClass == ClassConstants.LongIdentityMap_Class) {
+                return new LongIdentityMap(size, descriptor, this.session, isIsolated);
             } else if (identityMapClass == ClassConstants.CacheIdentityMap_Class) {
                 return new CacheIdentityMap(size, descriptor, this.session, isIsolated);
             }
@@ -453,6 +468,9 @@ public Object clone() {
     public void clearQueryCache() {
         this.queryResults = new ConcurrentHashMap();
         this.queryResultsInvalidationsByClass = new ConcurrentHashMap();
+        if (this.queryResultsBudget != null) {
+            this.queryResultsBudget.clear();
+        }
     }
 
     /**
@@ -474,13 +492,24 @@ public void clearQueryCache(ReadQuery query) {
             if ((queryKey == null) || ((String)queryKey).length() == 0) {
                 queryKey = query;
             }
-            this.queryResults.remove(queryKey);
+            removeQueryResults(queryKey);
+        }
+    }
+
+    /**
+     * Remove the results of the query from the query cache.
+     */
+    protected void removeQueryResults(Object queryKey) {
+        IdentityMap map = this.queryResults.remove(queryKey);
+        if ((map != null) && (this.queryResultsBudget != null)) {
+            this.queryResultsBudget.removed(map);
         }
     }
 
     /**
      * Invalidate/remove any results for the class from the query cache.
      * This is used to invalidate the query cache on any change.
+     * This does not lock, the invalidation sets are concurrent.
      */
     public void invalidateQueryCache(Class classThatChanged) {
         if (this.queryResultsInvalidationsByClass == null) {
@@ -489,7 +518,7 @@ public void invalidateQueryCache(Class classThatChanged) {
         Set invalidations = this.queryResultsInvalidationsByClass.get(classThatChanged);
         if (invalidations != null) {
             for (Object queryKey : invalidations) {
-                this.queryResults.remove(queryKey);
+                removeQueryResults(queryKey);
             }
         }
         Class superClass = classThatChanged.getSuperclass();
@@ -706,6 +735,8 @@ public void invalidateObjects(Expression selectionCriteria, Class theClass, Reco
                     }
                 }
             }
+            // The off-heap rows cannot be conformed, so are all dropped.
+            clearOffHeapCache(descriptor.getJavaClass());
             invalidateQueryCache(theClass);
         } finally {
             this.session.endOperationProfile(SessionProfiler.Caching);
@@ -1042,6 +1073,7 @@ public Object getQueryResult(ReadQuery query, List parameters, boolean shouldChe
         }
         IdentityMap map = this.queryResults.get(queryKey);
         if (map == null) {
+            this.session.incrementProfile(SessionProfiler.QueryResultsCacheMisses, query);
             return null;
         }
 
@@ -1054,8 +1086,13 @@ public Object getQueryResult(ReadQuery query, List parameters, boolean shouldChe
 
         CacheKey key = map.getCacheKey(lookupParameters, false);
         if ((key == null) || (shouldCheckExpiry && query.getQueryResultsCachePolicy().getCacheInvalidationPolicy().isInvalidated(key))) {
+            this.session.incrementProfile(SessionProfiler.QueryResultsCacheMisses, query);
             return null;
         }
+        if (this.queryResultsBudget != null) {
+            this.queryResultsBudget.hit(map, key);
+        }
+        this.session.incrementProfile(SessionProfiler.QueryResultsCacheHits, query);
         return key.getObject();
     }
 
@@ -1189,6 +1226,7 @@ public void initializeIdentityMap(Class theClass) throws EclipseLinkException {
         }
         // Bug 3736313 - look up identity map by descriptor's java class
         Class javaClass = descriptor.getJavaClass();
+        clearOffHeapCache(javaClass);
         IdentityMap identityMap = buildNewIdentityMap(descriptor);
         getIdentityMaps().put(javaClass, identityMap);
         clearLastAccessedIdentityMap();
@@ -1196,6 +1234,14 @@ public void initializeIdentityMap(Class theClass) throws EclipseLinkException {
     }
 
     public void initializeIdentityMaps() {
+        if (this.offHeapCache != null) {
+            for (IdentityMap identityMap : getIdentityMaps().values()) {
+                if (identityMap instanceof CacheIdentityMap) {
+                    ((CacheIdentityMap)identityMap).clearOffHeapCache();
+                }
+            }
+            this.offHeapCache.clear();
+        }
         clearLastAccessedIdentityMap();
         setIdentityMaps(new ConcurrentHashMap());
         clearQueryCache();
@@ -1421,29 +1467,31 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
         }
         IdentityMap map = this.queryResults.get(queryKey);
         if (map == null) {
-            synchronized (this.queryResults) {
-                map = this.queryResults.get(queryKey);
-                if (map == null) {
-                    int size = query.getQueryResultsCachePolicy().getMaximumCachedResults();
-                    // PERF: If no parameters, then there can only be one result.
-                    if ((parameters == null) || parameters.isEmpty()) {
-                        size = 1;
-                    }
-                    map = buildNewIdentityMap(query.getQueryResultsCachePolicy().getCacheType(), size, null, false);
-                    this.queryResults.put(queryKey, map);
-                    // Mark the query to be invalidated for the query classes.
-                    if (query.getQueryResultsCachePolicy().getInvalidateOnChange()) {
-                        for (Class queryClass : query.getQueryResultsCachePolicy().getInvalidationClasses()) {
-                            Set invalidations = this.queryResultsInvalidationsByClass.get(queryClass);
-                            if (invalidations == null) {
-                                invalidations = new HashSet();
-                                this.queryResultsInvalidationsByClass.put(queryClass, invalidations);
-                            }
-                            invalidations.add(queryKey);
+            int size = query.getQueryResultsCachePolicy().getMaximumCachedResults();
+            // PERF: If no parameters, then there can only be one result.
+            if ((parameters == null) || parameters.isEmpty()) {
+                size = 1;
+            }
+            IdentityMap newMap = buildNewIdentityMap(query.getQueryResultsCachePolicy().getCacheType(), size, null, false);
+            // Mark the query to be invalidated for the query classes before publishing the map,
+            // so a change can not be missed.
+            if (query.getQueryResultsCachePolicy().getInvalidateOnChange()) {
+                for (Class queryClass : query.getQueryResultsCachePolicy().getInvalidationClasses()) {
+                    Set invalidations = this.queryResultsInvalidationsByClass.get(queryClass);
+                    if (invalidations == null) {
+                        invalidations = ConcurrentHashMap.newKeySet();
+                        Set existing = putIfAbsent(this.queryResultsInvalidationsByClass, queryClass, invalidations);
+                        if (existing != null) {
+                            invalidations = existing;
                         }
                     }
+                    invalidations.add(queryKey);
                 }
             }
+            map = putIfAbsent(this.queryResults, queryKey, newMap);
+            if (map == null) {
+                map = newMap;
+            }
         }
         Object lookupParameters;
         if ((parameters == null) || parameters.isEmpty()) {
@@ -1462,7 +1510,105 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
         if (results == null) {
             results = InvalidObject.instance();
         }
-        map.put(lookupParameters, results, null, queryTime);
+        CacheKey key = map.put(lookupParameters, results, null, queryTime);
+        QueryResultsCacheBudget budget = getQueryResultsBudget();
+        if ((budget != null) && (key != null)) {
+            budget.added(query, map, key, lookupParameters, results, this.session);
+        }
+    }
+
+    /**
+     * Return the size bound of the query results cache,
+     * or null if the query results cache is only bounded per query.
+     */
+    protected QueryResultsCacheBudget getQueryResultsBudget() {
+        if (this.queryResultsBudget == null) {
+            long maximumSize = this.session.getProject().getQueryResultsCacheMaximumSize();
+            if (maximumSize <= 0) {
+                return null;
+            }
+            synchronized (this) {
+                if (this.queryResultsBudget == null) {
+                    this.queryResultsBudget = new QueryResultsCacheBudget(maximumSize);
+                }
+            }
+        }
+        return this.queryResultsBudget;
+    }
+
+    /**
+     * Return the tier holding the rows of objects evicted from the object cache outside of the heap,
+     * or null if not configured.
+     */
+    public OffHeapCache getOffHeapCache() {
+        if (this.offHeapCache == null) {
+            long size = this.session.getProject().getOffHeapCacheSize();
+            if (size <= 0) {
+                return null;
+            }
+            synchronized (this) {
+                if (this.offHeapCache == null) {
+                    this.offHeapCache = new OffHeapCache(size);
+                }
+            }
+        }
+        return this.offHeapCache;
+    }
+
+    /**
+     * Return the row of the object evicted from the object cache, or null if it is not held off-heap.
+     * The object is not in the object cache, and must be built from the row as from a database row.
+     */
+    public OffHeapCache.Entry getFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor) {
+        if ((primaryKey == null) || (this.offHeapCache == null) || !this.offHeapCache.isSupported(descriptor)) {
+            return null;
+        }
+        return this.offHeapCache.get(primaryKey, descriptor, this.session);
+    }
+
+    /**
+     * Drop the off-heap rows of all objects of the class.
+     */
+    public void clearOffHeapCache(Class theClass) {
+        if (this.offHeapCache != null) {
+            // Also drop the rows the map is building for objects it just evicted.
+            IdentityMap identityMap = getIdentityMaps().get(theClass);
+            if (identityMap instanceof CacheIdentityMap) {
+                ((CacheIdentityMap)identityMap).clearOffHeapCache();
+            }
+            this.offHeapCache.clear(theClass);
+        }
+    }
+
+    /**
+     * Drop the off-heap row of the object, as it may no longer be current.
+     * Used when the object changed but may not be in the object cache, such as when merging remote changes.
+     */
+    public void removeFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor) {
+        if ((this.offHeapCache == null) || (primaryKey == null) || !this.offHeapCache.isSupported(descriptor)) {
+            return;
+        }
+        IdentityMap identityMap = getIdentityMap(descriptor, true);
+        if (identityMap instanceof CacheIdentityMap) {
+            ((CacheIdentityMap)identityMap).removeFromOffHeapCache(primaryKey);
+        } else {
+            this.offHeapCache.remove(descriptor, primaryKey);
+        }
+    }
+
+    /**
+     * Put the value if absent and return the existing value, atomically for concurrent maps.
+     * Isolated client session maps are not concurrent, and only accessed by their client.
+     */
+    protected static <K, V> V putIfAbsent(Map<K, V> map, K key, V value) {
+        if (map instanceof ConcurrentMap) {
+            return ((ConcurrentMap<K, V>)map).putIfAbsent(key, value);
+        }
+        V existing = map.get(key);
+        if (existing == null) {
+            map.put(key, value);
+        }
+        return existing;
     }
 
     /**
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Cache key for an object with a single <code>long</code> primary key.
+ * <p><b>Description</b>: The primary key is held as a primitive instead of a <code>Long</code>,
+ * the boxed value is only built when the key is requested through {@link #getKey()}.
+ *
+ * @see LongIdentityMap
+ */
+public class LongCacheKey extends CacheKey {
+
+    /** The primary key value. */
+    protected long id;
+
+    public LongCacheKey(long id, Object object, Object lockValue, long readTime, boolean isIsolated) {
+        super(null, object, lockValue, readTime, isIsolated);
+        this.id = id;
+    }
+
+    /**
+     * Return the primitive primary key value.
+     */
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public Object getKey() {
+        return Long.valueOf(this.id);
+    }
+
+    @Override
+    public void setKey(Object key) {
+        this.id = (Long)key;
+    }
+
+    @Override
+    public boolean equals(CacheKey key) {
+        if (key instanceof LongCacheKey) {
+            return this.id == ((LongCacheKey)key).id;
+        }
+        return super.equals(key);
+    }
+
+    /**
+     * Use the same hash code as the <code>Long</code> primary key.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.id);
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Concurrent map of cache keys by <code>Long</code> primary key.
+ * <p><b>Description</b>: {@link LongCacheKey}s are stored in an open addressing table of primitive keys,
+ * so no map entry or boxed key is allocated per cache key.
+ * Reads are lock-free, writes are synchronized.
+ * Removed slots are marked and only reclaimed when the table is rebuilt, so a slot never changes key
+ * and concurrent reads and iterations see a consistent table.
+ * Iteration is weakly consistent, as for a ConcurrentHashMap.
+ * <p>
+ * Any other key or cache key type is stored in a ConcurrentHashMap.
+ *
+ * @see LongIdentityMap
+ */
+public class LongCacheKeyMap extends AbstractMap<Object, CacheKey> implements ConcurrentMap<Object, CacheKey>, Serializable {
+
+    /** Marks a removed slot. */
+    protected static final LongCacheKey REMOVED = new LongCacheKey(0, null, null, 0, false);
+
+    protected static final int MINIMUM_CAPACITY = 16;
+
+    /**
+     * Slots of the open addressing table, the key of a slot is set before its value is published.
+     */
+    protected static class Table implements Serializable {
+        protected final long[] keys;
+        protected final AtomicReferenceArray<LongCacheKey> values;
+        protected final int mask;
+        /** Maximum number of used slots, live or removed, before rebuilding. */
+        protected final int threshold;
+
+        protected Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.threshold = (capacity >> 1) + (capacity >> 2);
+        }
+    }
+
+    protected volatile Table table;
+
+    /** Number of live cache keys in the table. */
+    protected volatile int size;
+
+    /** Number of used slots, live or removed, guarded by this. */
+    protected int used;
+
+    /** Cache keys not stored in the table. */
+    protected final ConcurrentMap<Object, CacheKey> others;
+
+    public LongCacheKeyMap(int size) {
+        this.table = new Table(capacityFor(size));
+        this.others = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Return the power of two capacity holding the size within the load factor.
+     */
+    protected static int capacityFor(int size) {
+        int capacity = MINIMUM_CAPACITY;
+        while ((capacity < (1 << 30)) && (((capacity >> 1) + (capacity >> 2)) <= size)) {
+            capacity = capacity << 1;
+        }
+        return capacity;
+    }
+
+    protected static int indexFor(long id, int mask) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return ((int)(hash ^ (hash >>> 32))) & mask;
+    }
+
+    /**
+     * Return the slot of the cache key in the table, or -1.
+     */
+    protected static int find(Table table, long id) {
+        int mask = table.mask;
+        int index = indexFor(id, mask);
+        while (true) {
+            LongCacheKey value = table.values.get(index);
+            if (value == null) {
+                return -1;
+            }
+            if ((value != REMOVED) && (table.keys[index] == id)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Return the cache key for the primitive primary key, or null.
+     */
+    public CacheKey get(long id) {
+        Table table = this.table;
+        int index = find(table, id);
+        if (index != -1) {
+            LongCacheKey value = table.values.get(index);
+            if (value != REMOVED) {
+                return value;
+            }
+        }
+        if (this.others.isEmpty()) {
+            return null;
+        }
+        return this.others.get(id);
+    }
+
+    @Override
+    public CacheKey get(Object key) {
+        if (key instanceof Long) {
+            return get(((Long)key).longValue());
+        }
+        return this.others.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return this.size + this.others.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public CacheKey put(Object key, CacheKey value) {
+        if (!(key instanceof Long) || !(value instanceof LongCacheKey)) {
+            return this.others.put(key, value);
+        }
+        return putInTable((Long)key, (LongCacheKey)value, false);
+    }
+
+    @Override
+    public CacheKey putIfAbsent(Object key, CacheKey value) {
+        if (!(key instanceof Long) || !(value instanceof LongCacheKey)) {
+            return this.others.putIfAbsent(key, value);
+        }
+        return putInTable((Long)key, (LongCacheKey)value, true);
+    }
+
+    protected synchronized CacheKey putInTable(long id, LongCacheKey value, boolean onlyIfAbsent) {
+        Table table = this.table;
+        int mask = table.mask;
+        int index = indexFor(id, mask);
+        while (true) {
+            LongCacheKey existing = table.values.get(index);
+            if (existing == null) {
+                break;
+            }
+            if ((existing != REMOVED) && (table.keys[index] == id)) {
+                if (!onlyIfAbsent) {
+                    table.values.set(index, value);
+                }
+                return existing;
+            }
+            index = (index + 1) & mask;
+        }
+        if (this.used >= table.threshold) {
+            table = rebuild();
+            mask = table.mask;
+            index = indexFor(id, mask);
+            while (table.values.get(index) != null) {
+                index = (index + 1) & mask;
+            }
+        }
+        table.keys[index] = id;
+        table.values.set(index, value);
+        this.used++;
+        this.size++;
+        return null;
+    }
+
+    /**
+     * Copy the live cache keys into a new table sized for them, dropping the removed slots.
+     * Must be called holding the lock.
+     */
+    protected Table rebuild() {
+        Table oldTable = this.table;
+        Table newTable = new Table(capacityFor(this.size + 1));
+        int mask = newTable.mask;
+        int length = oldTable.values.length();
+        for (int oldIndex = 0; oldIndex < length; oldIndex++) {
+            LongCacheKey value = oldTable.values.get(oldIndex);
+            if ((value != null) && (value != REMOVED)) {
+                long id = oldTable.keys[oldIndex];
+                int index = indexFor(id, mask);
+                while (newTable.values.get(index) != null) {
+                    index = (index + 1) & mask;
+                }
+                newTable.keys[index] = id;
+                newTable.values.set(index, value);
+            }
+        }
+        this.used = this.size;
+        this.table = newTable;
+        return newTable;
+    }
+
+    @Override
+    public CacheKey remove(Object key) {
+        if (key instanceof Long) {
+            CacheKey removed = removeFromTable((Long)key, null);
+            if (removed != null) {
+                return removed;
+            }
+        }
+        return this.others.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if ((key instanceof Long) && (value instanceof LongCacheKey)) {
+            return removeFromTable((Long)key, value) != null;
+        }
+        return this.others.remove(key, value);
+    }
+
+    /**
+     * Remove the cache key, only if it is the expected value if not null.
+     */
+    protected synchronized CacheKey removeFromTable(long id, Object expected) {
+        Table table = this.table;
+        int index = find(table, id);
+        if (index == -1) {
+            return null;
+        }
+        LongCacheKey existing = table.values.get(index);
+        if ((expected != null) && (existing != expected)) {
+            return null;
+        }
+        table.values.set(index, REMOVED);
+        this.size--;
+        return existing;
+    }
+
+    @Override
+    public boolean replace(Object key, CacheKey oldValue, CacheKey newValue) {
+        if ((key instanceof Long) && (newValue instanceof LongCacheKey)) {
+            synchronized (this) {
+                Table table = this.table;
+                int index = find(table, (Long)key);
+                if ((index == -1) || (table.values.get(index) != oldValue)) {
+                    return false;
+                }
+                table.values.set(index, (LongCacheKey)newValue);
+                return true;
+            }
+        }
+        return this.others.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public CacheKey replace(Object key, CacheKey value) {
+        if ((key instanceof Long) && (value instanceof LongCacheKey)) {
+            synchronized (this) {
+                Table table = this.table;
+                int index = find(table, (Long)key);
+                if (index == -1) {
+                    return null;
+                }
+                CacheKey existing = table.values.get(index);
+                table.values.set(index, (LongCacheKey)value);
+                return existing;
+            }
+        }
+        return this.others.replace(key, value);
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.table = new Table(MINIMUM_CAPACITY);
+        this.size = 0;
+        this.used = 0;
+        this.others.clear();
+    }
+
+    @Override
+    public Collection<CacheKey> values() {
+        return new AbstractCollection<CacheKey>() {
+            @Override
+            public Iterator<CacheKey> iterator() {
+                return new CacheKeyIterator(table, others.values().iterator());
+            }
+
+            @Override
+            public int size() {
+                return LongCacheKeyMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Object, CacheKey>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, CacheKey>>() {
+            @Override
+            public Iterator<Map.Entry<Object, CacheKey>> iterator() {
+                final Iterator<CacheKey> values = new CacheKeyIterator(table, others.values().iterator());
+                return new Iterator<Map.Entry<Object, CacheKey>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return values.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<Object, CacheKey> next() {
+                        CacheKey value = values.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(value.getKey(), value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return LongCacheKeyMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Weakly consistent iterator of the live slots of a table, then of the other cache keys.
+     */
+    protected static class CacheKeyIterator implements Iterator<CacheKey> {
+        protected final Table table;
+        protected final Iterator<CacheKey> others;
+        protected int index;
+        protected CacheKey next;
+
+        protected CacheKeyIterator(Table table, Iterator<CacheKey> others) {
+            this.table = table;
+            this.others = others;
+            advance();
+        }
+
+        protected void advance() {
+            int length = this.table.values.length();
+            while (this.index < length) {
+                LongCacheKey value = this.table.values.get(this.index++);
+                if ((value != null) && (value != REMOVED)) {
+                    this.next = value;
+                    return;
+                }
+            }
+            this.next = this.others.hasNext() ? this.others.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public CacheKey next() {
+            CacheKey value = this.next;
+            if (value == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.util.Iterator;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: A full identity map specialized for objects with a single <code>long</code> primary key.
+ * <p><b>Description</b>: Objects are held as in a {@link FullIdentityMap}, but their cache keys
+ * store the primary key as a primitive and are stored in a primitive keyed open addressing table,
+ * which avoids the boxed key and map entry per cached object and reduces the heap footprint of large caches.
+ * Objects with any other primary key type are stored as in a {@link FullIdentityMap}.
+ *
+ * @see org.eclipse.persistence.config.CacheType#FullLong
+ */
+public class LongIdentityMap extends FullIdentityMap {
+
+    public LongIdentityMap(int size, ClassDescriptor descriptor, AbstractSession session, boolean isolated) {
+        super(size, descriptor, session, isolated);
+        this.cacheKeys = new LongCacheKeyMap(size);
+    }
+
+    @Override
+    public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        if (primaryKey instanceof Long) {
+            return new LongCacheKey((Long)primaryKey, object, writeLockValue, readTime, this.isIsolated);
+        }
+        return super.createCacheKey(primaryKey, object, writeLockValue, readTime);
+    }
+
+    /**
+     * INTERNAL:
+     * Clones itself.
+     */
+    @Override
+    public Object clone() {
+        LongIdentityMap clone = (LongIdentityMap)super.clone();
+        LongCacheKeyMap cacheKeys = new LongCacheKeyMap(this.cacheKeys.size());
+        for (Iterator<CacheKey> iterator = clone.getCacheKeys().values().iterator(); iterator.hasNext();) {
+            CacheKey key = iterator.next();
+            cacheKeys.put(key.getKey(), key);
+        }
+        clone.setCacheKeys(cacheKeys);
+        return clone;
+    }
+}
@@ -0,0 +1,678 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.FetchGroupManager;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.SerializationHelper;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.DatabaseMapping.WriteType;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Second tier of the shared object cache, holding the rows of evicted objects outside of the Java heap.
+ * <p><b>Description</b>: When a {@link CacheIdentityMap} evicts its least recently used object, the object's row is
+ * built through its descriptor's {@link org.eclipse.persistence.internal.descriptors.ObjectBuilder}, encoded into a
+ * compact binary record and appended to direct byte buffers allocated outside of the heap.
+ * Only an index from primary key to record location is kept on the heap.
+ * A read object query by primary key that misses the object cache checks this tier before the database,
+ * and on a hit the object is rebuilt from the row exactly as from a database row, putting it back in the object cache.
+ * <p>
+ * The tier is a victim cache, a record is dropped as soon as its object is put back in, removed from,
+ * or locked for update in the object cache, so it never holds a stale copy of a cached object.
+ * The buffers are written as a circular log of segments, once full the oldest segment is reused and its records evicted.
+ * <p>
+ * Only shared, non inheritance, non multitenant descriptors with their version in the object are supported;
+ * other descriptors always go to the database. Reads are lock free unless a write happens concurrently.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setOffHeapCacheSize(long)
+ */
+public class OffHeapCache {
+    /** Largest size of a single direct buffer. */
+    protected static final int MAXIMUM_SEGMENT_SIZE = 1 << 30;
+    /** Number of segments a small tier is split into, so reusing a segment only evicts a fraction of the records. */
+    protected static final int MINIMUM_SEGMENT_COUNT = 8;
+    protected static final int MINIMUM_SEGMENT_SIZE = 64 * 1024;
+
+    /** Record header, the record length, class id and read time. */
+    protected static final int HEADER_SIZE = 16;
+
+    /** Value type tags. */
+    protected static final byte NULL = 0;
+    protected static final byte NO_ENTRY = 1;
+    protected static final byte STRING = 2;
+    protected static final byte INTEGER = 3;
+    protected static final byte LONG = 4;
+    protected static final byte SHORT = 5;
+    protected static final byte BYTE = 6;
+    protected static final byte BOOLEAN = 7;
+    protected static final byte DOUBLE = 8;
+    protected static final byte FLOAT = 9;
+    protected static final byte CHARACTER = 10;
+    protected static final byte BIG_DECIMAL = 11;
+    protected static final byte BIG_INTEGER = 12;
+    protected static final byte TIMESTAMP = 13;
+    protected static final byte SQL_DATE = 14;
+    protected static final byte SQL_TIME = 15;
+    protected static final byte DATE = 16;
+    protected static final byte BYTES = 17;
+    protected static final byte CACHE_ID = 18;
+    protected static final byte SERIALIZED = 19;
+
+    /** Total size in bytes of all segments. */
+    protected final long capacity;
+    protected final int segmentSize;
+
+    /** Segments, allocated on first write. */
+    protected final ByteBuffer[] segments;
+    /** Incremented each time a segment is reused, to detect locations of overwritten records. */
+    protected final int[] generations;
+    /** End of the records written in each segment. */
+    protected final int[] limits;
+    protected int currentSegment;
+
+    /** Guards the segments, writes lock, reads are optimistic. */
+    protected final StampedLock lock;
+
+    /** Location of the record of each primary key, by class. */
+    protected final ConcurrentMap<Class, Map<Object, Location>> indexes;
+    /** Classes by the id written in the record header. */
+    protected final List<Class> classes;
+    protected final Map<Class, Integer> classIds;
+    protected final Map<ClassDescriptor, Boolean> supportedDescriptors;
+
+    protected final AtomicLong hits;
+    protected final AtomicLong misses;
+    protected final AtomicLong stores;
+    protected final AtomicLong evictions;
+
+    /**
+     * Location of a record in the segments.
+     */
+    protected static class Location {
+        protected final int segment;
+        protected final int offset;
+        protected final int length;
+        protected final int generation;
+
+        protected Location(int segment, int offset, int length, int generation) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * A row found in the tier, with the time its object was read from the database.
+     */
+    public static class Entry {
+        protected final AbstractRecord row;
+        protected final long readTime;
+
+        protected Entry(AbstractRecord row, long readTime) {
+            this.row = row;
+            this.readTime = readTime;
+        }
+
+        public AbstractRecord getRow() {
+            return row;
+        }
+
+        public long getReadTime() {
+            return readTime;
+        }
+    }
+
+    public OffHeapCache(long capacity) {
+        int segmentCount = (int)Math.max(MINIMUM_SEGMENT_COUNT, (capacity + MAXIMUM_SEGMENT_SIZE - 1) / MAXIMUM_SEGMENT_SIZE);
+        this.segmentSize = (int)Math.max(MINIMUM_SEGMENT_SIZE, Math.min(MAXIMUM_SEGMENT_SIZE, capacity / segmentCount));
+        this.capacity = (long)this.segmentSize * segmentCount;
+        this.segments = new ByteBuffer[segmentCount];
+        this.generations = new int[segmentCount];
+        this.limits = new int[segmentCount];
+        this.lock = new StampedLock();
+        this.indexes = new ConcurrentHashMap<>();
+        this.classes = new CopyOnWriteArrayList<>();
+        this.classIds = new ConcurrentHashMap<>();
+        this.supportedDescriptors = new ConcurrentHashMap<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.stores = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Return the total size in bytes of the buffers.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Return the number of rows held.
+     */
+    public int getSize() {
+        int size = 0;
+        for (Map<Object, Location> index : this.indexes.values()) {
+            size = size + index.size();
+        }
+        return size;
+    }
+
+    /**
+     * Return the number of rows found.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Return the number of lookups that did not find a row.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Return the number of evicted objects whose row was stored.
+     */
+    public long getStoreCount() {
+        return stores.get();
+    }
+
+    /**
+     * Return the number of rows evicted to make room for newer rows.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Return if rows of the descriptor's objects can be held.
+     * The row built from the object must be complete, and build the same object back.
+     */
+    public boolean isSupported(ClassDescriptor descriptor) {
+        Boolean isSupported = this.supportedDescriptors.get(descriptor);
+        if (isSupported == null) {
+            boolean supported = (descriptor != null) && descriptor.isSharedIsolation()
+                    && !descriptor.isDescriptorTypeAggregate() && !descriptor.isDescriptorForInterface()
+                    && !descriptor.hasInheritance() && !descriptor.hasTablePerClassPolicy()
+                    && !descriptor.hasMultitenantPolicy() && !descriptor.hasSerializedObjectPolicy()
+                    && !descriptor.shouldAlwaysRefreshCache()
+                    && !(descriptor.usesOptimisticLocking() && descriptor.getOptimisticLockingPolicy().isStoredInCache());
+            // Read-only mappings are not written to the row, their fields must be written by another mapping.
+            if (supported) {
+                for (DatabaseField field : descriptor.getObjectBuilder().getReadOnlyMappingsByField().keySet()) {
+                    if (descriptor.getObjectBuilder().getMappingForField(field) == null) {
+                        supported = false;
+                        break;
+                    }
+                }
+            }
+            isSupported = supported;
+            this.supportedDescriptors.put(descriptor, isSupported);
+        }
+        return isSupported;
+    }
+
+    /**
+     * Store the row of the object of the cache key evicted from the object cache.
+     * Locked, invalid and partially fetched objects are not stored.
+     * Return false if the row was not stored.
+     */
+    public boolean put(CacheKey cacheKey, ClassDescriptor descriptor, AbstractSession session) {
+        if (!canStore(cacheKey, descriptor)) {
+            return false;
+        }
+        byte[] record = buildRecord(cacheKey, descriptor, session);
+        if (record == null) {
+            return false;
+        }
+        put(cacheKey.getKey(), record, descriptor, session);
+        return true;
+    }
+
+    /**
+     * Return if the row of the object of the cache key can be stored.
+     * Must be checked before the key is removed from the object cache, which invalidates it.
+     */
+    public boolean canStore(CacheKey cacheKey, ClassDescriptor descriptor) {
+        Object object = cacheKey.getObject();
+        if ((object == null) || (cacheKey.getKey() == null) || cacheKey.isAcquired() || !isSupported(descriptor)
+                || descriptor.getCacheInvalidationPolicy().isInvalidated(cacheKey)) {
+            return false;
+        }
+        FetchGroupManager fetchGroupManager = descriptor.getFetchGroupManager();
+        return (fetchGroupManager == null) || !fetchGroupManager.isPartialObject(object);
+    }
+
+    /**
+     * Build and encode the row of the object of the cache key.
+     * Return null if a value cannot be encoded, or the record does not fit in a segment.
+     * This is the costly part of storing a row, and holds no lock.
+     */
+    public byte[] buildRecord(CacheKey cacheKey, ClassDescriptor descriptor, AbstractSession session) {
+        byte[] record;
+        try {
+            AbstractRecord row = descriptor.getObjectBuilder().buildRow(cacheKey.getObject(), session, WriteType.UNDEFINED);
+            record = encode(getClassId(descriptor.getJavaClass()), cacheKey.getReadTime(), cacheKey.getKey(), row, descriptor.getFields());
+        } catch (IOException notSerializable) {
+            return null;
+        }
+        if (record.length > this.segmentSize) {
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * Store the record built for the primary key.
+     */
+    public void put(Object primaryKey, byte[] record, ClassDescriptor descriptor, AbstractSession session) {
+        Class javaClass = descriptor.getJavaClass();
+        Location location;
+        long stamp = this.lock.writeLock();
+        try {
+            location = write(record, session);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+        Map<Object, Location> index = this.indexes.get(javaClass);
+        if (index == null) {
+            index = new ConcurrentHashMap<>();
+            Map<Object, Location> existing = this.indexes.putIfAbsent(javaClass, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        index.put(primaryKey, location);
+        this.stores.incrementAndGet();
+        session.incrementProfile(SessionProfiler.OffHeapCacheStores);
+    }
+
+    /**
+     * Return the row stored for the primary key, or null if none or the object would be invalid in the object cache.
+     */
+    public Entry get(Object primaryKey, ClassDescriptor descriptor, AbstractSession session) {
+        Map<Object, Location> index = this.indexes.get(descriptor.getJavaClass());
+        Location location = (index == null) ? null : index.get(primaryKey);
+        if (location != null) {
+            byte[] record = read(location);
+            Entry entry = null;
+            if (record != null) {
+                try {
+                    entry = decode(record, descriptor.getFields());
+                } catch (IOException | ClassNotFoundException corrupt) {
+                    entry = null;
+                }
+            }
+            if ((entry != null) && !descriptor.getCacheInvalidationPolicy().isInvalidated(new CacheKey(primaryKey, null, null, entry.readTime, false))) {
+                this.hits.incrementAndGet();
+                session.incrementProfile(SessionProfiler.OffHeapCacheHits);
+                return entry;
+            }
+            index.remove(primaryKey, location);
+        }
+        this.misses.incrementAndGet();
+        session.incrementProfile(SessionProfiler.OffHeapCacheMisses);
+        return null;
+    }
+
+    /**
+     * Drop the row stored for the primary key.
+     */
+    public void remove(ClassDescriptor descriptor, Object primaryKey) {
+        Map<Object, Location> index = this.indexes.get(descriptor.getJavaClass());
+        if (index != null) {
+            index.remove(primaryKey);
+        }
+    }
+
+    /**
+     * Drop the rows of all objects of the class.
+     */
+    public void clear(Class javaClass) {
+        this.indexes.remove(javaClass);
+    }
+
+    /**
+     * Drop all rows.
+     */
+    public void clear() {
+        this.indexes.clear();
+    }
+
+    /**
+     * Append the record, reusing the oldest segment if the current one is full.
+     * Must be called holding the write lock.
+     */
+    protected Location write(byte[] record, AbstractSession session) {
+        int segment = this.currentSegment;
+        if (this.limits[segment] + record.length > this.segmentSize) {
+            segment = (segment + 1) % this.segments.length;
+            recycle(segment, session);
+            this.currentSegment = segment;
+        }
+        if (this.segments[segment] == null) {
+            this.segments[segment] = ByteBuffer.allocateDirect(this.segmentSize);
+        }
+        int offset = this.limits[segment];
+        ByteBuffer buffer = this.segments[segment].duplicate();
+        ((Buffer)buffer).position(offset);
+        buffer.put(record);
+        this.limits[segment] = offset + record.length;
+        return new Location(segment, offset, record.length, this.generations[segment]);
+    }
+
+    /**
+     * Evict all records of the segment from the index, so it can be overwritten.
+     * Must be called holding the write lock.
+     */
+    protected void recycle(int segment, AbstractSession session) {
+        ByteBuffer buffer = this.segments[segment];
+        int generation = this.generations[segment];
+        int offset = 0;
+        int limit = this.limits[segment];
+        while (offset < limit) {
+            ByteBuffer header = buffer.duplicate();
+            ((Buffer)header).position(offset);
+            int length = header.getInt();
+            Class javaClass = this.classes.get(header.getInt());
+            Map<Object, Location> index = this.indexes.get(javaClass);
+            if (index != null) {
+                byte[] record = new byte[length];
+                header = buffer.duplicate();
+                ((Buffer)header).position(offset);
+                header.get(record);
+                try {
+                    DataInputStream input = new DataInputStream(new ByteArrayInputStream(record, HEADER_SIZE, length - HEADER_SIZE));
+                    Object primaryKey = readValue(input);
+                    Location location = index.get(primaryKey);
+                    if ((location != null) && (location.segment == segment) && (location.offset == offset) && (location.generation == generation)
+                            && index.remove(primaryKey, location)) {
+                        this.evictions.incrementAndGet();
+                        session.incrementProfile(SessionProfiler.OffHeapCacheEvictions);
+                    }
+                } catch (IOException | ClassNotFoundException corrupt) {
+                    // The location no longer matches the generation and will be dropped on lookup.
+                }
+            }
+            offset = offset + length;
+        }
+        this.generations[segment] = generation + 1;
+        this.limits[segment] = 0;
+    }
+
+    /**
+     * Copy the record at the location, or return null if it was overwritten.
+     */
+    protected byte[] read(Location location) {
+        long stamp = this.lock.tryOptimisticRead();
+        byte[] record = copy(location);
+        if (!this.lock.validate(stamp)) {
+            stamp = this.lock.readLock();
+            try {
+                record = copy(location);
+            } finally {
+                this.lock.unlockRead(stamp);
+            }
+        }
+        return record;
+    }
+
+    protected byte[] copy(Location location) {
+        ByteBuffer segment = this.segments[location.segment];
+        if ((segment == null) || (this.generations[location.segment] != location.generation)) {
+            return null;
+        }
+        byte[] record = new byte[location.length];
+        ByteBuffer buffer = segment.duplicate();
+        ((Buffer)buffer).position(location.offset);
+        buffer.get(record);
+        return record;
+    }
+
+    protected int getClassId(Class javaClass) {
+        Integer id = this.classIds.get(javaClass);
+        if (id == null) {
+            synchronized (this.classes) {
+                id = this.classIds.get(javaClass);
+                if (id == null) {
+                    id = this.classes.size();
+                    this.classes.add(javaClass);
+                    this.classIds.put(javaClass, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Encode the record, the header followed by the primary key and the values of the fields in order.
+     */
+    protected byte[] encode(int classId, long readTime, Object primaryKey, AbstractRecord row, List<DatabaseField> fields) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + (fields.size() * 16));
+        DataOutputStream output = new DataOutputStream(bytes);
+        // Length is patched in once known.
+        output.writeInt(0);
+        output.writeInt(classId);
+        output.writeLong(readTime);
+        writeValue(output, primaryKey);
+        int size = fields.size();
+        output.writeInt(size);
+        for (int index = 0; index < size; index++) {
+            writeValue(output, row.getIndicatingNoEntry(fields.get(index)));
+        }
+        output.flush();
+        byte[] record = bytes.toByteArray();
+        int length = record.length;
+        record[0] = (byte)(length >>> 24);
+        record[1] = (byte)(length >>> 16);
+        record[2] = (byte)(length >>> 8);
+        record[3] = (byte)length;
+        return record;
+    }
+
+    /**
+     * Decode the read time and row of the record.
+     */
+    protected Entry decode(byte[] record, List<DatabaseField> fields) throws IOException, ClassNotFoundException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+        input.readInt();
+        input.readInt();
+        long readTime = input.readLong();
+        // Skip the primary key.
+        readValue(input);
+        int size = input.readInt();
+        if (size != fields.size()) {
+            return null;
+        }
+        DatabaseRecord row = new DatabaseRecord(size);
+        for (int index = 0; index < size; index++) {
+            Object value = readValue(input);
+            if (value != AbstractRecord.noEntry) {
+                row.add(fields.get(index), value);
+            }
+        }
+        return new Entry(row, readTime);
+    }
+
+    protected void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value == AbstractRecord.noEntry) {
+            output.writeByte(NO_ENTRY);
+        } else {
+            Class type = value.getClass();
+            if (type == String.class) {
+                output.writeByte(STRING);
+                writeBytes(output, ((String)value).getBytes(StandardCharsets.UTF_8));
+            } else if (type == Integer.class) {
+                output.writeByte(INTEGER);
+                output.writeInt((Integer)value);
+            } else if (type == Long.class) {
+                output.writeByte(LONG);
+                output.writeLong((Long)value);
+            } else if (type == Short.class) {
+                output.writeByte(SHORT);
+                output.writeShort((Short)value);
+            } else if (type == Byte.class) {
+                output.writeByte(BYTE);
+                output.writeByte((Byte)value);
+            } else if (type == Boolean.class) {
+                output.writeByte(BOOLEAN);
+                output.writeBoolean((Boolean)value);
+            } else if (type == Double.class) {
+                output.writeByte(DOUBLE);
+                output.writeDouble((Double)value);
+            } else if (type == Float.class) {
+                output.writeByte(FLOAT);
+                output.writeFloat((Float)value);
+            } else if (type == Character.class) {
+                output.writeByte(CHARACTER);
+                output.writeChar((Character)value);
+            } else if (type == BigDecimal.class) {
+                output.writeByte(BIG_DECIMAL);
+                output.writeInt(((BigDecimal)value).scale());
+                writeBytes(output, ((BigDecimal)value).unscaledValue().toByteArray());
+            } else if (type == BigInteger.class) {
+                output.writeByte(BIG_INTEGER);
+                writeBytes(output, ((BigInteger)value).toByteArray());
+            } else if (type == Timestamp.class) {
+                output.writeByte(TIMESTAMP);
+                output.writeLong(((Timestamp)value).getTime());
+                output.writeInt(((Timestamp)value).getNanos());
+            } else if (type == java.sql.Date.class) {
+                output.writeByte(SQL_DATE);
+                output.writeLong(((Date)value).getTime());
+            } else if (type == Time.class) {
+                output.writeByte(SQL_TIME);
+                output.writeLong(((Date)value).getTime());
+            } else if (type == Date.class) {
+                output.writeByte(DATE);
+                output.writeLong(((Date)value).getTime());
+            } else if (type == byte[].class) {
+                output.writeByte(BYTES);
+                writeBytes(output, (byte[])value);
+            } else if (type == CacheId.class) {
+                Object[] values = ((CacheId)value).getPrimaryKey();
+                output.writeByte(CACHE_ID);
+                output.writeInt(values.length);
+                for (Object element : values) {
+                    writeValue(output, element);
+                }
+            } else if (value instanceof Serializable) {
+                output.writeByte(SERIALIZED);
+                writeBytes(output, SerializationHelper.serialize((Serializable)value));
+            } else {
+                throw new NotSerializableException(type.getName());
+            }
+        }
+    }
+
+    protected Object readValue(DataInputStream input) throws IOException, ClassNotFoundException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case NO_ENTRY:
+                return AbstractRecord.noEntry;
+            case STRING:
+                return new String(readBytes(input), StandardCharsets.UTF_8);
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case SHORT:
+                return input.readShort();
+            case BYTE:
+                return input.readByte();
+            case BOOLEAN:
+                return input.readBoolean();
+            case DOUBLE:
+                return input.readDouble();
+            case FLOAT:
+                return input.readFloat();
+            case CHARACTER:
+                return input.readChar();
+            case BIG_DECIMAL:
+                int scale = input.readInt();
+                return new BigDecimal(new BigInteger(readBytes(input)), scale);
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(input));
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(input.readLong());
+                timestamp.setNanos(input.readInt());
+                return timestamp;
+            case SQL_DATE:
+                return new java.sql.Date(input.readLong());
+            case SQL_TIME:
+                return new Time(input.readLong());
+            case DATE:
+                return new Date(input.readLong());
+            case BYTES:
+                return readBytes(input);
+            case CACHE_ID:
+                Object[] values = new Object[input.readInt()];
+                for (int index = 0; index < values.length; index++) {
+                    values[index] = readValue(input);
+                }
+                return new CacheId(values);
+            case SERIALIZED:
+                return SerializationHelper.deserialize(readBytes(input));
+            default:
+                throw new IOException("Unknown value type " + tag);
+        }
+    }
+
+    protected void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    protected byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] value = new byte[input.readInt()];
+        input.readFully(value);
+        return value;
+    }
+}
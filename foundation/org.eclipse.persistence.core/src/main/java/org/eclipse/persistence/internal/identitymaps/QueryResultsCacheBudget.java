@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.internal.helper.InvalidObject;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.ReadQuery;
+import org.eclipse.persistence.queries.ReportQueryResult;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Bound the query results cache of all queries of a session by approximate retained size.
+ * <p><b>Description</b>: Each cached result is accounted with an estimate of the memory it retains
+ * beyond the objects already held by the object cache (containers, report values and parameters).
+ * When the total exceeds the maximum size, results are evicted using a frequency aware clock:
+ * a few entries are sampled from the head of the queue, the least frequently hit one is evicted and
+ * the others are re-queued with their frequency halved, so results hit often survive one-off results.
+ * <p>
+ * All operations are non-blocking; the per query identity maps still apply their own maximum size.
+ * Entries removed from their identity map by other means are dropped when they reach the head of the queue.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setQueryResultsCacheMaximumSize(long)
+ */
+public class QueryResultsCacheBudget {
+    /** Number of entries compared when choosing an eviction victim. */
+    protected static final int SAMPLE_SIZE = 5;
+
+    /** Estimated size of an object reference and object header. */
+    protected static final int REFERENCE_SIZE = 8;
+    protected static final int OBJECT_HEADER_SIZE = 16;
+    /** Estimated size of the cache key and accounting of a result. */
+    protected static final int ENTRY_SIZE = 128;
+
+    /** Maximum approximate size in bytes of all cached results. */
+    protected final long maximumSize;
+
+    /** Approximate size in bytes of all cached results. */
+    protected final AtomicLong size;
+
+    /** Accounting entries in eviction order. */
+    protected final ConcurrentLinkedQueue<Entry> queue;
+
+    /**
+     * Accounting entries by the identity map and cache key of the result.
+     * Cache keys of different queries are equal if their parameters are, so they are not enough on their own.
+     */
+    protected final Map<EntryKey, Entry> entries;
+
+    /**
+     * Key of a cached result, its cache key in the identity map of its query.
+     */
+    protected static class EntryKey {
+        protected final IdentityMap map;
+        protected final CacheKey cacheKey;
+
+        protected EntryKey(IdentityMap map, CacheKey cacheKey) {
+            this.map = map;
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey key = (EntryKey)object;
+            return (this.map == key.map) && this.cacheKey.equals(key.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * System.identityHashCode(this.map)) + this.cacheKey.hashCode();
+        }
+    }
+
+    /**
+     * Accounting of a single cached result.
+     */
+    protected static class Entry {
+        protected final ReadQuery query;
+        protected final IdentityMap map;
+        protected final CacheKey cacheKey;
+        protected final EntryKey key;
+        protected final long size;
+        protected final AtomicInteger frequency;
+        protected volatile boolean isRemoved;
+
+        protected Entry(ReadQuery query, IdentityMap map, CacheKey cacheKey, long size) {
+            this.query = query;
+            this.map = map;
+            this.cacheKey = cacheKey;
+            this.key = new EntryKey(map, cacheKey);
+            this.size = size;
+            this.frequency = new AtomicInteger(1);
+        }
+    }
+
+    public QueryResultsCacheBudget(long maximumSize) {
+        this.maximumSize = maximumSize;
+        this.size = new AtomicLong();
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Return the maximum approximate size in bytes of all cached results.
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Return the approximate size in bytes of all cached results.
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    /**
+     * Record a hit on the cached result of the query's identity map.
+     */
+    public void hit(IdentityMap map, CacheKey cacheKey) {
+        Entry entry = this.entries.get(new EntryKey(map, cacheKey));
+        if (entry != null) {
+            entry.frequency.incrementAndGet();
+        }
+    }
+
+    /**
+     * Account for the result just put in the query's identity map,
+     * and evict results until the cache fits in the maximum size.
+     */
+    public void added(ReadQuery query, IdentityMap map, CacheKey cacheKey, Object parameters, Object results, AbstractSession session) {
+        Entry entry = new Entry(query, map, cacheKey, ENTRY_SIZE + estimateSize(parameters) + estimateSize(results));
+        // The map may have replaced the result of an existing cache key.
+        Entry previous = this.entries.put(entry.key, entry);
+        if (previous != null) {
+            entry.frequency.set(previous.frequency.get());
+            release(previous);
+        }
+        this.queue.add(entry);
+        this.size.addAndGet(entry.size);
+        while (this.size.get() > this.maximumSize) {
+            if (!evict(session)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Release the accounting of all results of the identity map,
+     * the map has been removed from the query results cache.
+     */
+    public void removed(IdentityMap map) {
+        for (Enumeration<CacheKey> keys = map.keys(false); keys.hasMoreElements();) {
+            Entry entry = this.entries.get(new EntryKey(map, keys.nextElement()));
+            if (entry != null) {
+                this.entries.remove(entry.key, entry);
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Release the accounting of all results.
+     */
+    public void clear() {
+        this.entries.clear();
+        this.queue.clear();
+        this.size.set(0);
+    }
+
+    /**
+     * Evict the least frequently used of a sample of entries.
+     * Entries no longer in their map are released while sampling.
+     * Return false if there was nothing left to evict.
+     */
+    protected boolean evict(AbstractSession session) {
+        Entry victim = null;
+        Entry[] sample = new Entry[SAMPLE_SIZE];
+        int sampled = 0;
+        boolean released = false;
+        while (sampled < SAMPLE_SIZE) {
+            Entry entry = this.queue.poll();
+            if (entry == null) {
+                break;
+            }
+            if (entry.isRemoved) {
+                continue;
+            }
+            // Removed from its map by the map's own size limit, or replaced.
+            if (entry.map.getCacheKey(entry.cacheKey.getKey(), false) != entry.cacheKey) {
+                this.entries.remove(entry.key, entry);
+                release(entry);
+                released = true;
+                continue;
+            }
+            sample[sampled++] = entry;
+            if ((victim == null) || (entry.frequency.get() < victim.frequency.get())) {
+                victim = entry;
+            }
+        }
+        // Releasing stale entries may have been enough.
+        if (released && (this.size.get() <= this.maximumSize)) {
+            victim = null;
+        }
+        // Age the survivors and give them another turn.
+        for (int index = 0; index < sampled; index++) {
+            Entry entry = sample[index];
+            if (entry != victim) {
+                int frequency = entry.frequency.get();
+                entry.frequency.compareAndSet(frequency, frequency >> 1);
+                this.queue.add(entry);
+            }
+        }
+        if (victim != null) {
+            victim.map.remove(victim.cacheKey);
+            this.entries.remove(victim.key, victim);
+            release(victim);
+            session.incrementProfile(SessionProfiler.QueryResultsCacheEvictions, victim.query);
+        }
+        return released || (victim != null);
+    }
+
+    /**
+     * Subtract the entry from the size, only once.
+     */
+    protected void release(Entry entry) {
+        if (!entry.isRemoved) {
+            entry.isRemoved = true;
+            this.size.addAndGet(-entry.size);
+        }
+    }
+
+    /**
+     * Return the approximate size in bytes retained by the cached value.
+     * Domain objects are assumed to be held by the object cache, so only the references to them are counted.
+     */
+    protected long estimateSize(Object value) {
+        if ((value == null) || (value == InvalidObject.instance)) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return OBJECT_HEADER_SIZE + 24 + (((String)value).length() * 2L);
+        }
+        if ((value instanceof Number) || (value instanceof Boolean) || (value instanceof Character) || (value instanceof Date)) {
+            return OBJECT_HEADER_SIZE + REFERENCE_SIZE;
+        }
+        if (value instanceof byte[]) {
+            return OBJECT_HEADER_SIZE + ((byte[])value).length;
+        }
+        if (value instanceof CacheId) {
+            return estimateSize(((CacheId)value).getPrimaryKey());
+        }
+        if (value instanceof Object[]) {
+            Object[] array = (Object[])value;
+            long arraySize = OBJECT_HEADER_SIZE + (array.length * (long)REFERENCE_SIZE);
+            for (Object element : array) {
+                arraySize = arraySize + estimateSize(element);
+            }
+            return arraySize;
+        }
+        if (value instanceof ReportQueryResult) {
+            ReportQueryResult result = (ReportQueryResult)value;
+            long resultSize = OBJECT_HEADER_SIZE * 3;
+            for (Object element : result.getResults()) {
+                resultSize = resultSize + REFERENCE_SIZE + estimateSize(element);
+            }
+            return resultSize;
+        }
+        if (value instanceof Collection) {
+            long collectionSize = OBJECT_HEADER_SIZE * 2;
+            for (Object element : (Collection)value) {
+                collectionSize = collectionSize + REFERENCE_SIZE + estimateSize(element);
+            }
+            return collectionSize;
+        }
+        return 0;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -58,6 +58,7 @@ protected ForeignReferenceMapping getMapping() {
      */
     @Override
     protected Object instantiate(AbstractSession session) throws EclipseLinkException {
+        recordInstantiation(this.mapping);
         return this.mapping.extractResultFromBatchQuery(this.query, this.parentCacheKey, this.row, session, this.originalQuery);
     }
 
@@ -82,6 +83,7 @@ public Object instantiateForUnitOfWorkValueHolder(UnitOfWorkValueHolder unitOfWo
             localQuery = (ReadQuery)this.query.clone();
             unitOfWork.getBatchQueries().put(this.query, localQuery);
         }
+        recordInstantiation(this.mapping);
         return this.mapping.extractResultFromBatchQuery(localQuery, this.parentCacheKey, this.row, unitOfWorkValueHolder.getUnitOfWork(), this.originalQuery);
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -17,6 +17,7 @@
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.exceptions.DatabaseException;
 import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.queries.AdaptiveBatchFetchStatistics;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
@@ -133,6 +134,10 @@ protected Object instantiate(AbstractSession session) throws DatabaseException {
         if (this.query.isObjectBuildingQuery() && ((ObjectBuildingQuery)this.query).shouldRefreshIdentityMapResult()){
             this.refreshCascade = this.query.getCascadePolicy();
         }
+        DatabaseMapping mapping = this.query.getSourceMapping();
+        if ((mapping != null) && mapping.isForeignReferenceMapping()) {
+            recordInstantiation((ForeignReferenceMapping)mapping);
+        }
         Object result = session.executeQuery(getQuery(), getRow());
         // Bug 489898 - ensure that the query's session is dereferenced, post-execution
         getQuery().setSession(null);
@@ -155,6 +160,16 @@ public Object instantiateForUnitOfWorkValueHolder(UnitOfWorkValueHolder unitOfWo
         return instantiate(unitOfWorkValueHolder.getUnitOfWork());
     }
 
+    /**
+     * Record the instantiation of the relationship, if its usage decides whether it is batch fetched.
+     */
+    protected void recordInstantiation(ForeignReferenceMapping mapping) {
+        AdaptiveBatchFetchStatistics statistics = mapping.getAdaptiveBatchFetchStatistics();
+        if (statistics != null) {
+            statistics.instantiated();
+        }
+    }
+
     /**
      * INTERNAL:
      * Run any extra code required after the valueholder instantiates
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -37,4 +37,15 @@ final class EclipseLinkSemanticValidator extends AbstractEclipseLinkSemanticVali
         super(new EclipseLinkSemanticValidatorHelper(queryContext),
               EclipseLinkSemanticValidatorExtension.NULL_EXTENSION);
     }
+
+    /**
+     * Sets the context of the JPQL query to validate, so this validator is reused for another
+     * query of the same grammar.
+     *
+     * @param queryContext The context used to query information about the JPQL query, or
+     * <code>null</code> once validated
+     */
+    void setQueryContext(JPQLQueryContext queryContext) {
+        ((EclipseLinkSemanticValidatorHelper) helper).setQueryContext(queryContext);
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -45,7 +45,7 @@ final class EclipseLinkSemanticValidatorHelper implements SemanticValidatorHelpe
     /**
      * The context used to query information about the JPQL query.
      */
-    private final JPQLQueryContext queryContext;
+    private JPQLQueryContext queryContext;
 
     /**
      * Creates a new <code>EclipseLinkSemanticValidatorHelper</code>.
@@ -57,6 +57,16 @@ final class EclipseLinkSemanticValidatorHelper implements SemanticValidatorHelpe
         this.queryContext = queryContext;
     }
 
+    /**
+     * Sets the context of the JPQL query to validate, so the helper is reused for another query.
+     *
+     * @param queryContext The context used to query information about the JPQL query, or
+     * <code>null</code> once validated
+     */
+    void setQueryContext(JPQLQueryContext queryContext) {
+        this.queryContext = queryContext;
+    }
+
     private void addIdentificationVariable(IdentificationVariable identificationVariable,
                                            Map<String, List<IdentificationVariable>> identificationVariables) {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2006, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2006, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -16,7 +16,10 @@
 package org.eclipse.persistence.internal.jpa.jpql;
 
 import java.text.MessageFormat;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -60,8 +63,16 @@
  * is allowed. For instance, if the JPQL query has functions defined for EclipseLink grammar but
  * the validation level is set for generic JPA, then an exception will be thrown indicating the
  * function cannot be used.
+ * <p>
+ * The validators are pooled and reused by the JPQL queries validated by the parser.
+ * <p>
+ * When validation is turned off or lazy, the {@link JPQLQueryCompiler} first tries to create the
+ * {@link DatabaseQuery} directly from the JPQL query, without creating the parsed tree. When it is
+ * lazy, the queries the compiler does not support are parsed tolerantly and fully validated with
+ * the EclipseLink grammar, like when the validation level is {@link ParserValidationType#EclipseLink}.
  *
  * @see JPQLExpression
+ * @see JPQLQueryCompiler
  *
  * @version 2.5
  * @since 2.3
@@ -71,6 +82,31 @@
 @SuppressWarnings("nls")
 public final class HermesParser implements JPAQueryBuilder {
 
+    /**
+     * The validation levels, matched case-insensitively.
+     */
+    private static final String[] VALIDATION_LEVELS = {
+        ParserValidationType.EclipseLink,
+        ParserValidationType.JPA10,
+        ParserValidationType.JPA20,
+        ParserValidationType.JPA21,
+        ParserValidationType.None,
+        ParserValidationType.Lazy
+    };
+
+    /**
+     * The maximum number of validators kept by a parser, a query validated while they are all in
+     * use is validated by new validators.
+     */
+    private static final int MAX_POOLED_VALIDATORS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The validators reused by the queries validated by this parser, building them is a large part
+     * of validating a query. They are only referenced by the parser, so they are released with the
+     * session it belongs to.
+     */
+    private final Deque<Validators> validators;
+
     /**
      * Determines how to validate the JPQL query grammatically.
      */
@@ -82,6 +118,7 @@ public final class HermesParser implements JPAQueryBuilder {
     public HermesParser() {
         super();
         validationLevel = ParserValidationType.DEFAULT;
+        validators = new ArrayDeque<>();
     }
 
     /**
@@ -221,6 +258,18 @@ private boolean isTolerant() {
         return validationLevel != ParserValidationType.None;
     }
 
+    /**
+     * Determines whether the JPQL query can be compiled without being validated, which is the case
+     * when validation is turned off or lazy. A query that is not compiled is validated when it's lazy.
+     *
+     * @return <code>true</code> if the query is compiled when it's in the compiled subset of JPQL;
+     * <code>false</code> if it's always parsed and validated
+     */
+    private boolean isCompiled() {
+        return (validationLevel == ParserValidationType.None) ||
+               (validationLevel == ParserValidationType.Lazy);
+    }
+
     /**
      * Returns the {@link JPQLGrammar} that will help to validate the JPQL query grammatically and
      * semantically (contextually). It will also checks if any specific feature added to that grammar
@@ -264,6 +313,15 @@ private DatabaseQuery populateQueryImp(CharSequence jpqlQuery,
                                            AbstractSession session) {
 
         try {
+            // Compile the common JPQL queries without the parsed tree, which is required to validate
+            if ((query == null) && isCompiled()) {
+                DatabaseQuery compiledQuery = JPQLQueryCompiler.compile(jpqlQuery, session);
+
+                if (compiledQuery != null) {
+                    return compiledQuery;
+                }
+            }
+
             // Parse the JPQL query with the most recent JPQL grammar
             JPQLExpression jpqlExpression = new JPQLExpression(
                 jpqlQuery,
@@ -308,6 +366,13 @@ private ResourceBundle resourceBundle() {
      */
     @Override
     public void setValidationLevel(String validationLevel) {
+        // The validation level is compared by identity
+        for (String level : VALIDATION_LEVELS) {
+            if (level.equalsIgnoreCase(validationLevel)) {
+                validationLevel = level;
+                break;
+            }
+        }
         this.validationLevel = validationLevel;
     }
 
@@ -323,14 +388,38 @@ public void setValidationLevel(String validationLevel) {
     private void validate(JPQLQueryContext queryContext,
                           org.eclipse.persistence.jpa.jpql.parser.Expression expression) {
 
-        if (validationLevel != ParserValidationType.None) {
+        if (isTolerant()) {
+            validateImp(queryContext, expression);
+        }
+    }
+
+    private void validateImp(JPQLQueryContext queryContext,
+                             org.eclipse.persistence.jpa.jpql.parser.Expression expression) {
+
+        JPQLGrammar jpqlGrammar = jpqlGrammar();
 
+        // A query validated while the other validators are in use, as when a descriptor
+        // is initialized on first use or by another thread, is validated by new validators
+        Validators validators;
+        synchronized (this.validators) {
+            validators = this.validators.poll();
+        }
+        if (validators == null) {
+            validators = new Validators();
+        }
+
+        EclipseLinkGrammarValidator grammar = validators.grammarValidator(jpqlGrammar);
+        EclipseLinkSemanticValidator semantic = validators.semanticValidator(jpqlGrammar, queryContext);
+        boolean visiting = false;
+
+        try {
             Collection<JPQLQueryProblem> problems = new LinkedList<>();
 
             // Validate the JPQL query grammatically (based on the JPQL grammar)
-            EclipseLinkGrammarValidator grammar = new EclipseLinkGrammarValidator(jpqlGrammar());
             grammar.setProblems(problems);
+            visiting = true;
             expression.accept(grammar);
+            visiting = false;
 
             if (!problems.isEmpty()) {
                 throw buildException(
@@ -341,9 +430,10 @@ private void validate(JPQLQueryContext queryContext,
             }
 
             // Validate the JPQL query semantically (contextually)
-            EclipseLinkSemanticValidator semantic = new EclipseLinkSemanticValidator(queryContext);
             semantic.setProblems(problems);
+            visiting = true;
             expression.accept(semantic);
+            visiting = false;
 
             if (!problems.isEmpty()) {
                 throw buildException(
@@ -353,6 +443,57 @@ private void validate(JPQLQueryContext queryContext,
                 );
             }
         }
+        finally {
+            grammar.dispose();
+            semantic.dispose();
+            // Do not retain the session
+            semantic.setQueryContext(null);
+            // A validator that failed while visiting may be left in an inconsistent state
+            if (!visiting) {
+                synchronized (this.validators) {
+                    if (this.validators.size() < MAX_POOLED_VALIDATORS) {
+                        this.validators.push(validators);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The validators used to validate one query at a time, by JPQL grammar.
+     */
+    private static final class Validators {
+
+        /**
+         * The grammar validators mapped by their {@link JPQLGrammar}.
+         */
+        final Map<JPQLGrammar, EclipseLinkGrammarValidator> grammarValidators = new IdentityHashMap<>();
+
+        /**
+         * The semantic validators mapped by their {@link JPQLGrammar}.
+         */
+        final Map<JPQLGrammar, EclipseLinkSemanticValidator> semanticValidators = new IdentityHashMap<>();
+
+        EclipseLinkGrammarValidator grammarValidator(JPQLGrammar jpqlGrammar) {
+            EclipseLinkGrammarValidator validator = grammarValidators.get(jpqlGrammar);
+            if (validator == null) {
+                validator = new EclipseLinkGrammarValidator(jpqlGrammar);
+                grammarValidators.put(jpqlGrammar, validator);
+            }
+            return validator;
+        }
+
+        EclipseLinkSemanticValidator semanticValidator(JPQLGrammar jpqlGrammar, JPQLQueryContext queryContext) {
+            EclipseLinkSemanticValidator validator = semanticValidators.get(jpqlGrammar);
+            if (validator == null) {
+                validator = new EclipseLinkSemanticValidator(queryContext);
+                semanticValidators.put(jpqlGrammar, validator);
+            }
+            else {
+                validator.setQueryContext(queryContext);
+            }
+            return validator;
+        }
     }
 
     /**
@@ -0,0 +1,1607 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.jpql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.expressions.ExpressionMath;
+import org.eclipse.persistence.internal.expressions.ConstantExpression;
+import org.eclipse.persistence.internal.expressions.ParameterExpression;
+import org.eclipse.persistence.internal.queries.JPQLCallQueryMechanism;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.DatabaseQuery.ParameterType;
+import org.eclipse.persistence.queries.DeleteAllQuery;
+import org.eclipse.persistence.queries.ModifyAllQuery;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReportQuery;
+import org.eclipse.persistence.queries.UpdateAllQuery;
+
+/**
+ * This compiler creates the {@link DatabaseQuery} of a JPQL query in a single pass over its text,
+ * without creating the parsed tree, for the subset of JPQL most queries are written in:
+ * <ul>
+ * <li><code><b>SELECT</b></code>, <code><b>UPDATE</b></code> and <code><b>DELETE</b></code>
+ * statements over a single abstract schema name, with <code><b>[LEFT] JOIN [FETCH]</b></code>
+ * declarations;</li>
+ * <li>identification variables, path expressions and the aggregate functions as select
+ * expressions, the <code><b>GROUP BY</b></code>, <code><b>HAVING</b></code> and
+ * <code><b>ORDER BY</b></code> clauses;</li>
+ * <li>conditional expressions made of comparisons, <code><b>BETWEEN</b></code>,
+ * <code><b>LIKE</b></code>, <code><b>IN</b></code>, <code><b>IS [NOT] NULL</b></code> and
+ * <code><b>IS [NOT] EMPTY</b></code> over literals, input parameters, path expressions,
+ * arithmetic expressions and the <code><b>UPPER</b></code>, <code><b>LOWER</b></code>,
+ * <code><b>LENGTH</b></code> and <code><b>SIZE</b></code> functions.</li>
+ * </ul>
+ * The query is populated the way the visitors populate it from the parsed tree: the EclipseLink
+ * expressions are created in the same order and the input parameters are given the same types.
+ * Any other query, or a query that does not resolve against the descriptors, is not compiled and
+ * is left to {@link HermesParser}, which also reports its problems.
+ * <p>
+ * Since the JPQL query is not validated, it is only used when validation is turned off or lazy,
+ * any query it does not compile is then validated when validation is lazy.
+ *
+ * @see HermesParser
+ */
+final class JPQLQueryCompiler {
+
+    /**
+     * The kinds of token.
+     */
+    private static final int END        = 0;
+    private static final int IDENTIFIER = 1;
+    private static final int STRING     = 2;
+    private static final int INTEGER    = 3;
+    private static final int DECIMAL    = 4;
+    private static final int PARAMETER  = 5;
+    private static final int SYMBOL     = 6;
+
+    /**
+     * The identifiers that are not compiled as identification variables.
+     */
+    private static final Set<String> RESERVED_IDENTIFIERS = new HashSet<>(Arrays.asList(
+        "ALL", "AND", "ANY", "AS", "ASC", "AVG", "BETWEEN", "BY", "CASE", "COUNT", "DELETE", "DESC",
+        "DISTINCT", "ELSE", "EMPTY", "END", "ESCAPE", "EXISTS", "FALSE", "FETCH", "FIRST", "FROM",
+        "GROUP", "HAVING", "IN", "INNER", "IS", "JOIN", "LAST", "LEFT", "LENGTH", "LIKE", "LOWER",
+        "MAX", "MEMBER", "MIN", "NEW", "NOT", "NULL", "NULLS", "OBJECT", "OF", "ON", "OR", "ORDER",
+        "OUTER", "SELECT", "SET", "SIZE", "SOME", "SUM", "THEN", "TRUE", "UPDATE", "UPPER", "WHEN",
+        "WHERE"
+    ));
+
+    /**
+     * Thrown when the query is not in the compiled subset.
+     */
+    private static final UnsupportedQueryException UNSUPPORTED = new UnsupportedQueryException();
+
+    /**
+     * The JPQL query to compile.
+     */
+    private final String jpqlQuery;
+
+    /**
+     * The session the query is compiled for.
+     */
+    private final AbstractSession session;
+
+    /**
+     * The kind, start and end of each token, the last one is {@link #END}.
+     */
+    private int[] kinds;
+    private int[] starts;
+    private int[] ends;
+
+    /**
+     * The position of the current token.
+     */
+    private int position;
+
+    /**
+     * The identification variables, by their upper case name.
+     */
+    private final Map<String, Variable> variables;
+
+    /**
+     * The range variable declaration, its expression is the base expression of the query.
+     */
+    private Variable range;
+
+    /**
+     * The <code><b>JOIN</b></code> expressions of the range variable declaration, in order.
+     */
+    private final List<Join> joins;
+
+    /**
+     * The input parameters, in the order they are created.
+     */
+    private final List<Term> parameters;
+
+    private JPQLQueryCompiler(String jpqlQuery, AbstractSession session) {
+        super();
+        this.jpqlQuery  = jpqlQuery;
+        this.session    = session;
+        this.variables  = new HashMap<>();
+        this.joins      = new ArrayList<>();
+        this.parameters = new ArrayList<>();
+    }
+
+    /**
+     * Creates the {@link DatabaseQuery} of the given JPQL query.
+     *
+     * @param jpqlQuery The JPQL query to compile
+     * @param session The session the query is compiled for
+     * @return The populated query or <code>null</code> if the JPQL query is not in the compiled
+     * subset or does not resolve, it is then compiled from its parsed tree
+     */
+    static DatabaseQuery compile(CharSequence jpqlQuery, AbstractSession session) {
+        try {
+            JPQLQueryCompiler compiler = new JPQLQueryCompiler(jpqlQuery.toString(), session);
+            compiler.tokenize();
+            return compiler.compileStatement();
+        }
+        catch (RuntimeException exception) {
+            // Not in the subset, or the query fails to be populated, either way the
+            // parsed tree is used to populate it and to report the problems, if any
+            return null;
+        }
+    }
+
+    private void addArguments(DatabaseQuery query) {
+        for (Term parameter : parameters) {
+            ParameterExpression expression = (ParameterExpression) parameter.expression;
+            query.addArgument(
+                expression.getField().getName(),
+                (Class<?>) expression.getType(),
+                (parameter.text.charAt(0) == '?') ? ParameterType.POSITIONAL : ParameterType.NAMED
+            );
+        }
+    }
+
+    private Expression aggregate(String function, boolean distinct, Expression expression) {
+
+        if (distinct) {
+            expression = expression.distinct();
+        }
+
+        switch (function) {
+            case "COUNT": return expression.count();
+            case "AVG":   return expression.average();
+            case "SUM":   return expression.sum();
+            case "MAX":   return expression.maximum();
+            default:      return expression.minimum();
+        }
+    }
+
+    private Expression base() {
+        return range.expression;
+    }
+
+    /**
+     * Creates the expression of the path, like the path resolver does.
+     *
+     * @param term The path expression
+     * @param nullAllowed Whether the last relationship is allowed to be <code>null</code>
+     * @param checkMappingType Whether the last relationship is allowed to be <code>null</code>
+     * because it's a foreign reference mapping
+     * @param length The number of paths to create, after the identification variable
+     * @return The expression of the path
+     */
+    private Expression buildPath(Term term, boolean nullAllowed, boolean checkMappingType, int length) {
+
+        Expression expression = term.variable.expression;
+
+        for (int index = 0; index < length; index++) {
+
+            String path = term.path[index];
+            DatabaseMapping mapping = term.mappings[index];
+            boolean last = (index + 1 == length);
+
+            if (last && checkMappingType) {
+                nullAllowed = mapping.isForeignReferenceMapping();
+            }
+
+            if (mapping.isCollectionMapping()) {
+                expression = (last && nullAllowed) ? expression.anyOfAllowingNone(path) : expression.anyOf(path);
+            }
+            else {
+                expression = (last && nullAllowed) ? expression.getAllowingNull(path) : expression.get(path);
+            }
+        }
+
+        return expression;
+    }
+
+    private void compileFrom(ObjectLevelReadQuery query) {
+
+        ExpressionBuilder builder = (ExpressionBuilder) range.expression;
+        query.setExpressionBuilder(builder);
+
+        if (query.getReferenceClass() == null) {
+            query.setReferenceClass(builder.getQueryClass());
+            query.changeDescriptor(session);
+        }
+
+        // Add the join expressions (but not the join fetch expressions)
+        for (Join join : joins) {
+            if (join.variable != null) {
+                join.variable.expression = buildPath(join.path, join.left, false, join.path.path.length);
+
+                if (!join.fetch) {
+                    query.addNonFetchJoinedAttribute(join.variable.expression);
+                }
+            }
+        }
+    }
+
+    private void compileGroupBy(ReportQuery query, int end) {
+        do {
+            Term term = parseSelectPath();
+            query.addGrouping(materialize(term));
+        }
+        while (skipSymbol(","));
+
+        expectPosition(end);
+    }
+
+    private void compileOrderBy(ObjectLevelReadQuery query, int end) {
+        do {
+            Term term = parseSelectPath();
+
+            if (term.path == null) {
+                throw UNSUPPORTED;
+            }
+
+            Expression expression = materialize(term);
+
+            if (skipIdentifier("ASC")) {
+                expression = expression.ascending();
+            }
+            else if (skipIdentifier("DESC")) {
+                expression = expression.descending();
+            }
+
+            if (skipIdentifier("NULLS")) {
+                if (skipIdentifier("FIRST")) {
+                    expression = expression.nullsFirst();
+                }
+                else if (skipIdentifier("LAST")) {
+                    expression = expression.nullsLast();
+                }
+                else {
+                    throw UNSUPPORTED;
+                }
+            }
+
+            query.addOrdering(expression);
+        }
+        while (skipSymbol(","));
+
+        expectPosition(end);
+    }
+
+    private void compileReadAllSelect(ReadAllQuery query, boolean distinct) {
+
+        if (distinct) {
+            query.useDistinct();
+        }
+
+        query.setShouldBuildNullForNullPk(false);
+
+        // Add the join fetch expressions of the range variable
+        for (Join join : joins) {
+            if (join.fetch && (join.path.variable == range)) {
+                Expression expression;
+
+                if (join.variable != null) {
+                    expression = join.variable.expression;
+                }
+                else {
+                    expression = buildPath(join.path, join.left, false, join.path.path.length);
+                }
+
+                query.addJoinedAttribute(expression);
+            }
+        }
+    }
+
+    private void compileReportSelect(ReportQuery query, boolean distinct, int end) {
+
+        boolean oneToOneSelected = false;
+        boolean countFunction = false;
+        int count = 0;
+
+        do {
+            count++;
+
+            String function = aggregateFunction();
+
+            // Aggregate function
+            if (function != null) {
+                position += 2;
+                boolean distinctFunction = skipIdentifier("DISTINCT");
+                Term term = parseSelectPath();
+                expectSymbol(")");
+
+                if ((term.path == null) && !function.equals("COUNT")) {
+                    throw UNSUPPORTED;
+                }
+
+                String name;
+                Class<?> type;
+
+                if (function.equals("COUNT")) {
+                    countFunction = true;
+                    name = (term.path == null) ? "COUNT" : term.lastPath();
+                    type = Long.class;
+                }
+                else {
+                    oneToOneSelected |= isOneToOneSelected(term);
+                    name = term.lastPath();
+
+                    switch (function) {
+                        case "AVG": type = Double.class; break;
+                        case "SUM": type = TypeResolver.convertSumFunctionType(typeOf(term)); break;
+                        default:    type = typeOf(term); break;
+                    }
+                }
+
+                Expression expression = aggregate(function, distinctFunction, materialize(term));
+                query.addAttribute(name, expression, type);
+                continue;
+            }
+
+            boolean object = isIdentifier("OBJECT");
+
+            if (object) {
+                position++;
+                expectSymbol("(");
+            }
+
+            String text = jpqlQuery.substring(starts[position], ends[position]);
+            Term term = parseSelectPath();
+
+            if (object) {
+                expectSymbol(")");
+
+                if (term.path != null) {
+                    throw UNSUPPORTED;
+                }
+            }
+
+            oneToOneSelected |= isOneToOneSelected(term);
+
+            // Path expression
+            if (term.path != null) {
+                Expression expression = buildPath(term, false, true, term.path.length);
+                query.addAttribute(term.lastPath(), expression);
+                query.dontRetrievePrimaryKeys();
+            }
+            // Identification variable
+            else {
+                List<Expression> joinFetchExpressions = null;
+
+                for (Join join : joins) {
+                    if (join.fetch && (join.path.variable == term.variable)) {
+                        if (joinFetchExpressions == null) {
+                            joinFetchExpressions = new ArrayList<>();
+                        }
+                        joinFetchExpressions.add(buildPath(join.path, join.left, false, join.path.path.length));
+                    }
+                }
+
+                if (joinFetchExpressions == null) {
+                    query.addAttribute(text, term.variable.expression);
+                }
+                else {
+                    query.addItem(text, term.variable.expression, joinFetchExpressions);
+                }
+            }
+        }
+        while (skipSymbol(","));
+
+        expectPosition(end);
+
+        if (distinct && ((count > 1) || !countFunction)) {
+            query.useDistinct();
+        }
+
+        query.setShouldBuildNullForNullPk(oneToOneSelected);
+
+        if (count > 1) {
+            query.returnWithoutReportQueryResult();
+        }
+        else {
+            query.returnSingleAttribute();
+        }
+    }
+
+    private DatabaseQuery compileSelect() {
+
+        // SELECT clause, which is compiled after the FROM clause
+        position = 1;
+        boolean distinct = skipIdentifier("DISTINCT");
+        int selectStart = position;
+        int fromIndex = indexOfClause(selectStart, "FROM");
+
+        if (fromIndex < 0) {
+            throw UNSUPPORTED;
+        }
+
+        // FROM clause
+        position = fromIndex + 1;
+        parseFrom();
+
+        // The other clauses, the HAVING clause is compiled before the GROUP BY clause
+        int whereIndex  = indexOfClause(position, "WHERE");
+        int groupIndex  = indexOfClause(position, "GROUP");
+        int havingIndex = indexOfClause(position, "HAVING");
+        int orderIndex  = indexOfClause(position, "ORDER");
+        int end = kinds.length - 1;
+
+        // Each clause ends where the next one starts, and nothing else follows the FROM clause
+        int[] clauses = { whereIndex, groupIndex, havingIndex, orderIndex };
+        int[] clauseEnds = new int[clauses.length];
+        int clauseStart = position;
+
+        for (int index = 0, previousIndex = -1; index <= clauses.length; index++) {
+            int clauseIndex = (index < clauses.length) ? clauses[index] : end;
+
+            if (clauseIndex >= 0) {
+                if (clauseIndex < clauseStart) {
+                    throw UNSUPPORTED;
+                }
+                if (previousIndex >= 0) {
+                    clauseEnds[previousIndex] = clauseIndex;
+                }
+                else if (clauseIndex != position) {
+                    throw UNSUPPORTED;
+                }
+                previousIndex = index;
+                clauseStart = clauseIndex;
+            }
+        }
+
+        // ReadAllQuery when the range variable is selected, otherwise ReportQuery
+        ObjectLevelReadQuery query;
+        position = selectStart;
+
+        boolean object = isIdentifier("OBJECT") && isSymbol(position + 1, "(");
+        int variableIndex = object ? position + 2 : position;
+        int variableEnd = object ? variableIndex + 2 : variableIndex + 1;
+        boolean readAll = (groupIndex < 0) && (havingIndex < 0) &&
+                          (kinds[variableIndex] == IDENTIFIER) &&
+                          (variableEnd == fromIndex) &&
+                          (!object || isSymbol(variableIndex + 1, ")")) &&
+                          (variable(variableIndex) == range);
+
+        if (readAll) {
+            ReadAllQuery readAllQuery = new ReadAllQuery();
+            readAllQuery.dontUseDistinct();
+            query = readAllQuery;
+        }
+        else {
+            ReportQuery reportQuery = new ReportQuery();
+            reportQuery.returnWithoutReportQueryResult();
+            reportQuery.dontUseDistinct();
+            query = reportQuery;
+        }
+
+        prepare(query);
+        compileFrom(query);
+
+        if (readAll) {
+            compileReadAllSelect((ReadAllQuery) query, distinct);
+        }
+        else {
+            compileReportSelect((ReportQuery) query, distinct, fromIndex);
+        }
+
+        // WHERE clause
+        if (whereIndex >= 0) {
+            position = whereIndex + 1;
+            query.setSelectionCriteria(parseConditionalExpression());
+            expectPosition(clauseEnds[0]);
+        }
+
+        if (!readAll) {
+            ReportQuery reportQuery = (ReportQuery) query;
+
+            // HAVING clause
+            if (havingIndex >= 0) {
+                position = havingIndex + 1;
+                reportQuery.setHavingExpression(parseConditionalExpression());
+                expectPosition(clauseEnds[2]);
+            }
+
+            // GROUP BY clause
+            if (groupIndex >= 0) {
+                position = groupIndex + 2;
+                compileGroupBy(reportQuery, clauseEnds[1]);
+            }
+        }
+
+        // ORDER BY clause
+        if (orderIndex >= 0) {
+            position = orderIndex + 2;
+            compileOrderBy(query, clauseEnds[3]);
+        }
+
+        addArguments(query);
+        return query;
+    }
+
+    private DatabaseQuery compileStatement() {
+
+        // SELECT statement
+        if (isIdentifier("SELECT")) {
+            return compileSelect();
+        }
+
+        // UPDATE statement
+        if (isIdentifier("UPDATE")) {
+            position++;
+            UpdateAllQuery query = new UpdateAllQuery();
+            prepare(query);
+            parseRangeVariableDeclaration(query);
+
+            expectIdentifier("SET");
+
+            do {
+                Term path = parseSelectPath();
+
+                if (path.path == null) {
+                    throw UNSUPPORTED;
+                }
+
+                Expression pathExpression = materialize(path);
+                expectSymbol("=");
+                Term value = parseScalarExpression();
+                Expression valueExpression = (value.text != null) ? parameter(value, typeOf(path)) : materialize(value);
+                query.addUpdate(pathExpression, valueExpression);
+            }
+            while (skipSymbol(","));
+
+            return compileModifyAll(query);
+        }
+
+        // DELETE statement
+        if (isIdentifier("DELETE")) {
+            position++;
+            expectIdentifier("FROM");
+            DeleteAllQuery query = new DeleteAllQuery();
+            prepare(query);
+            parseRangeVariableDeclaration(query);
+            return compileModifyAll(query);
+        }
+
+        throw UNSUPPORTED;
+    }
+
+    private DatabaseQuery compileModifyAll(ModifyAllQuery query) {
+
+        // WHERE clause
+        if (skipIdentifier("WHERE")) {
+            query.setSelectionCriteria(parseConditionalExpression());
+        }
+
+        expectPosition(kinds.length - 1);
+        addArguments(query);
+        return query;
+    }
+
+    /**
+     * Returns the aggregate function at the current position, if any.
+     */
+    private String aggregateFunction() {
+        if (kinds[position] == IDENTIFIER && isSymbol(position + 1, "(")) {
+            for (String function : new String[] { "COUNT", "AVG", "SUM", "MAX", "MIN" }) {
+                if (isIdentifier(function)) {
+                    return function;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void expectIdentifier(String identifier) {
+        if (!skipIdentifier(identifier)) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    private void expectPosition(int end) {
+        if (position != end) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    private void expectSymbol(String symbol) {
+        if (!skipSymbol(symbol)) {
+            throw UNSUPPORTED;
+        }
+    }
+
+    /**
+     * Returns the index of the clause identifier, from the given position and outside of
+     * parenthesis, or -1 if it's not found.
+     */
+    private int indexOfClause(int start, String identifier) {
+
+        boolean twoWords = identifier.equals("GROUP") || identifier.equals("ORDER");
+
+        for (int index = start, depth = 0; kinds[index] != END; index++) {
+            if (isSymbol(index, "(")) {
+                depth++;
+            }
+            else if (isSymbol(index, ")")) {
+                depth--;
+            }
+            else if ((depth == 0) && isIdentifier(index, identifier) && !isSymbol(index - 1, ".")) {
+                if (twoWords && !isIdentifier(index + 1, "BY")) {
+                    throw UNSUPPORTED;
+                }
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Determines whether the parenthesis at the current position starts a scalar expression,
+     * like <code>(e.salary + 100) &gt; 1000</code>, and not a conditional expression.
+     */
+    private boolean isArithmeticParenthesis() {
+
+        int index = position + 1;
+
+        for (int depth = 1; depth > 0; index++) {
+            if (kinds[index] == END) {
+                throw UNSUPPORTED;
+            }
+            if (isSymbol(index, "(")) {
+                depth++;
+            }
+            else if (isSymbol(index, ")")) {
+                depth--;
+            }
+        }
+
+        if (kinds[index] == SYMBOL) {
+            return !isSymbol(index, "(") && !isSymbol(index, ")") && !isSymbol(index, ",");
+        }
+
+        return isIdentifier(index, "NOT")  || isIdentifier(index, "BETWEEN") ||
+               isIdentifier(index, "LIKE") || isIdentifier(index, "IN")      ||
+               isIdentifier(index, "IS")   || isIdentifier(index, "MEMBER");
+    }
+
+    private boolean isIdentifier(int index, String identifier) {
+        return (kinds[index] == IDENTIFIER) &&
+               (ends[index] - starts[index] == identifier.length()) &&
+               jpqlQuery.regionMatches(true, starts[index], identifier, 0, identifier.length());
+    }
+
+    private boolean isIdentifier(String identifier) {
+        return isIdentifier(position, identifier);
+    }
+
+    /**
+     * Determines whether the selected path or identification variable is a relationship, in
+     * which case <code>null</code> is returned for a <code>null</code> primary key.
+     */
+    private boolean isOneToOneSelected(Term term) {
+        if (term.path == null) {
+            return !term.variable.range;
+        }
+        return !term.lastMapping().isDirectToFieldMapping();
+    }
+
+    private boolean isSymbol(int index, String symbol) {
+        return (index >= 0) &&
+               (kinds[index] == SYMBOL) &&
+               (ends[index] - starts[index] == symbol.length()) &&
+               jpqlQuery.startsWith(symbol, starts[index]);
+    }
+
+    private boolean isSymbol(String symbol) {
+        return isSymbol(position, symbol);
+    }
+
+    private Expression materialize(Term term) {
+
+        if (term.expression == null) {
+            if (term.text != null) {
+                throw UNSUPPORTED;
+            }
+            if (term.path != null) {
+                term.expression = buildPath(term, false, false, term.path.length);
+            }
+            else {
+                term.expression = term.variable.expression;
+            }
+        }
+
+        return term.expression;
+    }
+
+    private Expression parameter(Term term, Class<?> type) {
+
+        // Named and positional input parameters cannot be mixed, which is reported by the parsed tree
+        if (!parameters.isEmpty() && (parameters.get(0).text.charAt(0) != term.text.charAt(0))) {
+            throw UNSUPPORTED;
+        }
+
+        term.expression = base().getParameter(term.text.substring(1), type);
+        parameters.add(term);
+        return term.expression;
+    }
+
+    /**
+     * Parses the operand of an arithmetic expression or of a function.
+     */
+    private Expression parseArithmeticOperand(Term term) {
+        if (term.text != null) {
+            throw UNSUPPORTED;
+        }
+        return materialize(term);
+    }
+
+    private Expression parseConditionalExpression() {
+
+        Expression expression = parseConditionalTerm();
+
+        while (skipIdentifier("OR")) {
+            Expression rightExpression = parseConditionalTerm();
+            expression = expression.or(rightExpression);
+        }
+
+        return expression;
+    }
+
+    private Expression parseConditionalFactor() {
+
+        if (skipIdentifier("NOT")) {
+            return parseConditionalPrimary().not();
+        }
+
+        return parseConditionalPrimary();
+    }
+
+    private Expression parseConditionalPrimary() {
+
+        if (isSymbol("(") && !isArithmeticParenthesis()) {
+            position++;
+            Expression expression = parseConditionalExpression();
+            expectSymbol(")");
+            return expression;
+        }
+
+        return parseSimpleConditionalExpression();
+    }
+
+    private Expression parseConditionalTerm() {
+
+        Expression expression = parseConditionalFactor();
+
+        while (skipIdentifier("AND")) {
+            Expression rightExpression = parseConditionalFactor();
+            expression = expression.and(rightExpression);
+        }
+
+        return expression;
+    }
+
+    private void parseFrom() {
+
+        ExpressionBuilder builder = parseRangeVariable();
+
+        // JOIN expressions
+        while (true) {
+            boolean left = false;
+
+            if (skipIdentifier("LEFT")) {
+                left = true;
+                skipIdentifier("OUTER");
+            }
+            else {
+                skipIdentifier("INNER");
+            }
+
+            if (!skipIdentifier("JOIN")) {
+                if (left) {
+                    throw UNSUPPORTED;
+                }
+                break;
+            }
+
+            Join join = new Join();
+            join.left = left;
+            join.fetch = skipIdentifier("FETCH");
+            join.path = parseSelectPath();
+
+            if (join.path.path == null) {
+                throw UNSUPPORTED;
+            }
+
+            boolean as = skipIdentifier("AS");
+
+            if (as || isVariableDeclaration()) {
+                ClassDescriptor descriptor = join.path.lastMapping().getReferenceDescriptor();
+
+                if (descriptor == null) {
+                    throw UNSUPPORTED;
+                }
+
+                join.variable = declareVariable(descriptor, false);
+            }
+            else if (!join.fetch) {
+                throw UNSUPPORTED;
+            }
+
+            joins.add(join);
+        }
+
+        range.expression = builder;
+    }
+
+    private boolean isVariableDeclaration() {
+        return (kinds[position] == IDENTIFIER) && !RESERVED_IDENTIFIERS.contains(upperCase(position));
+    }
+
+    /**
+     * Parses the abstract schema name and its identification variable, the range variable
+     * declaration, and creates the base expression.
+     */
+    private ExpressionBuilder parseRangeVariable() {
+
+        if ((kinds[position] != IDENTIFIER) || isSymbol(position + 1, ".")) {
+            throw UNSUPPORTED;
+        }
+
+        String entityName = jpqlQuery.substring(starts[position], ends[position]);
+        ClassDescriptor descriptor = session.getDescriptorForAlias(entityName);
+
+        if (descriptor == null) {
+            throw UNSUPPORTED;
+        }
+
+        position++;
+        skipIdentifier("AS");
+
+        if (!isVariableDeclaration()) {
+            throw UNSUPPORTED;
+        }
+
+        range = declareVariable(descriptor, true);
+        return new ExpressionBuilder(descriptor.getJavaClass());
+    }
+
+    private void parseRangeVariableDeclaration(ModifyAllQuery query) {
+
+        query.setSession(session);
+        query.setShouldDeferExecutionInUOW(false);
+
+        ExpressionBuilder builder = parseRangeVariable();
+        range.expression = builder;
+        query.setExpressionBuilder(builder);
+
+        if (query.getReferenceClass() == null) {
+            query.setReferenceClass(builder.getQueryClass());
+        }
+    }
+
+    /**
+     * Parses a scalar expression, an arithmetic expression or a primary of a simple conditional
+     * expression. Path expressions and input parameters are not created, the caller creates them.
+     */
+    private Term parseScalarExpression() {
+
+        Term term = parseArithmeticTerm();
+
+        // Additions and subtractions are not grouped from the left to the right by the parsed tree
+        if (isSymbol("+") || isSymbol("-")) {
+            boolean addition = isSymbol("+");
+            position++;
+            Expression leftExpression = parseArithmeticOperand(term);
+            Expression rightExpression = parseArithmeticOperand(parseArithmeticTerm());
+
+            if (addition) {
+                term = new Term(ExpressionMath.add(leftExpression, rightExpression), null);
+            }
+            else {
+                term = new Term(ExpressionMath.subtract(leftExpression, rightExpression), null);
+            }
+
+            if (isSymbol("+") || isSymbol("-")) {
+                throw UNSUPPORTED;
+            }
+        }
+
+        return term;
+    }
+
+    private Term parseArithmeticTerm() {
+
+        Term term = parseArithmeticFactor();
+
+        while (isSymbol("*") || isSymbol("/")) {
+            boolean multiplication = isSymbol("*");
+            position++;
+            Expression leftExpression = parseArithmeticOperand(term);
+            Expression rightExpression = parseArithmeticOperand(parseArithmeticFactor());
+
+            if (multiplication) {
+                term = new Term(ExpressionMath.multiply(leftExpression, rightExpression), null);
+            }
+            else {
+                term = new Term(ExpressionMath.divide(leftExpression, rightExpression), null);
+            }
+        }
+
+        return term;
+    }
+
+    private Term parseArithmeticFactor() {
+
+        int start = starts[position];
+        int end = ends[position];
+
+        switch (kinds[position]) {
+
+            case STRING: {
+                position++;
+                String value = jpqlQuery.substring(start + 1, end - 1).replace("''", "'");
+                return new Term(new ConstantExpression(value, base()), String.class);
+            }
+
+            case INTEGER: {
+                position++;
+                long value = Long.parseLong(jpqlQuery.substring(start, end));
+
+                if (value <= Integer.MAX_VALUE) {
+                    return new Term(new ConstantExpression(Integer.valueOf((int) value), base()), Integer.class);
+                }
+
+                return new Term(new ConstantExpression(Long.valueOf(value), base()), Long.class);
+            }
+
+            case DECIMAL: {
+                position++;
+                Double value = Double.valueOf(jpqlQuery.substring(start, end));
+                return new Term(new ConstantExpression(value, base()), Double.class);
+            }
+
+            case PARAMETER: {
+                position++;
+                Term term = new Term(null, null);
+                term.text = jpqlQuery.substring(start, end);
+                return term;
+            }
+
+            case IDENTIFIER: {
+
+                if (isSymbol(position + 1, "(")) {
+                    return parseFunction();
+                }
+
+                if (!isSymbol(position + 1, ".")) {
+                    if (isIdentifier("TRUE") || isIdentifier("FALSE")) {
+                        Boolean value = Boolean.valueOf(isIdentifier("TRUE"));
+                        position++;
+                        return new Term(new ConstantExpression(value, base()), Boolean.class);
+                    }
+
+                    if (isIdentifier("NULL")) {
+                        position++;
+                        return new Term(new ConstantExpression(null, base()), Object.class);
+                    }
+                }
+
+                return parseSelectPath();
+            }
+
+            default: {
+                if (skipSymbol("(")) {
+                    Term term = parseScalarExpression();
+                    Expression expression = parseArithmeticOperand(term);
+                    expectSymbol(")");
+                    return new Term(expression, null);
+                }
+
+                throw UNSUPPORTED;
+            }
+        }
+    }
+
+    private Term parseFunction() {
+
+        String function = aggregateFunction();
+
+        // Aggregate function
+        if (function != null) {
+            position += 2;
+            boolean distinct = skipIdentifier("DISTINCT");
+            Term term = parseSelectPath();
+            expectSymbol(")");
+
+            if ((term.path == null) && !function.equals("COUNT")) {
+                throw UNSUPPORTED;
+            }
+
+            Class<?> type = function.equals("COUNT") ? Long.class : function.equals("AVG") ? Double.class : null;
+            return new Term(aggregate(function, distinct, materialize(term)), type);
+        }
+
+        // SIZE of a collection-valued path expression
+        if (isIdentifier("SIZE")) {
+            position += 2;
+            Term term = parseSelectPath();
+            expectSymbol(")");
+
+            if ((term.path == null) || (term.path.length != 1)) {
+                throw UNSUPPORTED;
+            }
+
+            return new Term(term.variable.expression.size(term.path[0]), Integer.class);
+        }
+
+        String name = upperCase(position);
+
+        if (!name.equals("UPPER") && !name.equals("LOWER") && !name.equals("LENGTH")) {
+            throw UNSUPPORTED;
+        }
+
+        position += 2;
+        Expression expression = parseArithmeticOperand(parseScalarExpression());
+        expectSymbol(")");
+
+        switch (name) {
+            case "UPPER": return new Term(expression.toUpperCase(), String.class);
+            case "LOWER": return new Term(expression.toLowerCase(), String.class);
+            default:      return new Term(expression.length(), Integer.class);
+        }
+    }
+
+    /**
+     * Parses an identification variable or a path expression starting with one, and resolves its
+     * mappings. The expression is not created.
+     */
+    private Term parseSelectPath() {
+
+        Variable variable = variable(position);
+
+        if (variable == null) {
+            throw UNSUPPORTED;
+        }
+
+        Term term = new Term(null, null);
+        term.reference = jpqlQuery.substring(starts[position], ends[position]);
+        term.variable = variable;
+        position++;
+
+        List<String> paths = null;
+
+        while (isSymbol(".")) {
+
+            // The path must be written without whitespace
+            if ((starts[position] != ends[position - 1]) ||
+                (kinds[position + 1] != IDENTIFIER) ||
+                (starts[position + 1] != ends[position])) {
+
+                throw UNSUPPORTED;
+            }
+
+            if (paths == null) {
+                paths = new ArrayList<>();
+            }
+
+            paths.add(jpqlQuery.substring(starts[position + 1], ends[position + 1]));
+            position += 2;
+        }
+
+        if (paths != null) {
+            term.path = paths.toArray(new String[paths.size()]);
+            term.mappings = new DatabaseMapping[term.path.length];
+
+            ClassDescriptor descriptor = variable.descriptor;
+
+            for (int index = 0; index < term.path.length; index++) {
+
+                // Query keys are left to the parsed tree
+                DatabaseMapping mapping = descriptor.getObjectBuilder().getMappingForAttributeName(term.path[index]);
+
+                if (mapping == null) {
+                    throw UNSUPPORTED;
+                }
+
+                term.mappings[index] = mapping;
+
+                if (index + 1 < term.path.length) {
+                    descriptor = mapping.getReferenceDescriptor();
+
+                    if (descriptor == null) {
+                        throw UNSUPPORTED;
+                    }
+                }
+            }
+        }
+
+        return term;
+    }
+
+    private Expression parseSimpleConditionalExpression() {
+
+        Term left = parseScalarExpression();
+
+        // IS [NOT] NULL, IS [NOT] EMPTY
+        if (skipIdentifier("IS")) {
+            boolean not = skipIdentifier("NOT");
+
+            if (skipIdentifier("NULL")) {
+                Expression expression = (left.text != null) ? parameter(left, Object.class) : materialize(left);
+                return not ? expression.notNull() : expression.isNull();
+            }
+
+            expectIdentifier("EMPTY");
+
+            if (left.path == null || left.expression != null) {
+                throw UNSUPPORTED;
+            }
+
+            int lastIndex = left.path.length - 1;
+            Expression expression = buildPath(left, false, false, lastIndex);
+            String name = left.path[lastIndex];
+            return not ? expression.notEmpty(name) : expression.isEmpty(name);
+        }
+
+        boolean not = skipIdentifier("NOT");
+
+        // [NOT] BETWEEN
+        if (skipIdentifier("BETWEEN")) {
+            Expression expression = (left.text != null) ? null : materialize(left);
+            Term lowerBound = parseScalarExpression();
+            Expression lowerBoundExpression = (lowerBound.text != null) ? null : materialize(lowerBound);
+            expectIdentifier("AND");
+            Term upperBound = parseScalarExpression();
+            Expression upperBoundExpression = (upperBound.text != null) ? null : materialize(upperBound);
+
+            // The type of an input parameter is the type of the other bound,
+            // or of the expression if the other bound is also an input parameter
+            if (expression == null) {
+                expression = parameter(left, typeOf(lowerBound));
+            }
+            if (lowerBoundExpression == null) {
+                lowerBoundExpression = parameter(lowerBound, (upperBound.text != null) ? typeOf(left) : typeOf(upperBound));
+            }
+            if (upperBoundExpression == null) {
+                upperBoundExpression = parameter(upperBound, (lowerBound.text != null) ? typeOf(left) : typeOf(lowerBound));
+            }
+
+            if (not) {
+                return expression.notBetween(lowerBoundExpression, upperBoundExpression);
+            }
+            return expression.between(lowerBoundExpression, upperBoundExpression);
+        }
+
+        // [NOT] LIKE
+        if (skipIdentifier("LIKE")) {
+            Expression expression = (left.text != null) ? parameter(left, String.class) : materialize(left);
+            Term patternValue = parseScalarExpression();
+            Expression patternExpression = (patternValue.text != null) ? parameter(patternValue, String.class) : materialize(patternValue);
+
+            if (skipIdentifier("ESCAPE")) {
+                Term escapeCharacter = parseScalarExpression();
+                Expression escapeExpression = (escapeCharacter.text != null) ? parameter(escapeCharacter, Character.class) : materialize(escapeCharacter);
+                expression = expression.like(patternExpression, escapeExpression);
+            }
+            else {
+                expression = expression.like(patternExpression);
+            }
+
+            return not ? expression.not() : expression;
+        }
+
+        // [NOT] IN
+        if (skipIdentifier("IN")) {
+            Expression expression = (left.text != null) ? parameter(left, Object.class) : materialize(left);
+
+            // Collection-valued input parameter
+            if (kinds[position] == PARAMETER) {
+                Term parameter = parseArithmeticFactor();
+                Expression parameterExpression = parameter(parameter, Collection.class);
+                return not ? expression.notIn(parameterExpression) : expression.in(parameterExpression);
+            }
+
+            expectSymbol("(");
+            Collection<Expression> items = new ArrayList<>();
+
+            do {
+                Term item = parseScalarExpression();
+
+                // An identification variable would be an entity type literal
+                if ((item.variable != null) && (item.path == null)) {
+                    throw UNSUPPORTED;
+                }
+
+                items.add((item.text != null) ? parameter(item, typeOf(left)) : materialize(item));
+            }
+            while (skipSymbol(","));
+
+            expectSymbol(")");
+            return not ? expression.notIn(items) : expression.in(items);
+        }
+
+        if (not) {
+            throw UNSUPPORTED;
+        }
+
+        // Comparison
+        if (kinds[position] != SYMBOL) {
+            throw UNSUPPORTED;
+        }
+
+        String comparison = jpqlQuery.substring(starts[position], ends[position]);
+
+        switch (comparison) {
+            case "=": case "<>": case "!=": case "<": case "<=": case ">": case ">=":
+                break;
+            default:
+                throw UNSUPPORTED;
+        }
+
+        position++;
+        Expression leftExpression = (left.text != null) ? null : materializeComparisonOperand(left);
+        Term right = parseScalarExpression();
+        Expression rightExpression;
+
+        if (leftExpression == null) {
+            leftExpression = parameter(left, typeOf(right));
+        }
+
+        if (right.text != null) {
+            rightExpression = parameter(right, typeOf(left));
+        }
+        else {
+            rightExpression = materializeComparisonOperand(right);
+        }
+
+        switch (comparison) {
+            case "=":  return leftExpression.equal(rightExpression);
+            case "<":  return leftExpression.lessThan(rightExpression);
+            case "<=": return leftExpression.lessThanEqual(rightExpression);
+            case ">":  return leftExpression.greaterThan(rightExpression);
+            case ">=": return leftExpression.greaterThanEqual(rightExpression);
+            default:   return leftExpression.notEqual(rightExpression);
+        }
+    }
+
+    /**
+     * An identification variable compared to another expression could also be an entity type
+     * literal, which is left to the parsed tree.
+     */
+    private Expression materializeComparisonOperand(Term term) {
+        if ((term.variable != null) && (term.path == null) &&
+            (session.getDescriptorForAlias(term.reference) != null)) {
+
+            throw UNSUPPORTED;
+        }
+        return materialize(term);
+    }
+
+    private Variable declareVariable(ClassDescriptor descriptor, boolean range) {
+
+        Variable variable = new Variable();
+        variable.name = jpqlQuery.substring(starts[position], ends[position]);
+        variable.descriptor = descriptor;
+        variable.range = range;
+
+        if (variables.put(upperCase(position), variable) != null) {
+            throw UNSUPPORTED;
+        }
+
+        position++;
+        return variable;
+    }
+
+    private void prepare(DatabaseQuery query) {
+        query.setJPQLString(jpqlQuery);
+        ((JPQLCallQueryMechanism) query.getQueryMechanism()).getJPQLCall().setIsParsed(true);
+    }
+
+    private boolean skipIdentifier(String identifier) {
+        if (isIdentifier(identifier)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean skipSymbol(String symbol) {
+        if (isSymbol(symbol)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Splits the JPQL query into tokens.
+     */
+    private void tokenize() {
+
+        int length = jpqlQuery.length();
+        int capacity = 16;
+        kinds  = new int[capacity];
+        starts = new int[capacity];
+        ends   = new int[capacity];
+        int count = 0;
+
+        for (int index = 0; ; ) {
+
+            while ((index < length) && Character.isWhitespace(jpqlQuery.charAt(index))) {
+                index++;
+            }
+
+            if (count == capacity) {
+                capacity <<= 1;
+                kinds  = Arrays.copyOf(kinds,  capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends   = Arrays.copyOf(ends,   capacity);
+            }
+
+            starts[count] = index;
+
+            if (index == length) {
+                kinds[count] = END;
+                ends[count] = index;
+                count++;
+                break;
+            }
+
+            char character = jpqlQuery.charAt(index);
+            int kind;
+
+            // Identifier
+            if (Character.isJavaIdentifierStart(character)) {
+                kind = IDENTIFIER;
+                index = skipIdentifierPart(index + 1);
+            }
+            // Input parameter
+            else if ((character == ':') || (character == '?')) {
+                kind = PARAMETER;
+                int start = index + 1;
+                index = (character == ':') ? skipIdentifierPart(start) : skipDigits(start);
+
+                if ((index == start) || ((character == ':') && !Character.isJavaIdentifierStart(jpqlQuery.charAt(start)))) {
+                    throw UNSUPPORTED;
+                }
+            }
+            // String literal
+            else if (character == '\'') {
+                kind = STRING;
+                index++;
+
+                while (true) {
+                    if (index == length) {
+                        throw UNSUPPORTED;
+                    }
+                    if (jpqlQuery.charAt(index++) == '\'') {
+                        if ((index < length) && (jpqlQuery.charAt(index) == '\'')) {
+                            index++;
+                        }
+                        else {
+                            break;
+                        }
+                    }
+                }
+            }
+            // Numeric literal, only integers and decimals without exponent or suffix
+            else if ((character >= '0') && (character <= '9')) {
+                kind = INTEGER;
+                index = skipDigits(index);
+
+                if ((index + 1 < length) && (jpqlQuery.charAt(index) == '.') &&
+                    (jpqlQuery.charAt(index + 1) >= '0') && (jpqlQuery.charAt(index + 1) <= '9')) {
+
+                    kind = DECIMAL;
+                    index = skipDigits(index + 1);
+                }
+
+                if ((index < length) &&
+                    (Character.isJavaIdentifierPart(jpqlQuery.charAt(index)) || (jpqlQuery.charAt(index) == '.'))) {
+
+                    throw UNSUPPORTED;
+                }
+            }
+            // Symbols
+            else {
+                kind = SYMBOL;
+                char next = (index + 1 < length) ? jpqlQuery.charAt(index + 1) : 0;
+
+                switch (character) {
+                    case '(': case ')': case ',': case '.': case '=': case '+': case '-': case '*': case '/':
+                        index++;
+                        break;
+                    case '<':
+                        index += ((next == '=') || (next == '>')) ? 2 : 1;
+                        break;
+                    case '>':
+                        index += (next == '=') ? 2 : 1;
+                        break;
+                    case '!':
+                        if (next != '=') {
+                            throw UNSUPPORTED;
+                        }
+                        index += 2;
+                        break;
+                    default:
+                        throw UNSUPPORTED;
+                }
+
+                // Signed numbers are left to the parsed tree
+                if (((character == '+') || (character == '-')) && isUnarySign(count)) {
+                    throw UNSUPPORTED;
+                }
+            }
+
+            kinds[count] = kind;
+            ends[count] = index;
+            count++;
+        }
+
+        kinds  = Arrays.copyOf(kinds,  count);
+        starts = Arrays.copyOf(starts, count);
+        ends   = Arrays.copyOf(ends,   count);
+    }
+
+    /**
+     * Determines whether a sign is unary, which is when it does not follow an operand.
+     */
+    private boolean isUnarySign(int count) {
+        if (count == 0) {
+            return true;
+        }
+        int previous = kinds[count - 1];
+        if (previous == SYMBOL) {
+            return !isSymbol(count - 1, ")");
+        }
+        return (previous == IDENTIFIER) && RESERVED_IDENTIFIERS.contains(upperCase(count - 1));
+    }
+
+    private int skipDigits(int index) {
+        while ((index < jpqlQuery.length()) && (jpqlQuery.charAt(index) >= '0') && (jpqlQuery.charAt(index) <= '9')) {
+            index++;
+        }
+        return index;
+    }
+
+    private int skipIdentifierPart(int index) {
+        while ((index < jpqlQuery.length()) && Character.isJavaIdentifierPart(jpqlQuery.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the type of the expression as the type resolver calculates it, used as the type of
+     * the input parameter it's compared to.
+     */
+    private Class<?> typeOf(Term term) {
+
+        // Input parameters compared to each other
+        if (term.text != null) {
+            return Object.class;
+        }
+
+        if (term.path != null) {
+            return TypeResolver.calculateMappingType(term.lastMapping());
+        }
+
+        if (term.variable != null) {
+            return term.variable.descriptor.getJavaClass();
+        }
+
+        if (term.type == null) {
+            throw UNSUPPORTED;
+        }
+
+        return term.type;
+    }
+
+    private String upperCase(int index) {
+        return jpqlQuery.substring(starts[index], ends[index]).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the identification variable at the given position, if the token is one.
+     */
+    private Variable variable(int index) {
+        if (kinds[index] != IDENTIFIER) {
+            return null;
+        }
+        return variables.get(upperCase(index));
+    }
+
+    /**
+     * A <code><b>JOIN</b></code> expression of the range variable declaration.
+     */
+    private static final class Join {
+        boolean fetch;
+        boolean left;
+        Term path;
+        Variable variable;
+    }
+
+    /**
+     * An operand of an expression: a value whose expression is created, a path expression or
+     * an identification variable whose expression is created by the context, or an input
+     * parameter whose expression is created once its type is known.
+     */
+    private static final class Term {
+        Expression expression;
+        DatabaseMapping[] mappings;
+        String[] path;
+        String reference;
+        String text;
+        Class<?> type;
+        Variable variable;
+
+        Term(Expression expression, Class<?> type) {
+            super();
+            this.expression = expression;
+            this.type = type;
+        }
+
+        DatabaseMapping lastMapping() {
+            return mappings[mappings.length - 1];
+        }
+
+        String lastPath() {
+            return path[path.length - 1];
+        }
+    }
+
+    private static final class UnsupportedQueryException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedQueryException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * An identification variable and the expression it was resolved to.
+     */
+    private static final class Variable {
+        ClassDescriptor descriptor;
+        Expression expression;
+        String name;
+        boolean range;
+    }
+}
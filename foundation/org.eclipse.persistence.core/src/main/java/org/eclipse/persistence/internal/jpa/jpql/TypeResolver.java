@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -100,7 +100,7 @@ final class TypeResolver implements EclipseLinkExpressionVisitor {
      * @return The persistent field type
      */
     @SuppressWarnings("null")
-    Class<?> calculateMappingType(DatabaseMapping mapping) {
+    static Class<?> calculateMappingType(DatabaseMapping mapping) {
 
         // For aggregate mappings (@Embedded and @EmbeddedId), we need to use the descriptor
         // because its mappings have to be retrieve from this one and not from the descriptor
@@ -219,7 +219,7 @@ else if (localType != anotherType) {
         return localType;
     }
 
-    Class<?> convertSumFunctionType(Class<?> type) {
+    static Class<?> convertSumFunctionType(Class<?> type) {
 
         // Integral types
         if ((type == Integer.TYPE)   ||
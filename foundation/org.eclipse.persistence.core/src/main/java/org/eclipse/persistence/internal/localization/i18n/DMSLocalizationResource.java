@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -46,6 +46,18 @@ public class DMSLocalizationResource extends ListResourceBundle {
                                         { "disconnect_call", "Total number of disconnect calls made" },
                                         { "cache_hits", "The number of times that the object was found in the cache"},
                                         { "cache_misses", "The number of times that the object was not found in the cache" },
+                                        { "query_results_cache_hits", "The number of times that the query results were found in the query results cache" },
+                                        { "query_results_cache_misses", "The number of times that the query results were not found in the query results cache" },
+                                        { "query_results_cache_evictions", "The number of query results evicted to keep the query results cache within its maximum size" },
+                                        { "off_heap_cache_hits", "The number of times that the object was rebuilt from the off-heap cache" },
+                                        { "off_heap_cache_misses", "The number of times that the object was not found in the off-heap cache" },
+                                        { "off_heap_cache_stores", "The number of objects evicted from the cache stored in the off-heap cache" },
+                                        { "off_heap_cache_evictions", "The number of objects evicted from the off-heap cache to make room for newer objects" },
+                                        { "adaptive_batch_fetch_enabled", "The number of times that a relationship was found used after most reads and switched to batch fetching" },
+                                        { "adaptive_batch_fetch_disabled", "The number of times that a relationship was found rarely used after reads and switched back to lazy fetching" },
+                                        { "adaptive_batch_fetches", "The number of read queries that batch fetched relationships selected from their usage" },
+                                        { "jpql_parse_cache_hits", "The number of times that a JPQL query was found already parsed in the JPQL parse cache" },
+                                        { "jpql_parse_cache_misses", "The number of times that a JPQL query was not found in the JPQL parse cache and was parsed" },
                                         { "sql_prepare", "Time spent in JDBC preparing the Statement." + "Also includes the time spent in EIS creating an Interaction associated with a connection, and creating input and output Record objects" },
                                          { "query_prepareation", "Time to prepare the query" },
                                          { "sql_generation", "Time spent generating SQL. In the case of TopLink expressions, time spent converting Expression to SQL" },
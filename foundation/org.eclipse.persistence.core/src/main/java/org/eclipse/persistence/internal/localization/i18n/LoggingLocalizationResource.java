@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2014, 2020 IBM Corporation and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -185,6 +185,7 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "no_jar_entry_migratable_in_ear", "None of the jar entry in the input EAR file ({0}) is migratable." },
         { "invalid_command_line_argument", "The command line argument ({0}) is invalid" },
         { "persistence_unit_ignores_statments_cache_setting", "The statement cache cannot be enabled because no connection pool is configured." },
+        { "class_index_stale", "The class index of [{0}] does not match the classes of the archive and is ignored, all the classes of the archive are read. Generate the class index again when the classes of the archive change." },
         { "column_size_not_migrated", "DB column size ({0}) is not migrated. See migration doc for details." },
         { "associate_using_third_table_not_migrated", "Oc4j native CMP feature -DassociateUsingThirdTable=true to map 1:m using a relation table is not migrated. You must re-map cmr field ({1}) of the entity ({0}) as one-to-many mapping through Mapping Workbench after the migration process." },
         { "delay_updates_until_commit_not_supported", "Oc4j native CMP feature \"delay-updates-until-commit\" on entity({0}) is not directly supported in EclipseLink CMP. See migration doc for details." },
@@ -387,6 +388,7 @@ public class LoggingLocalizationResource extends ListResourceBundle {
         { "dbPlatformHelper_noMappingFound", "Can not load resource [{0}] that loads mapping from vendor name to database platform. Autodetection of database platform will not work."},
 
         { "sessions_xml_path_where_session_load_from", "The session info is loaded from [{0}]."},
+        { "project_class_generated", "The source of the project class {0} was generated to [{1}]."},
         { "resource_local_persistence_init_info_ignores_jta_data_source", "PersistenceUnitInfo {0} has transactionType RESOURCE_LOCAL and therefore jtaDataSource will be ignored"},
         { "deprecated_property", "property {1} is deprecated, property {0} should be used instead."},
         { "persistence_unit_processor_error_loading_class", "{0}: {1} was thrown on attempt of PersistenceLoadProcessor to load class {2}. The class is ignored."},
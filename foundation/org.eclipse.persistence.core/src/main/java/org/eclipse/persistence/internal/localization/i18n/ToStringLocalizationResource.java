@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -78,6 +78,8 @@ public class ToStringLocalizationResource extends ListResourceBundle {
                                            { "staticweave_processor_unknown_outcome", "Weaving classes stored in a directory and outputting to a JAR often leads to unexpected results." },
                                            { "staticweave_processor_dir_not_created", "The {0} directory cannot be created."},
                                            { "staticweave_processor_file_not_created", "The {0} file cannot be created." },
+                                           { "staticweave_processor_state_ignored", "A class woven by the weaving stored in the {0} incremental state changed, all the classes are woven again." },
+                                           { "staticweave_processor_classes_unchanged", "{0} classes unchanged since the last weaving were not woven again." },
 
                                            { "staticweave_commandline_help_message_1of19", "  Usage: StaticWeave [options] source target" },
                                            { "staticweave_commandline_help_message_2of19", "  Options:" },
@@ -92,12 +94,23 @@ public class ToStringLocalizationResource extends ListResourceBundle {
                                            { "staticweave_commandline_help_message_11of19", "           Specify logging file." },
                                            { "staticweave_commandline_help_message_12of19", "    -loglevel" },
                                            { "staticweave_commandline_help_message_13of19", "           Specify the integer value of the logging level (8=OFF,7=SEVERE,6=WARNING,5=INFO,4=CONFIG,3=FINE,2=FINER(default),1=FINEST,0=ALL)." },
+                                           { "staticweave_commandline_help_message_classindex", "    -classindex" },
+                                           { "staticweave_commandline_help_message_classindex_description", "           Add a class index of the managed classes to the target, read by deployment instead of all the classes when eclipselink.metadata.class-index is true." },
+                                           { "staticweave_commandline_help_message_parallelism", "    -parallelism threads" },
+                                           { "staticweave_commandline_help_message_parallelism_description", "           Specify the number of threads weaving the classes (1=default). The target is the same whatever the number of threads." },
+                                           { "staticweave_commandline_help_message_incremental", "    -incremental statefile" },
+                                           { "staticweave_commandline_help_message_incremental_description", "           Only weave the classes changed since the last weaving, whose state is stored in the given file." },
                                            { "staticweave_commandline_help_message_14of19", "    The classpath must contain all the classes necessary to load the classes in the source." },
                                            { "staticweave_commandline_help_message_15of19", "    The weaving will be performed in place if source and target point to the same location.  Weaving in place is ONLY applicable for directory-based sources." },
                                            { "staticweave_commandline_help_message_16of19", "  Example:" },
                                            { "staticweave_commandline_help_message_17of19", "    To weave all entites contained in C:\\\\foo-source.jar with its persistence.xml contained within the C:\\\\foo-containing-persistence-xml.jar," },
                                            { "staticweave_commandline_help_message_18of19", "    and output to C:\\\\foo-target.jar:" },
                                            { "staticweave_commandline_help_message_19of19", "    StaticWeave -persistenceinfo C:\\\\foo-containing-persistence-xml.jar -classpath C:\\\\classpath1;C:\\\\classpath2 C:\\\\foo-source.jar C:\\\\foo-target.jar"},
+                                           { "staticproject_commandline_help_message_usage", "  Usage: StaticProjectGenerator [options] persistenceUnitName projectClassName sourceDirectory" },
+                                           { "staticproject_commandline_help_message_options", "  Options:" },
+                                           { "staticproject_commandline_help_message_classpath", "    -classpath             The class path of the entity classes and of the persistence.xml." },
+                                           { "staticproject_commandline_help_message_persistencexml", "    -persistencexml        The resource name of the persistence.xml, META-INF/persistence.xml by default." },
+                                           { "staticproject_commandline_help_message_description", "    Processes the metadata of the persistence unit and generates the source of the project class in the source directory." },
 
                                            { "sdo_classgenerator_usage_help_1of8", "{0} Usage: org.eclipse.persistence.sdo.helper.{0} [-options]" },
                                            { "sdo_classgenerator_usage_help_2of8", "Options:" },
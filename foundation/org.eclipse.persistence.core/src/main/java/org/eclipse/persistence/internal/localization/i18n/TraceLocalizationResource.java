@@ -263,6 +263,8 @@ public class TraceLocalizationResource extends ListResourceBundle {
         { "assign_return_row", "Assign return row {0}" },
         { "compare_failed", "Compare failed: {0}:{1}:{2}" },
         { "added_unmapped_field_to_returning_policy", "Added unmapped field {0} to ReturningPolicy of {1}" },
+        { "adaptive_batch_fetch_enabled", "Batch fetching {0}, instantiated {1} times for {2} objects read" },
+        { "adaptive_batch_fetch_disabled", "No longer batch fetching {0}, instantiated {1} times for {2} objects read" },
         { "field_for_unsupported_mapping_returned", "Returned field {0} specified in ReturningPolicy of {1} mapped with unsupported mapping" },
         { "received_updates_from_remote_server", "Received updates from Remote Server" },
         { "received_remote_connection_from", "Received remote connection from {0}" },
@@ -429,6 +431,16 @@ public class TraceLocalizationResource extends ListResourceBundle {
         { "property_value_default", "property={0}; default value={1}"},
         { "handler_property_value_specified", "property={0}; value={1}; translated value={2}"},
         { "handler_property_value_default", "property={0}; default value={1}; translated value={2}"},
+        { "project_cache_stale", "The project cache file {0} was written by another version or for another definition of the persistence unit, the metadata is processed again"},
+        { "project_class_not_found", "The generated project class {0} was not found, the metadata is processed"},
+        { "initializing_descriptors_on_first_use", "Initializing {1} descriptors on first use of {0}, its inheritance hierarchy and the descriptors it references"},
+        { "named_query_compiled", "Compiled named query {0} in {1} ms: {2}"},
+        { "named_query_not_compiled", "Named query {0} could not be prepared and is prepared on execution: {1}"},
+        { "named_query_sql_changed", "The SQL of named query {0} changed since the previous deployment from {1} to {2}"},
+        { "named_queries_compiled", "Compiled {0} named queries in {1} ms on {2} threads"},
+        { "named_query_catalog_ignored", "The named query catalog {0} is of another version and is ignored"},
+        { "class_index_ignored", "The class index of {0} is of another version and is ignored, the classes of the archive are read"},
+        { "class_index_used", "The classes of {0} are read from its class index"},
         { "predeploy_begin", "Begin predeploying Persistence Unit {0}; session {1}; state {2}; factoryCount {3}"},
         { "predeploy_end", "End predeploying Persistence Unit {0}; session {1}; state {2}; factoryCount {3}"},
         { "session_name_change", "Session change name: Persistence Unit {0}; old session {1}; new session {2}"},
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2012, 2018 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -166,6 +166,11 @@ public boolean isApplicationXML() {
             return false;
         }
 
+        @Override
+        public boolean isApplicationCBOR() {
+            return false;
+        }
+
     };
 
     public static final MediaType APPLICATION_XML = new MediaType() {
@@ -180,6 +185,11 @@ public boolean isApplicationXML() {
             return true;
         }
 
+        @Override
+        public boolean isApplicationCBOR() {
+            return false;
+        }
+
     };
 
     /**
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -24,4 +24,11 @@ public interface MediaType {
 
     boolean isApplicationXML();
 
+    /**
+     * A CBOR document is read and written as JSON, the marshaller and unmarshaller
+     * isApplicationJSON() being true for it as well.
+     * @since 3.0.1
+     */
+    boolean isApplicationCBOR();
+
 }
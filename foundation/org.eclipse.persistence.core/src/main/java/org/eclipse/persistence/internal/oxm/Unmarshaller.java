@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -157,7 +157,8 @@ public UNMARSHALLER_LISTENER getUnmarshalListener() {
 
     /**
      * INTERNAL
-     * @return true if the media type is application/json, else false.
+     * @return true if the media type is application/json, or application/cbor which is read
+     * and written as JSON, else false.
      * @since EclipseLink 2.6.0
      */
     public abstract boolean isApplicationJSON();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -45,6 +45,7 @@
 import org.eclipse.persistence.internal.oxm.mappings.Field;
 import org.eclipse.persistence.internal.oxm.record.AbstractMarshalRecord;
 import org.eclipse.persistence.internal.oxm.record.ExtendedResult;
+import org.eclipse.persistence.internal.oxm.record.json.CborGenerator;
 import org.eclipse.persistence.internal.oxm.record.namespaces.PrefixMapperNamespaceResolver;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
 import org.eclipse.persistence.logging.AbstractSessionLog;
@@ -56,6 +57,7 @@
 import org.eclipse.persistence.oxm.record.FormattedWriterRecord;
 import org.eclipse.persistence.oxm.record.JSONFormattedWriterRecord;
 import org.eclipse.persistence.oxm.record.JSONWriterRecord;
+import org.eclipse.persistence.oxm.record.JsonGeneratorRecord;
 import org.eclipse.persistence.oxm.record.MarshalRecord;
 import org.eclipse.persistence.oxm.record.NodeRecord;
 import org.eclipse.persistence.oxm.record.OutputStreamRecord;
@@ -414,12 +416,22 @@ public String getSchemaLocation() {
 
     /**
      * INTERNAL
-     * @return true if the media type is application/json, else false.
+     * @return true if the media type is application/json, or application/cbor which is read
+     * and written as JSON, else false.
      * @since EclipseLink 2.6.0
      */
     @Override
     public boolean isApplicationJSON() {
-        return null != mediaType && mediaType.isApplicationJSON();
+        return null != mediaType && (mediaType.isApplicationJSON() || mediaType.isApplicationCBOR());
+    }
+
+    /**
+     * INTERNAL
+     * @return true if the media type is application/cbor, else false.
+     * @since 3.0.1
+     */
+    public boolean isApplicationCBOR() {
+        return null != mediaType && mediaType.isApplicationCBOR();
     }
 
     /**
@@ -920,7 +932,16 @@ private void marshal(Object object, OutputStream outputStream, ABSTRACT_SESSION
             encoding = xroot.getEncoding() != null ? xroot.getEncoding() : encoding;
         }
 
-        if(!encoding.equals(Constants.DEFAULT_XML_ENCODING)) {
+        if (isApplicationCBOR()) {
+            // the JSON generator record, writing CBOR rather than JSON text, there is no encoding nor formatting
+            CborGenerator generator = new CborGenerator(outputStream);
+            marshalStreamOrWriter(object, new JsonGeneratorRecord(generator, null), session, xmlDescriptor, isXMLRoot);
+            generator.flush();
+            return;
+        }
+
+        // JSON has no declaration to keep the encoding name of, so any spelling of UTF-8 is written as bytes
+        if(!encoding.equals(Constants.DEFAULT_XML_ENCODING) && !(isApplicationJSON() && encoding.equalsIgnoreCase(Constants.DEFAULT_XML_ENCODING))) {
             try {
                 OutputStreamWriter writer = new OutputStreamWriter(outputStream, encoding);
                 marshal(object, writer, session, xmlDescriptor);
@@ -1096,6 +1117,10 @@ private void marshal(Object object, Writer writer, ABSTRACT_SESSION session, DES
             encoding = xroot.getEncoding() != null ? xroot.getEncoding() : encoding;
         }
 
+        if (isApplicationCBOR()) {
+            throw XMLMarshalException.binaryMediaTypeRequiresStream(org.eclipse.persistence.oxm.MediaType.APPLICATION_CBOR.getMediaType());
+        }
+
         MarshalRecord marshalRecord;
         writer = wrapWriter(writer);
         if (isFormattedOutput()) {
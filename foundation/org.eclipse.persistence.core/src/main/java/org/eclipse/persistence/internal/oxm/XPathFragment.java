@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -15,8 +15,6 @@
 package org.eclipse.persistence.internal.oxm;
 
 import java.nio.charset.Charset;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.StringTokenizer;
 
 import javax.xml.namespace.QName;
@@ -57,6 +55,9 @@
     private byte[] prefixBytes;
     private String localName;
     private byte[] localNameBytes;
+    private byte[] startTagBytes;
+    private byte[] endTagBytes;
+    private byte[] attributeNameBytes;
     private String namespaceURI;
     protected boolean nameIsText = false;
     protected boolean isSelfFragment = false;
@@ -67,9 +68,6 @@
     private boolean namespaceAware;
     private char namespaceSeparator;
 
-    private Set<String> attributeCollisionSet;
-    private Set<String> nonAttributeCollisionSet;
-
     public XPathFragment() {
         setNamespaceAware(true);
         namespaceSeparator = Constants.COLON;
@@ -122,6 +120,7 @@ public void setXPath(String xpathString) {
 
         xpath = xpathString;
         shortName = xpathString;
+        resetNameBytes();
 
         // handle case:  company[name/text()="Oracle"]
         if(xpathString.length() > 0){
@@ -229,6 +228,64 @@ public byte[] getLocalNameBytes() {
         return localNameBytes;
     }
 
+    /**
+     * Return the UTF-8 bytes opening the start tag of this element, "&lt;prefix:localName",
+     * or null if the fragment has no local name.
+     */
+    public byte[] getStartTagBytes() {
+        if(null == startTagBytes && null != localName) {
+            startTagBytes = encodeQualifiedName("<", Constants.EMPTY_STRING);
+        }
+        return startTagBytes;
+    }
+
+    /**
+     * Return the UTF-8 bytes of the end tag of this element, "&lt;/prefix:localName&gt;",
+     * or null if the fragment has no local name.
+     */
+    public byte[] getEndTagBytes() {
+        if(null == endTagBytes && null != localName) {
+            endTagBytes = encodeQualifiedName("</", ">");
+        }
+        return endTagBytes;
+    }
+
+    /**
+     * Return the UTF-8 bytes preceding the value of this attribute, " prefix:localName=\"",
+     * or null if the fragment has no name.
+     */
+    public byte[] getAttributeNameBytes() {
+        if(null == attributeNameBytes) {
+            String name = getShortName();
+            if(null != name) {
+                attributeNameBytes = (' ' + name + "=\"").getBytes(CHARSET);
+            }
+        }
+        return attributeNameBytes;
+    }
+
+    /**
+     * INTERNAL:
+     * Encode the start tag, end tag and attribute name of this fragment up front,
+     * so marshalling to an OutputStream only copies bytes.
+     */
+    public void encodeNameBytes() {
+        if(isAttribute()) {
+            getAttributeNameBytes();
+        } else if(!nameIsText && !isSelfFragment) {
+            getStartTagBytes();
+            getEndTagBytes();
+        }
+    }
+
+    private byte[] encodeQualifiedName(String open, String close) {
+        StringBuilder name = new StringBuilder(open);
+        if(null != prefix) {
+            name.append(prefix).append(Constants.COLON);
+        }
+        return name.append(localName).append(close).toString().getBytes(CHARSET);
+    }
+
     public void setLocalName(String localName) {
         this.localName = localName;
         resetShortName();
@@ -423,32 +480,15 @@ public void setXMLField(XML_FIELD field) {
 
     private void resetShortName(){
         shortName = null;
-    prefixBytes = null;
-    localNameBytes = null;
-    }
-
-    /**
-     * INTERNAL:
-     * Gets auxiliary set for determining collisions during case insensitive unmarshalling.
-     *
-     * @param isAttribute Determine if retrieving an element or an attribute collision set.
-     * @return
-     *      Set containing localNames of attributes or elements of an XPathFragment.
-     */
-    public Set<String> getChildrenCollisionSet(boolean isAttribute) {
-        return isAttribute ? getAttributeCollisionSet() : getNonAttributeCollisionSet();
-    }
-
-    private Set<String> getAttributeCollisionSet() {
-        if (attributeCollisionSet == null)
-            attributeCollisionSet = new HashSet<>();
-        return attributeCollisionSet;
+        resetNameBytes();
     }
 
-    private Set<String> getNonAttributeCollisionSet() {
-        if (nonAttributeCollisionSet == null)
-            nonAttributeCollisionSet = new HashSet<>();
-        return nonAttributeCollisionSet;
+    private void resetNameBytes() {
+        prefixBytes = null;
+        localNameBytes = null;
+        startTagBytes = null;
+        endTagBytes = null;
+        attributeNameBytes = null;
     }
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -18,6 +18,7 @@
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.eclipse.persistence.core.queries.CoreAttributeGroup;
@@ -57,11 +58,11 @@ public class XPathNode {
     private List<XPathNode> nonAttributeChildren;
     private List<XPathNode> selfChildren;
     private Map<XPathFragment, XPathNode> attributeChildrenMap;
-    private Map<String, XPathNode> attributeChildrenLookupTable;
-    private boolean isAttributeChildrenLookupTableFilled = false;
     private Map<XPathFragment, XPathNode> nonAttributeChildrenMap;
-    private Map<String, XPathNode> nonAttributeChildrenLookupTable;
-    private boolean isNonAttributeChildrenLookupTableFilled = false;
+    private ChildrenTable attributeChildrenTable;
+    private ChildrenTable nonAttributeChildrenTable;
+    private CaseFoldedChildrenTable attributeChildrenCaseFoldedTable;
+    private CaseFoldedChildrenTable nonAttributeChildrenCaseFoldedTable;
     private MappingNodeValue anyAttributeNodeValue;
     private XPathNode anyAttributeNode;
     private XPathNode textNode;
@@ -152,31 +153,98 @@ public Map<XPathFragment, XPathNode> getAttributeChildrenMap() {
         return this.attributeChildrenMap;
     }
 
-    public boolean isChildrenLookupTableFilled(boolean isAttribute) {
-        return isAttribute ? isAttributeChildrenLookupTableFilled : isNonAttributeChildrenLookupTableFilled;
+    /**
+     * INTERNAL:
+     * Return the attribute child of the name and namespace of the fragment, or null if there is none.
+     * The fragment is a name, without predicate nor index.
+     */
+    public XPathNode getAttributeChild(XPathFragment xPathFragment) {
+        ChildrenTable table = attributeChildrenTable;
+        if (null != table && null != xPathFragment.getLocalName()) {
+            return table.get(xPathFragment);
+        }
+        return null == attributeChildrenMap ? null : attributeChildrenMap.get(xPathFragment);
     }
 
-    public void setChildrenLookupTableFilled(boolean isAttribute) {
-        if (isAttribute)
-            this.isAttributeChildrenLookupTableFilled = true;
-        else
-            this.isNonAttributeChildrenLookupTableFilled = true;
+    /**
+     * INTERNAL:
+     * Return the element child of the name and namespace of the fragment, or null if there is none.
+     * The fragment is a name, without predicate nor index.
+     */
+    public XPathNode getNonAttributeChild(XPathFragment xPathFragment) {
+        ChildrenTable table = nonAttributeChildrenTable;
+        if (null != table && null != xPathFragment.getLocalName()) {
+            return table.get(xPathFragment);
+        }
+        return null == nonAttributeChildrenMap ? null : nonAttributeChildrenMap.get(xPathFragment);
     }
 
-    public Map<String, XPathNode> getChildrenLookupTable(boolean isAttribute) {
-        return isAttribute ? getAttributeChildrenLookupTable() : getNonAttributeChildrenLookupTable();
+    /**
+     * INTERNAL:
+     * Compile the tables the children of this node and of its descendants are looked up in,
+     * once the tree is complete. The tables are not changed afterwards, and so are read by
+     * concurrent unmarshals without locking. Adding a child drops the tables of the node.
+     */
+    public void compileChildrenTables() {
+        if (null != attributeChildrenMap) {
+            attributeChildrenTable = new ChildrenTable(attributeChildrenMap);
+            attributeChildrenCaseFoldedTable = new CaseFoldedChildrenTable(attributeChildrenMap);
+        }
+        if (null != nonAttributeChildrenMap) {
+            nonAttributeChildrenTable = new ChildrenTable(nonAttributeChildrenMap);
+            nonAttributeChildrenCaseFoldedTable = new CaseFoldedChildrenTable(nonAttributeChildrenMap);
+        }
+        if (null != nonAttributeChildren) {
+            for (XPathNode child : nonAttributeChildren) {
+                child.compileChildrenTables();
+            }
+        }
     }
 
-    private Map<String, XPathNode> getAttributeChildrenLookupTable() {
-        if (attributeChildrenLookupTable == null)
-            attributeChildrenLookupTable = new HashMap<>();
-        return attributeChildrenLookupTable;
+    /**
+     * INTERNAL:
+     * Return the attribute or element child of the local name of the fragment ignoring its case,
+     * and its namespace, or null if there is none. Of children whose local names differ only
+     * in case, the last one of the children map is returned.
+     * @since 3.0.1
+     */
+    public XPathNode getChildIgnoreCase(XPathFragment xPathFragment, boolean isAttribute) {
+        CaseFoldedChildrenTable table = getCaseFoldedChildrenTable(isAttribute);
+        return null == table || null == xPathFragment.getLocalName() ? null : table.get(xPathFragment.getLocalName());
     }
 
-    private Map<String, XPathNode> getNonAttributeChildrenLookupTable() {
-        if (nonAttributeChildrenLookupTable == null)
-            nonAttributeChildrenLookupTable = new HashMap<>();
-        return nonAttributeChildrenLookupTable;
+    /**
+     * INTERNAL:
+     * Return the lower cased local names shared by several attribute or element children ignoring their case,
+     * the first time they are asked for only, else null.
+     * @since 3.0.1
+     */
+    public List<String> getCaseCollisionsToReport(boolean isAttribute) {
+        CaseFoldedChildrenTable table = getCaseFoldedChildrenTable(isAttribute);
+        if (null == table || null == table.collisions || table.collisionsReported) {
+            return null;
+        }
+        table.collisionsReported = true;
+        return table.collisions;
+    }
+
+    /*
+     * Return the table compiled with the tree, or one built now if a child was added since,
+     * a table being immutable once built, whichever thread builds it.
+     */
+    private CaseFoldedChildrenTable getCaseFoldedChildrenTable(boolean isAttribute) {
+        if (isAttribute) {
+            CaseFoldedChildrenTable table = attributeChildrenCaseFoldedTable;
+            if (null == table && null != attributeChildrenMap) {
+                attributeChildrenCaseFoldedTable = table = new CaseFoldedChildrenTable(attributeChildrenMap);
+            }
+            return table;
+        }
+        CaseFoldedChildrenTable table = nonAttributeChildrenCaseFoldedTable;
+        if (null == table && null != nonAttributeChildrenMap) {
+            nonAttributeChildrenCaseFoldedTable = table = new CaseFoldedChildrenTable(nonAttributeChildrenMap);
+        }
+        return table;
     }
 
     public void setAnyAttributeNodeValue(MappingNodeValue nodeValue) {
@@ -245,6 +313,10 @@ public int hashCode() {
     }
 
     public XPathNode addChild(XPathFragment anXPathFragment, NodeValue aNodeValue, NamespaceResolver namespaceResolver) {
+        attributeChildrenTable = null;
+        nonAttributeChildrenTable = null;
+        attributeChildrenCaseFoldedTable = null;
+        nonAttributeChildrenCaseFoldedTable = null;
         if (null != anXPathFragment && anXPathFragment.nameIsText()) {
             if (aNodeValue.isOwningNode(anXPathFragment)) {
                 XPathNode textXPathNode = this.getTextNode();
@@ -501,4 +573,180 @@ public boolean isWhitespaceAware() {
         return unmarshalNodeValue.isWhitespaceAware();
     }
 
+
+    /**
+     * The children of a node, in an open addressing table on their local names.
+     * <p>A child is found as in the children map, without hashing and comparing its whole fragment:
+     * on its local name, and its namespace if both fragments are namespace aware. Children of the
+     * same local name are in the order of the map, the first one matching being returned as from the map.
+     * Children with a predicate or an index, or for text, are left out, a name never matching them.
+     */
+    private static final class ChildrenTable {
+
+        private final XPathFragment[] fragments;
+        private final XPathNode[] nodes;
+        private final int mask;
+
+        ChildrenTable(Map<XPathFragment, XPathNode> childrenMap) {
+            int capacity = 2;
+            while (capacity < childrenMap.size() * 2) {
+                capacity <<= 1;
+            }
+            fragments = new XPathFragment[capacity];
+            nodes = new XPathNode[capacity];
+            mask = capacity - 1;
+            for (Map.Entry<XPathFragment, XPathNode> entry : childrenMap.entrySet()) {
+                XPathFragment fragment = entry.getKey();
+                if (null == fragment.getLocalName() || fragment.nameIsText() || null != fragment.getPredicate() || fragment.getIndexValue() != -1) {
+                    continue;
+                }
+                int index = hash(fragment.getLocalName()) & mask;
+                while (null != fragments[index]) {
+                    index = (index + 1) & mask;
+                }
+                fragments[index] = fragment;
+                nodes[index] = entry.getValue();
+            }
+        }
+
+        XPathNode get(XPathFragment xPathFragment) {
+            String localName = xPathFragment.getLocalName();
+            for (int index = hash(localName) & mask; ; index = (index + 1) & mask) {
+                XPathFragment fragment = fragments[index];
+                if (null == fragment) {
+                    return null;
+                }
+                String fragmentLocalName = fragment.getLocalName();
+                if ((fragmentLocalName == localName || fragmentLocalName.equals(localName))
+                        && (!xPathFragment.isNamespaceAware() || !fragment.isNamespaceAware() || namespaceEquals(fragment.getNamespaceURI(), xPathFragment.getNamespaceURI()))) {
+                    return nodes[index];
+                }
+            }
+        }
+
+        private static int hash(String localName) {
+            int hash = localName.hashCode();
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean namespaceEquals(String namespaceURI, String otherNamespaceURI) {
+            return namespaceURI == otherNamespaceURI || (null != namespaceURI && namespaceURI.equals(otherNamespaceURI));
+        }
+    }
+
+    /**
+     * The children of a node, in an open addressing table on their local names folded to one case,
+     * for case insensitive unmarshalling.
+     * <p>A name is hashed and compared char by char as String.equalsIgnoreCase does, so a lookup
+     * does not lower case the name, nor depend on the default locale. Namespaces are
+     * ignored. Of children whose local names differ only in case, the last one of the map is kept,
+     * their names being the collisions to report.
+     * <p>The local names of the documents found are kept as aliases, two per slot, so a name met
+     * again is found as in a case sensitive table, on its hash code and equals. An alias is immutable,
+     * the slots being written without locking by concurrent unmarshals.
+     */
+    private static final class CaseFoldedChildrenTable {
+
+        private final String[] localNames;
+        private final int[] hashes;
+        private final XPathNode[] nodes;
+        private final Alias[] aliases;
+        private final int aliasShift;
+        private final int mask;
+        private final List<String> collisions;
+        private boolean collisionsReported;
+
+        CaseFoldedChildrenTable(Map<XPathFragment, XPathNode> childrenMap) {
+            int capacity = 2;
+            while (capacity < childrenMap.size() * 2) {
+                capacity <<= 1;
+            }
+            localNames = new String[capacity];
+            hashes = new int[capacity];
+            nodes = new XPathNode[capacity];
+            aliases = new Alias[capacity * 2];
+            aliasShift = Integer.numberOfLeadingZeros(capacity) + 1;
+            mask = capacity - 1;
+            List<String> collisions = null;
+            for (Map.Entry<XPathFragment, XPathNode> entry : childrenMap.entrySet()) {
+                String localName = entry.getKey().getLocalName();
+                if (null == localName) {
+                    continue;
+                }
+                int hash = hash(localName);
+                int index = hash & mask;
+                while (null != localNames[index] && (hashes[index] != hash || !localNames[index].equalsIgnoreCase(localName))) {
+                    index = (index + 1) & mask;
+                }
+                if (null != localNames[index]) {
+                    if (null == collisions) {
+                        collisions = new ArrayList<>();
+                    }
+                    collisions.add(localName.toLowerCase(Locale.ROOT));
+                }
+                localNames[index] = localName;
+                hashes[index] = hash;
+                nodes[index] = entry.getValue();
+            }
+            this.collisions = collisions;
+        }
+
+        XPathNode get(String localName) {
+            // Fibonacci hashing, names of a type often differing in a few last chars
+            int aliasIndex = ((localName.hashCode() * 0x9E3779B9) >>> aliasShift) << 1;
+            Alias alias = aliases[aliasIndex];
+            if (null != alias && (alias.localName == localName || alias.localName.equals(localName))) {
+                return alias.node;
+            }
+            Alias otherAlias = aliases[aliasIndex + 1];
+            if (null != otherAlias && (otherAlias.localName == localName || otherAlias.localName.equals(localName))) {
+                return otherAlias.node;
+            }
+            XPathNode node = find(localName);
+            if (null != node) {
+                aliases[null == alias ? aliasIndex : aliasIndex + 1] = new Alias(localName, node);
+            }
+            return node;
+        }
+
+        private XPathNode find(String localName) {
+            int hash = hash(localName);
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                String childLocalName = localNames[index];
+                if (null == childLocalName) {
+                    return null;
+                }
+                if (hashes[index] == hash && (childLocalName == localName || childLocalName.equalsIgnoreCase(localName))) {
+                    return nodes[index];
+                }
+            }
+        }
+
+        /*
+         * Hash the chars folded as equalsIgnoreCase compares them, names equal ignoring case having the same hash.
+         */
+        private static int hash(String localName) {
+            int hash = 0;
+            for (int index = 0, length = localName.length(); index < length; index++) {
+                char c = localName.charAt(index);
+                if (c < 0x80) {
+                    hash = 31 * hash + (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+                } else {
+                    hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(c));
+                }
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private static final class Alias {
+
+            private final String localName;
+            private final XPathNode node;
+
+            Alias(String localName, XPathNode node) {
+                this.localName = localName;
+                this.node = node;
+            }
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -552,10 +552,32 @@ void lazyInitialize() {
                 }
             }
 
+            encodeNameBytes(rootXPathNode);
+            rootXPathNode.compileChildrenTables();
             initialized = true;
         }
     }
 
+    /*
+     * Encode the tags and attribute names of the tree once, rather than on the first marshal of each.
+     */
+    private static void encodeNameBytes(XPathNode xPathNode) {
+        XPathFragment xPathFragment = xPathNode.getXPathFragment();
+        if (null != xPathFragment) {
+            xPathFragment.encodeNameBytes();
+        }
+        if (null != xPathNode.getAttributeChildren()) {
+            for (XPathNode child : xPathNode.getAttributeChildren()) {
+                encodeNameBytes(child);
+            }
+        }
+        if (null != xPathNode.getNonAttributeChildren()) {
+            for (XPathNode child : xPathNode.getNonAttributeChildren()) {
+                encodeNameBytes(child);
+            }
+        }
+    }
+
     @Override
     public boolean marshalAttributes(MarshalRecord marshalRecord, Object object, CoreAbstractSession session) {
         lazyInitialize();
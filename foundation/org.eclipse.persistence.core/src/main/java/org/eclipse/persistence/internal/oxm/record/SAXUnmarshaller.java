@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -51,6 +51,7 @@
 import org.eclipse.persistence.internal.oxm.UnmarshallerHandler;
 import org.eclipse.persistence.internal.oxm.mappings.Descriptor;
 import org.eclipse.persistence.internal.oxm.mappings.UnmarshalKeepAsElementPolicy;
+import org.eclipse.persistence.internal.oxm.record.json.JsonParserReader;
 import org.eclipse.persistence.internal.oxm.record.json.JsonStructureReader;
 import org.eclipse.persistence.platform.xml.DefaultErrorHandler;
 import org.eclipse.persistence.platform.xml.SAXDocumentBuilder;
@@ -207,6 +208,13 @@ private XMLReader getNewXMLReader(MediaType mediaType) {
 
     private XMLReader getNewXMLReader(Class clazz, MediaType mediaType) {
 
+        if (null != mediaType && mediaType.isApplicationCBOR()) {
+            // read as its parser events, there is no JSON structure to build it from
+            return new JsonParserReader.JsonParserReaderBuilder()
+                    .setUnmarshaller(xmlUnmarshaller)
+                    .setResultClass(clazz)
+                    .build();
+        }
         if (null != mediaType && mediaType.isApplicationJSON()) {
             return new JsonStructureReader(xmlUnmarshaller, clazz);
         }
@@ -408,7 +416,7 @@ public Object unmarshal(InputSource inputSource) {
             inputSource.setSystemId(this.systemId);
         }
 
-        if (xmlUnmarshaller.isAutoDetectMediaType()) {
+        if (isAutoDetectMediaType()) {
             BufferedReader bufferedReader = getBufferedReaderForInputSource(inputSource);
             MediaType mediaType = getMediaType(bufferedReader);
             return unmarshal(getNewXMLReader(mediaType), new InputSource(bufferedReader));
@@ -446,7 +454,7 @@ public Object unmarshal(InputSource inputSource, Class clazz) {
             inputSource.setSystemId(this.systemId);
         }
 
-        if (xmlUnmarshaller.isAutoDetectMediaType()) {
+        if (isAutoDetectMediaType()) {
             BufferedReader bufferedReader = getBufferedReaderForInputSource(inputSource);
             MediaType mediaType = getMediaType(bufferedReader);
             return unmarshal(getNewXMLReader(clazz, mediaType), new InputSource(bufferedReader), clazz);
@@ -810,7 +818,7 @@ public Object unmarshal(URL url, Class clazz) {
 
     public Object unmarshal(String systemId) {
         try {
-            if (xmlUnmarshaller.isAutoDetectMediaType()) {
+            if (isAutoDetectMediaType()) {
                 InputSource inputSource = new InputSource(systemId);
                 return unmarshal(inputSource);
             }
@@ -835,7 +843,7 @@ public Object unmarshal(String systemId) {
     }
 
     public Object unmarshal(String systemId, Class clazz) {
-        if (xmlUnmarshaller.isAutoDetectMediaType()) {
+        if (isAutoDetectMediaType()) {
             return unmarshal(new InputSource(systemId), clazz);
         }
 
@@ -1108,6 +1116,15 @@ private InputStream getInputStreamFromString(String stringValue) {
         throw org.eclipse.persistence.exceptions.XMLMarshalException.unmarshalFromStringException(stringValue, null);
     }
 
+    /**
+     * Whether the media type is detected from the first characters of the document,
+     * never the case of a binary one, having no characters to detect it from.
+     */
+    private boolean isAutoDetectMediaType() {
+        return xmlUnmarshaller.isAutoDetectMediaType()
+                && (null == xmlUnmarshaller.getMediaType() || !xmlUnmarshaller.getMediaType().isApplicationCBOR());
+    }
+
     private BufferedReader getBufferedReaderForInputSource(InputSource inputSource) {
         if (inputSource.getByteStream() != null) {
             return new BufferedReader(new InputStreamReader(inputSource.getByteStream()));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -102,6 +102,10 @@
     private XPathNode predictedNextXPathNode;
     private int levelIndex;
     private UnmarshalRecord childRecord;
+    /**
+     * The record of the last child object, reused for the next child object rather than creating a new one.
+     */
+    private UnmarshalRecordImpl releasedChildRecord;
     protected UnmarshalRecord parentRecord;
     private TRANSFORMATION_RECORD transformationRecord;
     private List<UnmarshalRecord> selfRecords;
@@ -184,13 +188,15 @@ private void reset() {
         xPathNode = null;
         childRecord = null;
         transformationRecord = null;
-        if(null != selfRecords) {
-            selfRecords.clear();
-        }
+        selfRecords = null;
         if(null != indexMap) {
             indexMap.clear();
         }
         nullCapableValues = null;
+        containerInstances = null;
+        populatedContainerValues = null;
+        defaultEmptyContainerValues = null;
+        xmlLocation = null;
         isBufferCDATA = false;
         attributes = null;
         typeQName = null;
@@ -248,6 +254,10 @@ public UnmarshalRecord getChildRecord() {
 
     @Override
     public void setChildRecord(UnmarshalRecord childRecord) {
+        if (null == childRecord && this.childRecord instanceof UnmarshalRecordImpl && !this.childRecord.isSelfRecord()) {
+            // The child object is complete, its record is free for the next child object
+            releasedChildRecord = (UnmarshalRecordImpl) this.childRecord;
+        }
         this.childRecord = childRecord;
         if (null != childRecord) {
             childRecord.setParentRecord(this);
@@ -769,14 +779,14 @@ public void endDocument() throws SAXException {
             }
         }
 
-        if(null != parentRecord) {
-            reset();
-        }
-
         // Set XML Location if applicable
         if (xmlLocation != null && ((Descriptor) xmlDescriptor).getLocationAccessor() != null) {
             ((Descriptor) xmlDescriptor).getLocationAccessor().setAttributeValueInObject(getCurrentObject(), xmlLocation);
         }
+
+        if(null != parentRecord) {
+            reset();
+        }
     }
 
     @Override
@@ -821,8 +831,11 @@ public void startElement(String namespaceURI, String localName, String qName, At
             rootElementLocalName = localName;
             rootElementName = qName;
             rootElementNamespaceUri = namespaceURI;
-            schemaLocation = atts.getValue(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, Constants.SCHEMA_LOCATION);
-            noNamespaceSchemaLocation = atts.getValue(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, Constants.NO_NS_SCHEMA_LOCATION);
+            // schema locations are XML only, looking them up would read a streamed JSON root ahead
+            if((null == xmlReader) || xmlReader.getMediaType().isApplicationXML()) {
+                schemaLocation = atts.getValue(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, Constants.SCHEMA_LOCATION);
+                noNamespaceSchemaLocation = atts.getValue(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, Constants.NO_NS_SCHEMA_LOCATION);
+            }
         }
 
         try {
@@ -1317,9 +1330,9 @@ public XPathNode getNonAttributeXPathNode(String namespaceURI, String localName,
             XPathNode resultNode;
 
             if (unmarshaller.isCaseInsensitive()){
-                resultNode = getNodeFromLookupTable(nonAttributeChildrenMap, false);
+                resultNode = getNodeFromLookupTable(false);
             } else {
-                resultNode = nonAttributeChildrenMap.get(xPathFragment);
+                resultNode = xPathNode.getNonAttributeChild(xPathFragment);
             }
 
             XPathNode nonPredicateNode = null;
@@ -1429,9 +1442,9 @@ public NodeValue getAttributeChildNodeValue(String namespace, String localName)
             xPathFragment.setNamespaceURI(namespace);
 
             if (unmarshaller.isCaseInsensitive()){
-                resultNode = getNodeFromLookupTable(attributeChildrenMap, true);
+                resultNode = getNodeFromLookupTable(true);
             } else {
-                resultNode = attributeChildrenMap.get(xPathFragment);
+                resultNode = xPathNode.getAttributeChild(xPathFragment);
             }
 
             if (resultNode != null) {
@@ -1443,69 +1456,38 @@ public NodeValue getAttributeChildNodeValue(String namespace, String localName)
 
     /**
      * INTERNAL:
-     * Retrieves the XPathNode by searching in the auxiliary case insensitive lookup table.
+     * Retrieves the XPathNode by searching in the case folded lookup table of the node,
+     * built once with the tree, so the name of the fragment is not lower cased.
+     *
+     * Does NOT depend on the default locale, names being compared as by String.equalsIgnoreCase.
      *
-     * @param childrenMap Original Map for construction of the auxiliary table.
      * @param isAttribute Determine if searching for an element or an attribute.
      * @return XPathNode object reference, which is also present in the original children map.
      * @since 2.6.0
      */
-    private XPathNode getNodeFromLookupTable(Map<XPathFragment, XPathNode> childrenMap, boolean isAttribute) {
-        Map<String, XPathNode> lookupTable = xPathNode.getChildrenLookupTable(isAttribute);
-
-        if(!xPathNode.isChildrenLookupTableFilled(isAttribute)){
-            this.fillLookupTable(childrenMap, lookupTable);
-            xPathNode.setChildrenLookupTableFilled(isAttribute);
-        }
-
-        String lowerCaseFragment = xPathFragment.getLocalName().toLowerCase();
-        if (!xPathFragment.getChildrenCollisionSet(isAttribute).add(lowerCaseFragment))
-            handleCollision(lowerCaseFragment, false);
-        return lookupTable.get(lowerCaseFragment);
-    }
-
-    /**
-     * INTERNAL:
-     * Creates an auxiliary lookup table containing lower-cased localNames of XPathFragments.
-     *
-     * Does NOT pass the Turkey test.
-     *
-     * For future development: Handle ISO-8859-9 encoding.
-     * if (encoding.equals("ISO-8859-9")) {
-     *      String auxLocalName = entry.getKey().getLocalName().toLowerCase(Locale.forLanguageTag("tr-TR"));
-     * }
-     *
-     * @param childrenMap Table from which the data is acquired.
-     * @param lookupTable Table to which the lower-cased data is stored.
-     * @since 2.6.0
-     */
-    private void fillLookupTable(Map<XPathFragment, XPathNode> childrenMap, Map<String, XPathNode> lookupTable) {
-        String lookupName;
-        for (Map.Entry<XPathFragment, XPathNode> entry : childrenMap.entrySet()) {
-            lookupName = entry.getKey().getLocalName().toLowerCase();
-            if (lookupTable.put(lookupName, entry.getValue()) != null){
-                handleCollision(lookupName, true);
+    private XPathNode getNodeFromLookupTable(boolean isAttribute) {
+        XPathNode resultNode = xPathNode.getChildIgnoreCase(xPathFragment, isAttribute);
+        List<String> collisions = xPathNode.getCaseCollisionsToReport(isAttribute);
+        if (null != collisions) {
+            for (String lookupName : collisions) {
+                handleCollision(lookupName);
             }
         }
+        return resultNode;
     }
 
     /**
      * INTERNAL:
-     * Handles collisions, i.e. fragments or fields with the same name, different case.
+     * Handles collisions, i.e. fields with the same name, different case.
      *
      * @param lookupName Lookup variant of the localName.
-     * @param onXPathNode true - the collision occurred on XPathNode (case for Java fields),
-     *                    false - the collision occurred on XPathFragment (case for XML elements/attributes).
      * @since 2.6.0
      */
-    private void handleCollision(String lookupName, boolean onXPathNode) {
+    private void handleCollision(String lookupName) {
         StringBuilder sb = new StringBuilder()
                 .append(">\nUnmarshalRecordImpl.handleCollision() -->\tCOLLISION on ")
-                .append(
-                        onXPathNode
-                        ? "XPathNode fields by case insensitive localName \""
-                        : "XPathFragments by case insensitive localName \""
-                ).append(lookupName).append("\".");
+                .append("XPathNode fields by case insensitive localName \"")
+                .append(lookupName).append("\".");
 
 //        session.setLogLevel(SessionLog.WARNING); // for debugging
         ((AbstractSession) session).logMessage(CommandProcessor.LOG_WARNING, sb.toString());
@@ -1640,7 +1622,14 @@ public UnmarshalRecord getChildUnmarshalRecord(ObjectBuilder treeObjectBuilder)
             childRecord.setParentRecord(this);
             return childRecord;
     }else{
-        childRecord = new UnmarshalRecordImpl(treeObjectBuilder, referenceResolver);
+        if (null != releasedChildRecord) {
+            childRecord = releasedChildRecord;
+            releasedChildRecord = null;
+            childRecord.initialize(treeObjectBuilder);
+            childRecord.setUnmarshalAttributeGroup(DEFAULT_ATTRIBUTE_GROUP);
+        } else {
+            childRecord = new UnmarshalRecordImpl(treeObjectBuilder, referenceResolver);
+        }
         childRecord.setSession(session);
             childRecord.setUnmarshaller(unmarshaller);
             childRecord.setTextWrapperFragment(textWrapperFragment);
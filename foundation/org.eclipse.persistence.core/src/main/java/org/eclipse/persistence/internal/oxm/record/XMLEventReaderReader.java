@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -49,6 +49,7 @@ public class XMLEventReaderReader extends XMLReaderAdapter {
     private Map<Integer, List<Namespace>> namespaces;
     private XMLEventReaderAttributes indexedAttributeList;
     private XMLEvent lastEvent;
+    private char[] characterBuffer = new char[128];
 
     public XMLEventReaderReader() {
         this.namespaces = new HashMap<>();
@@ -102,17 +103,16 @@ private void parseEvent(XMLEvent xmlEvent) throws SAXException {
             case XMLEvent.CDATA: {
                 Characters characters = xmlEvent.asCharacters();
                 if(null == lexicalHandler) {
-                    contentHandler.characters(characters.getData().toCharArray(), 0, characters.getData().length());
+                    parseCharacters(characters.getData());
                 } else {
                     lexicalHandler.startCDATA();
-                    contentHandler.characters(characters.getData().toCharArray(), 0, characters.getData().length());
+                    parseCharacters(characters.getData());
                     lexicalHandler.endCDATA();
                 }
                 break;
             }
             case XMLEvent.CHARACTERS: {
-                char[] characters = xmlEvent.asCharacters().getData().toCharArray();
-                contentHandler.characters(characters, 0, characters.length);
+                parseCharacters(xmlEvent.asCharacters().getData());
                 break;
             }
             case XMLEvent.COMMENT: {
@@ -166,8 +166,7 @@ private void parseEvent(XMLEvent xmlEvent) throws SAXException {
                 break;
             }
             case XMLEvent.SPACE: {
-                char[] characters = xmlEvent.asCharacters().getData().toCharArray();
-                contentHandler.characters(characters, 0, characters.length);
+                parseCharacters(xmlEvent.asCharacters().getData());
                 break;
             }
             case XMLEvent.START_DOCUMENT: {
@@ -205,6 +204,19 @@ private void parseEvent(XMLEvent xmlEvent) throws SAXException {
         }
     }
 
+    /*
+     * Report the characters from a buffer reused across events, as SAX parsers do,
+     * rather than from a new copy of each event's data.
+     */
+    private void parseCharacters(String data) throws SAXException {
+        int length = data.length();
+        if(length > characterBuffer.length) {
+            characterBuffer = new char[Math.max(length, characterBuffer.length * 2)];
+        }
+        data.getChars(0, length, characterBuffer, 0);
+        contentHandler.characters(characterBuffer, 0, length);
+    }
+
     // Made static final for performance reasons.
     private static final class XMLEventReaderAttributes extends IndexedAttributeList {
 
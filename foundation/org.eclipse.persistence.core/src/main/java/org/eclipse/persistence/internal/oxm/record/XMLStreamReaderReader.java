@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -222,6 +222,11 @@ protected void parseCharactersEvent(XMLStreamReader xmlStreamReader) throws SAXE
         contentHandler.characters(xmlStreamReader.getTextCharacters(), xmlStreamReader.getTextStart(), xmlStreamReader.getTextLength());
     }
 
+    /**
+     * The attributes of the current start element, read from the XMLStreamReader by index.
+     * The namespace declarations follow the attributes. The attributes are only copied, with
+     * their qualified names, when looked up by qualified name.
+     */
     private static class XMLStreamReaderAttributes  extends IndexedAttributeList {
 
         private XMLStreamReader xmlStreamReader;
@@ -238,39 +243,89 @@ protected Attribute[] attributes() {
                 if(namespaceCount + attributeCount == 0) {
                     attributes = NO_ATTRIBUTES;
                 } else {
-                    attributes = new Attribute[attributeCount + namespaceCount];
-                    for(int x=0; x<attributeCount; x++) {
-                        String uri = xmlStreamReader.getAttributeNamespace(x);
-                        String localName = xmlStreamReader.getAttributeLocalName(x);
-                        String prefix = xmlStreamReader.getAttributePrefix(x);
-                        String qName;
-                        if(null == prefix || prefix.length() == 0) {
-                            qName = localName;
-                        } else {
-                            qName = prefix + Constants.COLON + localName;
-                        }
-                        String value = xmlStreamReader.getAttributeValue(x);
-                        attributes[x] = new Attribute(uri, localName, qName, value);
+                    Attribute[] readAttributes = new Attribute[attributeCount + namespaceCount];
+                    for(int x=0; x<readAttributes.length; x++) {
+                        readAttributes[x] = new Attribute(getURI(x), getLocalName(x), getQName(x), getValue(x));
                     }
-                    for(int x=0; x<namespaceCount; x++) {
-                        String uri = javax.xml.XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
-                        String localName = xmlStreamReader.getNamespacePrefix(x);
-                        String qName;
-                        if(null == localName || localName.length() == 0) {
-                            localName = javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
-                            qName = javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
-                        } else {
-                            qName = javax.xml.XMLConstants.XMLNS_ATTRIBUTE + Constants.COLON + localName;
-                        }
-                        String value = xmlStreamReader.getNamespaceURI(x);
-                        attributes[x + attributeCount] = new Attribute(uri, localName, qName, value);
-                    }
-
+                    attributes = readAttributes;
                 }
             }
             return attributes;
         }
 
+        @Override
+        public int getLength() {
+            if(null != attributes) {
+                return attributes.length;
+            }
+            return xmlStreamReader.getAttributeCount() + xmlStreamReader.getNamespaceCount();
+        }
+
+        @Override
+        public String getURI(int index) {
+            if(null != attributes) {
+                return attributes[index].getUri();
+            }
+            int attributeCount = xmlStreamReader.getAttributeCount();
+            if(index < attributeCount) {
+                String uri = xmlStreamReader.getAttributeNamespace(index);
+                if(null == uri) {
+                    return Constants.EMPTY_STRING;
+                }
+                return uri;
+            }
+            return javax.xml.XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+        }
+
+        @Override
+        public String getLocalName(int index) {
+            if(null != attributes) {
+                return attributes[index].getLocalName();
+            }
+            int attributeCount = xmlStreamReader.getAttributeCount();
+            if(index < attributeCount) {
+                return xmlStreamReader.getAttributeLocalName(index);
+            }
+            String prefix = xmlStreamReader.getNamespacePrefix(index - attributeCount);
+            if(null == prefix || prefix.length() == 0) {
+                return javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
+            }
+            return prefix;
+        }
+
+        @Override
+        public String getQName(int index) {
+            if(null != attributes) {
+                return attributes[index].getName();
+            }
+            int attributeCount = xmlStreamReader.getAttributeCount();
+            String prefix;
+            if(index < attributeCount) {
+                prefix = xmlStreamReader.getAttributePrefix(index);
+                if(null == prefix || prefix.length() == 0) {
+                    return xmlStreamReader.getAttributeLocalName(index);
+                }
+                return prefix + Constants.COLON + xmlStreamReader.getAttributeLocalName(index);
+            }
+            prefix = xmlStreamReader.getNamespacePrefix(index - attributeCount);
+            if(null == prefix || prefix.length() == 0) {
+                return javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
+            }
+            return javax.xml.XMLConstants.XMLNS_ATTRIBUTE + Constants.COLON + prefix;
+        }
+
+        @Override
+        public String getValue(int index) {
+            if(null != attributes) {
+                return attributes[index].getValue();
+            }
+            int attributeCount = xmlStreamReader.getAttributeCount();
+            if(index < attributeCount) {
+                return xmlStreamReader.getAttributeValue(index);
+            }
+            return xmlStreamReader.getNamespaceURI(index - attributeCount);
+        }
+
         @Override
         public String getValue(String uri, String localName) {
             if (Constants.EMPTY_STRING.equals(uri)) {
@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.oxm.record.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonGenerator;
+
+import org.eclipse.persistence.exceptions.XMLMarshalException;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose:</b>Write JSON values as CBOR (RFC 8949) to an output stream.
+ * <p><b>Responsibilities:</b><ul>
+ * <li>Write objects and arrays as maps and arrays of indefinite length, ended by a break</li>
+ * <li>Write integers in the fewest bytes, and the integers beyond 64 bits as bignums</li>
+ * <li>Write decimals as decimal fractions, their unscaled value and scale kept, and doubles
+ * as single precision floats when no precision is lost</li>
+ * <li>Write strings as UTF-8 text strings</li></ul>
+ * <p>Used by the JSON marshal record of the application/cbor media type, which calls it in order:
+ * the sequence of calls is not checked as a JSON generator of a JSON-P provider does.
+ * Closing the generator does not close the output stream.
+ */
+public final class CborGenerator implements JsonGenerator {
+
+    static final int MAJOR_UNSIGNED = 0;
+    static final int MAJOR_NEGATIVE = 1 << 5;
+    static final int MAJOR_BYTES = 2 << 5;
+    static final int MAJOR_TEXT = 3 << 5;
+    static final int MAJOR_ARRAY = 4 << 5;
+    static final int MAJOR_MAP = 5 << 5;
+    static final int MAJOR_TAG = 6 << 5;
+    static final int MAJOR_SIMPLE = 7 << 5;
+
+    static final int INDEFINITE = 31;
+    static final int BREAK = MAJOR_SIMPLE | INDEFINITE;
+    static final int FALSE = MAJOR_SIMPLE | 20;
+    static final int TRUE = MAJOR_SIMPLE | 21;
+    static final int NULL = MAJOR_SIMPLE | 22;
+    static final int UNDEFINED = MAJOR_SIMPLE | 23;
+    static final int HALF_FLOAT = MAJOR_SIMPLE | 25;
+    static final int SINGLE_FLOAT = MAJOR_SIMPLE | 26;
+    static final int DOUBLE_FLOAT = MAJOR_SIMPLE | 27;
+
+    static final int TAG_POSITIVE_BIGNUM = 2;
+    static final int TAG_NEGATIVE_BIGNUM = 3;
+    static final int TAG_DECIMAL_FRACTION = 4;
+    static final int TAG_BIGFLOAT = 5;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream outputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    public CborGenerator(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject() {
+        writeByte(MAJOR_MAP | INDEFINITE);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartObject(String name) {
+        writeText(name);
+        return writeStartObject();
+    }
+
+    @Override
+    public JsonGenerator writeKey(String name) {
+        writeText(name);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray() {
+        writeByte(MAJOR_ARRAY | INDEFINITE);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeStartArray(String name) {
+        writeText(name);
+        return writeStartArray();
+    }
+
+    @Override
+    public JsonGenerator write(String name, JsonValue value) {
+        writeText(name);
+        return write(value);
+    }
+
+    @Override
+    public JsonGenerator write(String name, String value) {
+        writeText(name);
+        return write(value);
+    }
+
+    @Override
+    public JsonGenerator write(String name, BigInteger value) {
+        writeText(name);
+        return write(value);
+    }
+
+    @Override
+    public JsonGenerator write(String name, BigDecimal value) {
+        writeText(name);
+        return write(value);
+    }
+
+    @Override
+    public JsonGenerator write(String name, int value) {
+        writeText(name);
+        return write((long) value);
+    }
+
+    @Override
+    public JsonGenerator write(String name, long value) {
+        writeText(name);
+        return write(value);
+    }
+
+    @Override
+    public JsonGenerator write(String name, double value) {
+        writeText(name);
+        return write(value);
+    }
+
+    @Override
+    public JsonGenerator write(String name, boolean value) {
+        writeText(name);
+        return write(value);
+    }
+
+    @Override
+    public JsonGenerator writeNull(String name) {
+        writeText(name);
+        return writeNull();
+    }
+
+    @Override
+    public JsonGenerator writeEnd() {
+        writeByte(BREAK);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(JsonValue value) {
+        switch (value.getValueType()) {
+            case OBJECT:
+                writeStartObject();
+                for (Map.Entry<String, JsonValue> member : ((JsonObject) value).entrySet()) {
+                    write(member.getKey(), member.getValue());
+                }
+                return writeEnd();
+            case ARRAY:
+                writeStartArray();
+                for (JsonValue item : (JsonArray) value) {
+                    write(item);
+                }
+                return writeEnd();
+            case STRING:
+                return write(((JsonString) value).getString());
+            case NUMBER:
+                return write(((JsonNumber) value).bigDecimalValue());
+            case TRUE:
+                return write(true);
+            case FALSE:
+                return write(false);
+            default:
+                return writeNull();
+        }
+    }
+
+    @Override
+    public JsonGenerator write(String value) {
+        writeText(value);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(BigDecimal value) {
+        if (value.scale() == 0) {
+            return write(value.unscaledValue());
+        }
+        // [exponent, mantissa], for the value to be read back with the same scale
+        writeTypeAndArgument(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+        writeTypeAndArgument(MAJOR_ARRAY, 2);
+        write(-(long) value.scale());
+        return write(value.unscaledValue());
+    }
+
+    @Override
+    public JsonGenerator write(BigInteger value) {
+        if (value.bitLength() < Long.SIZE) {
+            return write(value.longValue());
+        }
+        int tag = TAG_POSITIVE_BIGNUM;
+        if (value.signum() < 0) {
+            tag = TAG_NEGATIVE_BIGNUM;
+            value = value.not();
+        }
+        byte[] magnitude = value.toByteArray();
+        int offset = magnitude[0] == 0 ? 1 : 0;
+        writeTypeAndArgument(MAJOR_TAG, tag);
+        writeTypeAndArgument(MAJOR_BYTES, magnitude.length - offset);
+        writeBytes(magnitude, offset, magnitude.length - offset);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(int value) {
+        return write((long) value);
+    }
+
+    @Override
+    public JsonGenerator write(long value) {
+        if (value < 0) {
+            writeTypeAndArgument(MAJOR_NEGATIVE, -1 - value);
+        } else {
+            writeTypeAndArgument(MAJOR_UNSIGNED, value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // as JSON, that has no such numbers
+            throw new NumberFormatException(String.valueOf(value));
+        }
+        float singleValue = (float) value;
+        if (singleValue == value) {
+            ensureCapacity(5);
+            buffer[position++] = (byte) SINGLE_FLOAT;
+            putInt(Float.floatToIntBits(singleValue));
+        } else {
+            ensureCapacity(9);
+            buffer[position++] = (byte) DOUBLE_FLOAT;
+            long bits = Double.doubleToLongBits(value);
+            putInt((int) (bits >>> 32));
+            putInt((int) bits);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonGenerator write(boolean value) {
+        writeByte(value ? TRUE : FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonGenerator writeNull() {
+        writeByte(NULL);
+        return this;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    @Override
+    public void flush() {
+        try {
+            flushBuffer();
+            outputStream.flush();
+        } catch (IOException e) {
+            throw XMLMarshalException.marshalException(e);
+        }
+    }
+
+    /*
+     * Write the string as a text string, its UTF-8 length first. The chars are encoded
+     * straight into the buffer, an unpaired surrogate as '?' like String.getBytes does.
+     */
+    private void writeText(String value) {
+        int length = value.length();
+        int utf8Length = length;
+        for (int index = 0; index < length; index++) {
+            char c = value.charAt(index);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    utf8Length++;
+                } else if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(value.charAt(index + 1))) {
+                    utf8Length += 2;
+                    index++;
+                } else if (!Character.isSurrogate(c)) {
+                    utf8Length += 2;
+                }
+            }
+        }
+        writeTypeAndArgument(MAJOR_TEXT, utf8Length);
+        if (utf8Length == length) {
+            for (int index = 0; index < length;) {
+                ensureCapacity(1);
+                int end = Math.min(length, index + buffer.length - position);
+                while (index < end) {
+                    buffer[position++] = (byte) value.charAt(index++);
+                }
+            }
+            return;
+        }
+        for (int index = 0; index < length; index++) {
+            ensureCapacity(4);
+            char c = value.charAt(index);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++index));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    /*
+     * Write the initial byte of the major type, followed by the argument in the fewest bytes.
+     */
+    private void writeTypeAndArgument(int majorType, long argument) {
+        ensureCapacity(9);
+        if (argument < 24) {
+            buffer[position++] = (byte) (majorType | argument);
+        } else if (argument < 0x100) {
+            buffer[position++] = (byte) (majorType | 24);
+            buffer[position++] = (byte) argument;
+        } else if (argument < 0x10000) {
+            buffer[position++] = (byte) (majorType | 25);
+            buffer[position++] = (byte) (argument >> 8);
+            buffer[position++] = (byte) argument;
+        } else if (argument < 0x100000000L) {
+            buffer[position++] = (byte) (majorType | 26);
+            putInt((int) argument);
+        } else {
+            buffer[position++] = (byte) (majorType | 27);
+            putInt((int) (argument >>> 32));
+            putInt((int) argument);
+        }
+    }
+
+    private void putInt(int value) {
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        if (length > buffer.length - position) {
+            try {
+                flushBuffer();
+                outputStream.write(bytes, offset, length);
+            } catch (IOException e) {
+                throw XMLMarshalException.marshalException(e);
+            }
+            return;
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int length) {
+        if (length > buffer.length - position) {
+            try {
+                flushBuffer();
+            } catch (IOException e) {
+                throw XMLMarshalException.marshalException(e);
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+}
@@ -0,0 +1,545 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.oxm.record.json;
+
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.BREAK;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.DOUBLE_FLOAT;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.FALSE;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.HALF_FLOAT;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.INDEFINITE;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.MAJOR_ARRAY;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.MAJOR_BYTES;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.MAJOR_MAP;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.MAJOR_NEGATIVE;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.MAJOR_TAG;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.MAJOR_TEXT;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.MAJOR_UNSIGNED;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.NULL;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.SINGLE_FLOAT;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.TAG_BIGFLOAT;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.TAG_DECIMAL_FRACTION;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.TAG_NEGATIVE_BIGNUM;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.TAG_POSITIVE_BIGNUM;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.TRUE;
+import static org.eclipse.persistence.internal.oxm.record.json.CborGenerator.UNDEFINED;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.NoSuchElementException;
+
+import jakarta.json.JsonException;
+import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParsingException;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose:</b>Read a CBOR (RFC 8949) data item from an input stream as the events of its JSON equivalent.
+ * <p><b>Responsibilities:</b><ul>
+ * <li>Report maps and arrays, of definite or indefinite length, as JSON objects and arrays</li>
+ * <li>Report the keys of maps as key names, integer keys by their decimal string</li>
+ * <li>Report integers, bignums, decimal fractions, bigfloats and floats as numbers</li>
+ * <li>Report text strings as strings, and byte strings as their base64 string, as binary data is in JSON</li>
+ * <li>Ignore the other tags, and report undefined as null</li></ul>
+ * <p>The keys of maps are the same few names over and over, so the strings of the short ones are cached.
+ */
+public final class CborParser implements JsonParser {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int KEY_CACHE_SIZE = 256;
+    private static final int MAX_CACHED_KEY_LENGTH = 32;
+
+    private final InputStream inputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long offset;
+
+    /*
+     * The maps and arrays being read: their items left to read, -1 if of indefinite length,
+     * and whether a key is read next for a map.
+     */
+    private long[] remaining = new long[16];
+    private boolean[] map = new boolean[16];
+    private boolean[] keyNext = new boolean[16];
+    private int depth;
+    private boolean rootRead;
+
+    private Event event;
+    private String string;
+    private long longValue;
+    private BigDecimal decimalValue;
+
+    private final byte[][] keyBytes = new byte[KEY_CACHE_SIZE][];
+    private final String[] keyStrings = new String[KEY_CACHE_SIZE];
+
+    public CborParser(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (depth > 0) {
+            return true;
+        }
+        return !rootRead && ensureAvailable(1);
+    }
+
+    @Override
+    public Event next() {
+        if (depth == 0) {
+            if (rootRead) {
+                throw new NoSuchElementException();
+            }
+            rootRead = true;
+            return event = readItem(readByte());
+        }
+        int top = depth - 1;
+        if (remaining[top] == 0 && keyNext[top]) {
+            return event = end();
+        }
+        int initialByte = readByte();
+        if (remaining[top] < 0 && initialByte == BREAK) {
+            if (!keyNext[top]) {
+                throw parsingException("Break before the value of the key " + string);
+            }
+            return event = end();
+        }
+        if (map[top]) {
+            if (keyNext[top]) {
+                keyNext[top] = false;
+                if (remaining[top] > 0) {
+                    remaining[top]--;
+                }
+                string = readKey(initialByte);
+                return event = Event.KEY_NAME;
+            }
+            keyNext[top] = true;
+        } else if (remaining[top] > 0) {
+            remaining[top]--;
+        }
+        return event = readItem(initialByte);
+    }
+
+    @Override
+    public String getString() {
+        if (event == Event.KEY_NAME || event == Event.VALUE_STRING) {
+            return string;
+        }
+        if (event == Event.VALUE_NUMBER) {
+            return null == decimalValue ? Long.toString(longValue) : decimalValue.toString();
+        }
+        throw new IllegalStateException(String.valueOf(event));
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        checkNumber();
+        return null == decimalValue || decimalValue.scale() == 0;
+    }
+
+    @Override
+    public int getInt() {
+        checkNumber();
+        return null == decimalValue ? (int) longValue : decimalValue.intValue();
+    }
+
+    @Override
+    public long getLong() {
+        checkNumber();
+        return null == decimalValue ? longValue : decimalValue.longValue();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal() {
+        checkNumber();
+        return null == decimalValue ? BigDecimal.valueOf(longValue) : decimalValue;
+    }
+
+    @Override
+    public JsonLocation getLocation() {
+        final long streamOffset = offset + position;
+        return new JsonLocation() {
+            @Override
+            public long getLineNumber() {
+                return -1;
+            }
+
+            @Override
+            public long getColumnNumber() {
+                return -1;
+            }
+
+            @Override
+            public long getStreamOffset() {
+                return streamOffset;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+    }
+
+    private void checkNumber() {
+        if (event != Event.VALUE_NUMBER) {
+            throw new IllegalStateException(String.valueOf(event));
+        }
+    }
+
+    private Event end() {
+        depth--;
+        return map[depth] ? Event.END_OBJECT : Event.END_ARRAY;
+    }
+
+    /*
+     * Read the data item starting with the initial byte, pushing the maps and arrays.
+     */
+    private Event readItem(int initialByte) {
+        int majorType = initialByte & 0xE0;
+        int info = initialByte & 0x1F;
+        switch (majorType) {
+            case MAJOR_UNSIGNED:
+            case MAJOR_NEGATIVE: {
+                setInteger(majorType, readArgument(info));
+                return Event.VALUE_NUMBER;
+            }
+            case MAJOR_BYTES: {
+                string = Base64.getEncoder().encodeToString(readBytes(majorType, info));
+                return Event.VALUE_STRING;
+            }
+            case MAJOR_TEXT: {
+                string = readText(info);
+                return Event.VALUE_STRING;
+            }
+            case MAJOR_ARRAY:
+            case MAJOR_MAP: {
+                long length = info == INDEFINITE ? -1 : readArgument(info);
+                if (info != INDEFINITE && length < 0) {
+                    throw parsingException("Map or array too long");
+                }
+                push(majorType == MAJOR_MAP, length);
+                return majorType == MAJOR_MAP ? Event.START_OBJECT : Event.START_ARRAY;
+            }
+            case MAJOR_TAG: {
+                return readTagged(readArgument(info));
+            }
+            default: {
+                return readSimple(initialByte);
+            }
+        }
+    }
+
+    private Event readTagged(long tag) {
+        int initialByte = readByte();
+        if (tag == TAG_POSITIVE_BIGNUM || tag == TAG_NEGATIVE_BIGNUM) {
+            if ((initialByte & 0xE0) != MAJOR_BYTES) {
+                throw parsingException("Bignum not a byte string");
+            }
+            BigInteger value = new BigInteger(1, readBytes(MAJOR_BYTES, initialByte & 0x1F));
+            if (tag == TAG_NEGATIVE_BIGNUM) {
+                value = value.not();
+            }
+            decimalValue = new BigDecimal(value);
+            return Event.VALUE_NUMBER;
+        }
+        if (tag == TAG_DECIMAL_FRACTION || tag == TAG_BIGFLOAT) {
+            if (initialByte != (MAJOR_ARRAY | 2)) {
+                throw parsingException("Decimal fraction or bigfloat not an array of two items");
+            }
+            int exponentByte = readByte();
+            if ((exponentByte & 0xE0) != MAJOR_UNSIGNED && (exponentByte & 0xE0) != MAJOR_NEGATIVE) {
+                throw parsingException("Exponent not an integer");
+            }
+            setInteger(exponentByte & 0xE0, readArgument(exponentByte & 0x1F));
+            if (null != decimalValue || longValue != (int) longValue) {
+                throw parsingException("Exponent out of range");
+            }
+            int exponent = (int) longValue;
+            if (readItem(readByte()) != Event.VALUE_NUMBER || (null != decimalValue && decimalValue.scale() != 0)) {
+                throw parsingException("Mantissa not an integer");
+            }
+            BigInteger mantissa = null == decimalValue ? BigInteger.valueOf(longValue) : decimalValue.toBigInteger();
+            if (tag == TAG_DECIMAL_FRACTION) {
+                decimalValue = new BigDecimal(mantissa, -exponent);
+            } else if (exponent >= 0) {
+                decimalValue = new BigDecimal(mantissa.shiftLeft(exponent));
+            } else {
+                decimalValue = new BigDecimal(mantissa).divide(new BigDecimal(BigInteger.ONE.shiftLeft(-exponent)));
+            }
+            return Event.VALUE_NUMBER;
+        }
+        // the tag adds nothing JSON has a value for
+        return readItem(initialByte);
+    }
+
+    private Event readSimple(int initialByte) {
+        switch (initialByte) {
+            case FALSE:
+                return Event.VALUE_FALSE;
+            case TRUE:
+                return Event.VALUE_TRUE;
+            case NULL:
+            case UNDEFINED:
+                return Event.VALUE_NULL;
+            case HALF_FLOAT:
+                return setFloat(halfToDouble((int) readArgument(25)));
+            case SINGLE_FLOAT:
+                return setFloat(Float.intBitsToFloat((int) readArgument(26)));
+            case DOUBLE_FLOAT:
+                return setFloat(Double.longBitsToDouble(readArgument(27)));
+            default:
+                throw parsingException("Unexpected initial byte " + initialByte);
+        }
+    }
+
+    private void setInteger(int majorType, long argument) {
+        if (argument >= 0) {
+            longValue = majorType == MAJOR_NEGATIVE ? -1 - argument : argument;
+            decimalValue = null;
+        } else {
+            // beyond a long, argument being unsigned
+            BigInteger value = new BigInteger(Long.toUnsignedString(argument));
+            decimalValue = new BigDecimal(majorType == MAJOR_NEGATIVE ? value.not() : value);
+        }
+    }
+
+    private Event setFloat(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw parsingException("No JSON number for " + value);
+        }
+        decimalValue = BigDecimal.valueOf(value);
+        return Event.VALUE_NUMBER;
+    }
+
+    private static double halfToDouble(int bits) {
+        int exponent = (bits >> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+        double value;
+        if (exponent == 0) {
+            value = Math.scalb((double) mantissa, -24);
+        } else if (exponent == 31) {
+            value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            value = Math.scalb((double) (mantissa + 1024), exponent - 25);
+        }
+        return (bits & 0x8000) == 0 ? value : -value;
+    }
+
+    private void push(boolean isMap, long length) {
+        if (depth == remaining.length) {
+            remaining = Arrays.copyOf(remaining, depth * 2);
+            map = Arrays.copyOf(map, depth * 2);
+            keyNext = Arrays.copyOf(keyNext, depth * 2);
+        }
+        remaining[depth] = length;
+        map[depth] = isMap;
+        keyNext[depth] = true;
+        depth++;
+    }
+
+    private String readKey(int initialByte) {
+        int majorType = initialByte & 0xE0;
+        int info = initialByte & 0x1F;
+        if (majorType == MAJOR_TEXT && info != INDEFINITE) {
+            long length = readArgument(info);
+            if (length <= MAX_CACHED_KEY_LENGTH) {
+                return readCachedKey((int) length);
+            }
+            return readDefiniteText(length);
+        }
+        if (majorType == MAJOR_UNSIGNED || majorType == MAJOR_NEGATIVE || majorType == MAJOR_TEXT) {
+            readItem(initialByte);
+            return getString();
+        }
+        throw parsingException("Key not a string or an integer");
+    }
+
+    /*
+     * Return the string of the key of the length at the position, the one cached for the same bytes if any.
+     */
+    private String readCachedKey(int length) {
+        ensureAvailable(length, true);
+        int hash = 0;
+        for (int index = position; index < position + length; index++) {
+            hash = 31 * hash + buffer[index];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+        byte[] cachedBytes = keyBytes[slot];
+        if (null != cachedBytes && cachedBytes.length == length) {
+            int index = 0;
+            while (index < length && cachedBytes[index] == buffer[position + index]) {
+                index++;
+            }
+            if (index == length) {
+                position += length;
+                return keyStrings[slot];
+            }
+        }
+        String key = new String(buffer, position, length, StandardCharsets.UTF_8);
+        keyBytes[slot] = Arrays.copyOfRange(buffer, position, position + length);
+        keyStrings[slot] = key;
+        position += length;
+        return key;
+    }
+
+    private String readText(int info) {
+        if (info == INDEFINITE) {
+            return new String(readBytes(MAJOR_TEXT, info), StandardCharsets.UTF_8);
+        }
+        return readDefiniteText(readArgument(info));
+    }
+
+    private String readDefiniteText(long length) {
+        if (length >= 0 && length <= buffer.length) {
+            ensureAvailable((int) length, true);
+            String text = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return text;
+        }
+        return new String(readFully(length), StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Read the bytes of a byte or text string, concatenating its chunks if of indefinite length.
+     */
+    private byte[] readBytes(int majorType, int info) {
+        if (info != INDEFINITE) {
+            return readFully(readArgument(info));
+        }
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        for (int initialByte = readByte(); initialByte != BREAK; initialByte = readByte()) {
+            if ((initialByte & 0xE0) != majorType || (initialByte & 0x1F) == INDEFINITE) {
+                throw parsingException("Chunk not a string of definite length of the same type");
+            }
+            byte[] chunk = readFully(readArgument(initialByte & 0x1F));
+            chunks.write(chunk, 0, chunk.length);
+        }
+        return chunks.toByteArray();
+    }
+
+    private byte[] readFully(long length) {
+        if (length < 0 || length > Integer.MAX_VALUE - 8) {
+            throw parsingException("String too long");
+        }
+        byte[] bytes = new byte[(int) length];
+        int read = Math.min(limit - position, bytes.length);
+        System.arraycopy(buffer, position, bytes, 0, read);
+        position += read;
+        try {
+            while (read < bytes.length) {
+                int count = inputStream.read(bytes, read, bytes.length - read);
+                if (count < 0) {
+                    throw parsingException("Unexpected end of input");
+                }
+                read += count;
+                offset += count;
+            }
+        } catch (IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+        return bytes;
+    }
+
+    /*
+     * Read the argument following the initial byte, -1 standing for an argument beyond a long
+     * as unsigned values are.
+     */
+    private long readArgument(int info) {
+        if (info < 24) {
+            return info;
+        }
+        int length;
+        switch (info) {
+            case 24:
+                length = 1;
+                break;
+            case 25:
+                length = 2;
+                break;
+            case 26:
+                length = 4;
+                break;
+            case 27:
+                length = 8;
+                break;
+            default:
+                throw parsingException("Unexpected additional information " + info);
+        }
+        ensureAvailable(length, true);
+        long argument = 0;
+        for (int index = 0; index < length; index++) {
+            argument = (argument << 8) | (buffer[position++] & 0xFF);
+        }
+        return argument;
+    }
+
+    private int readByte() {
+        if (position == limit) {
+            ensureAvailable(1, true);
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean ensureAvailable(int length) {
+        return ensureAvailable(length, false);
+    }
+
+    /*
+     * Fill the buffer until the length is available at the position, and tell whether it is.
+     */
+    private boolean ensureAvailable(int length, boolean required) {
+        if (limit - position >= length) {
+            return true;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            offset += position;
+            limit -= position;
+            position = 0;
+        }
+        try {
+            while (limit < length) {
+                int count = inputStream.read(buffer, limit, buffer.length - limit);
+                if (count < 0) {
+                    if (required) {
+                        throw parsingException("Unexpected end of input");
+                    }
+                    return false;
+                }
+                limit += count;
+            }
+        } catch (IOException e) {
+            throw new JsonException(e.getMessage(), e);
+        }
+        return true;
+    }
+
+    private JsonParsingException parsingException(String message) {
+        return new JsonParsingException(message, getLocation());
+    }
+
+}
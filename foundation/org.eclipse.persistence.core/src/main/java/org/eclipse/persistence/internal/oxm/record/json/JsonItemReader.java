@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.oxm.record.json;
+
+import java.io.Closeable;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.transform.Source;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonLocation;
+import jakarta.json.stream.JsonParser;
+
+import org.eclipse.persistence.exceptions.XMLMarshalException;
+import org.eclipse.persistence.oxm.json.JsonParserSource;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose:</b>Read the items at a path of a JSON document one at a time, for them to be unmarshalled
+ * without the rest of the document.
+ * <p><b>Responsibilities:</b><ul>
+ * <li>Follow the member names of the path from the root value, through the arrays met on the way</li>
+ * <li>Return each value at the end of the path as an item, or each element of it if it is an array</li>
+ * <li>Skip the other values as they are read, without building them</li></ul>
+ * <p>The source of an item reads the document parser up to the end of the item, so the items
+ * are to be unmarshalled in turn.
+ */
+public final class JsonItemReader implements Closeable {
+
+    private final JsonParser parser;
+    private final String[] path;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private boolean rootRead;
+
+    public JsonItemReader(InputStream inputStream, String itemPath) {
+        this(inputStream, itemPath, false);
+    }
+
+    /**
+     * Reader of the items of the document, a CBOR one read as JSON if cbor, else JSON text.
+     */
+    public JsonItemReader(InputStream inputStream, String itemPath, boolean cbor) {
+        this.parser = cbor ? new CborParser(inputStream) : Json.createParser(inputStream);
+        this.path = splitPath(itemPath);
+    }
+
+    public JsonItemReader(Reader reader, String itemPath) {
+        this.parser = Json.createParser(reader);
+        this.path = splitPath(itemPath);
+    }
+
+    /**
+     * Return the names of the path, separated by '/', an empty or null path being the root value.
+     */
+    public static String[] splitPath(String itemPath) {
+        if (null == itemPath) {
+            return new String[0];
+        }
+        String trimmedPath = itemPath.trim();
+        if (trimmedPath.startsWith("/")) {
+            trimmedPath = trimmedPath.substring(1);
+        }
+        if (trimmedPath.isEmpty()) {
+            return new String[0];
+        }
+        return trimmedPath.split("/");
+    }
+
+    /**
+     * Return the source of the next item, or null if there are no more items.
+     */
+    public Source nextItem() {
+        try {
+            while (parser.hasNext()) {
+                JsonParser.Event event = parser.next();
+                Frame frame = stack.peek();
+                if (null == frame) {
+                    if (rootRead) {
+                        return null;
+                    }
+                    rootRead = true;
+                    if (visit(event, 0)) {
+                        return itemSource(event);
+                    }
+                } else if (frame.object) {
+                    if (event == JsonParser.Event.END_OBJECT) {
+                        stack.pop();
+                    } else {
+                        String name = parser.getString();
+                        JsonParser.Event valueEvent = parser.next();
+                        if (name.equals(path[frame.level])) {
+                            if (visit(valueEvent, frame.level + 1)) {
+                                return itemSource(valueEvent);
+                            }
+                        } else {
+                            skip(valueEvent);
+                        }
+                    }
+                } else if (event == JsonParser.Event.END_ARRAY) {
+                    stack.pop();
+                } else if (frame.items || visit(event, frame.level)) {
+                    return itemSource(event);
+                }
+            }
+            return null;
+        } catch (JsonException e) {
+            throw XMLMarshalException.unmarshalException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        parser.close();
+    }
+
+    /*
+     * Enter the value, and return if it is an item.
+     */
+    private boolean visit(JsonParser.Event event, int level) {
+        if (level == path.length) {
+            if (event == JsonParser.Event.START_ARRAY) {
+                stack.push(new Frame(false, level, true));
+                return false;
+            }
+            return true;
+        }
+        if (event == JsonParser.Event.START_OBJECT) {
+            stack.push(new Frame(true, level, false));
+        } else if (event == JsonParser.Event.START_ARRAY) {
+            stack.push(new Frame(false, level, false));
+        }
+        return false;
+    }
+
+    /*
+     * Read past the value, without building it.
+     */
+    private void skip(JsonParser.Event event) {
+        if (event != JsonParser.Event.START_OBJECT && event != JsonParser.Event.START_ARRAY) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private Source itemSource(JsonParser.Event event) {
+        return new JsonParserSource(new ItemParser(parser, event));
+    }
+
+    /**
+     * An object or array entered on the path.
+     */
+    private static final class Frame {
+
+        private final boolean object;
+        private final int level;
+        private final boolean items;
+
+        Frame(boolean object, int level, boolean items) {
+            this.object = object;
+            this.level = level;
+            this.items = items;
+        }
+    }
+
+    /**
+     * The document parser, positioned before the first event of an item, already read.
+     */
+    private static final class ItemParser implements JsonParser {
+
+        private final JsonParser parser;
+        private Event firstEvent;
+
+        ItemParser(JsonParser parser, Event firstEvent) {
+            this.parser = parser;
+            this.firstEvent = firstEvent;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != firstEvent || parser.hasNext();
+        }
+
+        @Override
+        public Event next() {
+            if (null != firstEvent) {
+                Event event = firstEvent;
+                firstEvent = null;
+                return event;
+            }
+            return parser.next();
+        }
+
+        @Override
+        public String getString() {
+            return parser.getString();
+        }
+
+        @Override
+        public boolean isIntegralNumber() {
+            return parser.isIntegralNumber();
+        }
+
+        @Override
+        public int getInt() {
+            return parser.getInt();
+        }
+
+        @Override
+        public long getLong() {
+            return parser.getLong();
+        }
+
+        @Override
+        public BigDecimal getBigDecimal() {
+            return parser.getBigDecimal();
+        }
+
+        @Override
+        public JsonLocation getLocation() {
+            return parser.getLocation();
+        }
+
+        @Override
+        public JsonObject getObject() {
+            return parser.getObject();
+        }
+
+        @Override
+        public JsonValue getValue() {
+            return parser.getValue();
+        }
+
+        @Override
+        public JsonArray getArray() {
+            return parser.getArray();
+        }
+
+        @Override
+        public void skipObject() {
+            parser.skipObject();
+        }
+
+        @Override
+        public void skipArray() {
+            parser.skipArray();
+        }
+
+        /**
+         * The document parser is closed with the item reader, not after each item.
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
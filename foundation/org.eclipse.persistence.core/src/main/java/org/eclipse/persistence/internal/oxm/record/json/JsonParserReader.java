@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -21,8 +21,12 @@
 import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
+import java.util.Map.Entry;
 
 import jakarta.json.Json;
 import jakarta.json.JsonArrayBuilder;
@@ -30,7 +34,9 @@
 import jakarta.json.JsonObjectBuilder;
 import jakarta.json.JsonStructure;
 import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
 import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
 
 import org.eclipse.persistence.exceptions.XMLMarshalException;
 import org.eclipse.persistence.internal.oxm.Constants;
@@ -40,7 +46,11 @@
 import org.eclipse.persistence.internal.oxm.mappings.Field;
 import org.eclipse.persistence.internal.oxm.record.AbstractUnmarshalRecord;
 import org.eclipse.persistence.internal.oxm.record.ExtendedContentHandler;
+import org.eclipse.persistence.internal.oxm.record.SAXUnmarshallerHandler;
 import org.eclipse.persistence.internal.oxm.record.XMLReaderAdapter;
+import org.eclipse.persistence.internal.oxm.record.json.JsonStructureReader.ArrayElement;
+import org.eclipse.persistence.internal.oxm.record.json.JsonStructureReader.Element;
+import org.eclipse.persistence.internal.oxm.record.json.JsonStructureReader.StreamedObject;
 import org.eclipse.persistence.oxm.mappings.nullpolicy.AbstractNullPolicy;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.ErrorHandler;
@@ -49,6 +59,11 @@
 
 /**
  * Reader for JSR-353 stream (StAX) parser.
+ * <p>
+ * The parser events are reported to the content handler as they are read, without building the
+ * JSON structure of the document. Only values the content handler needs ahead of their turn are
+ * built: the members of a JSON object read ahead when its attributes are looked up, the value
+ * wrapper member reported after the other members of its object and the arrays nested in arrays.
  * 
  * Could be instantiated with {@link JsonParserReader.JsonParserReaderBuilder#build()};
  */
@@ -58,7 +73,17 @@ public final class JsonParserReader extends XMLReaderAdapter {
     private final JsonStructureReader structureReader;
 
     /**
-     * Parsing stack
+     * Whether the documents parsed are CBOR, the binary form of JSON
+     */
+    private final boolean cbor;
+
+    /**
+     * The parser being read
+     */
+    private JsonParser jsonParser;
+
+    /**
+     * Parsing stack, for the values read ahead
      */
     private final Deque<JsonStructureBuilder> stack = new ArrayDeque<>();
 
@@ -72,6 +97,7 @@ private JsonParserReader(JsonParserReaderBuilder b) {
             this.structureReader = new JsonStructureReader(b.um);
         else
             this.structureReader = new JsonStructureReader(b.um, b.resultClass);
+        this.cbor = b.um != null && b.um.getMediaType() != null && b.um.getMediaType().isApplicationCBOR();
     }
 
     @Override
@@ -82,6 +108,9 @@ public void parse(InputSource input) throws IOException, SAXException {
         }
 
         if (null != input.getCharacterStream()) {
+            if (cbor) {
+                throw XMLMarshalException.binaryMediaTypeRequiresStream(org.eclipse.persistence.oxm.MediaType.APPLICATION_CBOR.getMediaType());
+            }
             doParsing(Json.createParser(input.getCharacterStream()));
             return;
         }
@@ -89,7 +118,7 @@ public void parse(InputSource input) throws IOException, SAXException {
         InputStream inputStream = null;
         try {
             if (null != (inputStream = input.getByteStream())) {
-                doParsing(Json.createParser(inputStream));
+                doParsing(createParser(inputStream));
                 return;
             }
 
@@ -103,7 +132,7 @@ public void parse(InputSource input) throws IOException, SAXException {
                     throw malformedURLException;
                 }
             }
-            doParsing(Json.createParser(inputStream));
+            doParsing(createParser(inputStream));
         } catch (JsonException je) {
             throw XMLMarshalException.unmarshalException(je);
         } finally {
@@ -122,28 +151,263 @@ public void parse(String systemId) {
         }
     }
 
-    private void doParsing(JsonParser parser) throws SAXException, IOException {
-        JsonStructureBuilder builder = null;
-        while (parser.hasNext()) {
-            builder = parseEvent(parser);
+    private JsonParser createParser(InputStream inputStream) {
+        return cbor ? new CborParser(inputStream) : Json.createParser(inputStream);
+    }
+
+    private void doParsing(JsonParser parser) throws SAXException {
+        this.jsonParser = parser;
+        if (parser.hasNext()) {
+            parseRoot(parser.next());
+        }
+    }
+
+    /*
+     * Same events as JsonStructureReader.parseRoot(JsonValue).
+     */
+    private void parseRoot(Event event) throws SAXException {
+        structureReader.startPrefixMappings();
+
+        switch (event) {
+            case START_OBJECT: {
+                getContentHandler().startDocument();
+                ObjectFrame object = new ObjectFrame();
+                if (object.ended && structureReader.getUnmarshalClass() == null) {
+                    return;
+                }
+
+                if (structureReader.isIncludeRoot()) {
+                    String name = object.nextName();
+                    if (name != null) {
+                        parsePair(name, jsonParser.next(), null);
+                        object.skip();
+                    }
+                } else {
+                    getContentHandler().startElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null, structureReader.attributes(object));
+                    parseMembers(object, null);
+                    getContentHandler().endElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null);
+                }
+                getContentHandler().endDocument();
+                break;
+            }
+            case START_ARRAY: {
+                SAXUnmarshallerHandler rootContentHandler = null;
+                if (getContentHandler() instanceof SAXUnmarshallerHandler) {
+                    rootContentHandler = (SAXUnmarshallerHandler) getContentHandler();
+                }
+                List<Object> list = new ArrayList<>();
+                for (Event item = jsonParser.next(); item != Event.END_ARRAY; item = jsonParser.next()) {
+                    parseRoot(item);
+                    structureReader.addRootObject(list);
+                }
+                structureReader.setRootObjects(list, rootContentHandler);
+                break;
+            }
+            default: {
+                getContentHandler().startDocument();
+                structureReader.parseValue(readValue(event));
+            }
+        }
+    }
+
+    /*
+     * Report the members of the object, the members read ahead first, as they come before the parser position,
+     * and the value wrapper member last if any.
+     */
+    private void parseMembers(ObjectFrame object, String textWrapper) throws SAXException {
+        String xmlValueName = null;
+        JsonValue xmlValue = null;
+        while (true) {
+            Entry<String, JsonValue> member = object.nextReadAhead();
+            if (member != null) {
+                if (textWrapper != null && textWrapper.equals(member.getKey())) {
+                    xmlValueName = member.getKey();
+                    xmlValue = member.getValue();
+                } else {
+                    structureReader.parsePair(member.getKey(), member.getValue());
+                }
+                continue;
+            }
+            String name = object.nextName();
+            if (name == null) {
+                break;
+            }
+            object.inMember = true;
+            Event event = jsonParser.next();
+            if (textWrapper != null && textWrapper.equals(name)) {
+                xmlValueName = name;
+                xmlValue = readValue(event);
+                object.addAttributes(name, xmlValue);
+            } else {
+                parsePair(name, event, object);
+            }
+            object.inMember = false;
+        }
+        //Proceed JSON value mapped to @XmlValue property as a last
+        if (xmlValue != null) {
+            structureReader.parsePair(xmlValueName, xmlValue);
+        }
+    }
+
+    /*
+     * Report the pair, its value starting with the event, as a member of the owner object, if any.
+     */
+    private void parsePair(String name, Event event, ObjectFrame owner) throws SAXException {
+        switch (event) {
+            case START_ARRAY: {
+                parseArray(name, owner);
+                break;
+            }
+            case START_OBJECT: {
+                Element element = structureReader.startPair(name);
+                if (element == null) {
+                    skipValue(event);
+                    return;
+                }
+                ObjectFrame object = new ObjectFrame();
+                if (element == Element.TEXT) {
+                    parseMembers(object, structureReader.getTextWrapper());
+                    return;
+                }
+                getContentHandler().startElement(element.uri, element.localName, element.localName, structureReader.attributes(object));
+                parseMembers(object, structureReader.getTextWrapper());
+                getContentHandler().endElement(element.uri, element.localName, element.localName);
+                break;
+            }
+            default: {
+                JsonValue value = readValue(event);
+                if (owner != null) {
+                    owner.addAttributes(name, value);
+                }
+                structureReader.parsePair(name, value);
+            }
+        }
+    }
+
+    private void parseArray(String name, ObjectFrame owner) throws SAXException {
+        Event event = jsonParser.next();
+        if (owner != null && event == Event.END_ARRAY) {
+            owner.addAttributes(name, JsonValue.EMPTY_JSON_ARRAY);
+        }
+        ArrayElement arrayElement = structureReader.startArray(name, event == Event.END_ARRAY);
+        boolean hasItems = arrayElement != null && arrayElement.hasItems();
+        for (; event != Event.END_ARRAY; event = jsonParser.next()) {
+            switch (event) {
+                case START_ARRAY: {
+                    JsonValue nestedArray = readValue(event);
+                    if (hasItems) {
+                        arrayElement.startItem(nestedArray);
+                        //Internally store each nested array it as JsonObject with name: "item"
+                        structureReader.parseValue(JsonStructureReader.wrapNestedArray(nestedArray));
+                        arrayElement.endItem();
+                    }
+                    break;
+                }
+                case START_OBJECT: {
+                    if (hasItems) {
+                        ObjectFrame item = new ObjectFrame();
+                        arrayElement.startItem(item);
+                        parseMembers(item, structureReader.getTextWrapper());
+                        arrayElement.endItem();
+                    } else {
+                        skipValue(event);
+                    }
+                    break;
+                }
+                default: {
+                    JsonValue item = readValue(event);
+                    if (owner != null) {
+                        owner.addAttributes(name, item);
+                    }
+                    if (hasItems) {
+                        arrayElement.startItem(item);
+                        structureReader.parseValue(item);
+                        arrayElement.endItem();
+                    }
+                }
+            }
+        }
+        if (arrayElement != null) {
+            arrayElement.end();
+        }
+    }
+
+    /*
+     * Return the provider of the values read ahead.
+     */
+    private static JsonProvider provider() {
+        return ProviderHolder.PROVIDER;
+    }
+
+    /*
+     * Build the value starting with the event.
+     */
+    private JsonValue readValue(Event event) {
+        switch (event) {
+            case START_ARRAY:
+            case START_OBJECT: {
+                if (event == Event.START_ARRAY) {
+                    stack.push(new ArrayBuilder(provider().createArrayBuilder()));
+                } else {
+                    stack.push(new ObjectBuilder(provider().createObjectBuilder()));
+                }
+                JsonStructureBuilder builder;
+                do {
+                    builder = parseEvent(jsonParser);
+                } while (builder == null || !stack.isEmpty());
+                return builder.build();
+            }
+            case VALUE_STRING:
+                return provider().createValue(jsonParser.getString());
+            case VALUE_NUMBER:
+                return provider().createValue(jsonParser.getBigDecimal());
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            default:
+                throw new IllegalStateException("Unhandled event: " + event);
+        }
+    }
+
+    /*
+     * Skip the value starting with the event.
+     */
+    private void skipValue(Event event) {
+        if (event != Event.START_ARRAY && event != Event.START_OBJECT) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            switch (jsonParser.next()) {
+                case START_ARRAY:
+                case START_OBJECT:
+                    depth++;
+                    break;
+                case END_ARRAY:
+                case END_OBJECT:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
         }
-        assert builder != null;
-        JsonStructure jsonStructure = builder.build();
-        structureReader.parseRoot(jsonStructure);
     }
 
-    private JsonStructureBuilder parseEvent(JsonParser jp) throws SAXException {
+    private JsonStructureBuilder parseEvent(JsonParser jp) {
         JsonParser.Event e = jp.next();
 
         JsonStructureBuilder top = stack.peek();
         switch (e) {
             case START_ARRAY: {
-                JsonStructureBuilder b = new ArrayBuilder(Json.createArrayBuilder());
+                JsonStructureBuilder b = new ArrayBuilder(provider().createArrayBuilder());
                 stack.push(b);
                 break;
             }
             case START_OBJECT: {
-                JsonStructureBuilder b = new ObjectBuilder(Json.createObjectBuilder());
+                JsonStructureBuilder b = new ObjectBuilder(provider().createObjectBuilder());
                 stack.push(b);
                 break;
             }
@@ -232,6 +496,90 @@ public boolean isNamespaceAware() {
     }
     // ************************************************************************************************************
 
+    /**
+     * JSON object being read, its first member name read on start to tell whether it is empty.
+     */
+    private final class ObjectFrame implements StreamedObject {
+        private String pendingName;
+        private boolean ended;
+        private boolean inMember;
+        private List<Attribute> attributes;
+        private Deque<Entry<String, JsonValue>> readAhead;
+
+        private ObjectFrame() {
+            if (jsonParser.next() == Event.END_OBJECT) {
+                ended = true;
+            } else {
+                pendingName = jsonParser.getString();
+            }
+        }
+
+        /*
+         * Return the name of the next member from the parser, or null at the end of the object.
+         */
+        private String nextName() {
+            if (pendingName != null) {
+                String name = pendingName;
+                pendingName = null;
+                return name;
+            }
+            if (ended) {
+                return null;
+            }
+            if (jsonParser.next() == Event.END_OBJECT) {
+                ended = true;
+                return null;
+            }
+            return jsonParser.getString();
+        }
+
+        private Entry<String, JsonValue> nextReadAhead() {
+            return readAhead == null ? null : readAhead.poll();
+        }
+
+        /*
+         * Add the attributes of a member read from the parser, as long as they are those reported.
+         */
+        private void addAttributes(String name, JsonValue value) {
+            if (structureReader.isReportingAttributes(this)) {
+                structureReader.addAttributes(getAttributes(), name, value);
+            }
+        }
+
+        private void skip() {
+            readAhead = null;
+            for (String name = nextName(); name != null; name = nextName()) {
+                skipValue(jsonParser.next());
+            }
+        }
+
+        @Override
+        public List<Attribute> getAttributes() {
+            if (attributes == null) {
+                attributes = new ArrayList<>();
+            }
+            return attributes;
+        }
+
+        @Override
+        public boolean readAhead() {
+            if (inMember) {
+                return false;
+            }
+            String name = nextName();
+            if (name == null) {
+                return false;
+            }
+            JsonValue value = readValue(jsonParser.next());
+            if (readAhead == null) {
+                readAhead = new ArrayDeque<>();
+            }
+            readAhead.add(new SimpleImmutableEntry<>(name, value));
+            structureReader.addAttributes(getAttributes(), name, value);
+            return true;
+        }
+    }
+
     /**
      * JsonStructure builder
      */
@@ -256,11 +604,21 @@ private static interface JsonStructureBuilder {
      */
     public static final class JsonParserReaderBuilder {
         private final JsonParser parser;
+        private final boolean parserRequired;
         private Unmarshaller um;
         private Class resultClass;
 
         public JsonParserReaderBuilder(JsonParser parser) {
             this.parser = parser;
+            this.parserRequired = true;
+        }
+
+        /**
+         * Builder of a reader of the documents of the input sources parsed, with no parser of its own.
+         */
+        public JsonParserReaderBuilder() {
+            this.parser = null;
+            this.parserRequired = false;
         }
 
         public JsonParserReaderBuilder setUnmarshaller(Unmarshaller um) {
@@ -274,7 +632,7 @@ public JsonParserReaderBuilder setResultClass(Class resultClass) {
         }
 
         public JsonParserReader build() {
-            if (parser == null)
+            if (parser == null && parserRequired)
                 throw new NullPointerException("JsonParser can't be null");
             return new JsonParserReader(this);
         }
@@ -366,4 +724,12 @@ public void setKey(String key) {
             // noop
         }
     }
+
+    /**
+     * Looking the provider up loads its services, too slow to do for each reader when
+     * the items of a document are unmarshalled one at a time. It is looked up once, on its first use.
+     */
+    private static final class ProviderHolder {
+        private static final JsonProvider PROVIDER = JsonProvider.provider();
+    }
 }
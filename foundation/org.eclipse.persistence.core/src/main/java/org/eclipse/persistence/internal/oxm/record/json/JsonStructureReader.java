@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -62,6 +62,7 @@
 import org.eclipse.persistence.internal.oxm.record.deferred.DeferredContentHandler;
 import org.eclipse.persistence.oxm.mappings.nullpolicy.AbstractNullPolicy;
 import org.eclipse.persistence.oxm.record.XMLRootRecord;
+import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.AttributesImpl;
@@ -161,12 +162,7 @@ public void parse(String systemId) {
     }
 
     public void parseRoot(JsonValue jsonValue) throws SAXException {
-        if (namespaces != null) {
-            Map<String, String> namespacePairs = namespaces.getPrefixesToNamespaces();
-            for (Entry<String, String> namespacePair : namespacePairs.entrySet()) {
-                contentHandler.startPrefixMapping(namespacePair.getKey(), namespacePair.getValue());
-            }
-        }
+        startPrefixMappings();
 
         if (jsonValue.getValueType() == ValueType.OBJECT) {
             contentHandler.startDocument();
@@ -187,7 +183,7 @@ public void parseRoot(JsonValue jsonValue) throws SAXException {
 
             } else {
 
-                contentHandler.startElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null, attributes.setValue(jsonValue, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
+                contentHandler.startElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null, attributes(jsonValue));
 
                 while (iter.hasNext()) {
                     Entry<String, JsonValue> nextEntry = iter.next();
@@ -207,38 +203,9 @@ public void parseRoot(JsonValue jsonValue) throws SAXException {
             List<Object> list = new ArrayList<>(jsonArray.size());
             for (JsonValue aJsonArray : jsonArray) {
                 parseRoot(aJsonArray);
-                if (getContentHandler() instanceof SAXUnmarshallerHandler) {
-                    SAXUnmarshallerHandler saxUnmarshallerHandler = (SAXUnmarshallerHandler) contentHandler;
-                    list.add(saxUnmarshallerHandler.getObject());
-                    saxUnmarshallerHandler.setObject(null);
-                } else if (getContentHandler() instanceof UnmarshalRecord) {
-                    UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
-                    Object unmarshalledObject = unmarshalRecord.getCurrentObject();
-                    if (includeRoot && unmarshalClass != null) {
-                        if (!(unmarshalledObject instanceof Root)) {
-                            Root xmlRoot = unmarshalRecord.createRoot();
-                            xmlRoot.setNamespaceURI(unmarshalRecord.getRootElementNamespaceUri());
-                            xmlRoot.setLocalName(unmarshalRecord.getLocalName());
-                            xmlRoot.setObject(unmarshalledObject);
-                            unmarshalledObject = xmlRoot;
-                        }
-                    }
-                    list.add(unmarshalledObject);
-                    unmarshalRecord.setCurrentObject(null);
-                    unmarshalRecord.setRootElementName(null);
-                    unmarshalRecord.setLocalName(null);
-                }
-            }
-            if (getContentHandler() instanceof SAXUnmarshallerHandler) {
-                ((SAXUnmarshallerHandler) getContentHandler()).setObject(list);
-            } else if (getContentHandler() instanceof UnmarshalRecord) {
-                ((UnmarshalRecord) getContentHandler()).setCurrentObject(list);
-                ((UnmarshalRecord) getContentHandler()).setRootElementName(Constants.EMPTY_STRING);
-                ((UnmarshalRecord) getContentHandler()).setLocalName(Constants.EMPTY_STRING);
-                if (rootContentHandler != null) {
-                    rootContentHandler.setObject(list);
-                }
+                addRootObject(list);
             }
+            setRootObjects(list, rootContentHandler);
 
         } else {
             getContentHandler().startDocument();
@@ -246,7 +213,59 @@ public void parseRoot(JsonValue jsonValue) throws SAXException {
         }
     }
 
-    private void parseValue(JsonValue jsonValue) throws SAXException {
+    void startPrefixMappings() throws SAXException {
+        if (namespaces != null) {
+            Map<String, String> namespacePairs = namespaces.getPrefixesToNamespaces();
+            for (Entry<String, String> namespacePair : namespacePairs.entrySet()) {
+                contentHandler.startPrefixMapping(namespacePair.getKey(), namespacePair.getValue());
+            }
+        }
+    }
+
+    /**
+     * Add the object unmarshalled from an item of a root JSON array to the list of root objects.
+     */
+    void addRootObject(List<Object> list) {
+        if (getContentHandler() instanceof SAXUnmarshallerHandler) {
+            SAXUnmarshallerHandler saxUnmarshallerHandler = (SAXUnmarshallerHandler) contentHandler;
+            list.add(saxUnmarshallerHandler.getObject());
+            saxUnmarshallerHandler.setObject(null);
+        } else if (getContentHandler() instanceof UnmarshalRecord) {
+            UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
+            Object unmarshalledObject = unmarshalRecord.getCurrentObject();
+            if (includeRoot && unmarshalClass != null) {
+                if (!(unmarshalledObject instanceof Root)) {
+                    Root xmlRoot = unmarshalRecord.createRoot();
+                    xmlRoot.setNamespaceURI(unmarshalRecord.getRootElementNamespaceUri());
+                    xmlRoot.setLocalName(unmarshalRecord.getLocalName());
+                    xmlRoot.setObject(unmarshalledObject);
+                    unmarshalledObject = xmlRoot;
+                }
+            }
+            list.add(unmarshalledObject);
+            unmarshalRecord.setCurrentObject(null);
+            unmarshalRecord.setRootElementName(null);
+            unmarshalRecord.setLocalName(null);
+        }
+    }
+
+    /**
+     * Set the objects unmarshalled from the items of a root JSON array as the result of the unmarshal.
+     */
+    void setRootObjects(List<Object> list, SAXUnmarshallerHandler rootContentHandler) {
+        if (getContentHandler() instanceof SAXUnmarshallerHandler) {
+            ((SAXUnmarshallerHandler) getContentHandler()).setObject(list);
+        } else if (getContentHandler() instanceof UnmarshalRecord) {
+            ((UnmarshalRecord) getContentHandler()).setCurrentObject(list);
+            ((UnmarshalRecord) getContentHandler()).setRootElementName(Constants.EMPTY_STRING);
+            ((UnmarshalRecord) getContentHandler()).setLocalName(Constants.EMPTY_STRING);
+            if (rootContentHandler != null) {
+                rootContentHandler.setObject(list);
+            }
+        }
+    }
+
+    void parseValue(JsonValue jsonValue) throws SAXException {
         switch (jsonValue.getValueType()) {
             case STRING: {
                 String string = ((JsonString) jsonValue).getString();
@@ -296,7 +315,7 @@ private void parseValue(JsonValue jsonValue) throws SAXException {
         }
     }
 
-    private void parsePair(String name, JsonValue jsonValue) throws SAXException {
+    void parsePair(String name, JsonValue jsonValue) throws SAXException {
         if (jsonValue == null) {
             return;
         }
@@ -304,199 +323,210 @@ private void parsePair(String name, JsonValue jsonValue) throws SAXException {
 
         if (valueType == ValueType.ARRAY) {
             JsonArray jsonArray = (JsonArray) jsonValue;
-            String parentLocalName = name;
-
-            if (attributePrefix != null && parentLocalName.startsWith(attributePrefix)) {
-                // do nothing;
+            ArrayElement arrayElement = startArray(name, jsonArray.isEmpty());
+            if (arrayElement == null) {
                 return;
             }
-            String uri = Constants.EMPTY_STRING;
-            if (isNamespaceAware() && namespaces != null) {
-                if (parentLocalName.length() > 2) {
-                    int nsIndex = parentLocalName.indexOf(getNamespaceSeparator(), 1);
-                    if (nsIndex > -1) {
-                        String prefix = parentLocalName.substring(0, nsIndex);
-                        uri = namespaces.resolveNamespacePrefix(prefix);
-                    }
-                    if (uri == null || uri == Constants.EMPTY_STRING) {
-                        uri = namespaces.getDefaultNamespaceURI();
-                    } else {
-                        parentLocalName = parentLocalName.substring(nsIndex + 1);
-                    }
-                } else {
-                    uri = namespaces.getDefaultNamespaceURI();
-                }
-            }
-
-            boolean isTextValue;
-            int arraySize = jsonArray.size();
-            if (arraySize == 0) {
-                if (contentHandler instanceof UnmarshalRecord || isUnmarshalRecordWithinAdapter()) {
-                    final UnmarshalRecord ur = this.contentHandler instanceof UnmarshalRecord ? (UnmarshalRecord) this.contentHandler : getUnmarshalRecordFromAdapter();
-                    XPathNode node = ur.getNonAttributeXPathNode(uri, parentLocalName, parentLocalName, null);
-                    if (node != null) {
-                        NodeValue nv = node.getNodeValue();
-                        if (nv == null && node.getTextNode() != null) {
-                            nv = node.getTextNode().getUnmarshalNodeValue();
-                        }
-                        if (nv != null && nv.isContainerValue()) {
-                            ur.getContainerInstance(((ContainerValue) nv));
-                        }
-                    }
-                }
-            }
-            startCollection();
-
-            XPathFragment groupingXPathFragment = null;
-            XPathFragment itemXPathFragment = null;
-            if (contentHandler instanceof UnmarshalRecord || isUnmarshalRecordWithinAdapter()) {
-                final UnmarshalRecord contentHandler_ = contentHandler instanceof UnmarshalRecord ? (UnmarshalRecord) contentHandler : getUnmarshalRecordFromAdapter();
-                isTextValue = isTextValue(parentLocalName, contentHandler_);
-                UnmarshalRecord unmarshalRecord = contentHandler_;
-                if (unmarshalRecord.getUnmarshaller().isWrapperAsCollectionName()) {
-                    XPathNode unmarshalRecordXPathNode = unmarshalRecord.getXPathNode();
-                    if (null != unmarshalRecordXPathNode) {
-                        XPathFragment currentFragment = new XPathFragment();
-                        currentFragment.setLocalName(parentLocalName);
-                        currentFragment.setNamespaceURI(uri);
-                        currentFragment.setNamespaceAware(isNamespaceAware());
-                        XPathNode groupingXPathNode = unmarshalRecordXPathNode.getNonAttributeChildrenMap().get(currentFragment);
-                        if (groupingXPathNode != null) {
-                            if (groupingXPathNode.getUnmarshalNodeValue() instanceof CollectionGroupingElementNodeValue) {
-                                groupingXPathFragment = groupingXPathNode.getXPathFragment();
-                                contentHandler_.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
-                                XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
-                                itemXPathFragment = itemXPathNode.getXPathFragment();
-                            } else if (groupingXPathNode.getUnmarshalNodeValue() == null) {
-                                XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
-                                if (itemXPathNode != null) {
-                                    if ((itemXPathNode.getUnmarshalNodeValue()).isContainerValue()) {
-                                        groupingXPathFragment = groupingXPathNode.getXPathFragment();
-                                        contentHandler_.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
-                                        itemXPathFragment = itemXPathNode.getXPathFragment();
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-
+            if (arrayElement.hasItems()) {
                 for (JsonValue nextArrayValue : jsonArray) {
-                    if (nextArrayValue.getValueType() == ValueType.NULL) {
-                        contentHandler.setNil(true);
-                    }
-
-                    if (!isTextValue) {
-                        if (null != itemXPathFragment) {
-                            contentHandler.startElement(itemXPathFragment.getNamespaceURI(), itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName(), attributes.setValue(nextArrayValue, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
-                        } else {
-                            contentHandler.startElement(uri, parentLocalName, parentLocalName, attributes.setValue(nextArrayValue, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
-                        }
-
-                    }
+                    arrayElement.startItem(nextArrayValue);
                     //Internally store each nested array it as JsonObject with name: "item"
                     if (valueType == nextArrayValue.getValueType()) {
-                        JsonBuilderFactory factory = Json.createBuilderFactory(null);
-                        JsonObjectBuilder jsonObjectBuilder = factory.createObjectBuilder();
-                        jsonObjectBuilder.add("item", nextArrayValue);
-                        nextArrayValue = jsonObjectBuilder.build();
+                        nextArrayValue = wrapNestedArray(nextArrayValue);
                     }
                     parseValue(nextArrayValue);
-                    if (!isTextValue) {
-                        if (null != itemXPathFragment) {
-                            contentHandler.endElement(itemXPathFragment.getNamespaceURI(), itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName());
-                        } else {
-                            contentHandler.endElement(uri, parentLocalName, parentLocalName);
-                        }
-                    }
+                    arrayElement.endItem();
                 }
             }
-            if (null != groupingXPathFragment) {
-                contentHandler.endElement(uri, groupingXPathFragment.getLocalName(), groupingXPathFragment.getLocalName());
-            }
-            endCollection();
+            arrayElement.end();
         } else {
-            if (attributePrefix != null && name.startsWith(attributePrefix)) {
+            Element element = startPair(name);
+            if (element == null) {
+                return;
+            }
+            if (element == Element.TEXT) {
+                parseValue(jsonValue);
                 return;
             }
-            String localName = name;
-            String uri = Constants.EMPTY_STRING;
-            if (isNamespaceAware() && namespaces != null) {
-                if (localName.length() > 2) {
-                    int nsIndex = localName.indexOf(getNamespaceSeparator(), 1);
-                    String prefix = Constants.EMPTY_STRING;
-                    if (nsIndex > -1) {
-                        prefix = localName.substring(0, nsIndex);
-                    }
-                    uri = namespaces.resolveNamespacePrefix(prefix);
-                    if (uri == null || uri == Constants.EMPTY_STRING) {
-                        uri = namespaces.getDefaultNamespaceURI();
-                    } else {
-                        localName = localName.substring(nsIndex + 1);
-                    }
 
-                    if (localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && uri != null && uri.equals(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI)) {
-                        return;
-                    }
-                } else {
+            if (jsonValue.getValueType() == ValueType.NULL) {
+                contentHandler.setNil(true);
+            }
+
+            contentHandler.startElement(element.uri, element.localName, element.localName, attributes(jsonValue));
+            parseValue(jsonValue);
+            contentHandler.endElement(element.uri, element.localName, element.localName);
+
+        }
+
+    }
+
+    /**
+     * Return the array nested in a JSON array as a JSON object, with the nested array as its "item".
+     */
+    static JsonValue wrapNestedArray(JsonValue nestedArray) {
+        JsonBuilderFactory factory = Json.createBuilderFactory(null);
+        JsonObjectBuilder jsonObjectBuilder = factory.createObjectBuilder();
+        jsonObjectBuilder.add("item", nestedArray);
+        return jsonObjectBuilder.build();
+    }
+
+    /**
+     * Start the collection of a JSON pair with an array value.
+     * Return the element its items are reported as, or null if the pair is an attribute.
+     */
+    ArrayElement startArray(String name, boolean isEmpty) throws SAXException {
+        String parentLocalName = name;
+
+        if (attributePrefix != null && parentLocalName.startsWith(attributePrefix)) {
+            // do nothing;
+            return null;
+        }
+        String uri = Constants.EMPTY_STRING;
+        if (isNamespaceAware() && namespaces != null) {
+            if (parentLocalName.length() > 2) {
+                int nsIndex = parentLocalName.indexOf(getNamespaceSeparator(), 1);
+                if (nsIndex > -1) {
+                    String prefix = parentLocalName.substring(0, nsIndex);
+                    uri = namespaces.resolveNamespacePrefix(prefix);
+                }
+                if (uri == null || uri == Constants.EMPTY_STRING) {
                     uri = namespaces.getDefaultNamespaceURI();
+                } else {
+                    parentLocalName = parentLocalName.substring(nsIndex + 1);
                 }
+            } else {
+                uri = namespaces.getDefaultNamespaceURI();
             }
-            if (contentHandler instanceof XMLRootRecord || contentHandler instanceof DeferredContentHandler) {
-                if (jsonTypeCompatibility) {
-                    // if its not namespaceAware don't report the "type" child as it
-                    // is will be read by the xsi:type lookup
-                    if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE)) {
-                        return;
+        }
+
+        if (isEmpty) {
+            if (contentHandler instanceof UnmarshalRecord || isUnmarshalRecordWithinAdapter()) {
+                final UnmarshalRecord ur = this.contentHandler instanceof UnmarshalRecord ? (UnmarshalRecord) this.contentHandler : getUnmarshalRecordFromAdapter();
+                XPathNode node = ur.getNonAttributeXPathNode(uri, parentLocalName, parentLocalName, null);
+                if (node != null) {
+                    NodeValue nv = node.getNodeValue();
+                    if (nv == null && node.getTextNode() != null) {
+                        nv = node.getTextNode().getUnmarshalNodeValue();
+                    }
+                    if (nv != null && nv.isContainerValue()) {
+                        ur.getContainerInstance(((ContainerValue) nv));
                     }
                 }
-                if (textWrapper != null && textWrapper.equals(localName)) {
-                    parseValue(jsonValue);
-                    return;
-                }
-            } else if (contentHandler instanceof UnmarshalRecord && ((UnmarshalRecord) contentHandler).getXPathNode() != null) {
-                if (jsonTypeCompatibility) {
-                    if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && !((UnmarshalRecord) contentHandler).getXPathNode().hasTypeChild()) {
-                        return;
+            }
+        }
+        startCollection();
+
+        ArrayElement arrayElement = new ArrayElement(uri, parentLocalName);
+        if (contentHandler instanceof UnmarshalRecord || isUnmarshalRecordWithinAdapter()) {
+            final UnmarshalRecord contentHandler_ = contentHandler instanceof UnmarshalRecord ? (UnmarshalRecord) contentHandler : getUnmarshalRecordFromAdapter();
+            arrayElement.hasItems = true;
+            arrayElement.isTextValue = isTextValue(parentLocalName, contentHandler_);
+            UnmarshalRecord unmarshalRecord = contentHandler_;
+            if (unmarshalRecord.getUnmarshaller().isWrapperAsCollectionName()) {
+                XPathNode unmarshalRecordXPathNode = unmarshalRecord.getXPathNode();
+                if (null != unmarshalRecordXPathNode) {
+                    XPathFragment currentFragment = new XPathFragment();
+                    currentFragment.setLocalName(parentLocalName);
+                    currentFragment.setNamespaceURI(uri);
+                    currentFragment.setNamespaceAware(isNamespaceAware());
+                    XPathNode groupingXPathNode = unmarshalRecordXPathNode.getNonAttributeChildrenMap().get(currentFragment);
+                    if (groupingXPathNode != null) {
+                        if (groupingXPathNode.getUnmarshalNodeValue() instanceof CollectionGroupingElementNodeValue) {
+                            arrayElement.groupingXPathFragment = groupingXPathNode.getXPathFragment();
+                            contentHandler_.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
+                            XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
+                            arrayElement.itemXPathFragment = itemXPathNode.getXPathFragment();
+                        } else if (groupingXPathNode.getUnmarshalNodeValue() == null) {
+                            XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
+                            if (itemXPathNode != null) {
+                                if ((itemXPathNode.getUnmarshalNodeValue()).isContainerValue()) {
+                                    arrayElement.groupingXPathFragment = groupingXPathNode.getXPathFragment();
+                                    contentHandler_.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
+                                    arrayElement.itemXPathFragment = itemXPathNode.getXPathFragment();
+                                }
+                            }
+                        }
                     }
                 }
-                boolean isTextValue = isTextValue(localName, (UnmarshalRecord) contentHandler);
-                if (isTextValue) {
-                    parseValue(jsonValue);
-                    return;
+            }
+        }
+        return arrayElement;
+    }
+
+    /**
+     * Return the element a JSON pair with a non array value is reported as,
+     * {@link Element#TEXT} if its value is the text of the current element, or null if the pair is skipped.
+     */
+    Element startPair(String name) throws SAXException {
+        if (attributePrefix != null && name.startsWith(attributePrefix)) {
+            return null;
+        }
+        String localName = name;
+        String uri = Constants.EMPTY_STRING;
+        if (isNamespaceAware() && namespaces != null) {
+            if (localName.length() > 2) {
+                int nsIndex = localName.indexOf(getNamespaceSeparator(), 1);
+                String prefix = Constants.EMPTY_STRING;
+                if (nsIndex > -1) {
+                    prefix = localName.substring(0, nsIndex);
                 }
-                NodeValue nv = ((UnmarshalRecord) contentHandler).getAttributeChildNodeValue(uri, localName);
-                if (attributePrefix == null && nv != null) {
-                    return;
+                uri = namespaces.resolveNamespacePrefix(prefix);
+                if (uri == null || uri == Constants.EMPTY_STRING) {
+                    uri = namespaces.getDefaultNamespaceURI();
+                } else {
+                    localName = localName.substring(nsIndex + 1);
                 }
-            } else if (isUnmarshalRecordWithinAdapter()) {
-                @SuppressWarnings("rawtypes") final UnmarshalRecord contentHandler_ = getUnmarshalRecordFromAdapter();
-                if (jsonTypeCompatibility) {
-                    if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && !contentHandler_.getXPathNode().hasTypeChild()) {
-                        return;
-                    }
+
+                if (localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && uri != null && uri.equals(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI)) {
+                    return null;
                 }
-                boolean isTextValue = isTextValue(localName, contentHandler_);
-                if (isTextValue) {
-                    parseValue(jsonValue);
-                    return;
+            } else {
+                uri = namespaces.getDefaultNamespaceURI();
+            }
+        }
+        if (contentHandler instanceof XMLRootRecord || contentHandler instanceof DeferredContentHandler) {
+            if (jsonTypeCompatibility) {
+                // if its not namespaceAware don't report the "type" child as it
+                // is will be read by the xsi:type lookup
+                if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE)) {
+                    return null;
                 }
-                NodeValue nv = contentHandler_.getAttributeChildNodeValue(uri, localName);
-                if (attributePrefix == null && nv != null) {
-                    return;
+            }
+            if (textWrapper != null && textWrapper.equals(localName)) {
+                return Element.TEXT;
+            }
+        } else if (contentHandler instanceof UnmarshalRecord && ((UnmarshalRecord) contentHandler).getXPathNode() != null) {
+            if (jsonTypeCompatibility) {
+                if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && !((UnmarshalRecord) contentHandler).getXPathNode().hasTypeChild()) {
+                    return null;
                 }
             }
-
-            if (jsonValue.getValueType() == ValueType.NULL) {
-                contentHandler.setNil(true);
+            boolean isTextValue = isTextValue(localName, (UnmarshalRecord) contentHandler);
+            if (isTextValue) {
+                return Element.TEXT;
+            }
+            NodeValue nv = ((UnmarshalRecord) contentHandler).getAttributeChildNodeValue(uri, localName);
+            if (attributePrefix == null && nv != null) {
+                return null;
+            }
+        } else if (isUnmarshalRecordWithinAdapter()) {
+            @SuppressWarnings("rawtypes") final UnmarshalRecord contentHandler_ = getUnmarshalRecordFromAdapter();
+            if (jsonTypeCompatibility) {
+                if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && !contentHandler_.getXPathNode().hasTypeChild()) {
+                    return null;
+                }
+            }
+            boolean isTextValue = isTextValue(localName, contentHandler_);
+            if (isTextValue) {
+                return Element.TEXT;
+            }
+            NodeValue nv = contentHandler_.getAttributeChildNodeValue(uri, localName);
+            if (attributePrefix == null && nv != null) {
+                return null;
             }
-
-            contentHandler.startElement(uri, localName, localName, attributes.setValue(jsonValue, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
-            parseValue(jsonValue);
-            contentHandler.endElement(uri, localName, localName);
-
         }
-
+        return new Element(uri, localName);
     }
 
     private UnmarshalRecord getUnmarshalRecordFromAdapter() {
@@ -529,6 +559,46 @@ public boolean isInCollection() {
         return isInCollection;
     }
 
+    boolean isIncludeRoot() {
+        return includeRoot;
+    }
+
+    Class getUnmarshalClass() {
+        return unmarshalClass;
+    }
+
+    String getTextWrapper() {
+        return textWrapper;
+    }
+
+    /**
+     * Return the attributes of the element of a JSON value, bound to the value.
+     */
+    JsonAttributes attributes(JsonValue jsonValue) {
+        return attributes.setValue(jsonValue, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware());
+    }
+
+    /**
+     * Return the attributes of the element of a JSON object read from a stream, bound to the object.
+     */
+    JsonAttributes attributes(StreamedObject object) {
+        return attributes.setObject(object, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware());
+    }
+
+    /**
+     * Return if the attributes last reported are the attributes of the JSON object read from a stream.
+     */
+    boolean isReportingAttributes(StreamedObject object) {
+        return attributes.object == object;
+    }
+
+    /**
+     * Add the attributes of a member of the JSON object the attributes are bound to.
+     */
+    void addAttributes(List<Attribute> attributesList, String name, JsonValue value) {
+        attributes.addAttributes(attributesList, name, value);
+    }
+
     private boolean isTextValue(String localName, UnmarshalRecord contentHandler_) {
         XPathNode currentNode = contentHandler_.getXPathNode();
         if (currentNode == null) {
@@ -585,9 +655,111 @@ public MediaType getMediaType() {
         return Constants.APPLICATION_JSON;
     }
 
-    private static class JsonAttributes extends IndexedAttributeList {
+    /**
+     * The element the items of a JSON array are reported as.
+     */
+    final class ArrayElement {
+
+        private final String uri;
+        private final String localName;
+        private boolean hasItems;
+        private boolean isTextValue;
+        private XPathFragment groupingXPathFragment;
+        private XPathFragment itemXPathFragment;
+
+        private ArrayElement(String uri, String localName) {
+            this.uri = uri;
+            this.localName = localName;
+        }
+
+        /**
+         * Return if the items are reported, only to an unmarshal record.
+         */
+        boolean hasItems() {
+            return hasItems;
+        }
+
+        void startItem(JsonValue item) throws SAXException {
+            if (item.getValueType() == ValueType.NULL) {
+                contentHandler.setNil(true);
+            }
+            if (!isTextValue) {
+                startItemElement(attributes(item));
+            }
+        }
+
+        void startItem(StreamedObject item) throws SAXException {
+            if (!isTextValue) {
+                startItemElement(attributes(item));
+            }
+        }
+
+        private void startItemElement(Attributes atts) throws SAXException {
+            if (null != itemXPathFragment) {
+                contentHandler.startElement(itemXPathFragment.getNamespaceURI(), itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName(), atts);
+            } else {
+                contentHandler.startElement(uri, localName, localName, atts);
+            }
+        }
+
+        void endItem() throws SAXException {
+            if (!isTextValue) {
+                if (null != itemXPathFragment) {
+                    contentHandler.endElement(itemXPathFragment.getNamespaceURI(), itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName());
+                } else {
+                    contentHandler.endElement(uri, localName, localName);
+                }
+            }
+        }
+
+        void end() throws SAXException {
+            if (null != groupingXPathFragment) {
+                contentHandler.endElement(uri, groupingXPathFragment.getLocalName(), groupingXPathFragment.getLocalName());
+            }
+            endCollection();
+        }
+    }
+
+    /**
+     * The element a JSON pair is reported as.
+     */
+    static final class Element {
+
+        /**
+         * The value of the pair is reported as the text of the current element.
+         */
+        static final Element TEXT = new Element(null, null);
+
+        final String uri;
+        final String localName;
+
+        private Element(String uri, String localName) {
+            this.uri = uri;
+            this.localName = localName;
+        }
+    }
+
+    /**
+     * A JSON object read from a stream, whose members are read ahead when its attributes are looked up.
+     */
+    interface StreamedObject {
+
+        /**
+         * Return the attributes of the members read so far.
+         */
+        List<Attribute> getAttributes();
+
+        /**
+         * Read the next member ahead, adding its attributes.
+         * Return false if there is none, or the stream is not between the members of the object.
+         */
+        boolean readAhead();
+    }
+
+    static class JsonAttributes extends IndexedAttributeList {
 
         private JsonValue value;
+        private StreamedObject object;
         private String attributePrefix;
         private char namespaceSeparator;
         private NamespaceResolver namespaces;
@@ -596,6 +768,7 @@ private static class JsonAttributes extends IndexedAttributeList {
         public JsonAttributes setValue(JsonValue value, String attributePrefix, NamespaceResolver nr, char namespaceSeparator, boolean namespaceAware) {
             reset();
             this.value = value;
+            this.object = null;
             this.attributePrefix = attributePrefix;
             this.namespaces = nr;
             this.namespaceSeparator = namespaceSeparator;
@@ -603,6 +776,12 @@ public JsonAttributes setValue(JsonValue value, String attributePrefix, Namespac
             return this;
         }
 
+        public JsonAttributes setObject(StreamedObject object, String attributePrefix, NamespaceResolver nr, char namespaceSeparator, boolean namespaceAware) {
+            setValue(null, attributePrefix, nr, namespaceSeparator, namespaceAware);
+            this.object = object;
+            return this;
+        }
+
         private void addSimpleAttribute(List<Attribute> attributes, String uri, String attributeLocalName, JsonValue childValue) {
             switch (childValue.getValueType()) {
                 case STRING: {
@@ -636,8 +815,8 @@ public int getIndex(String uri, String localName) {
             if (null == localName) {
                 return -1;
             }
-            int index = 0;
-            for (Attribute attribute : attributes()) {
+            for (int index = 0; hasAttribute(index); index++) {
+                Attribute attribute = attribute(index);
                 if (namespaceAware) {
                     if (localName.equals(attribute.getLocalName()) && uri.equals(attribute.getUri())) {
                         return index;
@@ -647,13 +826,119 @@ public int getIndex(String uri, String localName) {
                         return index;
                     }
                 }
-                index++;
             }
             return -1;
         }
 
+        @Override
+        public int getIndex(String qName) {
+            if (null == qName) {
+                return -1;
+            }
+            for (int index = 0; hasAttribute(index); index++) {
+                if (qName.equals(attribute(index).getName())) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public String getValue(String qName) {
+            int index = getIndex(qName);
+            return index == -1 ? null : attribute(index).getValue();
+        }
+
+        @Override
+        public String getValue(String uri, String localName) {
+            int index = getIndex(uri, localName);
+            return index == -1 ? null : attribute(index).getValue();
+        }
+
+        /*
+         * Return if there is an attribute at the index, only reading the members of a streamed object
+         * ahead as far as needed, so looking up a leading attribute keeps the rest of the object streamed.
+         */
+        private boolean hasAttribute(int index) {
+            if (null == object) {
+                return index < attributes().length;
+            }
+            List<Attribute> objectAttributes = object.getAttributes();
+            while (index >= objectAttributes.size()) {
+                if (!object.readAhead()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Attribute attribute(int index) {
+            if (null == object) {
+                return attributes()[index];
+            }
+            return object.getAttributes().get(index);
+        }
+
+        /*
+         * Add the attributes of a member of a JSON object.
+         */
+        void addAttributes(List<Attribute> attributesList, String name, JsonValue memberValue) {
+            String attributeLocalName = name;
+
+            if (attributePrefix != null) {
+                if (attributeLocalName.startsWith(attributePrefix)) {
+                    attributeLocalName = attributeLocalName.substring(attributePrefix.length());
+                } else {
+                    return;
+                }
+            }
+
+            String uri = Constants.EMPTY_STRING;
+
+            if (namespaceAware && namespaces != null) {
+                if (attributeLocalName.length() > 2) {
+                    String prefix = Constants.EMPTY_STRING;
+                    int nsIndex = attributeLocalName.indexOf(namespaceSeparator, 1);
+                    if (nsIndex > -1) {
+                        prefix = attributeLocalName.substring(0, nsIndex);
+                    }
+                    uri = namespaces.resolveNamespacePrefix(prefix);
+                    if (uri == null) {
+                        uri = namespaces.getDefaultNamespaceURI();
+                    } else {
+                        attributeLocalName = attributeLocalName.substring(nsIndex + 1);
+                    }
+                } else {
+                    uri = namespaces.getDefaultNamespaceURI();
+                }
+            }
+
+            if (memberValue.getValueType() == ValueType.ARRAY) {
+                JsonArray jsonArray = (JsonArray) memberValue;
+                if (jsonArray.size() == 0) {
+                    attributesList.add(new Attribute(uri, attributeLocalName, attributeLocalName, ""));
+                }
+                for (JsonValue nextChildValue : jsonArray) {
+                    addSimpleAttribute(attributesList, uri, attributeLocalName, nextChildValue);
+                }
+            } else {
+                addSimpleAttribute(attributesList, uri, attributeLocalName, memberValue);
+            }
+        }
+
         @Override
         protected Attribute[] attributes() {
+            if (null != object) {
+                // members may have been read ahead since
+                List<Attribute> objectAttributes = object.getAttributes();
+                if (null == attributes || attributes.length != objectAttributes.size()) {
+                    while (object.readAhead()) {
+                        // read all the members
+                    }
+                    attributes = objectAttributes.toArray(new Attribute[objectAttributes.size()]);
+                }
+                return attributes;
+            }
             if (null == attributes) {
 
                 switch (value.getValueType()) {
@@ -665,48 +950,7 @@ protected Attribute[] attributes() {
                         ArrayList<Attribute> attributesList = new ArrayList<>(jsonObject.values().size());
 
                         for (Entry<String, JsonValue> nextEntry : jsonObject.entrySet()) {
-                            String attributeLocalName = nextEntry.getKey();
-
-                            if (attributePrefix != null) {
-                                if (attributeLocalName.startsWith(attributePrefix)) {
-                                    attributeLocalName = attributeLocalName.substring(attributePrefix.length());
-                                } else {
-                                    continue;
-                                }
-                            }
-
-                            String uri = Constants.EMPTY_STRING;
-
-                            if (namespaceAware && namespaces != null) {
-                                if (attributeLocalName.length() > 2) {
-                                    String prefix = Constants.EMPTY_STRING;
-                                    int nsIndex = attributeLocalName.indexOf(namespaceSeparator, 1);
-                                    if (nsIndex > -1) {
-                                        prefix = attributeLocalName.substring(0, nsIndex);
-                                    }
-                                    uri = namespaces.resolveNamespacePrefix(prefix);
-                                    if (uri == null) {
-                                        uri = namespaces.getDefaultNamespaceURI();
-                                    } else {
-                                        attributeLocalName = attributeLocalName.substring(nsIndex + 1);
-                                    }
-                                } else {
-                                    uri = namespaces.getDefaultNamespaceURI();
-                                }
-                            }
-
-                            JsonValue nextValue = nextEntry.getValue();
-                            if (nextValue.getValueType() == ValueType.ARRAY) {
-                                JsonArray jsonArray = (JsonArray) nextValue;
-                                if (jsonArray.size() == 0) {
-                                    attributesList.add(new Attribute(uri, attributeLocalName, attributeLocalName, ""));
-                                }
-                                for (JsonValue nextChildValue : jsonArray) {
-                                    addSimpleAttribute(attributesList, uri, attributeLocalName, nextChildValue);
-                                }
-                            } else {
-                                addSimpleAttribute(attributesList, uri, attributeLocalName, nextValue);
-                            }
+                            addAttributes(attributesList, nextEntry.getKey(), nextEntry.getValue());
                         }
 
                         attributes = attributesList.toArray(new Attribute[attributesList.size()]);
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.queries;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Decide whether a lazy relationship should be batch fetched, from how it is used.
+ * <p><b>Description</b>: Counts the source objects read by read-all queries, and how many times
+ * the relationship of such objects is then instantiated.
+ * Once enough source objects were read, the relationship is batch fetched if it was instantiated
+ * for at least a quarter of them, and is no longer batch fetched if it fell under a tenth.
+ * The counts are then halved, so the decision follows changes in usage.
+ * Decision changes are logged and reported to the session profiler.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setAdaptiveBatchFetch(boolean)
+ */
+public class AdaptiveBatchFetchStatistics {
+    /** Number of source objects read between two decisions. */
+    public static final int DECISION_INTERVAL = 100;
+    /** Divisor of the source objects count over which batching is enabled. */
+    protected static final int ENABLE_DIVISOR = 4;
+    /** Divisor of the source objects count under which batching is disabled. */
+    protected static final int DISABLE_DIVISOR = 10;
+    /** Batch size used if the platform has no bind parameter limit. */
+    public static final int MAXIMUM_SIZE = 1000;
+
+    protected final ForeignReferenceMapping mapping;
+    protected final AtomicLong sourceObjects;
+    protected final AtomicLong instantiations;
+    protected volatile boolean isBatched;
+
+    public AdaptiveBatchFetchStatistics(ForeignReferenceMapping mapping) {
+        this.mapping = mapping;
+        this.sourceObjects = new AtomicLong();
+        this.instantiations = new AtomicLong();
+    }
+
+    /**
+     * Return if the relationship should currently be batch fetched.
+     */
+    public boolean isBatched() {
+        return isBatched;
+    }
+
+    public long getSourceObjects() {
+        return sourceObjects.get();
+    }
+
+    public long getInstantiations() {
+        return instantiations.get();
+    }
+
+    /**
+     * Record that the relationship of a source object was instantiated.
+     */
+    public void instantiated() {
+        this.instantiations.incrementAndGet();
+    }
+
+    /**
+     * Record the source objects read by a read-all query,
+     * and revise the decision once enough were read.
+     */
+    public void read(int count, AbstractSession session) {
+        long total = this.sourceObjects.addAndGet(count);
+        if (total < DECISION_INTERVAL) {
+            return;
+        }
+        synchronized (this) {
+            total = this.sourceObjects.get();
+            if (total < DECISION_INTERVAL) {
+                return;
+            }
+            long used = this.instantiations.get();
+            boolean wasBatched = this.isBatched;
+            if (!wasBatched && (used >= (total / ENABLE_DIVISOR))) {
+                this.isBatched = true;
+                session.incrementProfile(SessionProfiler.AdaptiveBatchFetchEnabled);
+                session.log(SessionLog.FINE, SessionLog.QUERY, "adaptive_batch_fetch_enabled", this.mapping, used, total);
+            } else if (wasBatched && (used < (total / DISABLE_DIVISOR))) {
+                this.isBatched = false;
+                session.incrementProfile(SessionProfiler.AdaptiveBatchFetchDisabled);
+                session.log(SessionLog.FINE, SessionLog.QUERY, "adaptive_batch_fetch_disabled", this.mapping, used, total);
+            }
+            this.sourceObjects.addAndGet(-(total >> 1));
+            this.instantiations.addAndGet(-(used >> 1));
+        }
+    }
+
+    /**
+     * Return the batch size for the number of source rows.
+     * The size is bounded by the platform's bind parameter limit for the key size of the relationship,
+     * and the rows are split in batches of even size.
+     */
+    public int computeSize(int rows, AbstractSession session) {
+        int maximumSize = MAXIMUM_SIZE;
+        int limit = ((DatasourcePlatform)session.getDatasourcePlatform()).getMaxBindParameters();
+        if (limit > 0) {
+            int keySize;
+            if (this.mapping.isOneToOneMapping()) {
+                keySize = this.mapping.getFields().size();
+            } else {
+                keySize = this.mapping.getDescriptor().getPrimaryKeyFields().size();
+            }
+            maximumSize = Math.min(maximumSize, limit / Math.max(keySize, 1));
+        }
+        if (rows <= maximumSize) {
+            return rows;
+        }
+        int batches = (rows + maximumSize - 1) / maximumSize;
+        return (rows + batches - 1) / batches;
+    }
+}
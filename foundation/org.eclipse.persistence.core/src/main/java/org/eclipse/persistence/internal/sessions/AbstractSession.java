@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2014, 2020 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -48,8 +48,11 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.persistence.config.PersistenceUnitProperties;
@@ -122,6 +125,7 @@
 import org.eclipse.persistence.queries.WriteObjectQuery;
 import org.eclipse.persistence.sessions.CopyGroup;
 import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseRecord;
 import org.eclipse.persistence.sessions.ExternalTransactionController;
 import org.eclipse.persistence.sessions.Login;
 import org.eclipse.persistence.sessions.Project;
@@ -349,6 +353,9 @@ public abstract class AbstractSession extends CoreAbstractSession<ClassDescripto
      */
     protected boolean tolerateInvalidJPQL = false;
 
+    /** Catalog of the JPA named queries compiled on login, read from the previous login before it. */
+    protected transient NamedQueryCatalog namedQueryCatalog;
+
     /**
      * INTERNAL:
      * Create and return a new session.
@@ -2390,7 +2397,11 @@ public ClassDescriptor getClassDescriptor(Object domainObject) {
      */
     @Override
     public ClassDescriptor getClassDescriptorForAlias(String alias) {
-        return project.getDescriptorForAlias(alias);
+        ClassDescriptor descriptor = project.getDescriptorForAlias(alias);
+        if ((descriptor != null) && this.project.isLazyDescriptorInitialization()) {
+            initializeDescriptorOnFirstUse(descriptor);
+        }
+        return descriptor;
     }
 
     /**
@@ -2453,12 +2464,45 @@ public ClassDescriptor getDescriptor(Class theClass) {
             }
         }
 
+        // A descriptor being initialized is not cached, as the cached descriptor is returned without waiting.
+        if ((descriptor != null) && this.project.isLazyDescriptorInitialization()
+                && !initializeDescriptorOnFirstUse(descriptor)) {
+            return descriptor;
+        }
+
         // Cache for optimization.
         this.lastDescriptorAccessed = descriptor;
 
         return descriptor;
     }
 
+    /**
+     * INTERNAL:
+     * If the project initializes descriptors on first use, initialize the descriptor if not yet initialized.
+     * The root database session initializes the descriptors, shared by its client sessions and units of work.
+     * Return false if the descriptor is still being initialized by this thread, so must not be cached.
+     */
+    protected boolean initializeDescriptorOnFirstUse(ClassDescriptor descriptor) {
+        AbstractSession session = this;
+        while (session.getParent() != null) {
+            session = session.getParent();
+        }
+        if (session.isDatabaseSession()) {
+            return ((DatabaseSessionImpl)session).initializeDescriptorOnFirstUse(descriptor);
+        }
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if descriptors are initialized on first use.
+     * This is decided by the root database session on login, as not all projects support it.
+     */
+    public boolean usesLazyDescriptorInitialization() {
+        AbstractSession parent = getParent();
+        return (parent != null) && parent.usesLazyDescriptorInitialization();
+    }
+
     /**
      * ADVANCED:
      * Return the descriptor specified for the object's class.
@@ -2489,6 +2533,9 @@ public ClassDescriptor getDescriptorForAlias(final String alias) {
         // descriptor which will have been initialized locally on the session.
         // The project descriptor will be not initialized.
         final ClassDescriptor desc = project.getDescriptorForAlias(alias);
+        if ((desc != null) && this.project.isLazyDescriptorInitialization()) {
+            initializeDescriptorOnFirstUse(desc);
+        }
         if (desc != null && desc.hasMultitenantPolicy() && this.descriptors != null) {
             return this.descriptors.get(desc.getJavaClass());
         } else {
@@ -4005,6 +4052,25 @@ public void setJPAQueriesProcessed(boolean jpaQueriesProcessed){
         this.jpaQueriesProcessed = jpaQueriesProcessed;
     }
 
+    /**
+     * INTERNAL:
+     * Return the catalog of the JPA named queries compiled on login.
+     * Before login this is the catalog of the previous login, if set.
+     * @see org.eclipse.persistence.sessions.Project#setNamedQueryCompileParallelism(int)
+     */
+    public NamedQueryCatalog getNamedQueryCatalog() {
+        return namedQueryCatalog;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the catalog of the JPA named queries compiled by the previous login,
+     * used to compile the slowest queries first and report the queries whose SQL changed.
+     */
+    public void setNamedQueryCatalog(NamedQueryCatalog namedQueryCatalog) {
+        this.namedQueryCatalog = namedQueryCatalog;
+    }
+
     /**
      * PUBLIC:
      * Set the writer to which an accessor writes logged messages and SQL.
@@ -4389,8 +4455,12 @@ public void processCommand(Object command) {
     public void processJPAQueries() {
         if (! jpaQueriesProcessed) {
             // Process the JPA queries that do not query table per tenant entities.
-            for (DatabaseQuery jpaQuery : getJPAQueries()) {
-                processJPAQuery(jpaQuery);
+            if (this.project.getNamedQueryCompileParallelism() > 0) {
+                compileJPAQueries(getJPAQueries());
+            } else {
+                for (DatabaseQuery jpaQuery : getJPAQueries()) {
+                    processJPAQuery(jpaQuery);
+                }
             }
 
             // Process the JPA queries that query table per tenant entities. At
@@ -4445,6 +4515,119 @@ protected void processJPAQuery(DatabaseQuery jpaQuery) {
                                         // is set to false.
     }
 
+    /**
+     * INTERNAL:
+     * Compile the JPA named queries into EclipseLink Session queries, parsing and preparing them,
+     * on the project's number of threads. The queries are added to the session in their order,
+     * and a parse failure is thrown or tolerated as when processed in turn.
+     * The queries slowest to compile in the previous login are compiled first, the previous compile times
+     * coming from the named query catalog, which is replaced with the one of this login.
+     */
+    protected void compileJPAQueries(List<DatabaseQuery> jpaQueries) {
+        long start = System.nanoTime();
+        NamedQueryCatalog previousCatalog = this.namedQueryCatalog;
+        String platformName = getDatasourcePlatform().getClass().getName();
+        if ((previousCatalog != null) && !platformName.equals(previousCatalog.getPlatformName())) {
+            previousCatalog = null;
+        }
+        NamedQueryCatalog catalog = new NamedQueryCatalog(platformName);
+        int size = jpaQueries.size();
+        List<Integer> order = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            order.add(index);
+        }
+        if (previousCatalog != null) {
+            // Queries not compiled before are assumed slowest, the sort keeps the order of equal ones.
+            final NamedQueryCatalog compileTimes = previousCatalog;
+            order.sort((first, second) -> Long.compare(compileTime(compileTimes, jpaQueries.get(second)), compileTime(compileTimes, jpaQueries.get(first))));
+        }
+        // Initialize the query builder before the queries are parsed on several threads.
+        getQueryBuilder();
+        RuntimeException[] failures = new RuntimeException[size];
+        int parallelism = Math.min(this.project.getNamedQueryCompileParallelism(), size);
+        if (parallelism <= 1) {
+            for (int index : order) {
+                failures[index] = compileJPAQuery(jpaQueries.get(index), catalog, previousCatalog);
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<ForkJoinTask<RuntimeException>> tasks = new ArrayList<>(size);
+                for (int index : order) {
+                    DatabaseQuery jpaQuery = jpaQueries.get(index);
+                    NamedQueryCatalog compileTimes = previousCatalog;
+                    tasks.add(pool.submit(() -> compileJPAQuery(jpaQuery, catalog, compileTimes)));
+                }
+                for (int index = 0; index < size; index++) {
+                    failures[order.get(index)] = tasks.get(index).join();
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        for (int index = 0; index < size; index++) {
+            // If jpql-tolerate-error==true, invalid queries are left in place to throw an exception when used.
+            if ((failures[index] != null) && !tolerateInvalidJPQL) {
+                throw failures[index];
+            }
+            DatabaseQuery jpaQuery = jpaQueries.get(index);
+            DatabaseQuery databaseQuery = (DatabaseQuery) jpaQuery.getProperty("databasequery");
+            databaseQuery = (databaseQuery == null) ? jpaQuery : databaseQuery;
+            addQuery(databaseQuery, false);
+        }
+        this.namedQueryCatalog = catalog;
+        if (shouldLog(SessionLog.FINE, SessionLog.QUERY)) {
+            log(SessionLog.FINE, SessionLog.QUERY, "named_queries_compiled", size, (System.nanoTime() - start) / 1000000.0, Math.max(parallelism, 1));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Parse the JPA named query, and prepare it into its SQL unless that depends on the arguments,
+     * recording its compile time and SQL in the catalog.
+     * Return the exception the query failed to parse with, or null.
+     * A query failing to prepare is left to be prepared, and fail, on execution, as when not compiled.
+     */
+    protected RuntimeException compileJPAQuery(DatabaseQuery jpaQuery, NamedQueryCatalog catalog, NamedQueryCatalog previousCatalog) {
+        long start = System.nanoTime();
+        try {
+            jpaQuery.prepareInternal(this);
+        } catch (RuntimeException exception) {
+            return exception;
+        }
+        DatabaseQuery databaseQuery = (DatabaseQuery) jpaQuery.getProperty("databasequery");
+        databaseQuery = (databaseQuery == null) ? jpaQuery : databaseQuery;
+        List<String> sql = null;
+        // Native queries are prepared with the arguments they are executed with.
+        if (!databaseQuery.isCallQuery()) {
+            try {
+                databaseQuery.checkPrepare(this, new DatabaseRecord());
+                if (databaseQuery.isPrepared()) {
+                    sql = databaseQuery.getSQLStrings();
+                }
+            } catch (RuntimeException exception) {
+                log(SessionLog.FINER, SessionLog.QUERY, "named_query_not_compiled", jpaQuery.getName(), exception);
+            }
+        }
+        long compileTime = System.nanoTime() - start;
+        catalog.add(jpaQuery.getName(), compileTime, sql);
+        if (shouldLog(SessionLog.FINER, SessionLog.QUERY)) {
+            log(SessionLog.FINER, SessionLog.QUERY, "named_query_compiled", jpaQuery.getName(), compileTime / 1000000.0, (sql == null) ? "" : sql);
+            if ((previousCatalog != null) && previousCatalog.contains(jpaQuery.getName()) && !Objects.equals(sql, previousCatalog.getSQL(jpaQuery.getName()))) {
+                log(SessionLog.FINER, SessionLog.QUERY, "named_query_sql_changed", jpaQuery.getName(), previousCatalog.getSQL(jpaQuery.getName()), sql);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the compile time of the query in the catalog, the longest if unknown.
+     */
+    private static long compileTime(NamedQueryCatalog catalog, DatabaseQuery jpaQuery) {
+        long compileTime = catalog.getCompileTime(jpaQuery.getName());
+        return (compileTime < 0) ? Long.MAX_VALUE : compileTime;
+    }
+
     /**
      * PUBLIC:
      * Return the CommandManager that allows this session to act as a
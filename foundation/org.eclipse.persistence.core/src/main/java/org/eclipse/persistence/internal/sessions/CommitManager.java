@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -480,6 +480,16 @@ protected Map getShallowCommits() {
      */
     public void initializeCommitOrder() {
         Vector descriptors = Helper.buildVectorFromMapElements(getSession().getDescriptors());
+        if (getSession().usesLazyDescriptorInitialization()) {
+            // Only the descriptors initialized on first use are committed, and only reference initialized descriptors.
+            Vector initializedDescriptors = new Vector(descriptors.size());
+            for (Object descriptor : descriptors) {
+                if (((ClassDescriptor)descriptor).isFullyInitialized()) {
+                    initializedDescriptors.add(descriptor);
+                }
+            }
+            descriptors = initializedDescriptors;
+        }
 
         // Must ensure uniqueness, some descriptor my be register twice for interfaces.
         descriptors = Helper.addAllUniqueToVector(new Vector(descriptors.size()), descriptors);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2015, 2020 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -38,13 +38,17 @@
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
@@ -56,10 +60,17 @@
 import org.eclipse.persistence.exceptions.ValidationException;
 import org.eclipse.persistence.internal.databaseaccess.Platform;
 import org.eclipse.persistence.internal.helper.DBPlatformHelper;
+import org.eclipse.persistence.internal.queries.ContainerPolicy;
+import org.eclipse.persistence.internal.queries.MappedKeyMapContainerPolicy;
 import org.eclipse.persistence.internal.sequencing.Sequencing;
 import org.eclipse.persistence.internal.sequencing.SequencingFactory;
 import org.eclipse.persistence.internal.sequencing.SequencingHome;
 import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.mappings.AggregateMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.mappings.querykeys.ForeignReferenceQueryKey;
+import org.eclipse.persistence.mappings.querykeys.QueryKey;
 import org.eclipse.persistence.platform.database.DatabasePlatform;
 import org.eclipse.persistence.platform.database.OraclePlatform;
 import org.eclipse.persistence.platform.database.events.DatabaseEventListener;
@@ -138,6 +149,28 @@ public class DatabaseSessionImpl extends AbstractSession implements org.eclipse.
     //Bug#3440544 Used to stop the attempt to login more than once.
     protected volatile boolean isLoggedIn;
 
+    /**
+     * INTERNAL:
+     * When descriptors are initialized on first use, the descriptors of the inheritance hierarchy of each descriptor
+     * using inheritance, null if descriptors are initialized on login.
+     */
+    protected transient Map<ClassDescriptor, List<ClassDescriptor>> lazyDescriptorHierarchies;
+
+    /** Descriptors already initialized, or being initialized, on first use. */
+    protected transient Set<ClassDescriptor> lazyInitializedDescriptors;
+
+    /** Descriptors found to be used while initializing descriptors on first use, initialized next. */
+    protected transient List<ClassDescriptor> pendingLazyDescriptors;
+
+    /** Serializes the initialization of descriptors on first use. */
+    protected transient ReentrantLock lazyDescriptorInitializationLock;
+
+    /**
+     * Set while descriptors are initialized on first use, as a descriptor can be fully initialized
+     * before the other descriptors it references, so must not be used until all are.
+     */
+    protected transient volatile boolean isInitializingDescriptorsOnFirstUse;
+
     /**
      * INTERNAL:
      * Set the SequencingHome object used by the session.
@@ -623,8 +656,20 @@ public void initializeDescriptorIfSessionAlive(ClassDescriptor descriptor) {
      * Normally the descriptors are added before login, then initialized on login.
      */
     public void initializeDescriptors() {
-        // Must clone to avoid modification of the map while enumerating.
-        initializeDescriptors((Map)((HashMap)getDescriptors()).clone(), true);
+        this.lazyDescriptorHierarchies = null;
+        if (shouldInitializeDescriptorsOnFirstUse()) {
+            // Only connect sequencing, descriptors are initialized when first looked up.
+            initializeSequencing();
+            this.lazyInitializedDescriptors = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.pendingLazyDescriptors = new ArrayList<>();
+            this.lazyDescriptorInitializationLock = new ReentrantLock();
+            this.lazyDescriptorHierarchies = buildDescriptorHierarchies();
+            getCommitManager().initializeCommitOrder();
+        } else {
+            // Descriptors not supporting it are all initialized on login, the project is left as configured.
+            // Must clone to avoid modification of the map while enumerating.
+            initializeDescriptors((Map)((HashMap)getDescriptors()).clone(), true);
+        }
         // Initialize serializer
         if (this.serializer != null) {
             this.serializer.initialize(null, null, this);
@@ -662,6 +707,199 @@ public void initializeDescriptors() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return if the project's descriptors should be initialized on first use instead of on login.
+     * Session brokers, interface descriptors and table per tenant descriptors require all descriptors
+     * to be initialized together, so are always initialized on login.
+     * The decision is kept by the session, see {@link #usesLazyDescriptorInitialization()}.
+     */
+    protected boolean shouldInitializeDescriptorsOnFirstUse() {
+        if (!getProject().isLazyDescriptorInitialization() || isBroker() || hasBroker()) {
+            return false;
+        }
+        for (ClassDescriptor descriptor : getDescriptors().values()) {
+            if (descriptor.isDescriptorForInterface() || descriptor.hasTablePerMultitenantPolicy()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the descriptors of the inheritance hierarchy of each descriptor using inheritance,
+     * the descriptors of a same hierarchy sharing the same list.
+     */
+    protected Map<ClassDescriptor, List<ClassDescriptor>> buildDescriptorHierarchies() {
+        Map<String, ClassDescriptor> descriptorsByName = new HashMap<>();
+        for (ClassDescriptor descriptor : getDescriptors().values()) {
+            if (descriptor.getJavaClassName() != null) {
+                descriptorsByName.put(descriptor.getJavaClassName(), descriptor);
+            }
+        }
+        Map<ClassDescriptor, List<ClassDescriptor>> hierarchies = new IdentityHashMap<>();
+        for (ClassDescriptor descriptor : descriptorsByName.values()) {
+            if (!descriptor.isChildDescriptor()) {
+                continue;
+            }
+            ClassDescriptor root = descriptor;
+            while (root.isChildDescriptor()) {
+                ClassDescriptor parent = descriptorsByName.get(root.getInheritancePolicy().getParentClassName());
+                if ((parent == null) || (parent == descriptor)) {
+                    break;
+                }
+                root = parent;
+            }
+            List<ClassDescriptor> hierarchy = hierarchies.get(root);
+            if (hierarchy == null) {
+                hierarchy = new ArrayList<>();
+                hierarchy.add(root);
+                hierarchies.put(root, hierarchy);
+            }
+            hierarchy.add(descriptor);
+            hierarchies.put(descriptor, hierarchy);
+        }
+        return hierarchies;
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize the descriptor if descriptors are initialized on first use and it is not yet.
+     * The descriptor is initialized together with its inheritance hierarchy, and the descriptors it references
+     * through its relationships, aggregates, query keys and constraint dependencies, transitively,
+     * so the descriptors it uses when reading and writing objects are all initialized.
+     * Once initialized this only reads the descriptor's initialization state, so takes no lock.
+     * A descriptor looked up while descriptors are being initialized by the same thread is initialized next.
+     * Return false if the descriptor is not initialized yet, being initialized by this thread.
+     */
+    public boolean initializeDescriptorOnFirstUse(ClassDescriptor descriptor) {
+        if (this.lazyDescriptorHierarchies == null) {
+            return true;
+        }
+        if (!descriptor.isDescriptorTypeNormal()) {
+            // Aggregates are initialized with the descriptors referencing them.
+            return descriptor.isFullyInitialized();
+        }
+        if (descriptor.isFullyInitialized() && !this.isInitializingDescriptorsOnFirstUse) {
+            return true;
+        }
+        ReentrantLock lock = this.lazyDescriptorInitializationLock;
+        if (lock.isHeldByCurrentThread()) {
+            if (!descriptor.isFullyInitialized()) {
+                this.pendingLazyDescriptors.add(descriptor);
+            }
+            return false;
+        }
+        lock.lock();
+        try {
+            if (descriptor.isFullyInitialized()) {
+                return true;
+            }
+            this.isInitializingDescriptorsOnFirstUse = true;
+            this.pendingLazyDescriptors.add(descriptor);
+            while (!this.pendingLazyDescriptors.isEmpty()) {
+                List<ClassDescriptor> descriptors = collectDescriptorsToInitialize(this.pendingLazyDescriptors);
+                this.pendingLazyDescriptors.clear();
+                if (!descriptors.isEmpty()) {
+                    log(SessionLog.FINER, SessionLog.METADATA, "initializing_descriptors_on_first_use", descriptor.getJavaClassName(), descriptors.size());
+                    initializeDescriptors(descriptors, false);
+                }
+            }
+        } finally {
+            this.pendingLazyDescriptors.clear();
+            this.isInitializingDescriptorsOnFirstUse = false;
+            lock.unlock();
+        }
+        return descriptor.isFullyInitialized();
+    }
+
+    /**
+     * INTERNAL:
+     * Return if descriptors are initialized on first use.
+     * This is decided on login, as not all projects support it.
+     */
+    @Override
+    public boolean usesLazyDescriptorInitialization() {
+        return this.lazyDescriptorHierarchies != null;
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize the descriptors not yet initialized on first use.
+     * Used by features requiring all descriptors, such as schema generation.
+     */
+    public void initializeAllDescriptorsOnFirstUse() {
+        if (this.lazyDescriptorHierarchies == null) {
+            return;
+        }
+        for (ClassDescriptor descriptor : new ArrayList<>(getDescriptors().values())) {
+            initializeDescriptorOnFirstUse(descriptor);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the descriptors to initialize so the given descriptors can be used,
+     * the ones not initialized yet and reachable from them through inheritance and references.
+     */
+    protected List<ClassDescriptor> collectDescriptorsToInitialize(List<ClassDescriptor> descriptors) {
+        Map<Class, ClassDescriptor> projectDescriptors = getDescriptors();
+        List<ClassDescriptor> stack = new ArrayList<>(descriptors);
+        List<ClassDescriptor> descriptorsToInitialize = new ArrayList<>();
+        while (!stack.isEmpty()) {
+            ClassDescriptor descriptor = stack.remove(stack.size() - 1);
+            // A descriptor already initialized also has the descriptors it references initialized.
+            if ((descriptor == null) || descriptor.isFullyInitialized()
+                    || !this.lazyInitializedDescriptors.add(descriptor)) {
+                continue;
+            }
+            descriptorsToInitialize.add(descriptor);
+            List<ClassDescriptor> hierarchy = this.lazyDescriptorHierarchies.get(descriptor);
+            if (hierarchy != null) {
+                stack.addAll(hierarchy);
+            }
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                addReferencedDescriptor(mapping, projectDescriptors, stack);
+                // The keys of a map may also be entities or embeddables.
+                if (mapping.isCollectionMapping()) {
+                    ContainerPolicy containerPolicy = mapping.getContainerPolicy();
+                    if (containerPolicy.isMappedKeyMapPolicy()
+                            && (((MappedKeyMapContainerPolicy)containerPolicy).getKeyMapping() instanceof DatabaseMapping)) {
+                        addReferencedDescriptor((DatabaseMapping)((MappedKeyMapContainerPolicy)containerPolicy).getKeyMapping(), projectDescriptors, stack);
+                    }
+                }
+            }
+            for (QueryKey queryKey : descriptor.getQueryKeys().values()) {
+                if (queryKey.isForeignReferenceQueryKey() && (((ForeignReferenceQueryKey)queryKey).getReferenceClass() != null)) {
+                    stack.add(projectDescriptors.get(((ForeignReferenceQueryKey)queryKey).getReferenceClass()));
+                }
+            }
+            for (Object dependency : descriptor.getConstraintDependencies()) {
+                if (dependency instanceof Class) {
+                    stack.add(projectDescriptors.get(dependency));
+                }
+            }
+        }
+        return descriptorsToInitialize;
+    }
+
+    /**
+     * INTERNAL:
+     * Add the descriptor of the class the mapping references, if any.
+     */
+    protected void addReferencedDescriptor(DatabaseMapping mapping, Map<Class, ClassDescriptor> projectDescriptors, List<ClassDescriptor> descriptors) {
+        Class referenceClass = null;
+        if (mapping.isForeignReferenceMapping()) {
+            referenceClass = ((ForeignReferenceMapping)mapping).getReferenceClass();
+        } else if (mapping.isAggregateMapping()) {
+            referenceClass = ((AggregateMapping)mapping).getReferenceClass();
+        }
+        if (referenceClass != null) {
+            descriptors.add(projectDescriptors.get(referenceClass));
+        }
+    }
+
     /**
      * INTERNAL:
      * Allow each descriptor to initialize any dependencies on this session.
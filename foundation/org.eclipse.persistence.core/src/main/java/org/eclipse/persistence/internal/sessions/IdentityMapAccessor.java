@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -863,6 +863,7 @@ public void invalidateClass(Class myClass, boolean recurseAndInvalidateToParentR
                 key.setInvalidationState(CacheKey.CACHE_KEY_INVALID);
             }
         }
+        getIdentityMapManager().clearOffHeapCache(myClass);
         invalidateQueryCache(myClass);
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -439,6 +439,8 @@ public void mergeChangesFromChangeSet(UnitOfWorkChangeSet uowChangeSet) {
             Set<Class> classesChanged = new HashSet<>();
             while (objectChangeEnum.hasNext()) {
                 ObjectChangeSet objectChangeSet = (ObjectChangeSet)objectChangeEnum.next();
+                // An object evicted to the off-heap tier is not in the cache to be merged, so its row is dropped.
+                dropOffHeapRow(objectChangeSet);
                 // Don't read the object here.  If it is null then we won't merge it at this stage, unless it
                 // is being referenced which will force the load later.
                 Object object = objectChangeSet.getTargetVersionOfSourceObject(this, this.session, false);
@@ -457,6 +459,7 @@ public void mergeChangesFromChangeSet(UnitOfWorkChangeSet uowChangeSet) {
                 Iterator deletedObjects = uowChangeSet.getDeletedObjects().values().iterator();
                 while (deletedObjects.hasNext()) {
                     ObjectChangeSet changeSet = (ObjectChangeSet)deletedObjects.next();
+                    dropOffHeapRow(changeSet);
                     changeSet.removeFromIdentityMap(this.session);
                     classesChanged.add(changeSet.getClassType(this.session));
                 }
@@ -477,6 +480,19 @@ public void mergeChangesFromChangeSet(UnitOfWorkChangeSet uowChangeSet) {
         }
     }
 
+    /**
+     * Drop the off-heap row of the changed object, if any, as it no longer matches the database.
+     */
+    protected void dropOffHeapRow(ObjectChangeSet changeSet) {
+        ClassDescriptor descriptor = changeSet.getDescriptor();
+        if (descriptor == null) {
+            descriptor = this.session.getDescriptor(changeSet.getClassType(this.session));
+        }
+        if (descriptor != null) {
+            this.session.getIdentityMapAccessorInstance().getIdentityMapManager().removeFromOffHeapCache(changeSet.getId(), descriptor);
+        }
+    }
+
     /**
      * Merge the changes specified within the changeSet into the cache.
      * The object passed in is the original object from the cache.
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.persistence.Version;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Record of the JPA named queries compiled on login.
+ * <p><b>Description</b>: The catalog holds for each named query the time it took to compile and the SQL
+ * it was prepared into, if any. It is stored in a binary file next to the project cache, keyed on the
+ * EclipseLink version and the database platform, so the next login compiles the slowest queries first
+ * and reports the queries whose SQL changed.
+ * The prepared calls themselves are bound to the session's descriptors and are not stored.
+ * The file is written to a temporary file then renamed.
+ *
+ * @see org.eclipse.persistence.sessions.Project#setNamedQueryCompileParallelism(int)
+ */
+public class NamedQueryCatalog {
+    /** Marks the file as a named query catalog, "ELNQ". */
+    public static final int MAGIC = 0x454C4E51;
+    /** Version of the file format, incremented on incompatible changes. */
+    public static final int FORMAT_VERSION = 1;
+
+    /** Class name of the database platform the queries were compiled for. */
+    protected String platformName;
+    /** Compile time in nanoseconds of each query, by query name. */
+    protected Map<String, Long> compileTimes;
+    /** SQL of each query prepared into SQL, by query name. */
+    protected Map<String, List<String>> sqlStrings;
+
+    public NamedQueryCatalog(String platformName) {
+        this.platformName = platformName;
+        this.compileTimes = new TreeMap<>();
+        this.sqlStrings = new TreeMap<>();
+    }
+
+    /**
+     * Return the catalog stored in the file, or null if there is none, or one of another format or EclipseLink version.
+     * The platform is known once logged in, so is checked by the caller.
+     */
+    public static NamedQueryCatalog read(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if ((in.readInt() != MAGIC) || (in.readInt() != FORMAT_VERSION)
+                    || !Version.getVersionString().equals(in.readUTF())) {
+                return null;
+            }
+            NamedQueryCatalog catalog = new NamedQueryCatalog(in.readUTF());
+            int count = in.readInt();
+            for (int index = 0; index < count; index++) {
+                String queryName = in.readUTF();
+                long compileTime = in.readLong();
+                List<String> sql = null;
+                int sqlCount = in.readInt();
+                if (sqlCount >= 0) {
+                    sql = new ArrayList<>(sqlCount);
+                    for (int sqlIndex = 0; sqlIndex < sqlCount; sqlIndex++) {
+                        sql.add(readString(in));
+                    }
+                }
+                catalog.add(queryName, compileTime, sql);
+            }
+            return catalog;
+        }
+    }
+
+    /**
+     * Write the catalog to the file, replacing the existing one.
+     */
+    public void write(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        directory.mkdirs();
+        File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(Version.getVersionString());
+                out.writeUTF(this.platformName);
+                out.writeInt(this.compileTimes.size());
+                for (Map.Entry<String, Long> entry : this.compileTimes.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue());
+                    List<String> sql = this.sqlStrings.get(entry.getKey());
+                    if (sql == null) {
+                        out.writeInt(-1);
+                    } else {
+                        out.writeInt(sql.size());
+                        for (String sqlString : sql) {
+                            writeString(out, sqlString);
+                        }
+                    }
+                }
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporaryFile = null;
+        } finally {
+            if (temporaryFile != null) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Add the compiled query with its compile time in nanoseconds, and its SQL, null if not prepared into SQL.
+     */
+    public synchronized void add(String queryName, long compileTime, List<String> sql) {
+        this.compileTimes.put(queryName, compileTime);
+        if (sql != null) {
+            this.sqlStrings.put(queryName, sql);
+        } else {
+            this.sqlStrings.remove(queryName);
+        }
+    }
+
+    /**
+     * Return if the query is in the catalog.
+     */
+    public boolean contains(String queryName) {
+        return this.compileTimes.containsKey(queryName);
+    }
+
+    /**
+     * Return the compile time in nanoseconds of the query, or -1 if it is not in the catalog.
+     */
+    public long getCompileTime(String queryName) {
+        Long compileTime = this.compileTimes.get(queryName);
+        return (compileTime == null) ? -1 : compileTime;
+    }
+
+    /**
+     * Return the SQL of the query, or null if it is not in the catalog or was not prepared into SQL.
+     */
+    public List<String> getSQL(String queryName) {
+        return this.sqlStrings.get(queryName);
+    }
+
+    /**
+     * Return the names of the queries in the catalog.
+     */
+    public Iterable<String> getQueryNames() {
+        return this.compileTimes.keySet();
+    }
+
+    /**
+     * Return the class name of the database platform the queries were compiled for.
+     */
+    public String getPlatformName() {
+        return this.platformName;
+    }
+
+    /*
+     * SQL may exceed the 64KB limit of writeUTF.
+     */
+    protected static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    protected static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -2842,6 +2842,38 @@ public void setDefaultSourceTable(DatabaseTable table) {
         defaultSourceTable = table;
     }
 
+    /**
+     * INTERNAL:
+     * Return the default source table to use with the source fields of this mapping.
+     */
+    public DatabaseTable getDefaultSourceTable() {
+        return defaultSourceTable;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the map of aggregate field name to source fields.
+     */
+    public Map<String, DatabaseField> getAggregateToSourceFields() {
+        return aggregateToSourceFields;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the source fields of nested aggregates, keyed by attribute name and aggregate field name.
+     */
+    public Map<String, Map<String, DatabaseField>> getNestedAggregateToSourceFields() {
+        return nestedAggregateToSourceFields;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the converters to apply to mappings of the aggregate descriptor, keyed by attribute name.
+     */
+    public Map<String, Converter> getConverters() {
+        return converters;
+    }
+
     /**
      * INTERNAL:
      * Indicates whether the mapping (or at least one of its nested mappings, at any nested depth)
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2020 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -1209,6 +1209,38 @@ public Map<String, Object[]> getNestedFieldTranslations() {
         return nestedFieldTranslations;
     }
 
+    /**
+     * INTERNAL:
+     * Return the converters to apply to mappings of the aggregate descriptor, keyed by attribute name.
+     */
+    public Map<String, Converter> getConverters() {
+        return converters;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the maps id mappings set to read-only at initialize time.
+     */
+    public List<DatabaseMapping> getMapsIdMappings() {
+        return mapsIdMappings;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the many to many overrides applied at initialize time.
+     */
+    public List<ManyToManyMapping> getOverrideManyToManyMappings() {
+        return overrideManyToManyMappings;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the unidirectional one to many overrides applied at initialize time.
+     */
+    public List<UnidirectionalOneToManyMapping> getOverrideUnidirectionalOneToManyMappings() {
+        return overrideUnidirectionalOneToManyMappings;
+    }
+
     /**
      * PUBLIC:
      * The classification type for the attribute this mapping represents
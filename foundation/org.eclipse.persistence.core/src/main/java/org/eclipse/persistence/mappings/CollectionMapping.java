@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -1450,6 +1450,14 @@ public boolean mustDeleteReferenceObjectsOneByOne() {
         return this.mustDeleteReferenceObjectsOneByOne == null || this.mustDeleteReferenceObjectsOneByOne;
     }
 
+    /**
+     * INTERNAL:
+     * Return the internal tri-state value, null if it has not been set.
+     */
+    public Boolean internalGetMustDeleteReferenceObjectsOneByOne() {
+        return this.mustDeleteReferenceObjectsOneByOne;
+    }
+
     /**
      * INTERNAL:
      * Merge changes from the source to the target object.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -1201,6 +1201,15 @@ public void setIsJPAId() {
         this.isJPAId = true;
     }
 
+    /**
+     * INTERNAL:
+     * Return the internal tri-state value, null if the lazy setting has not
+     * been set and will default on first access.
+     */
+    public Boolean internalGetIsLazy() {
+        return this.isLazy;
+    }
+
     /**
      * Set if this mapping is lazy.
      * This can be used for any mapping type to exclude it from the descriptor's
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2019 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -254,6 +254,14 @@ public void setValueConverterClassName(String valueConverterClassName) {
         this.valueConverterClassName = valueConverterClassName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the value converter class name, initialized to the value converter in convertClassNamesToClasses.
+     */
+    public String getValueConverterClassName() {
+        return valueConverterClassName;
+    }
+
     /**
      * PUBLIC:
      * Add the reference key field.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -68,6 +68,7 @@
 import org.eclipse.persistence.internal.indirection.IndirectionPolicy;
 import org.eclipse.persistence.internal.indirection.NoIndirectionPolicy;
 import org.eclipse.persistence.internal.indirection.WeavedObjectBasicIndirectionPolicy;
+import org.eclipse.persistence.internal.queries.AdaptiveBatchFetchStatistics;
 import org.eclipse.persistence.internal.queries.AttributeItem;
 import org.eclipse.persistence.internal.queries.JoinedAttributeManager;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
@@ -125,6 +126,9 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
      */
     protected BatchFetchType batchFetchType;
 
+    /** Usage statistics deciding whether to batch fetch the relationship, if adaptive batch fetching is used. */
+    protected transient AdaptiveBatchFetchStatistics adaptiveBatchFetchStatistics;
+
     /** Implements indirection behavior */
     protected IndirectionPolicy indirectionPolicy;
 
@@ -2496,6 +2500,24 @@ public void setBatchFetchType(BatchFetchType batchFetchType) {
         this.batchFetchType = batchFetchType;
     }
 
+    /**
+     * INTERNAL:
+     * Return the usage statistics deciding whether to batch fetch the relationship,
+     * null unless adaptive batch fetching is used.
+     * @see org.eclipse.persistence.sessions.Project#setAdaptiveBatchFetch(boolean)
+     */
+    public AdaptiveBatchFetchStatistics getAdaptiveBatchFetchStatistics() {
+        return adaptiveBatchFetchStatistics;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the usage statistics deciding whether to batch fetch the relationship.
+     */
+    public void setAdaptiveBatchFetchStatistics(AdaptiveBatchFetchStatistics adaptiveBatchFetchStatistics) {
+        this.adaptiveBatchFetchStatistics = adaptiveBatchFetchStatistics;
+    }
+
     /**
      * INTERNAL:
      * Allow subclass to define a foreign key in the target's table.
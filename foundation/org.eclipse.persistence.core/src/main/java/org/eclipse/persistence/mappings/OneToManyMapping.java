@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -1667,6 +1667,15 @@ public void setShouldDeferInsert(boolean defer) {
         this.shouldDeferInserts = defer;
     }
 
+    /**
+     * INTERNAL:
+     * Return the internal tri-state value, null if the defer setting has not
+     * been set and will default on first access.
+     */
+    public Boolean internalGetShouldDeferInserts() {
+        return this.shouldDeferInserts;
+    }
+
     /**
      * INTERNAL:
      * Returns a clone of InsertObjectQuery from the ClassDescriptor's DescriptorQueryManager or a new one
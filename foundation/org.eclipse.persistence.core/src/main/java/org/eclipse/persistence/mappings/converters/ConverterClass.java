@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2019 Payara Services Ltd.
  *
  * This program and the accompanying materials are made available under the
@@ -77,6 +77,38 @@ public ConverterClass(String attributeConverterClassName, boolean isForMapKey, S
         this.attributeConverterClassName = attributeConverterClassName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the class name of the JPA attribute converter.
+     */
+    public String getAttributeConverterClassName() {
+        return attributeConverterClassName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the class name of the field type, null if it is taken from the mapping.
+     */
+    public String getFieldClassificationName() {
+        return fieldClassificationName;
+    }
+
+    /**
+     * INTERNAL:
+     * Return true if the converter is applied to a map key.
+     */
+    public boolean isForMapKey() {
+        return isForMapKey;
+    }
+
+    /**
+     * INTERNAL:
+     * Return true if conversion is disabled for the attribute.
+     */
+    public boolean isConversionDisabled() {
+        return disableConversion;
+    }
+
     /**
      * INTERNAL:
      * Convert all the class-name-based settings in this converter to actual
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -101,6 +101,14 @@ public String getEnumClassName() {
         return m_enumClassName;
     }
 
+    /**
+     * PUBLIC:
+     * Return if the enum values are stored as ordinal values rather than names.
+     */
+    public boolean shouldUseOrdinalValues() {
+        return m_useOrdinalValues;
+    }
+
     /**
      * INTERNAL:
      * Convert all the class-name-based settings in this converter to actual
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -144,6 +144,22 @@ public void addToAttributeOnlyConversionValueStrings(String dataValue, String ob
         this.addToAttributeOnlyConversionValueStrings.put(dataValue, objectValue);
     }
 
+    /**
+     * INTERNAL:
+     * Return the data to object value strings, set from JPA processing.
+     */
+    public Map<String, String> getConversionValueStrings() {
+        return conversionValueStrings;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the data to object value strings only converted to the attribute, set from JPA processing.
+     */
+    public Map<String, String> getAddToAttributeOnlyConversionValueStrings() {
+        return addToAttributeOnlyConversionValueStrings;
+    }
+
     /**
      * INTERNAL:
      * Get the attribute to field mapping.
@@ -275,6 +291,14 @@ public void setObjectTypeName(String objectTypeName) {
         this.objectTypeName = objectTypeName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the object type name, set from JPA processing.
+     */
+    public String getObjectTypeName() {
+        return objectTypeName;
+    }
+
     /**
      * INTERNAL:
      * Get the type of the field value to allow conversion from the database.
@@ -463,6 +487,14 @@ public void setConverterName(String converterName) {
         this.converterName = converterName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the name of the converter, set from JPA processing.
+     */
+    public String getConverterName() {
+        return converterName;
+    }
+
     /**
      * INTERNAL:
      * Set from JPA processing where we deal with strings only to avoid
@@ -472,6 +504,14 @@ public void setDataTypeName(String dataTypeName) {
         this.dataTypeName = dataTypeName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the data type name, set from JPA processing.
+     */
+    public String getDataTypeName() {
+        return dataTypeName;
+    }
+
     /**
      * PUBLIC:
      * The default value can be used if the database can possibly store additional values then those that
@@ -490,6 +530,14 @@ public void setDefaultAttributeValueString(String defaultAttributeValueString) {
         this.defaultAttributeValueString = defaultAttributeValueString;
     }
 
+    /**
+     * INTERNAL:
+     * Return the default attribute value string, set from JPA processing.
+     */
+    public String getDefaultAttributeValueString() {
+        return defaultAttributeValueString;
+    }
+
     /**
      * INTERNAL:
      * Set the type of the field value to allow conversion from the database.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -279,6 +279,14 @@ public void setConverterClassName(String converterClassName) {
         this.converterClassName = converterClassName;
     }
 
+    /**
+     * INTERNAL:
+     * Return the converter class name, initialized to the converter in convertClassNamesToClasses.
+     */
+    public String getConverterClassName() {
+        return converterClassName;
+    }
+
     /**
      * ADVANCED:
      * Set the field in the mapping.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2020 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -153,6 +153,15 @@ public boolean isMutable() {
         return isMutable.booleanValue();
     }
 
+    /**
+     * INTERNAL:
+     * Return the internal tri-state value, null if the mutable setting has
+     * not been set and will default at initialization.
+     */
+    public Boolean internalGetIsMutable() {
+        return this.isMutable;
+    }
+
     /**
      * PUBLIC:
      * Return true if the attribute for this mapping is a simple atomic value that cannot be modified,
@@ -753,6 +762,14 @@ public void setFieldClassificationClassName(String className){
         this.fieldClassificationClassName = className;
     }
 
+    /**
+     * INTERNAL:
+     * Return the name of the class that will be used for setFieldClassification at deploy time.
+     */
+    public String getFieldClassificationClassName() {
+        return this.fieldClassificationClassName;
+    }
+
     /**
      * ADVANCED:
      * Set the JDBC type of the field value.
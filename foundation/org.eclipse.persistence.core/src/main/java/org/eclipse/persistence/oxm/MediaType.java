@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -16,11 +16,14 @@
 
 /**
  * This enum represents the different media types supported by EclipseLink MOXy.
+ * <p>application/cbor (RFC 8949) is the binary form of application/json: a document is
+ * mapped as its JSON equivalent, with the same JSON properties, and is marshalled to an
+ * OutputStream and unmarshalled from an InputStream, a File or a URL.
  * @since EclipseLink 2.4
  */
 public enum MediaType implements org.eclipse.persistence.internal.oxm.MediaType {
 
-    APPLICATION_XML("application/xml"), APPLICATION_JSON("application/json");
+    APPLICATION_XML("application/xml"), APPLICATION_JSON("application/json"), APPLICATION_CBOR("application/cbor");
 
     private final String mediaType;
 
@@ -33,6 +36,8 @@ public static MediaType getMediaType(String mediaType){
             return APPLICATION_JSON;
         }else if(APPLICATION_XML.getMediaType().equals(mediaType)){
             return APPLICATION_XML;
+        }else if(APPLICATION_CBOR.getMediaType().equals(mediaType)){
+            return APPLICATION_CBOR;
         }else{
             return null;
         }
@@ -52,4 +57,12 @@ public boolean isApplicationXML() {
         return this == APPLICATION_XML;
     }
 
+    /**
+     * @since 3.0.1
+     */
+    @Override
+    public boolean isApplicationCBOR() {
+        return this == APPLICATION_CBOR;
+    }
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -117,13 +117,7 @@ public void openStartElement(XPathFragment xPathFragment, NamespaceResolver name
             outputStreamWriteTab();
         }
         isStartElementOpen = true;
-        outputStreamWrite(OPEN_START_ELEMENT);
-        byte[] prefixBytes = getPrefixBytes(xPathFragment);
-        if(null != prefixBytes) {
-            outputStreamWrite(prefixBytes);
-            outputStreamWrite((byte)':');
-        }
-        outputStreamWrite(xPathFragment.getLocalNameBytes());
+        writeStartTag(xPathFragment);
         if(xPathFragment.isGeneratedPrefix()){
             namespaceDeclaration(xPathFragment.getPrefix(), xPathFragment.getNamespaceURI());
         }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -685,53 +685,7 @@ protected void writeValue(String value, boolean isAttribute) {
                    writer.writeResultFromCharEscapeHandler(value, isAttribute);
                    return;
                }
-
-              char[] chars = value.toCharArray();
-              for (int x = 0, charsSize = chars.length; x < charsSize; x++) {
-                  char character = chars[x];
-                  switch (character){
-                      case '"' : {
-                          writer.write("\\\"");
-                          break;
-                      }
-                      case '\b': {
-                          writer.write("\\b");
-                          break;
-                      }
-                      case '\f': {
-                          writer.write("\\f");
-                          break;
-                      }
-                      case '\n': {
-                          writer.write("\\n");
-                          break;
-                      }
-                      case '\r': {
-                          writer.write("\\r");
-                          break;
-                      }
-                      case '\t': {
-                          writer.write("\\t");
-                          break;
-                      }
-                      case '\\': {
-                          writer.write("\\\\");
-                          break;
-                      }
-                      default: {
-                          if(Character.isISOControl(character) || !encoder.canEncode(character)){
-                              writer.write("\\u");
-                              String hex = Integer.toHexString(character).toUpperCase();
-                              for(int i=hex.length(); i<4; i++){
-                                  writer.write("0");
-                              }
-                              writer.write(hex);
-                          }else{
-                              writer.write(character);
-                          }
-                      }
-                  }
-              }
+               writer.writeEscaped(value, encoder);
         } catch (IOException e) {
             throw XMLMarshalException.marshalException(e);
         }
@@ -1019,12 +973,40 @@ protected static interface Output {
 
         void writeResultFromCharEscapeHandler(String value, boolean isAttribute);
 
+        /**
+         * Write the value escaped as the content of a JSON string, characters the encoder
+         * cannot encode being written as unicode escapes.
+         */
+        void writeEscaped(String value, CharsetEncoder encoder) throws IOException;
+
     }
 
     protected static class OutputStreamOutput implements Output {
 
         private static final int BUFFER_SIZE = 512;
 
+        private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(Constants.DEFAULT_CHARSET);
+
+        /**
+         * The character following the backslash escaping each ASCII character, 'u' for a unicode
+         * escape, or 0 for the characters written as is.
+         */
+        private static final byte[] ASCII_ESCAPES = new byte[0x80];
+
+        static {
+            for (int character = 0; character < 0x20; character++) {
+                ASCII_ESCAPES[character] = 'u';
+            }
+            ASCII_ESCAPES[0x7F] = 'u';
+            ASCII_ESCAPES['"'] = '"';
+            ASCII_ESCAPES['\\'] = '\\';
+            ASCII_ESCAPES['\b'] = 'b';
+            ASCII_ESCAPES['\f'] = 'f';
+            ASCII_ESCAPES['\n'] = 'n';
+            ASCII_ESCAPES['\r'] = 'r';
+            ASCII_ESCAPES['\t'] = 't';
+        }
+
         private byte[] attributePrefix;
         private byte[] buffer = new byte[BUFFER_SIZE];
         private int bufferIndex = 0;
@@ -1134,7 +1116,62 @@ private void write(byte b) {
 
         @Override
         public void write(String text) throws IOException {
-            write(text.getBytes(Constants.DEFAULT_CHARSET));
+            int length = text.length();
+            if (length < BUFFER_SIZE) {
+                if (bufferIndex + length > BUFFER_SIZE) {
+                    outputStream.write(buffer, 0, bufferIndex);
+                    bufferIndex = 0;
+                }
+                // ASCII text, such as numbers, is copied without encoding it first
+                for (int index = 0; index < length; index++) {
+                    char character = text.charAt(index);
+                    if (character > 0x7F) {
+                        write(text.getBytes(Constants.DEFAULT_CHARSET));
+                        return;
+                    }
+                    buffer[bufferIndex + index] = (byte) character;
+                }
+                bufferIndex += length;
+            } else {
+                write(text.getBytes(Constants.DEFAULT_CHARSET));
+            }
+        }
+
+        @Override
+        public void writeEscaped(String value, CharsetEncoder encoder) throws IOException {
+            // the bytes are UTF-8, that encodes all but unpaired surrogates
+            boolean checkEncoder = encoder != null && !Constants.DEFAULT_CHARSET.equals(encoder.charset());
+            for (int index = 0, length = value.length(); index < length; index++) {
+                char character = value.charAt(index);
+                if (character <= 0x7F) {
+                    byte escape = ASCII_ESCAPES[character];
+                    if (escape == 0) {
+                        if (bufferIndex == BUFFER_SIZE) {
+                            outputStream.write(buffer, 0, BUFFER_SIZE);
+                            bufferIndex = 0;
+                        }
+                        buffer[bufferIndex++] = (byte) character;
+                    } else if (escape == 'u') {
+                        writeUnicodeEscape(character);
+                    } else {
+                        write((byte) '\\');
+                        write(escape);
+                    }
+                } else if (character <= 0x9F || Character.isSurrogate(character) || (checkEncoder && !encoder.canEncode(character))) {
+                    writeUnicodeEscape(character);
+                } else {
+                    write(character);
+                }
+            }
+        }
+
+        private void writeUnicodeEscape(char character) {
+            write((byte) '\\');
+            write((byte) 'u');
+            write(HEX_DIGITS[(character >> 12) & 0xF]);
+            write(HEX_DIGITS[(character >> 8) & 0xF]);
+            write(HEX_DIGITS[(character >> 4) & 0xF]);
+            write(HEX_DIGITS[character & 0xF]);
         }
 
         @Override
@@ -1252,6 +1289,56 @@ public void writeResultFromCharEscapeHandler(String value, boolean isAttribute)
             }
         }
 
+        @Override
+        public void writeEscaped(String value, CharsetEncoder encoder) throws IOException {
+              char[] chars = value.toCharArray();
+              for (int x = 0, charsSize = chars.length; x < charsSize; x++) {
+                  char character = chars[x];
+                  switch (character){
+                      case '"' : {
+                          writer.write("\\\"");
+                          break;
+                      }
+                      case '\b': {
+                          writer.write("\\b");
+                          break;
+                      }
+                      case '\f': {
+                          writer.write("\\f");
+                          break;
+                      }
+                      case '\n': {
+                          writer.write("\\n");
+                          break;
+                      }
+                      case '\r': {
+                          writer.write("\\r");
+                          break;
+                      }
+                      case '\t': {
+                          writer.write("\\t");
+                          break;
+                      }
+                      case '\\': {
+                          writer.write("\\\\");
+                          break;
+                      }
+                      default: {
+                          if(Character.isISOControl(character) || !encoder.canEncode(character)){
+                              writer.write("\\u");
+                              String hex = Integer.toHexString(character).toUpperCase();
+                              for(int i=hex.length(); i<4; i++){
+                                  writer.write("0");
+                              }
+                              writer.write(hex);
+                          }else{
+                              writer.write(character);
+                          }
+                      }
+                  }
+              }
+        }
+
     }
 
 }
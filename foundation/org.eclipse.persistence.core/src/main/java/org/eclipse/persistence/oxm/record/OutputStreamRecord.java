@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -158,13 +158,7 @@ public void openStartElement(XPathFragment xPathFragment, NamespaceResolver name
             outputStreamWrite(CLOSE_ELEMENT);
         }
         isStartElementOpen = true;
-        outputStreamWrite(OPEN_START_ELEMENT);
-        byte[] prefixBytes = getPrefixBytes(xPathFragment);
-        if(null != prefixBytes) {
-            outputStreamWrite(prefixBytes);
-            outputStreamWrite((byte)':');
-        }
-        outputStreamWrite(xPathFragment.getLocalNameBytes());
+        writeStartTag(xPathFragment);
         if(xPathFragment.isGeneratedPrefix()){
             namespaceDeclaration(xPathFragment.getPrefix(), xPathFragment.getNamespaceURI());
         }
@@ -179,10 +173,15 @@ public void element(XPathFragment frag) {
             outputStreamWrite(CLOSE_ELEMENT);
             isStartElementOpen = false;
         }
-        outputStreamWrite(OPEN_START_ELEMENT);
-        try {
-            outputStreamWrite(getNameForFragment(frag).getBytes(Constants.DEFAULT_XML_ENCODING));
-        } catch (UnsupportedEncodingException e) {
+        byte[] startTagBytes = getStartTagBytes(frag);
+        if(null != startTagBytes) {
+            outputStreamWrite(startTagBytes);
+        } else {
+            outputStreamWrite(OPEN_START_ELEMENT);
+            try {
+                outputStreamWrite(getNameForFragment(frag).getBytes(Constants.DEFAULT_XML_ENCODING));
+            } catch (UnsupportedEncodingException e) {
+            }
         }
         outputStreamWrite((byte)'/');
         outputStreamWrite((byte)'>');
@@ -193,7 +192,14 @@ public void element(XPathFragment frag) {
      */
     @Override
     public void attribute(XPathFragment xPathFragment, NamespaceResolver namespaceResolver, String value) {
-        attribute(null, xPathFragment.getLocalName(), getNameForFragment(xPathFragment), value);
+        byte[] attributeNameBytes = hasCustomNamespaceMapper() ? null : xPathFragment.getAttributeNameBytes();
+        if(null == attributeNameBytes) {
+            attribute(null, xPathFragment.getLocalName(), getNameForFragment(xPathFragment), value);
+            return;
+        }
+        outputStreamWrite(attributeNameBytes);
+        writeValue(value, true, true, this.outputStream);
+        outputStreamWrite(CLOSE_ATTRIBUTE_VALUE);
     }
 
     /**
@@ -229,19 +235,57 @@ public void endElement(XPathFragment xPathFragment, NamespaceResolver namespaceR
             outputStreamWrite((byte) '>');
             isStartElementOpen = false;
         } else {
-            outputStreamWrite((byte)'<');
-            outputStreamWrite((byte)'/');
-            byte[] prefixBytes = getPrefixBytes(xPathFragment);
-            if(null != prefixBytes) {
-                outputStreamWrite(prefixBytes);
-                outputStreamWrite((byte)':');
-            }
-            outputStreamWrite(xPathFragment.getLocalNameBytes());
-            outputStreamWrite(CLOSE_ELEMENT);
+            writeEndTag(xPathFragment);
         }
         isStartElementOpen = false;
     }
 
+    /**
+     * INTERNAL:
+     * Write "&lt;prefix:localName" for the fragment, copying the bytes it was encoded to
+     * when its descriptor was initialized, unless a namespace prefix mapper renames it.
+     */
+    protected void writeStartTag(XPathFragment xPathFragment) {
+        byte[] startTagBytes = getStartTagBytes(xPathFragment);
+        if(null != startTagBytes) {
+            outputStreamWrite(startTagBytes);
+            return;
+        }
+        outputStreamWrite(OPEN_START_ELEMENT);
+        byte[] prefixBytes = getPrefixBytes(xPathFragment);
+        if(null != prefixBytes) {
+            outputStreamWrite(prefixBytes);
+            outputStreamWrite((byte)':');
+        }
+        outputStreamWrite(xPathFragment.getLocalNameBytes());
+    }
+
+    /**
+     * INTERNAL:
+     * Write "&lt;/prefix:localName&gt;" for the fragment, copying the bytes it was encoded to
+     * when its descriptor was initialized, unless a namespace prefix mapper renames it.
+     */
+    protected void writeEndTag(XPathFragment xPathFragment) {
+        byte[] endTagBytes = hasCustomNamespaceMapper() ? null : xPathFragment.getEndTagBytes();
+        if(null != endTagBytes) {
+            outputStreamWrite(endTagBytes);
+            return;
+        }
+        outputStreamWrite((byte)'<');
+        outputStreamWrite((byte)'/');
+        byte[] prefixBytes = getPrefixBytes(xPathFragment);
+        if(null != prefixBytes) {
+            outputStreamWrite(prefixBytes);
+            outputStreamWrite((byte)':');
+        }
+        outputStreamWrite(xPathFragment.getLocalNameBytes());
+        outputStreamWrite(CLOSE_ELEMENT);
+    }
+
+    private byte[] getStartTagBytes(XPathFragment xPathFragment) {
+        return hasCustomNamespaceMapper() ? null : xPathFragment.getStartTagBytes();
+    }
+
     /**
      * INTERNAL:
      */
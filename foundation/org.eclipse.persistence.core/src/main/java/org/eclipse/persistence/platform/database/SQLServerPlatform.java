@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2019 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -315,6 +315,15 @@ public int getMaxFieldNameSize() {
         return 22;
     }
 
+    /**
+     * INTERNAL:
+     * SQL Server allows at most 2100 parameters in a statement.
+     */
+    @Override
+    public int getMaxBindParameters() {
+        return 2100;
+    }
+
     /**
      * Return the catalog information through using the native SQL catalog selects.
      * This is required because many JDBC driver do not support meta-data.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -30,6 +30,7 @@
 import java.util.Map;
 import java.util.Vector;
 
+import org.eclipse.persistence.annotations.BatchFetchType;
 import org.eclipse.persistence.exceptions.DatabaseException;
 import org.eclipse.persistence.exceptions.QueryException;
 import org.eclipse.persistence.expressions.Expression;
@@ -43,6 +44,7 @@
 import org.eclipse.persistence.internal.helper.DatabaseField;
 import org.eclipse.persistence.internal.helper.InvalidObject;
 import org.eclipse.persistence.internal.helper.ThreadCursoredList;
+import org.eclipse.persistence.internal.queries.AdaptiveBatchFetchStatistics;
 import org.eclipse.persistence.internal.queries.ContainerPolicy;
 import org.eclipse.persistence.internal.queries.DatasourceCallQueryMechanism;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
@@ -53,6 +55,7 @@
 import org.eclipse.persistence.internal.sessions.remote.RemoteSessionController;
 import org.eclipse.persistence.internal.sessions.remote.Transporter;
 import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
 import org.eclipse.persistence.mappings.OneToManyMapping;
 import org.eclipse.persistence.sessions.DatabaseRecord;
 import org.eclipse.persistence.sessions.SessionProfiler;
@@ -591,6 +594,9 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
                     // Batch fetching in IN requires access to the rows to build the id array.
                     if ((this.batchFetchPolicy != null) && this.batchFetchPolicy.isIN()) {
                         this.batchFetchPolicy.setDataResults(rows);
+                    } else if ((this.batchFetchPolicy == null) && (rows.size() > 1)
+                            && (this.descriptor.getObjectBuilder().getAdaptiveBatchFetchedAttributes() != null)) {
+                        prepareAdaptiveBatchFetch(rows);
                     }
                 }
 
@@ -693,6 +699,39 @@ protected Object executeObjectLevelReadQueryFromResultSet() throws DatabaseExcep
         }
     }
 
+    /**
+     * INTERNAL:
+     * Record the rows read for the relationships that may be batch fetched depending on their usage,
+     * and batch fetch the ones currently used after most reads using IN.
+     * Queries using joining keep fetching them lazily, as batched attributes are only known by name.
+     */
+    protected void prepareAdaptiveBatchFetch(List<AbstractRecord> rows) {
+        int rowsSize = rows.size();
+        List<String> attributes = null;
+        int size = rowsSize;
+        for (ForeignReferenceMapping mapping : this.descriptor.getObjectBuilder().getAdaptiveBatchFetchedAttributes()) {
+            AdaptiveBatchFetchStatistics statistics = mapping.getAdaptiveBatchFetchStatistics();
+            statistics.read(rowsSize, this.session);
+            if (statistics.isBatched()) {
+                if (attributes == null) {
+                    attributes = new ArrayList<>();
+                }
+                attributes.add(mapping.getAttributeName());
+                size = Math.min(size, statistics.computeSize(rowsSize, this.session));
+            }
+        }
+        if ((attributes == null) || hasJoining() || hasPartialAttributeExpressions()) {
+            return;
+        }
+        BatchFetchPolicy policy = new BatchFetchPolicy(BatchFetchType.IN);
+        policy.setSize(size);
+        policy.setAttributeExpressions(new ArrayList<>(0));
+        policy.setAttributes(attributes);
+        policy.setDataResults(rows);
+        this.batchFetchPolicy = policy;
+        this.session.incrementProfile(SessionProfiler.AdaptiveBatchFetches, this);
+    }
+
     /**
      * INTERNAL:
      * Extract the correct query result from the transporter.
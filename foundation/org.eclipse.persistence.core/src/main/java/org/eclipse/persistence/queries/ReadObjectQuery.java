@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -40,6 +40,8 @@
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
 import org.eclipse.persistence.internal.helper.InvalidObject;
 import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.internal.identitymaps.IdentityMapManager;
+import org.eclipse.persistence.internal.identitymaps.OffHeapCache;
 import org.eclipse.persistence.internal.indirection.ProxyIndirectionPolicy;
 import org.eclipse.persistence.internal.queries.DatasourceCallQueryMechanism;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
@@ -548,6 +550,7 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
                 }
             }
         } else {
+            OffHeapCache.Entry offHeapEntry = null;
             if (sopObject != null) {
                 row = new DatabaseRecord(0);
                 row.setSopObject(sopObject);
@@ -560,11 +563,21 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
                     }
                     getJoinedAttributeManager().setDataResults(rows, session);
                 } else {
-                    row = getQueryMechanism().selectOneRow();
+                    offHeapEntry = checkOffHeapCache(session);
+                    if (offHeapEntry != null) {
+                        row = offHeapEntry.getRow();
+                    } else {
+                        row = getQueryMechanism().selectOneRow();
+                    }
                 }
             }
 
-            this.executionTime = System.currentTimeMillis();
+            if (offHeapEntry != null) {
+                // The object is rebuilt as it was when read from the database.
+                this.executionTime = offHeapEntry.getReadTime();
+            } else {
+                this.executionTime = System.currentTimeMillis();
+            }
             if (row != null) {
                 if (session.isUnitOfWork()) {
                     result = registerResultInUnitOfWork(row, (UnitOfWorkImpl)session, this.translationRow, true);
@@ -599,6 +612,42 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
         return result;
     }
 
+    /**
+     * INTERNAL:
+     * Return the row of the object evicted from the shared cache to its off-heap tier, if held and usable by this query.
+     * Only plain primary key queries that would use the shared cache are answered from the off-heap tier.
+     */
+    protected OffHeapCache.Entry checkOffHeapCache(AbstractSession session) {
+        if (hasJoining() || isLockQuery() || this.shouldIncludeData || hasAsOfClause() || hasPartialAttributeExpressions()
+                || (getExecutionFetchGroup() != null) || !shouldCheckCache() || !shouldMaintainCache()
+                || shouldRefreshIdentityMapResult() || shouldRetrieveBypassCache() || session.isRemoteSession()
+                || (shouldCheckDescriptorForCacheUsage() && this.descriptor.shouldDisableCacheHits())) {
+            return null;
+        }
+        AbstractSession parent = session.getParentIdentityMapSession(this.descriptor, false, true);
+        IdentityMapManager manager = parent.getIdentityMapAccessorInstance().getIdentityMapManager();
+        if (manager.getOffHeapCache() == null) {
+            return null;
+        }
+        Object primaryKey = this.selectionId;
+        if ((primaryKey == null) && (this.selectionObject != null)) {
+            primaryKey = this.descriptor.getObjectBuilder().extractPrimaryKeyFromObject(this.selectionObject, session);
+        } else if ((primaryKey == null) && (getSelectionCriteria() != null)) {
+            primaryKey = this.descriptor.getObjectBuilder().extractPrimaryKeyFromExpression(true, getSelectionCriteria(), this.translationRow, session);
+        }
+        if (primaryKey == null) {
+            return null;
+        }
+        if (session.isUnitOfWork()) {
+            UnitOfWorkImpl unitOfWork = (UnitOfWorkImpl)session;
+            if (unitOfWork.shouldReadFromDB() || unitOfWork.shouldForceReadFromDB(this, primaryKey)
+                    || this.descriptor.getCachePolicy().shouldIsolateObjectsInUnitOfWork()) {
+                return null;
+            }
+        }
+        return manager.getFromOffHeapCache(primaryKey, this.descriptor);
+    }
+
     /**
      * INTERNAL:
      * Execute the query building the objects directly from the database result-set.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -1195,6 +1195,41 @@ public Integer getNumberOfPersistentClasses() {
          return Integer.valueOf(classesTable.size());
      }
 
+     /**
+      * Return the number of JPQL queries found already parsed in the JPQL parse cache.
+      */
+     public Long getJPQLParseCacheHitCount() {
+         return Long.valueOf(getSession().getProject().getJPQLParseCache().getHitCount());
+     }
+
+     /**
+      * Return the number of JPQL queries not found in the JPQL parse cache, that had to be parsed.
+      */
+     public Long getJPQLParseCacheMissCount() {
+         return Long.valueOf(getSession().getProject().getJPQLParseCache().getMissCount());
+     }
+
+     /**
+      * Return the ratio of JPQL queries found already parsed in the JPQL parse cache.
+      */
+     public Double getJPQLParseCacheHitRatio() {
+         return Double.valueOf(getSession().getProject().getJPQLParseCache().getHitRatio());
+     }
+
+     /**
+      * Return the number of parsed JPQL queries evicted from the JPQL parse cache for more frequently used ones.
+      */
+     public Long getJPQLParseCacheEvictionCount() {
+         return Long.valueOf(getSession().getProject().getJPQLParseCache().getEvictionCount());
+     }
+
+     /**
+      * Return the number of parsed JPQL queries currently in the JPQL parse cache.
+      */
+     public Integer getJPQLParseCacheSize() {
+         return Integer.valueOf(getSession().getProject().getJPQLParseCache().getCache().size());
+     }
+
      /**
      * Return the log type, either "EclipseLink",  "Java" or the simple name of the logging class used.
      *
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -406,6 +406,31 @@ public interface MBeanRuntimeServicesMBean {
     */
     Integer getNumberOfPersistentClasses();
 
+    /**
+    *        This method will answer the number of JPQL queries found already parsed in the JPQL parse cache.
+    */
+    Long getJPQLParseCacheHitCount();
+
+    /**
+    *        This method will answer the number of JPQL queries not found in the JPQL parse cache.
+    */
+    Long getJPQLParseCacheMissCount();
+
+    /**
+    *        This method will answer the ratio of JPQL queries found already parsed in the JPQL parse cache.
+    */
+    Double getJPQLParseCacheHitRatio();
+
+    /**
+    *        This method will answer the number of parsed JPQL queries evicted from the JPQL parse cache.
+    */
+    Long getJPQLParseCacheEvictionCount();
+
+    /**
+    *        This method will answer the number of parsed JPQL queries in the JPQL parse cache.
+    */
+    Integer getJPQLParseCacheSize();
+
     /**
     *        This method will log the instance level locks in all Identity Maps in the session.
     */
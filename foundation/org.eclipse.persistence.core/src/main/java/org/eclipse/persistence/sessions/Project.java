@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -131,6 +131,21 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
     /** Default value for query caching options for all named queries. */
     protected QueryResultsCachePolicy defaultQueryResultsCachePolicy;
 
+    /** Maximum approximate size in bytes of the query results cache of all queries, 0 if unbounded. */
+    protected long queryResultsCacheMaximumSize;
+
+    /** Size in bytes of the off-heap tier of the shared object cache, 0 if none. */
+    protected long offHeapCacheSize;
+
+    /** Batch fetch lazy relationships selected from their usage. */
+    protected boolean adaptiveBatchFetch;
+
+    /** Initialize descriptors on first use instead of on login. */
+    protected boolean lazyDescriptorInitialization;
+
+    /** Number of threads compiling the named queries on login, 0 if they are only parsed. */
+    protected int namedQueryCompileParallelism;
+
     /** Default value for ClassDescriptor.idValidation. */
     protected IdValidation defaultIdValidation;
 
@@ -246,6 +261,123 @@ public void setDefaultQueryResultsCachePolicy(QueryResultsCachePolicy defaultQue
         this.defaultQueryResultsCachePolicy = defaultQueryResultsCachePolicy;
     }
 
+    /**
+     * PUBLIC:
+     * Return the maximum approximate size in bytes of the cached results of all queries.
+     * By default (0) the query results cache is only bounded per query.
+     */
+    public long getQueryResultsCacheMaximumSize() {
+        return queryResultsCacheMaximumSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the maximum approximate size in bytes of the cached results of all queries.
+     * Once exceeded, the least frequently hit results are evicted, regardless of their query.
+     * The size of a result is estimated from its containers, parameters and non domain values,
+     * domain objects are held by the object cache and only count as references.
+     * By default (0) the query results cache is only bounded per query.
+     * @see QueryResultsCachePolicy#setMaximumCachedResults(int)
+     */
+    public void setQueryResultsCacheMaximumSize(long queryResultsCacheMaximumSize) {
+        this.queryResultsCacheMaximumSize = queryResultsCacheMaximumSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the size in bytes of the off-heap tier of the shared object cache.
+     * By default (0) there is no off-heap tier.
+     */
+    public long getOffHeapCacheSize() {
+        return offHeapCacheSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the size in bytes of the off-heap tier of the shared object cache.
+     * When objects are evicted from a fixed size LRU cache (CacheIdentityMap) their rows are kept
+     * in direct buffers outside of the heap, and primary key reads rebuild the object from the row
+     * instead of selecting it from the database.
+     * The JVM's maximum direct memory (-XX:MaxDirectMemorySize) must allow for the size.
+     * By default (0) there is no off-heap tier.
+     * @see org.eclipse.persistence.descriptors.CachePolicy#setIdentityMapClass(Class)
+     */
+    public void setOffHeapCacheSize(long offHeapCacheSize) {
+        this.offHeapCacheSize = offHeapCacheSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if lazy relationships are batch fetched depending on their usage.
+     * By default (false) only relationships configured for batch fetching are.
+     */
+    public boolean isAdaptiveBatchFetch() {
+        return adaptiveBatchFetch;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if lazy relationships are batch fetched depending on their usage.
+     * For each lazy one to one, one to many and many to many relationship not configured for batch
+     * or join fetching, the number of objects read by read-all queries and how many times their
+     * relationship is then instantiated are counted.
+     * Once a relationship is found to be instantiated for most objects read, read-all queries
+     * without batch fetching of their own fetch it using IN batch fetching, with a size bounded
+     * by the platform's bind parameter limit, which avoids a select per object (N+1 selects).
+     * The decisions are logged and counted in the session profiler.
+     * By default (false) only relationships configured for batch fetching are.
+     * @see org.eclipse.persistence.sessions.SessionProfiler#AdaptiveBatchFetchEnabled
+     */
+    public void setAdaptiveBatchFetch(boolean adaptiveBatchFetch) {
+        this.adaptiveBatchFetch = adaptiveBatchFetch;
+    }
+
+    /**
+     * PUBLIC:
+     * Return if descriptors are initialized on first use instead of on login.
+     * By default (false) all descriptors are initialized on login.
+     */
+    public boolean isLazyDescriptorInitialization() {
+        return lazyDescriptorInitialization;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if descriptors are initialized on first use instead of on login.
+     * When a descriptor is first looked up from the session, it is initialized together with its
+     * inheritance hierarchy and all the descriptors it references through its relationships,
+     * aggregates and constraint dependencies, so initialized descriptors only ever reference initialized ones.
+     * This reduces the login time and memory of projects with many descriptors of which only some are used.
+     * Projects using session brokers, interface descriptors or table per tenant multitenancy
+     * are always initialized on login.
+     * By default (false) all descriptors are initialized on login.
+     */
+    public void setLazyDescriptorInitialization(boolean lazyDescriptorInitialization) {
+        this.lazyDescriptorInitialization = lazyDescriptorInitialization;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of threads compiling the JPA named queries on login.
+     * By default (0) the named queries are only parsed on login, and prepared on first execution.
+     */
+    public int getNamedQueryCompileParallelism() {
+        return namedQueryCompileParallelism;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of threads compiling the JPA named queries on login.
+     * When greater than 0, each named query is parsed and prepared into its SQL on login,
+     * on that many threads, so the first executions of the queries do not pay for it.
+     * The compile time of each query is logged, and recorded in the session's named query catalog.
+     * By default (0) the named queries are only parsed on login, and prepared on first execution.
+     * @see org.eclipse.persistence.internal.sessions.NamedQueryCatalog
+     */
+    public void setNamedQueryCompileParallelism(int namedQueryCompileParallelism) {
+        this.namedQueryCompileParallelism = namedQueryCompileParallelism;
+    }
+
     /**
      * PUBLIC:
      * Return the default setting for configuring if dates and calendars are mutable.
@@ -1030,6 +1162,14 @@ public boolean hasSQLResultSetMapping(String sqlResultSetMapping) {
         return sqlResultSetMappings.containsKey(sqlResultSetMapping);
     }
 
+    /**
+     * INTERNAL:
+     * Return true if any sql result set mapping was added to the project.
+     */
+    public boolean hasSQLResultSetMappings() {
+        return (this.sqlResultSetMappings != null) && !this.sqlResultSetMappings.isEmpty();
+    }
+
     /**
      * PUBLIC:
      * Return true if there is a VPD identifier for this project. Will not be
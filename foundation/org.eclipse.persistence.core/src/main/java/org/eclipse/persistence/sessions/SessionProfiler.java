@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -50,6 +50,18 @@ public interface SessionProfiler {
     String Disconnects = "Counter:DisconnectCalls";
     String CacheHits = "Counter:CacheHits";
     String CacheMisses = "Counter:CacheMisses";
+    String QueryResultsCacheHits = "Counter:QueryResultsCacheHits";
+    String QueryResultsCacheMisses = "Counter:QueryResultsCacheMisses";
+    String QueryResultsCacheEvictions = "Counter:QueryResultsCacheEvictions";
+    String OffHeapCacheHits = "Counter:OffHeapCacheHits";
+    String OffHeapCacheMisses = "Counter:OffHeapCacheMisses";
+    String OffHeapCacheStores = "Counter:OffHeapCacheStores";
+    String OffHeapCacheEvictions = "Counter:OffHeapCacheEvictions";
+    String AdaptiveBatchFetchEnabled = "Counter:AdaptiveBatchFetchEnabled";
+    String AdaptiveBatchFetchDisabled = "Counter:AdaptiveBatchFetchDisabled";
+    String AdaptiveBatchFetches = "Counter:AdaptiveBatchFetches";
+    String JPQLParseCacheHits = "Counter:JPQLParseCacheHits";
+    String JPQLParseCacheMisses = "Counter:JPQLParseCacheMisses";
     String ChangeSetsProcessed = "Counter:ChangesProcessed";
     String ChangeSetsNotProcessed = "Counter:ChangesNotProcessed";
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -74,10 +74,12 @@ public class SchemaManager {
 
     public SchemaManager(DatabaseSessionImpl session) {
         this.session = session;
+        // Generating the schema requires all descriptors.
+        session.initializeAllDescriptorsOnFirstUse();
     }
 
     public SchemaManager(org.eclipse.persistence.sessions.DatabaseSession session) {
-        this.session = ((DatabaseSessionImpl)session);
+        this((DatabaseSessionImpl)session);
     }
 
     protected Writer getDropSchemaWriter() {
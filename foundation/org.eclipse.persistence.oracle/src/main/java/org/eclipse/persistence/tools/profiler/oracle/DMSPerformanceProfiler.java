@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -533,6 +533,42 @@ protected void initializeHeavyWeightSensors() {
         //CacheMisses
         Event cacheMisses = Event.create(cacheNoun, SessionProfiler.CacheMisses, DMSLocalization.buildMessage("cache_misses"));
         getHeavyWeightSensors().put(SessionProfiler.CacheMisses, cacheMisses);
+        //QueryResultsCacheHits
+        Event queryResultsCacheHits = Event.create(cacheNoun, SessionProfiler.QueryResultsCacheHits, DMSLocalization.buildMessage("query_results_cache_hits"));
+        getHeavyWeightSensors().put(SessionProfiler.QueryResultsCacheHits, queryResultsCacheHits);
+        //QueryResultsCacheMisses
+        Event queryResultsCacheMisses = Event.create(cacheNoun, SessionProfiler.QueryResultsCacheMisses, DMSLocalization.buildMessage("query_results_cache_misses"));
+        getHeavyWeightSensors().put(SessionProfiler.QueryResultsCacheMisses, queryResultsCacheMisses);
+        //QueryResultsCacheEvictions
+        Event queryResultsCacheEvictions = Event.create(cacheNoun, SessionProfiler.QueryResultsCacheEvictions, DMSLocalization.buildMessage("query_results_cache_evictions"));
+        getHeavyWeightSensors().put(SessionProfiler.QueryResultsCacheEvictions, queryResultsCacheEvictions);
+        //OffHeapCacheHits
+        Event offHeapCacheHits = Event.create(cacheNoun, SessionProfiler.OffHeapCacheHits, DMSLocalization.buildMessage("off_heap_cache_hits"));
+        getHeavyWeightSensors().put(SessionProfiler.OffHeapCacheHits, offHeapCacheHits);
+        //OffHeapCacheMisses
+        Event offHeapCacheMisses = Event.create(cacheNoun, SessionProfiler.OffHeapCacheMisses, DMSLocalization.buildMessage("off_heap_cache_misses"));
+        getHeavyWeightSensors().put(SessionProfiler.OffHeapCacheMisses, offHeapCacheMisses);
+        //OffHeapCacheStores
+        Event offHeapCacheStores = Event.create(cacheNoun, SessionProfiler.OffHeapCacheStores, DMSLocalization.buildMessage("off_heap_cache_stores"));
+        getHeavyWeightSensors().put(SessionProfiler.OffHeapCacheStores, offHeapCacheStores);
+        //OffHeapCacheEvictions
+        Event offHeapCacheEvictions = Event.create(cacheNoun, SessionProfiler.OffHeapCacheEvictions, DMSLocalization.buildMessage("off_heap_cache_evictions"));
+        getHeavyWeightSensors().put(SessionProfiler.OffHeapCacheEvictions, offHeapCacheEvictions);
+        //AdaptiveBatchFetchEnabled
+        Event adaptiveBatchFetchEnabled = Event.create(baseSessionNoun, SessionProfiler.AdaptiveBatchFetchEnabled, DMSLocalization.buildMessage("adaptive_batch_fetch_enabled"));
+        getHeavyWeightSensors().put(SessionProfiler.AdaptiveBatchFetchEnabled, adaptiveBatchFetchEnabled);
+        //AdaptiveBatchFetchDisabled
+        Event adaptiveBatchFetchDisabled = Event.create(baseSessionNoun, SessionProfiler.AdaptiveBatchFetchDisabled, DMSLocalization.buildMessage("adaptive_batch_fetch_disabled"));
+        getHeavyWeightSensors().put(SessionProfiler.AdaptiveBatchFetchDisabled, adaptiveBatchFetchDisabled);
+        //AdaptiveBatchFetches
+        Event adaptiveBatchFetches = Event.create(baseSessionNoun, SessionProfiler.AdaptiveBatchFetches, DMSLocalization.buildMessage("adaptive_batch_fetches"));
+        getHeavyWeightSensors().put(SessionProfiler.AdaptiveBatchFetches, adaptiveBatchFetches);
+        //JPQLParseCacheHits
+        Event jpqlParseCacheHits = Event.create(baseSessionNoun, SessionProfiler.JPQLParseCacheHits, DMSLocalization.buildMessage("jpql_parse_cache_hits"));
+        getHeavyWeightSensors().put(SessionProfiler.JPQLParseCacheHits, jpqlParseCacheHits);
+        //JPQLParseCacheMisses
+        Event jpqlParseCacheMisses = Event.create(baseSessionNoun, SessionProfiler.JPQLParseCacheMisses, DMSLocalization.buildMessage("jpql_parse_cache_misses"));
+        getHeavyWeightSensors().put(SessionProfiler.JPQLParseCacheMisses, jpqlParseCacheMisses);
 
         //put in NormalAndHeavyWeightSensors
         getNormalAndHeavyWeightSensors().putAll(getNormalWeightSensors());
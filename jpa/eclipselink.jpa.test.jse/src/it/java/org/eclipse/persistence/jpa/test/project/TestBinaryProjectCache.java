@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.jpa.metadata.BinaryFileProjectCache;
+import org.eclipse.persistence.jpa.test.project.model.ProjectTask;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.Session;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Deploy a persistence unit storing its project in a binary file, then deploy it again from the file,
+ * checking it gives the same descriptors, mappings and named queries as processing the metadata,
+ * and that the file is not used once a class of the persistence unit or a property changed,
+ * or when it has another format version.
+ */
+public class TestBinaryProjectCache {
+
+    private static final String PERSISTENCE_UNIT = "binary-project-pu";
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("binaryproject", ".bin");
+        Files.delete(file);
+        RecordingBinaryProjectCache.retrievedProject = null;
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testStoreRetrieveDeploy() {
+        Map<String, Object> properties = buildProperties();
+        Map<String, String> metadataDescriptors;
+        Map<String, String> metadataQueries;
+        EntityManagerFactory metadataFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
+        try {
+            Session metadataSession = JpaHelper.getServerSession(metadataFactory);
+            Assert.assertNull("Project should be built from the metadata", RecordingBinaryProjectCache.retrievedProject);
+            metadataDescriptors = TestGeneratedProjectClass.describeDescriptors(metadataSession);
+            metadataQueries = TestGeneratedProjectClass.describeQueries(metadataSession);
+        } finally {
+            metadataFactory.close();
+        }
+        Assert.assertTrue("Project should be stored", Files.exists(file));
+
+        EntityManagerFactory cachedFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
+        try {
+            Session cachedSession = JpaHelper.getServerSession(cachedFactory);
+            Assert.assertNotNull("Project should be read from the file", RecordingBinaryProjectCache.retrievedProject);
+            Assert.assertSame(RecordingBinaryProjectCache.retrievedProject, cachedSession.getProject());
+            Assert.assertEquals(metadataDescriptors, TestGeneratedProjectClass.describeDescriptors(cachedSession));
+            Assert.assertEquals(metadataQueries, TestGeneratedProjectClass.describeQueries(cachedSession));
+        } finally {
+            cachedFactory.close();
+        }
+    }
+
+    @Test
+    public void testStaleFileNotRetrieved() throws Exception {
+        Map<String, Object> properties = buildProperties();
+        deploy(properties);
+        Assert.assertTrue("Project should be stored", Files.exists(file));
+
+        // A changed class of the persistence unit, the project is then stored again.
+        File classFile = new File(ProjectTask.class.getResource("ProjectTask.class").toURI());
+        long lastModified = classFile.lastModified();
+        try {
+            Assert.assertTrue(classFile.setLastModified(lastModified + 2000));
+            deploy(properties);
+            Assert.assertNull("Project should not be read once a class changed", RecordingBinaryProjectCache.retrievedProject);
+        } finally {
+            classFile.setLastModified(lastModified);
+        }
+        deploy(properties);
+        Assert.assertNull("Project should not be read once a class changed", RecordingBinaryProjectCache.retrievedProject);
+        deploy(properties);
+        Assert.assertNotNull("Project should be read from the file", RecordingBinaryProjectCache.retrievedProject);
+
+        // A changed property.
+        properties.put(PersistenceUnitProperties.CACHE_SHARED_DEFAULT, "false");
+        deploy(properties);
+        Assert.assertNull("Project should not be read once a property changed", RecordingBinaryProjectCache.retrievedProject);
+
+        // A file of another format version.
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(BinaryFileProjectCache.MAGIC);
+            out.writeInt(BinaryFileProjectCache.FORMAT_VERSION + 1);
+        }
+        deploy(properties);
+        Assert.assertNull("Project should not be read from a file of another format version", RecordingBinaryProjectCache.retrievedProject);
+    }
+
+    private static void deploy(Map<String, Object> properties) {
+        RecordingBinaryProjectCache.retrievedProject = null;
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
+        try {
+            JpaHelper.getServerSession(factory);
+        } finally {
+            factory.close();
+        }
+    }
+
+    private Map<String, Object> buildProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceUnitProperties.VALIDATION_ONLY_PROPERTY, "true");
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE, RecordingBinaryProjectCache.class.getName());
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE_BINARY_FILE, file.toString());
+        return properties;
+    }
+
+    /**
+     * Record the project retrieved from the file, null if the metadata was processed.
+     */
+    public static class RecordingBinaryProjectCache extends BinaryFileProjectCache {
+        static Project retrievedProject;
+
+        @Override
+        public Project retrieveProject(Map properties, ClassLoader loader, SessionLog log) {
+            retrievedProject = super.retrieveProject(properties, loader, log);
+            return retrievedProject;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseTable;
+import org.eclipse.persistence.internal.jpa.JPAQuery;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.jpa.test.project.model.ProjectDepartment;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.tools.project.jpa.StaticProjectGenerator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Generate the project class of a persistence unit, compile and load it, and deploy the persistence unit from it,
+ * checking it gives the same descriptors, mappings and named queries as processing the metadata.
+ */
+public class TestGeneratedProjectClass {
+
+    private static final String PERSISTENCE_UNIT = "generated-project-pu";
+    private static final String PROJECT_CLASS = "org.eclipse.persistence.jpa.test.project.generated.GeneratedProject";
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("generatedproject");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testGenerateCompileLoadDeploy() throws Exception {
+        // Generate.
+        Path sourceDirectory = directory.resolve("src");
+        StaticProjectGenerator.main(new String[] {PERSISTENCE_UNIT, PROJECT_CLASS, sourceDirectory.toString()});
+        Path source = sourceDirectory.resolve(PROJECT_CLASS.replace('.', File.separatorChar) + ".java");
+        Assert.assertTrue("Project class source should be generated", Files.exists(source));
+
+        // Compile.
+        Path classDirectory = Files.createDirectories(directory.resolve("classes"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assert.assertNotNull("A Java compiler is required", compiler);
+        int result = compiler.run(null, null, null, "-nowarn", "-proc:none", "-d", classDirectory.toString(),
+                "-cp", buildClassPath(), source.toString());
+        Assert.assertEquals("Generated project class should compile", 0, result);
+
+        // Load.
+        ClassLoader loader = new URLClassLoader(new URL[] {classDirectory.toUri().toURL()}, getClass().getClassLoader());
+        Project generatedProject = (Project)loader.loadClass(PROJECT_CLASS).getConstructor().newInstance();
+        Assert.assertEquals(3, generatedProject.getOrderedDescriptors().size());
+        Assert.assertEquals(3, generatedProject.getJPAQueries().size());
+
+        // Deploy from the metadata, then from the generated class.
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceUnitProperties.VALIDATION_ONLY_PROPERTY, "true");
+        EntityManagerFactory metadataFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
+        try {
+            Session metadataSession = JpaHelper.getServerSession(metadataFactory);
+            Map<String, String> metadataDescriptors = describeDescriptors(metadataSession);
+            Map<String, String> metadataQueries = describeQueries(metadataSession);
+            metadataFactory.close();
+
+            properties.put(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_CLASS, PROJECT_CLASS);
+            properties.put(PersistenceUnitProperties.CLASSLOADER, loader);
+            EntityManagerFactory generatedFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
+            try {
+                Session generatedSession = JpaHelper.getServerSession(generatedFactory);
+                Assert.assertEquals("Persistence unit should be deployed from the generated class",
+                        PROJECT_CLASS, generatedSession.getProject().getClass().getName());
+                Assert.assertEquals(metadataDescriptors, describeDescriptors(generatedSession));
+                Assert.assertEquals(metadataQueries, describeQueries(generatedSession));
+            } finally {
+                generatedFactory.close();
+            }
+        } finally {
+            if (metadataFactory.isOpen()) {
+                metadataFactory.close();
+            }
+        }
+    }
+
+    /**
+     * Return the class path of the generated project class: EclipseLink, JPA and the entity classes.
+     */
+    private String buildClassPath() throws URISyntaxException {
+        List<String> paths = new ArrayList<>();
+        for (Class<?> type : Arrays.asList(Project.class, JPAQuery.class, Entity.class, ProjectDepartment.class)) {
+            String path = new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+            if (!paths.contains(path)) {
+                paths.add(path);
+            }
+        }
+        return String.join(File.pathSeparator, paths);
+    }
+
+    /**
+     * Return a description of each descriptor of the session, with its tables, primary key, mappings and listeners.
+     */
+    static Map<String, String> describeDescriptors(Session session) {
+        Map<String, String> descriptions = new TreeMap<>();
+        List<ClassDescriptor> descriptors = new ArrayList<>(session.getProject().getOrderedDescriptors());
+        descriptors.addAll(session.getProject().getMappedSuperclassDescriptors().values());
+        for (ClassDescriptor descriptor : descriptors) {
+            StringBuilder description = new StringBuilder();
+            description.append(descriptor.isAggregateDescriptor() ? "embeddable" : "entity");
+            for (DatabaseTable table : descriptor.getTables()) {
+                description.append(" table=").append(table.getQualifiedName());
+            }
+            description.append(" pk=").append(describeFields(descriptor.getPrimaryKeyFields()));
+            if (descriptor.getCMPPolicy() != null) {
+                description.append(" cmp=").append(descriptor.getCMPPolicy().getClass().getSimpleName());
+            }
+            if (descriptor.usesOptimisticLocking()) {
+                description.append(" locking=").append(descriptor.getOptimisticLockingPolicy().getClass().getSimpleName());
+            }
+            description.append(" listeners=").append(descriptor.getEventManager().getEntityListenerEventListeners().size());
+            description.append(" callbacks=").append(descriptor.getEventManager().getEntityEventListener() != null);
+            Map<String, String> mappings = new TreeMap<>();
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                StringBuilder mappingDescription = new StringBuilder(mapping.getClass().getSimpleName());
+                mappingDescription.append(" fields=").append(describeFields(mapping.getFields()));
+                if (mapping.getReferenceDescriptor() != null) {
+                    mappingDescription.append(" reference=").append(mapping.getReferenceDescriptor().getJavaClassName());
+                }
+                if (mapping.isAbstractDirectMapping()) {
+                    AbstractDirectMapping directMapping = (AbstractDirectMapping)mapping;
+                    mappingDescription.append(" classification=").append(directMapping.getFieldClassification());
+                    if (directMapping.getConverter() != null) {
+                        mappingDescription.append(" converter=").append(directMapping.getConverter().getClass().getSimpleName());
+                    }
+                    DatabaseField field = directMapping.getField();
+                    mappingDescription.append(" length=").append(field.getLength()).append(" nullable=").append(field.isNullable());
+                }
+                mappings.put(mapping.getAttributeName(), mappingDescription.toString());
+            }
+            description.append(" mappings=").append(mappings);
+            descriptions.put(descriptor.getJavaClassName(), description.toString());
+        }
+        return descriptions;
+    }
+
+    private static String describeFields(List<DatabaseField> fields) {
+        List<String> names = new ArrayList<>();
+        if (fields != null) {
+            for (DatabaseField field : fields) {
+                names.add(field.getQualifiedName());
+            }
+        }
+        names.sort(null);
+        return names.toString();
+    }
+
+    /**
+     * Return the JPQL or SQL of each named query of the session, with its hints.
+     */
+    static Map<String, String> describeQueries(Session session) {
+        Map<String, String> descriptions = new TreeMap<>();
+        for (List<DatabaseQuery> queries : session.getQueries().values()) {
+            for (DatabaseQuery query : queries) {
+                String text = (query.getJPQLString() != null) ? query.getJPQLString() : query.getSQLString();
+                descriptions.put(query.getName(), query.getClass().getSimpleName() + " " + text
+                        + " readOnly=" + (query.isObjectLevelReadQuery() && ((ObjectLevelReadQuery)query).isReadOnly()));
+            }
+        }
+        return descriptions;
+    }
+}
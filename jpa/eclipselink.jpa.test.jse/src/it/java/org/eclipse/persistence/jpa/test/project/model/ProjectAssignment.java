@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "PROJECT_ASSIGNMENT")
+@IdClass(ProjectAssignmentId.class)
+@NamedNativeQuery(name = "ProjectAssignment.findAll", query = "SELECT * FROM PROJECT_ASSIGNMENT", resultClass = ProjectAssignment.class)
+public class ProjectAssignment {
+
+    @Id
+    private long staffId;
+
+    @Id
+    private long taskId;
+
+    private String role;
+
+    public long getStaffId() {
+        return staffId;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
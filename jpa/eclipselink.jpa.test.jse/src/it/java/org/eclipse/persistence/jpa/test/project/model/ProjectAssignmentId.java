@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project.model;
+
+import java.io.Serializable;
+
+public class ProjectAssignmentId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long staffId;
+
+    private long taskId;
+
+    public ProjectAssignmentId() {
+    }
+
+    public ProjectAssignmentId(long staffId, long taskId) {
+        this.staffId = staffId;
+        this.taskId = taskId;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ProjectAssignmentId)) {
+            return false;
+        }
+        ProjectAssignmentId other = (ProjectAssignmentId)object;
+        return (staffId == other.staffId) && (taskId == other.taskId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(staffId) * 31 + Long.hashCode(taskId);
+    }
+}
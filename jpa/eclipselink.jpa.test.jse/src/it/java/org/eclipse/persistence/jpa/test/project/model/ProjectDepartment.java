@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.NamedNativeQuery;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "PROJECT_DEPARTMENT")
+@EntityListeners(ProjectDepartmentListener.class)
+@NamedQuery(name = "ProjectDepartment.findByName", query = "SELECT d FROM ProjectDepartment d WHERE d.name = :name",
+        hints = @QueryHint(name = "eclipselink.read-only", value = "true"))
+@NamedNativeQuery(name = "ProjectDepartment.findAllNative", query = "SELECT * FROM PROJECT_DEPARTMENT", resultClass = ProjectDepartment.class)
+public class ProjectDepartment extends ProjectBaseEntity {
+
+    @Column(name = "DEPT_NAME", length = 40, nullable = false)
+    private String name;
+
+    @OneToMany(mappedBy = "department")
+    private List<ProjectStaff> staff = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<ProjectStaff> getStaff() {
+        return staff;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project.model;
+
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+
+@Entity
+@DiscriminatorValue("M")
+public class ProjectMilestone extends ProjectTask {
+
+    private boolean external;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "OWNER_ID")
+    private ProjectStaff owner;
+
+    public boolean isExternal() {
+        return external;
+    }
+
+    public ProjectStaff getOwner() {
+        return owner;
+    }
+}
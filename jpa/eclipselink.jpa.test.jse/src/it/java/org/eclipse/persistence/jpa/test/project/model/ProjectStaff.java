@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embedded;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "PROJECT_STAFF")
+@NamedQuery(name = "ProjectStaff.findByStatus", query = "SELECT s FROM ProjectStaff s WHERE s.status = :status")
+public class ProjectStaff extends ProjectBaseEntity {
+
+    public enum Status { ACTIVE, RETIRED }
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @ManyToOne
+    private ProjectDepartment department;
+
+    @Embedded
+    private ProjectAddress address;
+
+    @ElementCollection
+    @CollectionTable(name = "PROJECT_STAFF_PHONE")
+    private List<String> phones = new ArrayList<>();
+
+    @PrePersist
+    public void prePersist() {
+        if (status == null) {
+            status = Status.ACTIVE;
+        }
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public ProjectDepartment getDepartment() {
+        return department;
+    }
+
+    public void setDepartment(ProjectDepartment department) {
+        this.department = department;
+    }
+
+    public ProjectAddress getAddress() {
+        return address;
+    }
+
+    public List<String> getPhones() {
+        return phones;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.test.project.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorColumn;
+import jakarta.persistence.DiscriminatorValue;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.SecondaryTable;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+import jakarta.persistence.Version;
+
+import org.eclipse.persistence.annotations.Cache;
+import org.eclipse.persistence.annotations.CacheType;
+import org.eclipse.persistence.annotations.ConversionValue;
+import org.eclipse.persistence.annotations.Convert;
+import org.eclipse.persistence.annotations.ObjectTypeConverter;
+
+@Entity
+@Table(name = "PROJECT_TASK")
+@SecondaryTable(name = "PROJECT_TASK_DETAIL")
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "TASK_TYPE")
+@DiscriminatorValue("T")
+@Cache(type = CacheType.SOFT, size = 200, expiry = 60000)
+@TableGenerator(name = "PROJECT_TASK_SEQ", table = "PROJECT_SEQUENCE", allocationSize = 20)
+@ObjectTypeConverter(name = "taskState", objectType = Boolean.class, dataType = String.class,
+        conversionValues = {@ConversionValue(objectValue = "true", dataValue = "Y"), @ConversionValue(objectValue = "false", dataValue = "N")})
+@NamedQuery(name = "ProjectTask.findByTitle", query = "SELECT t FROM ProjectTask t WHERE t.title = :title",
+        hints = @QueryHint(name = "eclipselink.read-only", value = "true"))
+public class ProjectTask {
+
+    public enum Priority { LOW, NORMAL, HIGH }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "PROJECT_TASK_SEQ")
+    private long id;
+
+    @Version
+    private long version;
+
+    @Column(nullable = false, length = 80)
+    private String title;
+
+    @Lob
+    @Column(table = "PROJECT_TASK_DETAIL")
+    private String description;
+
+    @Enumerated(EnumType.ORDINAL)
+    private Priority priority;
+
+    @Temporal(TemporalType.DATE)
+    private Date due;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal budget;
+
+    @Convert("taskState")
+    private Boolean done;
+
+    @ManyToOne
+    @JoinColumn(name = "DEPARTMENT_ID")
+    private ProjectDepartment department;
+
+    @ManyToMany
+    @JoinTable(name = "PROJECT_TASK_STAFF")
+    @OrderBy("id DESC")
+    private List<ProjectStaff> staff = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "PROJECT_TASK_LABEL")
+    @MapKeyColumn(name = "LABEL_KEY")
+    @Column(name = "LABEL_VALUE")
+    private Map<String, String> labels = new HashMap<>();
+
+    @ElementCollection
+    @CollectionTable(name = "PROJECT_TASK_NOTE")
+    @OrderColumn(name = "NOTE_ORDER")
+    private List<ProjectTaskNote> notes = new ArrayList<>();
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public ProjectDepartment getDepartment() {
+        return department;
+    }
+
+    public List<ProjectStaff> getStaff() {
+        return staff;
+    }
+
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    public List<ProjectTaskNote> getNotes() {
+        return notes;
+    }
+}
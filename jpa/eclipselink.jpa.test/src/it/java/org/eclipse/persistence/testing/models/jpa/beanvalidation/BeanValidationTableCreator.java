@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -22,6 +22,9 @@ public BeanValidationTableCreator() {
         addTableDefinition(buildProjectTable());
         addTableDefinition(buildEmployeeTable());
         addTableDefinition(buildEmployeeProjectTable());
+        addTableDefinition(buildDepartmentTable());
+        addTableDefinition(buildAssignmentTable());
+        addTableDefinition(buildTaskTable());
     }
 
     public TableDefinition buildProjectTable() {
@@ -169,4 +172,105 @@ public TableDefinition buildEmployeeProjectTable() {
 
     }
 
+    public TableDefinition buildDepartmentTable() {
+        TableDefinition table = new TableDefinition();
+        table.setName("CMP3_BV_DEPARTMENT");
+
+        FieldDefinition fieldID = new FieldDefinition();
+        fieldID.setName("ID");
+        fieldID.setTypeName("NUMBER");
+        fieldID.setSize(19);
+        fieldID.setSubSize(0);
+        fieldID.setIsPrimaryKey(true);
+        fieldID.setIsIdentity(true);
+        fieldID.setShouldAllowNull(false);
+        table.addField(fieldID);
+
+        FieldDefinition fieldName = new FieldDefinition();
+        fieldName.setName("NAME");
+        fieldName.setTypeName("VARCHAR");
+        fieldName.setSize(20);
+        fieldName.setShouldAllowNull(true);
+        fieldName.setIsPrimaryKey(false);
+        fieldName.setUnique(false);
+        fieldName.setIsIdentity(false);
+        table.addField(fieldName);
+
+        return table;
+    }
+
+    public TableDefinition buildAssignmentTable() {
+        TableDefinition table = new TableDefinition();
+        table.setName("CMP3_BV_ASSIGNMENT");
+
+        FieldDefinition fieldID = new FieldDefinition();
+        fieldID.setName("ID");
+        fieldID.setTypeName("NUMBER");
+        fieldID.setSize(19);
+        fieldID.setSubSize(0);
+        fieldID.setIsPrimaryKey(true);
+        fieldID.setIsIdentity(true);
+        fieldID.setShouldAllowNull(false);
+        table.addField(fieldID);
+
+        FieldDefinition fieldStartDay = new FieldDefinition();
+        fieldStartDay.setName("STARTDAY");
+        fieldStartDay.setTypeName("NUMBER");
+        fieldStartDay.setSize(10);
+        fieldStartDay.setShouldAllowNull(true);
+        fieldStartDay.setIsPrimaryKey(false);
+        fieldStartDay.setUnique(false);
+        fieldStartDay.setIsIdentity(false);
+        table.addField(fieldStartDay);
+
+        FieldDefinition fieldEndDay = new FieldDefinition();
+        fieldEndDay.setName("ENDDAY");
+        fieldEndDay.setTypeName("NUMBER");
+        fieldEndDay.setSize(10);
+        fieldEndDay.setShouldAllowNull(true);
+        fieldEndDay.setIsPrimaryKey(false);
+        fieldEndDay.setUnique(false);
+        fieldEndDay.setIsIdentity(false);
+        table.addField(fieldEndDay);
+
+        return table;
+    }
+
+    public TableDefinition buildTaskTable() {
+        TableDefinition table = new TableDefinition();
+        table.setName("CMP3_BV_TASK");
+
+        FieldDefinition fieldID = new FieldDefinition();
+        fieldID.setName("ID");
+        fieldID.setTypeName("NUMBER");
+        fieldID.setSize(19);
+        fieldID.setSubSize(0);
+        fieldID.setIsPrimaryKey(true);
+        fieldID.setIsIdentity(true);
+        fieldID.setShouldAllowNull(false);
+        table.addField(fieldID);
+
+        FieldDefinition fieldDescription = new FieldDefinition();
+        fieldDescription.setName("DESCRIPTION");
+        fieldDescription.setTypeName("VARCHAR");
+        fieldDescription.setSize(20);
+        fieldDescription.setShouldAllowNull(true);
+        fieldDescription.setIsPrimaryKey(false);
+        fieldDescription.setUnique(false);
+        fieldDescription.setIsIdentity(false);
+        table.addField(fieldDescription);
+
+        FieldDefinition fieldCode = new FieldDefinition();
+        fieldCode.setName("CODE");
+        fieldCode.setTypeName("VARCHAR");
+        fieldCode.setSize(20);
+        fieldCode.setShouldAllowNull(true);
+        fieldCode.setIsPrimaryKey(false);
+        fieldCode.setUnique(false);
+        fieldCode.setIsIdentity(false);
+        table.addField(fieldCode);
+
+        return table;
+    }
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -67,6 +67,10 @@ public int getId() {
         return id;
     }
 
+    public void setSalary(long salary) {
+        this.salary = salary;
+    }
+
     public String getName() {
         return name;
     }
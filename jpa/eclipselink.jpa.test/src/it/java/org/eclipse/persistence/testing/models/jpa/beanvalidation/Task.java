@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+
+package org.eclipse.persistence.testing.models.jpa.beanvalidation;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.Size;
+
+/**
+ * An entity with a constraint validated only in the group UpdateChecks.
+ */
+@Entity(name="CMP3_BV_TASK")
+public class Task {
+    public static final int CODE_MAX_SIZE = 3;
+
+    /**
+     * The validation group of the constraints checked only on update.
+     */
+    public interface UpdateChecks {}
+
+    @Id
+    private int        id;
+    private String    description;
+    @Size(max = CODE_MAX_SIZE, groups = UpdateChecks.class)
+    private String    code;
+
+    public Task() {}
+
+    public Task(int id, String description, String code) {
+        this.id = id;
+        this.description = description;
+        this.code = code;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -20,20 +20,34 @@
 import junit.framework.Test;
 import junit.framework.TestSuite;
 
+import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.config.SystemProperties;
 import org.eclipse.persistence.exceptions.ValidationException;
 import org.eclipse.persistence.internal.jpa.deployment.ArchiveFactoryImpl;
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitClassIndex;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.internal.libraries.asm.ClassWriter;
+import org.eclipse.persistence.internal.libraries.asm.Opcodes;
+import org.eclipse.persistence.jpa.Archive;
 import org.eclipse.persistence.jpa.ArchiveFactory;
 import org.eclipse.persistence.testing.framework.junit.JUnitTestCase;
 import org.junit.Assert;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.net.URLClassLoader;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import jakarta.persistence.EntityManagerFactory;
 
@@ -219,6 +233,176 @@ public void testGetArchiveFactoryOverride() {
         }
     }
 
+    public void testClassIndexWriteRead() throws Exception {
+        File jar = buildJar(false, "model.Plain");
+        try {
+            URL url = jar.toURI().toURL();
+            PersistenceUnitClassIndex index;
+            Archive archive = new ArchiveFactoryImpl().createArchive(url, null);
+            try (URLClassLoader loader = new URLClassLoader(new URL[] {url}, null)) {
+                index = PersistenceUnitClassIndex.build(archive, loader);
+            } finally {
+                archive.close();
+            }
+            Assert.assertEquals(new HashSet<>(Arrays.asList("model.Employee", "model.Address")), index.getClassNames());
+            Assert.assertEquals(PersistenceUnitClassIndex.ENTITY, index.getAnnotation("model.Employee"));
+            Assert.assertEquals(PersistenceUnitClassIndex.EMBEDDABLE, index.getAnnotation("model.Address"));
+            Assert.assertNull(index.getAnnotation("model.Plain"));
+            Assert.assertEquals(3, index.getClassCount());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            index.write(bytes);
+            File indexedJar = buildJar(bytes.toByteArray(), "model.Plain");
+            try {
+                archive = new ArchiveFactoryImpl().createArchive(indexedJar.toURI().toURL(), null);
+                try {
+                    PersistenceUnitClassIndex read = PersistenceUnitClassIndex.read(archive);
+                    Assert.assertNotNull("Index should be read", read);
+                    Assert.assertEquals(index.getClassNames(), read.getClassNames());
+                    Assert.assertEquals(PersistenceUnitClassIndex.ENTITY, read.getAnnotation("model.Employee"));
+                    Assert.assertEquals(PersistenceUnitClassIndex.EMBEDDABLE, read.getAnnotation("model.Address"));
+                    Assert.assertEquals(3, read.getClassCount());
+                    Assert.assertTrue(read.isCurrent(3));
+                    Assert.assertFalse(read.isCurrent(4));
+                } finally {
+                    archive.close();
+                }
+            } finally {
+                indexedJar.delete();
+            }
+        } finally {
+            jar.delete();
+        }
+    }
+
+    public void testClassIndexOfAnotherVersionIsNotRead() throws Exception {
+        File jar = buildJar("#EclipseLink class index 1\nEntity model.Employee\n".getBytes("UTF-8"));
+        try {
+            Archive archive = new ArchiveFactoryImpl().createArchive(jar.toURI().toURL(), null);
+            try {
+                Assert.assertNull(PersistenceUnitClassIndex.read(archive));
+            } finally {
+                archive.close();
+            }
+        } finally {
+            jar.delete();
+        }
+    }
+
+    public void testGetClassNamesFromURLWithoutClassIndex() throws Exception {
+        File jar = buildJar(false, "model.Plain");
+        try {
+            Set<String> classNames = PersistenceUnitProcessor.getClassNamesFromURL(jar.toURI().toURL(), getClass().getClassLoader(), classIndexProperties(true));
+            Assert.assertEquals(new HashSet<>(Arrays.asList("model.Employee", "model.Address", "model.Plain")), classNames);
+        } finally {
+            jar.delete();
+        }
+    }
+
+    public void testGetClassNamesFromURLWithClassIndex() throws Exception {
+        File jar = buildJar(true, "model.Plain");
+        try {
+            URL url = jar.toURI().toURL();
+            Set<String> all = new HashSet<>(Arrays.asList("model.Employee", "model.Address", "model.Plain"));
+            Assert.assertEquals("Index should only be used when enabled",
+                    all, PersistenceUnitProcessor.getClassNamesFromURL(url, getClass().getClassLoader(), null));
+            Assert.assertEquals("Index should only be used when enabled",
+                    all, PersistenceUnitProcessor.getClassNamesFromURL(url, getClass().getClassLoader(), classIndexProperties(false)));
+            Assert.assertEquals(new HashSet<>(Arrays.asList("model.Employee", "model.Address")),
+                    PersistenceUnitProcessor.getClassNamesFromURL(url, getClass().getClassLoader(), classIndexProperties(true)));
+        } finally {
+            jar.delete();
+        }
+    }
+
+    public void testGetClassNamesFromURLWithStaleClassIndex() throws Exception {
+        // Index built before model.Added was added to the archive.
+        File jar = buildJar(true, "model.Plain");
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Archive archive = new ArchiveFactoryImpl().createArchive(jar.toURI().toURL(), null);
+            try {
+                PersistenceUnitClassIndex.read(archive).write(bytes);
+            } finally {
+                archive.close();
+            }
+            File staleJar = buildJar(bytes.toByteArray(), "model.Plain", "model.Added");
+            try {
+                Set<String> classNames = PersistenceUnitProcessor.getClassNamesFromURL(staleJar.toURI().toURL(), getClass().getClassLoader(), classIndexProperties(true));
+                Assert.assertTrue("Class added after the index should be found", classNames.contains("model.Added"));
+                Assert.assertEquals(4, classNames.size());
+            } finally {
+                staleJar.delete();
+            }
+        } finally {
+            jar.delete();
+        }
+    }
+
+    private static Map<String, Object> classIndexProperties(boolean classIndex) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceUnitProperties.METADATA_CLASS_INDEX, String.valueOf(classIndex));
+        return properties;
+    }
+
+    /**
+     * Build a jar of the entity model.Employee, the embeddable model.Address and the other plain classes,
+     * with the class index of these classes if indexed.
+     */
+    private static File buildJar(boolean indexed, String... plainClasses) throws Exception {
+        File jar = buildJar(null, plainClasses);
+        if (!indexed) {
+            return jar;
+        }
+        try {
+            URL url = jar.toURI().toURL();
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            Archive archive = new ArchiveFactoryImpl().createArchive(url, null);
+            try (URLClassLoader loader = new URLClassLoader(new URL[] {url}, null)) {
+                PersistenceUnitClassIndex.build(archive, loader).write(bytes);
+            } finally {
+                archive.close();
+            }
+            return buildJar(bytes.toByteArray(), plainClasses);
+        } finally {
+            jar.delete();
+        }
+    }
+
+    /**
+     * Build a jar of the entity model.Employee, the embeddable model.Address and the other plain classes,
+     * with the given class index entry if not null.
+     */
+    private static File buildJar(byte[] index, String... plainClasses) throws IOException {
+        File jar = File.createTempFile("classindex", ".jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            addClass(out, "model.Employee", "Ljakarta/persistence/Entity;");
+            addClass(out, "model.Address", "Ljakarta/persistence/Embeddable;");
+            for (String plainClass : plainClasses) {
+                addClass(out, plainClass, null);
+            }
+            if (index != null) {
+                out.putNextEntry(new JarEntry(PersistenceUnitClassIndex.INDEX_ENTRY));
+                out.write(index);
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private static void addClass(JarOutputStream out, String className, String annotation) throws IOException {
+        String name = className.replace('.', '/');
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        if (annotation != null) {
+            writer.visitAnnotation(annotation, true).visitEnd();
+        }
+        writer.visitEnd();
+        out.putNextEntry(new JarEntry(name + ".class"));
+        out.write(writer.toByteArray());
+        out.closeEntry();
+    }
+
     public static class AF1 extends ArchiveFactoryImpl {}
     public static class AF2 extends ArchiveFactoryImpl {}
 
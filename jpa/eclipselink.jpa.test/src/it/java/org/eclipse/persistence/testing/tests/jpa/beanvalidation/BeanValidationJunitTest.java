@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -23,17 +23,23 @@
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
 import jakarta.persistence.TypedQuery;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 
+import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.mappings.ForeignReferenceMapping;
 import org.eclipse.persistence.testing.framework.junit.JUnitTestCase;
+import org.eclipse.persistence.testing.framework.junit.JUnitTestCaseHelper;
 import org.eclipse.persistence.testing.models.jpa.beanvalidation.Address;
+import org.eclipse.persistence.testing.models.jpa.beanvalidation.Assignment;
 import org.eclipse.persistence.testing.models.jpa.beanvalidation.BeanValidationTableCreator;
+import org.eclipse.persistence.testing.models.jpa.beanvalidation.Department;
 import org.eclipse.persistence.testing.models.jpa.beanvalidation.Employee;
 import org.eclipse.persistence.testing.models.jpa.beanvalidation.Project;
+import org.eclipse.persistence.testing.models.jpa.beanvalidation.Task;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -65,6 +71,11 @@ public static Test suite() {
             suite.addTest(new BeanValidationJunitTest("testTraversableResolverPreventsLoadingOfLazyRelationships"));
             suite.addTest(new BeanValidationJunitTest("testTraversableResolverPreventsTraversingRelationshipMultipleTimes"));
             suite.addTest(new BeanValidationJunitTest("testValidateChangedData"));
+            suite.addTest(new BeanValidationJunitTest("testUpdateValidatesChangedAttributes"));
+            suite.addTest(new BeanValidationJunitTest("testUpdateUnconstrainedEntity"));
+            suite.addTest(new BeanValidationJunitTest("testUpdateWithInvalidClassLevelData"));
+            suite.addTest(new BeanValidationJunitTest("testUpdateWithInvalidEmbeddedData"));
+            suite.addTest(new BeanValidationJunitTest("testUpdateValidatesUnchangedAttributesInPreUpdateGroup"));
         }
         return suite;
     }
@@ -396,7 +407,217 @@ public void testValidateChangedData() {
         }
     }
 
+    /**
+     * Strategy:
+     * 1. Persist an Employee with valid values and make its name invalid in the database
+     * 2. Update its surname - only the changed attribute is validated and the update succeeds
+     * 3. Update its salary with invalid value
+     * 4. Assert - the ConstraintViolationException is due to the changed salary only
+     */
+    public void testUpdateValidatesChangedAttributes() {
+        final int EMPLOYEE_PK_TO_UPDATE = 3;
+        EntityManager em = createEntityManager();
+        try {
+            beginTransaction(em);
+            em.persist(new Employee(EMPLOYEE_PK_TO_UPDATE, "name", "name", 1337));
+            commitTransaction(em);
+            String invalidName = getFilledStringOfLength(Employee.NAME_MAX_SIZSE + 1);
+            getDatabaseSession().executeNonSelectingSQL("update CMP3_BV_EMPLOYEE set NAME = '" + invalidName + "' where ID = " + EMPLOYEE_PK_TO_UPDATE);
+            clearCache();
+            em.clear();
+
+            beginTransaction(em);
+            Employee e = em.find(Employee.class, EMPLOYEE_PK_TO_UPDATE);
+            assertEquals(invalidName, e.getName());
+            e.setSurname("other");
+            commitTransaction(em);
+
+            beginTransaction(em);
+            e = em.find(Employee.class, EMPLOYEE_PK_TO_UPDATE);
+            e.setSalary(3000);
+            commitTransaction(em);
+            fail("Did not get Constraint Violation while updating with invalid data");
+        } catch (RuntimeException ex) {
+            ConstraintViolationException cve = findConstraintViolationException(ex);
+            if (cve == null) {
+                throw ex;
+            }
+            Set<ConstraintViolation<?>> constraintViolations = cve.getConstraintViolations();
+            assertEquals("Only the changed attribute should be validated", 1, constraintViolations.size());
+            assertEquals("salary", constraintViolations.iterator().next().getPropertyPath().toString());
+        } finally {
+            if (isTransactionActive(em)) {
+                rollbackTransaction(em);
+            }
+            closeEntityManager(em);
+        }
+    }
+
+    /**
+     * Strategy:
+     * 1. Persist and update an entity without constraints
+     * 2. Assert - the update succeeds
+     */
+    public void testUpdateUnconstrainedEntity() {
+        final int DEPARTMENT_PK = 1;
+        final String name = getFilledStringOfLength(Project.NAME_MAX_SIZSE + 1);
+        EntityManager em = createEntityManager();
+        try {
+            beginTransaction(em);
+            em.persist(new Department(DEPARTMENT_PK, "dept"));
+            commitTransaction(em);
+
+            beginTransaction(em);
+            Department d = em.find(Department.class, DEPARTMENT_PK);
+            d.setName(name);
+            commitTransaction(em);
+        } catch (RuntimeException ex) {
+            if (isTransactionActive(em)) {
+                rollbackTransaction(em);
+            }
+            throw ex;
+        } finally {
+            closeEntityManager(em);
+        }
+        clearCache();
+        em = createEntityManager();
+        try {
+            assertEquals(name, em.find(Department.class, DEPARTMENT_PK).getName());
+        } finally {
+            closeEntityManager(em);
+        }
+    }
+
+    /**
+     * Strategy:
+     * 1. Persist an Assignment with valid values
+     * 2. Update one attribute, which breaks its class level constraint
+     * 3. Assert - the ConstraintViolationException is due to the class level constraint
+     */
+    public void testUpdateWithInvalidClassLevelData() {
+        final int ASSIGNMENT_PK = 1;
+        EntityManager em = createEntityManager();
+        try {
+            beginTransaction(em);
+            em.persist(new Assignment(ASSIGNMENT_PK, 1, 5));
+            commitTransaction(em);
+
+            beginTransaction(em);
+            Assignment a = em.find(Assignment.class, ASSIGNMENT_PK);
+            a.setEndDay(0);
+            commitTransaction(em);
+            fail("Did not get Constraint Violation while updating with invalid data");
+        } catch (RuntimeException ex) {
+            ConstraintViolationException cve = findConstraintViolationException(ex);
+            if (cve == null) {
+                throw ex;
+            }
+            ConstraintViolation<?> constraintViolation = cve.getConstraintViolations().iterator().next();
+            assertEquals("", constraintViolation.getPropertyPath().toString());
+            assertTrue(constraintViolation.getRootBean() instanceof Assignment);
+        } finally {
+            if (isTransactionActive(em)) {
+                rollbackTransaction(em);
+            }
+            closeEntityManager(em);
+        }
+    }
+
+    /**
+     * Strategy:
+     * 1. Persist an Employee with a valid Address
+     * 2. Update it with an invalid Address
+     * 3. Assert - the ConstraintViolationException is due to the invalid value of the cascaded Address
+     */
+    public void testUpdateWithInvalidEmbeddedData() {
+        final int EMPLOYEE_PK_TO_UPDATE = 4;
+        EntityManager em = createEntityManager();
+        try {
+            beginTransaction(em);
+            Employee e = new Employee(EMPLOYEE_PK_TO_UPDATE, "name", "name", 1337);
+            e.setAddress(new Address("street", "city", "st"));
+            em.persist(e);
+            commitTransaction(em);
+
+            beginTransaction(em);
+            e = em.find(Employee.class, EMPLOYEE_PK_TO_UPDATE);
+            e.setAddress(new Address("street", "city", "state" /*passing invalid value for state */));
+            commitTransaction(em);
+            fail("Did not get Constraint Violation while updating with invalid data");
+        } catch (RuntimeException ex) {
+            ConstraintViolationException cve = findConstraintViolationException(ex);
+            if (cve == null) {
+                throw ex;
+            }
+            ConstraintViolation<?> constraintViolation = cve.getConstraintViolations().iterator().next();
+            assertEquals("adress.state", constraintViolation.getPropertyPath().toString());
+            assertEquals("state", constraintViolation.getInvalidValue());
+        } finally {
+            if (isTransactionActive(em)) {
+                rollbackTransaction(em);
+            }
+            closeEntityManager(em);
+        }
+    }
+
+    /**
+     * Strategy:
+     * 1. Persist a Task with a value that is invalid only in the pre-update group
+     * 2. Update another attribute
+     * 3. Assert - the unchanged attribute is validated in the pre-update group
+     */
+    public void testUpdateValidatesUnchangedAttributesInPreUpdateGroup() {
+        if (isOnServer()) {
+            // Cannot connect locally on server.
+            return;
+        }
+        final int TASK_PK = 1;
+        final String invalidCode = getFilledStringOfLength(Task.CODE_MAX_SIZE + 1);
+        Map<String, Object> props = new HashMap<>(JUnitTestCaseHelper.getDatabaseProperties());
+        props.put(PersistenceUnitProperties.SESSION_NAME, "beanvalidation-pre-update-group");
+        props.put(PersistenceUnitProperties.VALIDATION_GROUP_PRE_UPDATE, Task.UpdateChecks.class.getName());
+        EntityManagerFactory factory = Persistence.createEntityManagerFactory(getPersistenceUnitName(), props);
+        EntityManager em = factory.createEntityManager();
+        try {
+            // The code is not validated in the group Default on persist
+            em.getTransaction().begin();
+            em.persist(new Task(TASK_PK, "task", invalidCode));
+            em.getTransaction().commit();
+
+            em.getTransaction().begin();
+            Task t = em.find(Task.class, TASK_PK);
+            t.setDescription("other");
+            em.getTransaction().commit();
+            fail("Did not get Constraint Violation while updating with invalid data");
+        } catch (RuntimeException ex) {
+            ConstraintViolationException cve = findConstraintViolationException(ex);
+            if (cve == null) {
+                throw ex;
+            }
+            ConstraintViolation<?> constraintViolation = cve.getConstraintViolations().iterator().next();
+            assertEquals("code", constraintViolation.getPropertyPath().toString());
+            assertEquals(invalidCode, constraintViolation.getInvalidValue());
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.close();
+            factory.close();
+        }
+    }
+
     //--------------------Helper Methods ---------------//
+    private ConstraintViolationException findConstraintViolationException(Throwable exception) {
+        Throwable cause = exception;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException) {
+                return (ConstraintViolationException) cause;
+            }
+            cause = cause.getCause();
+        }
+        return null;
+    }
+
     private boolean isInstantiated(Object entityObject, String attributeName, org.eclipse.persistence.sessions.Project project) {
         ForeignReferenceMapping mapping = (ForeignReferenceMapping) project.getDescriptor(Employee.class).getObjectBuilder().getMappingForAttributeName(attributeName);
         Object attributeValue = mapping.getAttributeAccessor().getAttributeValueFromObject(entityObject);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -16,6 +16,10 @@
 //       - 535250: Test meta-annotations with dependency cycle
 package org.eclipse.persistence.testing.tests.jpa22.metadata;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAnnotation;
@@ -45,6 +49,7 @@ public static Test suite() {
         suite.addTest(new MetadataASMFactoryTest("testMetadataAnnotations"));
         suite.addTest(new MetadataASMFactoryTest("testAnnotationsWithCycle"));
         suite.addTest(new MetadataASMFactoryTest("testAnnotationsWithPrimitiveCycle"));
+        suite.addTest(new MetadataASMFactoryTest("testPreloadMetadataClasses"));
         return suite;
     }
 
@@ -88,4 +93,29 @@ public void testAnnotationsWithPrimitiveCycle() {
         }
     }
 
+    /**
+     * Check classes read in parallel have the same metadata as classes read in turn.
+     */
+    public void testPreloadMetadataClasses() {
+        List<String> classNames = Arrays.asList(Employee.class.getName(), CycleA.class.getName(), CycleSelf.class.getName(), "org.eclipse.samples.Missing");
+        MetadataAsmFactory fact = new MetadataAsmFactory(new MetadataLogger(null), MetadataASMFactoryTest.class.getClassLoader());
+        MetadataAsmFactory parallelFact = new MetadataAsmFactory(new MetadataLogger(null), MetadataASMFactoryTest.class.getClassLoader());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            parallelFact.preloadMetadataClasses(classNames, false, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for (String className : classNames) {
+            MetadataClass metadataClass = fact.getMetadataClass(className);
+            MetadataClass parallelClass = parallelFact.getMetadataClass(className);
+            Assert.assertSame(parallelClass, parallelFact.getMetadataClass(className));
+            Assert.assertEquals(metadataClass.getName(), parallelClass.getName());
+            Assert.assertEquals(metadataClass.getSuperclassName(), parallelClass.getSuperclassName());
+            Assert.assertEquals(metadataClass.getFields().keySet(), parallelClass.getFields().keySet());
+            Assert.assertEquals(metadataClass.getMethods().keySet(), parallelClass.getMethods().keySet());
+            Assert.assertEquals(PersistenceUnitProcessor.isEntity(metadataClass), PersistenceUnitProcessor.isEntity(parallelClass));
+        }
+    }
+
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.tests.weaving;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.eclipse.persistence.internal.libraries.asm.ClassWriter;
+import org.eclipse.persistence.internal.libraries.asm.MethodVisitor;
+import org.eclipse.persistence.internal.libraries.asm.Opcodes;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.tools.weaving.jpa.StaticWeaveProcessor;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the static weaver output, woven in turn, in parallel or incrementally.
+ */
+public class StaticWeaveProcessorTest extends TestCase {
+
+    private static final String PERSISTENCE_XML =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<persistence version=\"3.0\" xmlns=\"https://jakarta.ee/xml/ns/persistence\">\n"
+            + "    <persistence-unit name=\"static-weave\">\n"
+            + "        <class>model.Item</class>\n"
+            + "        <class>model.Part</class>\n"
+            + "        <exclude-unlisted-classes>true</exclude-unlisted-classes>\n"
+            + "    </persistence-unit>\n"
+            + "</persistence>\n";
+
+    private Path root;
+
+    public StaticWeaveProcessorTest(String name) {
+        super(name);
+    }
+
+    @Override
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("staticweave");
+    }
+
+    @Override
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted((first, second) -> second.compareTo(first)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * The target woven on several threads is the same as the target woven in turn.
+     */
+    public void testParallelWeavingMatchesSequentialWeaving() throws Exception {
+        Path source = buildSource("source", "name");
+        Path sequential = root.resolve("sequential");
+        Path parallel = root.resolve("parallel");
+        weave(source, sequential, 1, null);
+        weave(source, parallel, 4, null);
+
+        Map<String, byte[]> sequentialEntries = readEntries(sequential);
+        Map<String, byte[]> parallelEntries = readEntries(parallel);
+        assertEquals(sequentialEntries.keySet(), parallelEntries.keySet());
+        for (Map.Entry<String, byte[]> entry : sequentialEntries.entrySet()) {
+            assertTrue("Entry differs: " + entry.getKey(), Arrays.equals(entry.getValue(), parallelEntries.get(entry.getKey())));
+        }
+        assertWoven(sequential, "model/Item.class");
+        assertWoven(sequential, "model/Part.class");
+        assertTrue("Plain class should be copied", Arrays.equals(
+                Files.readAllBytes(source.resolve("model/Plain.class")), sequentialEntries.get("model/Plain.class")));
+    }
+
+    /**
+     * Weaving again with the incremental state only weaves the changed classes,
+     * and all the classes if a woven class changed.
+     */
+    public void testIncrementalWeaving() throws Exception {
+        File state = root.resolve("weave.state").toFile();
+        Path source = buildSource("source", "name");
+        Path target = root.resolve("target");
+        weave(source, target, 1, state);
+        Map<String, byte[]> firstEntries = readEntries(target);
+        assertWoven(target, "model/Item.class");
+
+        // A class not woven changed, the woven classes are taken from the state.
+        Files.write(source.resolve("model/Plain.class"), buildClass("model/Plain", null, "label"));
+        String log = weave(source, target, 1, state);
+        assertTrue("Unchanged classes should not be woven again: " + log, log.contains("2 classes unchanged"));
+        Map<String, byte[]> secondEntries = readEntries(target);
+        assertTrue(Arrays.equals(firstEntries.get("model/Item.class"), secondEntries.get("model/Item.class")));
+        assertTrue(Arrays.equals(firstEntries.get("model/Part.class"), secondEntries.get("model/Part.class")));
+        assertTrue("Changed class should be copied again", Arrays.equals(
+                Files.readAllBytes(source.resolve("model/Plain.class")), secondEntries.get("model/Plain.class")));
+
+        // A woven class changed, all the classes are woven again.
+        Files.write(source.resolve("model/Item.class"), buildClass("model/Item", "Ljakarta/persistence/Entity;", "description"));
+        log = weave(source, target, 1, state);
+        assertFalse("All classes should be woven again: " + log, log.contains("classes unchanged"));
+        Map<String, byte[]> thirdEntries = readEntries(target);
+        assertWoven(target, "model/Item.class");
+        assertTrue("Changed class should be woven again",
+                new String(thirdEntries.get("model/Item.class"), StandardCharsets.ISO_8859_1).contains("description"));
+        assertTrue(Arrays.equals(firstEntries.get("model/Part.class"), thirdEntries.get("model/Part.class")));
+
+        // Incremental weaving gives the target of a full weaving.
+        Path full = root.resolve("full");
+        weave(source, full, 1, null);
+        Map<String, byte[]> fullEntries = readEntries(full);
+        for (Map.Entry<String, byte[]> entry : fullEntries.entrySet()) {
+            assertTrue("Entry differs: " + entry.getKey(), Arrays.equals(entry.getValue(), thirdEntries.get(entry.getKey())));
+        }
+    }
+
+    /**
+     * Weave the source to the target, and return the log.
+     */
+    private String weave(Path source, Path target, int parallelism, File state) throws Exception {
+        StringWriter log = new StringWriter();
+        StaticWeaveProcessor processor = new StaticWeaveProcessor(source.toFile(), target.toFile());
+        processor.setParallelism(parallelism);
+        processor.setIncrementalStateFile(state);
+        processor.setClassLoader(getClass().getClassLoader());
+        processor.setLog(log);
+        processor.setLogLevel(SessionLog.FINE);
+        processor.performWeaving();
+        return log.toString();
+    }
+
+    /**
+     * Build a source directory of the entities model.Item and model.Part, the plain class model.Plain and their persistence.xml.
+     */
+    private Path buildSource(String name, String field) throws IOException {
+        Path source = root.resolve(name);
+        Files.createDirectories(source.resolve("model"));
+        Files.createDirectories(source.resolve("META-INF"));
+        Files.write(source.resolve("model/Item.class"), buildClass("model/Item", "Ljakarta/persistence/Entity;", field));
+        Files.write(source.resolve("model/Part.class"), buildClass("model/Part", "Ljakarta/persistence/Entity;", field));
+        Files.write(source.resolve("model/Plain.class"), buildClass("model/Plain", null, field));
+        Files.write(source.resolve("META-INF/persistence.xml"), PERSISTENCE_XML.getBytes(StandardCharsets.UTF_8));
+        return source;
+    }
+
+    private static byte[] buildClass(String name, String annotation, String field) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        if (annotation != null) {
+            writer.visitAnnotation(annotation, true).visitEnd();
+            writer.visitField(Opcodes.ACC_PRIVATE, "id", "J", null, null).visitAnnotation("Ljakarta/persistence/Id;", true).visitEnd();
+        }
+        writer.visitField(Opcodes.ACC_PRIVATE, field, "Ljava/lang/String;", null, null).visitEnd();
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static Map<String, byte[]> readEntries(Path directory) throws IOException {
+        Map<String, byte[]> entries = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>)paths.filter(Files::isRegularFile)::iterator) {
+                entries.put(directory.relativize(path).toString().replace(File.separatorChar, '/'), Files.readAllBytes(path));
+            }
+        }
+        return entries;
+    }
+
+    private static void assertWoven(Path target, String entry) throws IOException {
+        String bytes = new String(Files.readAllBytes(target.resolve(entry)), StandardCharsets.ISO_8859_1);
+        assertTrue("Class should be woven: " + entry, bytes.contains("PersistenceWeaved"));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2006, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2006, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -882,6 +882,12 @@ public static class JPQLQueryBNFValidator extends AnonymousExpressionVisitor {
          */
         protected boolean bypassCompound;
 
+        /**
+         * The unique identifiers of the "root" BNF and of all its children, calculated once for each
+         * value of {@link #bypassCompound}, as the BNF rules of a grammar do not change.
+         */
+        private Set<String>[] queryBNFIds;
+
         /**
          * The {@link JPQLQueryBNF} used to determine if the expression's BNF is valid.
          */
@@ -898,9 +904,11 @@ public static class JPQLQueryBNFValidator extends AnonymousExpressionVisitor {
          *
          * @param queryBNF The {@link JPQLQueryBNF} used to determine if the expression's BNF is valid
          */
+        @SuppressWarnings("unchecked")
         public JPQLQueryBNFValidator(JPQLQueryBNF queryBNF) {
             super();
             this.queryBNF = queryBNF;
+            this.queryBNFIds = new Set[2];
         }
 
         private void allJPQLQueryBNFs(Set<String> queryBNFIds, JPQLQueryBNF queryBNF) {
@@ -958,8 +966,13 @@ public void validate(JPQLQueryBNF queryBNF) {
             // Retrieve all the children from the "root" JPQLQueryBNF and
             // check if the BNF to validate is one of those children
             else {
-                Set<String> allQueryBNFIds = new HashSet<String>();
-                allJPQLQueryBNFs(allQueryBNFIds, this.queryBNF);
+                int index = bypassCompound ? 1 : 0;
+                Set<String> allQueryBNFIds = queryBNFIds[index];
+                if (allQueryBNFIds == null) {
+                    allQueryBNFIds = new HashSet<String>();
+                    allJPQLQueryBNFs(allQueryBNFIds, this.queryBNF);
+                    queryBNFIds[index] = allQueryBNFIds;
+                }
                 valid = allQueryBNFIds.contains(queryBNF.getId());
             }
         }
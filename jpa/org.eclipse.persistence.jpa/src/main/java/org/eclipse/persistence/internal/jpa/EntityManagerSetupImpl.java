@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2019 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -244,8 +244,11 @@
 import org.eclipse.persistence.internal.security.SecurableObjectHolder;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
+import org.eclipse.persistence.internal.sessions.NamedQueryCatalog;
 import org.eclipse.persistence.internal.sessions.PropertiesHandler;
 import org.eclipse.persistence.internal.sessions.remote.RemoteConnection;
+import org.eclipse.persistence.jpa.metadata.BinaryFileProjectCache;
+import org.eclipse.persistence.jpa.metadata.GeneratedClassProjectCache;
 import org.eclipse.persistence.jpa.metadata.FileBasedProjectCache;
 import org.eclipse.persistence.jpa.metadata.MetadataSource;
 import org.eclipse.persistence.jpa.metadata.ProjectCache;
@@ -332,6 +335,8 @@ public class EntityManagerSetupImpl implements MetadataRefreshListener {
     protected boolean isSessionLoadedFromSessionsXML=false;
     //project caching:
     protected ProjectCache projectCacheAccessor = null;
+    // file of the catalog of the named queries compiled on login, if any
+    protected File namedQueryCatalogFile = null;
     protected boolean shouldBuildProject = true;
     // indicates whether weaving was used on the first run through predeploy (in STATE_INITIAL)
     protected Boolean enableWeaving = null;
@@ -754,6 +759,7 @@ public AbstractSession deploy(ClassLoader realClassLoader, Map additionalPropert
                              */
                             if (this.state == STATE_HALF_DEPLOYED) {
                                 getDatabaseSession().initializeDescriptors();
+                                storeNamedQueryCatalog();
                                 this.state = STATE_DEPLOYED;
                             }
                         } else {
@@ -765,6 +771,7 @@ public AbstractSession deploy(ClassLoader realClassLoader, Map additionalPropert
                                 } else {
                                     login(getDatabaseSession(), deployProperties, requiresConnection);
                                 }
+                                storeNamedQueryCatalog();
                                 final Platform platform = getDatabaseSession().getDatasourcePlatform();
                                 PropertiesUtils.set(platform, PersistenceUnitProperties.TARGET_DATABASE_PROPERTIES, (String) deployProperties.get(PersistenceUnitProperties.TARGET_DATABASE_PROPERTIES));
 
@@ -820,10 +827,13 @@ public Object handleException(RuntimeException exception) {
                     isLockAcquired = false;
                 }
                 // 266912: Initialize the Metamodel, a login should have already occurred.
-                try {
-                    this.getMetamodel(classLoaderToUse);
-                } catch (Exception e) {
-                    this.session.log(SessionLog.FINEST, SessionLog.METAMODEL, "metamodel_init_failed", new Object[]{e.getMessage()});
+                // It requires all descriptors, so when initialized on first use it is only on first use too.
+                if (!this.session.usesLazyDescriptorInitialization()) {
+                    try {
+                        this.getMetamodel(classLoaderToUse);
+                    } catch (Exception e) {
+                        this.session.log(SessionLog.FINEST, SessionLog.METAMODEL, "metamodel_init_failed", new Object[]{e.getMessage()});
+                    }
                 }
             }
             // Clear the weaver's reference to meta-data information, as it is held by the class loader and will never gc.
@@ -1494,6 +1504,22 @@ protected void updateDescriptorCacheSettings(Map m, ClassLoader loader) {
         if ((queryCache != null) && queryCache.equalsIgnoreCase("true")) {
             session.getProject().setDefaultQueryResultsCachePolicy(new QueryResultsCachePolicy());
         }
+        String queryCacheMaxSize = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.QUERY_CACHE_MAX_SIZE, m, session);
+        if (queryCacheMaxSize != null) {
+            try {
+                session.getProject().setQueryResultsCacheMaximumSize(Long.parseLong(queryCacheMaxSize.trim()));
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(queryCacheMaxSize, PersistenceUnitProperties.QUERY_CACHE_MAX_SIZE, exception));
+            }
+        }
+        String offHeapSize = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE, m, session);
+        if (offHeapSize != null) {
+            try {
+                session.getProject().setOffHeapCacheSize(Long.parseLong(offHeapSize.trim()));
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(offHeapSize, PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE, exception));
+            }
+        }
 
         Map typeMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_TYPE_, m, session);
         Map sizeMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_SIZE_, m, session);
@@ -1831,6 +1857,10 @@ public synchronized ClassTransformer predeploy(PersistenceUnitInfo info, Map ext
                 //Project Cache accessor processing
                 updateProjectCache(predeployProperties, classLoaderToUse);
 
+                if (projectCacheAccessor instanceof BinaryFileProjectCache) {
+                    // The files of the whole persistence unit are stamped, so a class added to it is detected.
+                    ((BinaryFileProjectCache)projectCacheAccessor).setPersistenceUnitInfo(this.persistenceUnitInfo);
+                }
                 if (projectCacheAccessor!=null) {
                     //get the project from the cache
                     Project project = projectCacheAccessor.retrieveProject(predeployProperties, classLoaderToUse, session.getSessionLog());
@@ -2877,6 +2907,9 @@ protected void updateSession(Map m, ClassLoader loader) {
             updateSequencingStart(m);
             updateAllowNativeSQLQueriesSetting(m);
             updateSQLCastSetting(m);
+            updateAdaptiveBatchFetchSetting(m);
+            updateLazyDescriptorInitializationSetting(m);
+            updateNamedQueryCompileSettings(m);
             updateUppercaseSetting(m);
             updateCacheStatementSettings(m);
             updateTemporalMutableSetting(m);
@@ -3391,6 +3424,9 @@ protected void updateSequencingStart(Map m) {
      */
     protected void updateProjectCache(Map m, ClassLoader loader){
         Object accessor = EntityManagerFactoryProvider.getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE, m, session);
+        if ((accessor == null) && (EntityManagerFactoryProvider.getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_CLASS, m, session) != null)) {
+            accessor = "generated-class";
+        }
         if (accessor != null ) {
             if (accessor instanceof ProjectCache) {
                 projectCacheAccessor = (ProjectCache)accessor;
@@ -3398,6 +3434,10 @@ protected void updateProjectCache(Map m, ClassLoader loader){
                 String accessorType = (String)accessor;
                 if (accessorType.equalsIgnoreCase("java-serialization")) {
                     projectCacheAccessor = new FileBasedProjectCache();
+                } else if (accessorType.equalsIgnoreCase("binary")) {
+                    projectCacheAccessor = new BinaryFileProjectCache();
+                } else if (accessorType.equalsIgnoreCase("generated-class")) {
+                    projectCacheAccessor = new GeneratedClassProjectCache();
                 } else {
                     Class transportClass = findClassForProperty(accessorType, PersistenceUnitProperties.PROJECT_CACHE, loader);
                     try {
@@ -3468,6 +3508,99 @@ protected void updateSQLCastSetting(Map m) {
         }
     }
 
+    /**
+     * Enable or disable batch fetching of lazy relationships depending on their usage.
+     */
+    protected void updateAdaptiveBatchFetchSetting(Map m) {
+        String adaptiveBatchFetchString = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.BATCH_FETCH_ADAPTIVE, m, session);
+        if (adaptiveBatchFetchString != null) {
+            if (adaptiveBatchFetchString.equalsIgnoreCase("true")) {
+                session.getProject().setAdaptiveBatchFetch(true);
+            } else if (adaptiveBatchFetchString.equalsIgnoreCase("false")) {
+                session.getProject().setAdaptiveBatchFetch(false);
+            } else {
+                session.handleException(ValidationException.invalidBooleanValueForProperty(adaptiveBatchFetchString, PersistenceUnitProperties.BATCH_FETCH_ADAPTIVE));
+            }
+        }
+    }
+
+    /**
+     * Enable or disable the initialization of descriptors on first use.
+     */
+    protected void updateLazyDescriptorInitializationSetting(Map m) {
+        String lazyDescriptorInitializationString = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.DESCRIPTOR_INITIALIZATION_LAZY, m, session);
+        if (lazyDescriptorInitializationString != null) {
+            if (lazyDescriptorInitializationString.equalsIgnoreCase("true")) {
+                session.getProject().setLazyDescriptorInitialization(true);
+            } else if (lazyDescriptorInitializationString.equalsIgnoreCase("false")) {
+                session.getProject().setLazyDescriptorInitialization(false);
+            } else {
+                session.handleException(ValidationException.invalidBooleanValueForProperty(lazyDescriptorInitializationString, PersistenceUnitProperties.DESCRIPTOR_INITIALIZATION_LAZY));
+            }
+        }
+    }
+
+    /**
+     * Configure the compilation of the named queries on login, reading the catalog of the previous login.
+     */
+    protected void updateNamedQueryCompileSettings(Map m) {
+        String parallelismString = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.NAMED_QUERY_COMPILE_PARALLELISM, m, session);
+        if (parallelismString != null) {
+            try {
+                int parallelism = Integer.parseInt(parallelismString.trim());
+                if (parallelism < 0) {
+                    throw new NumberFormatException(parallelismString);
+                }
+                session.getProject().setNamedQueryCompileParallelism(parallelism);
+            } catch (NumberFormatException exception) {
+                session.handleException(ValidationException.invalidValueForProperty(parallelismString, PersistenceUnitProperties.NAMED_QUERY_COMPILE_PARALLELISM, exception));
+            }
+        }
+        this.namedQueryCatalogFile = null;
+        if (session.getProject().getNamedQueryCompileParallelism() == 0) {
+            return;
+        }
+        String fileName = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.NAMED_QUERY_CATALOG_FILE, m, session);
+        if (fileName == null) {
+            String projectCacheFileName = EntityManagerFactoryProvider.getConfigPropertyAsString(PersistenceUnitProperties.PROJECT_CACHE_BINARY_FILE, m);
+            if (projectCacheFileName == null) {
+                projectCacheFileName = EntityManagerFactoryProvider.getConfigPropertyAsString(PersistenceUnitProperties.PROJECT_CACHE_FILE, m);
+            }
+            if (projectCacheFileName != null) {
+                fileName = projectCacheFileName + ".queries";
+            }
+        }
+        if ((fileName == null) || (fileName.length() == 0)) {
+            return;
+        }
+        this.namedQueryCatalogFile = new File(fileName);
+        try {
+            NamedQueryCatalog catalog = NamedQueryCatalog.read(this.namedQueryCatalogFile);
+            if ((catalog == null) && this.namedQueryCatalogFile.isFile()) {
+                session.log(SessionLog.FINER, SessionLog.QUERY, "named_query_catalog_ignored", this.namedQueryCatalogFile);
+            }
+            session.setNamedQueryCatalog(catalog);
+        } catch (IOException exception) {
+            session.logThrowable(SessionLog.WARNING, SessionLog.QUERY, exception);
+        }
+    }
+
+    /**
+     * Write the catalog of the named queries compiled on login, if configured.
+     * Failing to write it does not fail the deployment.
+     */
+    protected void storeNamedQueryCatalog() {
+        NamedQueryCatalog catalog = session.getNamedQueryCatalog();
+        if ((this.namedQueryCatalogFile == null) || (catalog == null)) {
+            return;
+        }
+        try {
+            catalog.write(this.namedQueryCatalogFile);
+        } catch (IOException exception) {
+            session.logThrowable(SessionLog.WARNING, SessionLog.QUERY, exception);
+        }
+    }
+
     /**
      * Enable or disable forcing field names to uppercase.
      * The method needs to be called in deploy stage.
@@ -3912,6 +4045,9 @@ private static ValidationMode getValidationMode(PersistenceUnitInfo persitenceUn
     public Metamodel getMetamodel(ClassLoader classLoader) {
         preInitializeMetamodel();
         if (!((MetamodelImpl)metaModel).isInitialized()){
+            if ((this.session != null) && this.session.isDatabaseSession()) {
+                getDatabaseSession().initializeAllDescriptorsOnFirstUse();
+            }
             ((MetamodelImpl)metaModel).initialize(classLoader);
             // If the canonical metamodel classes exist, initialize them
             initializeCanonicalMetamodel(metaModel);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -157,6 +157,34 @@ public String getJPQLString(){
         return jpqlString;
     }
 
+    /**
+     * Return the lock mode of the JPQL query.
+     */
+    public String getLockMode() {
+        return lockMode;
+    }
+
+    /**
+     * Return the SQL string of the native query.
+     */
+    public String getSQLQueryString() {
+        return sqlString;
+    }
+
+    /**
+     * Return the result class name of the native query.
+     */
+    public String getResultClassName() {
+        return resultClassName;
+    }
+
+    /**
+     * Return the result set mapping names of the native query.
+     */
+    public List<String> getResultSetMappingNames() {
+        return resultSetMappingNames;
+    }
+
     /**
      * Return true if this query is a jpql query.
      */
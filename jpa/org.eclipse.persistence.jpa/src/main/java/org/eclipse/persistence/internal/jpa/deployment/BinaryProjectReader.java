@@ -0,0 +1,1219 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.deployment;
+
+import static org.eclipse.persistence.internal.jpa.deployment.BinaryProjectWriter.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.annotations.CacheKeyType;
+import org.eclipse.persistence.annotations.DatabaseChangeNotificationType;
+import org.eclipse.persistence.annotations.IdValidation;
+import org.eclipse.persistence.annotations.OrderCorrectionType;
+import org.eclipse.persistence.config.CacheIsolationType;
+import org.eclipse.persistence.descriptors.CachePolicy;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.DescriptorEventManager;
+import org.eclipse.persistence.descriptors.DescriptorQueryManager;
+import org.eclipse.persistence.descriptors.InheritancePolicy;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.descriptors.ReturningPolicy;
+import org.eclipse.persistence.descriptors.SelectedFieldsLockingPolicy;
+import org.eclipse.persistence.descriptors.TimestampLockingPolicy;
+import org.eclipse.persistence.descriptors.VersionLockingPolicy;
+import org.eclipse.persistence.descriptors.changetracking.AttributeChangeTrackingPolicy;
+import org.eclipse.persistence.descriptors.changetracking.DeferredChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.ObjectChangeTrackingPolicy;
+import org.eclipse.persistence.descriptors.copying.CloneCopyPolicy;
+import org.eclipse.persistence.descriptors.copying.InstantiationCopyPolicy;
+import org.eclipse.persistence.descriptors.copying.PersistenceEntityCopyPolicy;
+import org.eclipse.persistence.descriptors.invalidation.CacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.DailyCacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.NoExpiryCacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
+import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
+import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
+import org.eclipse.persistence.internal.descriptors.VirtualAttributeMethodInfo;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseTable;
+import org.eclipse.persistence.internal.helper.NonSynchronizedVector;
+import org.eclipse.persistence.internal.indirection.TransparentIndirectionPolicy;
+import org.eclipse.persistence.internal.indirection.WeavedObjectBasicIndirectionPolicy;
+import org.eclipse.persistence.internal.jpa.CMP3Policy;
+import org.eclipse.persistence.internal.jpa.JPAQuery;
+import org.eclipse.persistence.internal.jpa.metadata.listeners.JPAEntityListenerHolder;
+import org.eclipse.persistence.internal.jpa.metadata.listeners.MethodSerialImpl;
+import org.eclipse.persistence.internal.queries.CollectionContainerPolicy;
+import org.eclipse.persistence.internal.queries.ContainerPolicy;
+import org.eclipse.persistence.internal.queries.IndirectListContainerPolicy;
+import org.eclipse.persistence.internal.queries.InterfaceContainerPolicy;
+import org.eclipse.persistence.internal.queries.ListContainerPolicy;
+import org.eclipse.persistence.internal.queries.MapContainerPolicy;
+import org.eclipse.persistence.internal.queries.MappedKeyMapContainerPolicy;
+import org.eclipse.persistence.internal.queries.OrderedListContainerPolicy;
+import org.eclipse.persistence.internal.queries.VectorContainerPolicy;
+import org.eclipse.persistence.mappings.AggregateCollectionMapping;
+import org.eclipse.persistence.mappings.AggregateObjectMapping;
+import org.eclipse.persistence.mappings.AttributeAccessor;
+import org.eclipse.persistence.mappings.CollectionMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.DirectCollectionMapping;
+import org.eclipse.persistence.mappings.DirectMapMapping;
+import org.eclipse.persistence.mappings.DirectToFieldMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.mappings.ManyToManyMapping;
+import org.eclipse.persistence.mappings.ManyToOneMapping;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.mappings.RelationTableMechanism;
+import org.eclipse.persistence.mappings.UnidirectionalOneToManyMapping;
+import org.eclipse.persistence.mappings.converters.Converter;
+import org.eclipse.persistence.mappings.converters.ConverterClass;
+import org.eclipse.persistence.mappings.converters.EnumTypeConverter;
+import org.eclipse.persistence.mappings.converters.ObjectTypeConverter;
+import org.eclipse.persistence.mappings.converters.SerializedObjectConverter;
+import org.eclipse.persistence.mappings.converters.TypeConversionConverter;
+import org.eclipse.persistence.mappings.foundation.MapComponentMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.queries.DataReadQuery;
+import org.eclipse.persistence.queries.DoesExistQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sequencing.DefaultSequence;
+import org.eclipse.persistence.sequencing.NativeSequence;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sequencing.TableSequence;
+import org.eclipse.persistence.sequencing.UnaryTableSequence;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Read the project written by the BinaryProjectWriter.
+ * <p><b>Description</b>: The descriptors, mappings and policies are rebuilt through the same API
+ * JPA metadata processing uses, so the project is in the state it was in when metadata processing
+ * ended and the session initializes it at login as usual.
+ * Classes are referenced by name and only loaded for the platform, the identity maps and the
+ * instantiated policies, the persistent classes are left to convertClassNamesToClasses.
+ *
+ * @see BinaryProjectWriter
+ * @see org.eclipse.persistence.jpa.metadata.BinaryFileProjectCache
+ */
+public class BinaryProjectReader {
+
+    protected DataInputStream stream;
+    protected ClassLoader loader;
+    protected List<String> strings;
+    protected List<DatabaseTable> tables;
+    protected List<DatabaseField> fields;
+    protected List<ClassDescriptor> descriptors;
+    protected List<DatabaseMapping> mappings;
+
+    public BinaryProjectReader(InputStream stream, ClassLoader loader) {
+        this.stream = new DataInputStream(stream);
+        this.loader = loader;
+        this.strings = new ArrayList<>();
+        this.tables = new ArrayList<>();
+        this.fields = new ArrayList<>();
+        this.descriptors = new ArrayList<>();
+        this.mappings = new ArrayList<>();
+    }
+
+    /**
+     * Read the project from the stream.
+     */
+    public static Project read(InputStream stream, ClassLoader loader) throws IOException {
+        return new BinaryProjectReader(stream, loader).readProject();
+    }
+
+    public Project readProject() throws IOException {
+        Project project = new Project();
+        project.setName(readString());
+        project.setLogin(readLogin());
+        project.setDefaultTemporalMutable(this.stream.readBoolean());
+        project.setDefaultIdentityMapClass(readClass());
+        project.setDefaultIdentityMapSize(readInt());
+        project.setDefaultCacheIsolation(readEnum(CacheIsolationType.class));
+        project.setDefaultIdValidation(readEnum(IdValidation.class));
+        project.setQueryResultsCacheMaximumSize(this.stream.readLong());
+        project.setOffHeapCacheSize(this.stream.readLong());
+        project.setAdaptiveBatchFetch(this.stream.readBoolean());
+        project.setLazyDescriptorInitialization(this.stream.readBoolean());
+        project.setNamedQueryCompileParallelism(readInt());
+        project.setHasIsolatedClasses(this.stream.readBoolean());
+        project.setHasNonIsolatedUOWClasses(this.stream.readBoolean());
+        project.setHasProxyIndirection(this.stream.readBoolean());
+        project.setAllowNativeSQLQueries(this.stream.readBoolean());
+        project.setAllowTablePerMultitenantDDLGeneration(this.stream.readBoolean());
+        project.setAllowSQLDeferral(this.stream.readBoolean());
+        project.setNamingIntoIndexed(this.stream.readBoolean());
+        project.setVPDIdentifier(readString());
+        project.setVPDLastIdentifierClassName(readString());
+
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            project.getOrderedDescriptors().add(readDescriptor());
+        }
+        size = readCount();
+        for (int index = 0; index < size; index++) {
+            String key = readString();
+            project.addMappedSuperclass(key, readDescriptor(), true);
+        }
+        size = readCount();
+        for (int index = 0; index < size; index++) {
+            String alias = readString();
+            project.addAlias(alias, this.descriptors.get(readCount()));
+        }
+        for (int index = readCount(); index != 0; index = readCount()) {
+            this.mappings.get(index - 1).setDerivedIdMapping(this.mappings.get(readCount()));
+        }
+
+        size = readCount();
+        for (int index = 0; index < size; index++) {
+            project.addJPAQuery(readJPAQuery());
+        }
+        size = readCount();
+        for (int index = 0; index < size; index++) {
+            String key = readString();
+            project.getMetamodelIdClassMap().put(key, readStrings());
+        }
+        project.setClassNamesForWeaving(readStrings());
+        return project;
+    }
+
+    protected DatabaseLogin readLogin() throws IOException {
+        DatabaseLogin login = new DatabaseLogin();
+        DatasourcePlatform platform = (DatasourcePlatform)newInstance(readString());
+        platform.setTableQualifier(readString());
+        platform.setStartDelimiter(readString());
+        platform.setEndDelimiter(readString());
+        platform.setDefaultNativeSequenceToTable(this.stream.readBoolean());
+        platform.setDefaultSeqenceAtNextValue(this.stream.readBoolean());
+        boolean shouldForceFieldNamesToUpperCase = this.stream.readBoolean();
+        if (platform instanceof DatabasePlatform) {
+            ((DatabasePlatform)platform).setShouldForceFieldNamesToUpperCase(shouldForceFieldNamesToUpperCase);
+        }
+        Sequence defaultSequence = readSequence();
+        if (defaultSequence != null) {
+            platform.setDefaultSequence(defaultSequence);
+        }
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            platform.addSequence(readSequence());
+        }
+        login.setPlatform(platform);
+        return login;
+    }
+
+    protected Sequence readSequence() throws IOException {
+        int type = readCount();
+        Sequence sequence;
+        switch (type) {
+            case NULL:
+                return null;
+            case DEFAULT_SEQUENCE:
+                sequence = new DefaultSequence();
+                break;
+            case TABLE_SEQUENCE:
+                sequence = new TableSequence();
+                break;
+            case UNARY_TABLE_SEQUENCE:
+                sequence = new UnaryTableSequence();
+                break;
+            case NATIVE_SEQUENCE:
+                sequence = new NativeSequence();
+                break;
+            default:
+                throw corrupted("sequence", type);
+        }
+        sequence.setName(readString());
+        sequence.setPreallocationSize(readInt());
+        sequence.setInitialValue(readInt());
+        String qualifier = readString();
+        if (qualifier != null) {
+            sequence.setQualifier(qualifier);
+        }
+        sequence.setShouldAlwaysOverrideExistingValue(this.stream.readBoolean());
+        if (type == TABLE_SEQUENCE) {
+            TableSequence tableSequence = (TableSequence)sequence;
+            tableSequence.setTable(readTable());
+            tableSequence.setCounterFieldName(readString());
+            tableSequence.setNameFieldName(readString());
+        } else if (type == UNARY_TABLE_SEQUENCE) {
+            ((UnaryTableSequence)sequence).setCounterFieldName(readString());
+        } else if (type == NATIVE_SEQUENCE) {
+            ((NativeSequence)sequence).setShouldUseIdentityIfPlatformSupports(this.stream.readBoolean());
+        }
+        return sequence;
+    }
+
+    protected ClassDescriptor readDescriptor() throws IOException {
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        this.descriptors.add(descriptor);
+        descriptor.setJavaClassName(readString());
+        descriptor.setDescriptorType(readInt());
+        descriptor.setAlias(readString());
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            descriptor.addTable(readTable());
+        }
+        descriptor.setPrimaryKeyFields(new ArrayList<>(readFields()));
+        size = readCount();
+        for (int index = 0; index < size; index++) {
+            DatabaseTable table = readTable();
+            descriptor.getAdditionalTablePrimaryKeyFields().put(table, readFieldMap());
+        }
+        size = readCount();
+        for (int index = 0; index < size; index++) {
+            DatabaseTable table = readTable();
+            Set<DatabaseTable> targetTables = new HashSet<>();
+            int targetSize = readCount();
+            for (int targetIndex = 0; targetIndex < targetSize; targetIndex++) {
+                targetTables.add(readTable());
+            }
+            descriptor.getMultipleTableForeignKeys().put(table, targetTables);
+        }
+        descriptor.setIsCascadeOnDeleteSetOnDatabaseOnSecondaryTables(this.stream.readBoolean());
+        descriptor.setSequenceNumberName(readString());
+        descriptor.setSequenceNumberField(readField());
+        descriptor.setAmendmentClassName(readString());
+        descriptor.setAmendmentMethodName(readString());
+        descriptor.setDescriptorCustomizerClassName(readString());
+        descriptor.setShouldBeReadOnly(this.stream.readBoolean());
+        descriptor.setShouldAlwaysConformResultsInUnitOfWork(this.stream.readBoolean());
+        descriptor.setShouldRegisterResultsInUnitOfWork(this.stream.readBoolean());
+        descriptor.setShouldOrderMappings(this.stream.readBoolean());
+        descriptor.setShouldAcquireCascadedLocks(this.stream.readBoolean());
+        descriptor.setHasSimplePrimaryKey(this.stream.readBoolean());
+        descriptor.setHasMultipleTableConstraintDependecy(this.stream.readBoolean());
+        descriptor.setIsNativeConnectionRequired(this.stream.readBoolean());
+        descriptor.setHasRelationships(this.stream.readBoolean());
+        if (this.stream.readBoolean()) {
+            descriptor.usePropertyAccessForWeaving();
+        }
+        descriptor.setShouldLockForClone(this.stream.readBoolean());
+        descriptor.setIdValidation(readEnum(IdValidation.class));
+        size = readCount();
+        if (size != NULL) {
+            List<IdValidation> primaryKeyIdValidations = new ArrayList<>(size - 1);
+            for (int index = 1; index < size; index++) {
+                primaryKeyIdValidations.add(readEnum(IdValidation.class));
+            }
+            descriptor.setPrimaryKeyIdValidations(primaryKeyIdValidations);
+        }
+        descriptor.getProperties().putAll(readValues());
+        readUnconvertedProperties(descriptor.getUnconvertedProperties());
+        descriptor.setDefaultQueryRedirectorClassName(readString());
+        descriptor.setDefaultReadAllQueryRedirectorClassName(readString());
+        descriptor.setDefaultReadObjectQueryRedirectorClassName(readString());
+        descriptor.setDefaultReportQueryRedirectorClassName(readString());
+        descriptor.setDefaultUpdateObjectQueryRedirectorClassName(readString());
+        descriptor.setDefaultInsertObjectQueryRedirectorClassName(readString());
+        descriptor.setDefaultDeleteObjectQueryRedirectorClassName(readString());
+        size = readCount();
+        if (size != NULL) {
+            List<VirtualAttributeMethodInfo> virtualAttributeMethods = new ArrayList<>(size - 1);
+            for (int index = 1; index < size; index++) {
+                String getMethodName = readString();
+                virtualAttributeMethods.add(new VirtualAttributeMethodInfo(getMethodName, readString()));
+            }
+            descriptor.setVirtualAttributeMethods(virtualAttributeMethods);
+        }
+
+        readCopyPolicy(descriptor);
+        String methodName = readString();
+        String factoryClassName = readString();
+        String factoryMethodName = readString();
+        if (factoryClassName != null) {
+            descriptor.getInstantiationPolicy().useFactoryInstantiationPolicy(factoryClassName, methodName, factoryMethodName);
+        } else if (methodName != null) {
+            descriptor.getInstantiationPolicy().useMethodInstantiationPolicy(methodName);
+        }
+        readChangePolicy(descriptor);
+        readLockingPolicy(descriptor);
+        readReturningPolicy(descriptor);
+        readCMPPolicy(descriptor);
+        readCachePolicy(descriptor);
+        readCacheInvalidationPolicy(descriptor);
+        readEventManager(descriptor);
+        readInheritancePolicy(descriptor);
+        readQueryManager(descriptor);
+
+        size = readCount();
+        for (int index = 0; index < size; index++) {
+            descriptor.addMapping(readMapping());
+        }
+        // The attribute name is cached on first access, as it is once metadata processing ends.
+        for (DatabaseMapping mapping : descriptor.getMappings()) {
+            mapping.getAttributeName();
+        }
+        return descriptor;
+    }
+
+    protected void readCopyPolicy(ClassDescriptor descriptor) throws IOException {
+        descriptor.setCopyPolicyClassName(readString());
+        int type = readCount();
+        switch (type) {
+            case NULL:
+                break;
+            case CLONE_COPY:
+                CloneCopyPolicy policy = new CloneCopyPolicy();
+                policy.setMethodName(readString());
+                policy.setWorkingCopyMethodName(readString());
+                descriptor.setCopyPolicy(policy);
+                break;
+            case INSTANTIATION_COPY:
+                descriptor.setCopyPolicy(new InstantiationCopyPolicy());
+                break;
+            case PERSISTENCE_ENTITY_COPY:
+                descriptor.setCopyPolicy(new PersistenceEntityCopyPolicy());
+                break;
+            default:
+                throw corrupted("copy policy", type);
+        }
+    }
+
+    protected void readChangePolicy(ClassDescriptor descriptor) throws IOException {
+        int type = readCount();
+        switch (type) {
+            case NULL:
+                break;
+            case DEFERRED_CHANGE_DETECTION:
+                descriptor.setObjectChangePolicy(new DeferredChangeDetectionPolicy());
+                break;
+            case OBJECT_CHANGE_TRACKING:
+                descriptor.setObjectChangePolicy(new ObjectChangeTrackingPolicy());
+                break;
+            case ATTRIBUTE_CHANGE_TRACKING:
+                descriptor.setObjectChangePolicy(new AttributeChangeTrackingPolicy());
+                break;
+            default:
+                throw corrupted("change policy", type);
+        }
+    }
+
+    protected void readLockingPolicy(ClassDescriptor descriptor) throws IOException {
+        int type = readCount();
+        switch (type) {
+            case NULL:
+                break;
+            case VERSION_LOCKING:
+            case TIMESTAMP_LOCKING:
+                VersionLockingPolicy policy = (type == VERSION_LOCKING) ? new VersionLockingPolicy() : new TimestampLockingPolicy();
+                policy.setWriteLockField(readField());
+                policy.setIsStoredInCache(this.stream.readBoolean());
+                policy.setIsCascaded(this.stream.readBoolean());
+                policy.setLockOnChangeMode(readEnum(OptimisticLockingPolicy.LockOnChange.class));
+                if (type == TIMESTAMP_LOCKING) {
+                    ((TimestampLockingPolicy)policy).setUsesServerTime(this.stream.readBoolean());
+                }
+                descriptor.setOptimisticLockingPolicy(policy);
+                break;
+            case SELECTED_FIELDS_LOCKING:
+                SelectedFieldsLockingPolicy selectedPolicy = new SelectedFieldsLockingPolicy();
+                selectedPolicy.getLockFields().addAll(readFields());
+                descriptor.setOptimisticLockingPolicy(selectedPolicy);
+                break;
+            default:
+                throw corrupted("locking policy", type);
+        }
+    }
+
+    protected void readReturningPolicy(ClassDescriptor descriptor) throws IOException {
+        int size = readCount();
+        if (size == NULL) {
+            return;
+        }
+        ReturningPolicy policy = new ReturningPolicy();
+        for (int index = 1; index < size; index++) {
+            DatabaseField field = readField();
+            boolean isInsert = this.stream.readBoolean();
+            boolean isInsertModeReturnOnly = this.stream.readBoolean();
+            boolean isUpdate = this.stream.readBoolean();
+            if (isInsert) {
+                if (isInsertModeReturnOnly) {
+                    policy.addFieldForInsertReturnOnly(field);
+                } else {
+                    policy.addFieldForInsert(field);
+                }
+            }
+            if (isUpdate) {
+                policy.addFieldForUpdate(field);
+            }
+        }
+        descriptor.setReturningPolicy(policy);
+    }
+
+    protected void readCMPPolicy(ClassDescriptor descriptor) throws IOException {
+        if (readCount() == NULL) {
+            return;
+        }
+        CMP3Policy policy = new CMP3Policy();
+        policy.internalSetForceUpdate(readTriState());
+        policy.internalSetUpdateAllFields(readTriState());
+        policy.setDeferModificationsUntilCommit(readInt());
+        policy.setNonDeferredCreateTime(readInt());
+        policy.setPrimaryKeyClassName(readString());
+        descriptor.setCMPPolicy(policy);
+    }
+
+    protected void readCachePolicy(ClassDescriptor descriptor) throws IOException {
+        CachePolicy policy = descriptor.getCachePolicy();
+        policy.setIdentityMapClass(readClass());
+        policy.setIdentityMapSize(readInt());
+        policy.setRemoteIdentityMapClass(readClass());
+        policy.setRemoteIdentityMapSize(readInt());
+        policy.setShouldAlwaysRefreshCache(this.stream.readBoolean());
+        policy.setShouldOnlyRefreshCacheIfNewerVersion(this.stream.readBoolean());
+        policy.setShouldDisableCacheHits(this.stream.readBoolean());
+        policy.setShouldAlwaysRefreshCacheOnRemote(this.stream.readBoolean());
+        policy.setShouldDisableCacheHitsOnRemote(this.stream.readBoolean());
+        policy.setCacheable(readTriState());
+        policy.setCacheIsolation(readEnum(CacheIsolationType.class));
+        policy.setCacheSynchronizationType(readInt());
+        policy.setUnitOfWorkCacheIsolationLevel(readInt());
+        policy.setCacheKeyType(readEnum(CacheKeyType.class));
+        policy.setCacheInterceptorClassName(readString());
+        policy.setFullyMergeEntity(this.stream.readBoolean());
+        policy.setPrefetchCacheKeys(this.stream.readBoolean());
+        policy.setDatabaseChangeNotificationType(readEnum(DatabaseChangeNotificationType.class));
+    }
+
+    protected void readCacheInvalidationPolicy(ClassDescriptor descriptor) throws IOException {
+        int type = readCount();
+        CacheInvalidationPolicy policy;
+        switch (type) {
+            case NO_EXPIRY:
+                policy = new NoExpiryCacheInvalidationPolicy();
+                break;
+            case TIME_TO_LIVE:
+                policy = new TimeToLiveCacheInvalidationPolicy(this.stream.readLong());
+                break;
+            case DAILY:
+                int hour = readInt();
+                int minute = readInt();
+                int second = readInt();
+                policy = new DailyCacheInvalidationPolicy(hour, minute, second, readInt());
+                break;
+            default:
+                throw corrupted("cache invalidation policy", type);
+        }
+        policy.setShouldUpdateReadTimeOnUpdate(this.stream.readBoolean());
+        policy.setShouldRefreshInvalidObjectsOnClone(this.stream.readBoolean());
+        policy.setIsInvalidationRandomized(this.stream.readBoolean());
+        descriptor.setCacheInvalidationPolicy(policy);
+    }
+
+    protected void readEventManager(ClassDescriptor descriptor) throws IOException {
+        DescriptorEventManager eventManager = descriptor.getEventManager();
+        eventManager.setPreWriteSelector(readString());
+        eventManager.setPostWriteSelector(readString());
+        eventManager.setPreDeleteSelector(readString());
+        eventManager.setPostDeleteSelector(readString());
+        eventManager.setPreInsertSelector(readString());
+        eventManager.setPostInsertSelector(readString());
+        eventManager.setPreUpdateSelector(readString());
+        eventManager.setPostUpdateSelector(readString());
+        eventManager.setPostBuildSelector(readString());
+        eventManager.setPostRefreshSelector(readString());
+        eventManager.setPostCloneSelector(readString());
+        eventManager.setPostMergeSelector(readString());
+        eventManager.setAboutToInsertSelector(readString());
+        eventManager.setAboutToUpdateSelector(readString());
+        eventManager.setAboutToDeleteSelector(readString());
+        eventManager.setPrePersistSelector(readString());
+        eventManager.setPreRemoveSelector(readString());
+        eventManager.setExcludeDefaultListeners(this.stream.readBoolean());
+        eventManager.setExcludeSuperclassListeners(this.stream.readBoolean());
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            JPAEntityListenerHolder holder = new JPAEntityListenerHolder();
+            holder.listenerClassName = readString();
+            holder.setIsDefaultListener(readTriState());
+            int methodsSize = readCount();
+            if (methodsSize != NULL) {
+                holder.serializableMethods = new HashMap<>();
+                for (int methodsIndex = 1; methodsIndex < methodsSize; methodsIndex++) {
+                    String event = readString();
+                    int eventSize = readCount();
+                    List<MethodSerialImpl> methods = new ArrayList<>(eventSize);
+                    for (int eventIndex = 0; eventIndex < eventSize; eventIndex++) {
+                        String methodName = readString();
+                        String declaringClassName = readString();
+                        methods.add(new MethodSerialImpl(methodName, declaringClassName, readStrings()));
+                    }
+                    holder.serializableMethods.put(event, methods);
+                }
+            }
+            eventManager.addEntityListenerHolder(holder);
+        }
+    }
+
+    protected void readInheritancePolicy(ClassDescriptor descriptor) throws IOException {
+        if (readCount() == NULL) {
+            return;
+        }
+        InheritancePolicy policy = descriptor.getInheritancePolicy();
+        policy.setParentClassName(readString());
+        policy.setClassIndicatorField(readField());
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            Object key = readValue();
+            policy.getClassNameIndicatorMapping().put(key, readValue());
+        }
+        policy.setClassExtractorName(readString());
+        policy.setShouldReadSubclasses(readTriState());
+        if (this.stream.readBoolean()) {
+            policy.setAlwaysUseOuterJoinForClassType(true);
+        }
+        policy.setUseDescriptorsToValidateInheritedObjects(this.stream.readBoolean());
+        policy.setShouldOuterJoinSubclasses(this.stream.readBoolean());
+        if (this.stream.readBoolean()) {
+            policy.setJoinedStrategy();
+        }
+        policy.setDescribesNonPersistentSubclasses(this.stream.readBoolean());
+    }
+
+    protected void readQueryManager(ClassDescriptor descriptor) throws IOException {
+        DescriptorQueryManager queryManager = descriptor.getQueryManager();
+        DoesExistQuery doesExistQuery = queryManager.getDoesExistQuery();
+        doesExistQuery.setExistencePolicy(readInt());
+        doesExistQuery.setCheckDatabaseIfInvalid(this.stream.readBoolean());
+        doesExistQuery.setCheckCacheFirst(this.stream.readBoolean());
+        queryManager.setAdditionalCriteria(readString());
+        queryManager.setQueryTimeout(readInt());
+        queryManager.setQueryTimeoutUnit(readEnum(TimeUnit.class));
+    }
+
+    protected DatabaseMapping readMapping() throws IOException {
+        int type = readCount();
+        DatabaseMapping mapping;
+        switch (type) {
+            case DIRECT_TO_FIELD:
+                mapping = new DirectToFieldMapping();
+                break;
+            case ONE_TO_ONE:
+                mapping = new OneToOneMapping();
+                break;
+            case MANY_TO_ONE:
+                mapping = new ManyToOneMapping();
+                break;
+            case ONE_TO_MANY:
+                mapping = new OneToManyMapping();
+                break;
+            case UNIDIRECTIONAL_ONE_TO_MANY:
+                mapping = new UnidirectionalOneToManyMapping();
+                break;
+            case MANY_TO_MANY:
+                mapping = new ManyToManyMapping();
+                break;
+            case AGGREGATE_OBJECT:
+                mapping = new AggregateObjectMapping();
+                break;
+            case AGGREGATE_COLLECTION:
+                mapping = new AggregateCollectionMapping();
+                break;
+            case DIRECT_COLLECTION:
+                mapping = new DirectCollectionMapping();
+                break;
+            case DIRECT_MAP:
+                mapping = new DirectMapMapping();
+                break;
+            default:
+                throw corrupted("mapping", type);
+        }
+        this.mappings.add(mapping);
+        mapping.setAttributeAccessor(readAttributeAccessor());
+        mapping.setIsReadOnly(this.stream.readBoolean());
+        mapping.setIsOptional(this.stream.readBoolean());
+        Boolean isLazy = readTriState();
+        if (isLazy != null) {
+            mapping.setIsLazy(isLazy);
+        }
+        if (this.stream.readBoolean()) {
+            mapping.setWeight(readInt());
+        }
+        for (Map.Entry<Object, Object> entry : readValues().entrySet()) {
+            mapping.setProperty(entry.getKey(), entry.getValue());
+        }
+        readUnconvertedProperties(mapping.getUnconvertedProperties());
+        mapping.setDerivesId(this.stream.readBoolean());
+        if (this.stream.readBoolean()) {
+            mapping.setIsJPAId();
+        }
+        mapping.setMapsIdValue(readString());
+        mapping.setIsPrimaryKeyMapping(this.stream.readBoolean());
+        mapping.setIsMapKeyMapping(this.stream.readBoolean());
+        mapping.setIsCacheable(this.stream.readBoolean());
+        Boolean isInOnlySopObject = readTriState();
+        if (isInOnlySopObject != null) {
+            if (isInOnlySopObject) {
+                mapping.setIsInSopObject();
+            } else {
+                mapping.setIsOutSopObject();
+            }
+        }
+
+        if (mapping.isAbstractDirectMapping()) {
+            readDirectMapping((AbstractDirectMapping)mapping);
+            return mapping;
+        }
+        if (mapping.isAggregateObjectMapping()) {
+            readAggregateObjectMapping((AggregateObjectMapping)mapping);
+            return mapping;
+        }
+        ForeignReferenceMapping referenceMapping = (ForeignReferenceMapping)mapping;
+        referenceMapping.setReferenceClassName(readString());
+        referenceMapping.setIsPrivateOwned(this.stream.readBoolean());
+        referenceMapping.setBatchFetchType(readEnum(BatchFetchType.class));
+        readIndirectionPolicy(referenceMapping);
+        referenceMapping.setRelationshipPartnerAttributeName(readString());
+        referenceMapping.setCascadePersist(this.stream.readBoolean());
+        referenceMapping.setCascadeMerge(this.stream.readBoolean());
+        referenceMapping.setCascadeRefresh(this.stream.readBoolean());
+        referenceMapping.setCascadeRemove(this.stream.readBoolean());
+        referenceMapping.setCascadeDetach(this.stream.readBoolean());
+        referenceMapping.setRequiresTransientWeavedFields(this.stream.readBoolean());
+        referenceMapping.setJoinFetch(readInt());
+        referenceMapping.setShouldExtendPessimisticLockScope(this.stream.readBoolean());
+        referenceMapping.setIsCascadeOnDeleteSetOnDatabase(this.stream.readBoolean());
+        referenceMapping.setMappedBy(readString());
+
+        if (mapping.isOneToOneMapping()) {
+            readOneToOneMapping((OneToOneMapping)mapping);
+        } else if (mapping.isCollectionMapping()) {
+            readCollectionMapping((CollectionMapping)mapping);
+        }
+        return mapping;
+    }
+
+    protected AttributeAccessor readAttributeAccessor() throws IOException {
+        int type = readCount();
+        AttributeAccessor accessor;
+        if (type == INSTANCE_VARIABLE_ACCESSOR) {
+            accessor = new InstanceVariableAttributeAccessor();
+        } else if (type == METHOD_ACCESSOR) {
+            MethodAttributeAccessor methodAccessor = new MethodAttributeAccessor();
+            methodAccessor.setGetMethodName(readString());
+            methodAccessor.setSetMethodName(readString());
+            accessor = methodAccessor;
+        } else {
+            throw corrupted("attribute accessor", type);
+        }
+        accessor.setAttributeName(readString());
+        accessor.setIsReadOnly(this.stream.readBoolean());
+        accessor.setIsWriteOnly(this.stream.readBoolean());
+        return accessor;
+    }
+
+    protected void readDirectMapping(AbstractDirectMapping mapping) throws IOException {
+        mapping.setField(readField());
+        mapping.setConverter(readConverter(mapping));
+        mapping.setConverterClassName(readString());
+        mapping.setAttributeClassificationName(readString());
+        mapping.setFieldClassificationClassName(readString());
+        Boolean isMutable = readTriState();
+        if (isMutable != null) {
+            mapping.setIsMutable(isMutable);
+        }
+    }
+
+    protected Converter readConverter(DatabaseMapping mapping) throws IOException {
+        int type = readCount();
+        switch (type) {
+            case NULL:
+                return null;
+            case ENUM_CONVERTER:
+                String enumClassName = readString();
+                return new EnumTypeConverter(mapping, enumClassName, this.stream.readBoolean());
+            case OBJECT_TYPE_CONVERTER:
+                ObjectTypeConverter typeConverter = new ObjectTypeConverter(mapping);
+                typeConverter.setConverterName(readString());
+                typeConverter.setDataTypeName(readString());
+                typeConverter.setFieldClassificationName(readString());
+                typeConverter.setObjectTypeName(readString());
+                for (Map.Entry<Object, Object> entry : readValues().entrySet()) {
+                    typeConverter.addConversionValueStrings((String)entry.getKey(), (String)entry.getValue());
+                }
+                for (Map.Entry<Object, Object> entry : readValues().entrySet()) {
+                    typeConverter.addToAttributeOnlyConversionValueStrings((String)entry.getKey(), (String)entry.getValue());
+                }
+                typeConverter.getAttributeToFieldValues().putAll(readValues());
+                typeConverter.setDefaultAttributeValueString(readString());
+                return typeConverter;
+            case TYPE_CONVERSION_CONVERTER:
+                TypeConversionConverter conversionConverter = new TypeConversionConverter(mapping);
+                conversionConverter.setDataClassName(readString());
+                conversionConverter.setObjectClassName(readString());
+                return conversionConverter;
+            case SERIALIZED_OBJECT_CONVERTER:
+                SerializedObjectConverter serializedConverter = new SerializedObjectConverter(mapping);
+                serializedConverter.setSerializerClassName(readString());
+                serializedConverter.setSerializerPackage(readString());
+                return serializedConverter;
+            case CONVERTER_CLASS:
+                String attributeConverterClassName = readString();
+                String fieldClassificationName = readString();
+                boolean isForMapKey = this.stream.readBoolean();
+                return new ConverterClass(attributeConverterClassName, isForMapKey, fieldClassificationName, this.stream.readBoolean());
+            default:
+                throw corrupted("converter", type);
+        }
+    }
+
+    protected void readAggregateObjectMapping(AggregateObjectMapping mapping) throws IOException {
+        mapping.setReferenceClassName(readString());
+        mapping.setIsNullAllowed(this.stream.readBoolean());
+        readAggregateToSourceFields(mapping.getAggregateToSourceFields());
+        readConverters(mapping.getConverters(), mapping);
+    }
+
+    protected void readOneToOneMapping(OneToOneMapping mapping) throws IOException {
+        mapping.setIsForeignKeyRelationship(this.stream.readBoolean());
+        mapping.getForeignKeyFields().addAll(readFields());
+        mapping.setSourceToTargetKeyFields(readFieldMap());
+        mapping.setTargetToSourceKeyFields(readFieldMap());
+        mapping.setShouldVerifyDelete(this.stream.readBoolean());
+        mapping.setIsOneToOneRelationship(this.stream.readBoolean());
+        mapping.setIsOneToOnePrimaryKeyRelationship(this.stream.readBoolean());
+    }
+
+    protected void readCollectionMapping(CollectionMapping mapping) throws IOException {
+        mapping.setContainerPolicy(readContainerPolicy(mapping));
+        int type = readCount();
+        if (type != MAPPING_CONTAINER) {
+            ContainerPolicy queryContainerPolicy = readContainerPolicy(mapping, type);
+            if (mapping.getSelectionQuery().isReadAllQuery()) {
+                ((ReadAllQuery)mapping.getSelectionQuery()).setContainerPolicy(queryContainerPolicy);
+            } else if (mapping.getSelectionQuery().isDataReadQuery()) {
+                ((DataReadQuery)mapping.getSelectionQuery()).setContainerPolicy(queryContainerPolicy);
+            }
+        }
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            List<String> path = readStrings();
+            boolean isDescending = this.stream.readBoolean();
+            if (path.size() == 1) {
+                mapping.addOrderBy(path.get(0), isDescending);
+            } else {
+                mapping.addAggregateOrderBy(String.join(".", path.subList(0, path.size() - 1)), path.get(path.size() - 1), isDescending);
+            }
+        }
+        if (this.stream.readBoolean()) {
+            mapping.addAscendingOrdering(null);
+        }
+        mapping.setListOrderField(readField());
+        mapping.setOrderCorrectionType(readEnum(OrderCorrectionType.class));
+        Boolean mustDeleteReferenceObjectsOneByOne = readTriState();
+        if (mustDeleteReferenceObjectsOneByOne != null) {
+            mapping.setMustDeleteReferenceObjectsOneByOne(mustDeleteReferenceObjectsOneByOne);
+        }
+
+        if (mapping.isManyToManyMapping()) {
+            ManyToManyMapping manyToManyMapping = (ManyToManyMapping)mapping;
+            readRelationTableMechanism(manyToManyMapping.getRelationTableMechanism());
+            manyToManyMapping.setDefinedAsOneToManyMapping(this.stream.readBoolean());
+        } else if (mapping.isOneToManyMapping()) {
+            OneToManyMapping oneToManyMapping = (OneToManyMapping)mapping;
+            oneToManyMapping.setTargetForeignKeyFields(readFields());
+            oneToManyMapping.setSourceKeyFields(readFields());
+            Boolean shouldDeferInserts = readTriState();
+            if (shouldDeferInserts != null) {
+                oneToManyMapping.setShouldDeferInsert(shouldDeferInserts);
+            }
+            if (mapping.isUnidirectionalOneToManyMapping()) {
+                UnidirectionalOneToManyMapping unidirectionalMapping = (UnidirectionalOneToManyMapping)mapping;
+                unidirectionalMapping.setShouldIncrementTargetLockValueOnAddOrRemoveTarget(this.stream.readBoolean());
+                unidirectionalMapping.setShouldIncrementTargetLockValueOnDeleteSource(this.stream.readBoolean());
+            }
+        } else if (mapping.isAggregateCollectionMapping()) {
+            AggregateCollectionMapping aggregateMapping = (AggregateCollectionMapping)mapping;
+            aggregateMapping.setTargetForeignKeyFields(readFields());
+            aggregateMapping.setSourceKeyFields(readFields());
+            aggregateMapping.getTargetForeignKeyToSourceKeys().putAll(readFieldMap());
+            readAggregateToSourceFields(aggregateMapping.getAggregateToSourceFields());
+            readConverters(aggregateMapping.getConverters(), aggregateMapping);
+            aggregateMapping.setDefaultSourceTable(readTable());
+        } else if (mapping.isDirectCollectionMapping()) {
+            DirectCollectionMapping directMapping = (DirectCollectionMapping)mapping;
+            directMapping.setReferenceTable(readTable());
+            directMapping.setDirectField(readField());
+            directMapping.setSourceKeyFields(readFields());
+            directMapping.setReferenceKeyFields(readFields());
+            directMapping.setValueConverter(readConverter(directMapping));
+            directMapping.setValueConverterClassName(readString());
+            directMapping.setAttributeClassificationName(readString());
+            size = readCount();
+            for (int index = 0; index < size; index++) {
+                if (this.stream.readBoolean()) {
+                    directMapping.addDescendingOrdering();
+                } else {
+                    directMapping.addAscendingOrdering();
+                }
+            }
+        }
+    }
+
+    protected void readRelationTableMechanism(RelationTableMechanism mechanism) throws IOException {
+        mechanism.setRelationTable(readTable());
+        mechanism.setSourceKeyFields(readFields());
+        mechanism.setTargetKeyFields(readFields());
+        mechanism.setSourceRelationKeyFields(readFields());
+        mechanism.setTargetRelationKeyFields(readFields());
+    }
+
+    protected ContainerPolicy readContainerPolicy(CollectionMapping mapping) throws IOException {
+        return readContainerPolicy(mapping, readCount());
+    }
+
+    protected ContainerPolicy readContainerPolicy(CollectionMapping mapping, int type) throws IOException {
+        InterfaceContainerPolicy policy;
+        switch (type) {
+            case NULL:
+                return null;
+            case COLLECTION_CONTAINER:
+                policy = new CollectionContainerPolicy();
+                break;
+            case LIST_CONTAINER:
+                policy = new ListContainerPolicy();
+                break;
+            case VECTOR_CONTAINER:
+                policy = new VectorContainerPolicy();
+                break;
+            case INDIRECT_LIST_CONTAINER:
+                policy = new IndirectListContainerPolicy();
+                break;
+            case ORDERED_LIST_CONTAINER:
+                policy = new OrderedListContainerPolicy();
+                break;
+            case MAP_CONTAINER:
+                policy = new MapContainerPolicy();
+                break;
+            case MAPPED_KEY_MAP_CONTAINER:
+                policy = new MappedKeyMapContainerPolicy();
+                break;
+            default:
+                throw corrupted("container policy", type);
+        }
+        // The selection query may hold its own container policy, which class names conversion does not reach.
+        String containerClassName = readString();
+        policy.setContainerClassName(containerClassName);
+        policy.setContainerClass(classForName(containerClassName));
+        if (type == ORDERED_LIST_CONTAINER) {
+            ((OrderedListContainerPolicy)policy).setListOrderField(readField());
+            ((OrderedListContainerPolicy)policy).setOrderCorrectionType(readEnum(OrderCorrectionType.class));
+        } else if (type == MAP_CONTAINER) {
+            String keyName = readString();
+            ((MapContainerPolicy)policy).setKeyName(keyName, readString());
+        } else if (type == MAPPED_KEY_MAP_CONTAINER) {
+            MappedKeyMapContainerPolicy mapPolicy = (MappedKeyMapContainerPolicy)policy;
+            // The key mapping belongs to the descriptor being read, without being one of its mappings.
+            DirectToFieldMapping keyMapping = (DirectToFieldMapping)readMapping();
+            keyMapping.setDescriptor(this.descriptors.get(this.descriptors.size() - 1));
+            keyMapping.getAttributeName();
+            mapPolicy.setKeyMapping(keyMapping);
+            mapPolicy.setValueMapping((MapComponentMapping)mapping);
+        }
+        return policy;
+    }
+
+    protected void readIndirectionPolicy(ForeignReferenceMapping mapping) throws IOException {
+        int type = readCount();
+        switch (type) {
+            case NO_INDIRECTION:
+                mapping.dontUseIndirection();
+                break;
+            case BASIC_INDIRECTION:
+                mapping.useBasicIndirection();
+                break;
+            case WEAVED_INDIRECTION:
+                String getMethodName = readString();
+                String setMethodName = readString();
+                boolean hasUsedMethodAccess = this.stream.readBoolean();
+                mapping.setIndirectionPolicy(new WeavedObjectBasicIndirectionPolicy(getMethodName, setMethodName, readString(), hasUsedMethodAccess));
+                break;
+            case TRANSPARENT_INDIRECTION:
+                TransparentIndirectionPolicy transparentPolicy = new TransparentIndirectionPolicy();
+                transparentPolicy.setUseLazyInstantiation(readTriState());
+                mapping.setIndirectionPolicy(transparentPolicy);
+                break;
+            default:
+                throw corrupted("indirection policy", type);
+        }
+    }
+
+    protected void readAggregateToSourceFields(Map<String, DatabaseField> aggregateToSourceFields) throws IOException {
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            String aggregateFieldName = readString();
+            aggregateToSourceFields.put(aggregateFieldName, readField());
+        }
+    }
+
+    protected void readConverters(Map<String, Converter> converters, DatabaseMapping mapping) throws IOException {
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            String attributeName = readString();
+            converters.put(attributeName, readConverter(mapping));
+        }
+    }
+
+    protected JPAQuery readJPAQuery() throws IOException {
+        int type = readCount();
+        JPAQuery query;
+        if (type == JPQL_QUERY) {
+            String name = readString();
+            String jpql = readString();
+            String lockMode = readString();
+            query = new JPAQuery(name, jpql, lockMode, null);
+        } else if (type == SQL_QUERY) {
+            String name = readString();
+            query = new JPAQuery(name, readString(), null);
+            query.setResultClassName(readString());
+            query.setResultSetMappings(readStrings());
+        } else {
+            throw corrupted("named query", type);
+        }
+        Map<String, Object> hints = new HashMap<>();
+        for (Map.Entry<Object, Object> entry : readValues().entrySet()) {
+            hints.put((String)entry.getKey(), entry.getValue());
+        }
+        query.setHints(hints);
+        return query;
+    }
+
+    protected void readUnconvertedProperties(Map<String, List<String>> properties) throws IOException {
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            String key = readString();
+            properties.put(key, readStrings());
+        }
+    }
+
+    protected Map<Object, Object> readValues() throws IOException {
+        int size = readCount();
+        Map<Object, Object> values = new HashMap<>(size);
+        for (int index = 0; index < size; index++) {
+            Object key = readValue();
+            values.put(key, readValue());
+        }
+        return values;
+    }
+
+    protected Object readValue() throws IOException {
+        int type = readCount();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING_VALUE:
+                return readString();
+            case INTEGER_VALUE:
+                return readInt();
+            case LONG_VALUE:
+                return this.stream.readLong();
+            case SHORT_VALUE:
+                return (short)readInt();
+            case BYTE_VALUE:
+                return (byte)readInt();
+            case CHARACTER_VALUE:
+                return (char)readCount();
+            case BOOLEAN_VALUE:
+                return this.stream.readBoolean();
+            case DOUBLE_VALUE:
+                return this.stream.readDouble();
+            case FLOAT_VALUE:
+                return this.stream.readFloat();
+            case BIG_DECIMAL_VALUE:
+                return new BigDecimal(readString());
+            case BIG_INTEGER_VALUE:
+                return new BigInteger(readString());
+            default:
+                throw corrupted("value", type);
+        }
+    }
+
+    protected DatabaseTable readTable() throws IOException {
+        int reference = readCount();
+        if (reference == NULL) {
+            return null;
+        } else if (reference != NEW) {
+            return this.tables.get(reference - REFERENCE);
+        }
+        DatabaseTable table = new DatabaseTable();
+        this.tables.add(table);
+        table.setName(readString());
+        table.setTableQualifier(readString());
+        table.setUseDelimiters(this.stream.readBoolean());
+        table.setCreationSuffix(readString());
+        int size = readCount();
+        for (int index = 0; index < size; index++) {
+            String name = readString();
+            int constraintsSize = readCount();
+            for (int constraintsIndex = 0; constraintsIndex < constraintsSize; constraintsIndex++) {
+                table.addUniqueConstraints(name, readStrings());
+            }
+        }
+        return table;
+    }
+
+    protected DatabaseField readField() throws IOException {
+        int reference = readCount();
+        if (reference == NULL) {
+            return null;
+        } else if (reference != NEW) {
+            return this.fields.get(reference - REFERENCE);
+        }
+        DatabaseField field = new DatabaseField();
+        this.fields.add(field);
+        field.setName(readString());
+        field.setTable(readTable());
+        field.setTypeName(readString());
+        field.setColumnDefinition(readString());
+        field.setScale(readInt());
+        field.setLength(readInt());
+        field.setPrecision(readInt());
+        field.setSqlType(readInt());
+        field.setIndex(readInt());
+        int flags = readCount();
+        field.setUnique((flags & 1) != 0);
+        field.setNullable((flags & 1 << 1) != 0);
+        field.setUpdatable((flags & 1 << 2) != 0);
+        field.setInsertable((flags & 1 << 3) != 0);
+        field.setCreatable((flags & 1 << 4) != 0);
+        field.setPrimaryKey((flags & 1 << 5) != 0);
+        field.setUseDelimiters((flags & 1 << 6) != 0);
+        field.useUpperCaseForComparisons((flags & 1 << 7) != 0);
+        field.setIsTranslated((flags & 1 << 8) != 0);
+        field.setKeepInRow((flags & 1 << 9) != 0);
+        return field;
+    }
+
+    protected Vector<DatabaseField> readFields() throws IOException {
+        int size = readCount();
+        Vector<DatabaseField> fields = NonSynchronizedVector.newInstance(size);
+        for (int index = 0; index < size; index++) {
+            fields.add(readField());
+        }
+        return fields;
+    }
+
+    protected Map<DatabaseField, DatabaseField> readFieldMap() throws IOException {
+        int size = readCount();
+        Map<DatabaseField, DatabaseField> fields = new HashMap<>(size);
+        for (int index = 0; index < size; index++) {
+            DatabaseField key = readField();
+            fields.put(key, readField());
+        }
+        return fields;
+    }
+
+    protected String readString() throws IOException {
+        int reference = readCount();
+        if (reference == NULL) {
+            return null;
+        } else if (reference != NEW) {
+            return this.strings.get(reference - REFERENCE);
+        }
+        byte[] bytes = new byte[readCount()];
+        this.stream.readFully(bytes);
+        String string = new String(bytes, StandardCharsets.UTF_8);
+        this.strings.add(string);
+        return string;
+    }
+
+    protected List<String> readStrings() throws IOException {
+        int size = readCount();
+        if (size == NULL) {
+            return null;
+        }
+        List<String> strings = new ArrayList<>(size - 1);
+        for (int index = 1; index < size; index++) {
+            strings.add(readString());
+        }
+        return strings;
+    }
+
+    protected Class readClass() throws IOException {
+        return classForName(readString());
+    }
+
+    protected Class classForName(String className) {
+        if (className == null) {
+            return null;
+        }
+        try {
+            return Class.forName(className, false, this.loader);
+        } catch (ClassNotFoundException exception) {
+            throw ValidationException.classNotFoundWhileConvertingClassNames(className, exception);
+        }
+    }
+
+    protected Object newInstance(String className) throws IOException {
+        try {
+            return Class.forName(className, true, this.loader).getConstructor().newInstance();
+        } catch (ReflectiveOperationException exception) {
+            throw ValidationException.reflectiveExceptionWhileCreatingClassInstance(className, exception);
+        }
+    }
+
+    protected <T extends Enum<T>> T readEnum(Class<T> enumClass) throws IOException {
+        String name = readString();
+        return (name == null) ? null : Enum.valueOf(enumClass, name);
+    }
+
+    protected Boolean readTriState() throws IOException {
+        int value = this.stream.readByte();
+        return (value == 0) ? null : (value == 2);
+    }
+
+    protected int readInt() throws IOException {
+        int value = readCount();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    protected int readCount() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int next = this.stream.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("variable length count is too long");
+    }
+
+    protected StreamCorruptedException corrupted(String kind, int type) {
+        return new StreamCorruptedException("unknown " + kind + " type " + type);
+    }
+}
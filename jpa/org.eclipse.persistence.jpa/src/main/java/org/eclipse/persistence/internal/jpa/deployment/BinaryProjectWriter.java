@@ -0,0 +1,1348 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.deployment;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.persistence.descriptors.CMPPolicy;
+import org.eclipse.persistence.descriptors.CachePolicy;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.DescriptorEventManager;
+import org.eclipse.persistence.descriptors.DescriptorQueryManager;
+import org.eclipse.persistence.descriptors.InheritancePolicy;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.descriptors.ReturningPolicy;
+import org.eclipse.persistence.descriptors.SelectedFieldsLockingPolicy;
+import org.eclipse.persistence.descriptors.SerializableDescriptorEventHolder;
+import org.eclipse.persistence.descriptors.TimestampLockingPolicy;
+import org.eclipse.persistence.descriptors.VersionLockingPolicy;
+import org.eclipse.persistence.descriptors.changetracking.AttributeChangeTrackingPolicy;
+import org.eclipse.persistence.descriptors.changetracking.DeferredChangeDetectionPolicy;
+import org.eclipse.persistence.descriptors.changetracking.ObjectChangePolicy;
+import org.eclipse.persistence.descriptors.changetracking.ObjectChangeTrackingPolicy;
+import org.eclipse.persistence.descriptors.copying.CloneCopyPolicy;
+import org.eclipse.persistence.descriptors.copying.CopyPolicy;
+import org.eclipse.persistence.descriptors.copying.InstantiationCopyPolicy;
+import org.eclipse.persistence.descriptors.copying.PersistenceEntityCopyPolicy;
+import org.eclipse.persistence.descriptors.invalidation.CacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.DailyCacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.NoExpiryCacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionOperator;
+import org.eclipse.persistence.internal.databaseaccess.DatabasePlatform;
+import org.eclipse.persistence.internal.databaseaccess.DatasourcePlatform;
+import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.InstantiationPolicy;
+import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
+import org.eclipse.persistence.internal.descriptors.VirtualAttributeMethodInfo;
+import org.eclipse.persistence.internal.expressions.FieldExpression;
+import org.eclipse.persistence.internal.expressions.FunctionExpression;
+import org.eclipse.persistence.internal.expressions.QueryKeyExpression;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.helper.DatabaseTable;
+import org.eclipse.persistence.internal.indirection.BasicIndirectionPolicy;
+import org.eclipse.persistence.internal.indirection.IndirectionPolicy;
+import org.eclipse.persistence.internal.indirection.NoIndirectionPolicy;
+import org.eclipse.persistence.internal.indirection.TransparentIndirectionPolicy;
+import org.eclipse.persistence.internal.indirection.WeavedObjectBasicIndirectionPolicy;
+import org.eclipse.persistence.internal.jpa.CMP3Policy;
+import org.eclipse.persistence.internal.jpa.JPAQuery;
+import org.eclipse.persistence.internal.jpa.metadata.listeners.JPAEntityListenerHolder;
+import org.eclipse.persistence.internal.jpa.metadata.listeners.MethodSerialImpl;
+import org.eclipse.persistence.internal.queries.CollectionContainerPolicy;
+import org.eclipse.persistence.internal.queries.ContainerPolicy;
+import org.eclipse.persistence.internal.queries.IndirectListContainerPolicy;
+import org.eclipse.persistence.internal.queries.InterfaceContainerPolicy;
+import org.eclipse.persistence.internal.queries.ListContainerPolicy;
+import org.eclipse.persistence.internal.queries.MapContainerPolicy;
+import org.eclipse.persistence.internal.queries.MappedKeyMapContainerPolicy;
+import org.eclipse.persistence.internal.queries.OrderedListContainerPolicy;
+import org.eclipse.persistence.internal.queries.VectorContainerPolicy;
+import org.eclipse.persistence.mappings.AggregateCollectionMapping;
+import org.eclipse.persistence.mappings.AggregateObjectMapping;
+import org.eclipse.persistence.mappings.AttributeAccessor;
+import org.eclipse.persistence.mappings.CollectionMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.DirectCollectionMapping;
+import org.eclipse.persistence.mappings.DirectMapMapping;
+import org.eclipse.persistence.mappings.DirectToFieldMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.mappings.ManyToManyMapping;
+import org.eclipse.persistence.mappings.ManyToOneMapping;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.mappings.RelationTableMechanism;
+import org.eclipse.persistence.mappings.UnidirectionalOneToManyMapping;
+import org.eclipse.persistence.mappings.converters.Converter;
+import org.eclipse.persistence.mappings.converters.ConverterClass;
+import org.eclipse.persistence.mappings.converters.EnumTypeConverter;
+import org.eclipse.persistence.mappings.converters.ObjectTypeConverter;
+import org.eclipse.persistence.mappings.converters.SerializedObjectConverter;
+import org.eclipse.persistence.mappings.converters.TypeConversionConverter;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.queries.DataReadQuery;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.DoesExistQuery;
+import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReadQuery;
+import org.eclipse.persistence.sequencing.DefaultSequence;
+import org.eclipse.persistence.sequencing.NativeSequence;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sequencing.TableSequence;
+import org.eclipse.persistence.sequencing.UnaryTableSequence;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Write the project built by JPA metadata processing to a compact binary stream,
+ * so the persistence unit can be deployed from it without processing the metadata again.
+ * <p><b>Description</b>: The descriptors, mappings and policies are written field by field as tagged
+ * records, strings are written once and referenced by index after that, and the tables and fields
+ * shared between descriptors and mappings are written once and referenced after that, so the
+ * BinaryProjectReader rebuilds the same object graph through the public API instead of Java serialization.
+ * Along with the descriptors the stream holds what metadata processing computes for the persistence unit:
+ * the mapped superclass descriptors, the named queries, the identifier class names of the metamodel and
+ * the class names for weaving.
+ * The project is checked while it is written: metadata the reader could not rebuild, such as multitenancy,
+ * partitioning, custom queries or transformation mappings, is reported as a ValidationException rather than
+ * silently left out of the stream.
+ *
+ * @see BinaryProjectReader
+ * @see org.eclipse.persistence.jpa.metadata.BinaryFileProjectCache
+ */
+public class BinaryProjectWriter {
+
+    /** Reference marking a null value, a new value follows a NEW reference, other references are indexes offset by REFERENCE. */
+    public static final int NULL = 0;
+    public static final int NEW = 1;
+    public static final int REFERENCE = 2;
+
+    // Mapping types.
+    public static final int DIRECT_TO_FIELD = 1;
+    public static final int ONE_TO_ONE = 2;
+    public static final int MANY_TO_ONE = 3;
+    public static final int ONE_TO_MANY = 4;
+    public static final int UNIDIRECTIONAL_ONE_TO_MANY = 5;
+    public static final int MANY_TO_MANY = 6;
+    public static final int AGGREGATE_OBJECT = 7;
+    public static final int AGGREGATE_COLLECTION = 8;
+    public static final int DIRECT_COLLECTION = 9;
+    public static final int DIRECT_MAP = 10;
+
+    // Attribute accessor types.
+    public static final int INSTANCE_VARIABLE_ACCESSOR = 1;
+    public static final int METHOD_ACCESSOR = 2;
+
+    // Converter types.
+    public static final int ENUM_CONVERTER = 1;
+    public static final int OBJECT_TYPE_CONVERTER = 2;
+    public static final int TYPE_CONVERSION_CONVERTER = 3;
+    public static final int SERIALIZED_OBJECT_CONVERTER = 4;
+    public static final int CONVERTER_CLASS = 5;
+
+    // Container policy types.
+    public static final int COLLECTION_CONTAINER = 1;
+    public static final int LIST_CONTAINER = 2;
+    public static final int VECTOR_CONTAINER = 3;
+    public static final int INDIRECT_LIST_CONTAINER = 4;
+    public static final int ORDERED_LIST_CONTAINER = 5;
+    public static final int MAP_CONTAINER = 6;
+    public static final int MAPPED_KEY_MAP_CONTAINER = 7;
+    /** The selection query shares the container policy of its mapping. */
+    public static final int MAPPING_CONTAINER = 8;
+
+    // Indirection policy types.
+    public static final int NO_INDIRECTION = 1;
+    public static final int BASIC_INDIRECTION = 2;
+    public static final int WEAVED_INDIRECTION = 3;
+    public static final int TRANSPARENT_INDIRECTION = 4;
+
+    // Locking policy types.
+    public static final int VERSION_LOCKING = 1;
+    public static final int TIMESTAMP_LOCKING = 2;
+    public static final int SELECTED_FIELDS_LOCKING = 3;
+
+    // Change policy types.
+    public static final int DEFERRED_CHANGE_DETECTION = 1;
+    public static final int OBJECT_CHANGE_TRACKING = 2;
+    public static final int ATTRIBUTE_CHANGE_TRACKING = 3;
+
+    // Copy policy types.
+    public static final int CLONE_COPY = 1;
+    public static final int INSTANTIATION_COPY = 2;
+    public static final int PERSISTENCE_ENTITY_COPY = 3;
+
+    // Cache invalidation policy types.
+    public static final int NO_EXPIRY = 1;
+    public static final int TIME_TO_LIVE = 2;
+    public static final int DAILY = 3;
+
+    // Sequence types.
+    public static final int DEFAULT_SEQUENCE = 1;
+    public static final int TABLE_SEQUENCE = 2;
+    public static final int UNARY_TABLE_SEQUENCE = 3;
+    public static final int NATIVE_SEQUENCE = 4;
+
+    // Named query types.
+    public static final int JPQL_QUERY = 1;
+    public static final int SQL_QUERY = 2;
+
+    // Value types.
+    public static final int STRING_VALUE = 1;
+    public static final int INTEGER_VALUE = 2;
+    public static final int LONG_VALUE = 3;
+    public static final int SHORT_VALUE = 4;
+    public static final int BYTE_VALUE = 5;
+    public static final int CHARACTER_VALUE = 6;
+    public static final int BOOLEAN_VALUE = 7;
+    public static final int DOUBLE_VALUE = 8;
+    public static final int FLOAT_VALUE = 9;
+    public static final int BIG_DECIMAL_VALUE = 10;
+    public static final int BIG_INTEGER_VALUE = 11;
+
+    protected DataOutputStream stream;
+    protected Map<String, Integer> strings;
+    protected Map<DatabaseTable, Integer> tables;
+    protected Map<DatabaseField, Integer> fields;
+    protected Map<ClassDescriptor, Integer> descriptors;
+    protected Map<DatabaseMapping, Integer> mappings;
+
+    public BinaryProjectWriter(OutputStream stream) {
+        this.stream = new DataOutputStream(stream);
+        this.strings = new HashMap<>();
+        this.tables = new IdentityHashMap<>();
+        this.fields = new IdentityHashMap<>();
+        this.descriptors = new IdentityHashMap<>();
+        this.mappings = new IdentityHashMap<>();
+    }
+
+    /**
+     * Write the project to the stream.
+     */
+    public static void write(Project project, OutputStream stream) throws IOException {
+        new BinaryProjectWriter(stream).writeProject(project);
+    }
+
+    public void writeProject(Project project) throws IOException {
+        if (project.getMultitenantPolicy() != null || project.hasGenericHistorySupport() || (project.getDefaultQueryResultsCachePolicy() != null)
+                || !project.getDefaultReadOnlyClasses().isEmpty()) {
+            throw unsupported("project " + project.getName());
+        }
+        if ((project.getStructConverters() != null) && !project.getStructConverters().isEmpty()) {
+            throw unsupported("struct converters");
+        }
+        if (!project.getJPATablePerTenantQueries().isEmpty() || !project.getPartitioningPolicies().isEmpty()) {
+            throw unsupported("table per tenant queries or partitioning policies");
+        }
+        if (!project.getQueries().isEmpty() || !project.getAttributeGroups().isEmpty() || project.hasSQLResultSetMappings()) {
+            throw unsupported("session queries, entity graphs or result set mappings");
+        }
+        writeString(project.getName());
+        writeLogin(project.getDatasourceLogin());
+        this.stream.writeBoolean(project.getDefaultTemporalMutable());
+        writeClass(project.getDefaultIdentityMapClass());
+        writeInt(project.getDefaultIdentityMapSize());
+        writeEnum(project.getDefaultCacheIsolation());
+        writeEnum(project.getDefaultIdValidation());
+        this.stream.writeLong(project.getQueryResultsCacheMaximumSize());
+        this.stream.writeLong(project.getOffHeapCacheSize());
+        this.stream.writeBoolean(project.isAdaptiveBatchFetch());
+        this.stream.writeBoolean(project.isLazyDescriptorInitialization());
+        writeInt(project.getNamedQueryCompileParallelism());
+        this.stream.writeBoolean(project.hasIsolatedClasses());
+        this.stream.writeBoolean(project.hasNonIsolatedUOWClasses());
+        this.stream.writeBoolean(project.hasProxyIndirection());
+        this.stream.writeBoolean(project.allowNativeSQLQueries());
+        this.stream.writeBoolean(project.allowTablePerMultitenantDDLGeneration());
+        this.stream.writeBoolean(project.allowSQLDeferral());
+        this.stream.writeBoolean(project.namingIntoIndexed());
+        writeString(project.getVPDIdentifier());
+        writeString(project.getVPDLastIdentifierClassName());
+
+        writeCount(project.getOrderedDescriptors().size());
+        for (ClassDescriptor descriptor : project.getOrderedDescriptors()) {
+            writeDescriptor(descriptor);
+        }
+        writeCount(project.getMappedSuperclassDescriptors().size());
+        for (Map.Entry<String, ClassDescriptor> entry : project.getMappedSuperclassDescriptors().entrySet()) {
+            writeString(entry.getKey());
+            writeDescriptor(entry.getValue());
+        }
+        Map<String, ClassDescriptor> aliasDescriptors = project.getAliasDescriptors();
+        writeCount((aliasDescriptors == null) ? 0 : aliasDescriptors.size());
+        if (aliasDescriptors != null) {
+            for (Map.Entry<String, ClassDescriptor> entry : aliasDescriptors.entrySet()) {
+                writeString(entry.getKey());
+                writeDescriptorReference(entry.getValue());
+            }
+        }
+        // The derived id mappings may refer to mappings of descriptors written later.
+        for (Map.Entry<DatabaseMapping, Integer> entry : this.mappings.entrySet()) {
+            if (entry.getKey().getDerivedIdMapping() != null) {
+                writeCount(entry.getValue() + 1);
+                writeMappingReference(entry.getKey().getDerivedIdMapping());
+            }
+        }
+        writeCount(0);
+
+        writeCount(project.getJPAQueries().size());
+        for (DatabaseQuery query : project.getJPAQueries()) {
+            writeJPAQuery(query);
+        }
+        writeCount(project.getMetamodelIdClassMap().size());
+        for (Map.Entry<String, List<String>> entry : project.getMetamodelIdClassMap().entrySet()) {
+            writeString(entry.getKey());
+            writeStrings(entry.getValue());
+        }
+        writeStrings(project.getClassNamesForWeaving());
+        this.stream.flush();
+    }
+
+    protected void writeLogin(Object login) throws IOException {
+        if ((login == null) || (login.getClass() != DatabaseLogin.class)) {
+            throw unsupported("login " + login);
+        }
+        DatasourcePlatform platform = (DatasourcePlatform)((DatabaseLogin)login).getDatasourcePlatform();
+        writeString(platform.getClass().getName());
+        writeString(platform.getTableQualifier());
+        writeString(platform.getStartDelimiter());
+        writeString(platform.getEndDelimiter());
+        this.stream.writeBoolean(platform.getDefaultNativeSequenceToTable());
+        this.stream.writeBoolean(platform.getDefaultSeqenceAtNextValue());
+        this.stream.writeBoolean((platform instanceof DatabasePlatform) && ((DatabasePlatform)platform).shouldForceFieldNamesToUpperCase());
+        writeSequence(platform.hasDefaultSequence() ? platform.getDefaultSequence() : null);
+        Map<String, Sequence> sequences = platform.getSequences();
+        writeCount((sequences == null) ? 0 : sequences.size());
+        if (sequences != null) {
+            for (Sequence sequence : sequences.values()) {
+                writeSequence(sequence);
+            }
+        }
+    }
+
+    protected void writeSequence(Sequence sequence) throws IOException {
+        if (sequence == null) {
+            writeCount(NULL);
+            return;
+        }
+        Class sequenceClass = sequence.getClass();
+        if (sequenceClass == DefaultSequence.class) {
+            writeCount(DEFAULT_SEQUENCE);
+        } else if (sequenceClass == TableSequence.class) {
+            writeCount(TABLE_SEQUENCE);
+        } else if (sequenceClass == UnaryTableSequence.class) {
+            writeCount(UNARY_TABLE_SEQUENCE);
+        } else if ((sequenceClass == NativeSequence.class) && (((NativeSequence)sequence).getDelegateSequence() == null)) {
+            writeCount(NATIVE_SEQUENCE);
+        } else {
+            throw unsupported("sequence " + sequence.getName());
+        }
+        writeString(sequence.getName());
+        writeInt(sequence.getPreallocationSize());
+        writeInt(sequence.getInitialValue());
+        writeString(sequence.isCustomQualifier() ? sequence.getQualifier() : null);
+        this.stream.writeBoolean(sequence.shouldAlwaysOverrideExistingValue());
+        if (sequenceClass == TableSequence.class) {
+            TableSequence tableSequence = (TableSequence)sequence;
+            writeTable(tableSequence.getTable());
+            writeString(tableSequence.getCounterFieldName());
+            writeString(tableSequence.getNameFieldName());
+        } else if (sequenceClass == UnaryTableSequence.class) {
+            writeString(((UnaryTableSequence)sequence).getCounterFieldName());
+        } else if (sequenceClass == NativeSequence.class) {
+            this.stream.writeBoolean(((NativeSequence)sequence).shouldUseIdentityIfPlatformSupports());
+        }
+    }
+
+    protected void writeDescriptor(ClassDescriptor descriptor) throws IOException {
+        String name = descriptor.getJavaClassName();
+        if ((descriptor.getClass() != RelationalDescriptor.class) || descriptor.hasMultitenantPolicy() || descriptor.hasSerializedObjectPolicy()
+                || (descriptor.getPartitioningPolicy() != null) || (descriptor.getPartitioningPolicyName() != null)
+                || descriptor.hasTablePerClassPolicy() || descriptor.hasInterfacePolicy() || descriptor.hasWrapperPolicy()
+                || (descriptor.getHistoryPolicy() != null) || descriptor.hasFetchGroupManager() || !descriptor.getQueryKeys().isEmpty()
+                || descriptor.hasDerivedId()) {
+            throw unsupported("descriptor " + name);
+        }
+        this.descriptors.put(descriptor, this.descriptors.size());
+        writeString(name);
+        writeInt(descriptor.getDescriptorType());
+        writeString(descriptor.getAlias());
+        writeCount(descriptor.getTables().size());
+        for (DatabaseTable table : descriptor.getTables()) {
+            writeTable(table);
+        }
+        writeFields(descriptor.getPrimaryKeyFields());
+        Map<DatabaseTable, Map<DatabaseField, DatabaseField>> additionalTablePrimaryKeyFields = descriptor.getAdditionalTablePrimaryKeyFields();
+        writeCount((additionalTablePrimaryKeyFields == null) ? 0 : additionalTablePrimaryKeyFields.size());
+        if (additionalTablePrimaryKeyFields != null) {
+            for (Map.Entry<DatabaseTable, Map<DatabaseField, DatabaseField>> entry : additionalTablePrimaryKeyFields.entrySet()) {
+                writeTable(entry.getKey());
+                writeFieldMap(entry.getValue());
+            }
+        }
+        writeCount(descriptor.getMultipleTableForeignKeys().size());
+        for (Map.Entry<DatabaseTable, Set<DatabaseTable>> entry : descriptor.getMultipleTableForeignKeys().entrySet()) {
+            writeTable(entry.getKey());
+            writeCount(entry.getValue().size());
+            for (DatabaseTable table : entry.getValue()) {
+                writeTable(table);
+            }
+        }
+        this.stream.writeBoolean(descriptor.isCascadeOnDeleteSetOnDatabaseOnSecondaryTables());
+        writeString(descriptor.getSequenceNumberName());
+        writeField(descriptor.getSequenceNumberField());
+        writeString(descriptor.getAmendmentClassName());
+        writeString(descriptor.getAmendmentMethodName());
+        writeString(descriptor.getDescriptorCustomizerClassName());
+        this.stream.writeBoolean(descriptor.shouldBeReadOnly());
+        this.stream.writeBoolean(descriptor.shouldAlwaysConformResultsInUnitOfWork());
+        this.stream.writeBoolean(descriptor.shouldRegisterResultsInUnitOfWork());
+        this.stream.writeBoolean(descriptor.shouldOrderMappings());
+        this.stream.writeBoolean(descriptor.shouldAcquireCascadedLocks());
+        this.stream.writeBoolean(descriptor.hasSimplePrimaryKey());
+        this.stream.writeBoolean(descriptor.hasMultipleTableConstraintDependecy());
+        this.stream.writeBoolean(descriptor.isNativeConnectionRequired());
+        this.stream.writeBoolean(descriptor.hasRelationships());
+        this.stream.writeBoolean(descriptor.usesPropertyAccessForWeaving());
+        this.stream.writeBoolean(descriptor.shouldLockForClone());
+        writeEnum(descriptor.getIdValidation());
+        List<? extends Enum> primaryKeyIdValidations = descriptor.getPrimaryKeyIdValidations();
+        writeCount((primaryKeyIdValidations == null) ? NULL : primaryKeyIdValidations.size() + 1);
+        if (primaryKeyIdValidations != null) {
+            for (Enum idValidation : primaryKeyIdValidations) {
+                writeEnum(idValidation);
+            }
+        }
+        writeValues(descriptor.getProperties(), name);
+        writeUnconvertedProperties(descriptor.getUnconvertedProperties());
+        writeString(descriptor.getDefaultQueryRedirectorClassName());
+        writeString(descriptor.getDefaultReadAllQueryRedirectorClassName());
+        writeString(descriptor.getDefaultReadObjectQueryRedirectorClassName());
+        writeString(descriptor.getDefaultReportQueryRedirectorClassName());
+        writeString(descriptor.getDefaultUpdateObjectQueryRedirectorClassName());
+        writeString(descriptor.getDefaultInsertObjectQueryRedirectorClassName());
+        writeString(descriptor.getDefaultDeleteObjectQueryRedirectorClassName());
+        List<VirtualAttributeMethodInfo> virtualAttributeMethods = descriptor.getVirtualAttributeMethods();
+        writeCount((virtualAttributeMethods == null) ? NULL : virtualAttributeMethods.size() + 1);
+        if (virtualAttributeMethods != null) {
+            for (VirtualAttributeMethodInfo info : virtualAttributeMethods) {
+                writeString(info.getGetMethodName());
+                writeString(info.getSetMethodName());
+            }
+        }
+
+        writeCopyPolicy(descriptor);
+        InstantiationPolicy instantiationPolicy = descriptor.getInstantiationPolicy();
+        if (instantiationPolicy.getClass() != InstantiationPolicy.class) {
+            throw unsupported("instantiation policy of " + name);
+        }
+        writeString(instantiationPolicy.getMethodName());
+        writeString(instantiationPolicy.getFactoryClassName());
+        writeString(instantiationPolicy.getFactoryMethodName());
+        writeChangePolicy(descriptor);
+        writeLockingPolicy(descriptor);
+        writeReturningPolicy(descriptor);
+        writeCMPPolicy(descriptor);
+        writeCachePolicy(descriptor);
+        writeCacheInvalidationPolicy(descriptor);
+        writeEventManager(descriptor);
+        writeInheritancePolicy(descriptor);
+        writeQueryManager(descriptor);
+
+        writeCount(descriptor.getMappings().size());
+        for (DatabaseMapping mapping : descriptor.getMappings()) {
+            writeMapping(mapping);
+        }
+    }
+
+    protected void writeCopyPolicy(ClassDescriptor descriptor) throws IOException {
+        writeString(descriptor.getCopyPolicyClassName());
+        CopyPolicy policy = descriptor.getCopyPolicy();
+        if (policy == null) {
+            writeCount(NULL);
+        } else if (policy.getClass() == CloneCopyPolicy.class) {
+            writeCount(CLONE_COPY);
+            writeString(((CloneCopyPolicy)policy).getMethodName());
+            writeString(((CloneCopyPolicy)policy).getWorkingCopyMethodName());
+        } else if (policy.getClass() == InstantiationCopyPolicy.class) {
+            writeCount(INSTANTIATION_COPY);
+        } else if (policy.getClass() == PersistenceEntityCopyPolicy.class) {
+            writeCount(PERSISTENCE_ENTITY_COPY);
+        } else {
+            throw unsupported("copy policy of " + descriptor.getJavaClassName());
+        }
+    }
+
+    protected void writeChangePolicy(ClassDescriptor descriptor) throws IOException {
+        ObjectChangePolicy policy = descriptor.getObjectChangePolicyInternal();
+        if (policy == null) {
+            writeCount(NULL);
+        } else if (policy.getClass() == DeferredChangeDetectionPolicy.class) {
+            writeCount(DEFERRED_CHANGE_DETECTION);
+        } else if (policy.getClass() == ObjectChangeTrackingPolicy.class) {
+            writeCount(OBJECT_CHANGE_TRACKING);
+        } else if (policy.getClass() == AttributeChangeTrackingPolicy.class) {
+            writeCount(ATTRIBUTE_CHANGE_TRACKING);
+        } else {
+            throw unsupported("change policy of " + descriptor.getJavaClassName());
+        }
+    }
+
+    protected void writeLockingPolicy(ClassDescriptor descriptor) throws IOException {
+        OptimisticLockingPolicy policy = descriptor.getOptimisticLockingPolicy();
+        if (policy == null) {
+            writeCount(NULL);
+        } else if ((policy.getClass() == VersionLockingPolicy.class) || (policy.getClass() == TimestampLockingPolicy.class)) {
+            VersionLockingPolicy versionPolicy = (VersionLockingPolicy)policy;
+            writeCount((policy.getClass() == VersionLockingPolicy.class) ? VERSION_LOCKING : TIMESTAMP_LOCKING);
+            writeField(versionPolicy.getWriteLockField());
+            this.stream.writeBoolean(versionPolicy.isStoredInCache());
+            this.stream.writeBoolean(versionPolicy.isCascaded());
+            writeEnum(versionPolicy.getLockOnChangeMode());
+            if (policy.getClass() == TimestampLockingPolicy.class) {
+                this.stream.writeBoolean(((TimestampLockingPolicy)policy).usesServerTime());
+            }
+        } else if (policy.getClass() == SelectedFieldsLockingPolicy.class) {
+            writeCount(SELECTED_FIELDS_LOCKING);
+            writeFields(((SelectedFieldsLockingPolicy)policy).getLockFields());
+        } else {
+            throw unsupported("locking policy of " + descriptor.getJavaClassName());
+        }
+    }
+
+    protected void writeReturningPolicy(ClassDescriptor descriptor) throws IOException {
+        ReturningPolicy policy = descriptor.getReturningPolicy();
+        if (policy == null) {
+            writeCount(NULL);
+            return;
+        }
+        if (policy.getClass() != ReturningPolicy.class) {
+            throw unsupported("returning policy of " + descriptor.getJavaClassName());
+        }
+        writeCount(policy.getFieldInfos().size() + 1);
+        for (ReturningPolicy.Info info : policy.getFieldInfos()) {
+            writeField(info.getField());
+            this.stream.writeBoolean(info.isInsert());
+            this.stream.writeBoolean(info.isInsertModeReturnOnly());
+            this.stream.writeBoolean(info.isUpdate());
+        }
+    }
+
+    protected void writeCMPPolicy(ClassDescriptor descriptor) throws IOException {
+        CMPPolicy policy = descriptor.getCMPPolicy();
+        if (policy == null) {
+            writeCount(NULL);
+            return;
+        }
+        if ((policy.getClass() != CMP3Policy.class) || (policy.getPessimisticLockingPolicy() != null)) {
+            throw unsupported("CMP policy of " + descriptor.getJavaClassName());
+        }
+        writeCount(NEW);
+        writeTriState(policy.internalGetForceUpdate());
+        writeTriState(policy.internalGetUpdateAllFields());
+        writeInt(policy.getDeferModificationsUntilCommit());
+        writeInt(policy.getNonDeferredCreateTime());
+        writeString(((CMP3Policy)policy).getPKClassName());
+    }
+
+    protected void writeCachePolicy(ClassDescriptor descriptor) throws IOException {
+        CachePolicy policy = descriptor.getCachePolicy();
+        if ((policy.getClass() != CachePolicy.class) || !policy.getCacheIndexes().isEmpty()) {
+            throw unsupported("cache policy of " + descriptor.getJavaClassName());
+        }
+        writeClass(policy.getIdentityMapClass());
+        writeInt(policy.getIdentityMapSize());
+        writeClass(policy.getRemoteIdentityMapClass());
+        writeInt(policy.getRemoteIdentityMapSize());
+        this.stream.writeBoolean(policy.shouldAlwaysRefreshCache());
+        this.stream.writeBoolean(policy.shouldOnlyRefreshCacheIfNewerVersion());
+        this.stream.writeBoolean(policy.shouldDisableCacheHits());
+        this.stream.writeBoolean(policy.shouldAlwaysRefreshCacheOnRemote());
+        this.stream.writeBoolean(policy.shouldDisableCacheHitsOnRemote());
+        writeTriState(policy.getCacheable());
+        writeEnum(policy.getCacheIsolation());
+        writeInt(policy.getCacheSynchronizationType());
+        writeInt(policy.getUnitOfWorkCacheIsolationLevel());
+        writeEnum(policy.getCacheKeyType());
+        writeString(policy.getCacheInterceptorClassName());
+        this.stream.writeBoolean(policy.getFullyMergeEntity());
+        this.stream.writeBoolean(policy.shouldPrefetchCacheKeys());
+        writeEnum(policy.getDatabaseChangeNotificationType());
+    }
+
+    protected void writeCacheInvalidationPolicy(ClassDescriptor descriptor) throws IOException {
+        CacheInvalidationPolicy policy = descriptor.getCacheInvalidationPolicy();
+        if (policy.getClass() == NoExpiryCacheInvalidationPolicy.class) {
+            writeCount(NO_EXPIRY);
+        } else if (policy.getClass() == TimeToLiveCacheInvalidationPolicy.class) {
+            writeCount(TIME_TO_LIVE);
+            this.stream.writeLong(((TimeToLiveCacheInvalidationPolicy)policy).getTimeToLive());
+        } else if (policy.getClass() == DailyCacheInvalidationPolicy.class) {
+            writeCount(DAILY);
+            Calendar expiryTime = ((DailyCacheInvalidationPolicy)policy).getExpiryTime();
+            writeInt(expiryTime.get(Calendar.HOUR_OF_DAY));
+            writeInt(expiryTime.get(Calendar.MINUTE));
+            writeInt(expiryTime.get(Calendar.SECOND));
+            writeInt(expiryTime.get(Calendar.MILLISECOND));
+        } else {
+            throw unsupported("cache invalidation policy of " + descriptor.getJavaClassName());
+        }
+        this.stream.writeBoolean(policy.shouldUpdateReadTimeOnUpdate());
+        this.stream.writeBoolean(policy.shouldRefreshInvalidObjectsOnClone());
+        this.stream.writeBoolean(policy.isInvalidationRandomized());
+    }
+
+    protected void writeEventManager(ClassDescriptor descriptor) throws IOException {
+        DescriptorEventManager eventManager = descriptor.getEventManager();
+        if (eventManager.getClass() != DescriptorEventManager.class) {
+            throw unsupported("event manager of " + descriptor.getJavaClassName());
+        }
+        writeString(eventManager.getPreWriteSelector());
+        writeString(eventManager.getPostWriteSelector());
+        writeString(eventManager.getPreDeleteSelector());
+        writeString(eventManager.getPostDeleteSelector());
+        writeString(eventManager.getPreInsertSelector());
+        writeString(eventManager.getPostInsertSelector());
+        writeString(eventManager.getPreUpdateSelector());
+        writeString(eventManager.getPostUpdateSelector());
+        writeString(eventManager.getPostBuildSelector());
+        writeString(eventManager.getPostRefreshSelector());
+        writeString(eventManager.getPostCloneSelector());
+        writeString(eventManager.getPostMergeSelector());
+        writeString(eventManager.getAboutToInsertSelector());
+        writeString(eventManager.getAboutToUpdateSelector());
+        writeString(eventManager.getAboutToDeleteSelector());
+        writeString(eventManager.getPrePersistSelector());
+        writeString(eventManager.getPreRemoveSelector());
+        this.stream.writeBoolean(eventManager.excludeDefaultListeners());
+        this.stream.writeBoolean(eventManager.excludeSuperclassListeners());
+        writeCount(eventManager.getDescriptorEventHolders().size());
+        for (SerializableDescriptorEventHolder holder : eventManager.getDescriptorEventHolders()) {
+            if (!(holder instanceof JPAEntityListenerHolder)) {
+                throw unsupported("event listener of " + descriptor.getJavaClassName());
+            }
+            JPAEntityListenerHolder listenerHolder = (JPAEntityListenerHolder)holder;
+            writeString(listenerHolder.listenerClassName);
+            writeTriState(listenerHolder.isDefaultListener);
+            writeCount((listenerHolder.serializableMethods == null) ? NULL : listenerHolder.serializableMethods.size() + 1);
+            if (listenerHolder.serializableMethods != null) {
+                for (Map.Entry<String, List<MethodSerialImpl>> entry : listenerHolder.serializableMethods.entrySet()) {
+                    writeString(entry.getKey());
+                    writeCount(entry.getValue().size());
+                    for (MethodSerialImpl method : entry.getValue()) {
+                        writeString(method.methodName);
+                        writeString(method.declaringClassName);
+                        writeStrings(method.paramList);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void writeInheritancePolicy(ClassDescriptor descriptor) throws IOException {
+        if (!descriptor.hasInheritance()) {
+            writeCount(NULL);
+            return;
+        }
+        InheritancePolicy policy = descriptor.getInheritancePolicy();
+        if ((policy.getClass() != InheritancePolicy.class) || (policy.getClassExtractor() != null) || !policy.getChildDescriptors().isEmpty()
+                || policy.hasView()) {
+            throw unsupported("inheritance of " + descriptor.getJavaClassName());
+        }
+        writeCount(NEW);
+        writeString(policy.getParentClassName());
+        writeField(policy.getClassIndicatorField());
+        writeCount(policy.getClassNameIndicatorMapping().size());
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>)policy.getClassNameIndicatorMapping()).entrySet()) {
+            writeValue(entry.getKey(), descriptor.getJavaClassName());
+            writeValue(entry.getValue(), descriptor.getJavaClassName());
+        }
+        writeString(policy.getClassExtractorName());
+        writeTriState(policy.shouldReadSubclassesValue());
+        this.stream.writeBoolean(policy.shouldAlwaysUseOuterJoin());
+        this.stream.writeBoolean(policy.getUseDescriptorsToValidateInheritedObjects());
+        this.stream.writeBoolean(policy.shouldOuterJoinSubclasses());
+        this.stream.writeBoolean(policy.isJoinedStrategy());
+        this.stream.writeBoolean(policy.getDescribesNonPersistentSubclasses());
+    }
+
+    protected void writeQueryManager(ClassDescriptor descriptor) throws IOException {
+        DescriptorQueryManager queryManager = descriptor.getQueryManager();
+        if (queryManager.hasInsertQuery() || queryManager.hasUpdateQuery() || queryManager.hasReadObjectQuery() || queryManager.hasReadAllQuery()
+                || queryManager.hasDeleteQuery() || queryManager.hasCustomMultipleTableJoinExpression() || !queryManager.getQueries().isEmpty()) {
+            throw unsupported("queries of " + descriptor.getJavaClassName());
+        }
+        DoesExistQuery doesExistQuery = queryManager.getDoesExistQuery();
+        writeInt(doesExistQuery.getExistencePolicy());
+        this.stream.writeBoolean(doesExistQuery.getCheckDatabaseIfInvalid());
+        this.stream.writeBoolean(doesExistQuery.getCheckCacheFirst());
+        writeString(queryManager.getAdditionalCriteria());
+        writeInt(queryManager.getQueryTimeout());
+        writeEnum(queryManager.getQueryTimeoutUnit());
+    }
+
+    protected void writeMapping(DatabaseMapping mapping) throws IOException {
+        String name = mapping.getDescriptor().getJavaClassName() + "." + mapping.getAttributeName();
+        Class mappingClass = mapping.getClass();
+        if (mappingClass == DirectToFieldMapping.class) {
+            writeCount(DIRECT_TO_FIELD);
+        } else if (mappingClass == OneToOneMapping.class) {
+            writeCount(ONE_TO_ONE);
+        } else if (mappingClass == ManyToOneMapping.class) {
+            writeCount(MANY_TO_ONE);
+        } else if (mappingClass == OneToManyMapping.class) {
+            writeCount(ONE_TO_MANY);
+        } else if (mappingClass == UnidirectionalOneToManyMapping.class) {
+            writeCount(UNIDIRECTIONAL_ONE_TO_MANY);
+        } else if (mappingClass == ManyToManyMapping.class) {
+            writeCount(MANY_TO_MANY);
+        } else if (mappingClass == AggregateObjectMapping.class) {
+            writeCount(AGGREGATE_OBJECT);
+        } else if (mappingClass == AggregateCollectionMapping.class) {
+            writeCount(AGGREGATE_COLLECTION);
+        } else if (mappingClass == DirectCollectionMapping.class) {
+            writeCount(DIRECT_COLLECTION);
+        } else if (mappingClass == DirectMapMapping.class) {
+            writeCount(DIRECT_MAP);
+        } else {
+            throw unsupported("mapping " + name);
+        }
+        this.mappings.put(mapping, this.mappings.size());
+        writeAttributeAccessor(mapping.getAttributeAccessor(), name);
+        this.stream.writeBoolean(mapping.isReadOnly());
+        this.stream.writeBoolean(mapping.isOptional());
+        writeTriState(mapping.internalGetIsLazy());
+        this.stream.writeBoolean(mapping.getWeight() != null);
+        if (mapping.getWeight() != null) {
+            writeInt(mapping.getWeight());
+        }
+        writeValues(mapping.getProperties(), name);
+        writeUnconvertedProperties(mapping.getUnconvertedProperties());
+        this.stream.writeBoolean(mapping.derivesId());
+        this.stream.writeBoolean(mapping.isJPAId());
+        writeString(mapping.getMapsIdValue());
+        this.stream.writeBoolean(mapping.isPrimaryKeyMapping());
+        this.stream.writeBoolean(mapping.isMapKeyMapping());
+        this.stream.writeBoolean(mapping.isCacheable());
+        writeTriState(mapping.isInAndOutSopObject() ? null : mapping.isInOnlySopObject());
+
+        if (mapping.isAbstractDirectMapping()) {
+            writeDirectMapping((AbstractDirectMapping)mapping, name);
+            return;
+        }
+        if (mapping.isAggregateObjectMapping()) {
+            writeAggregateObjectMapping((AggregateObjectMapping)mapping, name);
+            return;
+        }
+        ForeignReferenceMapping referenceMapping = (ForeignReferenceMapping)mapping;
+        if (referenceMapping.hasCustomSelectionQuery() || (referenceMapping.getPartitioningPolicy() != null)
+                || (referenceMapping.getPartitioningPolicyName() != null)) {
+            throw unsupported("mapping " + name);
+        }
+        writeString(referenceMapping.getReferenceClassName());
+        this.stream.writeBoolean(referenceMapping.isPrivateOwned());
+        writeEnum(referenceMapping.getBatchFetchType());
+        writeIndirectionPolicy(referenceMapping.getIndirectionPolicy(), name);
+        writeString(referenceMapping.getRelationshipPartnerAttributeName());
+        this.stream.writeBoolean(referenceMapping.isCascadePersist());
+        this.stream.writeBoolean(referenceMapping.isCascadeMerge());
+        this.stream.writeBoolean(referenceMapping.isCascadeRefresh());
+        this.stream.writeBoolean(referenceMapping.isCascadeRemove());
+        this.stream.writeBoolean(referenceMapping.isCascadeDetach());
+        this.stream.writeBoolean(referenceMapping.requiresTransientWeavedFields());
+        writeInt(referenceMapping.getJoinFetch());
+        if (referenceMapping.shouldExtendPessimisticLockScopeInSourceQuery() || referenceMapping.shouldExtendPessimisticLockScopeInDedicatedQuery()) {
+            throw unsupported("pessimistic lock scope of " + name);
+        }
+        this.stream.writeBoolean(referenceMapping.shouldExtendPessimisticLockScope());
+        this.stream.writeBoolean(referenceMapping.isCascadeOnDeleteSetOnDatabase());
+        writeString(referenceMapping.getMappedBy());
+
+        if (mapping.isOneToOneMapping()) {
+            writeOneToOneMapping((OneToOneMapping)mapping, name);
+        } else if (mapping.isCollectionMapping()) {
+            writeCollectionMapping((CollectionMapping)mapping, name);
+        }
+    }
+
+    protected void writeAttributeAccessor(AttributeAccessor accessor, String name) throws IOException {
+        if (accessor.getClass() == InstanceVariableAttributeAccessor.class) {
+            writeCount(INSTANCE_VARIABLE_ACCESSOR);
+        } else if (accessor.getClass() == MethodAttributeAccessor.class) {
+            writeCount(METHOD_ACCESSOR);
+            writeString(((MethodAttributeAccessor)accessor).getGetMethodName());
+            writeString(((MethodAttributeAccessor)accessor).getSetMethodName());
+        } else {
+            throw unsupported("attribute accessor of " + name);
+        }
+        writeString(accessor.getAttributeName());
+        this.stream.writeBoolean(accessor.isReadOnly());
+        this.stream.writeBoolean(accessor.isWriteOnly());
+    }
+
+    protected void writeDirectMapping(AbstractDirectMapping mapping, String name) throws IOException {
+        writeField(mapping.getField());
+        writeConverter(mapping.getConverter(), name);
+        writeString(mapping.getConverterClassName());
+        writeString(mapping.getAttributeClassificationName());
+        writeString(mapping.getFieldClassificationClassName());
+        writeTriState(mapping.internalGetIsMutable());
+    }
+
+    protected void writeConverter(Converter converter, String name) throws IOException {
+        if (converter == null) {
+            writeCount(NULL);
+            return;
+        }
+        Class converterClass = converter.getClass();
+        if (converterClass == EnumTypeConverter.class) {
+            writeCount(ENUM_CONVERTER);
+            writeString(((EnumTypeConverter)converter).getEnumClassName());
+            this.stream.writeBoolean(((EnumTypeConverter)converter).shouldUseOrdinalValues());
+        } else if (converterClass == ObjectTypeConverter.class) {
+            ObjectTypeConverter typeConverter = (ObjectTypeConverter)converter;
+            writeCount(OBJECT_TYPE_CONVERTER);
+            writeString(typeConverter.getConverterName());
+            writeString(typeConverter.getDataTypeName());
+            writeString(typeConverter.getFieldClassificationName());
+            writeString(typeConverter.getObjectTypeName());
+            writeValues(typeConverter.getConversionValueStrings(), name);
+            writeValues(typeConverter.getAddToAttributeOnlyConversionValueStrings(), name);
+            writeValues(typeConverter.getAttributeToFieldValues(), name);
+            writeString(typeConverter.getDefaultAttributeValueString());
+        } else if (converterClass == TypeConversionConverter.class) {
+            writeCount(TYPE_CONVERSION_CONVERTER);
+            writeString(((TypeConversionConverter)converter).getDataClassName());
+            writeString(((TypeConversionConverter)converter).getObjectClassName());
+        } else if (converterClass == SerializedObjectConverter.class) {
+            writeCount(SERIALIZED_OBJECT_CONVERTER);
+            writeString(((SerializedObjectConverter)converter).getSerializerClassName());
+            writeString(((SerializedObjectConverter)converter).getSerializerPackage());
+        } else if (converterClass == ConverterClass.class) {
+            ConverterClass converterClassConverter = (ConverterClass)converter;
+            writeCount(CONVERTER_CLASS);
+            writeString(converterClassConverter.getAttributeConverterClassName());
+            writeString(converterClassConverter.getFieldClassificationName());
+            this.stream.writeBoolean(converterClassConverter.isForMapKey());
+            this.stream.writeBoolean(converterClassConverter.isConversionDisabled());
+        } else {
+            throw unsupported("converter of " + name);
+        }
+    }
+
+    protected void writeAggregateObjectMapping(AggregateObjectMapping mapping, String name) throws IOException {
+        if (!mapping.getNestedFieldTranslations().isEmpty() || !mapping.getOverrideManyToManyMappings().isEmpty()
+                || !mapping.getOverrideUnidirectionalOneToManyMappings().isEmpty() || !mapping.getMapsIdMappings().isEmpty()) {
+            throw unsupported("attribute overrides of " + name);
+        }
+        writeString(mapping.getReferenceClassName());
+        this.stream.writeBoolean(mapping.isNullAllowed());
+        writeAggregateToSourceFields(mapping.getAggregateToSourceFields());
+        writeConverters(mapping.getConverters(), name);
+    }
+
+    protected void writeOneToOneMapping(OneToOneMapping mapping, String name) throws IOException {
+        if (mapping.getRelationTableMechanism() != null) {
+            throw unsupported("join table of " + name);
+        }
+        this.stream.writeBoolean(mapping.isForeignKeyRelationship());
+        writeFields(mapping.getForeignKeyFields());
+        writeFieldMap(mapping.getSourceToTargetKeyFields());
+        writeFieldMap(mapping.getTargetToSourceKeyFields());
+        this.stream.writeBoolean(mapping.shouldVerifyDelete());
+        this.stream.writeBoolean(mapping.isOneToOneRelationship());
+        this.stream.writeBoolean(mapping.isOneToOnePrimaryKeyRelationship());
+    }
+
+    protected void writeCollectionMapping(CollectionMapping mapping, String name) throws IOException {
+        writeContainerPolicy(mapping, mapping.getContainerPolicy(), name);
+        ReadQuery selectionQuery = mapping.getSelectionQuery();
+        ContainerPolicy queryContainerPolicy = null;
+        if (selectionQuery.isReadAllQuery()) {
+            queryContainerPolicy = ((ReadAllQuery)selectionQuery).getContainerPolicy();
+        } else if (selectionQuery.isDataReadQuery()) {
+            queryContainerPolicy = ((DataReadQuery)selectionQuery).getContainerPolicy();
+        }
+        if (queryContainerPolicy == mapping.getContainerPolicy()) {
+            writeCount(MAPPING_CONTAINER);
+        } else {
+            writeContainerPolicy(mapping, queryContainerPolicy, name);
+        }
+        if (selectionQuery.isObjectLevelReadQuery()) {
+            writeOrdering((ObjectLevelReadQuery)selectionQuery, name);
+        } else {
+            writeCount(0);
+        }
+        this.stream.writeBoolean(mapping.hasOrderBy());
+        writeField(mapping.getListOrderField());
+        writeEnum(mapping.getOrderCorrectionType());
+        writeTriState(mapping.internalGetMustDeleteReferenceObjectsOneByOne());
+
+        if (mapping.isManyToManyMapping()) {
+            ManyToManyMapping manyToManyMapping = (ManyToManyMapping)mapping;
+            if (manyToManyMapping.getHistoryPolicy() != null) {
+                throw unsupported("join table of " + name);
+            }
+            writeRelationTableMechanism(manyToManyMapping.getRelationTableMechanism());
+            this.stream.writeBoolean(manyToManyMapping.isDefinedAsOneToManyMapping());
+        } else if (mapping.isOneToManyMapping()) {
+            OneToManyMapping oneToManyMapping = (OneToManyMapping)mapping;
+            writeFields(oneToManyMapping.getTargetForeignKeyFields());
+            writeFields(oneToManyMapping.getSourceKeyFields());
+            writeTriState(oneToManyMapping.internalGetShouldDeferInserts());
+            if (mapping.isUnidirectionalOneToManyMapping()) {
+                UnidirectionalOneToManyMapping unidirectionalMapping = (UnidirectionalOneToManyMapping)mapping;
+                this.stream.writeBoolean(unidirectionalMapping.shouldIncrementTargetLockValueOnAddOrRemoveTarget());
+                this.stream.writeBoolean(unidirectionalMapping.shouldIncrementTargetLockValueOnDeleteSource());
+            }
+        } else if (mapping.isAggregateCollectionMapping()) {
+            AggregateCollectionMapping aggregateMapping = (AggregateCollectionMapping)mapping;
+            if (!aggregateMapping.getNestedAggregateToSourceFields().isEmpty()) {
+                throw unsupported("attribute overrides of " + name);
+            }
+            writeFields(aggregateMapping.getTargetForeignKeyFields());
+            writeFields(aggregateMapping.getSourceKeyFields());
+            writeFieldMap(aggregateMapping.getTargetForeignKeyToSourceKeys());
+            writeAggregateToSourceFields(aggregateMapping.getAggregateToSourceFields());
+            writeConverters(aggregateMapping.getConverters(), name);
+            writeTable(aggregateMapping.getDefaultSourceTable());
+        } else if (mapping.isDirectCollectionMapping()) {
+            DirectCollectionMapping directMapping = (DirectCollectionMapping)mapping;
+            if (directMapping.getHistoryPolicy() != null) {
+                throw unsupported("history of " + name);
+            }
+            writeTable(directMapping.getReferenceTable());
+            writeField(directMapping.getDirectField());
+            writeFields(directMapping.getSourceKeyFields());
+            writeFields(directMapping.getReferenceKeyFields());
+            writeConverter(directMapping.getValueConverter(), name);
+            writeString(directMapping.getValueConverterClassName());
+            writeString(directMapping.getAttributeClassificationName());
+            writeDirectOrdering(directMapping, name);
+        }
+    }
+
+    protected void writeRelationTableMechanism(RelationTableMechanism mechanism) throws IOException {
+        writeTable(mechanism.getRelationTable());
+        writeFields(mechanism.getSourceKeyFields());
+        writeFields(mechanism.getTargetKeyFields());
+        writeFields(mechanism.getSourceRelationKeyFields());
+        writeFields(mechanism.getTargetRelationKeyFields());
+    }
+
+    protected void writeContainerPolicy(CollectionMapping mapping, ContainerPolicy policy, String name) throws IOException {
+        if (policy == null) {
+            writeCount(NULL);
+            return;
+        }
+        Class policyClass = policy.getClass();
+        if (policyClass == CollectionContainerPolicy.class) {
+            writeCount(COLLECTION_CONTAINER);
+        } else if (policyClass == ListContainerPolicy.class) {
+            writeCount(LIST_CONTAINER);
+        } else if (policyClass == VectorContainerPolicy.class) {
+            writeCount(VECTOR_CONTAINER);
+        } else if (policyClass == IndirectListContainerPolicy.class) {
+            writeCount(INDIRECT_LIST_CONTAINER);
+        } else if (policyClass == OrderedListContainerPolicy.class) {
+            writeCount(ORDERED_LIST_CONTAINER);
+        } else if (policyClass == MapContainerPolicy.class) {
+            writeCount(MAP_CONTAINER);
+        } else if (policyClass == MappedKeyMapContainerPolicy.class) {
+            MappedKeyMapContainerPolicy mapPolicy = (MappedKeyMapContainerPolicy)policy;
+            if ((mapPolicy.getValueMapping() != mapping) || (mapPolicy.getKeyQuery() != null) || !(mapPolicy.getKeyMapping() instanceof DirectToFieldMapping)
+                    || (mapPolicy.getKeyMapping().getClass() != DirectToFieldMapping.class)) {
+                throw unsupported("map key of " + name);
+            }
+            writeCount(MAPPED_KEY_MAP_CONTAINER);
+        } else {
+            throw unsupported("container " + policyClass.getName() + " of " + name);
+        }
+        InterfaceContainerPolicy interfacePolicy = (InterfaceContainerPolicy)policy;
+        writeString(interfacePolicy.getContainerClassName());
+        if (policyClass == OrderedListContainerPolicy.class) {
+            writeField(((OrderedListContainerPolicy)policy).getListOrderField());
+            writeEnum(((OrderedListContainerPolicy)policy).getOrderCorrectionType());
+        } else if (policyClass == MapContainerPolicy.class) {
+            writeString(((MapContainerPolicy)policy).getKeyName());
+            writeString(((MapContainerPolicy)policy).getElementClassName());
+        } else if (policyClass == MappedKeyMapContainerPolicy.class) {
+            DirectToFieldMapping keyMapping = (DirectToFieldMapping)((MappedKeyMapContainerPolicy)policy).getKeyMapping();
+            writeMapping(keyMapping);
+        }
+    }
+
+    /**
+     * Write the ordering of the selection query, as the query key paths ordered by JPA metadata processing.
+     */
+    protected void writeOrdering(ObjectLevelReadQuery query, String name) throws IOException {
+        List<Expression> orderByExpressions = query.getOrderByExpressions();
+        writeCount(orderByExpressions.size());
+        for (Expression expression : orderByExpressions) {
+            Expression base = (expression instanceof FunctionExpression) ? ((FunctionExpression)expression).getBaseExpression() : null;
+            List<String> path = new ArrayList<>();
+            while (base instanceof QueryKeyExpression) {
+                path.add(0, ((QueryKeyExpression)base).getName());
+                base = ((QueryKeyExpression)base).getBaseExpression();
+            }
+            if (path.isEmpty() || (base == null) || !base.isExpressionBuilder()) {
+                throw unsupported("order by of " + name);
+            }
+            writeStrings(path);
+            this.stream.writeBoolean(isDescending(expression, name));
+        }
+    }
+
+    /**
+     * Write the ordering of a direct collection, JPA metadata processing only orders it by its direct field.
+     */
+    protected void writeDirectOrdering(DirectCollectionMapping mapping, String name) throws IOException {
+        writeCount(mapping.getOrderByExpressions().size());
+        for (Expression expression : mapping.getOrderByExpressions()) {
+            Expression base = (expression instanceof FunctionExpression) ? ((FunctionExpression)expression).getBaseExpression() : null;
+            if (!(base instanceof FieldExpression) || !((FieldExpression)base).getField().equals(mapping.getDirectField())) {
+                throw unsupported("order by of " + name);
+            }
+            this.stream.writeBoolean(isDescending(expression, name));
+        }
+    }
+
+    protected boolean isDescending(Expression expression, String name) {
+        int selector = ((FunctionExpression)expression).getOperator().getSelector();
+        if ((selector != ExpressionOperator.Ascending) && (selector != ExpressionOperator.Descending)) {
+            throw unsupported("order by of " + name);
+        }
+        return selector == ExpressionOperator.Descending;
+    }
+
+    protected void writeIndirectionPolicy(IndirectionPolicy policy, String name) throws IOException {
+        Class policyClass = policy.getClass();
+        if (policyClass == NoIndirectionPolicy.class) {
+            writeCount(NO_INDIRECTION);
+        } else if (policyClass == BasicIndirectionPolicy.class) {
+            writeCount(BASIC_INDIRECTION);
+        } else if (policyClass == WeavedObjectBasicIndirectionPolicy.class) {
+            WeavedObjectBasicIndirectionPolicy weavedPolicy = (WeavedObjectBasicIndirectionPolicy)policy;
+            writeCount(WEAVED_INDIRECTION);
+            writeString(weavedPolicy.getGetMethodName());
+            writeString(weavedPolicy.getSetMethodName());
+            this.stream.writeBoolean(weavedPolicy.hasUsedMethodAccess());
+            writeString(weavedPolicy.getActualTypeClassName());
+        } else if (policyClass == TransparentIndirectionPolicy.class) {
+            writeCount(TRANSPARENT_INDIRECTION);
+            writeTriState(((TransparentIndirectionPolicy)policy).shouldUseLazyInstantiation());
+        } else {
+            throw unsupported("indirection of " + name);
+        }
+    }
+
+    protected void writeAggregateToSourceFields(Map<String, DatabaseField> aggregateToSourceFields) throws IOException {
+        writeCount(aggregateToSourceFields.size());
+        for (Map.Entry<String, DatabaseField> entry : aggregateToSourceFields.entrySet()) {
+            writeString(entry.getKey());
+            writeField(entry.getValue());
+        }
+    }
+
+    protected void writeConverters(Map<String, Converter> converters, String name) throws IOException {
+        writeCount(converters.size());
+        for (Map.Entry<String, Converter> entry : converters.entrySet()) {
+            writeString(entry.getKey());
+            writeConverter(entry.getValue(), name);
+        }
+    }
+
+    protected void writeJPAQuery(DatabaseQuery databaseQuery) throws IOException {
+        if (!(databaseQuery instanceof JPAQuery)) {
+            throw unsupported("named query " + databaseQuery.getName());
+        }
+        JPAQuery query = (JPAQuery)databaseQuery;
+        if (query.isJPQLQuery()) {
+            writeCount(JPQL_QUERY);
+            writeString(query.getName());
+            writeString(query.getJPQLString());
+            writeString(query.getLockMode());
+        } else if (query.isSQLQuery()) {
+            writeCount(SQL_QUERY);
+            writeString(query.getName());
+            writeString(query.getSQLQueryString());
+            writeString(query.getResultClassName());
+            writeStrings(query.getResultSetMappingNames());
+        } else {
+            throw unsupported("named query " + query.getName());
+        }
+        writeValues(query.getHints(), query.getName());
+    }
+
+    protected void writeUnconvertedProperties(Map<String, List<String>> properties) throws IOException {
+        writeCount((properties == null) ? 0 : properties.size());
+        if (properties != null) {
+            for (Map.Entry<String, List<String>> entry : properties.entrySet()) {
+                writeString(entry.getKey());
+                writeStrings(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Write a map of simple values, null is written as an empty map.
+     */
+    protected void writeValues(Map<?, ?> values, String name) throws IOException {
+        writeCount((values == null) ? 0 : values.size());
+        if (values != null) {
+            for (Map.Entry<?, ?> entry : values.entrySet()) {
+                writeValue(entry.getKey(), name);
+                writeValue(entry.getValue(), name);
+            }
+        }
+    }
+
+    /**
+     * Write a value, such as a class indicator, a conversion value or a query hint.
+     * Only strings, numbers, characters and booleans are written, other objects are not supported.
+     */
+    protected void writeValue(Object value, String name) throws IOException {
+        if (value == null) {
+            writeCount(NULL);
+        } else if (value instanceof String) {
+            writeCount(STRING_VALUE);
+            writeString((String)value);
+        } else if (value instanceof Integer) {
+            writeCount(INTEGER_VALUE);
+            writeInt((Integer)value);
+        } else if (value instanceof Long) {
+            writeCount(LONG_VALUE);
+            this.stream.writeLong((Long)value);
+        } else if (value instanceof Short) {
+            writeCount(SHORT_VALUE);
+            writeInt((Short)value);
+        } else if (value instanceof Byte) {
+            writeCount(BYTE_VALUE);
+            writeInt((Byte)value);
+        } else if (value instanceof Character) {
+            writeCount(CHARACTER_VALUE);
+            writeCount((Character)value);
+        } else if (value instanceof Boolean) {
+            writeCount(BOOLEAN_VALUE);
+            this.stream.writeBoolean((Boolean)value);
+        } else if (value instanceof Double) {
+            writeCount(DOUBLE_VALUE);
+            this.stream.writeDouble((Double)value);
+        } else if (value instanceof Float) {
+            writeCount(FLOAT_VALUE);
+            this.stream.writeFloat((Float)value);
+        } else if (value instanceof BigDecimal) {
+            writeCount(BIG_DECIMAL_VALUE);
+            writeString(value.toString());
+        } else if (value instanceof BigInteger) {
+            writeCount(BIG_INTEGER_VALUE);
+            writeString(value.toString());
+        } else {
+            throw unsupported("value " + value.getClass().getName() + " of " + name);
+        }
+    }
+
+    protected void writeDescriptorReference(ClassDescriptor descriptor) throws IOException {
+        Integer index = this.descriptors.get(descriptor);
+        if (index == null) {
+            throw unsupported("alias of " + descriptor.getJavaClassName());
+        }
+        writeCount(index);
+    }
+
+    protected void writeMappingReference(DatabaseMapping mapping) throws IOException {
+        Integer index = this.mappings.get(mapping);
+        if (index == null) {
+            throw unsupported("derived id of " + mapping.getAttributeName());
+        }
+        writeCount(index);
+    }
+
+    /**
+     * Write the table the first time it is referenced and its index after that.
+     */
+    protected void writeTable(DatabaseTable table) throws IOException {
+        if (table == null) {
+            writeCount(NULL);
+            return;
+        }
+        Integer index = this.tables.get(table);
+        if (index != null) {
+            writeCount(index + REFERENCE);
+            return;
+        }
+        if (table.getClass() != DatabaseTable.class || table.hasForeignKeyConstraints() || table.hasIndexes()) {
+            throw unsupported("table " + table.getQualifiedName());
+        }
+        this.tables.put(table, this.tables.size());
+        writeCount(NEW);
+        writeString(table.getName());
+        writeString(table.getTableQualifier());
+        this.stream.writeBoolean(table.shouldUseDelimiters());
+        writeString(table.getCreationSuffix());
+        Map<String, List<List<String>>> uniqueConstraints = table.getUniqueConstraints();
+        writeCount(uniqueConstraints.size());
+        for (Map.Entry<String, List<List<String>>> entry : uniqueConstraints.entrySet()) {
+            writeString(entry.getKey());
+            writeCount(entry.getValue().size());
+            for (List<String> columnNames : entry.getValue()) {
+                writeStrings(columnNames);
+            }
+        }
+    }
+
+    /**
+     * Write the field the first time it is referenced and its index after that,
+     * the mappings, keys and policies of a descriptor share the same field instances.
+     */
+    protected void writeField(DatabaseField field) throws IOException {
+        if (field == null) {
+            writeCount(NULL);
+            return;
+        }
+        Integer index = this.fields.get(field);
+        if (index != null) {
+            writeCount(index + REFERENCE);
+            return;
+        }
+        if (field.getClass() != DatabaseField.class) {
+            throw unsupported("field " + field.getQualifiedName());
+        }
+        this.fields.put(field, this.fields.size());
+        writeCount(NEW);
+        writeString(field.getName());
+        writeTable(field.getTable());
+        writeString(field.getTypeName());
+        writeString(field.getColumnDefinition());
+        writeInt(field.getScale());
+        writeInt(field.getLength());
+        writeInt(field.getPrecision());
+        writeInt(field.getSqlType());
+        writeInt(field.getIndex());
+        int flags = 0;
+        flags |= field.isUnique() ? 1 : 0;
+        flags |= field.isNullable() ? 1 << 1 : 0;
+        flags |= field.isUpdatable() ? 1 << 2 : 0;
+        flags |= field.isInsertable() ? 1 << 3 : 0;
+        flags |= field.isCreatable() ? 1 << 4 : 0;
+        flags |= field.isPrimaryKey() ? 1 << 5 : 0;
+        flags |= field.shouldUseDelimiters() ? 1 << 6 : 0;
+        flags |= field.getUseUpperCaseForComparisons() ? 1 << 7 : 0;
+        flags |= field.isTranslated() ? 1 << 8 : 0;
+        flags |= field.keepInRow() ? 1 << 9 : 0;
+        writeCount(flags);
+    }
+
+    protected void writeFields(Collection<DatabaseField> fields) throws IOException {
+        writeCount(fields.size());
+        for (DatabaseField field : fields) {
+            writeField(field);
+        }
+    }
+
+    protected void writeFieldMap(Map<DatabaseField, DatabaseField> fields) throws IOException {
+        writeCount(fields.size());
+        for (Map.Entry<DatabaseField, DatabaseField> entry : fields.entrySet()) {
+            writeField(entry.getKey());
+            writeField(entry.getValue());
+        }
+    }
+
+    /**
+     * Write the string the first time it is written and its index after that.
+     */
+    protected void writeString(String string) throws IOException {
+        if (string == null) {
+            writeCount(NULL);
+            return;
+        }
+        Integer index = this.strings.get(string);
+        if (index != null) {
+            writeCount(index + REFERENCE);
+            return;
+        }
+        this.strings.put(string, this.strings.size());
+        writeCount(NEW);
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeCount(bytes.length);
+        this.stream.write(bytes);
+    }
+
+    /**
+     * Write a collection of strings, null is written as a NULL count.
+     */
+    protected void writeStrings(Collection<String> strings) throws IOException {
+        if (strings == null) {
+            writeCount(NULL);
+            return;
+        }
+        writeCount(strings.size() + 1);
+        for (String string : strings) {
+            writeString(string);
+        }
+    }
+
+    protected void writeClass(Class javaClass) throws IOException {
+        writeString((javaClass == null) ? null : javaClass.getName());
+    }
+
+    protected void writeEnum(Enum value) throws IOException {
+        writeString((value == null) ? null : value.name());
+    }
+
+    protected void writeTriState(Boolean value) throws IOException {
+        this.stream.writeByte((value == null) ? 0 : (value ? 2 : 1));
+    }
+
+    /**
+     * Write a signed int as a zig-zag encoded variable length count.
+     */
+    protected void writeInt(int value) throws IOException {
+        writeCount((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Write an unsigned int in seven bit groups, small counts and references take a single byte.
+     */
+    protected void writeCount(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            this.stream.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.stream.writeByte(value);
+    }
+
+    protected ValidationException unsupported(String description) {
+        return ValidationException.operationNotSupported("write the binary project with " + description);
+    }
+}
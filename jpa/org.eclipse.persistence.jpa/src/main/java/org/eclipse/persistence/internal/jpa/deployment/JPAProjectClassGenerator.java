@@ -0,0 +1,424 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.deployment;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.CMPPolicy;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.SerializableDescriptorEventHolder;
+import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.codegen.ClassDefinition;
+import org.eclipse.persistence.internal.codegen.NonreflectiveMethodDefinition;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.jpa.CMP3Policy;
+import org.eclipse.persistence.internal.jpa.JPAQuery;
+import org.eclipse.persistence.internal.jpa.metadata.listeners.JPAEntityListenerHolder;
+import org.eclipse.persistence.internal.jpa.metadata.listeners.MethodSerialImpl;
+import org.eclipse.persistence.internal.queries.MappedKeyMapContainerPolicy;
+import org.eclipse.persistence.mappings.AggregateCollectionMapping;
+import org.eclipse.persistence.mappings.AggregateObjectMapping;
+import org.eclipse.persistence.mappings.CollectionMapping;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.mappings.DirectCollectionMapping;
+import org.eclipse.persistence.mappings.DirectMapMapping;
+import org.eclipse.persistence.mappings.DirectToFieldMapping;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.mappings.ManyToManyMapping;
+import org.eclipse.persistence.mappings.ManyToOneMapping;
+import org.eclipse.persistence.mappings.OneToManyMapping;
+import org.eclipse.persistence.mappings.OneToOneMapping;
+import org.eclipse.persistence.mappings.TransformationMapping;
+import org.eclipse.persistence.mappings.UnidirectionalOneToManyMapping;
+import org.eclipse.persistence.mappings.VariableOneToOneMapping;
+import org.eclipse.persistence.mappings.converters.Converter;
+import org.eclipse.persistence.mappings.converters.EnumTypeConverter;
+import org.eclipse.persistence.mappings.converters.ObjectTypeConverter;
+import org.eclipse.persistence.mappings.converters.SerializedObjectConverter;
+import org.eclipse.persistence.mappings.converters.TypeConversionConverter;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.factories.ProjectClassGenerator;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Generate the source of a Project subclass from the project built by JPA metadata processing,
+ * so the persistence unit can be deployed from the compiled class without processing the metadata again.
+ * <p><b>Description</b>: Extends the native project class generator with what JPA metadata processing adds to
+ * the project: the CMP3Policy of the entities, the entity listener and callback holders, the mapped superclass
+ * descriptors, the named JPQL and native queries, the identifier class names of the metamodel and the class names
+ * for weaving.
+ * The project is checked first: metadata the generated class could not reproduce, such as multitenancy,
+ * attribute converter classes or stored procedure queries, is reported as a ValidationException rather
+ * than silently left out of the generated class.
+ *
+ * @see org.eclipse.persistence.jpa.metadata.GeneratedClassProjectCache
+ */
+public class JPAProjectClassGenerator extends ProjectClassGenerator {
+
+    public JPAProjectClassGenerator(Project project, String projectClassName, Writer outputWriter) {
+        super(project, projectClassName, outputWriter);
+    }
+
+    /**
+     * Generate the source of the project class into the writer.
+     */
+    public static void write(Project project, String projectClassName, Writer writer) {
+        new JPAProjectClassGenerator(project, projectClassName, writer).generate();
+    }
+
+    /**
+     * Throw a ValidationException if the project uses metadata the generated class would not reproduce.
+     */
+    public void validate() {
+        Project project = getProject();
+        if ((project.getStructConverters() != null) && !project.getStructConverters().isEmpty()) {
+            throw unsupported("struct converters");
+        }
+        if (!project.getJPATablePerTenantQueries().isEmpty() || !project.getPartitioningPolicies().isEmpty()) {
+            throw unsupported("table per tenant queries or partitioning policies");
+        }
+        if (!project.getQueries().isEmpty()) {
+            throw unsupported("session queries");
+        }
+        for (DatabaseQuery query : project.getJPAQueries()) {
+            if (!(query instanceof JPAQuery) || !(((JPAQuery)query).isJPQLQuery() || ((JPAQuery)query).isSQLQuery())) {
+                throw unsupported("named query " + query.getName());
+            }
+        }
+        List<ClassDescriptor> descriptors = new ArrayList<>(project.getOrderedDescriptors());
+        descriptors.addAll(project.getMappedSuperclassDescriptors().values());
+        for (ClassDescriptor descriptor : descriptors) {
+            if (descriptor.hasMultitenantPolicy() || descriptor.hasSerializedObjectPolicy()
+                    || (descriptor.getPartitioningPolicy() != null) || (descriptor.getPartitioningPolicyName() != null)
+                    || descriptor.hasTablePerClassPolicy()) {
+                throw unsupported("descriptor " + descriptor.getJavaClassName());
+            }
+            if (descriptor.getCMPPolicy() != null && !(descriptor.getCMPPolicy() instanceof CMP3Policy)) {
+                throw unsupported("CMP policy of " + descriptor.getJavaClassName());
+            }
+            for (SerializableDescriptorEventHolder holder : descriptor.getEventManager().getDescriptorEventHolders()) {
+                if (!(holder instanceof JPAEntityListenerHolder)) {
+                    throw unsupported("event listener of " + descriptor.getJavaClassName());
+                }
+            }
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                validate(descriptor, mapping);
+            }
+        }
+    }
+
+    /**
+     * Throw a ValidationException if the mapping is not reproduced by the generated class.
+     */
+    protected void validate(ClassDescriptor descriptor, DatabaseMapping mapping) {
+        Class mappingClass = mapping.getClass();
+        if ((mappingClass != DirectToFieldMapping.class) && (mappingClass != OneToOneMapping.class) && (mappingClass != ManyToOneMapping.class)
+                && (mappingClass != OneToManyMapping.class) && (mappingClass != UnidirectionalOneToManyMapping.class) && (mappingClass != ManyToManyMapping.class)
+                && (mappingClass != AggregateObjectMapping.class) && (mappingClass != AggregateCollectionMapping.class)
+                && (mappingClass != DirectCollectionMapping.class) && (mappingClass != DirectMapMapping.class)
+                && (mappingClass != TransformationMapping.class) && (mappingClass != VariableOneToOneMapping.class)) {
+            throw unsupported("mapping " + descriptor.getJavaClassName() + "." + mapping.getAttributeName());
+        }
+        if (mapping.isCollectionMapping() && (((CollectionMapping)mapping).getContainerPolicy() instanceof MappedKeyMapContainerPolicy)
+                && !mapping.isDirectMapMapping()) {
+            throw unsupported("map key of " + descriptor.getJavaClassName() + "." + mapping.getAttributeName());
+        }
+        if (mapping.isAbstractDirectMapping()) {
+            Converter converter = ((AbstractDirectMapping)mapping).getConverter();
+            if ((converter != null) && (converter.getClass() != EnumTypeConverter.class) && (converter.getClass() != ObjectTypeConverter.class)
+                    && (converter.getClass() != TypeConversionConverter.class) && (converter.getClass() != SerializedObjectConverter.class)) {
+                throw unsupported("converter of " + descriptor.getJavaClassName() + "." + mapping.getAttributeName());
+            }
+        } else if (mapping.isDirectCollectionMapping() && (((DirectCollectionMapping)mapping).getValueConverter() != null)) {
+            throw unsupported("converter of " + descriptor.getJavaClassName() + "." + mapping.getAttributeName());
+        } else if (mapping.isAggregateObjectMapping() && !((AggregateObjectMapping)mapping).getAggregateToSourceFields().isEmpty()) {
+            throw unsupported("attribute overrides of " + descriptor.getJavaClassName() + "." + mapping.getAttributeName());
+        }
+        if (mapping.isOneToOneMapping()) {
+            for (DatabaseField field : ((OneToOneMapping)mapping).getForeignKeyFields()) {
+                if (!field.isInsertable() || !field.isUpdatable()) {
+                    throw unsupported("join column of " + descriptor.getJavaClassName() + "." + mapping.getAttributeName());
+                }
+            }
+        }
+    }
+
+    protected ValidationException unsupported(String description) {
+        return ValidationException.operationNotSupported("generate the project class with " + description);
+    }
+
+    @Override
+    protected void computeDescriptorMethodNames() {
+        super.computeDescriptorMethodNames();
+        for (ClassDescriptor descriptor : getProject().getMappedSuperclassDescriptors().values()) {
+            getDescriptorMethodNames().put(descriptor, removeDots(descriptor.getJavaClassName()) + "MappedSuperclass");
+        }
+    }
+
+    @Override
+    protected ClassDefinition generateProjectClass() {
+        validate();
+        ClassDefinition classDefinition = super.generateProjectClass();
+        classDefinition.addImport("java.util.*");
+        classDefinition.addImport("org.eclipse.persistence.internal.jpa.CMP3Policy");
+        classDefinition.addImport("org.eclipse.persistence.internal.jpa.JPAQuery");
+        classDefinition.addImport("org.eclipse.persistence.internal.jpa.metadata.listeners.JPAEntityListenerHolder");
+        classDefinition.addImport("org.eclipse.persistence.internal.jpa.metadata.listeners.MethodSerialImpl");
+        for (ClassDescriptor descriptor : getProject().getMappedSuperclassDescriptors().values()) {
+            classDefinition.addMethod(buildDescriptorMethod(descriptor));
+        }
+        if (!getProject().getJPAQueries().isEmpty()) {
+            classDefinition.addMethod(buildJPAQueriesMethod());
+        }
+        return classDefinition;
+    }
+
+    @Override
+    protected NonreflectiveMethodDefinition buildConstructor() {
+        NonreflectiveMethodDefinition method = super.buildConstructor();
+        Project project = getProject();
+        for (Map.Entry<String, ClassDescriptor> entry : project.getMappedSuperclassDescriptors().entrySet()) {
+            method.addLine("addMappedSuperclass(" + javaString(entry.getKey()) + ", build" + getDescriptorMethodNames().get(entry.getValue()) + "ClassDescriptor(), false);");
+        }
+        for (Map.Entry<String, List<String>> entry : project.getMetamodelIdClassMap().entrySet()) {
+            method.addLine("getMetamodelIdClassMap().put(" + javaString(entry.getKey()) + ", " + javaList(entry.getValue()) + ");");
+        }
+        if (!project.getJPAQueries().isEmpty()) {
+            method.addLine("addJPAQueries();");
+        }
+        // Deployment from a cached project expects the class names, there are none when weaving is disabled or static.
+        if (project.getClassNamesForWeaving() == null) {
+            method.addLine("setClassNamesForWeaving(new ArrayList<String>());");
+        } else {
+            method.addLine("setClassNamesForWeaving(" + javaList(project.getClassNamesForWeaving()) + ");");
+        }
+        return method;
+    }
+
+    /**
+     * Build the method adding the named queries, their JPQL or SQL is parsed when the session logs in.
+     */
+    protected NonreflectiveMethodDefinition buildJPAQueriesMethod() {
+        NonreflectiveMethodDefinition method = new NonreflectiveMethodDefinition();
+        method.setName("addJPAQueries");
+        method.setReturnType("void");
+        int index = 0;
+        for (DatabaseQuery databaseQuery : getProject().getJPAQueries()) {
+            JPAQuery query = (JPAQuery)databaseQuery;
+            String queryName = "query" + index;
+            String hints = "hints" + index;
+            index++;
+            method.addLine("Map<String, Object> " + hints + " = new HashMap<>();");
+            if (query.getHints() != null) {
+                for (Map.Entry<String, Object> hint : query.getHints().entrySet()) {
+                    if (!(hint.getValue() instanceof String)) {
+                        throw unsupported("hint " + hint.getKey() + " of named query " + query.getName());
+                    }
+                    method.addLine(hints + ".put(" + javaString(hint.getKey()) + ", " + javaString((String)hint.getValue()) + ");");
+                }
+            }
+            if (query.isJPQLQuery()) {
+                method.addLine("JPAQuery " + queryName + " = new JPAQuery(" + javaString(query.getName()) + ", " + javaString(query.getJPQLString()) + ", "
+                        + ((query.getLockMode() == null) ? "null" : javaString(query.getLockMode())) + ", " + hints + ");");
+            } else {
+                method.addLine("JPAQuery " + queryName + " = new JPAQuery(" + javaString(query.getName()) + ", " + javaString(query.getSQLQueryString()) + ", " + hints + ");");
+                if (query.getResultClassName() != null) {
+                    method.addLine(queryName + ".setResultClassName(" + javaString(query.getResultClassName()) + ");");
+                }
+                if (query.getResultSetMappingNames() != null) {
+                    method.addLine(queryName + ".setResultSetMappings(new ArrayList<>(" + javaList(query.getResultSetMappingNames()) + "));");
+                }
+            }
+            method.addLine("addJPAQuery(" + queryName + ");");
+        }
+        return method;
+    }
+
+    /**
+     * Add the mapping, with the field classification JPA metadata processing sets for converted and collection values.
+     */
+    @Override
+    protected void addMappingLines(NonreflectiveMethodDefinition method, DatabaseMapping mapping) {
+        super.addMappingLines(method, mapping);
+        String mappingName = mapping.getAttributeName() + "Mapping";
+        if (mapping.isAbstractDirectMapping()) {
+            AbstractDirectMapping directMapping = (AbstractDirectMapping)mapping;
+            if (directMapping.getFieldClassificationClassName() != null) {
+                method.addLine(mappingName + ".setFieldClassificationClassName(" + javaString(directMapping.getFieldClassificationClassName()) + ");");
+            } else if (directMapping.getField().getTypeName() != null) {
+                method.addLine(mappingName + ".getField().setTypeName(" + javaString(directMapping.getField().getTypeName()) + ");");
+            }
+            addFieldLines(method, mappingName + ".getField()", directMapping.getField());
+        } else if (mapping.isDirectCollectionMapping()) {
+            DirectCollectionMapping collectionMapping = (DirectCollectionMapping)mapping;
+            if (collectionMapping.getAttributeClassificationName() != null) {
+                method.addLine(mappingName + ".setAttributeClassificationName(" + javaString(collectionMapping.getAttributeClassificationName()) + ");");
+            }
+            if (collectionMapping.getDirectField().getTypeName() != null) {
+                method.addLine(mappingName + ".setDirectFieldClassificationName(" + javaString(collectionMapping.getDirectField().getTypeName()) + ");");
+            }
+        }
+        if (mapping.isForeignReferenceMapping() && (((ForeignReferenceMapping)mapping).getMappedBy() != null)) {
+            method.addLine(mappingName + ".setMappedBy(" + javaString(((ForeignReferenceMapping)mapping).getMappedBy()) + ");");
+        }
+    }
+
+    /**
+     * Add the column settings of the field that differ from the defaults.
+     */
+    protected void addFieldLines(NonreflectiveMethodDefinition method, String fieldSource, DatabaseField field) {
+        if (field.getLength() != 0) {
+            method.addLine(fieldSource + ".setLength(" + field.getLength() + ");");
+        }
+        if (field.getPrecision() != 0) {
+            method.addLine(fieldSource + ".setPrecision(" + field.getPrecision() + ");");
+        }
+        if (field.getScale() != 0) {
+            method.addLine(fieldSource + ".setScale(" + field.getScale() + ");");
+        }
+        if (field.getSqlType() != DatabaseField.NULL_SQL_TYPE) {
+            method.addLine(fieldSource + ".setSqlType(" + field.getSqlType() + ");");
+        }
+        if (!field.isNullable()) {
+            method.addLine(fieldSource + ".setNullable(false);");
+        }
+        if (field.isUnique()) {
+            method.addLine(fieldSource + ".setUnique(true);");
+        }
+        if (!field.isInsertable()) {
+            method.addLine(fieldSource + ".setInsertable(false);");
+        }
+        if (!field.isUpdatable()) {
+            method.addLine(fieldSource + ".setUpdatable(false);");
+        }
+        if ((field.getColumnDefinition() != null) && (field.getColumnDefinition().length() > 0)) {
+            method.addLine(fieldSource + ".setColumnDefinition(" + javaString(field.getColumnDefinition()) + ");");
+        }
+    }
+
+    /**
+     * Add the CMP3Policy of the entity, with its primary key class.
+     */
+    @Override
+    protected void addCMPPolicyLines(NonreflectiveMethodDefinition method, CMPPolicy sourceCMPPolicy) {
+        if (!(sourceCMPPolicy instanceof CMP3Policy)) {
+            super.addCMPPolicyLines(method, sourceCMPPolicy);
+            return;
+        }
+        CMP3Policy policy = (CMP3Policy)sourceCMPPolicy;
+        method.addLine("");
+        method.addLine("// CMP3 Policy");
+        method.addLine("CMP3Policy cmpPolicy = new CMP3Policy();");
+        method.addLine("cmpPolicy.setDeferModificationsUntilCommit(" + policy.getDeferModificationsUntilCommit() + ");");
+        method.addLine("cmpPolicy.setForceUpdate(" + policy.getForceUpdate() + ");");
+        method.addLine("cmpPolicy.setNonDeferredCreateTime(" + policy.getNonDeferredCreateTime() + ");");
+        method.addLine("cmpPolicy.setUpdateAllFields(" + policy.getUpdateAllFields() + ");");
+        if (policy.getPKClassName() != null) {
+            method.addLine("cmpPolicy.setPrimaryKeyClassName(" + javaString(policy.getPKClassName()) + ");");
+        }
+        method.addLine("descriptor.setCMPPolicy(cmpPolicy);");
+    }
+
+    /**
+     * Add the enum converters, their conversion values are built from the enum class when initialized.
+     */
+    @Override
+    protected void addConverterLines(NonreflectiveMethodDefinition method, String converterName, Converter converter) {
+        if (converter instanceof EnumTypeConverter) {
+            EnumTypeConverter enumConverter = (EnumTypeConverter)converter;
+            String mappingName = converterName.substring(0, converterName.length() - "Converter".length());
+            method.addLine("EnumTypeConverter " + converterName + " = new EnumTypeConverter(" + mappingName + ", "
+                    + javaString(enumConverter.getEnumClassName()) + ", " + enumConverter.shouldUseOrdinalValues() + ");");
+        } else {
+            super.addConverterLines(method, converterName, converter);
+        }
+    }
+
+    /**
+     * Add the holders of the entity listeners and callback methods, the listeners are built from them when deployed.
+     */
+    @Override
+    protected void addEventManagerPropertyLines(NonreflectiveMethodDefinition method, ClassDescriptor descriptor) {
+        super.addEventManagerPropertyLines(method, descriptor);
+        int index = 0;
+        for (SerializableDescriptorEventHolder eventHolder : descriptor.getEventManager().getDescriptorEventHolders()) {
+            JPAEntityListenerHolder holder = (JPAEntityListenerHolder)eventHolder;
+            String holderName = "listenerHolder" + index++;
+            method.addLine("JPAEntityListenerHolder " + holderName + " = new JPAEntityListenerHolder();");
+            if (holder.listenerClassName != null) {
+                method.addLine(holderName + ".listenerClassName = " + javaString(holder.listenerClassName) + ";");
+            }
+            if (holder.isDefaultListener != null) {
+                method.addLine(holderName + ".setIsDefaultListener(Boolean." + (holder.isDefaultListener ? "TRUE" : "FALSE") + ");");
+            }
+            if (holder.serializableMethods != null) {
+                method.addLine(holderName + ".serializableMethods = new java.util.concurrent.ConcurrentHashMap<>();");
+                for (Map.Entry<String, List<MethodSerialImpl>> event : holder.serializableMethods.entrySet()) {
+                    StringBuilder methods = new StringBuilder();
+                    for (MethodSerialImpl eventMethod : event.getValue()) {
+                        if (methods.length() > 0) {
+                            methods.append(", ");
+                        }
+                        methods.append("new MethodSerialImpl(").append(javaString(eventMethod.methodName)).append(", ")
+                            .append(javaString(eventMethod.declaringClassName)).append(", ").append(javaList(eventMethod.paramList)).append(")");
+                    }
+                    method.addLine(holderName + ".serializableMethods.put(" + javaString(event.getKey()) + ", new ArrayList<>(Arrays.asList(" + methods + ")));");
+                }
+            }
+            method.addLine("descriptor.getEventManager().addEntityListenerHolder(" + holderName + ");");
+        }
+    }
+
+    /**
+     * Return the Java source of a list of strings.
+     */
+    protected String javaList(Iterable<String> values) {
+        StringBuilder source = new StringBuilder("new ArrayList<String>(Arrays.asList(");
+        boolean isFirst = true;
+        for (String value : values) {
+            if (!isFirst) {
+                source.append(", ");
+            }
+            source.append(javaString(value));
+            isFirst = false;
+        }
+        return source.append("))").toString();
+    }
+
+    /**
+     * Return the Java source of a string literal.
+     */
+    protected String javaString(String value) {
+        StringBuilder source = new StringBuilder(value.length() + 2);
+        source.append('"');
+        for (int index = 0; index < value.length(); index++) {
+            char character = value.charAt(index);
+            switch (character) {
+                case '"': source.append("\\\""); break;
+                case '\\': source.append("\\\\"); break;
+                case '\n': source.append("\\n"); break;
+                case '\r': source.append("\\r"); break;
+                case '\t': source.append("\\t"); break;
+                default: source.append(character);
+            }
+        }
+        return source.append('"').toString();
+    }
+}
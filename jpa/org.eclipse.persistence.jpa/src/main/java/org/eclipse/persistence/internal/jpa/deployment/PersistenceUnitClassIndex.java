@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.deployment;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataClass;
+import org.eclipse.persistence.jpa.Archive;
+import org.eclipse.persistence.logging.AbstractSessionLog;
+import org.eclipse.persistence.logging.SessionLog;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Index of the managed classes of an archive, built when the archive is built,
+ * so deployment does not have to list and read all the classes of the archive to find them.
+ * <p><b>Description</b>: The index is a text entry of the archive, listing each class annotated with
+ * &#64;Entity, &#64;Embeddable, &#64;MappedSuperclass, &#64;Converter or &#64;StaticMetamodel, with its annotation.
+ * When used, the classes of the archive are the indexed ones, the other classes of the archive
+ * are only read if referenced by the indexed ones.
+ * The index records the number of classes of the archive, and is ignored if the archive has another number of classes,
+ * but it must still be generated again when the classes of the archive change,
+ * it is generated by the static weaver, or can be by calling {@link #build(Archive, ClassLoader)} and {@link #write(OutputStream)}.
+ *
+ * @see org.eclipse.persistence.config.PersistenceUnitProperties#METADATA_CLASS_INDEX
+ * @see org.eclipse.persistence.tools.weaving.jpa.StaticWeaveProcessor#setClassIndex(boolean)
+ */
+public class PersistenceUnitClassIndex {
+    /** Path of the index in the archive. */
+    public static final String INDEX_ENTRY = "META-INF/eclipselink-class-index";
+    /** First line of the index, followed by the format version. */
+    public static final String HEADER = "#EclipseLink class index";
+    /** Version of the format, incremented on incompatible changes. */
+    public static final int FORMAT_VERSION = 2;
+    /** Second line of the index, followed by the number of classes of the archive. */
+    public static final String CLASS_COUNT = "#classes";
+
+    public static final String ENTITY = "Entity";
+    public static final String EMBEDDABLE = "Embeddable";
+    public static final String MAPPED_SUPERCLASS = "MappedSuperclass";
+    public static final String CONVERTER = "Converter";
+    public static final String STATIC_METAMODEL = "StaticMetamodel";
+
+    /** Annotation of each indexed class, sorted by class name. */
+    protected Map<String, String> annotations;
+    /** Number of classes of the archive when indexed, -1 if unknown. */
+    protected int classCount;
+
+    public PersistenceUnitClassIndex() {
+        this.annotations = new TreeMap<>();
+        this.classCount = -1;
+    }
+
+    /**
+     * Return the index of the archive, or null if it has none, or one of another version.
+     */
+    public static PersistenceUnitClassIndex read(Archive archive) throws IOException {
+        InputStream stream = archive.getEntry(INDEX_ENTRY);
+        if (stream == null) {
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if ((header == null) || !header.equals(HEADER + " " + FORMAT_VERSION)) {
+                AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.JPA, "class_index_ignored", archive.getRootURL());
+                return null;
+            }
+            PersistenceUnitClassIndex index = new PersistenceUnitClassIndex();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if ((separator > 0) && line.startsWith(CLASS_COUNT + " ")) {
+                    try {
+                        index.setClassCount(Integer.parseInt(line.substring(separator + 1).trim()));
+                    } catch (NumberFormatException notCount) {
+                        index.setClassCount(-1);
+                    }
+                } else if ((separator > 0) && !line.startsWith("#")) {
+                    index.add(line.substring(separator + 1).trim(), line.substring(0, separator));
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Build the index of the archive, reading all its classes.
+     */
+    public static PersistenceUnitClassIndex build(Archive archive, ClassLoader loader) {
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), loader);
+        PersistenceUnitClassIndex index = new PersistenceUnitClassIndex();
+        index.setClassCount(countClasses(archive));
+        for (Iterator<String> entries = archive.getEntries(); entries.hasNext();) {
+            String entry = entries.next();
+            if (entry.endsWith(".class") && !entry.endsWith("module-info.class")) {
+                String className = PersistenceUnitProcessor.buildClassNameFromEntryString(entry);
+                String annotation = getIndexedAnnotation(factory.getMetadataClass(className, true));
+                if (annotation != null) {
+                    index.add(className, annotation);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Return the number of class entries of the archive.
+     */
+    public static int countClasses(Archive archive) {
+        int count = 0;
+        for (Iterator<String> entries = archive.getEntries(); entries.hasNext();) {
+            if (entries.next().endsWith(".class")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return the annotation the class is indexed by, or null if not a managed class.
+     */
+    public static String getIndexedAnnotation(MetadataClass candidateClass) {
+        if (candidateClass == null) {
+            return null;
+        } else if (PersistenceUnitProcessor.isEntity(candidateClass)) {
+            return ENTITY;
+        } else if (PersistenceUnitProcessor.isEmbeddable(candidateClass)) {
+            return EMBEDDABLE;
+        } else if (PersistenceUnitProcessor.isMappedSuperclass(candidateClass)) {
+            return MAPPED_SUPERCLASS;
+        } else if (PersistenceUnitProcessor.isConverter(candidateClass)) {
+            return CONVERTER;
+        } else if (PersistenceUnitProcessor.isStaticMetamodelClass(candidateClass)) {
+            return STATIC_METAMODEL;
+        }
+        return null;
+    }
+
+    /**
+     * Add the class with its annotation.
+     */
+    public void add(String className, String annotation) {
+        this.annotations.put(className, annotation);
+    }
+
+    /**
+     * Return the indexed class names.
+     */
+    public Set<String> getClassNames() {
+        return this.annotations.keySet();
+    }
+
+    /**
+     * Return the annotation of the class, or null if not indexed.
+     */
+    public String getAnnotation(String className) {
+        return this.annotations.get(className);
+    }
+
+    /**
+     * Return the number of classes of the archive when indexed, -1 if unknown.
+     */
+    public int getClassCount() {
+        return this.classCount;
+    }
+
+    /**
+     * Set the number of classes of the archive, an index of unknown number is never current.
+     */
+    public void setClassCount(int classCount) {
+        this.classCount = classCount;
+    }
+
+    /**
+     * Return if the index was built for the number of classes the archive has.
+     * An index no longer matching the archive would miss its new classes.
+     */
+    public boolean isCurrent(int archiveClassCount) {
+        return (this.classCount >= 0) && (this.classCount == archiveClassCount);
+    }
+
+    /**
+     * Write the index, one class per line after the header and class count.
+     */
+    public void write(OutputStream stream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        writer.write(HEADER + " " + FORMAT_VERSION + "\n");
+        writer.write(CLASS_COUNT + " " + this.classCount + "\n");
+        for (Map.Entry<String, String> entry : this.annotations.entrySet()) {
+            writer.write(entry.getValue());
+            writer.write(' ');
+            writer.write(entry.getKey());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -61,6 +61,7 @@
 import org.eclipse.persistence.exceptions.ValidationException;
 import org.eclipse.persistence.exceptions.XMLParseException;
 import org.eclipse.persistence.internal.helper.XMLHelper;
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryProvider;
 import org.eclipse.persistence.internal.jpa.deployment.xml.parser.PersistenceContentHandler;
 import org.eclipse.persistence.internal.jpa.deployment.xml.parser.XMLException;
 import org.eclipse.persistence.internal.jpa.deployment.xml.parser.XMLExceptionHandler;
@@ -74,6 +75,7 @@
 import org.eclipse.persistence.jpa.Archive;
 import org.eclipse.persistence.jpa.ArchiveFactory;
 import org.eclipse.persistence.logging.AbstractSessionLog;
+import org.eclipse.persistence.logging.SessionLog;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
@@ -491,6 +493,18 @@ public static Set<String> getClassNamesFromURL(URL url, ClassLoader loader, Map
                         classNames.add(buildClassNameFromEntryString(entry));
                     }
                 }
+                // PERF: Use the class index of the archive if configured to and still current,
+                // so only the indexed classes are read instead of all the classes of the archive.
+                if (shouldUseClassIndex(properties)) {
+                    PersistenceUnitClassIndex index = PersistenceUnitClassIndex.read(archive);
+                    if (index != null) {
+                        if (index.isCurrent(classNames.size())) {
+                            AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.JPA, "class_index_used", url);
+                            return new HashSet<String>(index.getClassNames());
+                        }
+                        AbstractSessionLog.getLog().log(SessionLog.WARNING, SessionLog.JPA, "class_index_stale", url);
+                    }
+                }
             }
         } catch (URISyntaxException e) {
             throw new RuntimeException("url = [" + url + "]", e);  // NOI18N
@@ -504,6 +518,24 @@ public static Set<String> getClassNamesFromURL(URL url, ClassLoader loader, Map
         return classNames;
     }
 
+    /**
+     * Return if the class index of archives should be used when present, it is not by default.
+     */
+    protected static boolean shouldUseClassIndex(Map properties) {
+        if (properties == null) {
+            return false;
+        }
+        String value = EntityManagerFactoryProvider.getConfigPropertyAsString(PersistenceUnitProperties.METADATA_CLASS_INDEX, properties);
+        if (value == null) {
+            return false;
+        } else if (value.equalsIgnoreCase("true")) {
+            return true;
+        } else if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw ValidationException.invalidBooleanValueForProperty(value, PersistenceUnitProperties.METADATA_CLASS_INDEX);
+    }
+
     /**
      * Return if a given class is annotated with @Embeddable.
      */
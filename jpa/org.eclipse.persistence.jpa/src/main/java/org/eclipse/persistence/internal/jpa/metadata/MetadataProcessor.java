@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -54,6 +54,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import jakarta.persistence.spi.PersistenceUnitInfo;
 
@@ -61,6 +62,7 @@
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.exceptions.PersistenceUnitLoadingException;
 import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryProvider;
 import org.eclipse.persistence.internal.jpa.EntityManagerSetupImpl;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor.Mode;
@@ -344,6 +346,10 @@ protected void initPersistenceUnitClasses() {
             unlistedClasses = PersistenceUnitProcessor.getClassNamesFromURL(persistenceUnitInfo.getPersistenceUnitRootUrl(), m_loader, m_predeployProperties);
         }
 
+        // PERF: Read the classes in parallel if configured, they are still
+        // processed in turn below.
+        preloadClasses(classNames, unlistedClasses);
+
         // 5 - Go through all the class names we found and add those classes
         // that have not yet been added. Be sure to check that the accessor
         // does not already exist since adding an accessor will merge its
@@ -384,6 +390,37 @@ protected void initPersistenceUnitClasses() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Read the listed and unlisted classes in parallel if a metadata processing parallelism was configured.
+     * Only the class byte codes are read in parallel, the metadata factory registers the classes in order.
+     */
+    protected void preloadClasses(List<String> classNames, Set<String> unlistedClasses) {
+        String value = null;
+        if (m_predeployProperties != null) {
+            value = EntityManagerFactoryProvider.getConfigPropertyAsString(PersistenceUnitProperties.METADATA_PROCESSING_PARALLELISM, m_predeployProperties);
+        }
+        if (value == null) {
+            return;
+        }
+        int parallelism;
+        try {
+            parallelism = Integer.parseInt(value.trim());
+        } catch (NumberFormatException exception) {
+            throw ValidationException.invalidValueForProperty(value, PersistenceUnitProperties.METADATA_PROCESSING_PARALLELISM, exception);
+        }
+        if (parallelism <= 1) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            m_factory.preloadMetadataClasses(classNames, false, pool);
+            m_factory.preloadMetadataClasses(unlistedClasses, true, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
     /**
      * INTERNAL:
      * This method is responsible for figuring out list of mapping files to
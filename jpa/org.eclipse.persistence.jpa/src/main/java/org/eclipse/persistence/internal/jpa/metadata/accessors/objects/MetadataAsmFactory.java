@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 1998, 2018 Hans Harz, Andrew Rustleund, IBM Corporation. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -32,7 +32,11 @@
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataDescriptor;
@@ -89,18 +93,7 @@ protected void buildClassMetadata(MetadataClass metadataClass, String className,
         ClassMetadataVisitor visitor = new ClassMetadataVisitor(metadataClass, isLazy);
         InputStream stream = null;
         try {
-            String resourceString = className.replace('.', '/') + ".class";
-            if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
-                final String f_resourceString = resourceString;
-                stream = AccessController.doPrivileged(new PrivilegedAction<InputStream>() {
-                    @Override
-                    public InputStream run() {
-                        return m_loader.getResourceAsStream(f_resourceString);
-                    }
-                });
-            } else {
-                stream = m_loader.getResourceAsStream(resourceString);
-            }
+            stream = getClassStream(className);
 
             ClassReader reader = new ClassReader(stream);
             Attribute[] attributes = new Attribute[0];
@@ -152,6 +145,89 @@ public InputStream run() {
         }
     }
 
+    /**
+     * Return the stream of the class byte codes from the class loader, or null if not found.
+     */
+    protected InputStream getClassStream(String className) {
+        final String resourceString = className.replace('.', '/') + ".class";
+        if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+            return AccessController.doPrivileged(new PrivilegedAction<InputStream>() {
+                @Override
+                public InputStream run() {
+                    return m_loader.getResourceAsStream(resourceString);
+                }
+            });
+        } else {
+            return m_loader.getResourceAsStream(resourceString);
+        }
+    }
+
+    /**
+     * Read the class metadata for the class name without registering it.
+     * Return null if the class could not be read, it is then read again when requested, which reports the error.
+     */
+    protected MetadataClass readClassMetadata(String className, boolean isLazy) {
+        ClassMetadataVisitor visitor = new ClassMetadataVisitor(null, isLazy, false);
+        InputStream stream = null;
+        try {
+            stream = getClassStream(className);
+            if (stream == null) {
+                return null;
+            }
+            ClassReader reader = new ClassReader(stream);
+            reader.accept(visitor, new Attribute[0], ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            return visitor.classMetadata;
+        } catch (Exception exception) {
+            return null;
+        } finally {
+            try {
+                if (stream != null) {
+                    stream.close();
+                }
+            } catch (IOException ignore) {
+                // Ignore.
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Read the byte codes of the classes not read yet in parallel on the pool.
+     * The class metadata is only registered once all are read, in the order of the class names,
+     * so the classes processed are the same as if read in turn.
+     * Not done if privileged access is used, as the pool threads may not have the permissions.
+     */
+    @Override
+    public void preloadMetadataClasses(Collection<String> classNames, final boolean isLazy, ForkJoinPool pool) {
+        if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+            return;
+        }
+        final List<String> unread = new ArrayList<String>(classNames.size());
+        for (String className : classNames) {
+            if ((className != null) && !metadataClassExists(className)) {
+                unread.add(className);
+            }
+        }
+        if (unread.size() < 2) {
+            return;
+        }
+        final MetadataClass[] classes = new MetadataClass[unread.size()];
+        try {
+            pool.submit(() -> IntStream.range(0, classes.length).parallel().forEach(index -> classes[index] = readClassMetadata(unread.get(index), isLazy))).get();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException exception) {
+            // Read the classes in turn when requested.
+            return;
+        }
+        for (MetadataClass metadataClass : classes) {
+            if ((metadataClass != null) && !metadataClassExists(metadataClass.getName())) {
+                addMetadataClass(metadataClass);
+            }
+        }
+    }
+
     /**
      * Return the class metadata for the class name.
      */
@@ -243,11 +319,17 @@ public class ClassMetadataVisitor extends ClassVisitor {
 
         private boolean isLazy;
         private boolean processedMemeber;
+        private boolean isRegistered;
         private MetadataClass classMetadata;
 
         ClassMetadataVisitor(MetadataClass metadataClass, boolean isLazy) {
+            this(metadataClass, isLazy, true);
+        }
+
+        ClassMetadataVisitor(MetadataClass metadataClass, boolean isLazy, boolean isRegistered) {
             super(Opcodes.ASM9);
             this.isLazy = isLazy;
+            this.isRegistered = isRegistered;
             this.classMetadata = metadataClass;
         }
 
@@ -256,7 +338,9 @@ public void visit(int version, int access, String name, String signature, String
             String className = toClassName(name);
             if ((this.classMetadata == null) || !this.classMetadata.getName().equals(className)) {
                 this.classMetadata = new MetadataClass(MetadataAsmFactory.this, className, isLazy);
-                addMetadataClass(this.classMetadata);
+                if (this.isRegistered) {
+                    addMetadataClass(this.classMetadata);
+                }
             }
             this.classMetadata.setName(className);
             this.classMetadata.setSuperclassName(toClassName(superName));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,9 +14,11 @@
 //     James Sutherland - initial impl
 package org.eclipse.persistence.internal.jpa.metadata.accessors.objects;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.persistence.internal.jpa.metadata.MetadataDescriptor;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
@@ -116,6 +118,15 @@ protected boolean metadataClassExists(String className) {
      */
     public abstract MetadataClass getMetadataClass(String className, boolean isLazy);
 
+    /**
+     * INTERNAL:
+     * Read the metadata of the classes not read yet, using the pool to read them in parallel.
+     * The classes are then registered in the order given, so the result is the same as getting them in turn.
+     * By default nothing is read ahead, and the classes are read when first requested.
+     */
+    public void preloadMetadataClasses(Collection<String> classNames, boolean isLazy, ForkJoinPool pool) {
+    }
+
     /**
      * INTERNAL:
      */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -18,12 +18,17 @@
 //       - 487889: Fix EclipseLink Bean Validation optimization
 //     03/09/2016-2.6 Dalia Abo Sheasha
 //       - 489298: Wrap EclipseLink's Bean Validation calls in doPrivileged blocks when security is enabled
+//     Oracle - 3.0.1 - cache validation plans per descriptor, validate only changed attributes on update
+//       in the group Default
 
 package org.eclipse.persistence.internal.jpa.metadata.listeners;
 
 import java.lang.annotation.ElementType;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,6 +40,8 @@
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
 import jakarta.validation.groups.Default;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
 
 import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
@@ -43,9 +50,12 @@
 import org.eclipse.persistence.descriptors.FetchGroupManager;
 import org.eclipse.persistence.internal.localization.ExceptionLocalization;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.mappings.DatabaseMapping;
 import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.queries.ObjectLevelModifyQuery;
+import org.eclipse.persistence.sessions.changesets.ChangeRecord;
 
 /**
  * Responsible for performing automatic bean validation on call back events.
@@ -57,7 +67,13 @@ public class BeanValidationListener extends DescriptorEventAdapter {
     private final Class[] groupPreUpdate;
     private final Class[] groupPreRemove;
     private static final Class[] groupDefault = new Class[]{Default.class};
-    private final Map<ClassDescriptor, Validator> validatorMap;
+    private final Map<ClassDescriptor, ValidationPlan> validationPlans;
+    /**
+     * If true, only the changed attributes are validated on update. The unchanged ones were validated
+     * in the same group when the entity was persisted or last updated, which is only known for the
+     * group Default validated on both persist and update.
+     */
+    private final boolean validatesChangesOnUpdate;
 
     public BeanValidationListener(ValidatorFactory validatorFactory, Class[] groupPrePersit, Class[] groupPreUpdate, Class[] groupPreRemove) {
         this.validatorFactory = validatorFactory;
@@ -66,8 +82,9 @@ public BeanValidationListener(ValidatorFactory validatorFactory, Class[] groupPr
         this.groupPreUpdate = groupPreUpdate != null ? groupPreUpdate : groupDefault;
         //No validation performed on preRemove if user has not explicitly specified a validation group
         this.groupPreRemove = groupPreRemove;
+        this.validatesChangesOnUpdate = Arrays.equals(this.groupPreUpdate, groupDefault) && Arrays.equals(this.groupPrePersit, groupDefault);
 
-        validatorMap = new ConcurrentHashMap<>();
+        validationPlans = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -83,7 +100,7 @@ public void prePersist (DescriptorEvent event) {
         //
         //  preInsert can be used to work around above issue. Howerver, the JPA spec does not itent it.
         //  This might be corrected in next iteration of spec
-        validateOnCallbackEvent(event, "prePersist", groupPrePersit);
+        validateOnCallbackEvent(event, "prePersist", groupPrePersit, null);
     }
 
     @Override
@@ -93,7 +110,12 @@ public void aboutToUpdate(DescriptorEvent event) {
         // preUpdate is also generated for deleted objects that were modified in this UOW.
         // Do not perform preUpdate validation for such objects as preRemove would have already been called.
         if(!unitOfWork.isObjectDeleted(source)) {
-            validateOnCallbackEvent(event, "preUpdate", groupPreUpdate);
+            // Only the changed attributes are validated if the change set of the object is known.
+            ObjectChangeSet changeSet = null;
+            if (validatesChangesOnUpdate && event.getQuery() instanceof ObjectLevelModifyQuery) {
+                changeSet = ((ObjectLevelModifyQuery) event.getQuery()).getObjectChangeSet();
+            }
+            validateOnCallbackEvent(event, "preUpdate", groupPreUpdate, changeSet);
         }
     }
 
@@ -105,39 +127,80 @@ public void preUpdateWithChanges(DescriptorEvent event) {
     @Override
     public void preRemove (DescriptorEvent event) {
         if(groupPreRemove != null) { //No validation performed on preRemove if user has not explicitly specified a validation group
-           validateOnCallbackEvent(event, "preRemove", groupPreRemove);
+           validateOnCallbackEvent(event, "preRemove", groupPreRemove, null);
         }
     }
 
-    private void validateOnCallbackEvent(DescriptorEvent event, String callbackEventName, Class[] validationGroup) {
+    private void validateOnCallbackEvent(DescriptorEvent event, String callbackEventName, Class[] validationGroup, ObjectChangeSet changeSet) {
         Object source = event.getSource();
-        Validator validator = getValidator(event);
-        boolean isBeanConstrained = isBeanConstrained(source, validator);
+        ValidationPlan plan = getValidationPlan(event);
         boolean noOptimization = "true".equalsIgnoreCase((String) event.getSession().getProperty(PersistenceUnitProperties.BEAN_VALIDATION_NO_OPTIMISATION));
-        boolean shouldValidate = noOptimization || isBeanConstrained;
-        if (shouldValidate) {
-            Set<ConstraintViolation<Object>> constraintViolations = validate(source, validationGroup, validator);
-            if (constraintViolations.size() > 0) {
-                // There were errors while call to validate above.
-                // Throw a ConstrainViolationException as required by the spec.
-                // The transaction would be rolled back automatically
-                throw new ConstraintViolationException(
-                        ExceptionLocalization.buildMessage("bean_validation_constraint_violated",
-                                new Object[]{callbackEventName, source.getClass().getName()}),
-                        (Set<ConstraintViolation<?>>) (Object) constraintViolations); /* Do not remove the explicit
-                        cast. This issue is related to capture#a not being instance of capture#b. */
+        Set<ConstraintViolation<Object>> constraintViolations;
+        if (noOptimization) {
+            constraintViolations = validate(source, validationGroup, plan.validator);
+        } else if (source.getClass() != plan.beanClass) {
+            // The plan is of the class of the descriptor, check the class of the bean itself.
+            if (!getConstraintsForClass(source.getClass(), plan.validator).isBeanConstrained()) {
+                return;
             }
+            constraintViolations = validate(source, validationGroup, plan.validator);
+        } else if (!plan.isBeanConstrained) {
+            return;
+        } else if (changeSet == null) {
+            constraintViolations = validate(source, validationGroup, plan.validator);
+        } else {
+            constraintViolations = validateChanges(source, changeSet, validationGroup, plan);
+        }
+        if (constraintViolations.size() > 0) {
+            // There were errors while call to validate above.
+            // Throw a ConstrainViolationException as required by the spec.
+            // The transaction would be rolled back automatically
+            throw new ConstraintViolationException(
+                    ExceptionLocalization.buildMessage("bean_validation_constraint_violated",
+                            new Object[]{callbackEventName, source.getClass().getName()}),
+                    (Set<ConstraintViolation<?>>) (Object) constraintViolations); /* Do not remove the explicit
+                    cast. This issue is related to capture#a not being instance of capture#b. */
         }
     }
 
-    private Validator getValidator(DescriptorEvent event) {
+    /**
+     * Validates the changed constrained attributes of the bean only, or the whole bean if a change may
+     * affect its class level constraints or an embeddable it cascades to.
+     */
+    private Set<ConstraintViolation<Object>> validateChanges(Object source, ObjectChangeSet changeSet, Class[] validationGroup, ValidationPlan plan) {
+        if (plan.validatesWholeBean) {
+            return changeSet.hasChanges() ? validate(source, validationGroup, plan.validator) : Collections.<ConstraintViolation<Object>>emptySet();
+        }
+        for (ChangeRecord changeRecord : changeSet.getChanges()) {
+            if (plan.cascadedAttributes.contains(changeRecord.getAttribute())) {
+                return validate(source, validationGroup, plan.validator);
+            }
+        }
+        Set<ConstraintViolation<Object>> constraintViolations = Collections.emptySet();
+        for (ChangeRecord changeRecord : changeSet.getChanges()) {
+            String attributeName = changeRecord.getAttribute();
+            if (plan.constrainedAttributes.contains(attributeName)) {
+                Set<ConstraintViolation<Object>> violations = validateProperty(source, attributeName, validationGroup, plan.validator);
+                if (constraintViolations.isEmpty()) {
+                    constraintViolations = violations;
+                } else if (!violations.isEmpty()) {
+                    constraintViolations = new HashSet<>(constraintViolations);
+                    constraintViolations.addAll(violations);
+                }
+            }
+        }
+        return constraintViolations;
+    }
+
+    private ValidationPlan getValidationPlan(DescriptorEvent event) {
         ClassDescriptor descriptor = event.getDescriptor();
-        Validator res = validatorMap.get(descriptor);
+        ValidationPlan res = validationPlans.get(descriptor);
         if (res == null) {
             TraversableResolver traversableResolver = new AutomaticLifeCycleValidationTraversableResolver(descriptor);
-            res = validatorFactory.usingContext().traversableResolver(traversableResolver).getValidator();
+            Validator validator = validatorFactory.usingContext().traversableResolver(traversableResolver).getValidator();
+            res = new ValidationPlan(descriptor, validator, getConstraintsForClass(descriptor.getJavaClass(), validator));
 
-            Validator t = validatorMap.put(descriptor, res);
+            ValidationPlan t = validationPlans.put(descriptor, res);
             if (t != null) {
                 // Threading collision, use existing
                 res = t;
@@ -148,21 +211,21 @@ private Validator getValidator(DescriptorEvent event) {
     }
 
     /**
-     * Returns if a bean/entity is constrained by calling the bean validation provider's
-     * #jakarta.validation.metadata.BeanDescriptor.isBeanConstrained method.
+     * Returns the constraints of a bean/entity class, as described by the bean validation provider's
+     * #jakarta.validation.metadata.BeanDescriptor.
      */
-    private boolean isBeanConstrained(final Object source, final Validator validator) {
+    private BeanDescriptor getConstraintsForClass(final Class<?> beanClass, final Validator validator) {
         // If Java Security is enabled, surround this call with a doPrivileged block.
         if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
-            return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            return AccessController.doPrivileged(new PrivilegedAction<BeanDescriptor>() {
                 @Override
-                public Boolean run() {
-                    return validator.getConstraintsForClass(source.getClass()).isBeanConstrained();
+                public BeanDescriptor run() {
+                    return validator.getConstraintsForClass(beanClass);
 
                 }
             });
         } else {
-            return validator.getConstraintsForClass(source.getClass()).isBeanConstrained();
+            return validator.getConstraintsForClass(beanClass);
         }
     }
 
@@ -181,6 +244,68 @@ public Set<ConstraintViolation<Object>> run() {
         }
     }
 
+    private Set<ConstraintViolation<Object>> validateProperty(final Object source, final String propertyName, final Class[] validationGroup, final Validator validator) {
+        // If Java Security is enabled, surround this call with a doPrivileged block.
+        if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+            return AccessController.doPrivileged(new PrivilegedAction<Set<ConstraintViolation<Object>>>() {
+                @Override
+                public Set<ConstraintViolation<Object>> run() {
+                    return validator.validateProperty(source, propertyName, validationGroup);
+
+                }
+            });
+        } else {
+            return validator.validateProperty(source, propertyName, validationGroup);
+        }
+    }
+
+    /**
+     * The validator of the entities of a descriptor, with what their constraints require to be validated,
+     * computed once from the constraints of the class of the descriptor.
+     */
+    private static final class ValidationPlan {
+
+        private final Class<?> beanClass;
+        private final Validator validator;
+
+        /** If false, the beans are not validated. */
+        private final boolean isBeanConstrained;
+
+        /** If true, any change of a bean validates it whole, for class level constraints or constraints on unmapped properties. */
+        private final boolean validatesWholeBean;
+
+        /** The constrained attributes, validated on their own when changed. */
+        private final Set<String> constrainedAttributes;
+
+        /** The attributes cascading validation into embeddables, a change of which validates the whole bean. */
+        private final Set<String> cascadedAttributes;
+
+        ValidationPlan(ClassDescriptor descriptor, Validator validator, BeanDescriptor beanDescriptor) {
+            this.beanClass = descriptor.getJavaClass();
+            this.validator = validator;
+            this.isBeanConstrained = beanDescriptor.isBeanConstrained();
+            boolean validatesWholeBean = beanDescriptor.hasConstraints();
+            Set<String> constrainedAttributes = new HashSet<>();
+            Set<String> cascadedAttributes = new HashSet<>();
+            for (PropertyDescriptor property : beanDescriptor.getConstrainedProperties()) {
+                String propertyName = property.getPropertyName();
+                DatabaseMapping mapping = descriptor.getObjectBuilder().getMappingForAttributeName(propertyName);
+                if (mapping == null) {
+                    validatesWholeBean = true;
+                } else {
+                    constrainedAttributes.add(propertyName);
+                    // Validation is not cascaded to relationships, see AutomaticLifeCycleValidationTraversableResolver.
+                    if (property.isCascaded() && !mapping.isForeignReferenceMapping()) {
+                        cascadedAttributes.add(propertyName);
+                    }
+                }
+            }
+            this.validatesWholeBean = validatesWholeBean;
+            this.constrainedAttributes = constrainedAttributes;
+            this.cascadedAttributes = cascadedAttributes;
+        }
+    }
+
     /**
      * This traversable resolver ensures that validation is not cascaded to any associations and no lazily loaded
      * attribute is loaded as a side effect of validation
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -46,6 +46,12 @@ public MethodSerialImpl(Method method) {
         }
     }
 
+    public MethodSerialImpl(String methodName, String declaringClassName, java.util.List<String> paramList) {
+        this.methodName = methodName;
+        this.declaringClassName = declaringClassName;
+        this.paramList = paramList;
+    }
+
     public Method convertToMethod(ClassLoader loader) throws NoSuchMethodException {
         //Build the class
         Class declaringClass = null;
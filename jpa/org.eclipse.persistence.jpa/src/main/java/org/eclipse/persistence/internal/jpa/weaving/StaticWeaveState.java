@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jpa.weaving;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: State of the last incremental static weaving, so the classes unchanged since are not woven again.
+ * <p><b>Description</b>: The state holds a key of what the weaving of all classes depends on (the EclipseLink version
+ * and the persistence unit configuration), and for each class entry the hash of its bytes and its woven bytes,
+ * if it was woven. A class whose hash is unchanged is output from the state without loading or weaving it.
+ * The state is stored in a binary file, written to a temporary file then renamed.
+ */
+public class StaticWeaveState {
+    /** Marks the file as a static weaving state, "ELSW". */
+    public static final int MAGIC = 0x454C5357;
+    /** Version of the file format, incremented on incompatible changes. */
+    public static final int FORMAT_VERSION = 1;
+    protected static final String HASH_ALGORITHM = "SHA-256";
+
+    /** Hash of what the weaving of all classes depends on. */
+    protected byte[] key;
+    /** Hash of the bytes of each class entry, by entry name. */
+    protected Map<String, byte[]> hashes;
+    /** Woven bytes of each woven class entry, by entry name. */
+    protected Map<String, byte[]> wovenBytes;
+
+    public StaticWeaveState(byte[] key) {
+        this.key = key;
+        this.hashes = new TreeMap<>();
+        this.wovenBytes = new TreeMap<>();
+    }
+
+    /**
+     * Return the state stored in the file, or null if there is none, or one of another format or key.
+     */
+    public static StaticWeaveState read(File file, byte[] key) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if ((in.readInt() != MAGIC) || (in.readInt() != FORMAT_VERSION) || !Arrays.equals(key, readBytes(in))) {
+                return null;
+            }
+            StaticWeaveState state = new StaticWeaveState(key);
+            int count = in.readInt();
+            for (int index = 0; index < count; index++) {
+                String entryName = in.readUTF();
+                byte[] hash = readBytes(in);
+                byte[] bytes = in.readBoolean() ? readBytes(in) : null;
+                state.add(entryName, hash, bytes);
+            }
+            return state;
+        }
+    }
+
+    /**
+     * Write the state to the file, replacing the existing one.
+     */
+    public void write(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeBytes(out, this.key);
+                out.writeInt(this.hashes.size());
+                for (Map.Entry<String, byte[]> entry : this.hashes.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    writeBytes(out, entry.getValue());
+                    byte[] bytes = this.wovenBytes.get(entry.getKey());
+                    out.writeBoolean(bytes != null);
+                    if (bytes != null) {
+                        writeBytes(out, bytes);
+                    }
+                }
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporaryFile = null;
+        } finally {
+            if (temporaryFile != null) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Add the class entry with the hash of its bytes, and its woven bytes, null if not woven.
+     */
+    public void add(String entryName, byte[] hash, byte[] wovenBytes) {
+        this.hashes.put(entryName, hash);
+        if (wovenBytes != null) {
+            this.wovenBytes.put(entryName, wovenBytes);
+        }
+    }
+
+    /**
+     * Return if the class entry is in the state with the same hash.
+     * When weaving in place, the entry may also have the hash of its woven bytes.
+     */
+    public boolean isUnchanged(String entryName, byte[] hash) {
+        byte[] previousHash = this.hashes.get(entryName);
+        if (previousHash == null) {
+            return false;
+        }
+        if (Arrays.equals(previousHash, hash)) {
+            return true;
+        }
+        byte[] bytes = this.wovenBytes.get(entryName);
+        return (bytes != null) && Arrays.equals(hash(bytes), hash);
+    }
+
+    /**
+     * Return the woven bytes of the class entry, or null if it was not woven.
+     */
+    public byte[] getWovenBytes(String entryName) {
+        return this.wovenBytes.get(entryName);
+    }
+
+    /**
+     * Return the names of the class entries that were woven.
+     */
+    public Iterable<String> getWovenEntryNames() {
+        return this.wovenBytes.keySet();
+    }
+
+    /**
+     * Return a new digest to compute hashes with.
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) {
+            // SHA-256 is required on all Java platforms.
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Return the hash of the bytes.
+     */
+    public static byte[] hash(byte[] bytes) {
+        return newDigest().digest(bytes);
+    }
+
+    protected static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    protected static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.metadata;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import jakarta.persistence.spi.PersistenceUnitInfo;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.jpa.deployment.BinaryProjectReader;
+import org.eclipse.persistence.internal.jpa.deployment.BinaryProjectWriter;
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * <p><b>Purpose</b>: Store the project representing application metadata in a versioned binary file,
+ * only read back while the application classes and mapping files are unchanged.
+ * <p><b>Description</b>: The file starts with a header holding the file format version,
+ * a SHA-256 hash of the persistence unit properties and the stamps of the files the project was built from.
+ * The stamps are recorded when the project is stored: the last modified time and length of the
+ * jar files holding the classes of the project and the mapping files, of the class files found in
+ * directories, and a checksum of the times and lengths of the class files under a directory root of
+ * the persistence unit, so a class added to it is detected.
+ * When deployed for a persistence unit, the classes are all the classes it resolves to, its jar files
+ * and root are stamped, and its mapping files and persistence.xml files are stamped with the standard ones.
+ * Otherwise the classes are the project's classes, with the standard ORM mapping files.
+ * When retrieving, the file is memory-mapped and the header checked first, only the stamps are read again:
+ * if the format version or the properties differ, or a file changed, no project is returned,
+ * so the metadata is processed and the file written again.
+ * The project itself follows the header, written by the {@link BinaryProjectWriter} once metadata
+ * processing is complete, so its descriptors and mappings are rebuilt without processing the metadata again.
+ * The file is written to a temporary file then renamed, so a concurrent reader never sees a partial file.
+ *
+ * @see PersistenceUnitProperties#PROJECT_CACHE
+ * @see PersistenceUnitProperties#PROJECT_CACHE_BINARY_FILE
+ */
+public class BinaryFileProjectCache extends FileBasedProjectCache {
+    /** Marks the file as a binary project cache, "ELPC". */
+    public static final int MAGIC = 0x454C5043;
+    /** Version of the file format, incremented on incompatible changes. */
+    public static final int FORMAT_VERSION = 2;
+    protected static final String HASH_ALGORITHM = "SHA-256";
+    protected static final String[] MAPPING_FILES = {"META-INF/orm.xml", "META-INF/eclipselink-orm.xml"};
+
+    // Stamp types.
+    /** Last modified time and length of a file. */
+    protected static final byte FILE_STAMP = 1;
+    /** Checksum of the last modified times and lengths of the class files under a directory, and their count. */
+    protected static final byte DIRECTORY_STAMP = 2;
+    /** Last modified time and length of a resource that is not a file. */
+    protected static final byte URL_STAMP = 3;
+
+    /** Loader the project was retrieved with, used to find the class files when storing it. */
+    protected ClassLoader loader;
+
+    /** Persistence unit the project is deployed for, null if unknown. */
+    protected PersistenceUnitInfo persistenceUnitInfo;
+
+    /**
+     * Hash of the persistence unit properties computed when retrieving the project.
+     * The project is stored with the deploy properties, the properties are hashed with the predeploy properties it was retrieved with.
+     */
+    protected byte[] propertiesHash;
+
+    /**
+     * Set the persistence unit the project is deployed for, its jar files, root and mapping files are then stamped.
+     */
+    public void setPersistenceUnitInfo(PersistenceUnitInfo persistenceUnitInfo) {
+        this.persistenceUnitInfo = persistenceUnitInfo;
+    }
+
+    @Override
+    public Project retrieveProject(Map properties, ClassLoader loader, SessionLog log) {
+        this.loader = loader;
+        this.propertiesHash = null;
+        String fileName = getFileName(properties, log);
+        if (fileName == null) {
+            return null;
+        }
+        File file = new File(fileName);
+        try {
+            this.propertiesHash = computeHash(properties);
+            if (!file.isFile()) {
+                return null;
+            }
+        } catch (Exception exception) {
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if ((buffer.remaining() < 8) || (buffer.getInt() != MAGIC) || (buffer.getInt() != FORMAT_VERSION)) {
+                log.log(SessionLog.FINER, SessionLog.JPA, "project_cache_stale", new Object[]{fileName});
+                return null;
+            }
+            byte[] hash = new byte[buffer.getInt()];
+            buffer.get(hash);
+            if (!Arrays.equals(hash, this.propertiesHash)) {
+                log.log(SessionLog.FINER, SessionLog.JPA, "project_cache_stale", new Object[]{fileName});
+                return null;
+            }
+            int count = buffer.getInt();
+            for (int index = 0; index < count; index++) {
+                byte type = buffer.get();
+                String location = readString(buffer);
+                long first = buffer.getLong();
+                long second = buffer.getLong();
+                long[] stamp = computeStamp(type, location);
+                if ((stamp == null) || (stamp[0] != first) || (stamp[1] != second)) {
+                    log.log(SessionLog.FINER, SessionLog.JPA, "project_cache_stale", new Object[]{fileName});
+                    return null;
+                }
+            }
+            int length = buffer.getInt();
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            return BinaryProjectReader.read(new ByteBufferInputStream(payload), loader);
+        } catch (Exception exception) {
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+        }
+        return null;
+    }
+
+    @Override
+    public void storeProject(Project project, Map properties, SessionLog log) {
+        String fileName = getFileName(properties, log);
+        if (fileName == null) {
+            return;
+        }
+        File file = new File(fileName);
+        File temporaryFile = null;
+        try {
+            ClassLoader loader = this.loader;
+            if (loader == null) {
+                loader = Thread.currentThread().getContextClassLoader();
+            }
+            byte[] hash = this.propertiesHash;
+            if (hash == null) {
+                hash = computeHash(properties);
+            }
+            Map<String, long[]> stamps = computeStamps(project, properties, loader);
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(16 * 1024);
+            BinaryProjectWriter.write(project, payload);
+            File directory = file.getAbsoluteFile().getParentFile();
+            temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(hash.length);
+                out.write(hash);
+                out.writeInt(stamps.size());
+                for (Map.Entry<String, long[]> entry : stamps.entrySet()) {
+                    out.writeByte(entry.getKey().charAt(0));
+                    writeString(out, entry.getKey().substring(1));
+                    out.writeLong(entry.getValue()[0]);
+                    out.writeLong(entry.getValue()[1]);
+                }
+                out.writeInt(payload.size());
+                payload.writeTo(out);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temporaryFile = null;
+        } catch (Exception exception) {
+            // The session is still usable, just not cachable so log a warning.
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+        } finally {
+            if (temporaryFile != null) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Return the name of the file to use, or null if not configured.
+     */
+    protected String getFileName(Map properties, SessionLog log) {
+        String fileName = (String)getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_BINARY_FILE, properties, log);
+        if ((fileName == null) || (fileName.length() == 0)) {
+            return null;
+        }
+        return fileName;
+    }
+
+    /**
+     * Return the names of the classes of the project's descriptors.
+     */
+    protected Collection<String> getClassNames(Project project) {
+        Set<String> classNames = new TreeSet<>();
+        for (ClassDescriptor descriptor : project.getOrderedDescriptors()) {
+            if (descriptor.getJavaClassName() != null) {
+                classNames.add(descriptor.getJavaClassName());
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Return the names of all the classes the persistence unit resolves to.
+     * Only scanned when the project is stored, the stamps of their files are checked when retrieving it.
+     */
+    protected Collection<String> getPersistenceUnitClassNames(PersistenceUnitInfo persistenceUnitInfo, Map properties) {
+        return new TreeSet<>(PersistenceUnitProcessor.buildClassSet(persistenceUnitInfo, properties));
+    }
+
+    /**
+     * Return the stamps of the files the project was built from, keyed by their type and location.
+     */
+    protected Map<String, long[]> computeStamps(Project project, Map properties, ClassLoader loader) throws IOException, URISyntaxException {
+        Map<String, long[]> stamps = new LinkedHashMap<>();
+        Set<String> mappingFiles = new TreeSet<>(Arrays.asList(MAPPING_FILES));
+        Collection<String> classNames;
+        if (this.persistenceUnitInfo != null) {
+            classNames = getPersistenceUnitClassNames(this.persistenceUnitInfo, properties);
+            if (this.persistenceUnitInfo.getPersistenceUnitRootUrl() != null) {
+                addStamp(stamps, this.persistenceUnitInfo.getPersistenceUnitRootUrl());
+            }
+            for (URL url : this.persistenceUnitInfo.getJarFileUrls()) {
+                addStamp(stamps, url);
+            }
+            mappingFiles.addAll(this.persistenceUnitInfo.getMappingFileNames());
+            Object persistenceXml = properties.get(PersistenceUnitProperties.ECLIPSELINK_PERSISTENCE_XML);
+            if (!(persistenceXml instanceof String)) {
+                persistenceXml = PersistenceUnitProperties.ECLIPSELINK_PERSISTENCE_XML_DEFAULT;
+            }
+            mappingFiles.add((String)persistenceXml);
+        } else {
+            classNames = getClassNames(project);
+        }
+        for (String className : classNames) {
+            URL url = loader.getResource(className.replace('.', '/') + ".class");
+            if (url != null) {
+                addStamp(stamps, url);
+            }
+        }
+        for (String mappingFile : mappingFiles) {
+            Enumeration<URL> urls = loader.getResources(mappingFile);
+            while (urls.hasMoreElements()) {
+                addStamp(stamps, urls.nextElement());
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * Add the stamp of the resource: the jar file holding it, the file or directory, or the resource itself.
+     */
+    protected void addStamp(Map<String, long[]> stamps, URL url) throws IOException, URISyntaxException {
+        if ("jar".equals(url.getProtocol())) {
+            String spec = url.getFile();
+            int separator = spec.indexOf("!/");
+            url = new URL((separator == -1) ? spec : spec.substring(0, separator));
+        }
+        byte type;
+        String location;
+        if ("file".equals(url.getProtocol())) {
+            File file = new File(url.toURI());
+            type = file.isDirectory() ? DIRECTORY_STAMP : FILE_STAMP;
+            location = file.getPath();
+        } else {
+            type = URL_STAMP;
+            location = url.toExternalForm();
+        }
+        String key = (char)type + location;
+        if (!stamps.containsKey(key)) {
+            long[] stamp = computeStamp(type, location);
+            if (stamp != null) {
+                stamps.put(key, stamp);
+            }
+        }
+    }
+
+    /**
+     * Return the current stamp of the location, null if it no longer exists.
+     */
+    protected long[] computeStamp(byte type, String location) throws IOException {
+        if (type == FILE_STAMP) {
+            File file = new File(location);
+            return file.isFile() ? new long[] {file.lastModified(), file.length()} : null;
+        } else if (type == DIRECTORY_STAMP) {
+            return computeDirectoryStamp(new File(location).toPath());
+        } else if (type == URL_STAMP) {
+            URLConnection connection = new URL(location).openConnection();
+            connection.setUseCaches(false);
+            long[] stamp = {connection.getLastModified(), connection.getContentLengthLong()};
+            try (InputStream stream = connection.getInputStream()) {
+                // Only opened so the connection is released.
+            } catch (IOException exception) {
+                return null;
+            }
+            return stamp;
+        }
+        return null;
+    }
+
+    /**
+     * Return a checksum of the paths, last modified times and lengths of the class files under the directory,
+     * and their count. Only the file attributes are read, not the class files.
+     */
+    protected long[] computeDirectoryStamp(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IOException(exception);
+        }
+        Map<String, BasicFileAttributes> classFiles = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(path -> path.toString().endsWith(".class")).forEach(path -> {
+                try {
+                    classFiles.put(directory.relativize(path).toString(), Files.readAttributes(path, BasicFileAttributes.class));
+                } catch (IOException exception) {
+                    // Removed while walking, the next walk will not find it either.
+                }
+            });
+        }
+        ByteBuffer attributes = ByteBuffer.allocate(16);
+        for (Map.Entry<String, BasicFileAttributes> entry : classFiles.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            attributes.clear();
+            attributes.putLong(entry.getValue().lastModifiedTime().toMillis());
+            attributes.putLong(entry.getValue().size());
+            digest.update(attributes.array());
+        }
+        return new long[] {ByteBuffer.wrap(digest.digest()).getLong(), classFiles.size()};
+    }
+
+    /**
+     * Return the hash of the persistence unit properties.
+     * Only text values, other values such as a class loader or data source have no stable content.
+     */
+    protected byte[] computeHash(Map properties) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        Map<String, String> textProperties = new TreeMap<>();
+        for (Object entry : properties.entrySet()) {
+            Object key = ((Map.Entry)entry).getKey();
+            Object value = ((Map.Entry)entry).getValue();
+            if ((key instanceof String) && (value instanceof String)) {
+                textProperties.put((String)key, (String)value);
+            }
+        }
+        for (Map.Entry<String, String> entry : textProperties.entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)'=');
+            digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte)0);
+        }
+        return digest.digest();
+    }
+
+    protected static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    protected static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the project directly from the mapped file.
+     */
+    protected static class ByteBufferInputStream extends InputStream {
+        protected final ByteBuffer buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.jpa.metadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.internal.jpa.deployment.JPAProjectClassGenerator;
+import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Project;
+
+/**
+ * <p><b>Purpose</b>: Retrieve the project representing application metadata from a Project subclass
+ * generated at build time, so the persistence unit is deployed without processing the metadata.
+ * <p><b>Description</b>: The project is built by instantiating the class named by
+ * {@link PersistenceUnitProperties#PROJECT_CACHE_GENERATED_CLASS}; if the class is not found, no project
+ * is returned and the metadata is processed as usual.
+ * When {@link PersistenceUnitProperties#PROJECT_CACHE_GENERATED_SOURCE} is set, the source of the class
+ * is generated from the processed project into that directory, which is what the
+ * {@code org.eclipse.persistence.tools.project.jpa.StaticProjectGenerator} build step does.
+ * The generated class references the entity classes, so it must be generated again when they or the
+ * mapping files change, and the entity classes should be statically woven.
+ *
+ * @see PersistenceUnitProperties#PROJECT_CACHE
+ * @see JPAProjectClassGenerator
+ */
+public class GeneratedClassProjectCache extends FileBasedProjectCache {
+
+    @Override
+    public Project retrieveProject(Map properties, ClassLoader loader, SessionLog log) {
+        String className = (String)getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_CLASS, properties, log);
+        if ((className == null) || (className.length() == 0)
+                || (getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_SOURCE, properties, log) != null)) {
+            return null;
+        }
+        try {
+            Class projectClass = PrivilegedAccessHelper.getClassForName(className, true, loader);
+            return (Project)PrivilegedAccessHelper.newInstanceFromClass(projectClass);
+        } catch (ClassNotFoundException notFound) {
+            log.log(SessionLog.FINER, SessionLog.JPA, "project_class_not_found", new Object[]{className});
+        } catch (Exception exception) {
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+        }
+        return null;
+    }
+
+    @Override
+    public void storeProject(Project project, Map properties, SessionLog log) {
+        String className = (String)getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_CLASS, properties, log);
+        String directory = (String)getConfigPropertyLogDebug(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_SOURCE, properties, log);
+        if ((className == null) || (className.length() == 0) || (directory == null) || (directory.length() == 0)) {
+            return;
+        }
+        File file = new File(directory, className.replace('.', File.separatorChar) + ".java");
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        boolean isGenerated = false;
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            // A project the class cannot be generated for throws a ValidationException, failing the build step.
+            JPAProjectClassGenerator.write(project, className, writer);
+            isGenerated = true;
+            log.log(SessionLog.INFO, SessionLog.JPA, "project_class_generated", new Object[]{className, file});
+        } catch (IOException exception) {
+            log.logThrowable(SessionLog.WARNING, SessionLog.JPA, exception);
+        } finally {
+            if (!isGenerated) {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.tools.project.jpa;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.localization.ToStringLocalization;
+import org.eclipse.persistence.jpa.PersistenceProvider;
+
+/**
+ * <p>
+ * <b>Description</b>: Build step processing the metadata of a persistence unit and generating the source of
+ * a Project subclass from it, so the persistence unit is deployed at runtime from the compiled class without
+ * processing the annotations and mapping files.
+ * The persistence unit is deployed in validation only mode, it does not connect to the database.
+ * The generated source must be compiled with the entity classes, and the persistence unit deployed with
+ * {@link PersistenceUnitProperties#PROJECT_CACHE_GENERATED_CLASS} set to the project class name.
+ * The entity classes should be statically woven, as they are loaded with the project class.
+ * <p>
+ *&nbsp;<b>Usage</b>:<br>
+ *&nbsp;&nbsp;StaticProjectGenerator [options] persistenceUnitName projectClassName sourceDirectory<br>
+ *&nbsp;<b>Options</b>:<br>
+ *&nbsp;&nbsp;-classpath<br>
+ *&nbsp;&nbsp;&nbsp;&nbsp;The class path of the entity classes and of the persistence.xml.<br>
+ *&nbsp;&nbsp;-persistencexml<br>
+ *&nbsp;&nbsp;&nbsp;&nbsp;The resource name of the persistence.xml, META-INF/persistence.xml by default.<br>
+ *
+ * @see org.eclipse.persistence.jpa.metadata.GeneratedClassProjectCache
+ */
+public class StaticProjectGenerator {
+
+    private final String[] argv;
+
+    private String[] classpaths;
+
+    private String persistenceXmlLocation;
+
+    private String persistenceUnitName;
+
+    private String projectClassName;
+
+    private String sourceDirectory;
+
+    private PrintStream vout = System.out;
+
+    public static void main(String[] argv) throws Exception {
+        StaticProjectGenerator generator = new StaticProjectGenerator(argv);
+        if (!generator.processCommandLine()) {
+            generator.printUsage();
+            System.exit(1);
+        }
+        generator.start();
+    }
+
+    public StaticProjectGenerator(String[] argv) {
+        this.argv = argv;
+    }
+
+    /**
+     * Deploy the persistence unit in validation only mode, generating the source of the project class.
+     */
+    public void start() throws MalformedURLException {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE, "generated-class");
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_CLASS, this.projectClassName);
+        properties.put(PersistenceUnitProperties.PROJECT_CACHE_GENERATED_SOURCE, this.sourceDirectory);
+        properties.put(PersistenceUnitProperties.VALIDATION_ONLY_PROPERTY, "true");
+        if (this.persistenceXmlLocation != null) {
+            properties.put(PersistenceUnitProperties.ECLIPSELINK_PERSISTENCE_XML, this.persistenceXmlLocation);
+        }
+        ClassLoader loader = getClassLoader();
+        properties.put(PersistenceUnitProperties.CLASSLOADER, loader);
+        Thread thread = Thread.currentThread();
+        ClassLoader contextLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            EntityManagerFactory factory = new PersistenceProvider().createEntityManagerFactory(this.persistenceUnitName, properties);
+            if (factory == null) {
+                throw new IllegalArgumentException(this.persistenceUnitName);
+            }
+            try {
+                // Deploys the persistence unit, which stores the project.
+                factory.getMetamodel();
+            } finally {
+                factory.close();
+            }
+        } finally {
+            thread.setContextClassLoader(contextLoader);
+        }
+    }
+
+    /*
+     * Return false if the command line is invalid.
+     */
+    boolean processCommandLine() {
+        int index = 0;
+        while ((index < this.argv.length) && this.argv[index].startsWith("-")) {
+            if ((index + 1) >= this.argv.length) {
+                return false;
+            }
+            if (this.argv[index].equalsIgnoreCase("-classpath")) {
+                this.classpaths = this.argv[index + 1].split(File.pathSeparator);
+            } else if (this.argv[index].equalsIgnoreCase("-persistencexml")) {
+                this.persistenceXmlLocation = this.argv[index + 1];
+            } else {
+                return false;
+            }
+            index = index + 2;
+        }
+        if ((this.argv.length - index) != 3) {
+            return false;
+        }
+        this.persistenceUnitName = this.argv[index];
+        this.projectClassName = this.argv[index + 1];
+        this.sourceDirectory = this.argv[index + 2];
+        return true;
+    }
+
+    /*
+     * Print command help message.
+     */
+    private void printUsage() {
+        String messageString = ToStringLocalization.buildMessage("staticproject_commandline_help_message_usage");
+        messageString += Helper.cr() + Helper.cr();
+        messageString += ToStringLocalization.buildMessage("staticproject_commandline_help_message_options");
+        messageString += Helper.cr();
+        messageString += ToStringLocalization.buildMessage("staticproject_commandline_help_message_classpath");
+        messageString += Helper.cr();
+        messageString += ToStringLocalization.buildMessage("staticproject_commandline_help_message_persistencexml");
+        messageString += Helper.cr() + Helper.cr();
+        messageString += ToStringLocalization.buildMessage("staticproject_commandline_help_message_description");
+        messageString += Helper.cr();
+        this.vout.println(messageString);
+    }
+
+    /*
+     * Return a loader of the class path, or the context loader if none is given.
+     */
+    private ClassLoader getClassLoader() throws MalformedURLException {
+        ClassLoader parent = Thread.currentThread().getContextClassLoader();
+        if (this.classpaths == null) {
+            return parent;
+        }
+        URL[] urls = new URL[this.classpaths.length];
+        for (int index = 0; index < this.classpaths.length; index++) {
+            urls[index] = new File(this.classpaths[index]).toURI().toURL();
+        }
+        return new URLClassLoader(urls, parent);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -43,7 +43,13 @@
 *&nbsp;&nbsp;-loglevel<br>
 *&nbsp;&nbsp;&nbsp;&nbsp;Specify a literal value for eclipselink log level(OFF,SEVERE,WARNING,INFO,CONFIG,FINE,FINER,FINEST). The default value is OFF.<br>
 *&nbsp;&nbsp;-persistenceinfo<br>
-*&nbsp;&nbsp;&nbsp;&nbsp;The path contains META-INF/persistence.xml. This is ONLY required when the source does not include it.
+*&nbsp;&nbsp;&nbsp;&nbsp;The path contains META-INF/persistence.xml. This is ONLY required when the source does not include it.<br>
+*&nbsp;&nbsp;-classindex<br>
+*&nbsp;&nbsp;&nbsp;&nbsp;Add a class index of the managed classes to the target, used by deployment instead of reading all classes when eclipselink.metadata.class-index is true.<br>
+*&nbsp;&nbsp;-parallelism<br>
+*&nbsp;&nbsp;&nbsp;&nbsp;The number of threads weaving the classes, 1 is the default. The target does not depend on the number of threads.<br>
+*&nbsp;&nbsp;-incremental<br>
+*&nbsp;&nbsp;&nbsp;&nbsp;The path of the file storing the state of the last weaving, only the classes changed since are woven again.<br>
 *&nbsp;The classpath must contain all the classes necessary in oder to perform weaving.<br><br>
 *&nbsp;The weaving will be performed in place if source and target point to the same location. Weaving in place is ONLY applicable for directory-based sources.<br>
 *<b>Example</b>:<br>
@@ -76,6 +82,12 @@ public class StaticWeave {
 
         private String[] classpaths;
 
+        private boolean classIndex;
+
+        private int parallelism = 1;
+
+        private String incrementalStateFile;
+
         public static void main(String[] argv) {
 
             StaticWeave staticweaver = new StaticWeave(argv);
@@ -114,6 +126,11 @@ public void start() throws Exception {
                staticWeaverProcessor.setLog(logWriter);
             }
             staticWeaverProcessor.setLogLevel(loglevel);
+            staticWeaverProcessor.setClassIndex(classIndex);
+            staticWeaverProcessor.setParallelism(parallelism);
+            if (incrementalStateFile != null) {
+                staticWeaverProcessor.setIncrementalStateFile(new File(incrementalStateFile));
+            }
             staticWeaverProcessor.performWeaving();
         }
 
@@ -123,7 +140,7 @@ public void start() throws Exception {
          */
         void processCommandLine() throws Exception
         {
-            if (argv.length < 2 || argv.length>12) {
+            if (argv.length < 2 || argv.length>17) {
                 printUsage();
                 System.exit(1);
             }
@@ -159,6 +176,39 @@ void processCommandLine() throws Exception
                     continue;
                 }
 
+                if (argv[i].equalsIgnoreCase("-classindex")) {
+                    classIndex=true;
+                    continue;
+                }
+
+                if (argv[i].equalsIgnoreCase("-parallelism")) {
+                    if ((i + 1) >= argv.length ){
+                           printUsage();
+                           System.exit(1);
+                    }
+                    try {
+                        parallelism=Integer.parseInt(argv[i+1]);
+                    } catch (NumberFormatException e) {
+                        parallelism=0;
+                    }
+                    if (parallelism < 1) {
+                        printUsage();
+                        System.exit(1);
+                    }
+                    i++;
+                    continue;
+                }
+
+                if (argv[i].equalsIgnoreCase("-incremental")) {
+                    if ((i + 1) >= argv.length ){
+                           printUsage();
+                           System.exit(1);
+                    }
+                    incrementalStateFile=argv[i+1];
+                    i++;
+                    continue;
+                }
+
                 if (argv[i].equalsIgnoreCase("-log")) {
                     if ((i + 1) >= argv.length ){
                            printUsage();
@@ -262,6 +312,18 @@ private void printUsage() {
             messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_12of19");
             messageString += Helper.cr();
             messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_13of19");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_classindex");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_classindex_description");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_parallelism");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_parallelism_description");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_incremental");
+            messageString += Helper.cr();
+            messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_incremental_description");
             messageString += Helper.cr() + Helper.cr();
             messageString += ToStringLocalization.buildMessage("staticweave_commandline_help_message_14of19");
             messageString += Helper.cr();
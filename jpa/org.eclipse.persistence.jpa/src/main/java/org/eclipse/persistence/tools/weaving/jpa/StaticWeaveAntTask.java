@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -50,6 +50,9 @@
 * Otherwise composite persistence unit member may or may not specify persistenceInfo of its composite.
 * <li>log - specify a logging file. This is optional.
 * <li>loglevel - specify a literal value of EclipseLink logging level(OFF,SEVERE,WARNING,INFO,CONFIG,FINE,FINER,FINEST) The default value is OFF(8). This is optional.
+* <li>classindex - if true, add a class index of the managed classes to the target, used by deployment instead of reading all classes when eclipselink.metadata.class-index is true. This is optional, the default value is false.
+* <li>parallelism - specify the number of threads weaving the classes, the target does not depend on it. This is optional, the default value is 1.
+* <li>incremental - specify a file storing the state of the last weaving, only the classes changed since are woven again. This is optional.
 * </ul>
 * <li>The weaving will be performed in place if source and target point to the same location. Weaving in place is ONLY applicable for directory-based sources.
 * </ul>
@@ -78,6 +81,9 @@ public class StaticWeaveAntTask extends Task{
     private Vector classPaths = new Vector();
     private int logLevel = SessionLog.OFF;
     private Writer logWriter;
+    private boolean classIndex;
+    private int parallelism = 1;
+    private File incremental;
 
     /**
      * Set the input archive to be used to weave.
@@ -128,6 +134,18 @@ public void setpersistencexml(String persistenceXMLLocation) {
         this.persistencexml = persistenceXMLLocation;
     }
 
+    public void setClassindex(boolean classIndex) {
+        this.classIndex = classIndex;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public void setIncremental(File incremental) {
+        this.incremental = incremental;
+    }
+
     /**
      * Add the dependent classpath in order to load classes from the specified input jar.
      */
@@ -215,6 +233,9 @@ private void start() {
                weave.setLog(logWriter);
            }
            weave.setLogLevel(this.logLevel);
+           weave.setClassIndex(this.classIndex);
+           weave.setParallelism(this.parallelism);
+           weave.setIncrementalStateFile(this.incremental);
            weave.performWeaving();
        } catch (Exception e) {
            AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.SEVERE, AbstractSessionLog.WEAVER, e);
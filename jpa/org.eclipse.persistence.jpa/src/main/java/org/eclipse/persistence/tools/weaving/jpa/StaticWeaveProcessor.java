@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -26,17 +26,32 @@
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 
+import org.eclipse.persistence.Version;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
 import org.eclipse.persistence.exceptions.StaticWeaveException;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.jpa.deployment.ArchiveFactoryImpl;
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitClassIndex;
 import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
 import org.eclipse.persistence.internal.jpa.weaving.AbstractStaticWeaveOutputHandler;
 import org.eclipse.persistence.internal.jpa.weaving.StaticWeaveDirectoryOutputHandler;
 import org.eclipse.persistence.internal.jpa.weaving.StaticWeaveJAROutputHandler;
+import org.eclipse.persistence.internal.jpa.weaving.StaticWeaveState;
 import org.eclipse.persistence.internal.localization.ToStringLocalization;
 import org.eclipse.persistence.jpa.Archive;
 import org.eclipse.persistence.logging.AbstractSessionLog;
@@ -59,8 +74,13 @@ public class StaticWeaveProcessor {
     private Writer logWriter;
     private ClassLoader classLoader;
     private int logLevel = SessionLog.OFF;
+    private boolean classIndex;
+    private int parallelism = 1;
+    private File incrementalStateFile;
 
     private static final int NUMBER_OF_BYTES = 1024;
+    /** Number of entries read ahead of the one written, per weaving thread. */
+    private static final int ENTRIES_PER_THREAD = 16;
 
     /**
      * Constructs an instance of StaticWeaveProcessor
@@ -98,6 +118,36 @@ public StaticWeaveProcessor(URL source, URL target){
         this.target = target;
     }
 
+    /**
+     * Set if a class index of the managed classes of the source is added to the target.
+     * Deployment then reads the index instead of reading all the classes of the target,
+     * if the persistence unit enables {@link org.eclipse.persistence.config.PersistenceUnitProperties#METADATA_CLASS_INDEX}.
+     * By default (false) no index is added.
+     * @see org.eclipse.persistence.config.PersistenceUnitProperties#METADATA_CLASS_INDEX
+     */
+    public void setClassIndex(boolean classIndex) {
+        this.classIndex = classIndex;
+    }
+
+    /**
+     * Set the number of threads weaving the classes of the source.
+     * The entries of the target are written in the order of the source whatever the number of threads.
+     * By default (1) the classes are woven in turn.
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Set the file storing the state of the last weaving, so only the classes changed since are woven again.
+     * All the classes are woven again if a class woven by the last weaving changed, or if the
+     * persistence unit configuration or EclipseLink version changed.
+     * By default (null) all the classes are woven.
+     */
+    public void setIncrementalStateFile(File incrementalStateFile) {
+        this.incrementalStateFile = incrementalStateFile;
+    }
+
     /**
      * The method allows user to specify the output for the log message.
      * @param logWriter the location where the log message writes to. the default value is standard out
@@ -258,90 +308,234 @@ private void process() throws IOException,URISyntaxException{
         Archive sourceArchive =(new ArchiveFactoryImpl()).createArchive(source, null, null);
         if (sourceArchive != null) {
             try {
-                Iterator entries = sourceArchive.getEntries();
-                while (entries.hasNext()){
-                    String entryName = (String)entries.next();
-                    InputStream entryInputStream = sourceArchive.getEntry(entryName);
-
-                    // Add a directory entry
-                    swoh.addDirEntry(getDirectoryFromEntryName(entryName));
-
-                    // Add a regular entry
-                    JarEntry newEntry = new JarEntry(entryName);
+                processEntries(sourceArchive, swoh, classTransformer);
+                if (this.classIndex) {
+                    ByteArrayOutputStream index = new ByteArrayOutputStream();
+                    PersistenceUnitClassIndex.build(sourceArchive, this.classLoader).write(index);
+                    swoh.addDirEntry(getDirectoryFromEntryName(PersistenceUnitClassIndex.INDEX_ENTRY));
+                    swoh.addEntry(new JarEntry(PersistenceUnitClassIndex.INDEX_ENTRY), index.toByteArray());
+                }
+            } finally {
+                sourceArchive.close();
+                swoh.closeOutputStream();
+            }
+        }
+    }
 
-                    // Ignore non-class files.
-                    if (!entryName.endsWith(".class") || "module-info.class".equals(entryName)) {
-                        swoh.addEntry(entryInputStream, newEntry);
-                        continue;
+    /**
+     * INTERNAL:
+     * Weave the class entries of the source in turn, or on a pool of threads, and/or only those changed since the last weaving.
+     * The entries are read and written in turn in the order of the source, only the weaving is done in parallel.
+     */
+    private void processEntries(Archive sourceArchive, AbstractStaticWeaveOutputHandler swoh,
+            final StaticWeaveClassTransformer classTransformer) throws IOException, URISyntaxException {
+        Map<String, byte[]> hashes = null;
+        StaticWeaveState previousState = null;
+        StaticWeaveState state = null;
+        if (this.incrementalStateFile != null) {
+            hashes = new HashMap<>();
+            byte[] key = buildIncrementalStateKey(sourceArchive, hashes);
+            previousState = StaticWeaveState.read(this.incrementalStateFile, key);
+            if ((previousState != null) && !isIncrementalStateValid(previousState, hashes)) {
+                AbstractSessionLog.getLog().log(SessionLog.FINE, SessionLog.WEAVER, ToStringLocalization.buildMessage(
+                        "staticweave_processor_state_ignored", new Object[] {this.incrementalStateFile}), null, false);
+                previousState = null;
+            }
+            state = new StaticWeaveState(key);
+        }
+        boolean inPlace = isDirectory(this.source)
+                && new File(Helper.toURI(this.source)).getAbsoluteFile().equals(new File(Helper.toURI(this.target)).getAbsoluteFile());
+        ForkJoinPool pool = (this.parallelism > 1) ? new ForkJoinPool(this.parallelism) : null;
+        int window = (pool == null) ? 1 : this.parallelism * ENTRIES_PER_THREAD;
+        Deque<WeaveEntry> pendingEntries = new ArrayDeque<>(window);
+        int unchangedCount = 0;
+        try {
+            Iterator entries = sourceArchive.getEntries();
+            while (entries.hasNext()) {
+                final String entryName = (String)entries.next();
+                // An existing class index is replaced.
+                if (this.classIndex && entryName.equals(PersistenceUnitClassIndex.INDEX_ENTRY)) {
+                    continue;
+                }
+                final WeaveEntry entry = new WeaveEntry(entryName, readEntry(sourceArchive, entryName));
+                if (entryName.endsWith(".class") && !"module-info.class".equals(entryName)) {
+                    if (hashes != null) {
+                        entry.hash = hashes.get(entryName);
                     }
-
-                    String className = PersistenceUnitProcessor.buildClassNameFromEntryString(entryName) ;
-
-                    byte[] originalClassBytes=null;
-                    byte[] transferredClassBytes=null;
-                    try {
-                        Class thisClass = this.classLoader.loadClass(className);
-                        // If the class is not in the classpath, we simply copy the entry
-                        // to the target(no weaving).
-                        if (thisClass == null){
-                            swoh.addEntry(entryInputStream, newEntry);
-                            continue;
-                        }
-
-                        // Try to read the loaded class bytes, the class bytes is required for
-                        // classtransformer to perform transfer. Simply copy entry to the target(no weaving)
-                        // if the class bytes can't be read.
-                        InputStream is = this.classLoader.getResourceAsStream(entryName);
-                        if (is!=null){
-                            ByteArrayOutputStream baos = null;
-                            try{
-                                baos = new ByteArrayOutputStream();
-                                byte[] bytes = new byte[NUMBER_OF_BYTES];
-                                int bytesRead = is.read(bytes, 0, NUMBER_OF_BYTES);
-                                while (bytesRead >= 0){
-                                    baos.write(bytes, 0, bytesRead);
-                                    bytesRead = is.read(bytes, 0, NUMBER_OF_BYTES);
-                                }
-                                originalClassBytes = baos.toByteArray();
-                            } finally {
-                                baos.close();
-                                is.close();
+                    if ((previousState != null) && previousState.isUnchanged(entryName, entry.hash)) {
+                        entry.wovenBytes = previousState.getWovenBytes(entryName);
+                        unchangedCount++;
+                    } else if (pool == null) {
+                        entry.wovenBytes = weaveClass(entryName, classTransformer);
+                    } else {
+                        entry.weaving = pool.submit(new Callable<byte[]>() {
+                            @Override
+                            public byte[] call() {
+                                return weaveClass(entryName, classTransformer);
                             }
-                        } else {
-                            swoh.addEntry(entryInputStream, newEntry);
-                            continue;
-                        }
-
-                        // If everything is OK so far, we perform the weaving. we need three parameters in order to
-                        // class to perform weaving for that class, the class name,the class object and class bytes.
-                        transferredClassBytes = classTransformer.transform(className.replace('.', '/'), thisClass, originalClassBytes);
-
-                        // If transferredClassBytes is null means the class dose not get woven.
-                        if (transferredClassBytes!=null){
-                            swoh.addEntry(newEntry, transferredClassBytes);
-                        } else {
-                            swoh.addEntry(entryInputStream, newEntry);
-                        }
-                    } catch (IllegalClassFormatException e) {
-                        AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
-                        // Anything went wrong, we need log a warning message, copy the entry to the target and
-                        // process next entry.
-                        swoh.addEntry(entryInputStream, newEntry);
-                        continue;
-                    } catch (ClassNotFoundException e) {
-                        AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
-                        swoh.addEntry(entryInputStream, newEntry);
-                        continue;
-                    } finally {
-                        // Need close the inputstream for current entry before processing next one.
-                        entryInputStream.close();
+                        });
                     }
                 }
-            } finally {
-                sourceArchive.close();
-                swoh.closeOutputStream();
+                pendingEntries.add(entry);
+                while (pendingEntries.size() >= window) {
+                    writeEntry(pendingEntries.poll(), swoh, state, inPlace);
+                }
+            }
+            while (!pendingEntries.isEmpty()) {
+                writeEntry(pendingEntries.poll(), swoh, state, inPlace);
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+        if (state != null) {
+            if (unchangedCount > 0) {
+                AbstractSessionLog.getLog().log(SessionLog.FINE, SessionLog.WEAVER, ToStringLocalization.buildMessage(
+                        "staticweave_processor_classes_unchanged", new Object[] {unchangedCount}), null, false);
+            }
+            state.write(this.incrementalStateFile);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Write the entry, once woven, to the target, and add it to the state.
+     */
+    private void writeEntry(WeaveEntry entry, AbstractStaticWeaveOutputHandler swoh, StaticWeaveState state, boolean inPlace) throws IOException {
+        if (entry.weaving != null) {
+            try {
+                entry.wovenBytes = entry.weaving.get();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw StaticWeaveException.exceptionPerformWeaving(exception, this.source);
+            } catch (ExecutionException exception) {
+                Throwable cause = exception.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException)cause;
+                } else if (cause instanceof Error) {
+                    throw (Error)cause;
+                }
+                throw StaticWeaveException.exceptionPerformWeaving((Exception)cause, this.source);
+            }
+        }
+        if ((state != null) && (entry.hash != null)) {
+            state.add(entry.name, entry.hash, entry.wovenBytes);
+        }
+        byte[] bytes = (entry.wovenBytes != null) ? entry.wovenBytes : entry.bytes;
+        // Weaving in place, an entry left as is does not need to be written again.
+        if (inPlace && Arrays.equals(bytes, entry.bytes)) {
+            return;
+        }
+        swoh.addDirEntry(getDirectoryFromEntryName(entry.name));
+        swoh.addEntry(new JarEntry(entry.name), bytes);
+    }
+
+    /**
+     * INTERNAL:
+     * Return the woven bytes of the class entry, or null if it is not woven.
+     * The class bytes woven are those of the class loaded, read from the class loader.
+     * Called from the weaving threads, the class loader and transformer support concurrent use.
+     */
+    private byte[] weaveClass(String entryName, StaticWeaveClassTransformer classTransformer) {
+        String className = PersistenceUnitProcessor.buildClassNameFromEntryString(entryName);
+        try {
+            Class thisClass = this.classLoader.loadClass(className);
+            // If the class is not in the classpath, or its bytes can't be read,
+            // we simply copy the entry to the target(no weaving).
+            if (thisClass == null) {
+                return null;
+            }
+            InputStream stream = this.classLoader.getResourceAsStream(entryName);
+            if (stream == null) {
+                return null;
+            }
+            return classTransformer.transform(className.replace('.', '/'), thisClass, readStream(stream));
+        } catch (IllegalClassFormatException | ClassNotFoundException | IOException e) {
+            // Anything went wrong, we need log a warning message and copy the entry to the target.
+            AbstractSessionLog.getLog().logThrowable(AbstractSessionLog.WARNING, AbstractSessionLog.WEAVER, e);
+            return null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the key of the incremental state, the hash of the EclipseLink version and of the XML entries of the source
+     * and persistence info, and collect the hash of each class entry.
+     */
+    private byte[] buildIncrementalStateKey(Archive sourceArchive, Map<String, byte[]> hashes) throws IOException {
+        MessageDigest digest = StaticWeaveState.newDigest();
+        digest.update(Version.getVersionString().getBytes(StandardCharsets.UTF_8));
+        Iterator entries = sourceArchive.getEntries();
+        while (entries.hasNext()) {
+            String entryName = (String)entries.next();
+            if (entryName.endsWith(".class")) {
+                hashes.put(entryName, StaticWeaveState.hash(readEntry(sourceArchive, entryName)));
+            } else if (entryName.endsWith(".xml")) {
+                digest.update(entryName.getBytes(StandardCharsets.UTF_8));
+                digest.update(readEntry(sourceArchive, entryName));
+            }
+        }
+        if (this.persistenceInfo != null) {
+            String location = (this.persistenceXMLLocation == null) ? PersistenceUnitProperties.ECLIPSELINK_PERSISTENCE_XML_DEFAULT : this.persistenceXMLLocation;
+            try (URLClassLoader loader = new URLClassLoader(new URL[] {this.persistenceInfo}, null)) {
+                InputStream stream = loader.getResourceAsStream(location);
+                if (stream != null) {
+                    digest.update(readStream(stream));
+                }
             }
         }
+        return digest.digest();
+    }
+
+    /**
+     * INTERNAL:
+     * Return if none of the classes woven by the last weaving changed, their weaving may depend on each other.
+     */
+    private boolean isIncrementalStateValid(StaticWeaveState previousState, Map<String, byte[]> hashes) {
+        for (String entryName : previousState.getWovenEntryNames()) {
+            byte[] hash = hashes.get(entryName);
+            if ((hash == null) || !previousState.isUnchanged(entryName, hash)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] readEntry(Archive archive, String entryName) throws IOException {
+        return readStream(archive.getEntry(entryName));
+    }
+
+    private static byte[] readStream(InputStream stream) throws IOException {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            byte[] bytes = new byte[NUMBER_OF_BYTES];
+            int bytesRead = stream.read(bytes, 0, NUMBER_OF_BYTES);
+            while (bytesRead >= 0) {
+                baos.write(bytes, 0, bytesRead);
+                bytesRead = stream.read(bytes, 0, NUMBER_OF_BYTES);
+            }
+            return baos.toByteArray();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * An entry of the source, with its woven bytes once woven.
+     */
+    private static class WeaveEntry {
+        final String name;
+        final byte[] bytes;
+        byte[] hash;
+        byte[] wovenBytes;
+        Future<byte[]> weaving;
+
+        WeaveEntry(String name, byte[] bytes) {
+            this.name = name;
+            this.bytes = bytes;
+        }
     }
 
     //Extract directory from entry name.
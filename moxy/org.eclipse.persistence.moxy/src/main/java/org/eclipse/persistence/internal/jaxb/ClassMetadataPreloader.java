@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jaxb;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
+import org.eclipse.persistence.jaxb.MOXySystemProperties;
+import org.eclipse.persistence.jaxb.TypeMappingInfo;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose:</b>Load the classes reachable from the classes to be bound to a JAXBContext, in parallel,
+ * before they are processed.
+ * <p><b>Responsibilities:</b><ul>
+ * <li>Load each class with its declared fields and methods, and parse their annotations</li>
+ * <li>Follow the superclass, field types, and method return and parameter types, including type arguments</li>
+ * <li>Leave any failure to the annotation processing, which reports it as usual</li></ul>
+ * <p>The annotation processing and mapping generation stay sequential, as processing a class discovers
+ * the classes it references. The reflective metadata they read is cached by the JDK, so reading it ahead
+ * on a fork join pool takes the class loading and annotation parsing off the sequential path.
+ *
+ * @see org.eclipse.persistence.jaxb.JAXBContextProperties#CLASS_PRELOADING_PARALLELISM
+ */
+public class ClassMetadataPreloader {
+
+    private final Set<Class<?>> visitedClasses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Return the number of threads to preload the classes on, from the properties or else the system property,
+     * 0 if they are not preloaded.
+     */
+    public static int getParallelism(Map properties) {
+        Object parallelism = null;
+        if (properties != null) {
+            parallelism = properties.get(JAXBContextProperties.CLASS_PRELOADING_PARALLELISM);
+        }
+        if (parallelism == null) {
+            parallelism = MOXySystemProperties.classPreloadingParallelism;
+        }
+        if (parallelism instanceof Number) {
+            return ((Number) parallelism).intValue();
+        }
+        if (parallelism instanceof String && !((String) parallelism).trim().isEmpty()) {
+            return Integer.parseInt(((String) parallelism).trim());
+        }
+        return 0;
+    }
+
+    /**
+     * Preload the classes reachable from the types on the given number of threads, if greater than 0.
+     */
+    public static void preload(Type[] types, int parallelism) {
+        if (parallelism <= 0 || types == null || types.length == 0) {
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ClassMetadataPreloader().new PreloadTypes(types));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Preload the classes reachable from the types of the TypeMappingInfos on the given number of threads, if greater than 0.
+     */
+    public static void preload(TypeMappingInfo[] typeMappingInfos, int parallelism) {
+        if (parallelism <= 0 || typeMappingInfos == null) {
+            return;
+        }
+        Type[] types = new Type[typeMappingInfos.length];
+        for (int index = 0; index < typeMappingInfos.length; index++) {
+            types[index] = typeMappingInfos[index].getType();
+        }
+        preload(types, parallelism);
+    }
+
+    /*
+     * Add the classes of the type, its type arguments and bounds, not already visited.
+     */
+    private void addClasses(Type type, List<Class<?>> classes) {
+        if (type instanceof Class) {
+            Class<?> javaClass = (Class<?>) type;
+            while (javaClass.isArray()) {
+                javaClass = javaClass.getComponentType();
+            }
+            if (!javaClass.isPrimitive() && !isJavaPlatformClass(javaClass) && this.visitedClasses.add(javaClass)) {
+                classes.add(javaClass);
+            }
+        } else if (type instanceof ParameterizedType) {
+            addClasses(((ParameterizedType) type).getRawType(), classes);
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                addClasses(argument, classes);
+            }
+        } else if (type instanceof GenericArrayType) {
+            addClasses(((GenericArrayType) type).getGenericComponentType(), classes);
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                addClasses(bound, classes);
+            }
+        }
+    }
+
+    /*
+     * The JDK and API classes are not bound, so are not followed.
+     */
+    private static boolean isJavaPlatformClass(Class<?> javaClass) {
+        String className = javaClass.getName();
+        return className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("jakarta.");
+    }
+
+    /**
+     * Load the types and fork the loading of the classes they reference.
+     */
+    private class PreloadTypes extends RecursiveAction {
+
+        private final Type[] types;
+
+        PreloadTypes(Type[] types) {
+            this.types = types;
+        }
+
+        @Override
+        protected void compute() {
+            List<Class<?>> classes = new ArrayList<>();
+            for (Type type : this.types) {
+                addClasses(type, classes);
+            }
+            List<PreloadClass> tasks = new ArrayList<>(classes.size());
+            for (Class<?> javaClass : classes) {
+                tasks.add(new PreloadClass(javaClass));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Load the members and annotations of a class, then fork the loading of the classes they reference.
+     */
+    private class PreloadClass extends RecursiveAction {
+
+        private final Class<?> javaClass;
+
+        PreloadClass(Class<?> javaClass) {
+            this.javaClass = javaClass;
+        }
+
+        @Override
+        protected void compute() {
+            List<Type> referencedTypes = new ArrayList<>();
+            try {
+                this.javaClass.getAnnotations();
+                if (this.javaClass.getPackage() != null) {
+                    this.javaClass.getPackage().getAnnotations();
+                }
+                if (this.javaClass.getGenericSuperclass() != null) {
+                    referencedTypes.add(this.javaClass.getGenericSuperclass());
+                }
+                for (Field field : this.javaClass.getDeclaredFields()) {
+                    field.getAnnotations();
+                    referencedTypes.add(field.getGenericType());
+                }
+                for (Method method : this.javaClass.getDeclaredMethods()) {
+                    method.getAnnotations();
+                    referencedTypes.add(method.getGenericReturnType());
+                    for (Type parameterType : method.getGenericParameterTypes()) {
+                        referencedTypes.add(parameterType);
+                    }
+                }
+            } catch (RuntimeException | LinkageError exception) {
+                // Left to the annotation processing to report.
+                return;
+            }
+            new PreloadTypes(referencedTypes.toArray(new Type[referencedTypes.size()])).invoke();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.internal.jaxb;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import org.eclipse.persistence.jaxb.JAXBContext;
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
+import org.eclipse.persistence.jaxb.MOXySystemProperties;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose:</b>Share the JAXBContexts created on the same classes, class loader and properties.
+ * <p><b>Responsibilities:</b><ul>
+ * <li>Key each context on the names of its classes, or its context path, and a copy of its properties</li>
+ * <li>Only share contexts whose properties are simple values, which can be compared</li>
+ * <li>Check the classes of a shared context are the ones asked for, not others of the same names</li></ul>
+ * <p>The contexts are held per class loader in a weak map, through weak references, so a context is
+ * shared while it is in use, and neither the contexts nor the classes they were created on keep their
+ * class loader from being garbage collected. Two callers asking for the same new context at once may
+ * both create it, the first one stored being returned to both.
+ * <p>This is not a cache: a context no longer referenced by any caller is created again, and nothing
+ * is kept across restarts.
+ *
+ * @see org.eclipse.persistence.jaxb.JAXBContextProperties#SHARE_CONTEXTS
+ */
+public final class SharedJAXBContexts {
+
+    private static final Map<ClassLoader, Map<List<Object>, SharedEntry>> CONTEXTS = new WeakHashMap<>();
+
+    private SharedJAXBContexts() {
+    }
+
+    /**
+     * Return if contexts are shared, from the properties or else the system property.
+     */
+    public static boolean isEnabled(Map properties) {
+        Object share = null;
+        if (properties != null) {
+            share = properties.get(JAXBContextProperties.SHARE_CONTEXTS);
+        }
+        if (share == null) {
+            return MOXySystemProperties.shareContexts;
+        }
+        return Boolean.TRUE.equals(share) || "true".equalsIgnoreCase(String.valueOf(share));
+    }
+
+    /**
+     * Return the key of the context on the types and properties, or null if the properties can not be compared.
+     */
+    public static List<Object> buildKey(Type[] types, Map properties) {
+        List<Object> typeNames = new ArrayList<>(types.length);
+        for (Type type : types) {
+            typeNames.add(type.getTypeName());
+        }
+        return buildKey(typeNames, properties);
+    }
+
+    /**
+     * Return the key of the context on the context path and properties, or null if the properties can not be compared.
+     */
+    public static List<Object> buildKey(String contextPath, Map properties) {
+        return buildKey((Object) contextPath, properties);
+    }
+
+    private static List<Object> buildKey(Object bound, Map properties) {
+        Object propertiesKey = null;
+        if (properties != null) {
+            propertiesKey = copyValue(properties);
+            if (propertiesKey == null) {
+                return null;
+            }
+        }
+        return Arrays.asList(bound, propertiesKey);
+    }
+
+    /*
+     * Return a copy of the value which can be compared and does not hold its class loader,
+     * or null if it can not be.
+     */
+    private static Object copyValue(Object value) {
+        if (value instanceof String || value instanceof Boolean || value instanceof Number
+                || value instanceof Character || value instanceof Enum) {
+            return value;
+        }
+        if (value instanceof Class) {
+            return ((Class) value).getName();
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                Object key = copyValue(entry.getKey());
+                Object entryValue = entry.getValue() == null ? null : copyValue(entry.getValue());
+                if (key == null || (entryValue == null && entry.getValue() != null)) {
+                    return null;
+                }
+                copy.put(key, entryValue);
+            }
+            return copy;
+        }
+        if (value instanceof Collection) {
+            List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                Object elementCopy = copyValue(element);
+                if (elementCopy == null) {
+                    return null;
+                }
+                copy.add(elementCopy);
+            }
+            return copy;
+        }
+        return null;
+    }
+
+    /**
+     * Return the context shared for the key and class loader, if it was created on the same types, or else null.
+     */
+    public static JAXBContext get(ClassLoader classLoader, List<Object> key, Object[] types) {
+        SharedEntry entry;
+        synchronized (CONTEXTS) {
+            Map<List<Object>, SharedEntry> contexts = CONTEXTS.get(classLoader);
+            if (contexts == null) {
+                return null;
+            }
+            entry = contexts.get(key);
+        }
+        return entry == null ? null : entry.get(types);
+    }
+
+    /**
+     * Share the context created for the key and class loader, and return it,
+     * or the one shared meanwhile on the same types.
+     */
+    public static JAXBContext put(ClassLoader classLoader, List<Object> key, Object[] types, JAXBContext context) {
+        synchronized (CONTEXTS) {
+            Map<List<Object>, SharedEntry> contexts = CONTEXTS.get(classLoader);
+            if (contexts == null) {
+                contexts = new HashMap<>();
+                CONTEXTS.put(classLoader, contexts);
+            }
+            SharedEntry entry = contexts.get(key);
+            JAXBContext sharedContext = entry == null ? null : entry.get(types);
+            if (sharedContext != null) {
+                return sharedContext;
+            }
+            // Drop the contexts no longer in use
+            contexts.values().removeIf(value -> value.get() == null);
+            contexts.put(key, new SharedEntry(context, types));
+        }
+        return context;
+    }
+
+    /**
+     * INTERNAL:
+     * Remove all the shared contexts.
+     */
+    public static void clear() {
+        synchronized (CONTEXTS) {
+            CONTEXTS.clear();
+        }
+    }
+
+    /**
+     * A shared context and the types it was created on, both weakly referenced so sharing does not
+     * keep them, nor their class loader, from being garbage collected.
+     */
+    private static final class SharedEntry extends WeakReference<JAXBContext> {
+
+        private final List<WeakReference<Object>> types;
+
+        SharedEntry(JAXBContext context, Object[] types) {
+            super(context);
+            if (types == null) {
+                this.types = null;
+            } else {
+                this.types = new ArrayList<>(types.length);
+                for (Object type : types) {
+                    this.types.add(new WeakReference<>(type));
+                }
+            }
+        }
+
+        /*
+         * Return the context if it is still in use and was created on the same types, or else null.
+         */
+        JAXBContext get(Object[] types) {
+            JAXBContext context = get();
+            if (context == null || (this.types == null) != (types == null)) {
+                return null;
+            }
+            if (types != null) {
+                if (this.types.size() != types.length) {
+                    return null;
+                }
+                for (int index = 0; index < types.length; index++) {
+                    if (!Objects.equals(this.types.get(index).get(), types[index])) {
+                        return null;
+                    }
+                }
+            }
+            return context;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -26,6 +26,7 @@
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -84,6 +85,12 @@ final public class BeanValidationHelper {
      */
     private Map<Class<?>, Boolean> constraintsOnClasses = null;
 
+    /**
+     * Classes already checked by {@link #isConstrained}, read without going through the memoizer
+     * on each (un)marshal call.
+     */
+    private final Map<Class<?>, Boolean> constrainedClasses = new ConcurrentHashMap<>();
+
     {
         knownConstraints.add(Valid.class);
         knownConstraints.add(Max.class);
@@ -133,7 +140,12 @@ public BeanValidationHelper() {
      * @return true or false
      */
     boolean isConstrained(Class<?> clazz) {
-        return memoizer.compute(cds, clazz);
+        Boolean constrained = constrainedClasses.get(clazz);
+        if (constrained == null) {
+            constrained = memoizer.compute(cds, clazz);
+            constrainedClasses.put(clazz, constrained);
+        }
+        return constrained;
     }
 
     @SuppressWarnings("unchecked")
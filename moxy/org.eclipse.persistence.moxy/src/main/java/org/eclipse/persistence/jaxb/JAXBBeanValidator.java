@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -35,6 +35,7 @@
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -337,8 +338,7 @@ private void changeInternalState() throws BeanValidationException {
     private boolean initValidator() throws BeanValidationException {
         if (validator == null && !stopSearchingForValidator){
             try {
-                ValidatorFactory factory = getValidatorFactory();
-                validator = factory.getValidator();
+                validator = validatorFactory != null ? validatorFactory.getValidator() : getDefaultValidator();
                 printValidatorInfo();
             } catch (ValidationException ve) {
                 if (beanValidationMode == BeanValidationMode.CALLBACK){
@@ -358,13 +358,29 @@ triggered on next (un)marshalling trials if mode is still CALLBACK.
     /**
      * INTERNAL:
      *
-     * @return Preferred ValidatorFactory if set, else {@link Validation#buildDefaultValidatorFactory()}.
+     * Returns the validator of the default ValidatorFactory shared by the (un)marshallers of the context,
+     * building it if none has been built yet, so that the factory is not built again for each of them.
+     *
+     * @return Validator of {@link Validation#buildDefaultValidatorFactory()}.
      */
-    private ValidatorFactory getValidatorFactory() {
-        if (validatorFactory != null) {
-            return validatorFactory;
+    private Validator getDefaultValidator() {
+        AtomicReference<Object> defaultValidator = context.getDefaultValidator();
+        Validator validator = (Validator) defaultValidator.get();
+        if (validator == null) {
+            validator = buildDefaultValidatorFactory().getValidator();
+            if (!defaultValidator.compareAndSet(null, validator)) {
+                validator = (Validator) defaultValidator.get();
+            }
         }
+        return validator;
+    }
 
+    /**
+     * INTERNAL:
+     *
+     * @return {@link Validation#buildDefaultValidatorFactory()}.
+     */
+    private ValidatorFactory buildDefaultValidatorFactory() {
         if (noOptimisation) {
             lock.lock();
             try {
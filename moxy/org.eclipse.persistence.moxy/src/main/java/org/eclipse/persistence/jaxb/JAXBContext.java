@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -41,6 +41,7 @@
 import java.util.StringTokenizer;
 import java.util.Vector;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.Marshaller;
@@ -61,6 +62,7 @@
 import org.eclipse.persistence.exceptions.JAXBException;
 import org.eclipse.persistence.internal.core.helper.CoreClassConstants;
 import org.eclipse.persistence.internal.helper.ConversionManager;
+import org.eclipse.persistence.internal.jaxb.ClassMetadataPreloader;
 import org.eclipse.persistence.internal.jaxb.JAXBSchemaOutputResolver;
 import org.eclipse.persistence.internal.jaxb.JaxbClassLoader;
 import org.eclipse.persistence.internal.jaxb.ObjectGraphImpl;
@@ -184,6 +186,11 @@ public boolean handleEvent(ValidationEvent event) {
     };
 
     private final AtomicBoolean hasLoggedValidatorInfo = new AtomicBoolean();
+    /**
+     * Validator built by the default ValidatorFactory, shared by the (un)marshallers of this context.
+     * Not typed as Bean Validation is optional.
+     */
+    private final AtomicReference<Object> defaultValidator = new AtomicReference<>();
     protected JAXBContextInput contextInput;
 
     protected volatile JAXBContextState contextState;
@@ -274,6 +281,10 @@ AtomicBoolean getHasLoggedValidatorInfo() {
         return hasLoggedValidatorInfo;
     }
 
+    AtomicReference<Object> getDefaultValidator() {
+        return defaultValidator;
+    }
+
     /**
      * This event is called when context creation is completed,
      * and provides a chance to deference anything that is no longer
@@ -989,6 +1000,7 @@ public JaxbClassLoader run() {
             }
 
             jModel.setHasXmlBindings(!xmlBindings.isEmpty());
+            ClassMetadataPreloader.preload(classesToBeBound, ClassMetadataPreloader.getParallelism(properties));
             JavaModelInputImpl inputImpl = new JavaModelInputImpl(classesToBeBound, jModel);
             if (properties != null) enableFacetsIfPropertySetTrue(inputImpl, properties);
             try {
@@ -1172,6 +1184,7 @@ public JaxbClassLoader run() {
                 }
             }
 
+            ClassMetadataPreloader.preload(typesToBeBound, ClassMetadataPreloader.getParallelism(properties));
             JavaModelInputImpl inputImpl = new JavaModelInputImpl(typesToBeBound, jModel);
             if (properties != null) enableFacetsIfPropertySetTrue(inputImpl, properties);
             try {
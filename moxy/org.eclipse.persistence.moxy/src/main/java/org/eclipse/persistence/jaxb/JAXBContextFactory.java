@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -37,6 +37,7 @@
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
 
+import org.eclipse.persistence.internal.jaxb.SharedJAXBContexts;
 import org.eclipse.persistence.jaxb.JAXBContext.JAXBContextInput;
 import org.eclipse.persistence.jaxb.JAXBContext.ContextPathInput;
 import org.eclipse.persistence.jaxb.JAXBContext.TypeMappingInfoInput;
@@ -127,11 +128,26 @@ public static jakarta.xml.bind.JAXBContext createContext(String contextPath, Cla
      * also be aware of classes reachable from the classes on the context path.
      */
     public static jakarta.xml.bind.JAXBContext createContext(String contextPath, ClassLoader classLoader, Map properties) throws JAXBException {
+        List<Object> shareKey = null;
+        ClassLoader shareLoader = null;
+        if (SharedJAXBContexts.isEnabled(properties)) {
+            shareKey = SharedJAXBContexts.buildKey(contextPath, properties);
+            shareLoader = classLoader == null ? Thread.currentThread().getContextClassLoader() : classLoader;
+            if (shareKey != null) {
+                JAXBContext context = SharedJAXBContexts.get(shareLoader, shareKey, null);
+                if (context != null) {
+                    return context;
+                }
+            }
+        }
         JAXBContextInput contextInput = new ContextPathInput(contextPath, properties, classLoader);
         JAXBContext context = new JAXBContext(contextInput);
         if (context.isRefreshable()) {
             context.postInitialize();
         }
+        if (shareKey != null) {
+            return SharedJAXBContexts.put(shareLoader, shareKey, null, context);
+        }
         return context;
     }
 
@@ -142,6 +158,18 @@ public static jakarta.xml.bind.JAXBContext createContext(String contextPath, Cla
      * JAXBContext with an array of TypeMappingInfo objects.
      */
     public static jakarta.xml.bind.JAXBContext createContext(Type[] typesToBeBound, Map properties, ClassLoader classLoader) throws JAXBException {
+        List<Object> shareKey = null;
+        ClassLoader shareLoader = null;
+        if (SharedJAXBContexts.isEnabled(properties)) {
+            shareKey = SharedJAXBContexts.buildKey(typesToBeBound, properties);
+            shareLoader = classLoader == null ? Thread.currentThread().getContextClassLoader() : classLoader;
+            if (shareKey != null) {
+                JAXBContext context = SharedJAXBContexts.get(shareLoader, shareKey, typesToBeBound);
+                if (context != null) {
+                    return context;
+                }
+            }
+        }
         Map<Type, TypeMappingInfo> typeToTypeMappingInfo = new HashMap<Type, TypeMappingInfo>();
         TypeMappingInfo[] typeMappingInfos = new TypeMappingInfo[typesToBeBound.length];
         for(int i = 0; i < typesToBeBound.length; i++) {
@@ -154,6 +182,9 @@ public static jakarta.xml.bind.JAXBContext createContext(Type[] typesToBeBound,
         JAXBContext context = (JAXBContext)createContext(typeMappingInfos, properties, classLoader);
         context.setTypeToTypeMappingInfo(typeToTypeMappingInfo);
 
+        if (shareKey != null) {
+            return SharedJAXBContexts.put(shareLoader, shareKey, typesToBeBound.clone(), context);
+        }
         return context;
     }
 
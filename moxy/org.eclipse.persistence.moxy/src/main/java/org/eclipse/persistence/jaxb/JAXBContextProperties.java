@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -87,8 +87,10 @@ public class JAXBContextProperties {
      * <ul>
      * <li>MediaType.APPLICATION_XML (default)
      * <li>MediaType.APPLICATION_JSON
+     * <li>MediaType.APPLICATION_CBOR, the binary form of JSON (since 3.0.1)
      * <li>"application/xml"
      * <li>"application/json"
+     * <li>"application/cbor"
      * </ul>
      * @since 2.4
      * @see org.eclipse.persistence.jaxb.MarshallerProperties#MEDIA_TYPE
@@ -423,4 +425,41 @@ public class JAXBContextProperties {
      * @see org.eclipse.persistence.jaxb.UnmarshallerProperties#MOXY_LOG_PAYLOAD
      */
     public static final String MOXY_LOG_PAYLOAD = "eclipselink.logging.payload.moxy";
+
+    /**
+     * Property for the number of threads preloading the classes reachable from the classes to be bound,
+     * with their fields, methods and annotations, before the annotations are processed.
+     *
+     * Only the class loading and annotation parsing are done in parallel. The annotation processing
+     * and mapping generation stay sequential, as the processing of a class discovers the classes it
+     * references. Preloading shortens the first creation of contexts on large models, whose classes
+     * are not loaded yet.
+     *
+     * Usage: set to an Integer or a String, greater than 0 for that number of threads.
+     * It can be set via system property with name "eclipselink.class-preloading.parallelism" too.
+     * By default it is 0, the classes are loaded as they are processed.
+     *
+     * @see org.eclipse.persistence.jaxb.MOXySystemProperties#CLASS_PRELOADING_PARALLELISM
+     */
+    public static final String CLASS_PRELOADING_PARALLELISM = "eclipselink.class-preloading.parallelism";
+
+    /**
+     * Property for sharing the live contexts created on the same classes, class loader and properties.
+     *
+     * When enabled, creating a context on the same classes, or context path, with the same class loader
+     * and equal properties returns the context created first while another caller still references it,
+     * so callers using the same context at once build it only once.
+     * Only contexts created with properties of simple values, such as Strings, Booleans, numbers,
+     * and Maps or Lists of them, are shared. Contexts are weakly referenced, so do not prevent their
+     * class loader from being garbage collected. This is not a cache: a context no longer referenced
+     * is created again, and nothing is kept across restarts. Refreshing the metadata of a shared context
+     * refreshes it for all of its callers.
+     *
+     * Usage: set to {@link Boolean#TRUE} to share contexts, set to {@link Boolean#FALSE} not to.
+     * It can be set via system property with name "eclipselink.share-contexts" too.
+     * By default it is disabled.
+     *
+     * @see org.eclipse.persistence.jaxb.MOXySystemProperties#SHARE_CONTEXTS
+     */
+    public static final String SHARE_CONTEXTS = "eclipselink.share-contexts";
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -30,6 +30,7 @@
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.function.Consumer;
 
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
@@ -42,6 +43,7 @@
 import jakarta.xml.bind.attachment.AttachmentUnmarshaller;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
 import javax.xml.validation.Schema;
@@ -64,6 +66,7 @@
 import org.eclipse.persistence.internal.oxm.record.XMLEventReaderReader;
 import org.eclipse.persistence.internal.oxm.record.XMLStreamReaderInputSource;
 import org.eclipse.persistence.internal.oxm.record.XMLStreamReaderReader;
+import org.eclipse.persistence.internal.oxm.record.json.JsonItemReader;
 import org.eclipse.persistence.internal.oxm.record.namespaces.PrefixMapperNamespaceResolver;
 import org.eclipse.persistence.jaxb.JAXBContext.RootLevelXmlAdapter;
 import org.eclipse.persistence.jaxb.attachment.AttachmentUnmarshallerAdapter;
@@ -157,7 +160,7 @@ public Object unmarshal(File file) throws JAXBException {
     @Override
     public Object unmarshal(InputStream inputStream) throws JAXBException {
         try {
-            if (xmlUnmarshaller.isAutoDetectMediaType() || xmlUnmarshaller.getMediaType() == MediaType.APPLICATION_JSON || null == jaxbContext.getXMLInputFactory() || XMLUnmarshaller.NONVALIDATING != xmlUnmarshaller.getValidationMode()) {
+            if (xmlUnmarshaller.isAutoDetectMediaType() || xmlUnmarshaller.isApplicationJSON() || null == jaxbContext.getXMLInputFactory() || XMLUnmarshaller.NONVALIDATING != xmlUnmarshaller.getValidationMode()) {
                 return validateAndTransformIfRequired(xmlUnmarshaller.unmarshal(inputStream)); // xml bindings + object inside inputStream
             } else {
                 if (null == inputStream) {
@@ -208,7 +211,7 @@ public Object unmarshal(InputSource inputSource) throws JAXBException {
     public Object unmarshal(Reader reader) throws JAXBException {
 
         try {
-            if (xmlUnmarshaller.isAutoDetectMediaType()   || xmlUnmarshaller.getMediaType() == MediaType.APPLICATION_JSON || null == jaxbContext.getXMLInputFactory() || XMLUnmarshaller.NONVALIDATING != xmlUnmarshaller.getValidationMode()) {
+            if (xmlUnmarshaller.isAutoDetectMediaType()   || xmlUnmarshaller.isApplicationJSON() || null == jaxbContext.getXMLInputFactory() || XMLUnmarshaller.NONVALIDATING != xmlUnmarshaller.getValidationMode()) {
 
                 return validateAndTransformIfRequired(xmlUnmarshaller.unmarshal(reader)); // xml bindings + object inside reader
             } else {
@@ -766,6 +769,148 @@ public Object unmarshal(XMLEventReader eventReader) throws JAXBException {
         }
     }
 
+    /**
+     * Unmarshal the items at the item path of the XML or JSON document one at a time, and pass each one
+     * to the consumer. The document is streamed, and no item is referenced once passed to the consumer,
+     * so a document of any size is unmarshalled in the memory of one item.
+     * <p>
+     * The item path is the names separated by '/' of the elements from the root element down to the
+     * repeating item element, for XML. For JSON, it is the names of the members from the root value down
+     * to the item value or array of items. An empty path is the root value, whose elements are the items
+     * if it is an array. The other elements or members are skipped.
+     * <p>
+     * Each item is unmarshalled to the item class as its declared type. JSON items are never wrapped
+     * in a root name, whatever the {@link UnmarshallerProperties#JSON_INCLUDE_ROOT} setting.
+     *
+     * @param inputStream the XML, JSON or CBOR document, according to the media type; CBOR items are read as JSON ones
+     * @param itemPath the path of the items, such as "order/item"
+     * @param itemClass the class of the items
+     * @param consumer passed each item, in document order
+     * @since 3.0.1
+     */
+    public <T> void unmarshalItems(InputStream inputStream, String itemPath, Class<T> itemClass, Consumer<? super T> consumer) throws JAXBException {
+        if (null == inputStream || null == itemClass || null == consumer) {
+            throw new IllegalArgumentException();
+        }
+        try {
+            if (xmlUnmarshaller.isApplicationJSON()) {
+                try (JsonItemReader itemReader = new JsonItemReader(inputStream, itemPath, xmlUnmarshaller.getMediaType().isApplicationCBOR())) {
+                    unmarshalItems(itemReader, itemClass, consumer);
+                }
+            } else {
+                XMLStreamReader streamReader = getXMLInputFactoryForItems().createXMLStreamReader(inputStream);
+                try {
+                    unmarshalItems(streamReader, JsonItemReader.splitPath(itemPath), itemClass, consumer);
+                } finally {
+                    streamReader.close();
+                }
+            }
+        } catch (JAXBException jaxbException) {
+            throw jaxbException;
+        } catch (BeanValidationException bve) {
+            throw new UnmarshalException(bve.getMessage(), String.valueOf(bve.getErrorCode()), bve);
+        } catch (XMLMarshalException xmlMarshalException) {
+            throw handleXMLMarshalException(xmlMarshalException);
+        } catch (Exception exception) {
+            throw new UnmarshalException(exception);
+        }
+    }
+
+    /**
+     * Unmarshal the items at the item path of the XML or JSON document one at a time, and pass each one
+     * to the consumer.
+     *
+     * @see #unmarshalItems(InputStream, String, Class, Consumer)
+     * @since 3.0.1
+     */
+    public <T> void unmarshalItems(Reader reader, String itemPath, Class<T> itemClass, Consumer<? super T> consumer) throws JAXBException {
+        if (null == reader || null == itemClass || null == consumer) {
+            throw new IllegalArgumentException();
+        }
+        try {
+            if (xmlUnmarshaller.getMediaType().isApplicationCBOR()) {
+                throw XMLMarshalException.binaryMediaTypeRequiresStream(MediaType.APPLICATION_CBOR.getMediaType());
+            }
+            if (xmlUnmarshaller.getMediaType().isApplicationJSON()) {
+                try (JsonItemReader itemReader = new JsonItemReader(reader, itemPath)) {
+                    unmarshalItems(itemReader, itemClass, consumer);
+                }
+            } else {
+                XMLStreamReader streamReader = getXMLInputFactoryForItems().createXMLStreamReader(reader);
+                try {
+                    unmarshalItems(streamReader, JsonItemReader.splitPath(itemPath), itemClass, consumer);
+                } finally {
+                    streamReader.close();
+                }
+            }
+        } catch (JAXBException jaxbException) {
+            throw jaxbException;
+        } catch (BeanValidationException bve) {
+            throw new UnmarshalException(bve.getMessage(), String.valueOf(bve.getErrorCode()), bve);
+        } catch (XMLMarshalException xmlMarshalException) {
+            throw handleXMLMarshalException(xmlMarshalException);
+        } catch (Exception exception) {
+            throw new UnmarshalException(exception);
+        }
+    }
+
+    private XMLInputFactory getXMLInputFactoryForItems() {
+        XMLInputFactory xmlInputFactory = jaxbContext.getXMLInputFactory();
+        if (null == xmlInputFactory) {
+            // Reports why the factory is not available.
+            xmlInputFactory = XMLInputFactory.newInstance();
+        }
+        return xmlInputFactory;
+    }
+
+    /*
+     * Unmarshal each element at the path of element names, the reader being left after the end of the element,
+     * and skip the other elements.
+     */
+    private <T> void unmarshalItems(XMLStreamReader streamReader, String[] path, Class<T> itemClass, Consumer<? super T> consumer) throws Exception {
+        // The depth of the next element, and the number of names of the path matched by its ancestors.
+        int depth = 0;
+        int matched = 0;
+        int event = streamReader.getEventType();
+        while (event != XMLStreamReader.END_DOCUMENT) {
+            if (event == XMLStreamReader.START_ELEMENT) {
+                if (depth == matched && matched < path.length && path[matched].equals(streamReader.getLocalName())) {
+                    if (matched == path.length - 1) {
+                        consumer.accept(itemClass.cast(unmarshal(streamReader, itemClass).getValue()));
+                        event = streamReader.getEventType();
+                        continue;
+                    }
+                    matched++;
+                }
+                depth++;
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                depth--;
+                if (matched > depth) {
+                    matched = depth;
+                }
+            }
+            if (!streamReader.hasNext()) {
+                return;
+            }
+            event = streamReader.next();
+        }
+    }
+
+    /*
+     * Unmarshal each JSON item without a root name.
+     */
+    private <T> void unmarshalItems(JsonItemReader itemReader, Class<T> itemClass, Consumer<? super T> consumer) throws JAXBException {
+        boolean includeRoot = xmlUnmarshaller.isIncludeRoot();
+        xmlUnmarshaller.setIncludeRoot(false);
+        try {
+            for (Source itemSource = itemReader.nextItem(); null != itemSource; itemSource = itemReader.nextItem()) {
+                consumer.accept(itemClass.cast(unmarshal(itemSource, itemClass).getValue()));
+            }
+        } finally {
+            xmlUnmarshaller.setIncludeRoot(includeRoot);
+        }
+    }
+
     @Override
     public UnmarshallerHandler getUnmarshallerHandler() {
         return new JAXBUnmarshallerHandler(this);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -82,6 +82,21 @@ public final class MOXySystemProperties {
      */
     public static final String MOXY_LOG_PAYLOAD = "eclipselink.logging.payload.moxy";
 
+    /**
+     * Property for the number of threads preloading the classes to be bound before they are processed,
+     * when a context is created.
+     *
+     * @see org.eclipse.persistence.jaxb.JAXBContextProperties#CLASS_PRELOADING_PARALLELISM
+     */
+    public static final String CLASS_PRELOADING_PARALLELISM = "eclipselink.class-preloading.parallelism";
+
+    /**
+     * Property for sharing the live contexts created on the same classes, class loader and properties.
+     *
+     * @see org.eclipse.persistence.jaxb.JAXBContextProperties#SHARE_CONTEXTS
+     */
+    public static final String SHARE_CONTEXTS = "eclipselink.share-contexts";
+
 
     public static final Boolean xmlIdExtension = getBoolean(XML_ID_EXTENSION);
 
@@ -95,6 +110,10 @@ public final class MOXySystemProperties {
 
     public static final Boolean moxyLogPayload = PrivilegedAccessHelper.getSystemPropertyBoolean(MOXY_LOG_PAYLOAD, false);
 
+    public static final String classPreloadingParallelism = PrivilegedAccessHelper.getSystemProperty(CLASS_PRELOADING_PARALLELISM);
+
+    public static final Boolean shareContexts = PrivilegedAccessHelper.getSystemPropertyBoolean(SHARE_CONTEXTS, false);
+
     /**
      * Returns value of system property.
      *
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -102,8 +102,10 @@ public class MarshallerProperties {
      * <ul>
      * <li>MediaType.APPLICATION_XML (default)
      * <li>MediaType.APPLICATION_JSON
+     * <li>MediaType.APPLICATION_CBOR, the binary form of JSON (since 3.0.1)
      * <li>"application/xml"
      * <li>"application/json"
+     * <li>"application/cbor"
      * </ul>
      * @since 2.4
      * @see org.eclipse.persistence.jaxb.JAXBContextProperties#MEDIA_TYPE
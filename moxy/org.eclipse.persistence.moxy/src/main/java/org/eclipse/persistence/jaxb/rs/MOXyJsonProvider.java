@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -91,6 +91,7 @@
  * <ul>
  * <li>*&#47;json (i.e. application/json and text/json)</li>
  * <li>*&#47;*+json</li>
+ * <li>*&#47;cbor and *&#47;*+cbor, CBOR being read and written as the binary form of JSON</li>
  * </ul>
  *
  * <p>Below are some different usage options.</p>
@@ -204,15 +205,18 @@
  * </pre>
  * @since 2.4
  */
-@Produces({MediaType.APPLICATION_JSON, MediaType.WILDCARD, "application/x-javascript"})
-@Consumes({MediaType.APPLICATION_JSON, MediaType.WILDCARD})
+@Produces({MediaType.APPLICATION_JSON, MediaType.WILDCARD, "application/x-javascript", "application/cbor"})
+@Consumes({MediaType.APPLICATION_JSON, MediaType.WILDCARD, "application/cbor"})
 @Provider
 public class MOXyJsonProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object>{
 
+    private static final String APPLICATION_CBOR = "application/cbor";
     private static final String APPLICATION_XJAVASCRIPT = "application/x-javascript";
+    private static final String CBOR = "cbor";
     private static final String CHARSET = "charset";
     private static final QName EMPTY_STRING_QNAME = new QName("");
     private static final String JSON = "json";
+    private static final String PLUS_CBOR = "+cbor";
     private static final String PLUS_JSON = "+json";
 
     @Context
@@ -667,7 +671,8 @@ public Object readFrom(Class<Object> type, Type genericType, Annotation[] annota
                 logger.log(SessionLog.FINE, SessionLog.MOXY, "moxy_read_from_moxy_json_provider", new Object[0]);
             }
             Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+            boolean cbor = isCbor(mediaType);
+            unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, cbor ? APPLICATION_CBOR : MediaType.APPLICATION_JSON);
             unmarshaller.setProperty(UnmarshallerProperties.JSON_ATTRIBUTE_PREFIX, attributePrefix);
             unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, includeRoot);
             unmarshaller.setProperty(UnmarshallerProperties.JSON_NAMESPACE_PREFIX_MAPPER, namespacePrefixMapper);
@@ -683,7 +688,7 @@ public Object readFrom(Class<Object> type, Type genericType, Annotation[] annota
             if(null != mediaType) {
                 mediaTypeParameters = mediaType.getParameters();
             }
-            if(null != mediaTypeParameters && mediaTypeParameters.containsKey(CHARSET)) {
+            if(!cbor && null != mediaTypeParameters && mediaTypeParameters.containsKey(CHARSET)) {
                 String charSet = mediaTypeParameters.get(CHARSET);
                 Reader entityReader = new InputStreamReader(entityStream, charSet);
                 jsonSource = new StreamSource(entityReader);
@@ -934,15 +939,27 @@ public void setValueWrapper(String valueWrapper) {
     }
 
     /**
-     * @return true for all media types of the pattern *&#47;json and
-     * *&#47;*+json.
+     * @return true for all media types of the pattern *&#47;json,
+     * *&#47;*+json, *&#47;cbor and *&#47;*+cbor.
      */
     protected boolean supportsMediaType(MediaType mediaType) {
         if(null == mediaType) {
             return true;
         }
         String subtype = mediaType.getSubtype();
-        return subtype.equals(JSON) || subtype.endsWith(PLUS_JSON);
+        return subtype.equals(JSON) || subtype.endsWith(PLUS_JSON) || isCbor(mediaType);
+    }
+
+    /*
+     * Return true for the media types of the pattern *&#47;cbor and *&#47;*+cbor,
+     * read and written as CBOR rather than JSON text.
+     */
+    private static boolean isCbor(MediaType mediaType) {
+        if(null == mediaType) {
+            return false;
+        }
+        String subtype = mediaType.getSubtype();
+        return subtype.equals(CBOR) || subtype.endsWith(PLUS_CBOR);
     }
 
     /**
@@ -964,7 +981,7 @@ public void writeTo(Object object, Class<?> type, Type genericType, Annotation[]
             }
             Marshaller marshaller = jaxbContext.createMarshaller();
             marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput);
-            marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+            marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, isCbor(mediaType) ? APPLICATION_CBOR : MediaType.APPLICATION_JSON);
             marshaller.setProperty(MarshallerProperties.JSON_ATTRIBUTE_PREFIX, attributePrefix);
             marshaller.setProperty(MarshallerProperties.JSON_INCLUDE_ROOT, includeRoot);
             marshaller.setProperty(MarshallerProperties.JSON_MARSHAL_EMPTY_COLLECTIONS, marshalEmptyCollections);
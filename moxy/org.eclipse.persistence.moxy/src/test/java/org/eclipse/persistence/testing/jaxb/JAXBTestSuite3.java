@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -36,10 +36,12 @@
 import org.eclipse.persistence.testing.jaxb.stax.XMLStreamReaderEndEventTestCases;
 import org.eclipse.persistence.testing.jaxb.stax.XMLStreamWriterDefaultNamespaceTestCases;
 import org.eclipse.persistence.testing.jaxb.unmapped.UnmappedElementsWarningTestCases;
+import org.eclipse.persistence.testing.jaxb.unmarshaller.ChildRecordReuseTestCases;
 import org.eclipse.persistence.testing.jaxb.unmarshaller.DefaultValueTestCases;
 import org.eclipse.persistence.testing.jaxb.unmarshaller.JSONUnmarshalAutoDetectTestCases;
 import org.eclipse.persistence.testing.jaxb.unmarshaller.JSONUnmarshalTestCases;
 import org.eclipse.persistence.testing.jaxb.unmarshaller.RepeatedUnmarshalTestCases;
+import org.eclipse.persistence.testing.jaxb.unmarshaller.UnmarshalItemsTestCases;
 import org.eclipse.persistence.testing.jaxb.unmarshaller.autodetect.AutoDetectFailsTestCases;
 import org.eclipse.persistence.testing.jaxb.unmarshaller.autodetect.AutoDetectMediaTypeTestCases;
 import org.eclipse.persistence.testing.jaxb.unmarshaller.autodetect.AutoDetectSmallDocTestCases;
@@ -123,6 +125,8 @@ public static Test suite() {
         suite.addTestSuite(XmlPathToAttributeTestCases.class);
         suite.addTestSuite(XmlPathWithXmlAttributeTestCases.class);
         suite.addTestSuite(RepeatedUnmarshalTestCases.class);
+        suite.addTestSuite(UnmarshalItemsTestCases.class);
+        suite.addTestSuite(ChildRecordReuseTestCases.class);
         suite.addTestSuite(JSONUnmarshalTestCases.class);
         suite.addTestSuite(JSONUnmarshalAutoDetectTestCases.class);
         suite.addTestSuite(DefaultValueTestCases.class);
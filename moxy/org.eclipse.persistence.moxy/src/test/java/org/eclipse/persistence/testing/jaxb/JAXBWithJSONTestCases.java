@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,6 +14,7 @@
 //     Blaise Doughan - 2.4 - initial implementation
 package org.eclipse.persistence.testing.jaxb;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -42,6 +43,8 @@
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 
+import org.eclipse.persistence.internal.oxm.record.json.CborGenerator;
+import org.eclipse.persistence.internal.oxm.record.json.CborParser;
 import org.eclipse.persistence.jaxb.JAXBContext;
 import org.eclipse.persistence.jaxb.MarshallerProperties;
 import org.eclipse.persistence.jaxb.UnmarshallerProperties;
@@ -446,6 +449,90 @@ public void testJSONMarshalToGeneratorResult() throws Exception{
         compareStringToControlFile("**testJSONMarshalToGeneratorResult**", sw.toString());
     }
 
+    public void testCBORMarshalToOutputStream() throws Exception{
+        Marshaller marshaller = getJSONMarshaller();
+        marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_CBOR);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            marshaller.marshal(getWriteControlObject(), os);
+        } catch(Exception e) {
+            assertMarshalException(e);
+            return;
+        }
+        if(expectsMarshalException){
+            fail("An exception should have occurred but didn't.");
+            return;
+        }
+
+        StringWriter sw = new StringWriter();
+        try (JsonParser parser = new CborParser(new ByteArrayInputStream(os.toByteArray()));
+             JsonGenerator generator = Json.createGenerator(sw)) {
+            copyEvents(parser, generator);
+        }
+        log(sw.toString());
+        compareStringToControlFile("**testCBORMarshalToOutputStream**", sw.toString());
+    }
+
+    public void testCBORUnmarshalFromInputStream() throws Exception {
+        if(isUnmarshalTest() && getJSONUnmarshalMediaType().isApplicationJSON()){
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(controlJSONLocation);
+                 JsonParser parser = Json.createParser(inputStream);
+                 JsonGenerator generator = new CborGenerator(os)) {
+                copyEvents(parser, generator);
+            }
+
+            Unmarshaller unmarshaller = getJSONUnmarshaller();
+            unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_CBOR);
+            InputStream inputStream = new ByteArrayInputStream(os.toByteArray());
+            Object testObject = null;
+            if(getUnmarshalClass() != null){
+                testObject = unmarshaller.unmarshal(new StreamSource(inputStream), getUnmarshalClass());
+            }else{
+                testObject = unmarshaller.unmarshal(inputStream);
+            }
+            jsonToObjectTest(testObject);
+        }
+    }
+
+    /*
+     * Copy the events of the parser to the generator, from CBOR to JSON text or the other way round.
+     */
+    private static void copyEvents(JsonParser parser, JsonGenerator generator) {
+        while (parser.hasNext()) {
+            switch (parser.next()) {
+                case START_OBJECT:
+                    generator.writeStartObject();
+                    break;
+                case START_ARRAY:
+                    generator.writeStartArray();
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    generator.writeEnd();
+                    break;
+                case KEY_NAME:
+                    generator.writeKey(parser.getString());
+                    break;
+                case VALUE_STRING:
+                    generator.write(parser.getString());
+                    break;
+                case VALUE_NUMBER:
+                    generator.write(parser.getBigDecimal());
+                    break;
+                case VALUE_TRUE:
+                    generator.write(true);
+                    break;
+                case VALUE_FALSE:
+                    generator.write(false);
+                    break;
+                default:
+                    generator.writeNull();
+            }
+        }
+    }
+
 
     protected void compareStringToControlFile(String test, String testString) {
         compareStringToControlFile(test, testString, getWriteControlJSON());
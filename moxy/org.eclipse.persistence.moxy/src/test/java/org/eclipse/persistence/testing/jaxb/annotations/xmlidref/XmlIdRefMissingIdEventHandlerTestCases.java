@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -88,6 +88,16 @@ public void testJSONUnmarshalFromInputStream() throws Exception{
         fail("An Exception should have occurred");
     }
 
+    public void testCBORUnmarshalFromInputStream() throws Exception{
+        try{
+            super.testCBORUnmarshalFromInputStream();
+        }catch (JAXBException e) {
+            assertEquals(ValidationEvent.ERROR, ((MyValidationEventHandler)jaxbUnmarshaller.getEventHandler()).severity);
+            return;
+        }
+        fail("An Exception should have occurred");
+    }
+
     public void testJSONUnmarshalFromReader() throws Exception{
         try{
             super.testJSONUnmarshalFromReader();
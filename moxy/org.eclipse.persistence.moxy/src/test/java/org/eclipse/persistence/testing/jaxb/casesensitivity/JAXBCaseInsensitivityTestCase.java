@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,8 +14,10 @@
 //     Marcel Valovy - 2.6.0 - initial implementation
 package org.eclipse.persistence.testing.jaxb.casesensitivity;
 
+import java.io.StringReader;
 import java.net.URL;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import jakarta.xml.bind.JAXBContext;
@@ -25,6 +27,7 @@
 import org.eclipse.persistence.jaxb.JAXBContextFactory;
 import org.eclipse.persistence.jaxb.JAXBContextProperties;
 import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.MediaType;
 import org.eclipse.persistence.testing.jaxb.casesensitivity.correctCase.CustomerImpl;
 import org.junit.After;
 import org.junit.Before;
@@ -41,6 +44,8 @@ public class JAXBCaseInsensitivityTestCase extends junit.framework.TestCase {
     private static final URL CUSTOMER_FILE_URL = Thread.currentThread().getContextClassLoader().getResource("org/eclipse/persistence/testing/jaxb/casesensitivity/customer.xml");
     private static final Class[] CAMEL_CASE_CUSTOMER = new Class[]{CustomerImpl.class};
     private static final Class[] UPPER_CASE_CUSTOMER = new Class[]{org.eclipse.persistence.testing.jaxb.casesensitivity.otherCase.CustomerImpl.class};
+    private static final String CUSTOMER_JSON = "{\"customerImpl\":{\"age\":24,\"id\":1234007,"
+            + "\"personalName\":\"cafeBabe\",\"personalname\":\"collisionBabe\"}}";
     private static final boolean DEBUG = false;
 
     private CustomerImpl baseCustomer;
@@ -65,6 +70,25 @@ public void testMain() throws Exception {
             assertTrue(unmarshalCorrectCaseSensitive().equals(baseCustomer));
     }
 
+    @Test
+    public void testJSON() throws Exception {
+        unmarshallerOtherCaseInsensitive.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        Object otherCaseCustomer = unmarshallerOtherCaseInsensitive.unmarshal(new StringReader(CUSTOMER_JSON));
+        assertTrue(otherCaseCustomer.equals(baseCustomer));
+    }
+
+    /* The names are compared whatever the default locale, the lower case of I being a dotless i in Turkish. */
+    @Test
+    public void testTurkishLocale() throws Exception {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertTrue(unmarshalOtherCaseInsensitive().equals(baseCustomer));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
     /* Case-insensitive part */
     private CustomerImpl unmarshalCorrectCaseInsensitive() throws JAXBException {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -153,4 +153,7 @@ public void testJSONMarshalToBuilderResult() throws Exception{
     public void testJSONMarshalToGeneratorResult() throws Exception{
         //Currently not supported, 101.1 will get written as 101.0999984741211
     }
+    public void testCBORMarshalToOutputStream() throws Exception{
+        //Currently not supported, 101.1 will get written as 101.0999984741211
+    }
 }
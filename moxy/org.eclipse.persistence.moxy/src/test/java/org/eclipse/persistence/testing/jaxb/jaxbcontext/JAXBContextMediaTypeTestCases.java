@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -158,4 +158,26 @@ public void testCreateUnmarshallerSetMediaTypeJSONEnum() throws JAXBException {
         assertEquals(MediaType.APPLICATION_JSON,((JAXBUnmarshaller)u).getXMLUnmarshaller().getMediaType());
     }
 
+    public void testCreateMarshallerAndUnmarshallerSetMediaTypeCBOR() throws JAXBException {
+        Class[] classes = new Class[1];
+        classes[0] = Employee.class;
+
+        // CBOR is not JSON to the public media type
+        assertEquals(MediaType.APPLICATION_CBOR, MediaType.getMediaType("application/cbor"));
+        assertTrue(MediaType.APPLICATION_CBOR.isApplicationCBOR());
+        assertFalse(MediaType.APPLICATION_CBOR.isApplicationJSON());
+        assertFalse(MediaType.APPLICATION_JSON.isApplicationCBOR());
+
+        // but is read and written as JSON
+        JAXBContext ctx = JAXBContextFactory.createContext(classes, null);
+        Marshaller m = ctx.createMarshaller();
+        m.setProperty(MarshallerProperties.MEDIA_TYPE, "application/cbor");
+        assertEquals(MediaType.APPLICATION_CBOR, m.getProperty(MarshallerProperties.MEDIA_TYPE));
+        assertTrue(((JAXBMarshaller)m).getXMLMarshaller().isApplicationJSON());
+        Unmarshaller u = ctx.createUnmarshaller();
+        u.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_CBOR);
+        assertEquals(MediaType.APPLICATION_CBOR, u.getProperty(UnmarshallerProperties.MEDIA_TYPE));
+        assertTrue(((JAXBUnmarshaller)u).getXMLUnmarshaller().isApplicationJSON());
+    }
+
 }
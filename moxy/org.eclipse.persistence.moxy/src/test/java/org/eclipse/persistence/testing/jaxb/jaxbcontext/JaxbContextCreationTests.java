@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -24,7 +24,9 @@
 
 import org.eclipse.persistence.exceptions.SessionLoaderException;
 import org.eclipse.persistence.exceptions.ValidationException;
+import org.eclipse.persistence.internal.jaxb.SharedJAXBContexts;
 import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
 import org.eclipse.persistence.jaxb.TypeMappingInfo;
 import org.eclipse.persistence.jaxb.javamodel.reflection.JavaClassImpl;
 import org.eclipse.persistence.testing.oxm.classloader.JARClassLoader;
@@ -179,6 +181,61 @@ public void testCreateContextWithPathAndBindings() throws Exception {
         assertEquals("OXM file was not processed during context creation.", e.get("tag"), e2.get("tag"));
     }
 
+    public void testCreateSharedContext() throws Exception {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(JAXBContextProperties.SHARE_CONTEXTS, Boolean.TRUE);
+        props.put(JAXBContextProperties.MEDIA_TYPE, "application/json");
+        Class[] classes = new Class[] {Employee.class};
+        try {
+            JAXBContext context = JAXBContextFactory.createContext(classes, props);
+            assertSame(context, JAXBContextFactory.createContext(classes, new HashMap<String, Object>(props)));
+
+            props.put(JAXBContextProperties.JSON_INCLUDE_ROOT, Boolean.FALSE);
+            assertNotSame(context, JAXBContextFactory.createContext(classes, props));
+
+            props.put(JAXBContextProperties.SHARE_CONTEXTS, Boolean.FALSE);
+            assertNotSame(JAXBContextFactory.createContext(classes, props), JAXBContextFactory.createContext(classes, props));
+
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            Map<String, Object> pathProps = Collections.<String, Object>singletonMap(JAXBContextProperties.SHARE_CONTEXTS, "true");
+            JAXBContext pathContext = JAXBContextFactory.createContext("org.eclipse.persistence.testing.jaxb.jaxbcontext", loader, pathProps);
+            assertSame(pathContext, JAXBContextFactory.createContext("org.eclipse.persistence.testing.jaxb.jaxbcontext", loader, pathProps));
+        } finally {
+            SharedJAXBContexts.clear();
+        }
+    }
+
+    public void testCreateContextWithClassPreloading() throws Exception {
+        Map<String, Object> props = new HashMap<String, Object>();
+        props.put(JAXBContextProperties.CLASS_PRELOADING_PARALLELISM, 4);
+        JAXBContext context = JAXBContextFactory.createContext(new Class[] {Employee.class, ConcreteClassWithGenerics.class}, props);
+        assertNotNull(((org.eclipse.persistence.jaxb.JAXBContext) context).getXMLContext().getDescriptor(new QName("employee")));
+
+        props.put(JAXBContextProperties.CLASS_PRELOADING_PARALLELISM, "2");
+        JAXBContext pathContext = JAXBContextFactory.createContext("org.eclipse.persistence.testing.jaxb.jaxbcontext", Thread.currentThread().getContextClassLoader(), props);
+        Object foo = pathContext.createUnmarshaller().unmarshal(new java.io.StringReader("<foo xmlns=\"foons\">bar</foo>"));
+        assertEquals(new QName("foons", "foo"), ((JAXBElement) foo).getName());
+        assertEquals("bar", ((JAXBElement) foo).getValue());
+    }
+
+    public void testCreateSharedContextDoesNotKeepClassLoader() throws Exception {
+        Map<String, Object> props = Collections.<String, Object>singletonMap(JAXBContextProperties.SHARE_CONTEXTS, Boolean.TRUE);
+        ClassLoader loader = new ClassLoader(Thread.currentThread().getContextClassLoader()) {};
+        JAXBContext context = JAXBContextFactory.createContext("org.eclipse.persistence.testing.jaxb.jaxbcontext", loader, props);
+        assertSame(context, JAXBContextFactory.createContext("org.eclipse.persistence.testing.jaxb.jaxbcontext", loader, props));
+
+        java.lang.ref.WeakReference<ClassLoader> loaderReference = new java.lang.ref.WeakReference<>(loader);
+        java.lang.ref.WeakReference<JAXBContext> contextReference = new java.lang.ref.WeakReference<>(context);
+        loader = null;
+        context = null;
+        for (int index = 0; index < 20 && loaderReference.get() != null; index++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull("The shared context should not be kept once it is not used", contextReference.get());
+        assertNull("The class loader of a shared context should not be kept", loaderReference.get());
+    }
+
     public void testCreateContextXmlAnyAttributeSubTypeMap() throws Exception {
         JAXBContextFactory.createContext(new Class[]{XmlAnyAttributeSubTypeMapModel.class}, null);
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -51,4 +51,7 @@ public void testJSONMarshalToBuilderResult() throws Exception{
     public void testJSONMarshalToGeneratorResult() throws Exception{
     }
 
+    public void testCBORMarshalToOutputStream() throws Exception{
+    }
+
 }
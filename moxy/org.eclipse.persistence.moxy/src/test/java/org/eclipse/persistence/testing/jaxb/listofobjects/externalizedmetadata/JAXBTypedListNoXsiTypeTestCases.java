@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -171,10 +171,18 @@ public void testJSONMarshalToStringWriter() throws Exception {
     public void testJSONMarshalToStringWriter_FORMATTED() throws Exception {
     }
 
+    @Override
+    public void testCBORMarshalToOutputStream() throws Exception {
+    }
+
     @Override
     public void testJSONUnmarshalFromInputSource() throws Exception {
     }
 
+    @Override
+    public void testCBORUnmarshalFromInputStream() throws Exception {
+    }
+
     @Override
     public void testJSONUnmarshalFromInputStream() throws Exception {
     }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.jaxb.unmarshaller;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlAttribute;
+import jakarta.xml.bind.annotation.XmlElement;
+import jakarta.xml.bind.annotation.XmlElements;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.MediaType;
+import org.eclipse.persistence.oxm.annotations.XmlPath;
+import org.eclipse.persistence.testing.oxm.OXTestCase;
+
+/**
+ * The record of a child object is reused for the next child object of its parent,
+ * which must not see anything of the previous one.
+ */
+public class ChildRecordReuseTestCases extends OXTestCase {
+
+    private static final String XML = "<root>"
+            + "<a><value>x</value><value>y</value></a>"
+            + "<b><name>n</name></b>"
+            + "<a/>"
+            + "<person city=\"c1\"><name>p1</name><child><name>k1</name></child></person>"
+            + "<person city=\"c2\"><name>p2</name></person>"
+            + "<person><name>p3</name><child><name>k3</name></child></person>"
+            + "</root>";
+
+    private static final String JSON = "{\"root\":{"
+            + "\"a\":[{\"value\":[\"x\",\"y\"]},{}],"
+            + "\"b\":[{\"name\":\"n\"}],"
+            + "\"person\":[{\"city\":\"c1\",\"name\":\"p1\",\"child\":{\"name\":\"k1\"}},"
+            + "{\"city\":\"c2\",\"name\":\"p2\"},"
+            + "{\"name\":\"p3\",\"child\":{\"name\":\"k3\"}}]}}";
+
+    @XmlRootElement
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Root {
+        @XmlElements({@XmlElement(name = "a", type = A.class), @XmlElement(name = "b", type = B.class)})
+        public List<Object> items;
+        public List<Person> person;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class A {
+        public List<String> value;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class B {
+        public String name;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Person {
+        public String name;
+        @XmlPath(".")
+        public Address address;
+        public Person child;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Address {
+        @XmlAttribute
+        public String city;
+    }
+
+    private JAXBContext jaxbContext;
+
+    public ChildRecordReuseTestCases(String name) {
+        super(name);
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        jaxbContext = JAXBContextFactory.createContext(new Class[] {Root.class}, null);
+    }
+
+    public void testXMLChildren() throws Exception {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        assertChildren((Root) unmarshaller.unmarshal(new StringReader(XML)));
+    }
+
+    public void testJSONChildren() throws Exception {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        assertChildren((Root) unmarshaller.unmarshal(new StringReader(JSON)));
+    }
+
+    private static void assertChildren(Root root) {
+        // JSON groups the items of the same name
+        assertEquals(3, root.items.size());
+        List<A> as = new ArrayList<>();
+        for (Object item : root.items) {
+            if (item instanceof A) {
+                as.add((A) item);
+            } else {
+                assertEquals("n", ((B) item).name);
+            }
+        }
+        assertEquals(2, as.size());
+        assertEquals(2, as.get(0).value.size());
+        assertTrue(null == as.get(1).value || as.get(1).value.isEmpty());
+
+        assertEquals(3, root.person.size());
+        assertPerson(root.person.get(0), "p1", "c1", "k1");
+        assertPerson(root.person.get(1), "p2", "c2", null);
+        assertPerson(root.person.get(2), "p3", null, "k3");
+    }
+
+    private static void assertPerson(Person person, String name, String city, String childName) {
+        assertEquals(name, person.name);
+        assertEquals(city, null == person.address ? null : person.address.city);
+        if (null == childName) {
+            assertNull(person.child);
+        } else {
+            assertEquals(childName, person.child.name);
+            assertNull(person.child.child);
+        }
+    }
+}
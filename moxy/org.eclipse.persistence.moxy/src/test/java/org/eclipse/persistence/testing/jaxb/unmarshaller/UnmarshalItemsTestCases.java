@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.jaxb.unmarshaller;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.JAXBUnmarshaller;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.MediaType;
+import org.eclipse.persistence.testing.oxm.OXTestCase;
+
+public class UnmarshalItemsTestCases extends OXTestCase {
+
+    private static final String XML = "<orders xmlns:p=\"urn:p\">"
+            + "<order><id>1</id><item><name>a</name><quantity>1</quantity></item>"
+            + "<note><item><name>nested</name></item></note>"
+            + "<p:item><name>b</name><quantity>2</quantity></p:item></order>"
+            + "<item><name>outside</name></item>"
+            + "<order><item><name>c</name><quantity>3</quantity></item></order>"
+            + "</orders>";
+
+    private static final String JSON = "{\"orders\":{"
+            + "\"order\":[{\"id\":1,\"item\":[{\"name\":\"a\",\"quantity\":1},{\"name\":\"b\",\"quantity\":2}],"
+            + "\"note\":{\"item\":[{\"name\":\"nested\"}]}},"
+            + "{\"item\":{\"name\":\"c\",\"quantity\":3}}],"
+            + "\"item\":[{\"name\":\"outside\"}]}}";
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Item {
+        public String name;
+        public int quantity;
+    }
+
+    private JAXBContext jaxbContext;
+
+    public UnmarshalItemsTestCases(String name) {
+        super(name);
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        jaxbContext = JAXBContextFactory.createContext(new Class[] {Item.class}, null);
+    }
+
+    public void testXMLItems() throws Exception {
+        JAXBUnmarshaller unmarshaller = (JAXBUnmarshaller) jaxbContext.createUnmarshaller();
+        List<Item> items = new ArrayList<>();
+        unmarshaller.unmarshalItems(new ByteArrayInputStream(XML.getBytes(StandardCharsets.UTF_8)), "/orders/order/item", Item.class, items::add);
+        assertItems(items, "a", "b", "c");
+    }
+
+    public void testXMLItemsFromReader() throws Exception {
+        JAXBUnmarshaller unmarshaller = (JAXBUnmarshaller) jaxbContext.createUnmarshaller();
+        List<Item> items = new ArrayList<>();
+        unmarshaller.unmarshalItems(new StringReader(XML), "orders/item", Item.class, items::add);
+        assertEquals(1, items.size());
+        assertEquals("outside", items.get(0).name);
+    }
+
+    public void testJSONItems() throws Exception {
+        JAXBUnmarshaller unmarshaller = (JAXBUnmarshaller) jaxbContext.createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        List<Item> items = new ArrayList<>();
+        unmarshaller.unmarshalItems(new ByteArrayInputStream(JSON.getBytes(StandardCharsets.UTF_8)), "orders/order/item", Item.class, items::add);
+        assertItems(items, "a", "b", "c");
+        assertEquals(Boolean.TRUE, unmarshaller.getProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT));
+    }
+
+    public void testJSONRootArrayItems() throws Exception {
+        JAXBUnmarshaller unmarshaller = (JAXBUnmarshaller) jaxbContext.createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        List<Item> items = new ArrayList<>();
+        unmarshaller.unmarshalItems(new StringReader("[{\"name\":\"a\",\"quantity\":1},{\"name\":\"b\",\"quantity\":2}]"), "", Item.class, items::add);
+        assertItems(items, "a", "b");
+    }
+
+    private static void assertItems(List<Item> items, String... names) {
+        assertEquals(names.length, items.size());
+        for (int index = 0; index < names.length; index++) {
+            assertEquals(names[index], items.get(index).name);
+            assertEquals(index + 1, items.get(index).quantity);
+        }
+    }
+}
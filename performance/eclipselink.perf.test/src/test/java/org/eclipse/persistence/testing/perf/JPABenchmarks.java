@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,7 +14,10 @@
 //              ljungmann - initial implementation
 package org.eclipse.persistence.testing.perf;
 
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.JPAClassIndexTests;
 import org.eclipse.persistence.testing.perf.jpa.tests.basic.JPAMetadataProcessingTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.JPAStartupTests;
+import org.eclipse.persistence.testing.perf.jpa.tests.basic.JPQLParsingTests;
 import org.eclipse.persistence.testing.perf.jpa.tests.basic.MethodHandleComparisonTests;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
@@ -40,6 +43,9 @@ public static void main(String[] args) throws RunnerException {
 
         Options opt = new OptionsBuilder()
                 .include(getInclude(JPAMetadataProcessingTests.class))
+                .include(getInclude(JPAStartupTests.class))
+                .include(getInclude(JPAClassIndexTests.class))
+                .include(getInclude(JPQLParsingTests.class))
                 .include(getInclude(MethodHandleComparisonTests.class))
                 .jvmArgsPrepend("-javaagent:" + System.getProperty("eclipselink.agent"))
                 .result(resultFile)
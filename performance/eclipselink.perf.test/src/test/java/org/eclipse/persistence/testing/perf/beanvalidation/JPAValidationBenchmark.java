@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -12,6 +12,7 @@
 
 // Contributors:
 //     Marcel Valovy - initial implementation
+//     Oracle - 3.0.1 - updates of constrained and not constrained attributes
 package org.eclipse.persistence.testing.perf.beanvalidation;
 
 import org.eclipse.persistence.jpa.PersistenceProvider;
@@ -36,8 +37,11 @@
 @State(Scope.Benchmark)
 public class JPAValidationBenchmark {
 
+    private static final int UPDATED_ID = 251;
+
     private EntityManagerFactory emf;
     private EntityManager em;
+    private int updates;
 
     @Benchmark
     public void testJpaAnnotated(Blackhole bh) throws Exception {
@@ -51,6 +55,33 @@ public void testJpaAnnotated(Blackhole bh) throws Exception {
         bh.consume(employee);
     }
 
+    /**
+     * Updates an attribute that is not constrained of a constrained entity, not validated on update.
+     */
+    @Benchmark
+    public void testJpaAnnotatedUpdate(Blackhole bh) throws Exception {
+        final EntityTransaction transaction = em.getTransaction();
+        transaction.begin();
+        EmployeeAnnotated employee = em.find(EmployeeAnnotated.class, UPDATED_ID);
+        employee.withAge(++updates);
+        em.flush();
+        transaction.rollback();
+        bh.consume(transaction);
+        bh.consume(employee);
+    }
+
+    @Benchmark
+    public void testJpaUpdate(Blackhole bh) throws Exception {
+        final EntityTransaction transaction = em.getTransaction();
+        transaction.begin();
+        Employee employee = em.find(Employee.class, UPDATED_ID);
+        employee.withAge(++updates);
+        em.flush();
+        transaction.rollback();
+        bh.consume(transaction);
+        bh.consume(employee);
+    }
+
     @Benchmark
     public void testJpa(Blackhole bh) throws Exception {
         final EntityTransaction transaction = em.getTransaction();
@@ -76,6 +107,11 @@ public void prepare() throws Exception {
      */
     @TearDown
     public void tearDown() throws Exception {
+        final EntityTransaction transaction = em.getTransaction();
+        transaction.begin();
+        em.remove(em.find(Employee.class, UPDATED_ID));
+        em.remove(em.find(EmployeeAnnotated.class, UPDATED_ID));
+        transaction.commit();
         emf = null;
         em.close();
         em = null;
@@ -84,5 +120,13 @@ public void tearDown() throws Exception {
     private void prepareJPA() throws Exception {
         emf = new PersistenceProvider().createEntityManagerFactory("my-app", null);
         em = emf.createEntityManager();
+        // The updated employees
+        final EntityTransaction transaction = em.getTransaction();
+        transaction.begin();
+        em.merge(new Employee().withAge(51289).withPersonalName("Robert Paulson")
+                .withPhoneNumber("(420)333-4444").withId(UPDATED_ID));
+        em.merge(new EmployeeAnnotated().withAge(51289).withPersonalName("Robert Paulson")
+                .withPhoneNumber("(420)333-4444").withId(UPDATED_ID));
+        transaction.commit();
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -12,6 +12,7 @@
 
 // Contributors:
 //     Marcel Valovy - 2.6 - initial implementation
+//     Oracle - 3.0.1 - (un)marshallers created per operation
 package org.eclipse.persistence.testing.perf.beanvalidation;
 
 import org.eclipse.persistence.jaxb.BeanValidationMode;
@@ -84,6 +85,42 @@ public void testUnmarshalAnnotated(Blackhole bh) throws Exception {
         bh.consume(result);
     }
 
+    /**
+     * Marshals with a marshaller created for the operation, as usual in applications,
+     * the validator being shared by the marshallers of the context.
+     */
+    @Benchmark
+    public void testMarshalAnnotatedNewMarshaller(Blackhole bh) throws Exception {
+        StringWriter writer = new StringWriter();
+        EmployeeAnnotated employee = new EmployeeAnnotated().withAge(51289).withPersonalName("Robert Paulson")
+                .withPhoneNumber("(420)333-4444").withId(250);
+        ctx.createMarshaller().marshal(employee, writer);
+        bh.consume(writer);
+        bh.consume(employee);
+    }
+
+    /**
+     * Unmarshals with an unmarshaller created for the operation, as usual in applications,
+     * the validator being shared by the unmarshallers of the context.
+     */
+    @Benchmark
+    public void testUnmarshalAnnotatedNewUnmarshaller(Blackhole bh) throws Exception {
+        EmployeeAnnotated result = (EmployeeAnnotated) ctx.createUnmarshaller().unmarshal(Thread.currentThread()
+                .getContextClassLoader().getResource(EMPLOYEE_ANNOTATED_XML));
+        bh.consume(result);
+    }
+
+    /**
+     * Unmarshals an object that is not constrained with an unmarshaller created for the operation,
+     * the validation being skipped.
+     */
+    @Benchmark
+    public void testUnmarshalNewUnmarshaller(Blackhole bh) throws Exception {
+        Employee result = (Employee) ctx.createUnmarshaller().unmarshal(Thread.currentThread()
+                .getContextClassLoader().getResource(EMPLOYEE_XML));
+        bh.consume(result);
+    }
+
     /**
      * Initial setup.
      */
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.identitymaps;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.eclipse.persistence.internal.identitymaps.FullIdentityMap;
+import org.eclipse.persistence.internal.identitymaps.IdentityMap;
+import org.eclipse.persistence.internal.identitymaps.LongIdentityMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the heap footprint and lookup time of a full identity map and a long identity map
+ * holding 1M cached entities with a long id.
+ * Run with the gc profiler (-prof gc) for the heap footprint, the bytes allocated by {@link #testFill}
+ * divided by {@link #ENTITIES} being the heap per cached entity, excluding the entities themselves.
+ */
+@State(Scope.Benchmark)
+public class IdentityMapFootprintBenchmark {
+
+    public static final int ENTITIES = 1000000;
+
+    @Param({"Full", "FullLong"})
+    public String cacheType;
+
+    private IdentityMap map;
+    private Entity[] entities;
+
+    public static class Entity {
+        public long id;
+        public String name;
+
+        public Entity(long id) {
+            this.id = id;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        entities = new Entity[ENTITIES];
+        for (int index = 0; index < ENTITIES; index++) {
+            entities[index] = new Entity(index);
+        }
+        map = fill();
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        map = null;
+        entities = null;
+    }
+
+    /**
+     * Fill a new map with all the entities. The map is sized for them, so all it allocates is retained.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public IdentityMap testFill() {
+        return fill();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testGet(Blackhole bh) {
+        bh.consume(map.get(Long.valueOf(ThreadLocalRandom.current().nextInt(ENTITIES))));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void testAcquireDeferredLock(Blackhole bh) {
+        long id = ThreadLocalRandom.current().nextInt(ENTITIES);
+        bh.consume(map.acquireDeferredLock(id, true));
+        map.getCacheKey(id, false).releaseDeferredLock();
+    }
+
+    private IdentityMap fill() {
+        IdentityMap map;
+        if (cacheType.equals("FullLong")) {
+            map = new LongIdentityMap(ENTITIES, null, null, false);
+        } else {
+            map = new FullIdentityMap(ENTITIES, null, null, false);
+        }
+        for (Entity entity : entities) {
+            map.put(entity.id, entity, null, 0);
+        }
+        return map;
+    }
+}
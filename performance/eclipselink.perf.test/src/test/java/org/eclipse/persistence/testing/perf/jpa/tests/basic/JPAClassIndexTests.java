@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.internal.jpa.deployment.ArchiveFactoryImpl;
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitClassIndex;
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.internal.libraries.asm.ClassWriter;
+import org.eclipse.persistence.internal.libraries.asm.FieldVisitor;
+import org.eclipse.persistence.internal.libraries.asm.Opcodes;
+import org.eclipse.persistence.jpa.Archive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for finding the managed classes of a 500 class jar on a cold start,
+ * with or without a class index.
+ *
+ * @see JPAStartupTests
+ */
+@State(Scope.Benchmark)
+public class JPAClassIndexTests {
+
+    private static final int CLASSES = 500;
+    private static final int ENTITIES = 50;
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    private File jar;
+
+    @Setup
+    public void setup() throws IOException {
+        jar = File.createTempFile("classindex", ".jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (int index = 0; index < CLASSES; index++) {
+                out.putNextEntry(new JarEntry("model/Class" + index + ".class"));
+                out.write(buildClass("model/Class" + index, index < ENTITIES));
+                out.closeEntry();
+            }
+            if (indexed) {
+                out.putNextEntry(new JarEntry(PersistenceUnitClassIndex.INDEX_ENTRY));
+                PersistenceUnitClassIndex index = new PersistenceUnitClassIndex();
+                index.setClassCount(CLASSES);
+                for (int count = 0; count < ENTITIES; count++) {
+                    index.add("model.Class" + count, PersistenceUnitClassIndex.ENTITY);
+                }
+                index.write(out);
+                out.closeEntry();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        jar.delete();
+    }
+
+    /**
+     * Find the classes of the jar then read them to find the entities, as deployment does, with a new class loader.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void testFindEntities(Blackhole bh) throws IOException {
+        URL url = jar.toURI().toURL();
+        Map<String, String> properties = Collections.singletonMap(PersistenceUnitProperties.METADATA_CLASS_INDEX, String.valueOf(indexed));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {url}, null)) {
+            MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), loader);
+            for (String className : PersistenceUnitProcessor.getClassNamesFromURL(url, loader, properties)) {
+                bh.consume(PersistenceUnitProcessor.isEntity(factory.getMetadataClass(className, true)));
+            }
+        }
+    }
+
+    /**
+     * Build the index of the jar, as the static weaver does.
+     */
+    @Benchmark
+    public void testBuildIndex(Blackhole bh) throws IOException, URISyntaxException {
+        URL url = jar.toURI().toURL();
+        Archive archive = new ArchiveFactoryImpl().createArchive(url, null);
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {url}, null)) {
+            bh.consume(PersistenceUnitClassIndex.build(archive, loader).getClassNames().size());
+        } finally {
+            archive.close();
+        }
+    }
+
+    private static byte[] buildClass(String name, boolean entity) {
+        ClassWriter writer = new ClassWriter(0);
+        writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        if (entity) {
+            writer.visitAnnotation("Ljakarta/persistence/Entity;", true).visitEnd();
+        }
+        FieldVisitor field = writer.visitField(Opcodes.ACC_PRIVATE, "id", "J", null, null);
+        if (entity) {
+            field.visitAnnotation("Ljakarta/persistence/Id;", true).visitEnd();
+        }
+        field.visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE, "name", "Ljava/lang/String;", null, null).visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
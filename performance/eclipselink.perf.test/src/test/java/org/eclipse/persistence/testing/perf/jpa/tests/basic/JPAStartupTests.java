@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import jakarta.persistence.Persistence;
+
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryImpl;
+import org.eclipse.persistence.internal.jpa.deployment.PersistenceUnitProcessor;
+import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
+import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the deployment of a persistence unit, reading the classes in turn or in parallel.
+ *
+ * @see JPAMetadataProcessingTests
+ */
+@State(Scope.Benchmark)
+public class JPAStartupTests {
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private List<String> classNames;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        EntityManagerFactoryImpl emf = (EntityManagerFactoryImpl) Persistence.createEntityManagerFactory("jpa-performance");
+        classNames = new ArrayList<>();
+        for (Class<?> javaClass : emf.getServerSession().getDescriptors().keySet()) {
+            classNames.add(javaClass.getName());
+        }
+        emf.close();
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Deploy the persistence unit, from reading its classes to initializing its descriptors.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void testDeploy(Blackhole bh) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceUnitProperties.METADATA_PROCESSING_PARALLELISM, String.valueOf(parallelism));
+        EntityManagerFactoryImpl emf = (EntityManagerFactoryImpl) Persistence.createEntityManagerFactory("jpa-performance", properties);
+        bh.consume(emf.getServerSession().getDescriptors().size());
+        emf.close();
+    }
+
+    /**
+     * Read the classes of the persistence unit, and check if each is an &#64;Entity.
+     */
+    @Benchmark
+    public void testReadClasses(Blackhole bh) {
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), JPAStartupTests.class.getClassLoader());
+        if (parallelism > 1) {
+            factory.preloadMetadataClasses(classNames, false, pool);
+        }
+        for (String className : classNames) {
+            MetadataClass metadataClass = factory.getMetadataClass(className);
+            bh.consume(PersistenceUnitProcessor.isEntity(metadataClass));
+        }
+    }
+}
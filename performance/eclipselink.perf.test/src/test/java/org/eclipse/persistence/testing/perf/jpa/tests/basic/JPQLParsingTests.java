@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.jpa.tests.basic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import jakarta.persistence.Persistence;
+
+import org.eclipse.persistence.config.ParserValidationType;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.internal.jpa.EntityManagerFactoryImpl;
+import org.eclipse.persistence.internal.jpa.jpql.HermesParser;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for building the queries of a corpus of 1000 JPQL queries on the basic model,
+ * with full, lazy or no validation. Without full validation, most queries are compiled
+ * without creating their parsed tree.
+ */
+@State(Scope.Benchmark)
+public class JPQLParsingTests {
+
+    private static final int QUERIES = 1000;
+
+    private static final String[] SELECTS = {
+        "SELECT e FROM Employee e",
+        "SELECT e.firstName, e.lastName FROM Employee e",
+        "SELECT DISTINCT e FROM Employee e JOIN e.phoneNumbers p",
+        "SELECT e FROM Employee e LEFT JOIN FETCH e.address",
+        "SELECT NEW org.eclipse.persistence.testing.perf.jpa.model.basic.EmploymentPeriod(e.period.startDate, e.period.endDate) FROM Employee e",
+        "SELECT e, a FROM Employee e JOIN e.address a",
+        "SELECT e FROM Employee e JOIN e.projects p",
+        "SELECT e.manager FROM Employee e JOIN e.manager m",
+    };
+
+    private static final String[] CONDITIONS = {
+        "e.firstName = '%s'",
+        "e.lastName LIKE '%s%%'",
+        "e.salary > %d",
+        "e.salary BETWEEN %d AND 100000",
+        "e.id IN (%d, 12, 13)",
+        "e.address.city = '%s' AND e.address.country = 'Canada'",
+        "UPPER(e.lastName) = UPPER('%s')",
+        "e.gender = org.eclipse.persistence.testing.perf.jpa.model.basic.Gender.Female AND e.salary < %d",
+        "e.manager IS NULL OR e.manager.firstName = '%s'",
+        "SIZE(e.phoneNumbers) > %d",
+        "e.jobTitle.title = '%s'",
+        "EXISTS (SELECT p FROM PhoneNumber p WHERE p.owner = e AND p.areaCode = '%s')",
+        "e.salary > (SELECT AVG(x.salary) FROM Employee x WHERE x.address.city = '%s')",
+        "e.id = :id AND e.version >= %d",
+        "e.period.startDate < CURRENT_DATE AND e.firstName <> '%s'",
+        "LENGTH(e.firstName) + %d > 10",
+    };
+
+    private static final String[] AGGREGATES = {
+        "SELECT COUNT(e) FROM Employee e WHERE e.salary > %d",
+        "SELECT e.address.city, COUNT(e), AVG(e.salary) FROM Employee e GROUP BY e.address.city HAVING COUNT(e) > %d",
+        "SELECT p.type, COUNT(p) FROM PhoneNumber p WHERE p.areaCode <> '%s' GROUP BY p.type",
+        "SELECT MAX(l.budget) FROM LargeProject l WHERE l.name LIKE '%s%%'",
+        "SELECT p FROM Project p WHERE p.teamLeader.salary > %d ORDER BY p.name",
+        "SELECT a FROM Address a WHERE a.province = '%s' ORDER BY a.city, a.street DESC",
+        "SELECT d.name FROM Degree d WHERE d.name <> '%s'",
+        "SELECT t FROM JobTitle t WHERE t.title LIKE '%%%s%%'",
+    };
+
+    private static final String[] ORDERS = {
+        "",
+        " ORDER BY e.lastName",
+        " ORDER BY e.salary DESC, e.firstName",
+    };
+
+    private static final String[] NAMES = {
+        "Bob", "Sarah", "Jill", "Nancy", "Charles", "Ottawa", "Toronto", "613", "Manager", "Smith"
+    };
+
+    @Param({ParserValidationType.EclipseLink, ParserValidationType.Lazy, ParserValidationType.None})
+    public String validation;
+
+    private EntityManagerFactoryImpl emf;
+    private AbstractSession session;
+    private HermesParser parser;
+    private List<String> queries;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(PersistenceUnitProperties.VALIDATION_ONLY_PROPERTY, "true");
+        emf = (EntityManagerFactoryImpl) Persistence.createEntityManagerFactory("jpa-performance", properties);
+        // Deploys the persistence unit without connecting.
+        emf.getMetamodel();
+        session = emf.getServerSession();
+        parser = new HermesParser();
+        parser.setValidationLevel(validation);
+        queries = buildQueries();
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+    }
+
+    /**
+     * Build the queries of the corpus, as the named queries of a persistence unit are built on deployment.
+     */
+    @Benchmark
+    public void testBuildQueries(Blackhole bh) {
+        for (String query : queries) {
+            bh.consume(parser.buildQuery(query, session));
+        }
+    }
+
+    /*
+     * Return the corpus, from filtered, aggregating and ordered queries with varied literals.
+     */
+    private static List<String> buildQueries() {
+        Random random = new Random(QUERIES);
+        List<String> queries = new ArrayList<>(QUERIES);
+        while (queries.size() < QUERIES) {
+            String query;
+            if ((queries.size() % 4) == 3) {
+                query = format(AGGREGATES[random.nextInt(AGGREGATES.length)], random);
+            } else {
+                query = SELECTS[random.nextInt(SELECTS.length)]
+                        + " WHERE " + format(CONDITIONS[random.nextInt(CONDITIONS.length)], random);
+                if (random.nextBoolean()) {
+                    query = query + " AND " + format(CONDITIONS[random.nextInt(CONDITIONS.length)], random);
+                }
+                if (!query.startsWith("SELECT DISTINCT") && !query.startsWith("SELECT e.manager")) {
+                    query = query + ORDERS[random.nextInt(ORDERS.length)];
+                }
+            }
+            queries.add(query);
+        }
+        return queries;
+    }
+
+    private static String format(String template, Random random) {
+        if (template.contains("%d")) {
+            return String.format(template, random.nextInt(50000));
+        }
+        return String.format(template, NAMES[random.nextInt(NAMES.length)]);
+    }
+}
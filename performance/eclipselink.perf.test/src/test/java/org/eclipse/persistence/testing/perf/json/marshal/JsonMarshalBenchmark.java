@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -15,6 +15,9 @@
 package org.eclipse.persistence.testing.perf.json.marshal;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -40,6 +43,8 @@
 
 /**
  * Tests Json marshalling.
+ * A list of employees is also marshalled to an output stream, as MOXyJsonProvider does, UTF-8 bytes
+ * being written directly, and to the same output stream through an encoding writer.
  *
  * @author Martin Vojtek
  *
@@ -47,14 +52,19 @@
 @State(Scope.Benchmark)
 public class JsonMarshalBenchmark {
 
+    private static final int EMPLOYEES = 1000;
+
     private JAXBContext jaxbContext;
 
+    private List<Employee> employees;
+
     /*
      * Initial setup.
      */
     @Setup
     public void prepare() throws Exception {
         prepareJAXBContext();
+        employees = buildEmployees();
     }
 
     @Benchmark
@@ -119,6 +129,49 @@ public void testJsonMarshal(Blackhole bh) throws Exception {
         bh.consume(baos);
     }
 
+    @Benchmark
+    public void testJsonMarshalOutputStream(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(128 * EMPLOYEES);
+        marshaller.marshal(employees, outputStream);
+        bh.consume(outputStream);
+    }
+
+    @Benchmark
+    public void testJsonMarshalWriter(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(128 * EMPLOYEES);
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        marshaller.marshal(employees, writer);
+        writer.flush();
+        bh.consume(outputStream);
+    }
+
+    /*
+     * Return employees with ASCII and non ASCII names, and strings to escape.
+     */
+    private static List<Employee> buildEmployees() {
+        List<Employee> employees = new ArrayList<Employee>(EMPLOYEES);
+        for (int index = 0; index < EMPLOYEES; index++) {
+            Employee employee = new Employee();
+            employee.setId(index);
+            employee.setFirstName((index % 4 == 0) ? "Ren\u00e9e" : "Jane");
+            employee.setLastName("Doe \"" + index + "\"");
+
+            PhoneNumber workPhone = new PhoneNumber();
+            workPhone.setType("work");
+            workPhone.setNumber("555-" + (1000 + index));
+            employee.getPhoneNumbers().add(workPhone);
+
+            PhoneNumber homePhone = new PhoneNumber();
+            homePhone.setType("home\tmain");
+            homePhone.setNumber("555-" + (5000 + index));
+            employee.getPhoneNumbers().add(homePhone);
+            employees.add(employee);
+        }
+        return employees;
+    }
+
     private void prepareJAXBContext() throws Exception {
 
         Map<String, Object> jaxbProperties = new HashMap<String, Object>(2);
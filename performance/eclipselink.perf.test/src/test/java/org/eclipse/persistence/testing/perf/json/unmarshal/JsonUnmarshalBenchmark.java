@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,6 +14,8 @@
 //     Martin Vojtek - 2.6.0 - initial implementation
 package org.eclipse.persistence.testing.perf.json.unmarshal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
@@ -23,6 +25,7 @@
 import jakarta.json.JsonArray;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParser.Event;
 import jakarta.xml.bind.JAXBContext;
@@ -31,6 +34,7 @@
 import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.persistence.jaxb.JAXBContextProperties;
+import org.eclipse.persistence.oxm.json.JsonParserSource;
 import org.eclipse.persistence.oxm.json.JsonStructureSource;
 import org.eclipse.persistence.testing.perf.json.model.Employee;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -41,20 +45,27 @@
 
 /**
  * Tests Json unmarshalling.
+ * A large document is also unmarshalled from its parser events and from its JSON structure,
+ * run with the gc profiler (-prof gc) to compare the bytes allocated by each unmarshal.
  */
 @State(Scope.Benchmark)
 public class JsonUnmarshalBenchmark {
 
     private static final String INPUT_JSON = "org/eclipse/persistence/testing/perf/json/unmarshal/input.json";
 
+    private static final int LARGE_EMPLOYEES = 20000;
+
     private JAXBContext jaxbContext;
 
+    private byte[] largeJson;
+
     /*
      * Initial setup.
      */
     @Setup
     public void prepare() throws Exception {
         prepareJAXBContext();
+        largeJson = buildLargeJson();
     }
 
     @Benchmark
@@ -162,6 +173,64 @@ public void testJsonParser(Blackhole bh) throws Exception {
         }
     }
 
+    /**
+     * Unmarshal the large document from its parser events, without building its JSON structure.
+     */
+    @Benchmark
+    public void testLargeJsonParserUnmarshal(Blackhole bh) throws Exception {
+        bh.consume(unmarshalFromParser());
+    }
+
+    /**
+     * Unmarshal the large document from its JSON structure, read first.
+     */
+    @Benchmark
+    public void testLargeJsonStructureUnmarshal(Blackhole bh) throws Exception {
+        bh.consume(unmarshalFromStructure());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Employee> unmarshalFromParser() throws Exception {
+        try (JsonParser parser = Json.createParser(new ByteArrayInputStream(largeJson))) {
+            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            return (List<Employee>) unmarshaller.unmarshal(new JsonParserSource(parser), Employee.class).getValue();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Employee> unmarshalFromStructure() throws Exception {
+        try (JsonReader jsonReader = Json.createReader(new ByteArrayInputStream(largeJson))) {
+            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+            return (List<Employee>) unmarshaller.unmarshal(new JsonStructureSource(jsonReader.readArray()), Employee.class).getValue();
+        }
+    }
+
+    /*
+     * Return a root array of employees with phone numbers.
+     */
+    private static byte[] buildLargeJson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = Json.createGenerator(out)) {
+            generator.writeStartArray();
+            for (int index = 0; index < LARGE_EMPLOYEES; index++) {
+                generator.writeStartObject()
+                        .write("id", index)
+                        .write("firstName", "First" + index)
+                        .write("lastName", "Last" + index)
+                        .writeStartArray("phoneNumbers");
+                for (int phone = 0; phone < 3; phone++) {
+                    generator.writeStartObject()
+                            .write("type", phone == 0 ? "work" : "home")
+                            .write("number", String.valueOf(613000000 + index * 3 + phone))
+                            .writeEnd();
+                }
+                generator.writeEnd().writeEnd();
+            }
+            generator.writeEnd();
+        }
+        return out.toByteArray();
+    }
+
     private void prepareJAXBContext() throws Exception {
         Map<String, Object> jaxbProperties = new HashMap<String, Object>(2);
         jaxbProperties.put(JAXBContextProperties.MEDIA_TYPE, "application/json");
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,6 +14,7 @@
 //     Martin Vojtek - 2.6.0 - initial implementation
 package org.eclipse.persistence.testing.perf.json.writer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
 
 import jakarta.json.Json;
@@ -24,13 +25,33 @@
 import org.openjdk.jmh.infra.Blackhole;
 
 /**
- * Tests JsonWriter.
+ * Tests JsonWriter, writing characters to a writer and UTF-8 bytes to an output stream,
+ * to compare with the JSON marshalling benchmarks.
  */
 public class JsonWriterBenchmark {
 
     @Benchmark
     public void testJsonWriter(Blackhole bh) {
-        JsonObject model = Json.createObjectBuilder()
+        StringWriter stWriter = new StringWriter();
+        JsonWriter jsonWriter = Json.createWriter(stWriter);
+        jsonWriter.writeObject(buildModel());
+        jsonWriter.close();
+
+        bh.consume(stWriter.toString());
+    }
+
+    @Benchmark
+    public void testJsonWriterOutputStream(Blackhole bh) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        JsonWriter jsonWriter = Json.createWriter(outputStream);
+        jsonWriter.writeObject(buildModel());
+        jsonWriter.close();
+
+        bh.consume(outputStream.toByteArray());
+    }
+
+    private static JsonObject buildModel() {
+        return Json.createObjectBuilder()
                 .add("firstName", "Duke")
                 .add("lastName", "Java")
                 .add("age", 18)
@@ -46,12 +67,5 @@ public void testJsonWriter(Blackhole bh) {
                       .add("type", "home")
                       .add("number", "222-222-2222")))
                 .build();
-
-        StringWriter stWriter = new StringWriter();
-        JsonWriter jsonWriter = Json.createWriter(stWriter);
-        jsonWriter.writeObject(model);
-        jsonWriter.close();
-
-        bh.consume(stWriter.toString());
     }
 }
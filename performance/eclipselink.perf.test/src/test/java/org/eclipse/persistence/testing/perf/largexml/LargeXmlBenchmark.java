@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -15,13 +15,19 @@
 package org.eclipse.persistence.testing.perf.largexml;
 
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.io.StringWriter;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
 
 import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.Marshaller;
 import jakarta.xml.bind.Unmarshaller;
 
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
 import org.eclipse.persistence.testing.perf.largexml.bigpo.ObjectFactory;
 import org.eclipse.persistence.testing.perf.largexml.bigpo.WrappedPurchaseOrderType;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -32,6 +38,10 @@
 
 /**
  * This benchmark demonstrates large xml marshal and unmarshal.
+ * The compact OutputStream benchmarks write the pre-encoded element and attribute names
+ * without the indenting of the formatted ones.
+ * The XMLStreamReader and XMLEventReader benchmarks unmarshal from StAX readers rather than a SAX parser.
+ * The context benchmarks create the JAXBContext of the purchase order, and get one shared with a context in use.
  *
  * @author Martin Vojtek (martin.vojtek@oracle.com)
  *
@@ -40,8 +50,11 @@
 public class LargeXmlBenchmark {
     private static final String BIG_PURCHASE_ORDER_XML = "org/eclipse/persistence/testing/perf/largexml/bigpo/BigPurchaseOrder.xml";
     private static final String A_LOT_OF_ITEMS_XML = "org/eclipse/persistence/testing/perf/largexml/bigpo/LotOfItems.xml";
+    private static final Map<String, Object> SHARED_CONTEXT_PROPERTIES = Collections.singletonMap(JAXBContextProperties.SHARE_CONTEXTS, Boolean.TRUE);
 
     private JAXBContext jaxbContext;
+    private JAXBContext sharedContext;
+    private XMLInputFactory xmlInputFactory;
     private WrappedPurchaseOrderType bigPurchaseOrder;
     private WrappedPurchaseOrderType lotOfItemsOrder;
 
@@ -51,6 +64,7 @@ public class LargeXmlBenchmark {
     @Setup
     public void prepare() throws Exception {
         prepareJAXBContext();
+        xmlInputFactory = XMLInputFactory.newInstance();
         prepareLotOfItems();
         prepareBigPurchaseOrder();
     }
@@ -79,6 +93,14 @@ public void testBigPurchaseOrderOutputStreamMarshal(Blackhole bh) throws Excepti
         marshaller.marshal(bigPurchaseOrder, baos);
         bh.consume(baos.toString());
     }
+
+    @Benchmark
+    public void testBigPurchaseOrderCompactOutputStreamMarshal(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshal(bigPurchaseOrder, baos);
+        bh.consume(baos.toString());
+    }
     @Benchmark
     public void testALotOfItemsUnmarshal(Blackhole bh) throws Exception {
         Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
@@ -86,6 +108,22 @@ public void testALotOfItemsUnmarshal(Blackhole bh) throws Exception {
         bh.consume(aLotOfItems);
     }
 
+    @Benchmark
+    public void testALotOfItemsXMLStreamReaderUnmarshal(Blackhole bh) throws Exception {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(A_LOT_OF_ITEMS_XML)) {
+            bh.consume(unmarshaller.unmarshal(xmlInputFactory.createXMLStreamReader(inputStream)));
+        }
+    }
+
+    @Benchmark
+    public void testALotOfItemsXMLEventReaderUnmarshal(Blackhole bh) throws Exception {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        try (InputStream inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(A_LOT_OF_ITEMS_XML)) {
+            bh.consume(unmarshaller.unmarshal(xmlInputFactory.createXMLEventReader(inputStream)));
+        }
+    }
+
     @Benchmark
     public void testALotOfItemsMarshal(Blackhole bh) throws Exception {
         Marshaller marshaller = jaxbContext.createMarshaller();
@@ -103,6 +141,28 @@ public void testALotOfItemsOutputStreamMarshal(Blackhole bh) throws Exception {
         marshaller.marshal(lotOfItemsOrder, baos);
         bh.consume(baos.toString());
     }
+
+    @Benchmark
+    public void testALotOfItemsCompactOutputStreamMarshal(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshal(lotOfItemsOrder, baos);
+        bh.consume(baos.toString());
+    }
+
+    @Benchmark
+    public void testCreateContext(Blackhole bh) throws Exception {
+        bh.consume(JAXBContext.newInstance(ObjectFactory.class));
+    }
+
+    /**
+     * Create a context shared with {@link #sharedContext}, which is still in use.
+     */
+    @Benchmark
+    public void testCreateSharedContext(Blackhole bh) throws Exception {
+        bh.consume(JAXBContext.newInstance(new Class[] {ObjectFactory.class}, SHARED_CONTEXT_PROPERTIES));
+    }
+
     private void prepareBigPurchaseOrder() throws Exception {
         Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
         @SuppressWarnings("rawtypes")
@@ -119,5 +179,6 @@ private void prepareLotOfItems() throws Exception {
 
     private void prepareJAXBContext() throws Exception {
         jaxbContext = JAXBContext.newInstance(ObjectFactory.class);
+        sharedContext = JAXBContext.newInstance(new Class[] {ObjectFactory.class}, SHARED_CONTEXT_PROPERTIES);
     }
 }
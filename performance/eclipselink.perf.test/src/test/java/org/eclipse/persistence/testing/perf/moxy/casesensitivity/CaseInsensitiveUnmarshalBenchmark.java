@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -14,37 +14,84 @@
 //     Marcel Valovy - 2.6 - initial implementation
 package org.eclipse.persistence.testing.perf.moxy.casesensitivity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.stream.StreamSource;
+
 import org.eclipse.persistence.jaxb.JAXBContext;
 import org.eclipse.persistence.jaxb.JAXBContextFactory;
 import org.eclipse.persistence.jaxb.JAXBUnmarshaller;
 import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.MediaType;
 import org.eclipse.persistence.testing.perf.moxy.casesensitivity.correctCase.LoremIpsum;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
-
-import java.io.File;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
 
 /**
- * Performance tests for case insensitive vs case sensitive (aka with feature off) unmarshalling.
+ * Performance tests for case insensitive vs case sensitive (aka with feature off) unmarshalling,
+ * of XML or JSON documents.
+ * <p>Besides the small lorem ipsum document, a list of items of a wide type, of many properties,
+ * is unmarshalled from a document in the case of the properties, case sensitive, and from the same
+ * document upper cased, case insensitive. Both should take about the same time.
  *
  * @author Marcel Valovy - marcel.valovy@oracle.com
  */
 @State(Scope.Benchmark)
 public class CaseInsensitiveUnmarshalBenchmark {
 
-    private File file;
+    private static final int WIDE_ITEMS = 200;
+
+    @XmlRootElement
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class WideItems {
+        public List<WideItem> item;
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class WideItem {
+        public String
+                propertyName00, propertyName01, propertyName02, propertyName03, propertyName04, propertyName05, propertyName06, propertyName07,
+                propertyName08, propertyName09, propertyName10, propertyName11, propertyName12, propertyName13, propertyName14, propertyName15,
+                propertyName16, propertyName17, propertyName18, propertyName19, propertyName20, propertyName21, propertyName22, propertyName23,
+                propertyName24, propertyName25, propertyName26, propertyName27, propertyName28, propertyName29, propertyName30, propertyName31,
+                propertyName32, propertyName33, propertyName34, propertyName35, propertyName36, propertyName37, propertyName38, propertyName39,
+                propertyName40, propertyName41, propertyName42, propertyName43, propertyName44, propertyName45, propertyName46, propertyName47,
+                propertyName48, propertyName49, propertyName50, propertyName51, propertyName52, propertyName53, propertyName54, propertyName55,
+                propertyName56, propertyName57, propertyName58, propertyName59, propertyName60, propertyName61, propertyName62, propertyName63;
+    }
+
+    @Param({"xml", "json"})
+    public String mediaType;
+
+    private byte[] loremIpsum;
+    private byte[] wideCorrectCase;
+    private byte[] wideOtherCase;
 
     private JAXBUnmarshaller unmCorrectCaseSensitive;
     private JAXBUnmarshaller unmOtherCaseInsensitive;
+    private JAXBUnmarshaller unmWideCaseSensitive;
+    private JAXBUnmarshaller unmWideCaseInsensitive;
 
     @Benchmark
     public void testUnmarshalCorrectCaseSensitive(Blackhole bh) throws Exception {
         LoremIpsum loremCorrectCase
-                = (LoremIpsum) unmCorrectCaseSensitive.unmarshal(file);
+                = (LoremIpsum) unmCorrectCaseSensitive.unmarshal(new StreamSource(new ByteArrayInputStream(loremIpsum)), LoremIpsum.class).getValue();
 
         bh.consume(loremCorrectCase);
     }
@@ -52,11 +99,22 @@ public void testUnmarshalCorrectCaseSensitive(Blackhole bh) throws Exception {
     @Benchmark
     public void testUnmarshalOtherCaseInsensitive (Blackhole bh) throws Exception {
         org.eclipse.persistence.testing.perf.moxy.casesensitivity.otherCase.LoremIpsum loremOtherCase
-                = (org.eclipse.persistence.testing.perf.moxy.casesensitivity.otherCase.LoremIpsum) unmOtherCaseInsensitive.unmarshal(file);
+                = (org.eclipse.persistence.testing.perf.moxy.casesensitivity.otherCase.LoremIpsum) unmOtherCaseInsensitive
+                        .unmarshal(new StreamSource(new ByteArrayInputStream(loremIpsum)), org.eclipse.persistence.testing.perf.moxy.casesensitivity.otherCase.LoremIpsum.class).getValue();
 
         bh.consume(loremOtherCase);
     }
 
+    @Benchmark
+    public void testUnmarshalWideCorrectCaseSensitive(Blackhole bh) throws Exception {
+        bh.consume(unmWideCaseSensitive.unmarshal(new StreamSource(new ByteArrayInputStream(wideCorrectCase)), WideItems.class).getValue());
+    }
+
+    @Benchmark
+    public void testUnmarshalWideOtherCaseInsensitive(Blackhole bh) throws Exception {
+        bh.consume(unmWideCaseInsensitive.unmarshal(new StreamSource(new ByteArrayInputStream(wideOtherCase)), WideItems.class).getValue());
+    }
+
     /**
      * Initial setup.
      */
@@ -74,8 +132,27 @@ public void prepare() throws Exception {
         unmOtherCaseInsensitive = ctxOtherCaseInsensitive.createUnmarshaller();
         unmOtherCaseInsensitive.setProperty(UnmarshallerProperties.UNMARSHALLING_CASE_INSENSITIVE, Boolean.TRUE);
 
-        file = new File(Thread.currentThread().getContextClassLoader().getResource
-                ("org/eclipse/persistence/testing/perf/casesensitivity/loremIpsum.xml").getPath());
+        /* Create and assign the unmarshallers of the wide type, case-sensitive and case-insensitive */
+        JAXBContext ctxWide = (JAXBContext) JAXBContextFactory.createContext(new Class[]{WideItems.class}, null);
+        unmWideCaseSensitive = ctxWide.createUnmarshaller();
+        unmWideCaseInsensitive = ctxWide.createUnmarshaller();
+        unmWideCaseInsensitive.setProperty(UnmarshallerProperties.UNMARSHALLING_CASE_INSENSITIVE, Boolean.TRUE);
+
+        boolean json = "json".equals(mediaType);
+        if (json) {
+            unmCorrectCaseSensitive.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+            unmOtherCaseInsensitive.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+            unmWideCaseSensitive.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+            unmWideCaseInsensitive.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        }
+
+        try (InputStream xml = Thread.currentThread().getContextClassLoader().getResourceAsStream
+                ("org/eclipse/persistence/testing/perf/casesensitivity/loremIpsum.xml")) {
+            Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(xml).getDocumentElement();
+            loremIpsum = (json ? toJson(root) : toXml(root)).getBytes(StandardCharsets.UTF_8);
+        }
+        wideCorrectCase = buildWideDocument(json, false).getBytes(StandardCharsets.UTF_8);
+        wideOtherCase = buildWideDocument(json, true).getBytes(StandardCharsets.UTF_8);
     }
 
     /**
@@ -85,6 +162,74 @@ public void prepare() throws Exception {
     public void tearDown() throws Exception {
         unmCorrectCaseSensitive = null;
         unmOtherCaseInsensitive = null;
+        unmWideCaseSensitive = null;
+        unmWideCaseInsensitive = null;
+    }
+
+    /*
+     * Return the items of the wide type, the names of their properties upper cased if otherCase.
+     */
+    private static String buildWideDocument(boolean json, boolean otherCase) {
+        StringBuilder document = new StringBuilder(WIDE_ITEMS * 64 * 40);
+        document.append(json ? "{\"wideItems\":{\"item\":[" : "<wideItems>");
+        for (int index = 0; index < WIDE_ITEMS; index++) {
+            document.append(json ? (index > 0 ? ",{" : "{") : "<item>");
+            for (int property = 0; property < 64; property++) {
+                String name = String.format("propertyName%02d", property);
+                if (otherCase) {
+                    name = name.toUpperCase(Locale.ROOT);
+                }
+                String value = "value" + index + "-" + property;
+                if (json) {
+                    document.append(property > 0 ? ",\"" : "\"").append(name).append("\":\"").append(value).append('"');
+                } else {
+                    document.append('<').append(name).append('>').append(value).append("</").append(name).append('>');
+                }
+            }
+            document.append(json ? "}" : "</item>");
+        }
+        return document.append(json ? "]}}" : "</wideItems>").toString();
+    }
+
+    /*
+     * Return the element, of attributes and of child elements of text, as XML.
+     */
+    private static String toXml(Element root) {
+        StringBuilder document = new StringBuilder("<").append(root.getTagName());
+        NamedNodeMap attributes = root.getAttributes();
+        for (int index = 0; index < attributes.getLength(); index++) {
+            Node attribute = attributes.item(index);
+            document.append(' ').append(attribute.getNodeName()).append("=\"").append(attribute.getNodeValue()).append('"');
+        }
+        document.append('>');
+        for (Node child = root.getFirstChild(); null != child; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                document.append('<').append(child.getNodeName()).append('>').append(child.getTextContent())
+                        .append("</").append(child.getNodeName()).append('>');
+            }
+        }
+        return document.append("</").append(root.getTagName()).append('>').toString();
+    }
+
+    /*
+     * Return the element, of attributes and of child elements of text, as JSON.
+     */
+    private static String toJson(Element root) {
+        StringBuilder document = new StringBuilder("{\"").append(root.getTagName()).append("\":{");
+        NamedNodeMap attributes = root.getAttributes();
+        String separator = "";
+        for (int index = 0; index < attributes.getLength(); index++) {
+            Node attribute = attributes.item(index);
+            document.append(separator).append('"').append(attribute.getNodeName()).append("\":\"").append(attribute.getNodeValue()).append('"');
+            separator = ",";
+        }
+        for (Node child = root.getFirstChild(); null != child; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                document.append(separator).append('"').append(child.getNodeName()).append("\":\"").append(child.getTextContent()).append('"');
+                separator = ",";
+            }
+        }
+        return document.append("}}").toString();
     }
 
 }
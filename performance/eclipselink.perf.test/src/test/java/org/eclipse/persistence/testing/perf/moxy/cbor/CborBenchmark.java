@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.moxy.cbor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.MarshallerProperties;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.MediaType;
+import org.eclipse.persistence.testing.perf.json.model.Employee;
+import org.eclipse.persistence.testing.perf.json.model.PhoneNumber;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Marshals and unmarshals the same employees as JSON text and as CBOR, its binary form,
+ * with the same mappings. The size of the document of each media type is reported by the {@link DocumentSize} counter.
+ */
+@State(Scope.Benchmark)
+public class CborBenchmark {
+
+    private static final int EMPLOYEES = 2000;
+
+    /**
+     * The size of the document marshalled or unmarshalled.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DocumentSize {
+        public long documentBytes;
+    }
+
+    @XmlRootElement
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Employees {
+        public List<Employee> employee;
+    }
+
+    @Param({"json", "cbor"})
+    public String mediaType;
+
+    private JAXBContext jaxbContext;
+    private Employees employees;
+    private byte[] document;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        jaxbContext = JAXBContextFactory.createContext(new Class[] {Employees.class}, null);
+        employees = buildEmployees();
+        document = marshal().toByteArray();
+    }
+
+    @Benchmark
+    public void testMarshal(DocumentSize size, Blackhole bh) throws Exception {
+        ByteArrayOutputStream outputStream = marshal();
+        size.documentBytes = outputStream.size();
+        bh.consume(outputStream);
+    }
+
+    @Benchmark
+    public void testUnmarshal(DocumentSize size, Blackhole bh) throws Exception {
+        size.documentBytes = document.length;
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, getMediaType());
+        bh.consume(unmarshaller.unmarshal(new StreamSource(new ByteArrayInputStream(document)), Employees.class).getValue());
+    }
+
+    private ByteArrayOutputStream marshal() throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, getMediaType());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(EMPLOYEES * 256);
+        marshaller.marshal(employees, outputStream);
+        return outputStream;
+    }
+
+    private MediaType getMediaType() {
+        return "cbor".equals(mediaType) ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+    }
+
+    /*
+     * Return the employees with phone numbers.
+     */
+    private static Employees buildEmployees() {
+        Employees employees = new Employees();
+        employees.employee = new ArrayList<>(EMPLOYEES);
+        for (int index = 0; index < EMPLOYEES; index++) {
+            Employee employee = new Employee();
+            employee.setFirstName("First" + index);
+            employee.setLastName("Last" + index);
+            employee.setId(index);
+            for (int phone = 0; phone < 3; phone++) {
+                PhoneNumber phoneNumber = new PhoneNumber();
+                phoneNumber.setNumber(String.valueOf(613000000L + index * 3L + phone));
+                phoneNumber.setType(phone == 0 ? "work" : "home");
+                employee.getPhoneNumbers().add(phoneNumber);
+            }
+            employees.employee.add(employee);
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.moxy.streaming;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.xml.bind.JAXBContext;
+
+import org.eclipse.persistence.jaxb.JAXBUnmarshaller;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.MediaType;
+import org.eclipse.persistence.testing.perf.json.model.Employee;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Unmarshals the employees of a generated document of about 1GB, XML or JSON, one at a time
+ * with {@link JAXBUnmarshaller#unmarshalItems}. The most heap used while unmarshalling is reported
+ * by the {@link HeapUsage} counter, and stays about the same whatever the size of the document.
+ * Not part of the regular test harness, for the time the document takes to write and read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+public class StreamingUnmarshalBenchmark {
+
+    private static final int HEAP_SAMPLE_ITEMS = 10000;
+
+    /**
+     * The most heap used while unmarshalling, sampled every {@link #HEAP_SAMPLE_ITEMS} items.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapUsage {
+        public long maxUsedHeapMegabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            maxUsedHeapMegabytes = 0;
+        }
+
+        void sample(Runtime runtime) {
+            maxUsedHeapMegabytes = Math.max(maxUsedHeapMegabytes, (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        }
+    }
+
+    @Param({"1024"})
+    public int documentMegabytes;
+
+    @Param({"xml", "json"})
+    public String mediaType;
+
+    private JAXBContext jaxbContext;
+    private File document;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        jaxbContext = JAXBContext.newInstance(Employee.class);
+        document = File.createTempFile("employees", "." + mediaType);
+        writeDocument();
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        document.delete();
+    }
+
+    @Benchmark
+    public void testUnmarshalItems(HeapUsage heapUsage, Blackhole bh) throws Exception {
+        JAXBUnmarshaller unmarshaller = (JAXBUnmarshaller) jaxbContext.createUnmarshaller();
+        if ("json".equals(mediaType)) {
+            unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        }
+        long[] count = new long[1];
+        Runtime runtime = Runtime.getRuntime();
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(document))) {
+            unmarshaller.unmarshalItems(inputStream, "employees/employee", Employee.class, employee -> {
+                bh.consume(employee);
+                if (++count[0] % HEAP_SAMPLE_ITEMS == 0) {
+                    heapUsage.sample(runtime);
+                }
+            });
+        }
+        bh.consume(count[0]);
+    }
+
+    /*
+     * Write employees with phone numbers until the document reaches its size.
+     */
+    private void writeDocument() throws Exception {
+        long size = documentMegabytes * 1024L * 1024L;
+        boolean json = "json".equals(mediaType);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(document), StandardCharsets.UTF_8))) {
+            writer.write(json ? "{\"employees\":{\"employee\":[" : "<employees>");
+            long written = 0;
+            for (int index = 0; written < size; index++) {
+                String employee = json ? jsonEmployee(index) : xmlEmployee(index);
+                writer.write(employee);
+                written += employee.length();
+            }
+            writer.write(json ? "]}}" : "</employees>");
+        }
+    }
+
+    private static String xmlEmployee(int index) {
+        StringBuilder employee = new StringBuilder(256);
+        employee.append("<employee><firstName>First").append(index).append("</firstName><lastName>Last").append(index)
+                .append("</lastName><id>").append(index).append("</id>");
+        for (int phone = 0; phone < 3; phone++) {
+            employee.append("<phoneNumbers><number>").append(613000000L + index * 3L + phone)
+                    .append("</number><type>").append(phone == 0 ? "work" : "home").append("</type></phoneNumbers>");
+        }
+        return employee.append("</employee>").toString();
+    }
+
+    private static String jsonEmployee(int index) {
+        StringBuilder employee = new StringBuilder(256);
+        if (index > 0) {
+            employee.append(',');
+        }
+        employee.append("{\"firstName\":\"First").append(index).append("\",\"lastName\":\"Last").append(index)
+                .append("\",\"id\":").append(index).append(",\"phoneNumbers\":[");
+        for (int phone = 0; phone < 3; phone++) {
+            if (phone > 0) {
+                employee.append(',');
+            }
+            employee.append("{\"number\":\"").append(613000000L + index * 3L + phone)
+                    .append("\",\"type\":\"").append(phone == 0 ? "work" : "home").append("\"}");
+        }
+        return employee.append("]}").toString();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 Oracle and/or its affiliates. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0,
+ * or the Eclipse Distribution License v. 1.0 which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+// Contributors:
+//     Oracle - initial API and implementation
+package org.eclipse.persistence.testing.perf.moxy.unmarshal;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.MediaType;
+import org.eclipse.persistence.testing.perf.json.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Unmarshals a generated document of many employees, each with several phone numbers, XML or JSON.
+ * Every element looks up its mapping among the children of its parent, and every employee and
+ * phone number takes the record of a child object, so the time and the bytes allocated per unmarshal,
+ * reported by the gc profiler (-prof gc), follow the cost of both.
+ */
+@State(Scope.Benchmark)
+public class UnmarshalRecordBenchmark {
+
+    private static final int EMPLOYEES = 2000;
+
+    @XmlRootElement
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class Employees {
+        public List<Employee> employee;
+    }
+
+    @Param({"xml", "json"})
+    public String mediaType;
+
+    private JAXBContext jaxbContext;
+    private byte[] document;
+
+    @Setup(Level.Trial)
+    public void prepare() throws Exception {
+        jaxbContext = JAXBContextFactory.createContext(new Class[] {Employees.class}, null);
+        document = buildDocument("json".equals(mediaType)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void testUnmarshal(Blackhole bh) throws Exception {
+        bh.consume(unmarshal());
+    }
+
+    private Object unmarshal() throws Exception {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        if ("json".equals(mediaType)) {
+            unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        }
+        return unmarshaller.unmarshal(new StreamSource(new ByteArrayInputStream(document)), Employees.class).getValue();
+    }
+
+    /*
+     * Return the employees with phone numbers.
+     */
+    private static String buildDocument(boolean json) {
+        StringBuilder document = new StringBuilder(EMPLOYEES * 256);
+        document.append(json ? "{\"employees\":{\"employee\":[" : "<employees>");
+        for (int index = 0; index < EMPLOYEES; index++) {
+            if (json) {
+                if (index > 0) {
+                    document.append(',');
+                }
+                document.append("{\"firstName\":\"First").append(index).append("\",\"lastName\":\"Last").append(index)
+                        .append("\",\"id\":").append(index).append(",\"phoneNumbers\":[");
+            } else {
+                document.append("<employee><firstName>First").append(index).append("</firstName><lastName>Last").append(index)
+                        .append("</lastName><id>").append(index).append("</id>");
+            }
+            for (int phone = 0; phone < 3; phone++) {
+                String number = String.valueOf(613000000L + index * 3L + phone);
+                String type = phone == 0 ? "work" : "home";
+                if (json) {
+                    document.append(phone > 0 ? ",{" : "{").append("\"number\":\"").append(number)
+                            .append("\",\"type\":\"").append(type).append("\"}");
+                } else {
+                    document.append("<phoneNumbers><number>").append(number)
+                            .append("</number><type>").append(type).append("</type></phoneNumbers>");
+                }
+            }
+            document.append(json ? "]}" : "</employee>");
+        }
+        return document.append(json ? "]}}" : "</employees>").toString();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2020 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2021 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
@@ -80,6 +80,14 @@ public void testWorkOrderOutputStreamMarshal(Blackhole bh) throws Exception {
         marshaller.marshal(doWorkItem, baos);
         bh.consume(baos.toString());
     }
+
+    @Benchmark
+    public void testWorkOrderCompactOutputStreamMarshal(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshal(doWorkItem, baos);
+        bh.consume(baos.toString());
+    }
     @Benchmark
     public void testWorkOrderResponseUnmarshal(Blackhole bh) throws Exception {
         Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
@@ -104,6 +112,14 @@ public void testWorkOrderResponseOutputStreamMarshal(Blackhole bh) throws Except
         marshaller.marshal(doWorkItemResponse, baos);
         bh.consume(baos.toString());
     }
+
+    @Benchmark
+    public void testWorkOrderResponseCompactOutputStreamMarshal(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshal(doWorkItemResponse, baos);
+        bh.consume(baos.toString());
+    }
     private void prepareDoWorkItemResponse() {
         doWorkItemResponse = new DoWorkItemResponse();
         doWorkItemResponse.setReturn(true);